@@ -12,7 +12,8 @@ import com.softwareverde.constable.list.mutable.MutableList;
 public class BlockInflater {
     protected MutableBlock _fromByteArrayReader(final ByteArrayReader byteArrayReader) {
         final BlockHeaderInflater blockHeaderInflater = new BlockHeaderInflater();
-        final TransactionInflater transactionInflater = new TransactionInflater();
+        // NOTE: Block Transactions are re-deflated when stored and relayed, so their serialized bytes are retained.
+        final TransactionInflater transactionInflater = new TransactionInflater(true);
 
         final Integer startPosition = byteArrayReader.getPosition();
 
@@ -0,0 +1,132 @@
+package com.softwareverde.bitcoin.block;
+
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
+import com.softwareverde.bitcoin.server.main.BitcoinConstants;
+import com.softwareverde.bitcoin.transaction.TransactionView;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+
+/**
+ * A read-only Block backed directly by its serialized bytes.
+ *  Upon creation the bytes are scanned once to record the offset of each Transaction; the BlockHeader and Transactions
+ *  are only decoded when requested, and each Transaction is provided as a TransactionView of its range of the Block's bytes
+ *  rather than as a copy or a full object graph.
+ *  The provided bytes must not be modified after the view is created.
+ */
+public class BlockView {
+    /**
+     * Returns a view of the serialized Block, or null if the bytes are not exactly one well-formed Block.
+     */
+    public static BlockView wrap(final ByteArray bytes) {
+        if (bytes == null) { return null; }
+
+        final int byteCount = bytes.getByteCount();
+        final int headerByteCount = BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT;
+        if (byteCount <= headerByteCount) { return null; }
+
+        final int transactionCount;
+        int position = headerByteCount;
+        {
+            final ByteArrayReader byteArrayReader = new ByteArrayReader(MutableByteArray.wrap(bytes.getBytes(position, Math.min(9, (byteCount - position)))));
+            final ByteArrayReader.CompactVariableLengthInteger variableLengthInteger = byteArrayReader.peakVariableLengthInteger();
+            if (byteArrayReader.didOverflow()) { return null; }
+            if ( (variableLengthInteger.value < 0L) || (variableLengthInteger.value > BitcoinConstants.getMaxTransactionCountPerBlock()) ) { return null; }
+
+            transactionCount = (int) variableLengthInteger.value;
+            position += variableLengthInteger.bytesConsumedCount;
+        }
+
+        final int[] transactionOffsets = new int[transactionCount + 1];
+        for (int i = 0; i < transactionCount; ++i) {
+            transactionOffsets[i] = position;
+
+            final Integer transactionByteCount = TransactionView.getTransactionByteCount(bytes, position);
+            if (transactionByteCount == null) { return null; }
+
+            position += transactionByteCount;
+        }
+        transactionOffsets[transactionCount] = position;
+
+        if (position != byteCount) { return null; }
+
+        return new BlockView(bytes, transactionOffsets);
+    }
+
+    protected final ByteArray _bytes;
+    protected final int[] _transactionOffsets;
+
+    protected Sha256Hash _cachedHash = null;
+
+    protected BlockView(final ByteArray bytes, final int[] transactionOffsets) {
+        _bytes = bytes;
+        _transactionOffsets = transactionOffsets;
+    }
+
+    public Sha256Hash getHash() {
+        final Sha256Hash cachedHash = _cachedHash;
+        if (cachedHash != null) { return cachedHash; }
+
+        final ByteArray blockHeaderBytes = MutableByteArray.wrap(_bytes.getBytes(0, BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT));
+        final Sha256Hash hash = HashUtil.doubleSha256(blockHeaderBytes).toReversedEndian();
+        _cachedHash = hash;
+        return hash;
+    }
+
+    public BlockHeader getBlockHeader() {
+        final BlockHeaderInflater blockHeaderInflater = new BlockHeaderInflater();
+        return blockHeaderInflater.fromBytes(MutableByteArray.wrap(_bytes.getBytes(0, BlockHeaderInflater.BLOCK_HEADER_BYTE_COUNT)));
+    }
+
+    public Integer getByteCount() {
+        return _bytes.getByteCount();
+    }
+
+    public Integer getTransactionCount() {
+        return (_transactionOffsets.length - 1);
+    }
+
+    public Integer getTransactionByteCount(final Integer transactionIndex) {
+        return (_transactionOffsets[transactionIndex + 1] - _transactionOffsets[transactionIndex]);
+    }
+
+    public Sha256Hash getTransactionHash(final Integer transactionIndex) {
+        final int startPosition = _transactionOffsets[transactionIndex];
+        return TransactionView.calculateHash(_bytes, startPosition, this.getTransactionByteCount(transactionIndex));
+    }
+
+    public List<Sha256Hash> getTransactionHashes() {
+        final int transactionCount = this.getTransactionCount();
+        final ImmutableListBuilder<Sha256Hash> transactionHashes = new ImmutableListBuilder<>(transactionCount);
+        for (int i = 0; i < transactionCount; ++i) {
+            transactionHashes.add(this.getTransactionHash(i));
+        }
+        return transactionHashes.build();
+    }
+
+    public TransactionView getTransaction(final Integer transactionIndex) {
+        final int startPosition = _transactionOffsets[transactionIndex];
+        return TransactionView.wrap(_bytes, startPosition, this.getTransactionByteCount(transactionIndex));
+    }
+
+    /**
+     * Returns the views of up to transactionCount Transactions, beginning at startIndex.
+     */
+    public List<TransactionView> getTransactions(final Integer startIndex, final Integer transactionCount) {
+        final int endIndex = Math.min((startIndex + transactionCount), this.getTransactionCount());
+        final ImmutableListBuilder<TransactionView> transactions = new ImmutableListBuilder<>(Math.max(0, (endIndex - startIndex)));
+        for (int i = startIndex; i < endIndex; ++i) {
+            transactions.add(this.getTransaction(i));
+        }
+        return transactions.build();
+    }
+
+    public ByteArray getBytes() {
+        return _bytes;
+    }
+}
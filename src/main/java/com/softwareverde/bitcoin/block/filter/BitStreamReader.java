@@ -0,0 +1,91 @@
+package com.softwareverde.bitcoin.block.filter;
+
+/**
+ * Reads bits, most-significant bit first, from a byte array beginning at a byte offset.
+ *  Reading beyond the end of the array sets the overflow flag and yields zero-bits.
+ *  Bits are consumed from a left-aligned 64-bit buffer so that unary runs and fixed-width values are decoded
+ *  a word at a time rather than a bit at a time, which dominates the cost of matching Golomb-coded sets.
+ */
+public class BitStreamReader {
+    protected final byte[] _bytes;
+    protected int _byteIndex;
+    protected long _buffer = 0L; // The next unread bits, left-aligned; bits beyond _bufferBitCount are zero.
+    protected int _bufferBitCount = 0;
+    protected boolean _didOverflow = false;
+
+    /**
+     * Loads whole bytes into the buffer until it cannot hold another byte or the array is exhausted.
+     */
+    protected void _fillBuffer() {
+        while ( (_bufferBitCount <= 56) && (_byteIndex < _bytes.length) ) {
+            final long value = (_bytes[_byteIndex] & 0xFFL);
+            _buffer |= (value << (56 - _bufferBitCount));
+            _bufferBitCount += 8;
+            _byteIndex += 1;
+        }
+    }
+
+    protected void _consumeBits(final int bitCount) {
+        _buffer = (bitCount < 64 ? (_buffer << bitCount) : 0L);
+        _bufferBitCount -= bitCount;
+    }
+
+    public BitStreamReader(final byte[] bytes, final Integer byteOffset) {
+        _bytes = bytes;
+        _byteIndex = byteOffset;
+    }
+
+    public boolean readBit() {
+        return (this.readBits(1) != 0L);
+    }
+
+    /**
+     * Reads bitCount bits (at most 64) as an unsigned number.
+     */
+    public long readBits(final int bitCount) {
+        long value = 0L;
+        int remainingBitCount = bitCount;
+        while (remainingBitCount > 0) {
+            _fillBuffer();
+            if (_bufferBitCount == 0) {
+                _didOverflow = true;
+                return (remainingBitCount < 64 ? (value << remainingBitCount) : 0L);
+            }
+
+            final int readBitCount = Math.min(remainingBitCount, _bufferBitCount);
+            final long bits = (_buffer >>> (64 - readBitCount));
+            value = (readBitCount < 64 ? ((value << readBitCount) | bits) : bits);
+            _consumeBits(readBitCount);
+            remainingBitCount -= readBitCount;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a unary number: the count of one-bits preceding the next zero-bit.
+     */
+    public long readUnary() {
+        long value = 0L;
+        while (true) {
+            _fillBuffer();
+            if (_bufferBitCount == 0) {
+                _didOverflow = true;
+                return value;
+            }
+
+            // The unused low bits of the buffer are zero, so the run of leading one-bits never extends beyond _bufferBitCount.
+            final int oneBitCount = Long.numberOfLeadingZeros(~_buffer);
+            if (oneBitCount < _bufferBitCount) {
+                _consumeBits(oneBitCount + 1);
+                return (value + oneBitCount);
+            }
+
+            value += oneBitCount;
+            _consumeBits(oneBitCount);
+        }
+    }
+
+    public Boolean didOverflow() {
+        return _didOverflow;
+    }
+}
@@ -0,0 +1,78 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+
+/**
+ * Appends bits to a growable buffer, most-significant bit first.
+ */
+public class BitStreamWriter {
+    protected byte[] _bytes;
+    protected long _bitCount = 0L;
+
+    protected void _ensureCapacity(final long bitCount) {
+        final long requiredByteCount = ((bitCount + 7L) / 8L);
+        if (requiredByteCount <= _bytes.length) { return; }
+
+        final int newByteCount = (int) Math.max(requiredByteCount, (_bytes.length * 2L));
+        final byte[] bytes = new byte[newByteCount];
+        System.arraycopy(_bytes, 0, bytes, 0, _bytes.length);
+        _bytes = bytes;
+    }
+
+    public BitStreamWriter() {
+        this(32);
+    }
+
+    public BitStreamWriter(final Integer initialByteCount) {
+        _bytes = new byte[Math.max(1, initialByteCount)];
+    }
+
+    public void writeBit(final boolean bit) {
+        _ensureCapacity(_bitCount + 1L);
+        if (bit) {
+            final int byteIndex = (int) (_bitCount >>> 3);
+            final int bitIndex = (int) (_bitCount & 0x07L);
+            _bytes[byteIndex] |= (byte) (0x80 >>> bitIndex);
+        }
+        _bitCount += 1L;
+    }
+
+    /**
+     * Writes the lowest bitCount bits of value, most-significant bit first.
+     */
+    public void writeBits(final long value, final int bitCount) {
+        _ensureCapacity(_bitCount + bitCount);
+        for (int i = (bitCount - 1); i >= 0; --i) {
+            final boolean bit = (((value >>> i) & 0x01L) != 0L);
+            writeBit(bit);
+        }
+    }
+
+    /**
+     * Writes value as a unary number: value one-bits followed by a single zero-bit.
+     */
+    public void writeUnary(final long value) {
+        _ensureCapacity(_bitCount + value + 1L);
+        for (long i = 0L; i < value; ++i) {
+            writeBit(true);
+        }
+        writeBit(false);
+    }
+
+    public Long getBitCount() {
+        return _bitCount;
+    }
+
+    /**
+     * Returns the written bits, padded with zero-bits to the next byte boundary.
+     */
+    public ByteArray toBytes() {
+        final int byteCount = (int) ((_bitCount + 7L) / 8L);
+        final MutableByteArray byteArray = new MutableByteArray(byteCount);
+        for (int i = 0; i < byteCount; ++i) {
+            byteArray.setByte(i, _bytes[i]);
+        }
+        return byteArray;
+    }
+}
@@ -0,0 +1,90 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+
+/**
+ * A BIP-158 compact block filter.
+ *  Filter hashes and filter headers are represented like block hashes, in big-endian (display) byte order,
+ *  and are serialized in little-endian byte order.
+ */
+public class BlockFilter {
+    public static final Integer KEY_BYTE_COUNT = 16;
+
+    /**
+     * The filter's SipHash key is the first 16 bytes of the block hash in little-endian byte order.
+     */
+    public static ByteArray getKey(final Sha256Hash blockHash) {
+        final ByteArray littleEndianBlockHash = blockHash.toReversedEndian();
+        return MutableByteArray.wrap(littleEndianBlockHash.getBytes(0, KEY_BYTE_COUNT));
+    }
+
+    public static Sha256Hash calculateFilterHash(final ByteArray filterBytes) {
+        return HashUtil.doubleSha256(filterBytes).toReversedEndian();
+    }
+
+    /**
+     * Returns the filter header committing to the filter and all previous filters: dSHA256(filterHash || previousFilterHeader).
+     *  The previous filter header of the genesis block is all zeroes.
+     */
+    public static Sha256Hash calculateFilterHeader(final Sha256Hash filterHash, final Sha256Hash previousFilterHeader) {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendBytes(filterHash.toReversedEndian());
+        byteArrayBuilder.appendBytes(previousFilterHeader.toReversedEndian());
+        return HashUtil.doubleSha256(MutableByteArray.wrap(byteArrayBuilder.build())).toReversedEndian();
+    }
+
+    protected final BlockFilterType _filterType;
+    protected final Sha256Hash _blockHash;
+    protected final ByteArray _bytes;
+    protected GolombCodedSet _golombCodedSet;
+
+    public BlockFilter(final BlockFilterType filterType, final Sha256Hash blockHash, final ByteArray bytes) {
+        _filterType = filterType;
+        _blockHash = blockHash.asConst();
+        _bytes = bytes.asConst();
+    }
+
+    protected BlockFilter(final BlockFilterType filterType, final Sha256Hash blockHash, final GolombCodedSet golombCodedSet) {
+        _filterType = filterType;
+        _blockHash = blockHash.asConst();
+        _bytes = golombCodedSet.getBytes();
+        _golombCodedSet = golombCodedSet;
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public Sha256Hash getBlockHash() {
+        return _blockHash;
+    }
+
+    /**
+     * Returns the decodable set, or null if the filter is malformed.
+     */
+    public synchronized GolombCodedSet getGolombCodedSet() {
+        if (_golombCodedSet == null) {
+            final ByteArray key = BlockFilter.getKey(_blockHash);
+            _golombCodedSet = GolombCodedSet.fromBytes(key, _bytes, _filterType.p, _filterType.m);
+        }
+
+        return _golombCodedSet;
+    }
+
+    public Sha256Hash getFilterHash() {
+        return BlockFilter.calculateFilterHash(_bytes);
+    }
+
+    public Sha256Hash calculateFilterHeader(final Sha256Hash previousFilterHeader) {
+        final Sha256Hash filterHash = BlockFilter.calculateFilterHash(_bytes);
+        return BlockFilter.calculateFilterHeader(filterHash, previousFilterHeader);
+    }
+
+    public ByteArray getBytes() {
+        return _bytes;
+    }
+}
@@ -0,0 +1,61 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.transaction.script.opcode.Opcode;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * Collects the items of a BIP-158 basic filter: the LockingScript of every output created by the block
+ *  (excluding empty and OP_RETURN scripts) and the LockingScript of every output spent by the block.
+ *  Since the spent outputs are not part of the block, they must be provided by the caller via ::addSpentOutputScript.
+ */
+public class BlockFilterBuilder {
+    protected static Boolean _isExcludedScript(final ByteArray scriptBytes) {
+        if (scriptBytes.isEmpty()) { return true; }
+
+        final byte firstByte = scriptBytes.getByte(0);
+        return Opcode.RETURN.matchesByte(firstByte);
+    }
+
+    protected final MutableList<ByteArray> _items = new MutableList<>();
+
+    public void addBlockOutputScripts(final Block block) {
+        for (final Transaction transaction : block.getTransactions()) {
+            for (final TransactionOutput transactionOutput : transaction.getTransactionOutputs()) {
+                final LockingScript lockingScript = transactionOutput.getLockingScript();
+                final ByteArray scriptBytes = lockingScript.getBytes();
+                if (_isExcludedScript(scriptBytes)) { continue; }
+
+                _items.add(scriptBytes);
+            }
+        }
+    }
+
+    public void addSpentOutputScript(final LockingScript lockingScript) {
+        final ByteArray scriptBytes = lockingScript.getBytes();
+        if (scriptBytes.isEmpty()) { return; }
+
+        _items.add(scriptBytes);
+    }
+
+    public List<ByteArray> getItems() {
+        return _items;
+    }
+
+    public BlockFilter build(final Sha256Hash blockHash) {
+        final BlockFilterType filterType = BlockFilterType.BASIC;
+        final ByteArray key = BlockFilter.getKey(blockHash);
+        final GolombCodedSet golombCodedSet = GolombCodedSet.build(key, _items, filterType.p, filterType.m);
+        return new BlockFilter(filterType, blockHash, golombCodedSet);
+    }
+
+    public void clear() {
+        _items.clear();
+    }
+}
@@ -0,0 +1,53 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * The filter hashes of a contiguous range of blocks ending at stopBlockHash, and the filter header of the block preceding the range.
+ *  The filter header of each block within the range is derived by chaining its filter hash onto the previous filter header.
+ */
+public class BlockFilterHeaders {
+    protected final BlockFilterType _filterType;
+    protected final Sha256Hash _stopBlockHash;
+    protected final Sha256Hash _previousFilterHeader;
+    protected final List<Sha256Hash> _filterHashes;
+
+    public BlockFilterHeaders(final BlockFilterType filterType, final Sha256Hash stopBlockHash, final Sha256Hash previousFilterHeader, final List<Sha256Hash> filterHashes) {
+        _filterType = filterType;
+        _stopBlockHash = stopBlockHash.asConst();
+        _previousFilterHeader = previousFilterHeader.asConst();
+        _filterHashes = filterHashes.asConst();
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public Sha256Hash getStopBlockHash() {
+        return _stopBlockHash;
+    }
+
+    public Sha256Hash getPreviousFilterHeader() {
+        return _previousFilterHeader;
+    }
+
+    public List<Sha256Hash> getFilterHashes() {
+        return _filterHashes;
+    }
+
+    /**
+     * Returns the filter header of each block within the range, in block height order.
+     */
+    public List<Sha256Hash> calculateFilterHeaders() {
+        final ImmutableListBuilder<Sha256Hash> filterHeaders = new ImmutableListBuilder<>(_filterHashes.getCount());
+        Sha256Hash previousFilterHeader = _previousFilterHeader;
+        for (final Sha256Hash filterHash : _filterHashes) {
+            final Sha256Hash filterHeader = BlockFilter.calculateFilterHeader(filterHash, previousFilterHeader);
+            filterHeaders.add(filterHeader);
+            previousFilterHeader = filterHeader;
+        }
+        return filterHeaders.build();
+    }
+}
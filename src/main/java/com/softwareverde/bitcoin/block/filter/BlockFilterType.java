@@ -0,0 +1,25 @@
+package com.softwareverde.bitcoin.block.filter;
+
+public enum BlockFilterType {
+    BASIC((byte) 0x00, 19, 784931L);
+
+    public static BlockFilterType fromByte(final byte value) {
+        for (final BlockFilterType blockFilterType : BlockFilterType.values()) {
+            if (blockFilterType.value == value) {
+                return blockFilterType;
+            }
+        }
+
+        return null;
+    }
+
+    public final byte value;
+    public final Integer p;
+    public final Long m;
+
+    BlockFilterType(final byte value, final Integer p, final Long m) {
+        this.value = value;
+        this.p = p;
+        this.m = m;
+    }
+}
@@ -0,0 +1,189 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.siphash.SipHashUtil;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * A Golomb-coded set, as specified by BIP-158.
+ *  Each item is hashed with SipHash-2-4 and mapped to the range [0, N * M), where N is the number of items.
+ *  The sorted values are then delta-encoded with Golomb-Rice coding using the parameter P.
+ *  The serialized form is the CompactSize item count followed by the Golomb-Rice bit stream.
+ *  Matching requires the same key, P, and M that were used to build the set.
+ */
+public class GolombCodedSet {
+    /**
+     * Returns the upper 64 bits of the unsigned 128-bit product of a and b.
+     */
+    public static long multiplyHighUnsigned(final long a, final long b) {
+        final long aLow = (a & 0xFFFFFFFFL);
+        final long aHigh = (a >>> 32);
+        final long bLow = (b & 0xFFFFFFFFL);
+        final long bHigh = (b >>> 32);
+
+        final long lowLow = (aLow * bLow);
+        final long highLow = ((aHigh * bLow) + (lowLow >>> 32));
+        final long lowHigh = ((highLow & 0xFFFFFFFFL) + (aLow * bHigh));
+
+        return ((aHigh * bHigh) + (highLow >>> 32) + (lowHigh >>> 32));
+    }
+
+    /**
+     * Maps the item's SipHash into the range [0, range) without a modulo, as specified by BIP-158.
+     */
+    public static long hashToRange(final long k0, final long k1, final ByteArray item, final long range) {
+        final long hash = SipHashUtil.sipHash24(k0, k1, item);
+        return GolombCodedSet.multiplyHighUnsigned(hash, range);
+    }
+
+    /**
+     * Builds the set from the provided items; duplicate items are only included once.
+     *  The key must be 16 bytes.
+     */
+    public static GolombCodedSet build(final ByteArray key, final List<ByteArray> items, final Integer p, final Long m) {
+        final HashSet<ByteArray> uniqueItems = new HashSet<>(items.getCount());
+        for (final ByteArray item : items) {
+            uniqueItems.add(item.asConst());
+        }
+
+        final long k0 = SipHashUtil.readKey0(key);
+        final long k1 = SipHashUtil.readKey1(key);
+
+        final int itemCount = uniqueItems.size();
+        final long range = (itemCount * m);
+
+        final long[] values = new long[itemCount];
+        int index = 0;
+        for (final ByteArray item : uniqueItems) {
+            values[index] = GolombCodedSet.hashToRange(k0, k1, item, range);
+            index += 1;
+        }
+        Arrays.sort(values); // NOTE: Values are always less than 2^63, so a signed sort is sufficient.
+
+        final BitStreamWriter bitStreamWriter = new BitStreamWriter(((itemCount * (p + 2)) / 8) + 1);
+        long previousValue = 0L;
+        for (final long value : values) {
+            final long delta = (value - previousValue);
+            bitStreamWriter.writeUnary(delta >>> p);
+            bitStreamWriter.writeBits(delta, p);
+            previousValue = value;
+        }
+
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(itemCount));
+        byteArrayBuilder.appendBytes(bitStreamWriter.toBytes());
+        return new GolombCodedSet(key, MutableByteArray.wrap(byteArrayBuilder.build()), (long) itemCount, p, m);
+    }
+
+    /**
+     * Inflates a serialized set.  Returns null if the item count cannot be read.
+     */
+    public static GolombCodedSet fromBytes(final ByteArray key, final ByteArray bytes, final Integer p, final Long m) {
+        if (bytes.isEmpty()) { return null; }
+
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+        final Long itemCount = byteArrayReader.readVariableLengthInteger();
+        if (byteArrayReader.didOverflow()) { return null; }
+        if ( (itemCount < 0L) || (itemCount > (Long.MAX_VALUE / m)) ) { return null; }
+
+        return new GolombCodedSet(key, bytes, itemCount, p, m);
+    }
+
+    protected final long _k0;
+    protected final long _k1;
+    protected final ByteArray _bytes;
+    protected final Long _itemCount;
+    protected final Integer _p;
+    protected final Long _m;
+
+    protected GolombCodedSet(final ByteArray key, final ByteArray bytes, final Long itemCount, final Integer p, final Long m) {
+        _k0 = SipHashUtil.readKey0(key);
+        _k1 = SipHashUtil.readKey1(key);
+        _bytes = bytes.asConst();
+        _itemCount = itemCount;
+        _p = p;
+        _m = m;
+    }
+
+    protected BitStreamReader _newBitStreamReader() {
+        final int itemCountByteCount = ByteUtil.variableLengthIntegerToBytes(_itemCount).length;
+        return new BitStreamReader(_bytes.getBytes(), itemCountByteCount);
+    }
+
+    /**
+     * Returns true if any of the (sorted) targets is within the set.
+     *  Each value of the set is decoded at most once.
+     */
+    protected Boolean _matchesAny(final long[] sortedTargets) {
+        if (sortedTargets.length == 0) { return false; }
+
+        final BitStreamReader bitStreamReader = _newBitStreamReader();
+        int targetIndex = 0;
+        long value = 0L;
+        for (long i = 0L; i < _itemCount; ++i) {
+            final long quotient = bitStreamReader.readUnary();
+            final long remainder = bitStreamReader.readBits(_p);
+            if (bitStreamReader.didOverflow()) { return false; }
+
+            value += ((quotient << _p) + remainder);
+
+            while (sortedTargets[targetIndex] < value) {
+                targetIndex += 1;
+                if (targetIndex >= sortedTargets.length) { return false; }
+            }
+
+            if (sortedTargets[targetIndex] == value) { return true; }
+        }
+
+        return false;
+    }
+
+    public Long getItemCount() {
+        return _itemCount;
+    }
+
+    public Integer getP() {
+        return _p;
+    }
+
+    public Long getM() {
+        return _m;
+    }
+
+    public Boolean matches(final ByteArray item) {
+        if (_itemCount == 0L) { return false; }
+
+        final long range = (_itemCount * _m);
+        final long target = GolombCodedSet.hashToRange(_k0, _k1, item, range);
+        return _matchesAny(new long[] { target });
+    }
+
+    public Boolean matchesAny(final List<ByteArray> items) {
+        if (_itemCount == 0L) { return false; }
+
+        final long range = (_itemCount * _m);
+        final long[] targets = new long[items.getCount()];
+        int index = 0;
+        for (final ByteArray item : items) {
+            targets[index] = GolombCodedSet.hashToRange(_k0, _k1, item, range);
+            index += 1;
+        }
+        Arrays.sort(targets);
+
+        return _matchesAny(targets);
+    }
+
+    /**
+     * Returns the serialized set: the CompactSize item count followed by the Golomb-Rice bit stream.
+     */
+    public ByteArray getBytes() {
+        return _bytes;
+    }
+}
@@ -288,6 +288,39 @@ public class NodeJsonRpcConnection implements AutoCloseable {
         return _executeJsonRequest(rpcRequestJson);
     }
 
+    protected Json _getAddresses(final List<Address> addresses, final List<Sha256Hash> scriptHashes, final Boolean shouldIncludeTransactionHashes, final Boolean shouldIncludeUnspentOutputs) {
+        if (_jsonSocket == null) { return null; } // Socket was unable to connect.
+
+        final Json rpcParametersJson = new Json();
+        if (addresses != null) {
+            final Json addressesJson = new Json(true);
+            for (final Address address : addresses) {
+                addressesJson.add(address.toBase58CheckEncoded());
+            }
+            rpcParametersJson.put("addresses", addressesJson);
+        }
+        if (scriptHashes != null) {
+            final Json scriptHashesJson = new Json(true);
+            for (final Sha256Hash scriptHash : scriptHashes) {
+                scriptHashesJson.add(scriptHash);
+            }
+            rpcParametersJson.put("scriptHashes", scriptHashesJson);
+        }
+        if (shouldIncludeTransactionHashes != null) {
+            rpcParametersJson.put("includeTransactionHashes", (shouldIncludeTransactionHashes ? 1 : 0));
+        }
+        if (shouldIncludeUnspentOutputs != null) {
+            rpcParametersJson.put("includeUnspentOutputs", (shouldIncludeUnspentOutputs ? 1 : 0));
+        }
+
+        final Json rpcRequestJson = new Json();
+        rpcRequestJson.put("method", "GET");
+        rpcRequestJson.put("query", "ADDRESSES");
+        rpcRequestJson.put("parameters", rpcParametersJson);
+
+        return _executeJsonRequest(rpcRequestJson);
+    }
+
     public NodeJsonRpcConnection(final String hostname, final Integer port, final ThreadPool threadPool) {
         this(
             hostname,
@@ -481,6 +514,25 @@ public class NodeJsonRpcConnection implements AutoCloseable {
         return _getAddressBalance(null, scriptHash);
     }
 
+    /**
+     * Returns the balances of all of the provided addresses in a single request.
+     */
+    public Json getAddressBalances(final List<Address> addresses) {
+        return _getAddresses(addresses, null, null, null);
+    }
+
+    public Json getScriptHashBalances(final List<Sha256Hash> scriptHashes) {
+        return _getAddresses(null, scriptHashes, null, null);
+    }
+
+    /**
+     * Returns the balances, and optionally the transaction hashes and unspent outputs, of all of the provided addresses and scriptHashes in a single request.
+     *  Either list may be null.
+     */
+    public Json getAddresses(final List<Address> addresses, final List<Sha256Hash> scriptHashes, final Boolean includeTransactionHashes, final Boolean includeUnspentOutputs) {
+        return _getAddresses(addresses, scriptHashes, includeTransactionHashes, includeUnspentOutputs);
+    }
+
     public Json getBlock(final Sha256Hash blockHash) {
         if (_jsonSocket == null) { return null; } // Socket was unable to connect.
 
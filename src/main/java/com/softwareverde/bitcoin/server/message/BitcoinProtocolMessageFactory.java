@@ -35,6 +35,12 @@ import com.softwareverde.bitcoin.server.message.type.query.address.QueryAddressB
 import com.softwareverde.bitcoin.server.message.type.query.address.QueryAddressBlocksMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.block.QueryBlocksMessage;
 import com.softwareverde.bitcoin.server.message.type.query.block.QueryBlocksMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterCheckpointMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterCheckpointMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterHeadersMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFiltersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFiltersMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.header.RequestBlockHeadersMessage;
 import com.softwareverde.bitcoin.server.message.type.query.header.RequestBlockHeadersMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.mempool.QueryUnconfirmedTransactionsMessage;
@@ -49,6 +55,12 @@ import com.softwareverde.bitcoin.server.message.type.query.response.block.merkle
 import com.softwareverde.bitcoin.server.message.type.query.response.block.merkle.MerkleBlockMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.response.error.NotFoundResponseMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.error.NotFoundResponseMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterCheckpointMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterCheckpointMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterHeadersMessageInflater;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.response.transaction.TransactionMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.transaction.TransactionMessageInflater;
 import com.softwareverde.bitcoin.server.message.type.query.response.utxo.UtxoCommitmentMessage;
@@ -114,6 +126,12 @@ public class BitcoinProtocolMessageFactory implements ProtocolMessageFactory<Bit
         _commandInflaterMap.put(MessageType.UPDATE_TRANSACTION_BLOOM_FILTER, new UpdateTransactionBloomFilterMessageInflater());
         _commandInflaterMap.put(MessageType.CLEAR_TRANSACTION_BLOOM_FILTER, new ClearTransactionBloomFilterMessageInflater());
         _commandInflaterMap.put(MessageType.DOUBLE_SPEND_PROOF, new DoubleSpendProofMessageInflater());
+        _commandInflaterMap.put(MessageType.QUERY_BLOCK_FILTERS, new QueryBlockFiltersMessageInflater());
+        _commandInflaterMap.put(MessageType.BLOCK_FILTER, new BlockFilterMessageInflater());
+        _commandInflaterMap.put(MessageType.QUERY_BLOCK_FILTER_HEADERS, new QueryBlockFilterHeadersMessageInflater());
+        _commandInflaterMap.put(MessageType.BLOCK_FILTER_HEADERS, new BlockFilterHeadersMessageInflater());
+        _commandInflaterMap.put(MessageType.QUERY_BLOCK_FILTER_CHECKPOINT, new QueryBlockFilterCheckpointMessageInflater());
+        _commandInflaterMap.put(MessageType.BLOCK_FILTER_CHECKPOINT, new BlockFilterCheckpointMessageInflater());
         // Bitcoin Verde Messages
         _commandInflaterMap.put(MessageType.QUERY_ADDRESS_BLOCKS, new QueryAddressBlocksMessageInflater(_masterInflater));
         _commandInflaterMap.put(MessageType.ENABLE_SLP_TRANSACTIONS, new EnableSlpTransactionsMessageInflater());
@@ -271,6 +289,30 @@ public class BitcoinProtocolMessageFactory implements ProtocolMessageFactory<Bit
         return new ClearTransactionBloomFilterMessage();
     }
 
+    public QueryBlockFiltersMessage newQueryBlockFiltersMessage() {
+        return new QueryBlockFiltersMessage();
+    }
+
+    public BlockFilterMessage newBlockFilterMessage() {
+        return new BlockFilterMessage();
+    }
+
+    public QueryBlockFilterHeadersMessage newQueryBlockFilterHeadersMessage() {
+        return new QueryBlockFilterHeadersMessage();
+    }
+
+    public BlockFilterHeadersMessage newBlockFilterHeadersMessage() {
+        return new BlockFilterHeadersMessage();
+    }
+
+    public QueryBlockFilterCheckpointMessage newQueryBlockFilterCheckpointMessage() {
+        return new QueryBlockFilterCheckpointMessage();
+    }
+
+    public BlockFilterCheckpointMessage newBlockFilterCheckpointMessage() {
+        return new BlockFilterCheckpointMessage();
+    }
+
     public QueryAddressBlocksMessage newQueryAddressBlocksMessage() {
         return new QueryAddressBlocksMessage();
     }
@@ -48,6 +48,13 @@ public class MessageType {
 
     public static final MessageType DOUBLE_SPEND_PROOF = new MessageType("dsproof-beta");
 
+    public static final MessageType QUERY_BLOCK_FILTERS = new MessageType("getcfilters");
+    public static final MessageType BLOCK_FILTER = new MessageType("cfilter", true);
+    public static final MessageType QUERY_BLOCK_FILTER_HEADERS = new MessageType("getcfheaders");
+    public static final MessageType BLOCK_FILTER_HEADERS = new MessageType("cfheaders");
+    public static final MessageType QUERY_BLOCK_FILTER_CHECKPOINT = new MessageType("getcfcheckpt");
+    public static final MessageType BLOCK_FILTER_CHECKPOINT = new MessageType("cfcheckpt");
+
     // BitcoinVerde Messages
     public static final MessageType QUERY_ADDRESS_BLOCKS = new MessageType("addrblocks", true);
     public static final MessageType ENABLE_SLP_TRANSACTIONS = new MessageType("sendslp", true);
@@ -38,6 +38,12 @@ public class MessageTypeInflater {
         messageTypes.add(MessageType.UPDATE_TRANSACTION_BLOOM_FILTER);
         messageTypes.add(MessageType.CLEAR_TRANSACTION_BLOOM_FILTER);
         messageTypes.add(MessageType.DOUBLE_SPEND_PROOF);
+        messageTypes.add(MessageType.QUERY_BLOCK_FILTERS);
+        messageTypes.add(MessageType.BLOCK_FILTER);
+        messageTypes.add(MessageType.QUERY_BLOCK_FILTER_HEADERS);
+        messageTypes.add(MessageType.BLOCK_FILTER_HEADERS);
+        messageTypes.add(MessageType.QUERY_BLOCK_FILTER_CHECKPOINT);
+        messageTypes.add(MessageType.BLOCK_FILTER_CHECKPOINT);
         // Bitcoin Verde Messages
         messageTypes.add(MessageType.QUERY_ADDRESS_BLOCKS);
         messageTypes.add(MessageType.ENABLE_SLP_TRANSACTIONS);
@@ -0,0 +1,50 @@
+package com.softwareverde.bitcoin.server.message.type.query.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Requests the filter header of every 1000th block up to the block identified by stopBlockHash (BIP-157 "getcfcheckpt").
+ */
+public class QueryBlockFilterCheckpointMessage extends BitcoinProtocolMessage {
+    protected BlockFilterType _filterType = BlockFilterType.BASIC;
+    protected Sha256Hash _stopBlockHash = Sha256Hash.EMPTY_HASH;
+
+    public QueryBlockFilterCheckpointMessage() {
+        super(MessageType.QUERY_BLOCK_FILTER_CHECKPOINT);
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public void setFilterType(final BlockFilterType filterType) {
+        _filterType = filterType;
+    }
+
+    public Sha256Hash getStopBlockHash() {
+        return _stopBlockHash;
+    }
+
+    public void setStopBlockHash(final Sha256Hash stopBlockHash) {
+        _stopBlockHash = (stopBlockHash != null ? stopBlockHash.asConst() : Sha256Hash.EMPTY_HASH);
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendByte(_filterType.value);
+        byteArrayBuilder.appendBytes(_stopBlockHash, Endian.LITTLE);
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        return (1 + Sha256Hash.BYTE_COUNT);
+    }
+}
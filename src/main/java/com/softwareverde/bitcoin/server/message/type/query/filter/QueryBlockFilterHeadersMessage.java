@@ -0,0 +1,63 @@
+package com.softwareverde.bitcoin.server.message.type.query.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Requests the filter hashes of the blocks from startBlockHeight through the block identified by stopBlockHash, and the filter header preceding them (BIP-157 "getcfheaders").
+ */
+public class QueryBlockFilterHeadersMessage extends BitcoinProtocolMessage {
+    public static final Integer MAX_BLOCK_FILTER_HEADER_COUNT = 2000;
+
+    protected BlockFilterType _filterType = BlockFilterType.BASIC;
+    protected Long _startBlockHeight = 0L;
+    protected Sha256Hash _stopBlockHash = Sha256Hash.EMPTY_HASH;
+
+    public QueryBlockFilterHeadersMessage() {
+        super(MessageType.QUERY_BLOCK_FILTER_HEADERS);
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public void setFilterType(final BlockFilterType filterType) {
+        _filterType = filterType;
+    }
+
+    public Long getStartBlockHeight() {
+        return _startBlockHeight;
+    }
+
+    public void setStartBlockHeight(final Long startBlockHeight) {
+        _startBlockHeight = startBlockHeight;
+    }
+
+    public Sha256Hash getStopBlockHash() {
+        return _stopBlockHash;
+    }
+
+    public void setStopBlockHash(final Sha256Hash stopBlockHash) {
+        _stopBlockHash = (stopBlockHash != null ? stopBlockHash.asConst() : Sha256Hash.EMPTY_HASH);
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendByte(_filterType.value);
+        byteArrayBuilder.appendBytes(ByteUtil.integerToBytes(_startBlockHeight), Endian.LITTLE);
+        byteArrayBuilder.appendBytes(_stopBlockHash, Endian.LITTLE);
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        return (1 + 4 + Sha256Hash.BYTE_COUNT);
+    }
+}
@@ -0,0 +1,31 @@
+package com.softwareverde.bitcoin.server.message.type.query.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class QueryBlockFilterHeadersMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public QueryBlockFilterHeadersMessage fromBytes(final byte[] bytes) {
+        final QueryBlockFilterHeadersMessage queryBlockFilterHeadersMessage = new QueryBlockFilterHeadersMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.QUERY_BLOCK_FILTER_HEADERS);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockFilterType filterType = BlockFilterType.fromByte(byteArrayReader.readByte());
+        if (filterType == null) { return null; }
+
+        queryBlockFilterHeadersMessage.setFilterType(filterType);
+        queryBlockFilterHeadersMessage.setStartBlockHeight(byteArrayReader.readLong(4, Endian.LITTLE));
+        queryBlockFilterHeadersMessage.setStopBlockHash(Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE)));
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return queryBlockFilterHeadersMessage;
+    }
+}
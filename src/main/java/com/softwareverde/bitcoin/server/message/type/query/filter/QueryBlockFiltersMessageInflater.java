@@ -0,0 +1,31 @@
+package com.softwareverde.bitcoin.server.message.type.query.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class QueryBlockFiltersMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public QueryBlockFiltersMessage fromBytes(final byte[] bytes) {
+        final QueryBlockFiltersMessage queryBlockFiltersMessage = new QueryBlockFiltersMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.QUERY_BLOCK_FILTERS);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockFilterType filterType = BlockFilterType.fromByte(byteArrayReader.readByte());
+        if (filterType == null) { return null; }
+
+        queryBlockFiltersMessage.setFilterType(filterType);
+        queryBlockFiltersMessage.setStartBlockHeight(byteArrayReader.readLong(4, Endian.LITTLE));
+        queryBlockFiltersMessage.setStopBlockHash(Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE)));
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return queryBlockFiltersMessage;
+    }
+}
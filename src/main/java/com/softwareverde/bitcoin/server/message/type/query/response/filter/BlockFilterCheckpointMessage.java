@@ -0,0 +1,72 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Contains the filter headers of every 1000th block up to the stop block (BIP-157 "cfcheckpt").
+ */
+public class BlockFilterCheckpointMessage extends BitcoinProtocolMessage {
+    public static final Integer CHECKPOINT_INTERVAL = 1000;
+    public static final Integer MAX_FILTER_HEADER_COUNT = 50000; // NOTE: Covers 50 million blocks while remaining within the maximum (non-block) message size...
+
+    protected BlockFilterType _filterType = BlockFilterType.BASIC;
+    protected Sha256Hash _stopBlockHash = Sha256Hash.EMPTY_HASH;
+    protected final MutableList<Sha256Hash> _filterHeaders = new MutableList<>();
+
+    public BlockFilterCheckpointMessage() {
+        super(MessageType.BLOCK_FILTER_CHECKPOINT);
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public void setFilterType(final BlockFilterType filterType) {
+        _filterType = filterType;
+    }
+
+    public Sha256Hash getStopBlockHash() {
+        return _stopBlockHash;
+    }
+
+    public void setStopBlockHash(final Sha256Hash stopBlockHash) {
+        _stopBlockHash = stopBlockHash.asConst();
+    }
+
+    public void addFilterHeader(final Sha256Hash filterHeader) {
+        if (_filterHeaders.getCount() >= MAX_FILTER_HEADER_COUNT) { return; }
+        _filterHeaders.add(filterHeader.asConst());
+    }
+
+    public List<Sha256Hash> getFilterHeaders() {
+        return _filterHeaders;
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendByte(_filterType.value);
+        byteArrayBuilder.appendBytes(_stopBlockHash, Endian.LITTLE);
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(_filterHeaders.getCount()));
+        for (final Sha256Hash filterHeader : _filterHeaders) {
+            byteArrayBuilder.appendBytes(filterHeader, Endian.LITTLE);
+        }
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        final int filterHeaderCount = _filterHeaders.getCount();
+        final byte[] filterHeaderCountBytes = ByteUtil.variableLengthIntegerToBytes(filterHeaderCount);
+        return (1 + Sha256Hash.BYTE_COUNT + filterHeaderCountBytes.length + (Sha256Hash.BYTE_COUNT * filterHeaderCount));
+    }
+}
@@ -0,0 +1,39 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class BlockFilterCheckpointMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public BlockFilterCheckpointMessage fromBytes(final byte[] bytes) {
+        final BlockFilterCheckpointMessage blockFilterCheckpointMessage = new BlockFilterCheckpointMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.BLOCK_FILTER_CHECKPOINT);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockFilterType filterType = BlockFilterType.fromByte(byteArrayReader.readByte());
+        if (filterType == null) { return null; }
+
+        blockFilterCheckpointMessage.setFilterType(filterType);
+        blockFilterCheckpointMessage.setStopBlockHash(Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE)));
+
+        final Long filterHeaderCount = byteArrayReader.readVariableLengthInteger();
+        if (filterHeaderCount > BlockFilterCheckpointMessage.MAX_FILTER_HEADER_COUNT) { return null; }
+        if ((filterHeaderCount * Sha256Hash.BYTE_COUNT) > byteArrayReader.remainingByteCount()) { return null; }
+
+        for (int i = 0; i < filterHeaderCount; ++i) {
+            final Sha256Hash filterHeader = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE));
+            blockFilterCheckpointMessage.addFilterHeader(filterHeader);
+        }
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return blockFilterCheckpointMessage;
+    }
+}
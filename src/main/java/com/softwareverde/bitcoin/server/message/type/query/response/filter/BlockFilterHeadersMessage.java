@@ -0,0 +1,83 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Contains the filter hashes of a range of blocks and the filter header of the block preceding the range (BIP-157 "cfheaders").
+ *  The filter header of each block in the range may be derived by chaining the filter hashes from previousFilterHeader.
+ */
+public class BlockFilterHeadersMessage extends BitcoinProtocolMessage {
+    public static final Integer MAX_FILTER_HASH_COUNT = QueryBlockFilterHeadersMessage.MAX_BLOCK_FILTER_HEADER_COUNT;
+
+    protected BlockFilterType _filterType = BlockFilterType.BASIC;
+    protected Sha256Hash _stopBlockHash = Sha256Hash.EMPTY_HASH;
+    protected Sha256Hash _previousFilterHeader = Sha256Hash.EMPTY_HASH;
+    protected final MutableList<Sha256Hash> _filterHashes = new MutableList<>();
+
+    public BlockFilterHeadersMessage() {
+        super(MessageType.BLOCK_FILTER_HEADERS);
+    }
+
+    public BlockFilterType getFilterType() {
+        return _filterType;
+    }
+
+    public void setFilterType(final BlockFilterType filterType) {
+        _filterType = filterType;
+    }
+
+    public Sha256Hash getStopBlockHash() {
+        return _stopBlockHash;
+    }
+
+    public void setStopBlockHash(final Sha256Hash stopBlockHash) {
+        _stopBlockHash = stopBlockHash.asConst();
+    }
+
+    public Sha256Hash getPreviousFilterHeader() {
+        return _previousFilterHeader;
+    }
+
+    public void setPreviousFilterHeader(final Sha256Hash previousFilterHeader) {
+        _previousFilterHeader = previousFilterHeader.asConst();
+    }
+
+    public void addFilterHash(final Sha256Hash filterHash) {
+        if (_filterHashes.getCount() >= MAX_FILTER_HASH_COUNT) { return; }
+        _filterHashes.add(filterHash.asConst());
+    }
+
+    public List<Sha256Hash> getFilterHashes() {
+        return _filterHashes;
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendByte(_filterType.value);
+        byteArrayBuilder.appendBytes(_stopBlockHash, Endian.LITTLE);
+        byteArrayBuilder.appendBytes(_previousFilterHeader, Endian.LITTLE);
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(_filterHashes.getCount()));
+        for (final Sha256Hash filterHash : _filterHashes) {
+            byteArrayBuilder.appendBytes(filterHash, Endian.LITTLE);
+        }
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        final int filterHashCount = _filterHashes.getCount();
+        final byte[] filterHashCountBytes = ByteUtil.variableLengthIntegerToBytes(filterHashCount);
+        return (1 + (Sha256Hash.BYTE_COUNT * 2) + filterHashCountBytes.length + (Sha256Hash.BYTE_COUNT * filterHashCount));
+    }
+}
@@ -0,0 +1,40 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class BlockFilterHeadersMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public BlockFilterHeadersMessage fromBytes(final byte[] bytes) {
+        final BlockFilterHeadersMessage blockFilterHeadersMessage = new BlockFilterHeadersMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.BLOCK_FILTER_HEADERS);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockFilterType filterType = BlockFilterType.fromByte(byteArrayReader.readByte());
+        if (filterType == null) { return null; }
+
+        blockFilterHeadersMessage.setFilterType(filterType);
+        blockFilterHeadersMessage.setStopBlockHash(Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE)));
+        blockFilterHeadersMessage.setPreviousFilterHeader(Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE)));
+
+        final Long filterHashCount = byteArrayReader.readVariableLengthInteger();
+        if (filterHashCount > BlockFilterHeadersMessage.MAX_FILTER_HASH_COUNT) { return null; }
+        if ((filterHashCount * Sha256Hash.BYTE_COUNT) > byteArrayReader.remainingByteCount()) { return null; }
+
+        for (int i = 0; i < filterHashCount; ++i) {
+            final Sha256Hash filterHash = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE));
+            blockFilterHeadersMessage.addFilterHash(filterHash);
+        }
+
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        return blockFilterHeadersMessage;
+    }
+}
@@ -0,0 +1,49 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.ByteArrayBuilder;
+import com.softwareverde.util.bytearray.Endian;
+
+/**
+ * Contains a single block filter (BIP-157 "cfilter").
+ */
+public class BlockFilterMessage extends BitcoinProtocolMessage {
+    protected BlockFilter _blockFilter;
+
+    public BlockFilterMessage() {
+        super(MessageType.BLOCK_FILTER);
+    }
+
+    public BlockFilter getBlockFilter() {
+        return _blockFilter;
+    }
+
+    public void setBlockFilter(final BlockFilter blockFilter) {
+        _blockFilter = blockFilter;
+    }
+
+    @Override
+    protected ByteArray _getPayload() {
+        final ByteArray filterBytes = _blockFilter.getBytes();
+
+        final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+        byteArrayBuilder.appendByte(_blockFilter.getFilterType().value);
+        byteArrayBuilder.appendBytes(_blockFilter.getBlockHash(), Endian.LITTLE);
+        byteArrayBuilder.appendBytes(ByteUtil.variableLengthIntegerToBytes(filterBytes.getByteCount()));
+        byteArrayBuilder.appendBytes(filterBytes);
+        return byteArrayBuilder;
+    }
+
+    @Override
+    protected Integer _getPayloadByteCount() {
+        final ByteArray filterBytes = _blockFilter.getBytes();
+        final int filterByteCount = filterBytes.getByteCount();
+        final byte[] filterByteCountBytes = ByteUtil.variableLengthIntegerToBytes(filterByteCount);
+        return (1 + Sha256Hash.BYTE_COUNT + filterByteCountBytes.length + filterByteCount);
+    }
+}
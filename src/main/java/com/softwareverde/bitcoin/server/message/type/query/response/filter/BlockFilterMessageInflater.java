@@ -0,0 +1,36 @@
+package com.softwareverde.bitcoin.server.message.type.query.response.filter;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessageInflater;
+import com.softwareverde.bitcoin.server.message.header.BitcoinProtocolMessageHeader;
+import com.softwareverde.bitcoin.server.message.type.MessageType;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.bytearray.Endian;
+
+public class BlockFilterMessageInflater extends BitcoinProtocolMessageInflater {
+    @Override
+    public BlockFilterMessage fromBytes(final byte[] bytes) {
+        final BlockFilterMessage blockFilterMessage = new BlockFilterMessage();
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+
+        final BitcoinProtocolMessageHeader protocolMessageHeader = _parseHeader(byteArrayReader, MessageType.BLOCK_FILTER);
+        if (protocolMessageHeader == null) { return null; }
+
+        final BlockFilterType filterType = BlockFilterType.fromByte(byteArrayReader.readByte());
+        if (filterType == null) { return null; }
+
+        final Sha256Hash blockHash = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT, Endian.LITTLE));
+
+        final Long filterByteCount = byteArrayReader.readVariableLengthInteger();
+        if (filterByteCount > byteArrayReader.remainingByteCount()) { return null; }
+
+        final MutableByteArray filterBytes = MutableByteArray.wrap(byteArrayReader.readBytes(filterByteCount.intValue()));
+        if (byteArrayReader.didOverflow()) { return null; }
+
+        blockFilterMessage.setBlockFilter(new BlockFilter(filterType, blockHash, filterBytes));
+        return blockFilterMessage;
+    }
+}
@@ -0,0 +1,245 @@
+package com.softwareverde.bitcoin.server.module.node.database.block.header;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegment;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of the blocks table, shared by every BlockHeaderDatabaseManager of a database, and consulted
+ *  before the database for block hash, BlockId, height, and BlockchainSegment lookups.
+ * The index only contains committed state.  Values read from the database are only cached when the read was performed
+ *  outside of a transaction, and only if no write that could have invalidated the value began or completed since the
+ *  read began (see BlockHeaderIndex::beginRead).  Writes are published to the index by their BlockHeaderDatabaseManager
+ *  once its transaction has ended, since a write may still be rolled back.
+ * A block's hash, BlockId, previous BlockId, and height never change once committed, so they are retained indefinitely.
+ *  The BlockchainSegment state (each block's BlockchainSegmentId, the BlockIds at each height per segment, and the
+ *  segment nested set) is held within an immutable-reference snapshot that is replaced, rather than modified, whenever
+ *  the segment structure changes; a reorg does not alter the segment structure.
+ */
+public class BlockHeaderIndex {
+    public static class IndexedBlock {
+        public final BlockId blockId;
+        public final Sha256Hash blockHash;
+        public final BlockId previousBlockId;
+        public final Long blockHeight;
+
+        public IndexedBlock(final BlockId blockId, final Sha256Hash blockHash, final BlockId previousBlockId, final Long blockHeight) {
+            this.blockId = blockId;
+            this.blockHash = blockHash;
+            this.previousBlockId = previousBlockId;
+            this.blockHeight = blockHeight;
+        }
+    }
+
+    protected static class SegmentSnapshot {
+        public final ConcurrentHashMap<BlockId, BlockchainSegmentId> blockchainSegmentIds = new ConcurrentHashMap<>();
+        public final ConcurrentHashMap<BlockchainSegmentId, ConcurrentHashMap<Long, BlockId>> blockIdsAtHeight = new ConcurrentHashMap<>();
+        public volatile Map<BlockchainSegmentId, BlockchainSegment> blockchainSegments = null; // Immutable once set; null if the segments have not been loaded.
+    }
+
+    protected static Boolean isConnected(final BlockchainSegment blockchainSegment0, final BlockchainSegment blockchainSegment1, final BlockRelationship blockRelationship) {
+        final boolean isAncestor = ( (blockchainSegment0.nestedSetLeft <= blockchainSegment1.nestedSetLeft) && (blockchainSegment0.nestedSetRight >= blockchainSegment1.nestedSetRight) );
+        final boolean isDescendant = ( (blockchainSegment0.nestedSetLeft >= blockchainSegment1.nestedSetLeft) && (blockchainSegment0.nestedSetRight <= blockchainSegment1.nestedSetRight) );
+
+        switch (blockRelationship) {
+            case ANCESTOR: { return isAncestor; }
+            case DESCENDANT: { return isDescendant; }
+            default: { return (isAncestor || isDescendant); }
+        }
+    }
+
+    protected final ConcurrentHashMap<Sha256Hash, IndexedBlock> _blocksByHash = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<BlockId, IndexedBlock> _blocksById = new ConcurrentHashMap<>();
+    protected volatile SegmentSnapshot _segmentSnapshot = new SegmentSnapshot();
+
+    // The generation and pending-writer count are guarded by this; the generation is incremented whenever a write begins or ends.
+    protected long _generation = 0L;
+    protected int _pendingWriterCount = 0;
+
+    protected Boolean _isReadCurrent(final Long readGeneration) {
+        if (readGeneration == null) { return false; }
+        return ( (_pendingWriterCount == 0) && (readGeneration == _generation) );
+    }
+
+    /**
+     * Returns the generation that values read from the database must be cached with, or null if values may not be
+     *  cached because a write is in progress.  The generation must be acquired before the database is read.
+     */
+    public synchronized Long beginRead() {
+        if (_pendingWriterCount > 0) { return null; }
+        return _generation;
+    }
+
+    /**
+     * Prevents values from being cached until BlockHeaderIndex::endWrite is invoked, and discards the segment snapshot.
+     *  Must be invoked before the database is modified in any way other than inserting new blocks; every invocation
+     *  must be paired with BlockHeaderIndex::endWrite once the write's transaction has been committed or rolled back.
+     */
+    public synchronized void beginWrite() {
+        _pendingWriterCount += 1;
+        _generation += 1L;
+        _segmentSnapshot = new SegmentSnapshot();
+    }
+
+    public synchronized void endWrite() {
+        _pendingWriterCount = Math.max(0, (_pendingWriterCount - 1));
+        _generation += 1L;
+        _segmentSnapshot = new SegmentSnapshot();
+    }
+
+    public IndexedBlock getBlock(final Sha256Hash blockHash) {
+        if (blockHash == null) { return null; }
+        return _blocksByHash.get(blockHash);
+    }
+
+    public IndexedBlock getBlock(final BlockId blockId) {
+        if (blockId == null) { return null; }
+        return _blocksById.get(blockId);
+    }
+
+    public synchronized void cacheBlock(final Long readGeneration, final BlockId blockId, final Sha256Hash blockHash, final BlockId previousBlockId, final Long blockHeight) {
+        if (! _isReadCurrent(readGeneration)) { return; }
+        if ( (blockId == null) || (blockHash == null) || (blockHeight == null) ) { return; }
+
+        final IndexedBlock indexedBlock = new IndexedBlock(blockId, blockHash.asConst(), previousBlockId, blockHeight);
+        _blocksById.put(blockId, indexedBlock);
+        _blocksByHash.put(indexedBlock.blockHash, indexedBlock);
+    }
+
+    /**
+     * Removes the block from the index; must be invoked (in addition to BlockHeaderIndex::beginWrite) before an existing block is modified.
+     */
+    public synchronized void removeBlock(final BlockId blockId) {
+        final IndexedBlock indexedBlock = _blocksById.remove(blockId);
+        if (indexedBlock != null) {
+            _blocksByHash.remove(indexedBlock.blockHash);
+        }
+    }
+
+    public BlockchainSegmentId getBlockchainSegmentId(final BlockId blockId) {
+        if (blockId == null) { return null; }
+
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        return segmentSnapshot.blockchainSegmentIds.get(blockId);
+    }
+
+    public synchronized void cacheBlockchainSegmentId(final Long readGeneration, final BlockId blockId, final BlockchainSegmentId blockchainSegmentId) {
+        if (! _isReadCurrent(readGeneration)) { return; }
+        if ( (blockId == null) || (blockchainSegmentId == null) ) { return; }
+
+        _segmentSnapshot.blockchainSegmentIds.put(blockId, blockchainSegmentId);
+    }
+
+    public BlockId getBlockIdAtHeight(final BlockchainSegmentId blockchainSegmentId, final Long blockHeight) {
+        if ( (blockchainSegmentId == null) || (blockHeight == null) ) { return null; }
+
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        final Map<Long, BlockId> blockIds = segmentSnapshot.blockIdsAtHeight.get(blockchainSegmentId);
+        if (blockIds == null) { return null; }
+
+        return blockIds.get(blockHeight);
+    }
+
+    /**
+     * Caches the first block (by BlockId) at the height that is connected to the BlockchainSegment.  Inserting a new block
+     *  does not change this block, since the new block's BlockId is greater, so only segment changes invalidate it.
+     */
+    public synchronized void cacheBlockIdAtHeight(final Long readGeneration, final BlockchainSegmentId blockchainSegmentId, final Long blockHeight, final BlockId blockId) {
+        if (! _isReadCurrent(readGeneration)) { return; }
+        if ( (blockchainSegmentId == null) || (blockHeight == null) || (blockId == null) ) { return; }
+
+        ConcurrentHashMap<Long, BlockId> blockIds = _segmentSnapshot.blockIdsAtHeight.get(blockchainSegmentId);
+        if (blockIds == null) {
+            blockIds = new ConcurrentHashMap<>();
+            _segmentSnapshot.blockIdsAtHeight.put(blockchainSegmentId, blockIds);
+        }
+        blockIds.put(blockHeight, blockId);
+    }
+
+    public Boolean hasBlockchainSegments() {
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        return (segmentSnapshot.blockchainSegments != null);
+    }
+
+    /**
+     * Returns true if the BlockchainSegment is within the segment snapshot; false is returned if it is not, or if the
+     *  segments have not been loaded.
+     */
+    public Boolean hasBlockchainSegment(final BlockchainSegmentId blockchainSegmentId) {
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        final Map<BlockchainSegmentId, BlockchainSegment> blockchainSegments = segmentSnapshot.blockchainSegments;
+        if (blockchainSegments == null) { return false; }
+
+        return blockchainSegments.containsKey(blockchainSegmentId);
+    }
+
+    /**
+     * Sets the segment nested set; blockchainSegments must contain every BlockchainSegment.
+     */
+    public synchronized void cacheBlockchainSegments(final Long readGeneration, final List<BlockchainSegment> blockchainSegments) {
+        if (! _isReadCurrent(readGeneration)) { return; }
+
+        final HashMap<BlockchainSegmentId, BlockchainSegment> blockchainSegmentMap = new HashMap<>(blockchainSegments.getCount());
+        for (final BlockchainSegment blockchainSegment : blockchainSegments) {
+            if ( (blockchainSegment.nestedSetLeft == null) || (blockchainSegment.nestedSetRight == null) ) { continue; } // Unnumbered segments are omitted and resolved via the database.
+            blockchainSegmentMap.put(blockchainSegment.id, blockchainSegment);
+        }
+        _segmentSnapshot.blockchainSegments = blockchainSegmentMap;
+    }
+
+    /**
+     * Returns whether the BlockchainSegments are connected, as BlockchainDatabaseManager::areBlockchainSegmentsConnected,
+     *  or null if either segment is not within the segment snapshot.
+     */
+    public Boolean areBlockchainSegmentsConnected(final BlockchainSegmentId blockchainSegmentId0, final BlockchainSegmentId blockchainSegmentId1, final BlockRelationship blockRelationship) {
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        final Map<BlockchainSegmentId, BlockchainSegment> blockchainSegments = segmentSnapshot.blockchainSegments;
+        if (blockchainSegments == null) { return null; }
+
+        final BlockchainSegment blockchainSegment0 = blockchainSegments.get(blockchainSegmentId0);
+        final BlockchainSegment blockchainSegment1 = blockchainSegments.get(blockchainSegmentId1);
+        if ( (blockchainSegment0 == null) || (blockchainSegment1 == null) ) { return null; }
+
+        return BlockHeaderIndex.isConnected(blockchainSegment0, blockchainSegment1, blockRelationship);
+    }
+
+    /**
+     * Returns whether the block is connected to the BlockchainSegment, as BlockHeaderDatabaseManager::isBlockConnectedToChain,
+     *  or null if the block's BlockchainSegment is not indexed.  The block's segment and the nested set are read from
+     *  the same snapshot.
+     */
+    public Boolean isBlockConnectedToChain(final BlockId blockId, final BlockchainSegmentId blockchainSegmentId, final BlockRelationship blockRelationship) {
+        if (blockId == null) { return null; }
+
+        final SegmentSnapshot segmentSnapshot = _segmentSnapshot;
+        final Map<BlockchainSegmentId, BlockchainSegment> blockchainSegments = segmentSnapshot.blockchainSegments;
+        if (blockchainSegments == null) { return null; }
+
+        final BlockchainSegmentId blockBlockchainSegmentId = segmentSnapshot.blockchainSegmentIds.get(blockId);
+        if (blockBlockchainSegmentId == null) { return null; }
+
+        final BlockchainSegment blockchainSegment0 = blockchainSegments.get(blockBlockchainSegmentId);
+        final BlockchainSegment blockchainSegment1 = blockchainSegments.get(blockchainSegmentId);
+        if ( (blockchainSegment0 == null) || (blockchainSegment1 == null) ) { return null; }
+
+        return BlockHeaderIndex.isConnected(blockchainSegment0, blockchainSegment1, blockRelationship);
+    }
+
+    public Integer getBlockCount() {
+        return _blocksById.size();
+    }
+
+    public synchronized void clear() {
+        _blocksById.clear();
+        _blocksByHash.clear();
+        _generation += 1L;
+        _segmentSnapshot = new SegmentSnapshot();
+    }
+}
@@ -7,6 +7,7 @@ import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
 import com.softwareverde.bitcoin.block.header.difficulty.work.BlockWork;
 import com.softwareverde.bitcoin.block.header.difficulty.work.ChainWork;
 import com.softwareverde.bitcoin.block.header.difficulty.work.MutableChainWork;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegment;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
 import com.softwareverde.bitcoin.chain.time.MutableMedianBlockTime;
@@ -21,11 +22,13 @@ import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
 import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderIndex;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.MedianBlockTimeDatabaseManagerUtil;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableList;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
@@ -34,29 +37,238 @@ import com.softwareverde.logging.Logger;
 import com.softwareverde.util.Container;
 import com.softwareverde.util.Util;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
 public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManager {
+    protected static final String INDEXED_BLOCK_COLUMNS = "id, hash, previous_block_id, block_height, blockchain_segment_id";
+
     protected final DatabaseManager _databaseManager;
     protected final CheckpointConfiguration _checkpointConfiguration;
+    protected final BlockHeaderIndex _blockHeaderIndex;
+
+    // The blocks inserted or modified by this manager that have yet to be published to the BlockHeaderIndex, mapped to their previous BlockId (if known).
+    protected final HashMap<BlockId, BlockId> _pendingIndexBlocks = new HashMap<>();
+    protected Boolean _isBlockHeaderIndexWriter = false;
 
     public BlockHeaderDatabaseManagerCore(final DatabaseManager databaseManager, final CheckpointConfiguration checkpointConfiguration) {
+        this(databaseManager, checkpointConfiguration, null);
+    }
+
+    /**
+     * When blockHeaderIndex is provided, it is consulted before the database and is kept up to date with this manager's writes.
+     */
+    public BlockHeaderDatabaseManagerCore(final DatabaseManager databaseManager, final CheckpointConfiguration checkpointConfiguration, final BlockHeaderIndex blockHeaderIndex) {
         _databaseManager = databaseManager;
         _checkpointConfiguration = checkpointConfiguration;
+        _blockHeaderIndex = blockHeaderIndex;
     }
 
-    protected Long _getBlockHeight(final BlockId blockId) throws DatabaseException {
+    /**
+     * Returns true if the DatabaseConnection has an open transaction, or if its state cannot be determined.
+     */
+    protected Boolean _isWithinTransaction() {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Connection connection = databaseConnection.getRawConnection();
+        if (connection == null) { return true; }
+
+        try {
+            return (! connection.getAutoCommit());
+        }
+        catch (final SQLException exception) {
+            return true;
+        }
+    }
+
+    /**
+     * Returns the generation values read from the database should be cached with, or null if they may not be cached.
+     *  Values read within a transaction may be uncommitted, so they are never cached.
+     */
+    protected Long _beginIndexRead() {
+        if (_blockHeaderIndex == null) { return null; }
+        if (_isWithinTransaction()) { return null; }
+
+        return _blockHeaderIndex.beginRead();
+    }
+
+    protected void _cacheIndexedBlock(final Long readGeneration, final Row row) {
+        if (readGeneration == null) { return; }
+
+        final BlockId blockId = BlockId.wrap(row.getLong("id"));
+        final Sha256Hash blockHash = Sha256Hash.wrap(row.getBytes("hash"));
+        final BlockId previousBlockId = BlockId.wrap(row.getLong("previous_block_id"));
+        final Long blockHeight = row.getLong("block_height");
+        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(row.getLong("blockchain_segment_id"));
+
+        _blockHeaderIndex.cacheBlock(readGeneration, blockId, blockHash, previousBlockId, blockHeight);
+        _blockHeaderIndex.cacheBlockchainSegmentId(readGeneration, blockId, blockchainSegmentId);
+    }
+
+    /**
+     * Marks this manager as modifying existing index state (i.e. the segment structure or an existing block), which
+     *  suspends caching into the BlockHeaderIndex until the modification has been committed or rolled back.
+     */
+    protected void _beginBlockHeaderIndexWrite() {
+        if (_blockHeaderIndex == null) { return; }
+        if (_isBlockHeaderIndexWriter) { return; }
+
+        _blockHeaderIndex.beginWrite();
+        _isBlockHeaderIndexWriter = true;
+    }
+
+    protected void _addPendingIndexBlock(final BlockId blockId, final BlockId previousBlockId) {
+        if (_blockHeaderIndex == null) { return; }
+        _pendingIndexBlocks.put(blockId, previousBlockId);
+    }
+
+    /**
+     * Returns true if the block was inserted by this manager and is being assigned its parent's BlockchainSegment,
+     *  which does not change the segment structure.  Any other assignment may be a new (or split) segment.
+     */
+    protected Boolean _isNewBlockOnParentSegment(final BlockId blockId, final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
+        if (! _pendingIndexBlocks.containsKey(blockId)) { return false; }
+
+        final BlockId previousBlockId = _pendingIndexBlocks.get(blockId);
+        if (previousBlockId == null) { return false; }
+
+        final BlockchainSegmentId parentBlockchainSegmentId = _getBlockchainSegmentId(previousBlockId);
+        return Util.areEqual(parentBlockchainSegmentId, blockchainSegmentId);
+    }
+
+    /**
+     * Publishes this manager's writes to the BlockHeaderIndex once its transaction has ended.  The written blocks are
+     *  re-read so that only committed values are published; rolled-back blocks are no longer found.
+     */
+    protected void _publishBlockHeaderIndexWrites(final Boolean discardWrites) {
+        final MutableList<BlockId> blockIds = new MutableList<>(_pendingIndexBlocks.size());
+        for (final BlockId blockId : _pendingIndexBlocks.keySet()) {
+            blockIds.add(blockId);
+        }
+        _pendingIndexBlocks.clear();
+
+        if (_isBlockHeaderIndexWriter) {
+            _isBlockHeaderIndexWriter = false;
+            _blockHeaderIndex.endWrite();
+        }
+
+        if (discardWrites || blockIds.isEmpty()) { return; }
+
+        final Long readGeneration = _blockHeaderIndex.beginRead();
+        if (readGeneration == null) { return; }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<BlockId> batchRunner = new BatchRunner<>(batchSize, false);
+        try {
+            batchRunner.run(blockIds, new BatchRunner.Batch<BlockId>() {
+                @Override
+                public void run(final List<BlockId> blockIds) throws Exception {
+                    final java.util.List<Row> rows = databaseConnection.query(
+                        new Query("SELECT " + INDEXED_BLOCK_COLUMNS + " FROM blocks WHERE id IN (?)")
+                            .setInClauseParameters(blockIds, ValueExtractor.IDENTIFIER)
+                    );
+
+                    for (final Row row : rows) {
+                        _cacheIndexedBlock(readGeneration, row);
+                    }
+                }
+            });
+        }
+        catch (final DatabaseException exception) {
+            // The blocks will instead be indexed when they are next read.
+            Logger.debug(exception);
+        }
+    }
+
+    /**
+     * Publishes any writes whose transaction has ended; invoked before the BlockHeaderIndex is consulted.
+     */
+    protected void _synchronizeBlockHeaderIndex() {
+        if (_blockHeaderIndex == null) { return; }
+        if ( _pendingIndexBlocks.isEmpty() && (! _isBlockHeaderIndexWriter) ) { return; }
+        if (_isWithinTransaction()) { return; }
+
+        _publishBlockHeaderIndexWrites(false);
+    }
+
+    protected BlockHeaderIndex.IndexedBlock _getIndexedBlock(final BlockId blockId) {
+        if (_blockHeaderIndex == null) { return null; }
+
+        _synchronizeBlockHeaderIndex();
+        return _blockHeaderIndex.getBlock(blockId);
+    }
+
+    protected BlockHeaderIndex.IndexedBlock _getIndexedBlock(final Sha256Hash blockHash) {
+        if (_blockHeaderIndex == null) { return null; }
+
+        _synchronizeBlockHeaderIndex();
+        return _blockHeaderIndex.getBlock(blockHash);
+    }
+
+    protected Row _getIndexedBlockRow(final BlockId blockId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        final Long readGeneration = _beginIndexRead();
         final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id, block_height FROM blocks WHERE id = ?")
+            new Query("SELECT " + INDEXED_BLOCK_COLUMNS + " FROM blocks WHERE id = ?")
                 .setParameter(blockId)
         );
 
         if (rows.isEmpty()) { return null; }
 
         final Row row = rows.get(0);
+        _cacheIndexedBlock(readGeneration, row);
+        return row;
+    }
+
+    /**
+     * Loads the BlockchainSegment nested set into the BlockHeaderIndex, if it has not already been loaded.
+     */
+    protected void _loadBlockchainSegments() throws DatabaseException {
+        if (_blockHeaderIndex.hasBlockchainSegments()) { return; }
+
+        final Long readGeneration = _beginIndexRead();
+        if (readGeneration == null) { return; }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT id, parent_blockchain_segment_id, nested_set_left, nested_set_right FROM blockchain_segments")
+        );
+
+        final ImmutableListBuilder<BlockchainSegment> blockchainSegments = new ImmutableListBuilder<>(rows.size());
+        for (final Row row : rows) {
+            final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(row.getLong("id"));
+            final BlockchainSegmentId parentBlockchainSegmentId = BlockchainSegmentId.wrap(row.getLong("parent_blockchain_segment_id"));
+            final Long nestedSetLeft = row.getLong("nested_set_left");
+            final Long nestedSetRight = row.getLong("nested_set_right");
+            blockchainSegments.add(new BlockchainSegment(blockchainSegmentId, parentBlockchainSegmentId, nestedSetLeft, nestedSetRight));
+        }
+
+        _blockHeaderIndex.cacheBlockchainSegments(readGeneration, blockchainSegments.build());
+    }
+
+    protected Boolean _areBlockchainSegmentsConnected(final BlockchainSegmentId blockchainSegmentId0, final BlockchainSegmentId blockchainSegmentId1, final BlockRelationship blockRelationship) throws DatabaseException {
+        if (_blockHeaderIndex != null) {
+            _synchronizeBlockHeaderIndex();
+            _loadBlockchainSegments();
+
+            final Boolean isConnected = _blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, blockchainSegmentId1, blockRelationship);
+            if (isConnected != null) { return isConnected; }
+        }
+
+        final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
+        return blockchainDatabaseManager.areBlockchainSegmentsConnected(blockchainSegmentId0, blockchainSegmentId1, blockRelationship);
+    }
+
+    protected Long _getBlockHeight(final BlockId blockId) throws DatabaseException {
+        final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockId);
+        if (indexedBlock != null) { return indexedBlock.blockHeight; }
+
+        final Row row = _getIndexedBlockRow(blockId);
+        if (row == null) { return null; }
+
         return row.getLong("block_height");
     }
 
@@ -75,31 +287,33 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     }
 
     protected BlockId _getBlockHeaderId(final Sha256Hash blockHash) throws DatabaseException {
+        final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockHash);
+        if (indexedBlock != null) { return indexedBlock.blockId; }
+
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        final Long readGeneration = _beginIndexRead();
         final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id FROM blocks WHERE hash = ?")
+            new Query("SELECT " + INDEXED_BLOCK_COLUMNS + " FROM blocks WHERE hash = ?")
                 .setParameter(blockHash)
         );
 
         if (rows.isEmpty()) { return null; }
 
         final Row row = rows.get(0);
+        _cacheIndexedBlock(readGeneration, row);
         return BlockId.wrap(row.getLong("id"));
     }
 
     protected Sha256Hash _getBlockHash(final BlockId blockId) throws DatabaseException {
         if (blockId == null) { return null; }
 
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-        final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id, hash FROM blocks WHERE id = ?")
-                .setParameter(blockId)
-        );
+        final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockId);
+        if (indexedBlock != null) { return indexedBlock.blockHash; }
 
-        if (rows.isEmpty()) { return null; }
+        final Row row = _getIndexedBlockRow(blockId);
+        if (row == null) { return null; }
 
-        final Row row = rows.get(0);
         return Sha256Hash.wrap(row.getBytes("hash"));
     }
 
@@ -152,6 +366,12 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     protected void _updateBlockHeader(final BlockId blockId, final BlockHeader blockHeader) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        if (_blockHeaderIndex != null) {
+            _beginBlockHeaderIndexWrite();
+            _blockHeaderIndex.removeBlock(blockId);
+            _addPendingIndexBlock(blockId, null);
+        }
+
         final BlockId previousBlockId = _getBlockHeaderId(blockHeader.getPreviousBlockHash());
         final Long previousBlockHeight = _getBlockHeight(previousBlockId);
         final Long blockHeight = (previousBlockHeight == null ? 0 : (previousBlockHeight + 1));
@@ -242,7 +462,9 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
                 .setParameter(chainWork)
         );
 
-        return BlockId.wrap(insertId);
+        final BlockId blockId = BlockId.wrap(insertId);
+        _addPendingIndexBlock(blockId, previousBlockId);
+        return blockId;
     }
 
     protected List<BlockId> _insertBlockHeaders(final List<BlockHeader> blockHeaders) throws DatabaseException {
@@ -331,12 +553,14 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
                     batchedInsertQuery.setParameter(blockHeader.getNonce());
                     batchedInsertQuery.setParameter(chainWork);
 
+                    final BlockId parentBlockId = BlockId.wrap(previousBlockId);
                     previousBlockId += 1L;
                     previousBlockHeight.value = blockHeight;
                     previousChainWork.value = chainWork;
 
                     final BlockId blockId = BlockId.wrap(previousBlockId);
                     blockIds.add(blockId);
+                    _addPendingIndexBlock(blockId, parentBlockId);
                     lastInsertedBlockId.value = blockId;
 
                     i += 1;
@@ -352,6 +576,12 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     protected void _setBlockchainSegmentId(final BlockId blockId, final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        if (_blockHeaderIndex != null) {
+            if (! _isNewBlockOnParentSegment(blockId, blockchainSegmentId)) {
+                _beginBlockHeaderIndexWrite();
+            }
+        }
+
         databaseConnection.executeSql(
             new Query("UPDATE blocks SET blockchain_segment_id = ? WHERE id = ?")
                 .setParameter(blockchainSegmentId)
@@ -363,6 +593,29 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final int maxBatchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
 
+        if ( (_blockHeaderIndex != null) && (! blockIds.isEmpty()) ) {
+            // The blocks are a chain inserted by this manager, so the assignment is only structural if the first block's is.
+            boolean isStructuralChange = false;
+            for (final BlockId blockId : blockIds) {
+                if (! _pendingIndexBlocks.containsKey(blockId)) {
+                    isStructuralChange = true;
+                    break;
+                }
+            }
+
+            if (! isStructuralChange) {
+                final BlockId firstBlockId = blockIds.get(0);
+                final BlockchainSegmentId firstBlockchainSegmentId = _getBlockchainSegmentId(firstBlockId);
+                if (! Util.areEqual(firstBlockchainSegmentId, blockchainSegmentId)) {
+                    isStructuralChange = (! _isNewBlockOnParentSegment(firstBlockId, blockchainSegmentId));
+                }
+            }
+
+            if (isStructuralChange) {
+                _beginBlockHeaderIndexWrite();
+            }
+        }
+
         int batchStartIndex = 0;
         while (batchStartIndex < blockIds.getCount()) {
             final int batchSize = Math.min(blockIds.getCount() - batchStartIndex, maxBatchSize);
@@ -383,14 +636,14 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     }
 
     protected BlockchainSegmentId _getBlockchainSegmentId(final BlockId blockId) throws DatabaseException {
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        if (_blockHeaderIndex != null) {
+            _synchronizeBlockHeaderIndex();
+            final BlockchainSegmentId blockchainSegmentId = _blockHeaderIndex.getBlockchainSegmentId(blockId);
+            if (blockchainSegmentId != null) { return blockchainSegmentId; }
+        }
 
-        final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id, blockchain_segment_id FROM blocks WHERE id = ?")
-                .setParameter(blockId)
-        );
-        if (rows.isEmpty()) { return null; }
-        final Row row = rows.get(0);
+        final Row row = _getIndexedBlockRow(blockId);
+        if (row == null) { return null; }
 
         return BlockchainSegmentId.wrap(row.getLong("blockchain_segment_id"));
     }
@@ -411,15 +664,18 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     }
 
     protected Boolean _isBlockConnectedToChain(final BlockId blockId, final BlockchainSegmentId blockchainSegmentId, final BlockRelationship blockRelationship) throws DatabaseException {
-        final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
+        if (_blockHeaderIndex != null) {
+            _synchronizeBlockHeaderIndex();
+            final Boolean isConnected = _blockHeaderIndex.isBlockConnectedToChain(blockId, blockchainSegmentId, blockRelationship);
+            if (isConnected != null) { return isConnected; }
+        }
 
         final BlockchainSegmentId blockchainSegmentId1 = _getBlockchainSegmentId(blockId);
-        return blockchainDatabaseManager.areBlockchainSegmentsConnected(blockchainSegmentId1, blockchainSegmentId, blockRelationship);
+        return _areBlockchainSegmentsConnected(blockchainSegmentId1, blockchainSegmentId, blockRelationship);
     }
 
     protected BlockId _getChildBlockId(final BlockchainSegmentId blockchainSegmentId, final BlockId previousBlockId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-        final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
 
         final java.util.List<Row> rows = databaseConnection.query(
             new Query("SELECT id, blockchain_segment_id FROM blocks WHERE previous_block_id = ?")
@@ -444,7 +700,7 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
         for (final Row row : rows) {
             final BlockId blockId = BlockId.wrap(row.getLong("id"));
             final BlockchainSegmentId blockchainSegmentId1 = BlockchainSegmentId.wrap(row.getLong("blockchain_segment_id"));
-            final Boolean blockIsConnectedToChain = blockchainDatabaseManager.areBlockchainSegmentsConnected(blockchainSegmentId1, blockchainSegmentId, BlockRelationship.ANCESTOR);
+            final Boolean blockIsConnectedToChain = _areBlockchainSegmentsConnected(blockchainSegmentId1, blockchainSegmentId, BlockRelationship.ANCESTOR);
             if (blockIsConnectedToChain) {
                 return blockId;
             }
@@ -490,15 +746,12 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     }
 
     protected BlockId _getPreviousBlockId(final BlockId blockId) throws DatabaseException {
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockId);
+        if (indexedBlock != null) { return indexedBlock.previousBlockId; }
 
-        final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id, previous_block_id FROM blocks WHERE id = ?")
-                .setParameter(blockId)
-        );
-        if (rows.isEmpty()) { return null; }
+        final Row row = _getIndexedBlockRow(blockId);
+        if (row == null) { return null; }
 
-        final Row row = rows.get(0);
         return BlockId.wrap(row.getLong("previous_block_id"));
     }
 
@@ -660,13 +913,35 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final HashMap<BlockId, Long> blockHeights = new HashMap<>(blockIds.getCount());
+
+        final List<BlockId> unindexedBlockIds;
+        if (_blockHeaderIndex != null) {
+            final MutableList<BlockId> missingBlockIds = new MutableList<>();
+            for (final BlockId blockId : blockIds) {
+                final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockId);
+                if (indexedBlock != null) {
+                    blockHeights.put(blockId, indexedBlock.blockHeight);
+                }
+                else {
+                    missingBlockIds.add(blockId);
+                }
+            }
+            if (missingBlockIds.isEmpty()) { return blockHeights; }
+
+            unindexedBlockIds = missingBlockIds;
+        }
+        else {
+            unindexedBlockIds = blockIds;
+        }
+
+        final Long readGeneration = _beginIndexRead();
         final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
         final BatchRunner<BlockId> batchRunner = new BatchRunner<>(batchSize, false);
-        batchRunner.run(blockIds, new BatchRunner.Batch<BlockId>() {
+        batchRunner.run(unindexedBlockIds, new BatchRunner.Batch<BlockId>() {
             @Override
             public void run(final List<BlockId> blockIds) throws Exception {
                 final java.util.List<Row> rows = databaseConnection.query(
-                    new Query("SELECT id, block_height FROM blocks WHERE id IN (?)")
+                    new Query("SELECT " + INDEXED_BLOCK_COLUMNS + " FROM blocks WHERE id IN (?)")
                         .setInClauseParameters(blockIds, ValueExtractor.IDENTIFIER)
                 );
 
@@ -674,6 +949,8 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
                     final BlockId blockId = BlockId.wrap(row.getLong("id"));
                     final Long blockHeight = row.getLong("block_height");
                     blockHeights.put(blockId, blockHeight);
+
+                    _cacheIndexedBlock(readGeneration, row);
                 }
             }
         });
@@ -735,17 +1012,41 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     @Override
     public List<Sha256Hash> getBlockHashes(final List<BlockId> blockIds) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-        final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id, hash FROM blocks WHERE id IN (?)")
-                .setInClauseParameters(blockIds, ValueExtractor.IDENTIFIER)
-        );
 
-        final HashMap<BlockId, Sha256Hash> hashesMap = new HashMap<>(rows.size());
-        for (final Row row : rows) {
-            final BlockId blockId = BlockId.wrap(row.getLong("id"));
-            final Sha256Hash blockHash = Sha256Hash.copyOf(row.getBytes("hash"));
+        final HashMap<BlockId, Sha256Hash> hashesMap = new HashMap<>(blockIds.getCount());
 
-            hashesMap.put(blockId, blockHash);
+        final List<BlockId> unindexedBlockIds;
+        if (_blockHeaderIndex != null) {
+            final MutableList<BlockId> missingBlockIds = new MutableList<>();
+            for (final BlockId blockId : blockIds) {
+                final BlockHeaderIndex.IndexedBlock indexedBlock = _getIndexedBlock(blockId);
+                if (indexedBlock != null) {
+                    hashesMap.put(blockId, indexedBlock.blockHash);
+                }
+                else {
+                    missingBlockIds.add(blockId);
+                }
+            }
+            unindexedBlockIds = missingBlockIds;
+        }
+        else {
+            unindexedBlockIds = blockIds;
+        }
+
+        if ( (_blockHeaderIndex == null) || (! unindexedBlockIds.isEmpty()) ) {
+            final Long readGeneration = _beginIndexRead();
+            final java.util.List<Row> rows = databaseConnection.query(
+                new Query("SELECT " + INDEXED_BLOCK_COLUMNS + " FROM blocks WHERE id IN (?)")
+                    .setInClauseParameters(unindexedBlockIds, ValueExtractor.IDENTIFIER)
+            );
+
+            for (final Row row : rows) {
+                final BlockId blockId = BlockId.wrap(row.getLong("id"));
+                final Sha256Hash blockHash = Sha256Hash.copyOf(row.getBytes("hash"));
+
+                hashesMap.put(blockId, blockHash);
+                _cacheIndexedBlock(readGeneration, row);
+            }
         }
 
         final MutableList<Sha256Hash> blockHashes = new MutableList<>(blockIds.getCount());
@@ -772,10 +1073,8 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
         // TODO: Use blockHeight and blockChainSegmentId for constant-time lookups...
         BlockId nextBlockId = blockId;
         for (int i = 0; i < parentCount; ++i) {
-            final BlockHeader blockHeader = _inflateBlockHeader(nextBlockId);
-            if (blockHeader == null) { return null; }
-
-            nextBlockId = _getBlockHeaderId(blockHeader.getPreviousBlockHash());
+            nextBlockId = _getPreviousBlockId(nextBlockId); // Resolved via the BlockHeaderIndex, when available.
+            if (nextBlockId == null) { return null; }
         }
         return nextBlockId;
     }
@@ -825,8 +1124,15 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
     public BlockId getBlockIdAtHeight(final BlockchainSegmentId blockchainSegmentId, final Long blockHeight) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
+        if ( (_blockHeaderIndex != null) && (blockchainSegmentId != null) ) {
+            _synchronizeBlockHeaderIndex();
+            final BlockId blockId = _blockHeaderIndex.getBlockIdAtHeight(blockchainSegmentId, blockHeight);
+            if (blockId != null) { return blockId; }
+        }
+
+        final Long readGeneration = _beginIndexRead();
         final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id FROM blocks WHERE block_height = ?")
+            new Query("SELECT id FROM blocks WHERE block_height = ? ORDER BY id ASC")
                 .setParameter(blockHeight)
         );
 
@@ -839,6 +1145,9 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
 
             final Boolean blockIsConnectedToChain = _isBlockConnectedToChain(blockId, blockchainSegmentId, BlockRelationship.ANY);
             if (blockIsConnectedToChain) {
+                if (readGeneration != null) {
+                    _blockHeaderIndex.cacheBlockIdAtHeight(readGeneration, blockchainSegmentId, blockHeight, blockId);
+                }
                 return blockId;
             }
         }
@@ -873,6 +1182,18 @@ public class BlockHeaderDatabaseManagerCore implements BlockHeaderDatabaseManage
         );
     }
 
+    /**
+     * Publishes this manager's committed writes to the BlockHeaderIndex, and discards its uncommitted writes.
+     *  Must be invoked before the manager's DatabaseConnection is closed.
+     */
+    public void flushBlockHeaderIndex() {
+        if (_blockHeaderIndex == null) { return; }
+        if ( _pendingIndexBlocks.isEmpty() && (! _isBlockHeaderIndexWriter) ) { return; }
+
+        // An open transaction is rolled back when its connection is closed, so its writes are discarded.
+        _publishBlockHeaderIndexWrites(_isWithinTransaction());
+    }
+
     @Override
     public void clearBlockAsInvalid(final Sha256Hash blockHash, final Integer processDecrement) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -26,6 +26,7 @@ public class NodeInitializer {
         public BitcoinNode.RequestSpvBlocksHandler requestSpvBlocksHandler;
         public BitcoinNode.RequestSlpTransactionsHandler requestSlpTransactionsHandler;
         public BitcoinNode.QueryUtxoCommitmentsHandler queryUtxoCommitmentsHandler;
+        public BitcoinNode.QueryBlockFiltersHandler queryBlockFiltersHandler;
         public ThreadPoolFactory threadPoolFactory;
         public LocalNodeFeatures localNodeFeatures;
         public BitcoinNode.RequestPeersHandler requestPeersHandler;
@@ -46,6 +47,7 @@ public class NodeInitializer {
     protected final BitcoinNode.RequestSpvBlocksHandler _requestSpvBlocksHandler;
     protected final BitcoinNode.RequestSlpTransactionsHandler _requestSlpTransactionsHandler;
     protected final BitcoinNode.QueryUtxoCommitmentsHandler _queryUtxoCommitmentsHandler;
+    protected final BitcoinNode.QueryBlockFiltersHandler _queryBlockFiltersHandler;
     protected final ThreadPoolFactory _threadPoolFactory;
     protected final LocalNodeFeatures _localNodeFeatures;
     protected final BitcoinNode.RequestPeersHandler _requestPeersHandler;
@@ -65,6 +67,7 @@ public class NodeInitializer {
         bitcoinNode.setRequestSlpTransactionsHandler(_requestSlpTransactionsHandler);
         bitcoinNode.setSpvBlockInventoryAnnouncementCallback(_spvBlockInventoryAnnouncementHandler);
         bitcoinNode.setQueryUtxoCommitmentsHandler(_queryUtxoCommitmentsHandler);
+        bitcoinNode.setQueryBlockFiltersHandler(_queryBlockFiltersHandler);
 
         bitcoinNode.setBlockInventoryMessageHandler(_blockInventoryAnnouncementHandler);
         bitcoinNode.setRequestUnconfirmedTransactionsHandler(_requestUnconfirmedTransactionsHandler);
@@ -98,6 +101,7 @@ public class NodeInitializer {
         _requestSpvBlocksHandler = properties.requestSpvBlocksHandler;
         _requestSlpTransactionsHandler = properties.requestSlpTransactionsHandler;
         _queryUtxoCommitmentsHandler = properties.queryUtxoCommitmentsHandler;
+        _queryBlockFiltersHandler = properties.queryBlockFiltersHandler;
         _threadPoolFactory = properties.threadPoolFactory;
         _localNodeFeatures = properties.localNodeFeatures;
         _requestPeersHandler = properties.requestPeersHandler;
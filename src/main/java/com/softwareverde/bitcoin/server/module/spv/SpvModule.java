@@ -41,6 +41,7 @@ import com.softwareverde.bitcoin.server.module.node.manager.banfilter.BanFilter;
 import com.softwareverde.bitcoin.server.module.node.manager.banfilter.BanFilterCore;
 import com.softwareverde.bitcoin.server.module.node.sync.BlockHeaderDownloader;
 import com.softwareverde.bitcoin.server.module.node.sync.SpvSlpTransactionValidator;
+import com.softwareverde.bitcoin.server.module.spv.handler.BlockFilterSynchronizer;
 import com.softwareverde.bitcoin.server.module.spv.handler.MerkleBlockDownloader;
 import com.softwareverde.bitcoin.server.module.spv.handler.SpvRequestDataHandler;
 import com.softwareverde.bitcoin.server.module.spv.handler.SpvSynchronizationStatusHandler;
@@ -87,6 +88,14 @@ public class SpvModule {
         void onTransactionValidityChanged(Sha256Hash transactionHash, SlpValidity slpValidity);
     }
 
+    /**
+     * BLOOM_FILTER downloads MerkleBlocks from peers matching the Wallet's bloom filter.
+     *  BLOCK_FILTER downloads BIP-158 compact block filters, matches them locally, and downloads only the matching blocks.
+     */
+    public enum SynchronizationMode {
+        BLOOM_FILTER, BLOCK_FILTER
+    }
+
     public enum Status {
         INITIALIZING        ("Initializing"),
         LOADING             ("Loading"),
@@ -134,6 +143,8 @@ public class SpvModule {
     protected final CachedThreadPool _networkThreadPool;
     protected final BanFilter _banFilter;
     protected MerkleBlockDownloader _merkleBlockDownloader;
+    protected BlockFilterSynchronizer _blockFilterSynchronizer;
+    protected SynchronizationMode _synchronizationMode = SynchronizationMode.BLOOM_FILTER;
 
     protected BitcoinNodeFactory _bitcoinNodeFactory;
     protected DifficultyCalculatorFactory _difficultyCalculatorFactory;
@@ -202,6 +213,12 @@ public class SpvModule {
                         blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
                     }
 
+                    if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+                        final Long scannedBlockHeight = _blockFilterSynchronizer.getBlockHeight();
+                        merkleBlockSyncUpdateCallback.onMerkleBlockHeightUpdated(Util.coalesce(scannedBlockHeight, blockHeight), _blockFilterSynchronizer.isSynchronizing());
+                        return;
+                    }
+
                     final Boolean isSynchronizingMerkleBlocks = _merkleBlockDownloader.isRunning();
                     merkleBlockSyncUpdateCallback.onMerkleBlockHeightUpdated(blockHeight, isSynchronizingMerkleBlocks);
                 }
@@ -213,6 +230,11 @@ public class SpvModule {
     }
 
     protected void _synchronizeMerkleBlocks() {
+        if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+            _blockFilterSynchronizer.wakeUp();
+            return;
+        }
+
         if (! _bitcoinNodeManager.hasBloomFilter()) {
             Logger.warn("Unable to synchronize merkle blocks. Bloom filter not set.", new Exception());
             return;
@@ -229,6 +251,11 @@ public class SpvModule {
             _merkleBlockDownloader.shutdown();
         }
 
+        if (_blockFilterSynchronizer != null) {
+            Logger.info("[Stopping Block Filter Synchronizer]");
+            _blockFilterSynchronizer.stop();
+        }
+
         if (_blockHeaderDownloader != null) {
             Logger.info("[Stopping Header Downloader]");
             _blockHeaderDownloader.stop();
@@ -280,6 +307,7 @@ public class SpvModule {
                 final List<BlockId> blockIds = blockDatabaseManager.getBlockIdsWithTransactions();
                 for (final BlockId blockId : blockIds) {
                     final List<TransactionId> transactionIds = blockDatabaseManager.getTransactionIds(blockId);
+                    final MutableList<Transaction> blockTransactions = new MutableList<>(transactionIds.getCount());
                     for (final TransactionId transactionId : transactionIds) {
                         final Transaction transaction = transactionDatabaseManager.getTransaction(transactionId);
                         if (transaction == null) {
@@ -288,9 +316,10 @@ public class SpvModule {
                         }
 
                         confirmedTransactionIds.add(transactionId);
-                        _wallet.addTransaction(transaction);
+                        blockTransactions.add(transaction);
                         loadedConfirmedTransactionCount += 1;
                     }
+                    _wallet.addTransactions(blockTransactions);
                 }
                 Logger.debug("Loaded " + loadedConfirmedTransactionCount + " confirmed transactions.");
             }
@@ -435,14 +464,16 @@ public class SpvModule {
                         final BlockId blockId = blockHeaderDatabaseManager.storeBlockHeader(merkleBlock);
                         blockDatabaseManager.storePartialMerkleTree(blockId, merkleBlock.getPartialMerkleTree());
 
+                        final MutableList<Transaction> walletTransactions = new MutableList<>();
                         for (final Transaction transaction : transactions) {
                             if (transactionBloomFilterMatcher.shouldInclude(transaction)) {
                                 final TransactionId transactionId = transactionDatabaseManager.storeTransaction(transaction);
                                 blockDatabaseManager.addTransactionToBlock(blockId, transactionId);
 
-                                _wallet.addTransaction(transaction);
+                                walletTransactions.add(transaction);
                             }
                         }
+                        _wallet.addTransactions(walletTransactions); // Applied as a single write so balance readers are not repeatedly interleaved with the block's Transactions.
 
                         _synchronizeSlpValidity();
                     }
@@ -626,6 +657,11 @@ public class SpvModule {
             nodeInitializerContext.blockInventoryMessageHandler = new BitcoinNode.BlockInventoryAnnouncementHandler() {
                 @Override
                 public void onNewInventory(final BitcoinNode bitcoinNode, final List<Sha256Hash> blockHashes) {
+                    if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+                        _blockFilterSynchronizer.wakeUp();
+                        return;
+                    }
+
                     if (! _bitcoinNodeManager.hasBloomFilter()) { return; }
 
                     // Only restart the synchronization process if it has already successfully completed.
@@ -745,6 +781,35 @@ public class SpvModule {
             _spvSlpTransactionValidator = new SpvSlpTransactionValidator(databaseManagerFactory, _bitcoinNodeManager);
         }
 
+        { // Initialize BlockFilterSynchronizer...
+            _blockFilterSynchronizer = new BlockFilterSynchronizer(databaseManagerFactory, _bitcoinNodeManager, _wallet, _propertiesStore, _generalThreadPool);
+            _blockFilterSynchronizer.setMinimumBlockHeight(_minimumMerkleBlockHeight);
+            _blockFilterSynchronizer.setDownloadCompleteCallback(new BlockFilterSynchronizer.DownloadCompleteCallback() {
+                @Override
+                public void newBlockTransactionsDownloaded(final BlockHeader blockHeader, final List<Transaction> transactions) {
+                    _synchronizeSlpValidity();
+
+                    final NewTransactionCallback newTransactionCallback = _newTransactionCallback;
+                    if (newTransactionCallback != null) {
+                        _generalThreadPool.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                for (final Transaction transaction : transactions) {
+                                    newTransactionCallback.onNewTransactionReceived(transaction);
+                                }
+                            }
+                        });
+                    }
+                }
+            });
+            _blockFilterSynchronizer.setBatchProcessedCallback(new Runnable() {
+                @Override
+                public void run() {
+                    _executeMerkleBlockSyncUpdateCallback();
+                }
+            });
+        }
+
         try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
             final DatabaseManager databaseManager = new SpvDatabaseManager(databaseConnection, maxQueryBatchSize, _propertiesStore, _checkpointConfiguration);
             final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
@@ -815,11 +880,20 @@ public class SpvModule {
         Logger.info("[Starting Header Downloader]");
         _blockHeaderDownloader.start();
 
+        if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+            Logger.info("[Starting Block Filter Synchronizer]");
+            _blockFilterSynchronizer.start();
+        }
+
         while (! Thread.interrupted()) { // NOTE: Clears the isInterrupted flag for subsequent checks...
             try { Thread.sleep(15000); } catch (final Exception exception) { break; }
 
             _blockHeaderDownloader.wakeUp();
             _spvSlpTransactionValidator.wakeUp();
+
+            if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+                _blockFilterSynchronizer.wakeUp();
+            }
         }
 
         Logger.info("[SPV Module Exiting]");
@@ -890,6 +964,19 @@ public class SpvModule {
         _minimumMerkleBlockHeight = minimumMerkleBlockHeight;
         _merkleBlockDownloader.setMinimumMerkleBlockHeight(minimumMerkleBlockHeight);
         _merkleBlockDownloader.resetQueue();
+        _blockFilterSynchronizer.setMinimumBlockHeight(minimumMerkleBlockHeight);
+    }
+
+    /**
+     * Sets how confirmed Wallet transactions are synchronized; must be set before ::loop is invoked.
+     *  In BLOCK_FILTER mode the Wallet's bloom filter is still provided to peers, but only for the relay of unconfirmed transactions.
+     */
+    public void setSynchronizationMode(final SynchronizationMode synchronizationMode) {
+        _synchronizationMode = synchronizationMode;
+    }
+
+    public SynchronizationMode getSynchronizationMode() {
+        return _synchronizationMode;
     }
 
     public void setShouldOnlyConnectToSeedNodes(final Boolean shouldOnlyConnectToSeedNodes) {
@@ -903,9 +990,14 @@ public class SpvModule {
     /**
      * Should be called whenever an external addition/removal to the internal wallet's keys occurs.
      *  This function updates the node connections' bloom dilter.
+     *  In BLOCK_FILTER mode, the block filters are also rescanned locally for the new keys.
      */
     public void onWalletKeysUpdated() {
         final MutableBloomFilter bloomFilter = _wallet.generateBloomFilter();
         _bitcoinNodeManager.setBloomFilter(bloomFilter);
+
+        if (_synchronizationMode == SynchronizationMode.BLOCK_FILTER) {
+            _blockFilterSynchronizer.rescan();
+        }
     }
 }
@@ -0,0 +1,672 @@
+package com.softwareverde.bitcoin.server.module.spv.handler;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterBuilder;
+import com.softwareverde.bitcoin.block.filter.BlockFilterHeaders;
+import com.softwareverde.bitcoin.block.filter.GolombCodedSet;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.merkleroot.MerkleTree;
+import com.softwareverde.bitcoin.block.merkleroot.PartialMerkleTree;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.message.type.node.feature.NodeFeatures;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFiltersMessage;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.spv.SpvBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.spv.SpvDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.spv.SpvDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.spv.SpvTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.manager.BitcoinNodeManager;
+import com.softwareverde.bitcoin.server.module.node.manager.NodeFilter;
+import com.softwareverde.bitcoin.server.node.BitcoinNode;
+import com.softwareverde.bitcoin.server.node.RequestId;
+import com.softwareverde.bitcoin.server.properties.PropertiesStore;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.wallet.Wallet;
+import com.softwareverde.concurrent.service.SleepyService;
+import com.softwareverde.concurrent.threadpool.ThreadPool;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.util.TransactionUtil;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Synchronizes the Wallet's confirmed transactions via BIP-157/158 compact block filters instead of peer-side bloom filter matching.
+ *  The head blockchain is scanned in batches: each batch's filter headers are requested from several peers advertising
+ *  COMPACT_FILTERS_ENABLED and cross-checked; when the peers disagree, the disputed block and each peer's filter for it are
+ *  downloaded, and peers whose filter omits the block's outputs are discarded.  The filters are then downloaded, verified against
+ *  the agreed filter headers, and matched against the Wallet's locking scripts in parallel.
+ *  Only the blocks whose filters match are downloaded; their relevant transactions are stored alongside a partial merkle tree.
+ *  Since matching is local, adding keys to the Wallet only requires the filters to be rescanned (via ::rescan), not a new peer bloom filter.
+ */
+public class BlockFilterSynchronizer extends SleepyService {
+    public interface DownloadCompleteCallback {
+        void newBlockTransactionsDownloaded(BlockHeader blockHeader, List<Transaction> transactions);
+    }
+
+    protected static final String SCAN_BLOCK_HEIGHT_KEY = "spv_block_filter_scan_height";
+    protected static final String SCAN_BLOCK_HASH_KEY = "spv_block_filter_scan_block_hash";
+    protected static final String SCAN_FILTER_HEADER_KEY = "spv_block_filter_scan_filter_header";
+
+    protected static final Integer BATCH_SIZE = QueryBlockFiltersMessage.MAX_BLOCK_FILTER_COUNT;
+    protected static final Long REORG_RESCAN_DEPTH = 144L;
+    protected static final Long FILTER_TIMEOUT_MS = 30000L;
+    protected static final Long BLOCK_TIMEOUT_MS = 60000L;
+    protected static final Long FILTER_MATCH_TIMEOUT_MS = 60000L;
+    protected static final Integer FILTER_HEADER_NODE_COUNT = 3;
+
+    /**
+     * A peer's filter headers for the current batch, and the filter header of the batch's last block they commit to.
+     */
+    protected static class FilterHeaderCandidate {
+        public final BitcoinNode bitcoinNode;
+        public final BlockFilterHeaders blockFilterHeaders;
+        public final Sha256Hash lastFilterHeader;
+
+        public FilterHeaderCandidate(final BitcoinNode bitcoinNode, final BlockFilterHeaders blockFilterHeaders) {
+            final List<Sha256Hash> filterHeaders = blockFilterHeaders.calculateFilterHeaders();
+            this.bitcoinNode = bitcoinNode;
+            this.blockFilterHeaders = blockFilterHeaders;
+            this.lastFilterHeader = filterHeaders.get(filterHeaders.getCount() - 1);
+        }
+    }
+
+    protected final SpvDatabaseManagerFactory _databaseManagerFactory;
+    protected final BitcoinNodeManager _bitcoinNodeManager;
+    protected final Wallet _wallet;
+    protected final PropertiesStore _propertiesStore;
+    protected final ThreadPool _threadPool;
+    protected final Object _scanStateMutex = new Object();
+
+    protected Long _scanGeneration = 0L; // Incremented by ::rescan so that an in-flight batch does not overwrite the reset scan position.
+    protected volatile Long _minimumBlockHeight = 0L;
+    protected volatile Boolean _isSynchronizing = false;
+    protected DownloadCompleteCallback _downloadCompleteCallback = null;
+    protected Runnable _batchProcessedCallback = null;
+
+    protected static <T> T _awaitResult(final CountDownLatch countDownLatch, final AtomicReference<T> result, final Long timeoutMs) throws InterruptedException {
+        final boolean didComplete = countDownLatch.await(timeoutMs, TimeUnit.MILLISECONDS);
+        if (! didComplete) { return null; }
+        return result.get();
+    }
+
+    protected Long _getScanBlockHeight() {
+        final Long scanBlockHeight = _propertiesStore.getLong(SCAN_BLOCK_HEIGHT_KEY);
+        return Math.max(Util.coalesce(scanBlockHeight, 0L), _minimumBlockHeight);
+    }
+
+    protected Sha256Hash _getScanProperty(final String key) {
+        final String value = _propertiesStore.getString(key);
+        if ( (value == null) || value.isEmpty() ) { return null; }
+        return Sha256Hash.fromHexString(value);
+    }
+
+    protected void _resetScanState(final Long blockHeight) {
+        _propertiesStore.set(SCAN_BLOCK_HEIGHT_KEY, blockHeight);
+        _propertiesStore.set(SCAN_BLOCK_HASH_KEY, "");
+        _propertiesStore.set(SCAN_FILTER_HEADER_KEY, "");
+    }
+
+    /**
+     * Returns up to FILTER_HEADER_NODE_COUNT peers advertising COMPACT_FILTERS_ENABLED.
+     */
+    protected List<BitcoinNode> _selectBitcoinNodes() {
+        final List<BitcoinNode> bitcoinNodes = _bitcoinNodeManager.getNodes(new NodeFilter() {
+            @Override
+            public Boolean meetsCriteria(final BitcoinNode bitcoinNode) {
+                final Boolean hasCompactFilters = bitcoinNode.hasFeatureEnabled(NodeFeatures.Feature.COMPACT_FILTERS_ENABLED);
+                return Util.coalesce(hasCompactFilters, false);
+            }
+        });
+
+        final int bitcoinNodeCount = Math.min(bitcoinNodes.getCount(), FILTER_HEADER_NODE_COUNT);
+        final ImmutableListBuilder<BitcoinNode> selectedBitcoinNodes = new ImmutableListBuilder<>(bitcoinNodeCount);
+        for (int i = 0; i < bitcoinNodeCount; ++i) {
+            selectedBitcoinNodes.add(bitcoinNodes.get(i));
+        }
+        return selectedBitcoinNodes.build();
+    }
+
+    protected BlockFilterHeaders _downloadBlockFilterHeaders(final BitcoinNode bitcoinNode, final Long startBlockHeight, final Sha256Hash stopBlockHash) throws InterruptedException {
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        final AtomicReference<BlockFilterHeaders> result = new AtomicReference<>();
+        final RequestId requestId = bitcoinNode.requestBlockFilterHeaders(startBlockHeight, stopBlockHash, new BitcoinNode.DownloadBlockFilterHeadersCallback() {
+            @Override
+            public void onResult(final RequestId requestId, final BitcoinNode bitcoinNode, final BlockFilterHeaders blockFilterHeaders) {
+                result.set(blockFilterHeaders);
+                countDownLatch.countDown();
+            }
+
+            @Override
+            public void onFailure(final RequestId requestId, final BitcoinNode bitcoinNode, final Sha256Hash stopBlockHash) {
+                countDownLatch.countDown();
+            }
+        });
+
+        final BlockFilterHeaders blockFilterHeaders = _awaitResult(countDownLatch, result, FILTER_TIMEOUT_MS);
+        if (blockFilterHeaders == null) {
+            bitcoinNode.removeCallback(requestId);
+        }
+        return blockFilterHeaders;
+    }
+
+    /**
+     * Returns the BlockFilters of blockHashes, in the same order, or null if any filter was not received.
+     */
+    protected List<BlockFilter> _downloadBlockFilters(final BitcoinNode bitcoinNode, final Long startBlockHeight, final List<Sha256Hash> blockHashes) throws InterruptedException {
+        final int blockCount = blockHashes.getCount();
+        final CountDownLatch countDownLatch = new CountDownLatch(blockCount);
+        final ConcurrentHashMap<Sha256Hash, BlockFilter> blockFilters = new ConcurrentHashMap<>(blockCount);
+        final List<RequestId> requestIds = bitcoinNode.requestBlockFilters(startBlockHeight, blockHashes, new BitcoinNode.DownloadBlockFilterCallback() {
+            @Override
+            public void onResult(final RequestId requestId, final BitcoinNode bitcoinNode, final BlockFilter blockFilter) {
+                blockFilters.put(blockFilter.getBlockHash(), blockFilter);
+                countDownLatch.countDown();
+            }
+
+            @Override
+            public void onFailure(final RequestId requestId, final BitcoinNode bitcoinNode, final Sha256Hash blockHash) {
+                countDownLatch.countDown();
+            }
+        });
+
+        final boolean didComplete = countDownLatch.await(FILTER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (! didComplete) {
+            for (final RequestId requestId : requestIds) {
+                bitcoinNode.removeCallback(requestId);
+            }
+            return null;
+        }
+
+        final ImmutableListBuilder<BlockFilter> orderedBlockFilters = new ImmutableListBuilder<>(blockCount);
+        for (final Sha256Hash blockHash : blockHashes) {
+            final BlockFilter blockFilter = blockFilters.get(blockHash);
+            if (blockFilter == null) { return null; }
+            orderedBlockFilters.add(blockFilter);
+        }
+        return orderedBlockFilters.build();
+    }
+
+    protected Block _downloadBlock(final BitcoinNode bitcoinNode, final Sha256Hash blockHash) throws InterruptedException {
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        final AtomicReference<Block> result = new AtomicReference<>();
+        final RequestId requestId = bitcoinNode.requestBlock(blockHash, new BitcoinNode.DownloadBlockCallback() {
+            @Override
+            public void onResult(final RequestId requestId, final BitcoinNode bitcoinNode, final Block block) {
+                result.set(block);
+                countDownLatch.countDown();
+            }
+
+            @Override
+            public void onFailure(final RequestId requestId, final BitcoinNode bitcoinNode, final Sha256Hash blockHash) {
+                countDownLatch.countDown();
+            }
+        });
+
+        final Block block = _awaitResult(countDownLatch, result, BLOCK_TIMEOUT_MS);
+        if (block == null) {
+            bitcoinNode.removeCallback(requestId);
+        }
+        return block;
+    }
+
+    /**
+     * Returns true if the BlockFilter contains the LockingScript of every output created by the block.
+     *  The outputs spent by the block are unknown to an SPV node, so a filter that omits only spent scripts is not detected.
+     */
+    protected Boolean _isBlockFilterConsistentWithBlock(final BlockFilter blockFilter, final Block block) {
+        if (! Util.areEqual(blockFilter.getBlockHash(), block.getHash())) { return false; }
+
+        final GolombCodedSet golombCodedSet = blockFilter.getGolombCodedSet();
+        if (golombCodedSet == null) { return false; }
+
+        final BlockFilterBuilder blockFilterBuilder = new BlockFilterBuilder();
+        blockFilterBuilder.addBlockOutputScripts(block);
+        for (final ByteArray item : blockFilterBuilder.getItems()) {
+            if (! golombCodedSet.matches(item)) { return false; }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the filter headers of the batch agreed upon by the bitcoinNodes, or null if they could not be agreed upon.
+     *  The headers must extend expectedPreviousFilterHeader, if provided.  When peers disagree, the first disputed block and
+     *  each peer's filter for that block are downloaded; peers whose filter does not match their own header or omits the
+     *  block's outputs are disconnected.  If the dispute cannot be settled by the block, the batch is retried later.
+     */
+    protected FilterHeaderCandidate _downloadAgreedBlockFilterHeaders(final List<BitcoinNode> bitcoinNodes, final Long startBlockHeight, final List<Sha256Hash> blockHashes, final Sha256Hash expectedPreviousFilterHeader) throws InterruptedException {
+        final int blockCount = blockHashes.getCount();
+        final Sha256Hash stopBlockHash = blockHashes.get(blockCount - 1);
+
+        final MutableList<FilterHeaderCandidate> candidates = new MutableList<>(bitcoinNodes.getCount());
+        for (final BitcoinNode bitcoinNode : bitcoinNodes) {
+            final BlockFilterHeaders blockFilterHeaders = _downloadBlockFilterHeaders(bitcoinNode, startBlockHeight, stopBlockHash);
+            if (blockFilterHeaders == null) {
+                Logger.debug("Unable to download block filter headers from " + bitcoinNode + ".");
+                continue;
+            }
+
+            if (blockFilterHeaders.getFilterHashes().getCount() != blockCount) {
+                Logger.debug("Received incomplete block filter headers from " + bitcoinNode + ".");
+                continue;
+            }
+
+            if ( (expectedPreviousFilterHeader != null) && (! Util.areEqual(expectedPreviousFilterHeader, blockFilterHeaders.getPreviousFilterHeader())) ) {
+                Logger.warn("Block filter headers from " + bitcoinNode + " do not extend the scanned filter header chain.");
+                continue;
+            }
+
+            candidates.add(new FilterHeaderCandidate(bitcoinNode, blockFilterHeaders));
+        }
+
+        while (! candidates.isEmpty()) {
+            final FilterHeaderCandidate referenceCandidate = candidates.get(0);
+            final List<Sha256Hash> referenceFilterHashes = referenceCandidate.blockFilterHeaders.getFilterHashes();
+
+            boolean isDisputed = false;
+            int disputedIndex = blockCount;
+            for (final FilterHeaderCandidate candidate : candidates) {
+                if (Util.areEqual(referenceCandidate.lastFilterHeader, candidate.lastFilterHeader)) { continue; }
+                isDisputed = true;
+
+                final List<Sha256Hash> filterHashes = candidate.blockFilterHeaders.getFilterHashes();
+                for (int i = 0; i < disputedIndex; ++i) {
+                    if (! Util.areEqual(referenceFilterHashes.get(i), filterHashes.get(i))) {
+                        disputedIndex = i;
+                        break;
+                    }
+                }
+            }
+
+            if (! isDisputed) { return referenceCandidate; }
+            if (disputedIndex >= blockCount) {
+                Logger.warn("Block filter header peers disagree on the filter header preceding block height " + startBlockHeight + ".");
+                return null;
+            }
+
+            final Long disputedBlockHeight = (startBlockHeight + disputedIndex);
+            final Sha256Hash disputedBlockHash = blockHashes.get(disputedIndex);
+            final Block disputedBlock = _downloadBlock(referenceCandidate.bitcoinNode, disputedBlockHash);
+            if ( (disputedBlock == null) || (! Util.areEqual(disputedBlockHash, disputedBlock.getHash())) || (! disputedBlock.isValid()) ) {
+                Logger.debug("Unable to download disputed block " + disputedBlockHash + ".");
+                return null;
+            }
+
+            final ImmutableListBuilder<Sha256Hash> disputedBlockHashesBuilder = new ImmutableListBuilder<>(1);
+            disputedBlockHashesBuilder.add(disputedBlockHash);
+            final List<Sha256Hash> disputedBlockHashes = disputedBlockHashesBuilder.build();
+
+            final MutableList<FilterHeaderCandidate> consistentCandidates = new MutableList<>(candidates.getCount());
+            for (final FilterHeaderCandidate candidate : candidates) {
+                final Sha256Hash filterHash = candidate.blockFilterHeaders.getFilterHashes().get(disputedIndex);
+                final List<BlockFilter> blockFilters = _downloadBlockFilters(candidate.bitcoinNode, disputedBlockHeight, disputedBlockHashes);
+                final BlockFilter blockFilter = (blockFilters != null ? blockFilters.get(0) : null);
+
+                final boolean isConsistent = ( (blockFilter != null) && Util.areEqual(filterHash, blockFilter.getFilterHash()) && _isBlockFilterConsistentWithBlock(blockFilter, disputedBlock) );
+                if (isConsistent) {
+                    consistentCandidates.add(candidate);
+                }
+                else if (blockFilter != null) {
+                    Logger.warn("Block filter for " + disputedBlockHash + " from " + candidate.bitcoinNode + " is inconsistent with the block; disconnecting.");
+                    candidate.bitcoinNode.disconnect();
+                }
+            }
+
+            if (consistentCandidates.getCount() == candidates.getCount()) {
+                Logger.warn("Unable to settle block filter header dispute at block height " + disputedBlockHeight + ".");
+                return null;
+            }
+
+            candidates.clear();
+            for (final FilterHeaderCandidate candidate : consistentCandidates) {
+                candidates.add(candidate);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a flag for each BlockFilter indicating if it may contain any of the lockingScripts.
+     *  The filters are partitioned across the ThreadPool since decoding each Golomb-coded set is independent and CPU-bound.
+     *  Malformed filters are flagged as matching so that their blocks are inspected directly.
+     *  Returns null if the ThreadPool does not complete the matching within FILTER_MATCH_TIMEOUT_MS.
+     */
+    protected boolean[] _matchBlockFilters(final List<BlockFilter> blockFilters, final List<ByteArray> lockingScripts) throws InterruptedException {
+        final int blockFilterCount = blockFilters.getCount();
+        final boolean[] matches = new boolean[blockFilterCount];
+        if (lockingScripts.isEmpty()) { return matches; }
+
+        final int partitionCount = Math.max(1, Math.min(blockFilterCount, Runtime.getRuntime().availableProcessors()));
+        final int partitionSize = (((blockFilterCount + partitionCount) - 1) / partitionCount);
+        final CountDownLatch countDownLatch = new CountDownLatch(partitionCount);
+        for (int i = 0; i < partitionCount; ++i) {
+            final int startIndex = (i * partitionSize);
+            final int endIndex = Math.min(blockFilterCount, (startIndex + partitionSize));
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = startIndex; j < endIndex; ++j) {
+                            final BlockFilter blockFilter = blockFilters.get(j);
+                            final GolombCodedSet golombCodedSet = blockFilter.getGolombCodedSet();
+                            matches[j] = ( (golombCodedSet == null) || golombCodedSet.matchesAny(lockingScripts) );
+                        }
+                    }
+                    finally {
+                        countDownLatch.countDown();
+                    }
+                }
+            });
+        }
+
+        final boolean didComplete = countDownLatch.await(FILTER_MATCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (! didComplete) { return null; }
+        return matches;
+    }
+
+    /**
+     * Returns the block's Transactions that pay to one of the lockingScripts, or that spend an output of a known Wallet Transaction
+     *  (or of an earlier Transaction within the block) paying to one of the lockingScripts.
+     */
+    protected List<Transaction> _getWalletTransactions(final Block block, final HashSet<ByteArray> lockingScripts) {
+        final HashMap<Sha256Hash, Transaction> blockWalletTransactions = new HashMap<>();
+        final MutableList<Transaction> walletTransactions = new MutableList<>();
+        for (final Transaction transaction : block.getTransactions()) {
+            boolean isWalletTransaction = false;
+            for (final TransactionOutput transactionOutput : transaction.getTransactionOutputs()) {
+                final LockingScript lockingScript = transactionOutput.getLockingScript();
+                if (lockingScripts.contains(lockingScript.getBytes())) {
+                    isWalletTransaction = true;
+                    break;
+                }
+            }
+
+            if ( (! isWalletTransaction) && (! Transaction.isCoinbaseTransaction(transaction)) ) {
+                for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                    final Sha256Hash previousTransactionHash = transactionInput.getPreviousOutputTransactionHash();
+                    final Transaction blockPreviousTransaction = blockWalletTransactions.get(previousTransactionHash);
+                    final Transaction previousTransaction = (blockPreviousTransaction != null ? blockPreviousTransaction : _wallet.getTransaction(previousTransactionHash));
+                    if (previousTransaction == null) { continue; }
+
+                    final List<TransactionOutput> previousTransactionOutputs = previousTransaction.getTransactionOutputs();
+                    final Integer previousOutputIndex = transactionInput.getPreviousOutputIndex();
+                    if (previousOutputIndex >= previousTransactionOutputs.getCount()) { continue; }
+
+                    final TransactionOutput previousTransactionOutput = previousTransactionOutputs.get(previousOutputIndex);
+                    if (lockingScripts.contains(previousTransactionOutput.getLockingScript().getBytes())) {
+                        isWalletTransaction = true;
+                        break;
+                    }
+                }
+            }
+
+            if (isWalletTransaction) {
+                blockWalletTransactions.put(transaction.getHash(), transaction);
+                walletTransactions.add(transaction);
+            }
+        }
+        return walletTransactions;
+    }
+
+    protected void _storeWalletTransactions(final Block block, final List<Transaction> walletTransactions) throws DatabaseException {
+        final HashSet<Sha256Hash> walletTransactionHashes = new HashSet<>(walletTransactions.getCount());
+        for (final Transaction transaction : walletTransactions) {
+            walletTransactionHashes.add(transaction.getHash());
+        }
+
+        final MerkleTree<Transaction> merkleTree = block.getMerkleTree();
+        final PartialMerkleTree partialMerkleTree = merkleTree.getPartialTree(new MerkleTree.Filter<Transaction>() {
+            @Override
+            public boolean shouldInclude(final Transaction transaction) {
+                return walletTransactionHashes.contains(transaction.getHash());
+            }
+        });
+
+        try (final SpvDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final SpvBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+            final SpvTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+
+            TransactionUtil.startTransaction(databaseConnection);
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                final BlockId blockId = blockHeaderDatabaseManager.storeBlockHeader(block);
+                blockDatabaseManager.storePartialMerkleTree(blockId, partialMerkleTree);
+
+                for (final Transaction transaction : walletTransactions) {
+                    final TransactionId transactionId = transactionDatabaseManager.storeTransaction(transaction);
+                    blockDatabaseManager.addTransactionToBlock(blockId, transactionId);
+                }
+            }
+            TransactionUtil.commitTransaction(databaseConnection);
+        }
+    }
+
+    public BlockFilterSynchronizer(final SpvDatabaseManagerFactory databaseManagerFactory, final BitcoinNodeManager bitcoinNodeManager, final Wallet wallet, final PropertiesStore propertiesStore, final ThreadPool threadPool) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _bitcoinNodeManager = bitcoinNodeManager;
+        _wallet = wallet;
+        _propertiesStore = propertiesStore;
+        _threadPool = threadPool;
+    }
+
+    @Override
+    protected void _onStart() { }
+
+    @Override
+    protected Boolean _run() {
+        final Long scanGeneration;
+        final Long startBlockHeight;
+        final Sha256Hash previousBlockHash;
+        final Sha256Hash previousFilterHeader;
+        synchronized (_scanStateMutex) {
+            scanGeneration = _scanGeneration;
+            startBlockHeight = _getScanBlockHeight();
+            previousBlockHash = _getScanProperty(SCAN_BLOCK_HASH_KEY);
+            previousFilterHeader = _getScanProperty(SCAN_FILTER_HEADER_KEY);
+        }
+
+        final MutableList<Sha256Hash> blockHashes = new MutableList<>(BATCH_SIZE);
+        try (final SpvDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+
+            final BlockId headBlockId = blockHeaderDatabaseManager.getHeadBlockHeaderId();
+            if (headBlockId == null) { return false; }
+
+            final Long headBlockHeight = blockHeaderDatabaseManager.getBlockHeight(headBlockId);
+            final BlockchainSegmentId headBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockId);
+
+            if ( (previousBlockHash != null) && (startBlockHeight > 0L) ) { // Rescan recent blocks if the last scanned block has been reorganized away...
+                final BlockId previousBlockId = blockHeaderDatabaseManager.getBlockIdAtHeight(headBlockchainSegmentId, (startBlockHeight - 1L));
+                final Sha256Hash headPreviousBlockHash = (previousBlockId != null ? blockHeaderDatabaseManager.getBlockHash(previousBlockId) : null);
+                if (! Util.areEqual(previousBlockHash, headPreviousBlockHash)) {
+                    Logger.info("Block filter scan diverged from the head blockchain at " + (startBlockHeight - 1L) + "; rescanning.");
+                    synchronized (_scanStateMutex) {
+                        if (Util.areEqual(scanGeneration, _scanGeneration)) {
+                            _resetScanState(Math.max(_minimumBlockHeight, (startBlockHeight - REORG_RESCAN_DEPTH)));
+                        }
+                    }
+                    return true;
+                }
+            }
+
+            final long stopBlockHeight = Math.min(headBlockHeight, ((startBlockHeight + BATCH_SIZE) - 1L));
+            for (long blockHeight = startBlockHeight; blockHeight <= stopBlockHeight; ++blockHeight) {
+                final BlockId blockId = blockHeaderDatabaseManager.getBlockIdAtHeight(headBlockchainSegmentId, blockHeight);
+                final Sha256Hash blockHash = (blockId != null ? blockHeaderDatabaseManager.getBlockHash(blockId) : null);
+                if (blockHash == null) { break; }
+
+                blockHashes.add(blockHash);
+            }
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+            return false;
+        }
+
+        if (blockHashes.isEmpty()) {
+            _isSynchronizing = false;
+            return false;
+        }
+
+        final List<BitcoinNode> bitcoinNodes = _selectBitcoinNodes();
+        if (bitcoinNodes.isEmpty()) {
+            Logger.debug("Unable to synchronize block filters: no compact filter nodes available.");
+            return false;
+        }
+
+        _isSynchronizing = true;
+        try {
+            final int blockCount = blockHashes.getCount();
+            final Sha256Hash stopBlockHash = blockHashes.get(blockCount - 1);
+
+            // The genesis block's previous filter header is defined as zero; otherwise the first batch relies upon the peers' agreement.
+            final Sha256Hash expectedPreviousFilterHeader = ( (previousFilterHeader == null) && (startBlockHeight == 0L) ? Sha256Hash.EMPTY_HASH : previousFilterHeader );
+            final FilterHeaderCandidate filterHeaderCandidate = _downloadAgreedBlockFilterHeaders(bitcoinNodes, startBlockHeight, blockHashes, expectedPreviousFilterHeader);
+            if (filterHeaderCandidate == null) {
+                Logger.debug("Unable to agree upon block filter headers for block height " + startBlockHeight + ".");
+                return false;
+            }
+
+            final BitcoinNode bitcoinNode = filterHeaderCandidate.bitcoinNode;
+            final BlockFilterHeaders blockFilterHeaders = filterHeaderCandidate.blockFilterHeaders;
+            final List<Sha256Hash> filterHashes = blockFilterHeaders.getFilterHashes();
+
+            final List<BlockFilter> blockFilters = _downloadBlockFilters(bitcoinNode, startBlockHeight, blockHashes);
+            if (blockFilters == null) {
+                Logger.debug("Unable to download block filters from " + bitcoinNode + ".");
+                return false;
+            }
+
+            for (int i = 0; i < blockCount; ++i) {
+                final BlockFilter blockFilter = blockFilters.get(i);
+                if (! Util.areEqual(filterHashes.get(i), blockFilter.getFilterHash())) {
+                    Logger.warn("Block filter for " + blockFilter.getBlockHash() + " from " + bitcoinNode + " does not match its filter header.");
+                    return false;
+                }
+            }
+
+            final List<LockingScript> walletLockingScripts = _wallet.getLockingScripts();
+            final HashSet<ByteArray> lockingScripts = new HashSet<>(walletLockingScripts.getCount());
+            final MutableList<ByteArray> lockingScriptBytes = new MutableList<>(walletLockingScripts.getCount());
+            for (final LockingScript lockingScript : walletLockingScripts) {
+                final ByteArray bytes = lockingScript.getBytes().asConst();
+                lockingScripts.add(bytes);
+                lockingScriptBytes.add(bytes);
+            }
+
+            final boolean[] matches = _matchBlockFilters(blockFilters, lockingScriptBytes);
+            if (matches == null) {
+                Logger.debug("Timed out matching block filters " + startBlockHeight + " - " + ((startBlockHeight + blockCount) - 1L) + ".");
+                return false;
+            }
+            for (int i = 0; i < blockCount; ++i) {
+                if (! matches[i]) { continue; }
+                if (_shouldAbort()) { return false; }
+
+                final Sha256Hash blockHash = blockHashes.get(i);
+                final Block block = _downloadBlock(bitcoinNode, blockHash);
+                if ( (block == null) || (! Util.areEqual(blockHash, block.getHash())) || (! block.isValid()) ) {
+                    Logger.debug("Unable to download matched block " + blockHash + " from " + bitcoinNode + ".");
+                    return false;
+                }
+
+                final List<Transaction> walletTransactions = _getWalletTransactions(block, lockingScripts);
+                if (walletTransactions.isEmpty()) { continue; } // False-positive filter match...
+
+                _storeWalletTransactions(block, walletTransactions);
+                _wallet.addTransactions(walletTransactions);
+
+                final DownloadCompleteCallback downloadCompleteCallback = _downloadCompleteCallback;
+                if (downloadCompleteCallback != null) {
+                    downloadCompleteCallback.newBlockTransactionsDownloaded(block, walletTransactions);
+                }
+            }
+
+            synchronized (_scanStateMutex) {
+                if (! Util.areEqual(scanGeneration, _scanGeneration)) { return true; } // A rescan was requested while this batch was in flight...
+
+                _propertiesStore.set(SCAN_BLOCK_HEIGHT_KEY, (startBlockHeight + blockCount));
+                _propertiesStore.set(SCAN_BLOCK_HASH_KEY, stopBlockHash.toString());
+                _propertiesStore.set(SCAN_FILTER_HEADER_KEY, filterHeaderCandidate.lastFilterHeader.toString());
+            }
+            Logger.debug("Scanned block filters " + startBlockHeight + " - " + ((startBlockHeight + blockCount) - 1L) + ".");
+
+            final Runnable batchProcessedCallback = _batchProcessedCallback;
+            if (batchProcessedCallback != null) {
+                batchProcessedCallback.run();
+            }
+
+            return true;
+        }
+        catch (final InterruptedException exception) {
+            return false;
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+            return false;
+        }
+    }
+
+    @Override
+    protected void _onSleep() {
+        _isSynchronizing = false;
+    }
+
+    public void setMinimumBlockHeight(final Long minimumBlockHeight) {
+        _minimumBlockHeight = minimumBlockHeight;
+    }
+
+    /**
+     * Restarts the scan from the minimum block height, e.g. after keys have been added to the Wallet.
+     *  Only the filters are downloaded again; previously stored transactions are retained.
+     */
+    public void rescan() {
+        synchronized (_scanStateMutex) {
+            _scanGeneration += 1L;
+            _resetScanState(_minimumBlockHeight);
+        }
+
+        this.wakeUp();
+    }
+
+    /**
+     * Returns the height of the last scanned block, or null if no blocks have been scanned.
+     */
+    public Long getBlockHeight() {
+        final Long scanBlockHeight = _propertiesStore.getLong(SCAN_BLOCK_HEIGHT_KEY);
+        if ( (scanBlockHeight == null) || (scanBlockHeight < 1L) ) { return null; }
+        return (scanBlockHeight - 1L);
+    }
+
+    public Boolean isSynchronizing() {
+        return _isSynchronizing;
+    }
+
+    public void setDownloadCompleteCallback(final DownloadCompleteCallback downloadCompleteCallback) {
+        _downloadCompleteCallback = downloadCompleteCallback;
+    }
+
+    public void setBatchProcessedCallback(final Runnable batchProcessedCallback) {
+        _batchProcessedCallback = batchProcessedCallback;
+    }
+}
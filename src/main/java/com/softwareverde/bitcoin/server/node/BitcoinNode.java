@@ -4,6 +4,9 @@ import com.softwareverde.bitcoin.address.Address;
 import com.softwareverde.bitcoin.address.AddressInflater;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.MerkleBlock;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterHeaders;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.header.BlockHeaderWithTransactionCount;
 import com.softwareverde.bitcoin.block.header.ImmutableBlockHeaderWithTransactionCount;
@@ -42,12 +45,17 @@ import com.softwareverde.bitcoin.server.message.type.query.response.block.BlockM
 import com.softwareverde.bitcoin.server.message.type.query.response.block.header.BlockHeadersMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.block.merkle.MerkleBlockMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.error.NotFoundResponseMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.hash.InventoryItem;
 import com.softwareverde.bitcoin.server.message.type.query.response.hash.InventoryItemType;
 import com.softwareverde.bitcoin.server.message.type.query.response.transaction.TransactionMessage;
 import com.softwareverde.bitcoin.server.message.type.query.response.utxo.UtxoCommitmentMessage;
 import com.softwareverde.bitcoin.server.message.type.query.slp.QuerySlpStatusMessage;
 import com.softwareverde.bitcoin.server.message.type.query.utxo.NodeSpecificUtxoCommitmentBreakdown;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterCheckpointMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFiltersMessage;
 import com.softwareverde.bitcoin.server.message.type.query.utxo.QueryUtxoCommitmentsMessage;
 import com.softwareverde.bitcoin.server.message.type.query.utxo.UtxoCommitmentsMessage;
 import com.softwareverde.bitcoin.server.message.type.slp.EnableSlpTransactionsMessage;
@@ -136,6 +144,10 @@ public class BitcoinNode extends Node {
 
     public interface DownloadDoubleSpendProofCallback extends FailableBitcoinNodeRequestCallback<DoubleSpendProof, Sha256Hash> { }
 
+    public interface DownloadBlockFilterCallback extends FailableBitcoinNodeRequestCallback<BlockFilter, Sha256Hash> { }
+
+    public interface DownloadBlockFilterHeadersCallback extends FailableBitcoinNodeRequestCallback<BlockFilterHeaders, Sha256Hash> { }
+
     public interface RequestPeersHandler extends BitcoinNodeCallback {
         List<BitcoinNodeIpAddress> getConnectedPeers();
     }
@@ -192,6 +204,12 @@ public class BitcoinNode extends Node {
         void run(BitcoinNode bitcoinNode);
     }
 
+    public interface QueryBlockFiltersHandler extends BitcoinNodeHandler {
+        void getBlockFilters(BitcoinNode bitcoinNode, BlockFilterType filterType, Long startBlockHeight, Sha256Hash stopBlockHash);
+        void getBlockFilterHeaders(BitcoinNode bitcoinNode, BlockFilterType filterType, Long startBlockHeight, Sha256Hash stopBlockHash);
+        void getBlockFilterCheckpoint(BitcoinNode bitcoinNode, BlockFilterType filterType, Sha256Hash stopBlockHash);
+    }
+
     public interface RequestExtraThinBlockHandler extends BitcoinNodeHandler {
         void run(BitcoinNode bitcoinNode, Sha256Hash blockHash, BloomFilter bloomFilter);
     }
@@ -271,6 +289,8 @@ public class BitcoinNode extends Node {
     protected final Map<Sha256Hash, Set<PendingRequest<DownloadExtraThinBlockCallback>>> _downloadExtraThinBlockRequests = new HashMap<>();
     protected final Map<Sha256Hash, Set<PendingRequest<DownloadThinTransactionsCallback>>> _downloadThinTransactionsRequests = new HashMap<>();
     protected final Map<Sha256Hash, Set<PendingRequest<DownloadDoubleSpendProofCallback>>> _downloadDoubleSpendProofRequests = new HashMap<>();
+    protected final Map<Sha256Hash, Set<PendingRequest<DownloadBlockFilterCallback>>> _downloadBlockFilterRequests = new HashMap<>();
+    protected final Map<Sha256Hash, Set<PendingRequest<DownloadBlockFilterHeadersCallback>>> _downloadBlockFilterHeadersRequests = new HashMap<>();
     protected final Map<RequestId, BlockInventoryAnnouncementHandler> _downloadAddressBlocksRequests = new HashMap<>();
     protected final Map<RequestId, UtxoCommitmentsCallback> _utxoCommitmentsCallbacks = new HashMap<>();
 
@@ -288,6 +308,7 @@ public class BitcoinNode extends Node {
     protected RequestSpvBlocksHandler _requestSpvBlocksHandler;
     protected RequestSlpTransactionsHandler _requestSlpTransactionsHandler;
     protected QueryUtxoCommitmentsHandler _queryUtxoCommitmentsHandler;
+    protected QueryBlockFiltersHandler _queryBlockFiltersHandler;
 
     protected RequestExtraThinBlockHandler _requestExtraThinBlockCallback;
     protected RequestExtraThinTransactionHandler _requestExtraThinTransactionCallback;
@@ -309,6 +330,7 @@ public class BitcoinNode extends Node {
     protected Boolean _slpValidityCheckingIsEnabled = false;
 
     protected MutableBloomFilter _bloomFilter;
+    protected final RollingInventoryFilter _transactionInventoryFilter = new RollingInventoryFilter(); // The transactions recently announced by, or to, the peer.
     protected Sha256Hash _batchContinueHash; // https://en.bitcoin.it/wiki/Satoshi_Client_Block_Exchange#Batch_Continue_Mechanism
 
     protected MerkleBlockParameters _currentMerkleBlockBeingTransmitted; // Represents the currently MerkleBlock being transmitted from the node. Becomes unset after a non-transaction message is received.
@@ -324,6 +346,8 @@ public class BitcoinNode extends Node {
         BitcoinNodeUtil.removeValueFromMapSet(_downloadThinBlockRequests, requestId);
         BitcoinNodeUtil.removeValueFromMapSet(_downloadExtraThinBlockRequests, requestId);
         BitcoinNodeUtil.removeValueFromMapSet(_downloadThinTransactionsRequests, requestId);
+        BitcoinNodeUtil.removeValueFromMapSet(_downloadBlockFilterRequests, requestId);
+        BitcoinNodeUtil.removeValueFromMapSet(_downloadBlockFilterHeadersRequests, requestId);
         _failableRequests.remove(requestId);
 
         synchronized (_utxoCommitmentsCallbacks) {
@@ -481,6 +505,7 @@ public class BitcoinNode extends Node {
             _requestSpvBlocksHandler = null;
             _requestSlpTransactionsHandler = null;
             _queryUtxoCommitmentsHandler = null;
+            _queryBlockFiltersHandler = null;
             _blockInventoryMessageHandler = null;
             _requestExtraThinBlockCallback = null;
             _requestExtraThinTransactionCallback = null;
@@ -500,8 +525,11 @@ public class BitcoinNode extends Node {
         BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadThinBlockRequests, _failableRequests, this);
         BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadExtraThinBlockRequests, _failableRequests, this);
         BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadThinTransactionsRequests, _failableRequests, this);
+        BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadBlockFilterRequests, _failableRequests, this);
+        BitcoinNodeUtil.failPendingRequests(_threadPool, _downloadBlockFilterHeadersRequests, _failableRequests, this);
 
         _failableRequests.clear();
+        _transactionInventoryFilter.clear();
     }
 
     @Override
@@ -742,6 +770,11 @@ public class BitcoinNode extends Node {
         _messageRouter.addRoute(MessageType.QUERY_UTXO_COMMITMENTS,         (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryUtxoCommitmentsMessageReceived((QueryUtxoCommitmentsMessage) message); });
         _messageRouter.addRoute(MessageType.UTXO_COMMITMENTS,               (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onUtxoCommitmentsReceived((UtxoCommitmentsMessage) message); });
         _messageRouter.addRoute(MessageType.UTXO_COMMITMENT,                (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onUtxoCommitmentMessageReceived((UtxoCommitmentMessage) message); });
+        _messageRouter.addRoute(MessageType.QUERY_BLOCK_FILTERS,            (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryBlockFiltersMessageReceived((QueryBlockFiltersMessage) message); });
+        _messageRouter.addRoute(MessageType.QUERY_BLOCK_FILTER_HEADERS,     (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryBlockFilterHeadersMessageReceived((QueryBlockFilterHeadersMessage) message); });
+        _messageRouter.addRoute(MessageType.QUERY_BLOCK_FILTER_CHECKPOINT,  (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onQueryBlockFilterCheckpointMessageReceived((QueryBlockFilterCheckpointMessage) message); });
+        _messageRouter.addRoute(MessageType.BLOCK_FILTER,                   (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onBlockFilterMessageReceived((BlockFilterMessage) message); });
+        _messageRouter.addRoute(MessageType.BLOCK_FILTER_HEADERS,           (final ProtocolMessage message, final BitcoinNode bitcoinNode) -> { _onBlockFilterHeadersMessageReceived((BlockFilterHeadersMessage) message); });
 
         _messageRouter.setUnknownRouteHandler(new MessageRouter.UnknownRouteHandler() {
             @Override
@@ -813,6 +846,7 @@ public class BitcoinNode extends Node {
                 case INVALID_SLP_TRANSACTION:
                 case TRANSACTION: {
                     final boolean isSlp = (inventoryItemType != InventoryItemType.TRANSACTION);
+                    _transactionInventoryFilter.addAll(objectHashes);
 
                     final TransactionInventoryAnnouncementHandler transactionsAnnouncementCallback = _transactionsAnnouncementCallback;
                     if (transactionsAnnouncementCallback != null) {
@@ -970,6 +1004,8 @@ public class BitcoinNode extends Node {
         final Transaction transaction = transactionMessage.getTransaction();
 
         final Sha256Hash transactionHash = transaction.getHash();
+        _transactionInventoryFilter.add(transactionHash);
+
         final Boolean wasRequested = BitcoinNodeUtil.executeAndClearCallbacks(_threadPool, _downloadTransactionRequests, _failableRequests, transactionHash, new CallbackExecutor<DownloadTransactionCallback>() {
             @Override
             public void onResult(final PendingRequest<DownloadTransactionCallback> pendingRequest) {
@@ -1506,6 +1542,97 @@ public class BitcoinNode extends Node {
         });
     }
 
+    protected void _onQueryBlockFiltersMessageReceived(final QueryBlockFiltersMessage queryBlockFiltersMessage) {
+        final QueryBlockFiltersHandler queryBlockFiltersHandler = _queryBlockFiltersHandler;
+        if (queryBlockFiltersHandler == null) {
+            Logger.debug("No handler set for QueryBlockFilters message.");
+            return;
+        }
+
+        final BlockFilterType filterType = queryBlockFiltersMessage.getFilterType();
+        final Long startBlockHeight = queryBlockFiltersMessage.getStartBlockHeight();
+        final Sha256Hash stopBlockHash = queryBlockFiltersMessage.getStopBlockHash();
+        _threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                queryBlockFiltersHandler.getBlockFilters(BitcoinNode.this, filterType, startBlockHeight, stopBlockHash);
+            }
+        });
+    }
+
+    protected void _onQueryBlockFilterHeadersMessageReceived(final QueryBlockFilterHeadersMessage queryBlockFilterHeadersMessage) {
+        final QueryBlockFiltersHandler queryBlockFiltersHandler = _queryBlockFiltersHandler;
+        if (queryBlockFiltersHandler == null) {
+            Logger.debug("No handler set for QueryBlockFilterHeaders message.");
+            return;
+        }
+
+        final BlockFilterType filterType = queryBlockFilterHeadersMessage.getFilterType();
+        final Long startBlockHeight = queryBlockFilterHeadersMessage.getStartBlockHeight();
+        final Sha256Hash stopBlockHash = queryBlockFilterHeadersMessage.getStopBlockHash();
+        _threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                queryBlockFiltersHandler.getBlockFilterHeaders(BitcoinNode.this, filterType, startBlockHeight, stopBlockHash);
+            }
+        });
+    }
+
+    protected void _onQueryBlockFilterCheckpointMessageReceived(final QueryBlockFilterCheckpointMessage queryBlockFilterCheckpointMessage) {
+        final QueryBlockFiltersHandler queryBlockFiltersHandler = _queryBlockFiltersHandler;
+        if (queryBlockFiltersHandler == null) {
+            Logger.debug("No handler set for QueryBlockFilterCheckpoint message.");
+            return;
+        }
+
+        final BlockFilterType filterType = queryBlockFilterCheckpointMessage.getFilterType();
+        final Sha256Hash stopBlockHash = queryBlockFilterCheckpointMessage.getStopBlockHash();
+        _threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                queryBlockFiltersHandler.getBlockFilterCheckpoint(BitcoinNode.this, filterType, stopBlockHash);
+            }
+        });
+    }
+
+    protected void _onBlockFilterMessageReceived(final BlockFilterMessage blockFilterMessage) {
+        final BlockFilter blockFilter = blockFilterMessage.getBlockFilter();
+        final Sha256Hash blockHash = blockFilter.getBlockHash();
+
+        final Boolean wasRequested = BitcoinNodeUtil.executeAndClearCallbacks(_threadPool, _downloadBlockFilterRequests, _failableRequests, blockHash, new CallbackExecutor<DownloadBlockFilterCallback>() {
+            @Override
+            public void onResult(final PendingRequest<DownloadBlockFilterCallback> pendingRequest) {
+                final DownloadBlockFilterCallback callback = pendingRequest.callback;
+                callback.onResult(pendingRequest.requestId, BitcoinNode.this, blockFilter);
+            }
+        });
+
+        final MessageType messageType = blockFilterMessage.getCommand();
+        final Integer byteCount = blockFilterMessage.getByteCount();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataReceived(BitcoinNode.this, messageType, byteCount, wasRequested);
+        }
+    }
+
+    protected void _onBlockFilterHeadersMessageReceived(final BlockFilterHeadersMessage blockFilterHeadersMessage) {
+        final Sha256Hash stopBlockHash = blockFilterHeadersMessage.getStopBlockHash();
+        final BlockFilterHeaders blockFilterHeaders = new BlockFilterHeaders(blockFilterHeadersMessage.getFilterType(), stopBlockHash, blockFilterHeadersMessage.getPreviousFilterHeader(), blockFilterHeadersMessage.getFilterHashes());
+
+        final Boolean wasRequested = BitcoinNodeUtil.executeAndClearCallbacks(_threadPool, _downloadBlockFilterHeadersRequests, _failableRequests, stopBlockHash, new CallbackExecutor<DownloadBlockFilterHeadersCallback>() {
+            @Override
+            public void onResult(final PendingRequest<DownloadBlockFilterHeadersCallback> pendingRequest) {
+                final DownloadBlockFilterHeadersCallback callback = pendingRequest.callback;
+                callback.onResult(pendingRequest.requestId, BitcoinNode.this, blockFilterHeaders);
+            }
+        });
+
+        final MessageType messageType = blockFilterHeadersMessage.getCommand();
+        final Integer byteCount = blockFilterHeadersMessage.getByteCount();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataReceived(BitcoinNode.this, messageType, byteCount, wasRequested);
+        }
+    }
+
     protected void _onUtxoCommitmentsReceived(final UtxoCommitmentsMessage utxoCommitmentsMessage) {
         final List<NodeSpecificUtxoCommitmentBreakdown> utxoCommitmentBreakdowns = utxoCommitmentsMessage.getUtxoCommitments();
 
@@ -1986,6 +2113,91 @@ public class BitcoinNode extends Node {
         return requestId;
     }
 
+    public List<RequestId> requestBlockFilters(final Long startBlockHeight, final List<Sha256Hash> blockHashes, final DownloadBlockFilterCallback downloadBlockFilterCallback) {
+        return this.requestBlockFilters(startBlockHeight, blockHashes, downloadBlockFilterCallback, RequestPriority.NORMAL);
+    }
+
+    /**
+     * Requests the BlockFilters for the contiguous range of blockHashes, the first of which is at startBlockHeight.
+     *  The callback is invoked once per block; each block is tracked as its own request so that filters not delivered may fail independently.
+     */
+    public List<RequestId> requestBlockFilters(final Long startBlockHeight, final List<Sha256Hash> blockHashes, final DownloadBlockFilterCallback downloadBlockFilterCallback, final RequestPriority requestPriority) {
+        final int blockHashCount = blockHashes.getCount();
+        if ( (blockHashCount < 1) || (blockHashCount > QueryBlockFiltersMessage.MAX_BLOCK_FILTER_COUNT) ) {
+            _threadPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    downloadBlockFilterCallback.onFailure(null, BitcoinNode.this, null);
+                }
+            });
+            return new MutableList<>(0);
+        }
+
+        final ImmutableListBuilder<RequestId> requestIds = new ImmutableListBuilder<>(blockHashCount);
+        for (final Sha256Hash blockHash : blockHashes) {
+            final RequestId requestId = _newRequestId();
+            BitcoinNodeUtil.storeInMapSet(_downloadBlockFilterRequests, blockHash, new PendingRequest<>(requestId, downloadBlockFilterCallback, requestPriority));
+            final Long requestStartBytesReceived = _connection.getTotalBytesReceivedCount();
+            _failableRequests.put(requestId, new FailableRequest("BLOCK FILTER " + blockHash, requestStartBytesReceived, downloadBlockFilterCallback, new Runnable() {
+                @Override
+                public void run() {
+                    downloadBlockFilterCallback.onFailure(requestId, BitcoinNode.this, blockHash);
+
+                    for (final BitcoinNodeObserver observer : _observers) {
+                        observer.onFailedRequest(BitcoinNode.this, MessageType.BLOCK_FILTER, requestPriority);
+                    }
+                }
+            }));
+            requestIds.add(requestId);
+        }
+
+        final QueryBlockFiltersMessage queryBlockFiltersMessage = _protocolMessageFactory.newQueryBlockFiltersMessage();
+        queryBlockFiltersMessage.setFilterType(BlockFilterType.BASIC);
+        queryBlockFiltersMessage.setStartBlockHeight(startBlockHeight);
+        queryBlockFiltersMessage.setStopBlockHash(blockHashes.get(blockHashCount - 1));
+        _queueMessage(queryBlockFiltersMessage);
+
+        final MessageType messageType = queryBlockFiltersMessage.getCommand();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataRequested(BitcoinNode.this, messageType);
+        }
+
+        return requestIds.build();
+    }
+
+    public RequestId requestBlockFilterHeaders(final Long startBlockHeight, final Sha256Hash stopBlockHash, final DownloadBlockFilterHeadersCallback downloadBlockFilterHeadersCallback) {
+        return this.requestBlockFilterHeaders(startBlockHeight, stopBlockHash, downloadBlockFilterHeadersCallback, RequestPriority.NORMAL);
+    }
+
+    public RequestId requestBlockFilterHeaders(final Long startBlockHeight, final Sha256Hash stopBlockHash, final DownloadBlockFilterHeadersCallback downloadBlockFilterHeadersCallback, final RequestPriority requestPriority) {
+        final RequestId requestId = _newRequestId();
+        BitcoinNodeUtil.storeInMapSet(_downloadBlockFilterHeadersRequests, stopBlockHash, new PendingRequest<>(requestId, downloadBlockFilterHeadersCallback, requestPriority));
+        final Long requestStartBytesReceived = _connection.getTotalBytesReceivedCount();
+        _failableRequests.put(requestId, new FailableRequest("BLOCK FILTER HEADERS " + startBlockHeight + " - " + stopBlockHash, requestStartBytesReceived, downloadBlockFilterHeadersCallback, new Runnable() {
+            @Override
+            public void run() {
+                downloadBlockFilterHeadersCallback.onFailure(requestId, BitcoinNode.this, stopBlockHash);
+
+                for (final BitcoinNodeObserver observer : _observers) {
+                    observer.onFailedRequest(BitcoinNode.this, MessageType.BLOCK_FILTER_HEADERS, requestPriority);
+                }
+            }
+        }));
+
+        final QueryBlockFilterHeadersMessage queryBlockFilterHeadersMessage = _protocolMessageFactory.newQueryBlockFilterHeadersMessage();
+        queryBlockFilterHeadersMessage.setFilterType(BlockFilterType.BASIC);
+        queryBlockFilterHeadersMessage.setStartBlockHeight(startBlockHeight);
+        queryBlockFilterHeadersMessage.setStopBlockHash(stopBlockHash);
+        _queueMessage(queryBlockFilterHeadersMessage);
+
+        final MessageType messageType = queryBlockFilterHeadersMessage.getCommand();
+        for (final BitcoinNodeObserver observer : _observers) {
+            observer.onDataRequested(BitcoinNode.this, messageType);
+        }
+
+        return requestId;
+    }
+
     public void transmitDoubleSpendProofHash(final Sha256Hash doubleSpendProofHash) {
         final InventoryMessage inventoryMessage = _protocolMessageFactory.newInventoryMessage();
 
@@ -2058,9 +2270,19 @@ public class BitcoinNode extends Node {
             inventoryMessage.addInventoryItem(inventoryItem);
         }
 
+        _transactionInventoryFilter.addAll(transactionHashes);
+
         _queueMessage(inventoryMessage);
     }
 
+    /**
+     * Returns true if the transaction was recently announced by, or to, this peer.
+     *  Since the inventory is tracked via a rolling filter, false positives are possible (but rare).
+     */
+    public Boolean hasTransactionInventory(final Sha256Hash transactionHash) {
+        return _transactionInventoryFilter.mightContain(transactionHash);
+    }
+
     public void transmitBlockHashes(final List<Sha256Hash> blockHashes) {
         final InventoryMessage inventoryMessage = _protocolMessageFactory.newInventoryMessage();
         for (final Sha256Hash blockHash : blockHashes) {
@@ -2218,6 +2440,10 @@ public class BitcoinNode extends Node {
         _queryUtxoCommitmentsHandler = queryUtxoCommitmentsHandler;
     }
 
+    public void setQueryBlockFiltersHandler(final QueryBlockFiltersHandler queryBlockFiltersHandler) {
+        _queryBlockFiltersHandler = queryBlockFiltersHandler;
+    }
+
     public void setBlockInventoryMessageHandler(final BlockInventoryAnnouncementHandler blockInventoryMessageHandler) {
         _blockInventoryMessageHandler = blockInventoryMessageHandler;
     }
@@ -2430,6 +2656,8 @@ public class BitcoinNode extends Node {
         synchronized (_downloadThinBlockRequests) { _downloadThinBlockRequests.clear(); }
         synchronized (_downloadExtraThinBlockRequests) { _downloadExtraThinBlockRequests.clear(); }
         synchronized (_downloadThinTransactionsRequests) { _downloadThinTransactionsRequests.clear(); }
+        synchronized (_downloadBlockFilterRequests) { _downloadBlockFilterRequests.clear(); }
+        synchronized (_downloadBlockFilterHeadersRequests) { _downloadBlockFilterHeadersRequests.clear(); }
         synchronized (_downloadAddressBlocksRequests) { _downloadAddressBlocksRequests.clear(); }
 
         _failableRequests.clear();
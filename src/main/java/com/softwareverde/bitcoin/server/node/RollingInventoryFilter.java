@@ -0,0 +1,140 @@
+package com.softwareverde.bitcoin.server.node;
+
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.Arrays;
+
+/**
+ * A bounded-memory set of recently seen hashes, used to track the inventory known by a peer.
+ *  The filter is composed of two generations of Bloom filters.  Items are added to the current generation; once it contains
+ *  itemCountPerGeneration items the previous generation is discarded and the current generation becomes the previous.
+ *  Therefore at least the most recent itemCountPerGeneration items are always retained, and false positives occur at
+ *  (at most) roughly twice the configured rate.
+ *  The filter's memory is allocated upon first use and released via RollingInventoryFilter::clear.
+ */
+public class RollingInventoryFilter {
+    public static final Integer DEFAULT_ITEM_COUNT_PER_GENERATION = 25000;
+    public static final Double DEFAULT_FALSE_POSITIVE_RATE = 0.000001D;
+
+    protected static long _mix(final long value) { // MurmurHash3's 64-bit finalizer.
+        long mixedValue = value;
+        mixedValue ^= (mixedValue >>> 33);
+        mixedValue *= 0xFF51AFD7ED558CCDL;
+        mixedValue ^= (mixedValue >>> 33);
+        mixedValue *= 0xC4CEB9FE1A85EC53L;
+        mixedValue ^= (mixedValue >>> 33);
+        return mixedValue;
+    }
+
+    protected static long _readLong(final Sha256Hash hash, final int offset) {
+        long value = 0L;
+        for (int i = 0; i < 8; ++i) {
+            value = ((value << 8) | (hash.getByte(offset + i) & 0xFFL));
+        }
+        return value;
+    }
+
+    protected final Integer _itemCountPerGeneration;
+    protected final Integer _bitCount;
+    protected final Integer _hashFunctionCount;
+    protected final long _seed;
+
+    protected long[] _currentGeneration;
+    protected long[] _previousGeneration;
+    protected int _currentGenerationItemCount = 0;
+
+    /**
+     * Calculates the bit index of the hash for the hashFunctionIndex via double-hashing.
+     *  Since hashes are already uniformly distributed, the hash is only mixed with the filter's random seed so that
+     *  false positives are not shared across peers.
+     */
+    protected int _getBitIndex(final long hash0, final long hash1, final int hashFunctionIndex) {
+        final long combinedHash = (hash0 + (hashFunctionIndex * hash1));
+        return (int) ((combinedHash >>> 1) % _bitCount);
+    }
+
+    protected boolean _contains(final long[] generation, final long hash0, final long hash1) {
+        if (generation == null) { return false; }
+
+        for (int i = 0; i < _hashFunctionCount; ++i) {
+            final int bitIndex = _getBitIndex(hash0, hash1, i);
+            if ((generation[bitIndex >>> 6] & (1L << bitIndex)) == 0L) { return false; }
+        }
+        return true;
+    }
+
+    protected void _add(final Sha256Hash hash) {
+        final long hash0 = _mix(_readLong(hash, 0) ^ _seed);
+        final long hash1 = (_mix(_readLong(hash, 8) ^ (~_seed)) | 1L);
+
+        if (_contains(_currentGeneration, hash0, hash1)) { return; }
+
+        if (_currentGeneration == null) {
+            _currentGeneration = new long[_bitCount / 64];
+        }
+        else if (_currentGenerationItemCount >= _itemCountPerGeneration) {
+            final long[] discardedGeneration = _previousGeneration;
+            _previousGeneration = _currentGeneration;
+
+            if (discardedGeneration != null) {
+                Arrays.fill(discardedGeneration, 0L);
+                _currentGeneration = discardedGeneration;
+            }
+            else {
+                _currentGeneration = new long[_bitCount / 64];
+            }
+            _currentGenerationItemCount = 0;
+        }
+
+        for (int i = 0; i < _hashFunctionCount; ++i) {
+            final int bitIndex = _getBitIndex(hash0, hash1, i);
+            _currentGeneration[bitIndex >>> 6] |= (1L << bitIndex);
+        }
+        _currentGenerationItemCount += 1;
+    }
+
+    public RollingInventoryFilter() {
+        this(DEFAULT_ITEM_COUNT_PER_GENERATION, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    public RollingInventoryFilter(final Integer itemCountPerGeneration, final Double falsePositiveRate) {
+        _itemCountPerGeneration = Math.max(1, itemCountPerGeneration);
+
+        final double log2 = Math.log(2D);
+        final long optimalBitCount = (long) Math.ceil((-_itemCountPerGeneration * Math.log(falsePositiveRate)) / (log2 * log2));
+        final long wordCount = Math.max(1L, ((optimalBitCount + 63L) / 64L));
+        _bitCount = (int) Math.min((wordCount * 64L), (Integer.MAX_VALUE - 63L));
+        _hashFunctionCount = (int) Math.max(1L, Math.round((((double) _bitCount) / _itemCountPerGeneration) * log2));
+        _seed = Double.doubleToLongBits(Math.random()) ^ System.nanoTime();
+    }
+
+    public synchronized void add(final Sha256Hash hash) {
+        _add(hash);
+    }
+
+    public synchronized void addAll(final Iterable<Sha256Hash> hashes) {
+        for (final Sha256Hash hash : hashes) {
+            _add(hash);
+        }
+    }
+
+    /**
+     * Returns true if the hash was (probably) added recently.
+     *  False positives are possible; false negatives only occur for hashes older than two generations.
+     */
+    public synchronized Boolean mightContain(final Sha256Hash hash) {
+        final long hash0 = _mix(_readLong(hash, 0) ^ _seed);
+        final long hash1 = (_mix(_readLong(hash, 8) ^ (~_seed)) | 1L);
+
+        return (_contains(_currentGeneration, hash0, hash1) || _contains(_previousGeneration, hash0, hash1));
+    }
+
+    /**
+     * Removes all items and releases the filter's memory.
+     */
+    public synchronized void clear() {
+        _currentGeneration = null;
+        _previousGeneration = null;
+        _currentGenerationItemCount = 0;
+    }
+}
@@ -8,6 +8,7 @@ import com.softwareverde.bitcoin.transaction.locktime.ImmutableLockTime;
 import com.softwareverde.bitcoin.transaction.output.ImmutableTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bloomfilter.BloomFilter;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.util.ConstUtil;
@@ -28,6 +29,7 @@ public class ImmutableTransaction implements ConstTransaction {
     protected final List<ImmutableTransactionInput> _transactionInputs;
     protected final List<ImmutableTransactionOutput> _transactionOutputs;
     protected final ImmutableLockTime _lockTime;
+    protected final ByteArray _retainedBytes;
 
     protected Integer _cachedByteCount = null;
     protected Integer _cachedHashCode = null;
@@ -47,6 +49,11 @@ public class ImmutableTransaction implements ConstTransaction {
 
         _transactionInputs = ImmutableListBuilder.newConstListOfConstItems(transaction.getTransactionInputs());
         _transactionOutputs = ImmutableListBuilder.newConstListOfConstItems(transaction.getTransactionOutputs());
+
+        _retainedBytes = TransactionDeflater._getRetainedBytes(transaction);
+        if (_retainedBytes != null) {
+            _cachedByteCount = _retainedBytes.getByteCount();
+        }
     }
 
     public ImmutableTransaction(final Transaction transaction) {
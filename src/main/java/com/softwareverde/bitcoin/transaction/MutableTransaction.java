@@ -9,6 +9,7 @@ import com.softwareverde.bitcoin.transaction.locktime.LockTime;
 import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bloomfilter.BloomFilter;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.constable.util.ConstUtil;
@@ -39,8 +40,10 @@ public class MutableTransaction implements Transaction {
     protected Integer _cachedByteCount = null;
     protected Sha256Hash _cachedHash = null;
     protected Integer _cachedHashCode = null;
+    protected ByteArray _retainedBytes = null; // The serialized Transaction, if retained during inflation; cleared upon modification.
 
     protected void _invalidateCachedProperties() {
+        _retainedBytes = null;
         _cachedByteCount = null;
         _cachedHash = null;
         _cachedHashCode = null;
@@ -82,6 +85,12 @@ public class MutableTransaction implements Transaction {
         }
 
         _lockTime = transaction.getLockTime().asConst();
+
+        final ByteArray retainedBytes = TransactionDeflater._getRetainedBytes(transaction);
+        if (retainedBytes != null) {
+            _retainedBytes = retainedBytes;
+            _cachedByteCount = retainedBytes.getByteCount();
+        }
     }
 
     @Override
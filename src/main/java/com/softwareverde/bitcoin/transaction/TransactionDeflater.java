@@ -15,6 +15,22 @@ import com.softwareverde.util.bytearray.ByteArrayBuilder;
 import com.softwareverde.util.bytearray.Endian;
 
 public class TransactionDeflater {
+    /**
+     * Returns the serialized bytes the Transaction retained when it was inflated (or is backed by), or null if it has none.
+     */
+    protected static ByteArray _getRetainedBytes(final Transaction transaction) {
+        if (transaction instanceof MutableTransaction) {
+            return ((MutableTransaction) transaction)._retainedBytes;
+        }
+        if (transaction instanceof ImmutableTransaction) {
+            return ((ImmutableTransaction) transaction)._retainedBytes;
+        }
+        if (transaction instanceof TransactionView) {
+            return ((TransactionView) transaction).getBytes();
+        }
+        return null;
+    }
+
     protected void _toFragmentedBytes(final Transaction transaction, final ByteArrayBuilder headBytesBuilder, final ByteArrayBuilder tailBytesBuilder) {
         final byte[] versionBytes = new byte[4];
         ByteUtil.setBytes(versionBytes, ByteUtil.integerToBytes(transaction.getVersion()));
@@ -59,15 +75,32 @@ public class TransactionDeflater {
 
     public ByteArrayBuilder toByteArrayBuilder(final Transaction transaction) {
         final ByteArrayBuilder byteArrayBuilder = new ByteArrayBuilder();
+
+        final ByteArray retainedBytes = _getRetainedBytes(transaction);
+        if (retainedBytes != null) {
+            byteArrayBuilder.appendBytes(retainedBytes, Endian.BIG);
+            return byteArrayBuilder;
+        }
+
         _toFragmentedBytes(transaction, byteArrayBuilder, byteArrayBuilder);
         return byteArrayBuilder;
     }
 
+    /**
+     * Returns the serialized Transaction.
+     *  Retained bytes are returned as an immutable copy so that callers cannot alter the Transaction's cached serialization.
+     */
     public ByteArray toBytes(final Transaction transaction) {
+        final ByteArray retainedBytes = _getRetainedBytes(transaction);
+        if (retainedBytes != null) { return retainedBytes.asConst(); }
+
         return MutableByteArray.wrap(_toBytes(transaction));
     }
 
     public Integer getByteCount(final Transaction transaction) {
+        final ByteArray retainedBytes = _getRetainedBytes(transaction);
+        if (retainedBytes != null) { return retainedBytes.getByteCount(); }
+
         final Integer versionByteCount = 4;
 
         final Integer transactionInputsByteCount;
@@ -1,6 +1,7 @@
 package com.softwareverde.bitcoin.transaction;
 
 import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.cryptography.hash.sha256.MutableSha256Hash;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.cryptography.util.HashUtil;
@@ -8,6 +9,11 @@ import com.softwareverde.util.bytearray.ByteArrayBuilder;
 
 public class TransactionHasher {
     public Sha256Hash hashTransaction(final Transaction transaction) {
+        final ByteArray retainedBytes = TransactionDeflater._getRetainedBytes(transaction);
+        if (retainedBytes != null) {
+            return HashUtil.doubleSha256(retainedBytes).toReversedEndian();
+        }
+
         final TransactionDeflater transactionDeflater = new TransactionDeflater();
         final ByteArrayBuilder byteArrayBuilder = transactionDeflater.toByteArrayBuilder(transaction);
         final byte[] doubleSha256 = HashUtil.doubleSha256(byteArrayBuilder.build());
@@ -16,6 +16,8 @@ import com.softwareverde.util.HexUtil;
 import com.softwareverde.util.bytearray.Endian;
 
 public class TransactionInflater {
+    protected final Boolean _shouldRetainBytes;
+
     protected MutableTransaction _fromByteArrayReader(final ByteArrayReader byteArrayReader) {
         // NOTE: The min Transaction size rule was activated on HF20181115 and therefore cannot be enforced here.
 
@@ -58,9 +60,27 @@ public class TransactionInflater {
 
         transaction.cacheByteCount(totalByteCount);
 
+        if (_shouldRetainBytes) {
+            // NOTE: Retaining the serialized bytes allows the Transaction to be hashed, measured, and deflated without being re-serialized.
+            transaction._retainedBytes = byteArrayReader.copyBytes(startPosition, totalByteCount);
+        }
+
         return transaction;
     }
 
+    public TransactionInflater() {
+        this(false);
+    }
+
+    /**
+     * When shouldRetainBytes is true, inflated Transactions keep a copy of their serialized form.
+     *  Hashing, byte-counting, and deflating the Transaction then use those bytes directly until the Transaction is modified.
+     *  Retention roughly doubles the memory held by each Transaction, so it is disabled by default.
+     */
+    public TransactionInflater(final Boolean shouldRetainBytes) {
+        _shouldRetainBytes = shouldRetainBytes;
+    }
+
     public void debugBytes(final ByteArrayReader byteArrayReader) {
         System.out.println("Version: " + HexUtil.toHexString(byteArrayReader.readBytes(4)));
 
@@ -0,0 +1,396 @@
+package com.softwareverde.bitcoin.transaction;
+
+import com.softwareverde.bitcoin.address.AddressInflater;
+import com.softwareverde.bitcoin.server.main.BitcoinConstants;
+import com.softwareverde.bitcoin.transaction.coinbase.ImmutableCoinbaseTransaction;
+import com.softwareverde.bitcoin.transaction.input.MutableTransactionInput;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.input.TransactionInputInflater;
+import com.softwareverde.bitcoin.transaction.locktime.ImmutableLockTime;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutputInflater;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.bloomfilter.BloomFilter;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.json.Json;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.security.MessageDigest;
+
+/**
+ * A read-only Transaction backed directly by its serialized bytes.
+ *  Upon creation the bytes are scanned once to build a table of input and output offsets; fields are only decoded when
+ *  requested, and the accessors for individual fields (e.g. TransactionView::getTransactionOutputAmount) do so without
+ *  inflating the TransactionInput/TransactionOutput objects.  The full input/output lists are inflated (and cached) only
+ *  if TransactionView::getTransactionInputs or TransactionView::getTransactionOutputs is invoked.
+ *  A view may cover a range of a larger buffer (e.g. a BlockView's bytes), in which case the range is read in place.
+ *  The provided bytes must not be modified after the view is created.
+ */
+public class TransactionView implements ConstTransaction {
+    protected static final AddressInflater DEFAULT_ADDRESS_INFLATER = new AddressInflater();
+
+    protected static final Integer MIN_TRANSACTION_INPUT_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4 + 1 + 4);
+    protected static final Integer MIN_TRANSACTION_OUTPUT_BYTE_COUNT = (8 + 1);
+
+    protected static class Offsets {
+        public int[] inputOffsets;
+        public int[] outputOffsets;
+    }
+
+    protected static long _readLong(final ByteArray bytes, final int position, final int byteCount) {
+        long value = 0L;
+        for (int i = (byteCount - 1); i >= 0; --i) {
+            value = ((value << 8) | (bytes.getByte(position + i) & 0xFFL));
+        }
+        return value;
+    }
+
+    protected static int _getVariableLengthIntegerByteCount(final ByteArray bytes, final int position) {
+        final int prefix = (bytes.getByte(position) & 0xFF);
+        if (prefix < 0xFD) { return 1; }
+        if (prefix == 0xFD) { return 3; }
+        if (prefix == 0xFE) { return 5; }
+        return 9;
+    }
+
+    /**
+     * Returns the value of the variable-length integer at position, or -1 if it is truncated.
+     */
+    protected static long _readVariableLengthInteger(final ByteArray bytes, final int position) {
+        final int byteCount = _getVariableLengthIntegerByteCount(bytes, position);
+        if ((position + byteCount) > bytes.getByteCount()) { return -1L; }
+        if (byteCount == 1) { return (bytes.getByte(position) & 0xFF); }
+
+        return _readLong(bytes, (position + 1), (byteCount - 1));
+    }
+
+    /**
+     * Scans the Transaction serialized at startPosition and returns its byte count, or null if it is malformed.
+     *  If offsets is provided, it is populated with the position of each input and output relative to startPosition;
+     *  each array contains one additional trailing entry marking the end of the inputs/outputs, respectively.
+     */
+    protected static Integer _scan(final ByteArray bytes, final int startPosition, final Offsets offsets) {
+        final int endOfBytes = bytes.getByteCount();
+        int position = (startPosition + 4); // Version
+        if (position >= endOfBytes) { return null; }
+
+        final long transactionInputCount = _readVariableLengthInteger(bytes, position);
+        if ( (transactionInputCount < 0L) || (transactionInputCount > ((endOfBytes - position) / MIN_TRANSACTION_INPUT_BYTE_COUNT)) ) { return null; }
+        position += _getVariableLengthIntegerByteCount(bytes, position);
+
+        final int[] inputOffsets = ((offsets != null) ? new int[((int) transactionInputCount) + 1] : null);
+        for (int i = 0; i < transactionInputCount; ++i) {
+            if (inputOffsets != null) {
+                inputOffsets[i] = (position - startPosition);
+            }
+
+            position += (Sha256Hash.BYTE_COUNT + 4);
+            if (position >= endOfBytes) { return null; }
+
+            final long scriptByteCount = _readVariableLengthInteger(bytes, position);
+            if ( (scriptByteCount < 0L) || (scriptByteCount > (endOfBytes - position)) ) { return null; }
+            position += (_getVariableLengthIntegerByteCount(bytes, position) + ((int) scriptByteCount) + 4);
+            if (position > endOfBytes) { return null; }
+        }
+        if (position >= endOfBytes) { return null; }
+
+        final long transactionOutputCount = _readVariableLengthInteger(bytes, position);
+        if ( (transactionOutputCount < 0L) || (transactionOutputCount > ((endOfBytes - position) / MIN_TRANSACTION_OUTPUT_BYTE_COUNT)) ) { return null; }
+        if (inputOffsets != null) {
+            inputOffsets[(int) transactionInputCount] = (position - startPosition);
+        }
+        position += _getVariableLengthIntegerByteCount(bytes, position);
+
+        final int[] outputOffsets = ((offsets != null) ? new int[((int) transactionOutputCount) + 1] : null);
+        for (int i = 0; i < transactionOutputCount; ++i) {
+            if (outputOffsets != null) {
+                outputOffsets[i] = (position - startPosition);
+            }
+
+            position += 8;
+            if (position >= endOfBytes) { return null; }
+
+            final long scriptByteCount = _readVariableLengthInteger(bytes, position);
+            if ( (scriptByteCount < 0L) || (scriptByteCount > (endOfBytes - position)) ) { return null; }
+            position += (_getVariableLengthIntegerByteCount(bytes, position) + ((int) scriptByteCount));
+            if (position > endOfBytes) { return null; }
+        }
+        if (outputOffsets != null) {
+            outputOffsets[(int) transactionOutputCount] = (position - startPosition);
+        }
+
+        position += 4; // LockTime
+        if (position > endOfBytes) { return null; }
+
+        final int byteCount = (position - startPosition);
+        if (byteCount > BitcoinConstants.getTransactionMaxByteCount()) { return null; }
+
+        if (offsets != null) {
+            offsets.inputOffsets = inputOffsets;
+            offsets.outputOffsets = outputOffsets;
+        }
+        return byteCount;
+    }
+
+    /**
+     * Returns the byte count of the Transaction serialized at position, or null if it is malformed.
+     *  No objects are allocated.
+     */
+    public static Integer getTransactionByteCount(final ByteArray bytes, final Integer position) {
+        if (bytes == null) { return null; }
+        return _scan(bytes, position, null);
+    }
+
+    /**
+     * Returns the hash of the Transaction serialized within bytes[startPosition, startPosition + byteCount).
+     *  The range is hashed in place when the bytes are backed by an accessible array.
+     */
+    public static Sha256Hash calculateHash(final ByteArray bytes, final Integer startPosition, final Integer byteCount) {
+        if ( (startPosition == 0) && Util.areEqual(byteCount, bytes.getByteCount()) ) {
+            return HashUtil.doubleSha256(bytes).toReversedEndian();
+        }
+
+        if (bytes instanceof MutableByteArray) {
+            try {
+                final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+                messageDigest.update(((MutableByteArray) bytes).unwrap(), startPosition, byteCount);
+                final byte[] hash = messageDigest.digest(messageDigest.digest());
+                return Sha256Hash.wrap(ByteUtil.reverseEndian(hash));
+            }
+            catch (final Exception exception) {
+                Logger.debug(exception);
+            }
+        }
+
+        return HashUtil.doubleSha256(MutableByteArray.wrap(bytes.getBytes(startPosition, byteCount))).toReversedEndian();
+    }
+
+    /**
+     * Returns a view of the serialized Transaction, or null if the bytes are not exactly one well-formed Transaction.
+     */
+    public static TransactionView wrap(final ByteArray bytes) {
+        if (bytes == null) { return null; }
+        return TransactionView.wrap(bytes, 0, bytes.getByteCount());
+    }
+
+    /**
+     * Returns a view of the Transaction serialized within bytes[startPosition, startPosition + byteCount) without copying the range,
+     *  or null if the range is not exactly one well-formed Transaction.
+     */
+    public static TransactionView wrap(final ByteArray bytes, final Integer startPosition, final Integer byteCount) {
+        if (bytes == null) { return null; }
+        if ( (startPosition < 0) || (byteCount < 0) || ((startPosition + byteCount) > bytes.getByteCount()) ) { return null; }
+
+        final Offsets offsets = new Offsets();
+        final Integer scannedByteCount = _scan(bytes, startPosition, offsets);
+        if (! Util.areEqual(scannedByteCount, byteCount)) { return null; }
+
+        return new TransactionView(bytes, startPosition, byteCount, offsets.inputOffsets, offsets.outputOffsets);
+    }
+
+    protected final ByteArray _bytes;
+    protected final int _startPosition;
+    protected final int _byteCount;
+    protected final int[] _inputOffsets;
+    protected final int[] _outputOffsets;
+
+    protected Sha256Hash _cachedHash = null;
+    protected List<TransactionInput> _cachedTransactionInputs = null;
+    protected List<TransactionOutput> _cachedTransactionOutputs = null;
+
+    protected ByteArrayReader _newByteArrayReader(final int startPosition, final int endPosition) {
+        return new ByteArrayReader(MutableByteArray.wrap(_bytes.getBytes((_startPosition + startPosition), (endPosition - startPosition))));
+    }
+
+    protected int _getLockingScriptPosition(final int outputIndex) {
+        return (_outputOffsets[outputIndex] + 8);
+    }
+
+    protected TransactionView(final ByteArray bytes, final int startPosition, final int byteCount, final int[] inputOffsets, final int[] outputOffsets) {
+        _bytes = bytes;
+        _startPosition = startPosition;
+        _byteCount = byteCount;
+        _inputOffsets = inputOffsets;
+        _outputOffsets = outputOffsets;
+    }
+
+    /**
+     * Returns the serialized Transaction.
+     *  If the view covers only a range of its buffer, the range is copied.
+     */
+    public ByteArray getBytes() {
+        if ( (_startPosition == 0) && (_byteCount == _bytes.getByteCount()) ) {
+            return _bytes;
+        }
+
+        return MutableByteArray.wrap(_bytes.getBytes(_startPosition, _byteCount));
+    }
+
+    public Integer getTransactionInputCount() {
+        return (_inputOffsets.length - 1);
+    }
+
+    public Integer getTransactionOutputCount() {
+        return (_outputOffsets.length - 1);
+    }
+
+    public Sha256Hash getPreviousOutputTransactionHash(final Integer inputIndex) {
+        final byte[] previousTransactionHashBytes = _bytes.getBytes((_startPosition + _inputOffsets[inputIndex]), Sha256Hash.BYTE_COUNT);
+        return Sha256Hash.wrap(ByteUtil.reverseEndian(previousTransactionHashBytes));
+    }
+
+    public Integer getPreviousOutputIndex(final Integer inputIndex) {
+        return (int) _readLong(_bytes, (_startPosition + _inputOffsets[inputIndex] + Sha256Hash.BYTE_COUNT), 4);
+    }
+
+    public TransactionOutputIdentifier getPreviousTransactionOutputIdentifier(final Integer inputIndex) {
+        return new TransactionOutputIdentifier(this.getPreviousOutputTransactionHash(inputIndex), this.getPreviousOutputIndex(inputIndex));
+    }
+
+    public Long getTransactionOutputAmount(final Integer outputIndex) {
+        return _readLong(_bytes, (_startPosition + _outputOffsets[outputIndex]), 8);
+    }
+
+    public LockingScript getLockingScript(final Integer outputIndex) {
+        final int scriptByteCountPosition = (_startPosition + _getLockingScriptPosition(outputIndex));
+        final int scriptPosition = (scriptByteCountPosition + _getVariableLengthIntegerByteCount(_bytes, scriptByteCountPosition));
+        final int scriptByteCount = ((_startPosition + _outputOffsets[outputIndex + 1]) - scriptPosition);
+        return new ImmutableLockingScript(MutableByteArray.wrap(_bytes.getBytes(scriptPosition, scriptByteCount)));
+    }
+
+    /**
+     * Inflates the TransactionInput at inputIndex.
+     */
+    public TransactionInput getTransactionInput(final Integer inputIndex) {
+        final TransactionInputInflater transactionInputInflater = new TransactionInputInflater();
+        final ByteArrayReader byteArrayReader = _newByteArrayReader(_inputOffsets[inputIndex], _inputOffsets[inputIndex + 1]);
+        final MutableTransactionInput transactionInput = transactionInputInflater.fromBytes(byteArrayReader);
+        return transactionInput.asConst();
+    }
+
+    /**
+     * Inflates the TransactionOutput at outputIndex.
+     */
+    public TransactionOutput getTransactionOutput(final Integer outputIndex) {
+        final TransactionOutputInflater transactionOutputInflater = new TransactionOutputInflater();
+        final ByteArrayReader byteArrayReader = _newByteArrayReader(_outputOffsets[outputIndex], _outputOffsets[outputIndex + 1]);
+        final MutableTransactionOutput transactionOutput = transactionOutputInflater.fromBytes(outputIndex, byteArrayReader);
+        return transactionOutput.asConst();
+    }
+
+    @Override
+    public Sha256Hash getHash() {
+        final Sha256Hash cachedHash = _cachedHash;
+        if (cachedHash != null) { return cachedHash; }
+
+        final Sha256Hash hash = TransactionView.calculateHash(_bytes, _startPosition, _byteCount);
+        _cachedHash = hash;
+        return hash;
+    }
+
+    @Override
+    public Long getVersion() {
+        return _readLong(_bytes, _startPosition, 4);
+    }
+
+    @Override
+    public List<TransactionInput> getTransactionInputs() {
+        final List<TransactionInput> cachedTransactionInputs = _cachedTransactionInputs;
+        if (cachedTransactionInputs != null) { return cachedTransactionInputs; }
+
+        final int transactionInputCount = this.getTransactionInputCount();
+        final ImmutableListBuilder<TransactionInput> transactionInputs = new ImmutableListBuilder<>(transactionInputCount);
+        for (int i = 0; i < transactionInputCount; ++i) {
+            transactionInputs.add(this.getTransactionInput(i));
+        }
+
+        final List<TransactionInput> transactionInputList = transactionInputs.build();
+        _cachedTransactionInputs = transactionInputList;
+        return transactionInputList;
+    }
+
+    @Override
+    public List<TransactionOutput> getTransactionOutputs() {
+        final List<TransactionOutput> cachedTransactionOutputs = _cachedTransactionOutputs;
+        if (cachedTransactionOutputs != null) { return cachedTransactionOutputs; }
+
+        final int transactionOutputCount = this.getTransactionOutputCount();
+        final ImmutableListBuilder<TransactionOutput> transactionOutputs = new ImmutableListBuilder<>(transactionOutputCount);
+        for (int i = 0; i < transactionOutputCount; ++i) {
+            transactionOutputs.add(this.getTransactionOutput(i));
+        }
+
+        final List<TransactionOutput> transactionOutputList = transactionOutputs.build();
+        _cachedTransactionOutputs = transactionOutputList;
+        return transactionOutputList;
+    }
+
+    @Override
+    public ImmutableLockTime getLockTime() {
+        final int lockTimePosition = _outputOffsets[_outputOffsets.length - 1];
+        return new ImmutableLockTime(_readLong(_bytes, (_startPosition + lockTimePosition), 4));
+    }
+
+    @Override
+    public Long getTotalOutputValue() {
+        long totalValue = 0L;
+
+        final int transactionOutputCount = this.getTransactionOutputCount();
+        for (int i = 0; i < transactionOutputCount; ++i) {
+            totalValue += _readLong(_bytes, (_startPosition + _outputOffsets[i]), 8);
+        }
+
+        return totalValue;
+    }
+
+    @Override
+    public Boolean matches(final BloomFilter bloomFilter) {
+        final TransactionBloomFilterMatcher transactionBloomFilterMatcher = new TransactionBloomFilterMatcher(bloomFilter, DEFAULT_ADDRESS_INFLATER);
+        return transactionBloomFilterMatcher.shouldInclude(this);
+    }
+
+    @Override
+    public ImmutableCoinbaseTransaction asCoinbase() {
+        if (! Transaction.isCoinbaseTransaction(this)) { return null; }
+
+        return new ImmutableCoinbaseTransaction(this);
+    }
+
+    @Override
+    public Integer getByteCount() {
+        return _byteCount;
+    }
+
+    @Override
+    public TransactionView asConst() {
+        return this;
+    }
+
+    @Override
+    public Json toJson() {
+        final TransactionDeflater transactionDeflater = new TransactionDeflater();
+        return transactionDeflater.toJson(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.getHash().hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (! (object instanceof Transaction)) { return false; }
+        return Util.areEqual(this.getHash(), ((Transaction) object).getHash());
+    }
+}
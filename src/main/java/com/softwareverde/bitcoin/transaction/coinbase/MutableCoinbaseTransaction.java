@@ -26,6 +26,7 @@ public class MutableCoinbaseTransaction extends MutableTransaction implements Co
         final MutableTransactionInput transactionInput = new MutableTransactionInput(_transactionInputs.get(0));
         transactionInput.setUnlockingScript(unlockingScript.asConst());
         _transactionInputs.set(0, transactionInput);
+        _invalidateCachedProperties();
     }
 
     @Override
@@ -48,6 +49,7 @@ public class MutableCoinbaseTransaction extends MutableTransaction implements Co
             mutableTransactionOutput.setAmount((i == 0) ? satoshis : 0L);
             _transactionOutputs.set(i, mutableTransactionOutput);
         }
+        _invalidateCachedProperties();
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.softwareverde.bitcoin.util.bytearray;
 
 import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.util.ByteUtil;
 import com.softwareverde.util.bytearray.Endian;
 
@@ -47,12 +48,26 @@ public class ByteArrayReader extends com.softwareverde.util.bytearray.ByteArrayR
         return new CompactVariableLengthInteger(value, byteCountWithPrefix);
     }
 
+    protected final ByteArray _sourceBytes;
+
     public ByteArrayReader(final byte[] bytes) {
         super(bytes);
+        _sourceBytes = MutableByteArray.wrap(bytes);
     }
 
     public ByteArrayReader(final ByteArray byteArray) {
         super(byteArray);
+        _sourceBytes = byteArray;
+    }
+
+    /**
+     * Returns a copy of the byteCount bytes starting at the absolute position, without affecting the read position.
+     *  Returns null if the requested range is not within the source bytes.
+     */
+    public ByteArray copyBytes(final Integer position, final Integer byteCount) {
+        if ( (position < 0) || (byteCount < 0) || ((position + byteCount) > _sourceBytes.getByteCount()) ) { return null; }
+
+        return MutableByteArray.wrap(_sourceBytes.getBytes(position, byteCount));
     }
 
     // For compatibility with libraries built against older versions of bitcoin-verde
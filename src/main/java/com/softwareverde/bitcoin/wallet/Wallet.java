@@ -45,6 +45,7 @@ import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableList;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.ripemd160.Ripemd160Hash;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
 import com.softwareverde.cryptography.secp256k1.key.PublicKey;
@@ -60,6 +61,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class Wallet {
     protected static final Long BYTES_PER_TRANSACTION_INPUT = 148L; // P2PKH Inputs are either 147-148 bytes for compressed addresses, or 179-180 bytes for uncompressed addresses.
@@ -67,6 +73,7 @@ public class Wallet {
     protected static final Long BYTES_PER_TRANSACTION_OUTPUT = 34L;
     protected static final Long BYTES_PER_TRANSACTION_HEADER = 10L; // This value becomes inaccurate if either the number of inputs or the number out outputs exceeds 252 (The max value of a 1-byte variable length integer)...
     protected static final Long MAX_ALLOWED_FEE_SATOSHIS_PER_BYTE = 10L;
+    protected static final Integer MAX_OPTIMISTIC_READ_ATTEMPTS = 3; // The number of lock-free attempts of a read before it acquires the read lock.
 
     public static Long getDefaultDustThreshold() {
         return (long) ((BYTES_PER_TRANSACTION_OUTPUT + BYTES_PER_TRANSACTION_INPUT) * 3D);
@@ -78,22 +85,94 @@ public class Wallet {
         public final MutableSlpSendScript slpSendScript = new MutableSlpSendScript();
     }
 
+    /**
+     * The SLP properties of a TransactionOutput associated with SLP tokens.
+     *  Classified once when the TransactionOutput is added to the Wallet so its script is never re-parsed.
+     */
+    protected static class SlpTokenOutput {
+        public final SlpTokenId tokenId;
+        public final BigInteger tokenAmount;
+        public final Boolean isBatonHolder;
+
+        public SlpTokenOutput(final SlpTokenId tokenId, final BigInteger tokenAmount, final Boolean isBatonHolder) {
+            this.tokenId = tokenId;
+            this.tokenAmount = tokenAmount;
+            this.isBatonHolder = isBatonHolder;
+        }
+    }
+
+    /**
+     * Orders TransactionOutputs by ascending amount; ties are broken by their identifier so that distinct outputs are never considered equal.
+     */
+    protected static final Comparator<SpendableTransactionOutput> AMOUNT_ASCENDING_IDENTIFIER_COMPARATOR = new Comparator<SpendableTransactionOutput>() {
+        @Override
+        public int compare(final SpendableTransactionOutput transactionOutput0, final SpendableTransactionOutput transactionOutput1) {
+            final int amountComparison = SpendableTransactionOutput.AMOUNT_ASCENDING_COMPARATOR.compare(transactionOutput0, transactionOutput1);
+            if (amountComparison != 0) { return amountComparison; }
+
+            return transactionOutput0.getIdentifier().compareTo(transactionOutput1.getIdentifier());
+        }
+    };
+
+    protected interface WalletRead<T> {
+        T run();
+    }
+
+    /**
+     * An immutable list of the Wallet's spendable TransactionOutputs, built after the write identified by sequenceNumber.
+     */
+    protected static class TransactionOutputsSnapshot {
+        public final Long sequenceNumber;
+        public final List<SpendableTransactionOutput> transactionOutputs;
+
+        public TransactionOutputsSnapshot(final Long sequenceNumber, final List<SpendableTransactionOutput> transactionOutputs) {
+            this.sequenceNumber = sequenceNumber;
+            this.transactionOutputs = transactionOutputs;
+        }
+    }
+
     protected static final Address DUMMY_ADDRESS = (new AddressInflater()).fromBytes(Address.Type.P2PKH, new MutableByteArray(Address.BYTE_COUNT), true);
 
     protected final UpgradeSchedule _upgradeSchedule;
-    protected final HashMap<Address, PublicKey> _publicKeys = new HashMap<>();
-    protected final HashMap<PublicKey, PrivateKey> _privateKeys = new HashMap<>();
+    protected final ConcurrentHashMap<Address, PublicKey> _publicKeys = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<PublicKey, PrivateKey> _privateKeys = new ConcurrentHashMap<>();
     protected final HashSet<Address> _watchedAddresses = new HashSet<>();
-    protected final HashMap<Sha256Hash, Transaction> _transactions = new HashMap<>();
+    protected final ConcurrentHashMap<Sha256Hash, Transaction> _transactions = new ConcurrentHashMap<>();
     protected final HashSet<Sha256Hash> _confirmedTransactions = new HashSet<>();
-    protected final HashSet<Sha256Hash> _notYetValidatedSlpTransactions = new HashSet<>();
-    protected final HashSet<Sha256Hash> _invalidSlpTransactions = new HashSet<>();
-    protected final HashSet<Sha256Hash> _validSlpTransactions = new HashSet<>();
+    protected final Set<Sha256Hash> _notYetValidatedSlpTransactions = ConcurrentHashMap.newKeySet();
+    protected final Set<Sha256Hash> _invalidSlpTransactions = ConcurrentHashMap.newKeySet();
+    protected final Set<Sha256Hash> _validSlpTransactions = ConcurrentHashMap.newKeySet();
 
-    protected final HashMap<TransactionOutputIdentifier, Sha256Hash> _spentTransactionOutputs = new HashMap<>();
-    protected final HashMap<TransactionOutputIdentifier, MutableSpendableTransactionOutput> _transactionOutputs = new HashMap<>();
+    protected final ConcurrentHashMap<TransactionOutputIdentifier, Sha256Hash> _spentTransactionOutputs = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<TransactionOutputIdentifier, MutableSpendableTransactionOutput> _transactionOutputs = new ConcurrentHashMap<>();
     protected final Map<TransactionOutputIdentifier, Sha256Hash> _externallySpentTransactionOutputs = new HashMap<>();
-    protected BloomFilter _cachedBloomFilter = null;
+    protected volatile BloomFilter _cachedBloomFilter = null;
+
+    // Writes (new keys, Transactions, and spent outputs) are exclusive.  The state read by balance, output, SLP, and
+    //  coin-selection queries is held within concurrent collections and read optimistically (see _read), so those
+    //  queries only wait on a write that is in progress, never on each other.
+    protected final ReentrantReadWriteLock.ReadLock _readLock;
+    protected final ReentrantReadWriteLock.WriteLock _writeLock;
+    protected final AtomicLong _writeSequenceNumber = new AtomicLong(0L); // Odd while a write is in progress.
+    protected volatile TransactionOutputsSnapshot _transactionOutputsSnapshot = null; // Rebuilt on the first read after a write.
+
+    // The balances as of the most recent write; only the Addresses modified by a write are republished, so they must be
+    //  read via _read to observe a single publication...
+    protected final HashSet<Address> _modifiedBalanceAddresses = new HashSet<>();
+    protected final ConcurrentHashMap<Address, Long> _publishedUnspentBalances = new ConcurrentHashMap<>(); // Includes watched Addresses.
+    protected volatile Long _publishedSpendableBalance = 0L;
+
+    // Indexes over _transactionOutputs, maintained incrementally as outputs are added and spent...
+    protected final ConcurrentHashMap<PublicKey, Tuple<Address, Address>> _publicKeyAddresses = new ConcurrentHashMap<>(); // PublicKey -> (Decompressed Address, Compressed Address)
+    protected final Set<Sha256Hash> _slpTransactions = ConcurrentHashMap.newKeySet(); // Contains every SLP Transaction.
+    protected final ConcurrentHashMap<Sha256Hash, SlpTokenId> _slpTransactionTokenIds = new ConcurrentHashMap<>(); // Excludes SLP Transactions whose script is malformed.
+    protected final ConcurrentHashMap<TransactionOutputIdentifier, SlpTokenOutput> _slpTokenOutputs = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<SlpTokenId, Set<TransactionOutputIdentifier>> _slpTokenOutputsByTokenId = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<SlpTokenId, Set<TransactionOutputIdentifier>> _unspentSlpTokenOutputsByTokenId = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Address, Set<TransactionOutputIdentifier>> _unspentTransactionOutputsByAddress = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<Address, Long> _unspentBalancesByAddress = new ConcurrentHashMap<>();
+    protected final ConcurrentSkipListSet<MutableSpendableTransactionOutput> _spendableTransactionOutputs = new ConcurrentSkipListSet<>(AMOUNT_ASCENDING_IDENTIFIER_COMPARATOR); // Unspent outputs the Wallet has the PrivateKey for.
+    protected long _spendableBalance = 0L; // The sum of _spendableTransactionOutputs; only accessed while holding the write lock.
 
     protected final MedianBlockTime _medianBlockTime;
     protected Double _satoshisPerByteFee = 1D;
@@ -152,12 +231,33 @@ public class Wallet {
             throw new RuntimeException("Unable to find TransactionOutput: " + transactionOutputIdentifier);
         }
 
-        return SlpUtil.getTokenId(transaction);
+        return _slpTransactionTokenIds.get(transactionHash);
+    }
+
+    /**
+     * Returns the cached SLP classification of the TransactionOutput, or null if it is not associated with SLP tokens.
+     *  TransactionOutputs not tracked by the Wallet are classified from their Transaction.
+     */
+    protected SlpTokenOutput _getSlpTokenOutput(final TransactionOutputIdentifier transactionOutputIdentifier, final Transaction transaction) {
+        if (_transactionOutputs.containsKey(transactionOutputIdentifier)) {
+            return _slpTokenOutputs.get(transactionOutputIdentifier);
+        }
+
+        return _classifySlpTokenOutput(transaction, transactionOutputIdentifier.getOutputIndex());
+    }
+
+    protected SlpTokenOutput _classifySlpTokenOutput(final Transaction transaction, final Integer transactionOutputIndex) {
+        final boolean isSlpTokenOutput = SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex);
+        if (! isSlpTokenOutput) { return null; }
+
+        final SlpTokenId tokenId = SlpUtil.getTokenId(transaction);
+        final BigInteger tokenAmount = SlpUtil.getOutputTokenAmount(transaction, transactionOutputIndex);
+        final Boolean isBatonHolder = SlpUtil.isSlpTokenBatonHolder(transaction, transactionOutputIndex);
+        return new SlpTokenOutput(tokenId, tokenAmount, isBatonHolder);
     }
 
     protected Boolean _isSlpTokenOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
         final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-        final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
 
         final Transaction transaction = _transactions.get(transactionHash);
         if (transaction == null) {
@@ -165,12 +265,14 @@ public class Wallet {
         }
 
         final boolean isPartOfValidSlpTransaction = _isSlpTransactionAndIsValid(transactionHash, true);
-        return (isPartOfValidSlpTransaction && SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex));
+        if (! isPartOfValidSlpTransaction) { return false; }
+
+        final SlpTokenOutput slpTokenOutput = _getSlpTokenOutput(transactionOutputIdentifier, transaction);
+        return (slpTokenOutput != null);
     }
 
     protected Boolean _outputContainsSpendableSlpTokens(final TransactionOutputIdentifier transactionOutputIdentifier) {
         final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-        final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
 
         final Transaction transaction = _transactions.get(transactionHash);
         if (transaction == null) {
@@ -178,37 +280,38 @@ public class Wallet {
         }
 
         final boolean isPartOfValidSlpTransaction = _isSlpTransactionAndIsValid(transactionHash, true);
-        return (isPartOfValidSlpTransaction && SlpUtil.outputContainsSpendableSlpTokens(transaction, transactionOutputIndex));
-    }
+        if (! isPartOfValidSlpTransaction) { return false; }
 
-    protected List<SlpToken> _getSlpTokens(final SlpTokenId matchingSlpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
-        final ImmutableListBuilder<SlpToken> slpTokens = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
-        for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
-            final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-            final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-            final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
+        final SlpTokenOutput slpTokenOutput = _getSlpTokenOutput(transactionOutputIdentifier, transaction);
+        if (slpTokenOutput == null) { return false; }
 
-            final Transaction transaction = _transactions.get(transactionHash);
-            if (transaction == null) { continue; }
-
-            final boolean outputContainsTokens = SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex);
-            if (! outputContainsTokens) { continue; }
+        return (slpTokenOutput.tokenAmount.compareTo(BigInteger.ZERO) > 0);
+    }
 
-            final SlpTokenId tokenId = SlpUtil.getTokenId(transaction);
-            if (matchingSlpTokenId != null) {
-                if (! Util.areEqual(matchingSlpTokenId, tokenId)) {
-                    continue;
-                }
+    protected List<SlpToken> _getSlpTokens(final SlpTokenId matchingSlpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        final MutableList<Set<TransactionOutputIdentifier>> transactionOutputIdentifierSets = new MutableList<>();
+        if (matchingSlpTokenId != null) {
+            final Set<TransactionOutputIdentifier> transactionOutputIdentifiers = _slpTokenOutputsByTokenId.get(matchingSlpTokenId);
+            if (transactionOutputIdentifiers != null) {
+                transactionOutputIdentifierSets.add(transactionOutputIdentifiers);
             }
+        }
+        else {
+            transactionOutputIdentifierSets.addAll(_slpTokenOutputsByTokenId.values());
+        }
 
-            if (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) { continue; }
+        final ImmutableListBuilder<SlpToken> slpTokens = new ImmutableListBuilder<>();
+        for (final Set<TransactionOutputIdentifier> transactionOutputIdentifiers : transactionOutputIdentifierSets) {
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                if (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) { continue; }
 
-            final BigInteger tokenAmount = SlpUtil.getOutputTokenAmount(transaction, transactionOutputIndex);
-            final Boolean isBatonHolder = SlpUtil.isSlpTokenBatonHolder(transaction, transactionOutputIndex);
+                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
 
-            final SlpToken slpToken = new ImmutableSlpToken(tokenId, tokenAmount, spendableTransactionOutput, isBatonHolder);
-            slpTokens.add(slpToken);
+                final SlpToken slpToken = new ImmutableSlpToken(slpTokenOutput.tokenId, slpTokenOutput.tokenAmount, spendableTransactionOutput, slpTokenOutput.isBatonHolder);
+                slpTokens.add(slpToken);
+            }
         }
         return slpTokens.build();
     }
@@ -217,6 +320,11 @@ public class Wallet {
         final Transaction transaction = _transactions.get(transactionOutputIdentifier.getTransactionHash());
         if (transaction == null) { return null; }
 
+        if (_transactionOutputs.containsKey(transactionOutputIdentifier)) {
+            final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+            return (slpTokenOutput != null ? slpTokenOutput.tokenAmount : BigInteger.ZERO);
+        }
+
         final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
         return SlpUtil.getOutputTokenAmount(transaction, transactionOutputIndex);
     }
@@ -261,6 +369,136 @@ public class Wallet {
 
         _publicKeys.put(compressedAddress, compressedPublicKey);
         _publicKeys.put(decompressedAddress, decompressedPublicKey);
+
+        final Tuple<Address, Address> addresses = new Tuple<>(decompressedAddress, compressedAddress);
+        _publicKeyAddresses.put(compressedPublicKey.asConst(), addresses);
+        _publicKeyAddresses.put(decompressedPublicKey.asConst(), addresses);
+    }
+
+    /**
+     * Returns the (decompressed, compressed) Addresses for the PublicKey.
+     *  Addresses for the Wallet's own keys are derived once when the key is added.
+     */
+    protected Tuple<Address, Address> _getAddresses(final PublicKey publicKey) {
+        final Tuple<Address, Address> cachedAddresses = _publicKeyAddresses.get(publicKey);
+        if (cachedAddresses != null) { return cachedAddresses; }
+
+        final AddressInflater addressInflater = new AddressInflater();
+        final Address address = addressInflater.fromPublicKey(publicKey, false);
+        final Address compressedAddress = addressInflater.fromPublicKey(publicKey, true);
+        return new Tuple<>(address, compressedAddress);
+    }
+
+    /**
+     * Returns the identifiers indexed by the key, or null if there are none.
+     *  Null keys (e.g. the SlpTokenId of a malformed SLP output) are never indexed, since ConcurrentHashMap does not permit them.
+     */
+    protected static <T> Set<TransactionOutputIdentifier> _getIndexedIdentifiers(final ConcurrentHashMap<T, Set<TransactionOutputIdentifier>> index, final T key) {
+        if (key == null) { return null; }
+        return index.get(key);
+    }
+
+    protected static <T> void _addToIndex(final ConcurrentHashMap<T, Set<TransactionOutputIdentifier>> index, final T key, final TransactionOutputIdentifier transactionOutputIdentifier) {
+        if (key == null) { return; }
+
+        Set<TransactionOutputIdentifier> transactionOutputIdentifiers = index.get(key);
+        if (transactionOutputIdentifiers == null) {
+            transactionOutputIdentifiers = ConcurrentHashMap.newKeySet();
+            index.put(key, transactionOutputIdentifiers);
+        }
+        transactionOutputIdentifiers.add(transactionOutputIdentifier);
+    }
+
+    protected static <T> void _removeFromIndex(final ConcurrentHashMap<T, Set<TransactionOutputIdentifier>> index, final T key, final TransactionOutputIdentifier transactionOutputIdentifier) {
+        if (key == null) { return; }
+
+        final Set<TransactionOutputIdentifier> transactionOutputIdentifiers = index.get(key);
+        if (transactionOutputIdentifiers == null) { return; }
+
+        transactionOutputIdentifiers.remove(transactionOutputIdentifier);
+        if (transactionOutputIdentifiers.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    protected void _addToUnspentIndexes(final MutableSpendableTransactionOutput spendableTransactionOutput) {
+        final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+        final Address address = spendableTransactionOutput.getAddress();
+        final Long amount = spendableTransactionOutput.getTransactionOutput().getAmount();
+
+        _addToIndex(_unspentTransactionOutputsByAddress, address, transactionOutputIdentifier);
+        _unspentBalancesByAddress.put(address, (Util.coalesce(_unspentBalancesByAddress.get(address), 0L) + amount));
+        _modifiedBalanceAddresses.add(address);
+
+        final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+        if (slpTokenOutput != null) {
+            _addToIndex(_unspentSlpTokenOutputsByTokenId, slpTokenOutput.tokenId, transactionOutputIdentifier);
+        }
+
+        if (_hasPrivateKeyFor(address)) {
+            _spendableTransactionOutputs.add(spendableTransactionOutput);
+            _spendableBalance += amount;
+        }
+    }
+
+    protected void _removeFromUnspentIndexes(final MutableSpendableTransactionOutput spendableTransactionOutput) {
+        final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+        final Address address = spendableTransactionOutput.getAddress();
+        final Long amount = spendableTransactionOutput.getTransactionOutput().getAmount();
+
+        _removeFromIndex(_unspentTransactionOutputsByAddress, address, transactionOutputIdentifier);
+        final long remainingBalance = (Util.coalesce(_unspentBalancesByAddress.get(address), 0L) - amount);
+        if (_unspentTransactionOutputsByAddress.containsKey(address)) {
+            _unspentBalancesByAddress.put(address, remainingBalance);
+        }
+        else {
+            _unspentBalancesByAddress.remove(address);
+        }
+        _modifiedBalanceAddresses.add(address);
+
+        final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+        if (slpTokenOutput != null) {
+            _removeFromIndex(_unspentSlpTokenOutputsByTokenId, slpTokenOutput.tokenId, transactionOutputIdentifier);
+        }
+
+        if (_spendableTransactionOutputs.remove(spendableTransactionOutput)) {
+            _spendableBalance -= amount;
+        }
+    }
+
+    /**
+     * Adds the TransactionOutput to _transactionOutputs and its indexes, replacing any previous version of the output.
+     */
+    protected void _putTransactionOutput(final MutableSpendableTransactionOutput spendableTransactionOutput, final SlpTokenOutput slpTokenOutput) {
+        final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+
+        final MutableSpendableTransactionOutput previousSpendableTransactionOutput = _transactionOutputs.put(transactionOutputIdentifier, spendableTransactionOutput);
+        if (previousSpendableTransactionOutput != null) {
+            if (! previousSpendableTransactionOutput.isSpent()) {
+                _removeFromUnspentIndexes(previousSpendableTransactionOutput);
+            }
+
+            final SlpTokenOutput previousSlpTokenOutput = _slpTokenOutputs.remove(transactionOutputIdentifier);
+            if (previousSlpTokenOutput != null) {
+                _removeFromIndex(_slpTokenOutputsByTokenId, previousSlpTokenOutput.tokenId, transactionOutputIdentifier);
+            }
+        }
+
+        if (slpTokenOutput != null) {
+            _slpTokenOutputs.put(transactionOutputIdentifier, slpTokenOutput);
+            _addToIndex(_slpTokenOutputsByTokenId, slpTokenOutput.tokenId, transactionOutputIdentifier);
+        }
+
+        if (! spendableTransactionOutput.isSpent()) {
+            _addToUnspentIndexes(spendableTransactionOutput);
+        }
+    }
+
+    protected void _setTransactionOutputIsSpent(final MutableSpendableTransactionOutput spendableTransactionOutput) {
+        if (spendableTransactionOutput.isSpent()) { return; }
+
+        _removeFromUnspentIndexes(spendableTransactionOutput);
+        spendableTransactionOutput.setIsSpent(true);
     }
 
     protected Boolean _hasSpentInputs(final Transaction transaction) {
@@ -297,7 +535,17 @@ public class Wallet {
             final MutableSpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
             if (spendableTransactionOutput == null) { continue; }
 
-            spendableTransactionOutput.setIsSpent(true);
+            _setTransactionOutputIsSpent(spendableTransactionOutput);
+        }
+
+        final boolean isSlpTransaction = Transaction.isSlpTransaction(constTransaction);
+        if (isSlpTransaction) {
+            _slpTransactions.add(transactionHash);
+
+            final SlpTokenId slpTokenId = SlpUtil.getTokenId(constTransaction);
+            if (slpTokenId != null) {
+                _slpTransactionTokenIds.put(transactionHash, slpTokenId);
+            }
         }
 
         final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
@@ -318,11 +566,13 @@ public class Wallet {
 
                 final MutableSpendableTransactionOutput spendableTransactionOutput = new MutableSpendableTransactionOutput(address, transactionOutputIdentifier, transactionOutput);
                 spendableTransactionOutput.setIsSpent(isSpent);
-                _transactionOutputs.put(transactionOutputIdentifier, spendableTransactionOutput);
+
+                final SlpTokenOutput slpTokenOutput = (isSlpTransaction ? _classifySlpTokenOutput(constTransaction, transactionOutputIndex) : null);
+                _putTransactionOutput(spendableTransactionOutput, slpTokenOutput);
             }
         }
 
-        if (Transaction.isSlpTransaction(transaction)) {
+        if (isSlpTransaction) {
             // check for validity and stop tracking its validity explicitly if it is valid
             if (! _validSlpTransactions.remove(transactionHash)) {
                 // not known to be valid
@@ -339,12 +589,24 @@ public class Wallet {
         final HashSet<Sha256Hash> confirmedTransactions = new HashSet<>(_confirmedTransactions);
         final Map<TransactionOutputIdentifier, Sha256Hash> externallySpentTransactionOutputs = new HashMap<>(_externallySpentTransactionOutputs);
 
+        _modifiedBalanceAddresses.addAll(_unspentBalancesByAddress.keySet());
+
         _externallySpentTransactionOutputs.clear();
         _spentTransactionOutputs.clear();
         _transactionOutputs.clear();
         _transactions.clear();
         _confirmedTransactions.clear();
 
+        _slpTransactions.clear();
+        _slpTransactionTokenIds.clear();
+        _slpTokenOutputs.clear();
+        _slpTokenOutputsByTokenId.clear();
+        _unspentSlpTokenOutputsByTokenId.clear();
+        _unspentTransactionOutputsByAddress.clear();
+        _unspentBalancesByAddress.clear();
+        _spendableTransactionOutputs.clear();
+        _spendableBalance = 0L;
+
         // intentionally not clearing SLP sets, since their state should remain valid across the reload
 
         for (final Transaction transaction : transactions) {
@@ -391,8 +653,7 @@ public class Wallet {
             return null;
         }
 
-        final Transaction transaction = _transactions.get(transactionHash);
-        if (! Transaction.isSlpTransaction(transaction)) {
+        if (! _slpTransactions.contains(transactionHash)) {
             return false;
         }
 
@@ -409,90 +670,72 @@ public class Wallet {
     }
 
     protected Long _getBalance(final PublicKey publicKey, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final AddressInflater addressInflater = new AddressInflater();
-        final Address address = addressInflater.fromPublicKey(publicKey, false);
-        final Address compressedAddress = addressInflater.fromPublicKey(publicKey, true);
-        return _getBalance(address, compressedAddress, shouldIncludeNotYetValidatedTransactions);
+        final Tuple<Address, Address> addresses = _getAddresses(publicKey);
+        return _getBalance(addresses.first, addresses.second, shouldIncludeNotYetValidatedTransactions);
     }
 
     protected BigInteger _getBalance(final PublicKey publicKey, final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final AddressInflater addressInflater = new AddressInflater();
-        final Address address = addressInflater.fromPublicKey(publicKey, false);
-        final Address compressedAddress = addressInflater.fromPublicKey(publicKey, true);
-        return _getBalance(address, compressedAddress, slpTokenId, shouldIncludeNotYetValidatedTransactions);
+        final Tuple<Address, Address> addresses = _getAddresses(publicKey);
+        return _getBalance(addresses.first, addresses.second, slpTokenId, shouldIncludeNotYetValidatedTransactions);
     }
 
     protected Long _getBalance(final Address address, final Address compressedAddress, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final BigInteger bchBalance = _getBalance(address, compressedAddress, null, shouldIncludeNotYetValidatedTransactions);
-        return bchBalance.longValue();
+        long amount = 0L;
+        for (final Address outputAddress : new Address[]{ address, compressedAddress }) {
+            if (! _hasPrivateKeyFor(outputAddress)) { continue; }
+
+            final Long addressBalance = _unspentBalancesByAddress.get(outputAddress);
+            if (addressBalance == null) { continue; }
+
+            amount += addressBalance;
+        }
+        return amount;
     }
 
     protected BigInteger _getBalance(final Address address, final Address compressedAddress, final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
+        if (slpTokenId == null) { // If the slpTokenId is null then only sum its BCH value.
+            final Long bchBalance = _getBalance(address, compressedAddress, shouldIncludeNotYetValidatedTransactions);
+            return BigInteger.valueOf(bchBalance);
+        }
 
         BigInteger amount = BigInteger.ZERO;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (! hasPrivateKey) { continue; }
+        for (final Address outputAddress : new Address[]{ address, compressedAddress }) {
+            if (! _hasPrivateKeyFor(outputAddress)) { continue; }
 
-                final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+            final Set<TransactionOutputIdentifier> transactionOutputIdentifiers = _unspentTransactionOutputsByAddress.get(outputAddress);
+            if (transactionOutputIdentifiers == null) { continue; }
 
-                final TransactionOutput transactionOutput = spendableTransactionOutput.getTransactionOutput();
-                final LockingScript lockingScript = transactionOutput.getLockingScript();
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+                // Ignore outputs without tokens, or whose tokens do not match the slpTokenId...
+                final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+                if (slpTokenOutput == null) { continue; }
+                if (! Util.areEqual(slpTokenId, slpTokenOutput.tokenId)) { continue; }
 
-                final ScriptType scriptType = scriptPatternMatcher.getScriptType(lockingScript);
-                final Address outputAddress = scriptPatternMatcher.extractAddress(scriptType, lockingScript);
-
-                if ( (! Util.areEqual(address, outputAddress)) && (! Util.areEqual(compressedAddress, outputAddress)) ) { continue; }
-
-                if (slpTokenId == null) { // If the slpTokenId is null then only sum its BCH value.
-                    final BigInteger bchAmount = BigInteger.valueOf(transactionOutput.getAmount());
-                    amount = amount.add(bchAmount);
-                }
-                else {
-                    // If the slpTokenId is provided but does not match the Transaction's SlpTokenId ignore the amount.
-                    // Otherwise, ensure retrieve its token balance.
-
-                    final SlpTokenId transactionTokenId = _getSlpTokenId(transactionOutputIdentifier);
-                    if (! Util.areEqual(slpTokenId, transactionTokenId)) { continue; }
-                    final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-                    if (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) { continue; }
+                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                if (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) { continue; }
 
-                    final BigInteger slpTokenAmount = _getSlpTokenAmount(transactionOutputIdentifier);
-                    amount = amount.add(slpTokenAmount);
-                }
+                amount = amount.add(slpTokenOutput.tokenAmount);
             }
         }
         return amount;
     }
 
     protected BigInteger _getSlpTokenBalance(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions, final Boolean requirePrivateKey) {
-        BigInteger amount = BigInteger.ZERO;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                if (requirePrivateKey) {
-                    final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                    if (!hasPrivateKey) { continue; }
-                }
-
-                final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-                final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
-
-                if (_isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) {
-                    final Transaction transaction = _transactions.get(transactionHash);
-                    if (transaction == null) { return null; }
+        final Set<TransactionOutputIdentifier> transactionOutputIdentifiers = _getIndexedIdentifiers(_unspentSlpTokenOutputsByTokenId, tokenId);
+        if (transactionOutputIdentifiers == null) { return BigInteger.ZERO; }
 
-                    final boolean outputContainsTokens = SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex);
-                    if (! outputContainsTokens) { continue; }
-
-                    final SlpTokenId transactionTokenId = SlpUtil.getTokenId(transaction);
-                    if (! Util.areEqual(tokenId, transactionTokenId)) { continue; }
+        BigInteger amount = BigInteger.ZERO;
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+            if (requirePrivateKey) {
+                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                if (! hasPrivateKey) { continue; }
+            }
 
-                    final BigInteger slpValue = SlpUtil.getOutputTokenAmount(transaction, transactionOutputIndex);
-                    amount = amount.add(slpValue);
-                }
+            final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+            if (_isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) {
+                final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+                amount = amount.add(slpTokenOutput.tokenAmount);
             }
         }
         return amount;
@@ -521,44 +764,45 @@ public class Wallet {
         long selectedUtxoAmount = 0L;
         final MutableList<SpendableTransactionOutput> transactionOutputsToSpend = new MutableList<>();
 
-        final MutableList<SpendableTransactionOutput> unspentTransactionOutputs = new MutableList<>(_transactionOutputs.size());
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-            if (! hasPrivateKey) { continue; }
+        // Add each TransactionOutput that must be included in this transaction to transactionOutputsToSpend,
+        //  its amount to selectedUtxoAmount, and increase the total fees required for this transaction.
+        final HashSet<TransactionOutputIdentifier> mandatoryTransactionOutputIdentifiers = new HashSet<>();
+        if (mandatoryTransactionOutputsToSpend != null) {
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : mandatoryTransactionOutputsToSpend) {
+                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                if (spendableTransactionOutput == null) { continue; }
 
-            final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                if (! hasPrivateKey) { continue; }
+
+                final boolean isNewIdentifier = mandatoryTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                if (! isNewIdentifier) { continue; }
 
-            // If this TransactionOutput is one that must be included in this transaction,
-            //  then add it to transactionOutputsToSpend, its amount to selectedUtxoAmount,
-            //  increase the total fees required for this transaction, and exclude the Utxo
-            //  from the possible spendableTransactionOutputs to prevent it from being added twice.
-            if ( (mandatoryTransactionOutputsToSpend != null) && (mandatoryTransactionOutputsToSpend.contains(transactionOutputIdentifier)) ) {
                 final Address address = spendableTransactionOutput.getAddress();
 
                 final TransactionOutput transactionOutput = spendableTransactionOutput.getTransactionOutput();
                 selectedUtxoAmount += transactionOutput.getAmount();
                 feesToSpendOutputs.value += (address.isCompressed() ? feeToSpendOneOutput : feeToSpendOneUncompressedOutput);
                 transactionOutputsToSpend.add(spendableTransactionOutput);
-                continue;
-            }
-
-            // Avoid spending tokens as regular BCH, unless it is an SLP transaction for the same token.
-            if (_isSlpTokenOutput(transactionOutputIdentifier)) {
-                final SlpTokenId outputTokenId = _getSlpTokenId(transactionOutputIdentifier);
-                if (! Util.areEqual(outputTokenId, slpTokenId)) { continue; }
-            }
-
-            if (! spendableTransactionOutput.isSpent()) {
-                unspentTransactionOutputs.add(spendableTransactionOutput);
             }
         }
-        unspentTransactionOutputs.sort(SpendableTransactionOutput.AMOUNT_ASCENDING_COMPARATOR);
 
         final long mandatoryOutputsFundingAmount = selectedUtxoAmount;
 
-        for (final SpendableTransactionOutput spendableTransactionOutput : unspentTransactionOutputs) {
+        // _spendableTransactionOutputs is already sorted by ascending amount, so selection stops as soon as the transaction is funded.
+        for (final SpendableTransactionOutput spendableTransactionOutput : _spendableTransactionOutputs) {
             if (selectedUtxoAmount >= (minimumUtxoAmount + feesToSpendOutputs.value)) { break; }
 
+            // Exclude the mandatory outputs to prevent them from being added twice...
+            final TransactionOutputIdentifier spendableTransactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+            if (mandatoryTransactionOutputIdentifiers.contains(spendableTransactionOutputIdentifier)) { continue; }
+
+            // Avoid spending tokens as regular BCH, unless it is an SLP transaction for the same token.
+            final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(spendableTransactionOutputIdentifier);
+            if ( (slpTokenOutput != null) && _isSlpTransactionAndIsValid(spendableTransactionOutputIdentifier.getTransactionHash(), true) ) {
+                if (! Util.areEqual(slpTokenOutput.tokenId, slpTokenId)) { continue; }
+            }
+
             final Address address = spendableTransactionOutput.getAddress();
             final Long feeToSpendThisOutput = (address.isCompressed() ? feeToSpendOneOutput : feeToSpendOneUncompressedOutput);
 
@@ -574,7 +818,7 @@ public class Wallet {
                 while (mutableIterator.hasNext()) {
                     final SpendableTransactionOutput selectedTransactionOutput = mutableIterator.next();
                     final TransactionOutputIdentifier transactionOutputIdentifier = selectedTransactionOutput.getIdentifier();
-                    if ( (mandatoryTransactionOutputsToSpend == null) || (! mandatoryTransactionOutputsToSpend.contains(transactionOutputIdentifier)) ) {
+                    if (! mandatoryTransactionOutputIdentifiers.contains(transactionOutputIdentifier)) {
                         mutableIterator.remove();
 
                         // Subtract the fee for spending this output...
@@ -691,25 +935,26 @@ public class Wallet {
         // Add additional inputs to fulfill the requested payment amount(s)...
         BigInteger selectedTokenAmount = preselectedTokenAmount;
         if (selectedTokenAmount.compareTo(requiredTokenAmount) < 0) {
-            final MutableList<Tuple<TransactionOutputIdentifier, BigInteger>> availableTokenAmounts = new MutableList<>();
-            for (final TransactionOutputIdentifier transactionOutputIdentifier : _transactionOutputs.keySet()) {
-                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
-                if (spendableTransactionOutput.isSpent()) { continue; }
+            final HashSet<TransactionOutputIdentifier> requiredTransactionOutputIdentifiers = new HashSet<>();
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : requiredTransactionOutputIdentifiersToSpend) {
+                requiredTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+            }
 
+            final Set<TransactionOutputIdentifier> unspentSlpTokenOutputs = Util.coalesce(_getIndexedIdentifiers(_unspentSlpTokenOutputsByTokenId, slpTokenId), new HashSet<TransactionOutputIdentifier>(0));
+            final MutableList<Tuple<TransactionOutputIdentifier, BigInteger>> availableTokenAmounts = new MutableList<>(unspentSlpTokenOutputs.size());
+            for (final TransactionOutputIdentifier transactionOutputIdentifier : unspentSlpTokenOutputs) {
+                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
                 final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
                 if (! hasPrivateKey) { continue; }
 
-                if (requiredTransactionOutputIdentifiersToSpend.contains(transactionOutputIdentifier)) { continue; }
+                if (requiredTransactionOutputIdentifiers.contains(transactionOutputIdentifier)) { continue; }
 
-                if (! _isSlpTokenOutput(transactionOutputIdentifier)) { continue; }
                 final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                if (! _isSlpTransactionAndIsValid(transactionHash, true)) { continue; }
                 if (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) { continue; }
 
-                final SlpTokenId outputTokenId = _getSlpTokenId(transactionOutputIdentifier);
-                if (! Util.areEqual(slpTokenId, outputTokenId)) { continue; }
-
-                final BigInteger tokenAmount = _getSlpTokenAmount(transactionOutputIdentifier);
-                if (tokenAmount == null) { continue; }
+                final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+                final BigInteger tokenAmount = slpTokenOutput.tokenAmount;
                 if (tokenAmount.compareTo(BigInteger.ONE) < 0) { continue; }
 
                 final Tuple<TransactionOutputIdentifier, BigInteger> tokenAmountTuple = new Tuple<>();
@@ -1183,8 +1428,107 @@ public class Wallet {
         return bloomFilter;
     }
 
+    protected List<LockingScript> _getLockingScripts() {
+        final AddressInflater addressInflater = new AddressInflater();
+
+        final Collection<PrivateKey> privateKeys = _privateKeys.values();
+        final ImmutableListBuilder<LockingScript> lockingScripts = new ImmutableListBuilder<>((privateKeys.size() * 2) + _watchedAddresses.size());
+        for (final PrivateKey privateKey : privateKeys) {
+            lockingScripts.add(ScriptBuilder.payToAddress(addressInflater.fromPrivateKey(privateKey, false)));
+            lockingScripts.add(ScriptBuilder.payToAddress(addressInflater.fromPrivateKey(privateKey, true)));
+        }
+
+        for (final Address address : _watchedAddresses) {
+            if (address.getType() == Address.Type.P2SH) {
+                lockingScripts.add(ScriptBuilder.payToScriptHash(Ripemd160Hash.wrap(address.getBytes())));
+            }
+            else {
+                lockingScripts.add(ScriptBuilder.payToAddress(address));
+            }
+        }
+
+        return lockingScripts.build();
+    }
+
+    /**
+     * Publishes the balances of the Addresses modified since the previous publication, so a write costs O(modified Addresses).
+     *  Must be invoked while holding the write lock, after the Wallet's outputs have been modified.
+     */
+    protected void _publishBalances() {
+        for (final Address address : _modifiedBalanceAddresses) {
+            final Long balance = _unspentBalancesByAddress.get(address);
+            if (balance != null) {
+                _publishedUnspentBalances.put(address, balance);
+            }
+            else {
+                _publishedUnspentBalances.remove(address);
+            }
+        }
+        _modifiedBalanceAddresses.clear();
+
+        _publishedSpendableBalance = _spendableBalance;
+    }
+
+    protected Long _getPublishedBalance(final PublicKey publicKey) {
+        final Tuple<Address, Address> addresses = _getAddresses(publicKey);
+
+        long amount = 0L;
+        for (final Address address : new Address[]{ addresses.first, addresses.second }) {
+            if (! _hasPrivateKeyFor(address)) { continue; }
+
+            final Long addressBalance = _publishedUnspentBalances.get(address);
+            if (addressBalance == null) { continue; }
+
+            amount += addressBalance;
+        }
+        return amount;
+    }
+
+    protected void _beginWrite() {
+        _writeLock.lock();
+        _writeSequenceNumber.incrementAndGet();
+    }
+
+    protected void _endWrite() {
+        _writeSequenceNumber.incrementAndGet();
+        _writeLock.unlock();
+    }
+
+    /**
+     * Runs the read without acquiring the read lock, retrying it if a write began or completed in the meantime, so the
+     *  result is consistent with a single state of the Wallet (i.e. a seqlock).  A write may leave the concurrent collections
+     *  momentarily inconsistent, so exceptions thrown by an interrupted read are also retried.  After MAX_OPTIMISTIC_READ_ATTEMPTS,
+     *  or if a write is in progress, the read acquires the read lock.
+     */
+    protected <T> T _read(final WalletRead<T> walletRead) {
+        for (int i = 0; i < MAX_OPTIMISTIC_READ_ATTEMPTS; ++i) {
+            final long sequenceNumber = _writeSequenceNumber.get();
+            if ((sequenceNumber % 2L) != 0L) { break; }
+
+            try {
+                final T result = walletRead.run();
+                if (_writeSequenceNumber.get() == sequenceNumber) { return result; }
+            }
+            catch (final RuntimeException exception) {
+                if (_writeSequenceNumber.get() == sequenceNumber) { throw exception; }
+            }
+        }
+
+        _readLock.lock();
+        try {
+            return walletRead.run();
+        }
+        finally {
+            _readLock.unlock();
+        }
+    }
+
     protected Boolean _hasPrivateKeyFor(final SpendableTransactionOutput spendableTransactionOutput) {
         final Address address = spendableTransactionOutput.getAddress();
+        return _hasPrivateKeyFor(address);
+    }
+
+    protected Boolean _hasPrivateKeyFor(final Address address) {
         final PublicKey publicKey = _publicKeys.get(address);
         if (publicKey == null) { return false; }
 
@@ -1192,13 +1536,16 @@ public class Wallet {
     }
 
     public Wallet() {
-        _medianBlockTime = null; // Only necessary for instances near impending hard forks...
-        _upgradeSchedule = new CoreUpgradeSchedule();
+        this(null, new CoreUpgradeSchedule()); // The MedianBlockTime is only necessary for instances near impending hard forks...
     }
 
     public Wallet(final MedianBlockTime medianBlockTime, final UpgradeSchedule upgradeSchedule) {
         _medianBlockTime = medianBlockTime;
         _upgradeSchedule = upgradeSchedule;
+
+        final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+        _readLock = readWriteLock.readLock();
+        _writeLock = readWriteLock.writeLock();
     }
 
     public void setSatoshisPerByteFee(final Double satoshisPerByte) {
@@ -1209,46 +1556,117 @@ public class Wallet {
         return _calculateDustThreshold(BYTES_PER_TRANSACTION_OUTPUT, addressIsCompressed);
     }
 
-    public synchronized void addPrivateKey(final PrivateKey privateKey) {
-        _addPrivateKey(privateKey);
-        _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
-        _reloadTransactions();
+    public void addPrivateKey(final PrivateKey privateKey) {
+        _beginWrite();
+        try {
+            _addPrivateKey(privateKey);
+            _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
+            _reloadTransactions();
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void addPrivateKeys(final List<PrivateKey> privateKeys) {
-        for (final PrivateKey privateKey : privateKeys) {
-            _addPrivateKey(privateKey);
+    public void addPrivateKeys(final List<PrivateKey> privateKeys) {
+        _beginWrite();
+        try {
+            for (final PrivateKey privateKey : privateKeys) {
+                _addPrivateKey(privateKey);
+            }
+            _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
+            _reloadTransactions();
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
         }
-        _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
-        _reloadTransactions();
     }
 
-    public synchronized void addWatchedAddress(final Address address) {
-        _watchedAddresses.add(address);
-        _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
+    public void addWatchedAddress(final Address address) {
+        _beginWrite();
+        try {
+            _watchedAddresses.add(address);
+            _cachedBloomFilter = null; // Invalidate the cached BloomFilter...
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void addTransaction(final Transaction transaction) {
-        _addTransaction(transaction, true);
+    public void addTransaction(final Transaction transaction) {
+        _beginWrite();
+        try {
+            _addTransaction(transaction, true);
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void addTransaction(final Transaction transaction, final List<Integer> validOutputIndexes) {
-        _addTransaction(transaction, true);
-        _markTransactionOutputsAsSpent(transaction, validOutputIndexes);
+    public void addTransaction(final Transaction transaction, final List<Integer> validOutputIndexes) {
+        _beginWrite();
+        try {
+            _addTransaction(transaction, true);
+            _markTransactionOutputsAsSpent(transaction, validOutputIndexes);
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void addUnconfirmedTransaction(final Transaction transaction) {
-        _addTransaction(transaction, false);
+    /**
+     * Adds the confirmed Transactions as a single write, so concurrent readers observe either none or all of them.
+     */
+    public void addTransactions(final List<Transaction> transactions) {
+        _beginWrite();
+        try {
+            for (final Transaction transaction : transactions) {
+                _addTransaction(transaction, true);
+            }
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
+    }
+
+    public void addUnconfirmedTransaction(final Transaction transaction) {
+        _beginWrite();
+        try {
+            _addTransaction(transaction, false);
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void addUnconfirmedTransaction(final Transaction transaction, final List<Integer> validOutputIndexes) {
-        _addTransaction(transaction, false);
-        _markTransactionOutputsAsSpent(transaction, validOutputIndexes);
+    public void addUnconfirmedTransaction(final Transaction transaction, final List<Integer> validOutputIndexes) {
+        _beginWrite();
+        try {
+            _addTransaction(transaction, false);
+            _markTransactionOutputsAsSpent(transaction, validOutputIndexes);
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void markTransactionOutputAsSpent(final Sha256Hash transactionHash, final Integer transactionOutputIndex) {
-        final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, transactionOutputIndex);
-        _markTransactionOutputAsSpent(transactionOutputIdentifier);
+    public void markTransactionOutputAsSpent(final Sha256Hash transactionHash, final Integer transactionOutputIndex) {
+        _beginWrite();
+        try {
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, transactionOutputIndex);
+            _markTransactionOutputAsSpent(transactionOutputIdentifier);
+            _publishBalances();
+        }
+        finally {
+            _endWrite();
+        }
     }
 
     protected void _markTransactionOutputsAsSpent(final Transaction transaction, final List<Integer> validOutputIndexes) {
@@ -1263,7 +1681,7 @@ public class Wallet {
     protected void _markTransactionOutputAsSpent(final TransactionOutputIdentifier transactionOutputIdentifier) {
         final MutableSpendableTransactionOutput transactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
         if (transactionOutput != null) {
-            transactionOutput.setIsSpent(true);
+            _setTransactionOutputIsSpent(transactionOutput);
         }
 
         final Sha256Hash sentinelHash = Sha256Hash.EMPTY_HASH;
@@ -1271,36 +1689,71 @@ public class Wallet {
         _externallySpentTransactionOutputs.put(transactionOutputIdentifier, sentinelHash);
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount) {
-        final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, null, requiredTransactionOutputsToSpend);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, null, requiredTransactionOutputsToSpend);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend) {
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, null, requiredTransactionOutputsToSpend);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, null, requiredTransactionOutputsToSpend);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final LockingScript opReturnScript) {
-        final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, opReturnScript, requiredTransactionOutputsToSpend);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final LockingScript opReturnScript) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, null, opReturnScript, requiredTransactionOutputsToSpend);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount) {
-        final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, true);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, true);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, shouldIncludeNotYetValidatedTransactions);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend = new MutableList<>(0);
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend) {
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, true);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, true);
+            }
+        });
     }
 
-    public synchronized List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, shouldIncludeNotYetValidatedTransactions);
+    public List<TransactionOutputIdentifier> getOutputsToSpend(final Integer newTransactionOutputCount, final Long desiredSpendAmount, final SlpTokenId slpTokenId, final BigInteger desiredSlpSpendAmount, final List<TransactionOutputIdentifier> requiredTransactionOutputsToSpend, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<List<TransactionOutputIdentifier>>() {
+            @Override
+            public List<TransactionOutputIdentifier> run() {
+                return _getOutputsToSpend(newTransactionOutputCount, desiredSpendAmount, slpTokenId, desiredSlpSpendAmount, requiredTransactionOutputsToSpend, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
     public Long calculateFees(final Integer newOutputCount, final Integer outputsBeingSpentCount) {
@@ -1315,54 +1768,122 @@ public class Wallet {
         return feeContainer.value;
     }
 
-    public synchronized Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress) {
-        final List<TransactionOutputIdentifier> mandatoryTransactionOutputsToSpend = new MutableList<>(0);
-        final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, mandatoryTransactionOutputsToSpend, null, null);
-        return _createSignedTransaction(transactionBundle);
+    public Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                final List<TransactionOutputIdentifier> mandatoryTransactionOutputsToSpend = new MutableList<>(0);
+                final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, mandatoryTransactionOutputsToSpend, null, null);
+                return _createSignedTransaction(transactionBundle);
+            }
+        });
     }
 
-    public synchronized Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final LockingScript opReturnScript) {
-        final List<TransactionOutputIdentifier> mandatoryTransactionOutputsToSpend = new MutableList<>(0);
-        final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, mandatoryTransactionOutputsToSpend, opReturnScript, null);
-        return _createSignedTransaction(transactionBundle);
+    public Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final LockingScript opReturnScript) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                final List<TransactionOutputIdentifier> mandatoryTransactionOutputsToSpend = new MutableList<>(0);
+                final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, mandatoryTransactionOutputsToSpend, opReturnScript, null);
+                return _createSignedTransaction(transactionBundle);
+            }
+        });
     }
 
-    public synchronized Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend) {
-        final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, transactionOutputIdentifiersToSpend, null, null);
-        return _createSignedTransaction(transactionBundle);
+    public Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, transactionOutputIdentifiersToSpend, null, null);
+                return _createSignedTransaction(transactionBundle);
+            }
+        });
     }
 
-    public synchronized Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend, final LockingScript opReturnScript) {
-        final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, transactionOutputIdentifiersToSpend, opReturnScript, null);
-        return _createSignedTransaction(transactionBundle);
+    public Transaction createTransaction(final List<PaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> transactionOutputIdentifiersToSpend, final LockingScript opReturnScript) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                final TransactionBundle transactionBundle = _createTransactionBundle(paymentAmounts, changeAddress, transactionOutputIdentifiersToSpend, opReturnScript, null);
+                return _createSignedTransaction(transactionBundle);
+            }
+        });
     }
 
-    public synchronized Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress) {
-        return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, new MutableList<>(0), true);
+    public Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, new MutableList<>(0), true);
+            }
+        });
     }
 
-    public synchronized Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> requiredTransactionOutputIdentifiersToSpend) {
-        return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, requiredTransactionOutputIdentifiersToSpend, true);
+    public Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> requiredTransactionOutputIdentifiersToSpend) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, requiredTransactionOutputIdentifiersToSpend, true);
+            }
+        });
     }
 
-    public synchronized Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> requiredTransactionOutputIdentifiersToSpend, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, requiredTransactionOutputIdentifiersToSpend, shouldIncludeNotYetValidatedTransactions);
+    public Transaction createSlpTokenTransaction(final SlpTokenId slpTokenId, final List<SlpPaymentAmount> paymentAmounts, final Address changeAddress, final List<TransactionOutputIdentifier> requiredTransactionOutputIdentifiersToSpend, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<Transaction>() {
+            @Override
+            public Transaction run() {
+                return _createSlpTokenTransaction(slpTokenId, paymentAmounts, changeAddress, requiredTransactionOutputIdentifiersToSpend, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
-    public synchronized MutableBloomFilter generateBloomFilter() {
-        return _generateBloomFilter();
+    public MutableBloomFilter generateBloomFilter() {
+        _readLock.lock();
+        try {
+            return _generateBloomFilter();
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 
-    public synchronized BloomFilter getBloomFilter() {
-        if (_cachedBloomFilter == null) {
-            _cachedBloomFilter = _generateBloomFilter();
+    public BloomFilter getBloomFilter() {
+        _readLock.lock();
+        try {
+            final BloomFilter cachedBloomFilter = _cachedBloomFilter;
+            if (cachedBloomFilter != null) { return cachedBloomFilter; }
+
+            final BloomFilter bloomFilter = _generateBloomFilter();
+            _cachedBloomFilter = bloomFilter;
+            return bloomFilter;
         }
+        finally {
+            _readLock.unlock();
+        }
+    }
 
-        return _cachedBloomFilter;
+    /**
+     * Returns the LockingScripts that pay to the Wallet's keys and watched addresses.
+     *  Unlike the BloomFilter, these scripts may be matched against BIP-158 block filters locally, so adding keys does not require peers to be updated.
+     */
+    public List<LockingScript> getLockingScripts() {
+        _readLock.lock();
+        try {
+            return _getLockingScripts();
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 
-    public synchronized Boolean hasTransaction(final Sha256Hash transactionHash) {
-        return _transactions.containsKey(transactionHash);
+    public Boolean hasTransaction(final Sha256Hash transactionHash) {
+        _readLock.lock();
+        try {
+            return _transactions.containsKey(transactionHash);
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 
     /**
@@ -1371,295 +1892,381 @@ public class Wallet {
      * @return A new list populated with the transactions contained within the wallet.
      */
     public List<Transaction> getTransactions() {
-        return new MutableList<>(_transactions.values());
+        _readLock.lock();
+        try {
+            return new MutableList<>(_transactions.values());
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 
-    public synchronized Transaction getTransaction(final Sha256Hash transactionHash) {
-        final Transaction transaction = _transactions.get(transactionHash);
-        return transaction;
+    public Transaction getTransaction(final Sha256Hash transactionHash) {
+        _readLock.lock();
+        try {
+            final Transaction transaction = _transactions.get(transactionHash);
+            return transaction;
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 
-    public synchronized SpendableTransactionOutput getTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
-        final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
-        final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-        if (! hasPrivateKey) { return null; }
+    public SpendableTransactionOutput getTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) {
+        return _read(new WalletRead<SpendableTransactionOutput>() {
+            @Override
+            public SpendableTransactionOutput run() {
+                final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                if (! hasPrivateKey) { return null; }
 
-        return spendableTransactionOutput;
+                return spendableTransactionOutput;
+            }
+        });
     }
 
-    public synchronized List<SpendableTransactionOutput> getTransactionOutputs() {
-        final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
-        final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
-        for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
-            final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-            if (hasPrivateKey) {
-                transactionOutputs.add(spendableTransactionOutput);
-            }
+    public List<SpendableTransactionOutput> getTransactionOutputs() {
+        final long sequenceNumber = _writeSequenceNumber.get();
+        final TransactionOutputsSnapshot transactionOutputsSnapshot = _transactionOutputsSnapshot;
+        if ( (transactionOutputsSnapshot != null) && (transactionOutputsSnapshot.sequenceNumber == sequenceNumber) ) {
+            return transactionOutputsSnapshot.transactionOutputs;
         }
-        return transactionOutputs.build();
-    }
 
-    public synchronized List<SpendableTransactionOutput> getNonSlpTokenTransactionOutputs() {
-        final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
-        final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
-        for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
-            final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-            if (! _isSlpTokenOutput(transactionOutputIdentifier)) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (hasPrivateKey) {
-                    transactionOutputs.add(spendableTransactionOutput);
+        final List<SpendableTransactionOutput> transactionOutputsList = _read(new WalletRead<List<SpendableTransactionOutput>>() {
+            @Override
+            public List<SpendableTransactionOutput> run() {
+                final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
+                final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
+                for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
+                    final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                    if (hasPrivateKey) {
+                        transactionOutputs.add(spendableTransactionOutput.asConst());
+                    }
                 }
+                return transactionOutputs.build();
             }
-        }
-        return transactionOutputs.build();
+        });
+
+        // The list is only cached if no write was in progress or completed while it was built...
+        if ( ((sequenceNumber % 2L) == 0L) && (_writeSequenceNumber.get() == sequenceNumber) ) {
+            _transactionOutputsSnapshot = new TransactionOutputsSnapshot(sequenceNumber, transactionOutputsList);
+        }
+        return transactionOutputsList;
+    }
+
+    public List<SpendableTransactionOutput> getNonSlpTokenTransactionOutputs() {
+        return _read(new WalletRead<List<SpendableTransactionOutput>>() {
+            @Override
+            public List<SpendableTransactionOutput> run() {
+                final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
+                final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
+                for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
+                    final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+                    if (! _isSlpTokenOutput(transactionOutputIdentifier)) {
+                        final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                        if (hasPrivateKey) {
+                            transactionOutputs.add(spendableTransactionOutput);
+                        }
+                    }
+                }
+                return transactionOutputs.build();
+            }
+        });
     }
 
-    public synchronized List<SpendableTransactionOutput> getTransactionOutputsAndSpendableTokens(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
-        final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
-        for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
-            final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-            final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-            if ( (! _isSlpTokenOutput(transactionOutputIdentifier)) || (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) ) {
-                transactionOutputs.add(spendableTransactionOutput);
-            }
-            else if (_outputContainsSpendableSlpTokens(transactionOutputIdentifier)) {
-                if (Util.areEqual(tokenId, _getSlpTokenId(transactionOutputIdentifier))) {
-                    final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                    if (hasPrivateKey) {
+    public List<SpendableTransactionOutput> getTransactionOutputsAndSpendableTokens(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<List<SpendableTransactionOutput>>() {
+            @Override
+            public List<SpendableTransactionOutput> run() {
+                final Collection<? extends SpendableTransactionOutput> spendableTransactionOutputs = _transactionOutputs.values();
+                final ImmutableListBuilder<SpendableTransactionOutput> transactionOutputs = new ImmutableListBuilder<>(spendableTransactionOutputs.size());
+                for (final SpendableTransactionOutput spendableTransactionOutput : spendableTransactionOutputs) {
+                    final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
+                    final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                    if ( (! _isSlpTokenOutput(transactionOutputIdentifier)) || (! _isSlpTransactionAndIsValid(transactionHash, shouldIncludeNotYetValidatedTransactions)) ) {
                         transactionOutputs.add(spendableTransactionOutput);
                     }
+                    else if (_outputContainsSpendableSlpTokens(transactionOutputIdentifier)) {
+                        if (Util.areEqual(tokenId, _getSlpTokenId(transactionOutputIdentifier))) {
+                            final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                            if (hasPrivateKey) {
+                                transactionOutputs.add(spendableTransactionOutput);
+                            }
+                        }
+                    }
                 }
+                return transactionOutputs.build();
             }
-        }
-        return transactionOutputs.build();
+        });
     }
 
-    public synchronized List<SlpToken> getSlpTokens() {
-        return _getSlpTokens(null, true);
+    public List<SlpToken> getSlpTokens() {
+        return _read(new WalletRead<List<SlpToken>>() {
+            @Override
+            public List<SlpToken> run() {
+                return _getSlpTokens(null, true);
+            }
+        });
     }
 
-    public synchronized List<SlpToken> getSlpTokens(final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getSlpTokens(null, shouldIncludeNotYetValidatedTransactions);
+    public List<SlpToken> getSlpTokens(final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<List<SlpToken>>() {
+            @Override
+            public List<SlpToken> run() {
+                return _getSlpTokens(null, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
-    public synchronized List<SlpToken> getSlpTokens(final SlpTokenId slpTokenId) {
-        return _getSlpTokens(slpTokenId, true);
+    public List<SlpToken> getSlpTokens(final SlpTokenId slpTokenId) {
+        return _read(new WalletRead<List<SlpToken>>() {
+            @Override
+            public List<SlpToken> run() {
+                return _getSlpTokens(slpTokenId, true);
+            }
+        });
     }
 
-    public synchronized List<SlpToken> getSlpTokens(final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getSlpTokens(slpTokenId, shouldIncludeNotYetValidatedTransactions);
+    public List<SlpToken> getSlpTokens(final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<List<SlpToken>>() {
+            @Override
+            public List<SlpToken> run() {
+                return _getSlpTokens(slpTokenId, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
-    public synchronized Long getBalance() {
-        long amount = 0L;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (! hasPrivateKey) { continue; }
-
-                final TransactionOutput transactionOutput = spendableTransactionOutput.getTransactionOutput();
-                amount += transactionOutput.getAmount();
+    public Long getBalance() {
+        return _read(new WalletRead<Long>() {
+            @Override
+            public Long run() {
+                return _publishedSpendableBalance;
             }
-        }
-        return amount;
+        });
     }
 
-    public synchronized Long getBalance(final PublicKey publicKey) {
-        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
-
-        final AddressInflater addressInflater = new AddressInflater();
-        final Address address = addressInflater.fromPublicKey(publicKey, false);
-        final Address compressedAddress = addressInflater.fromPublicKey(publicKey, true);
-
-        long amount = 0L;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (! hasPrivateKey) { continue; }
-
-                final TransactionOutput transactionOutput = spendableTransactionOutput.getTransactionOutput();
-                final LockingScript lockingScript = transactionOutput.getLockingScript();
-
-                final ScriptType scriptType = scriptPatternMatcher.getScriptType(lockingScript);
-                final Address outputAddress = scriptPatternMatcher.extractAddress(scriptType, lockingScript);
-
-                if ( Util.areEqual(address, outputAddress) || Util.areEqual(compressedAddress, outputAddress) ) {
-                    amount += transactionOutput.getAmount();
-                }
+    public Long getBalance(final PublicKey publicKey) {
+        return _read(new WalletRead<Long>() {
+            @Override
+            public Long run() {
+                return _getPublishedBalance(publicKey);
             }
-        }
-        return amount;
+        });
     }
 
-    public synchronized Long getWatchedBalance(final Address address) {
-        final ScriptPatternMatcher scriptPatternMatcher = new ScriptPatternMatcher();
-
-        long amount = 0L;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final TransactionOutput transactionOutput = spendableTransactionOutput.getTransactionOutput();
-                final LockingScript lockingScript = transactionOutput.getLockingScript();
-
-                final ScriptType scriptType = scriptPatternMatcher.getScriptType(lockingScript);
-                final Address outputAddress = scriptPatternMatcher.extractAddress(scriptType, lockingScript);
-
-                if (Util.areEqual(address, outputAddress)) {
-                    amount += transactionOutput.getAmount();
-                }
+    public Long getWatchedBalance(final Address address) {
+        return _read(new WalletRead<Long>() {
+            @Override
+            public Long run() {
+                final Long balance = _publishedUnspentBalances.get(address);
+                return Util.coalesce(balance, 0L);
             }
-        }
-        return amount;
+        });
     }
 
-    public synchronized Long getBalance(final PublicKey publicKey, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getBalance(publicKey, shouldIncludeNotYetValidatedTransactions);
+    public Long getBalance(final PublicKey publicKey, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return this.getBalance(publicKey);
     }
 
-    public synchronized BigInteger getSlpTokenBalance(final PublicKey publicKey, final SlpTokenId slpTokenId) {
-        return _getBalance(publicKey, slpTokenId, true);
+    public BigInteger getSlpTokenBalance(final PublicKey publicKey, final SlpTokenId slpTokenId) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getBalance(publicKey, slpTokenId, true);
+            }
+        });
     }
 
-    public synchronized BigInteger getSlpTokenBalance(final PublicKey publicKey, final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getBalance(publicKey, slpTokenId, shouldIncludeNotYetValidatedTransactions);
+    public BigInteger getSlpTokenBalance(final PublicKey publicKey, final SlpTokenId slpTokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getBalance(publicKey, slpTokenId, shouldIncludeNotYetValidatedTransactions);
+            }
+        });
     }
 
-    public synchronized BigInteger getSlpTokenBalance(final SlpTokenId tokenId) {
-        return _getSlpTokenBalance(tokenId, true, true);
+    public BigInteger getSlpTokenBalance(final SlpTokenId tokenId) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getSlpTokenBalance(tokenId, true, true);
+            }
+        });
     }
 
-    public synchronized BigInteger getSlpTokenBalance(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getSlpTokenBalance(tokenId, shouldIncludeNotYetValidatedTransactions, true);
+    public BigInteger getSlpTokenBalance(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getSlpTokenBalance(tokenId, shouldIncludeNotYetValidatedTransactions, true);
+            }
+        });
     }
 
-    public synchronized BigInteger getWatchedSlpTokenBalance(final SlpTokenId tokenId) {
-        return _getSlpTokenBalance(tokenId, true, false);
+    public BigInteger getWatchedSlpTokenBalance(final SlpTokenId tokenId) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getSlpTokenBalance(tokenId, true, false);
+            }
+        });
     }
 
-    public synchronized BigInteger getWatchedSlpTokenBalance(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
-        return _getSlpTokenBalance(tokenId, shouldIncludeNotYetValidatedTransactions, false);
+    public BigInteger getWatchedSlpTokenBalance(final SlpTokenId tokenId, final Boolean shouldIncludeNotYetValidatedTransactions) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                return _getSlpTokenBalance(tokenId, shouldIncludeNotYetValidatedTransactions, false);
+            }
+        });
     }
 
-    public synchronized BigInteger getInvalidSlpTokenBalance(final SlpTokenId tokenId) {
-        BigInteger amount = BigInteger.ZERO;
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (! hasPrivateKey) { continue; }
+    public BigInteger getInvalidSlpTokenBalance(final SlpTokenId tokenId) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                final Set<TransactionOutputIdentifier> transactionOutputIdentifiers = _getIndexedIdentifiers(_unspentSlpTokenOutputsByTokenId, tokenId);
+                if (transactionOutputIdentifiers == null) { return BigInteger.ZERO; }
 
-                final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-                final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
-
-                // only include invalid transactions
-                if (_invalidSlpTransactions.contains(transactionHash)) {
-                    final Transaction transaction = _transactions.get(transactionHash);
-                    if (transaction == null) { return null; }
-
-                    final boolean outputContainsTokens = SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex);
-                    if (! outputContainsTokens) { continue; }
-
-                    final SlpTokenId transactionTokenId = SlpUtil.getTokenId(transaction);
-                    if (! Util.areEqual(tokenId, transactionTokenId)) { continue; }
+                BigInteger amount = BigInteger.ZERO;
+                for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+                    final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                    final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                    if (! hasPrivateKey) { continue; }
 
-                    final BigInteger outputAmount = SlpUtil.getOutputTokenAmount(transaction, transactionOutputIndex);
-                    amount = amount.add(outputAmount);
+                    // only include invalid transactions
+                    final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
+                    if (_invalidSlpTransactions.contains(transactionHash)) {
+                        final SlpTokenOutput slpTokenOutput = _slpTokenOutputs.get(transactionOutputIdentifier);
+                        amount = amount.add(slpTokenOutput.tokenAmount);
+                    }
                 }
+                return amount;
             }
+        });
+    }
+
+    public void markSlpTransactionAsValid(final Sha256Hash transactionHash) {
+        _beginWrite();
+        try {
+            if (_transactions.containsKey(transactionHash)) {
+                _notYetValidatedSlpTransactions.remove(transactionHash);
+                _validSlpTransactions.remove(transactionHash);
+            }
+            else {
+                _validSlpTransactions.add(transactionHash);
+            }
+            // cannot be invalid now
+            _invalidSlpTransactions.remove(transactionHash);
+
+            Logger.debug(SlpValidity.VALID + " SLP transaction: " + transactionHash);
+        }
+        finally {
+            _endWrite();
         }
-        return amount;
     }
 
-    public synchronized void markSlpTransactionAsValid(final Sha256Hash transactionHash) {
-        if (_transactions.containsKey(transactionHash)) {
+    public void markSlpTransactionAsInvalid(final Sha256Hash transactionHash) {
+        _beginWrite();
+        try {
             _notYetValidatedSlpTransactions.remove(transactionHash);
+            _invalidSlpTransactions.add(transactionHash);
+            // cannot be valid now
             _validSlpTransactions.remove(transactionHash);
+
+            Logger.debug(SlpValidity.INVALID + " SLP transaction: " + transactionHash);
         }
-        else {
-            _validSlpTransactions.add(transactionHash);
+        finally {
+            _endWrite();
         }
-        // cannot be invalid now
-        _invalidSlpTransactions.remove(transactionHash);
-
-        Logger.debug(SlpValidity.VALID + " SLP transaction: " + transactionHash);
     }
 
-    public synchronized void markSlpTransactionAsInvalid(final Sha256Hash transactionHash) {
-        _notYetValidatedSlpTransactions.remove(transactionHash);
-        _invalidSlpTransactions.add(transactionHash);
-        // cannot be valid now
-        _validSlpTransactions.remove(transactionHash);
+    public void clearSlpValidity() {
+        _beginWrite();
+        try {
+            // mark explicitly tracked validity as unknown
+            _notYetValidatedSlpTransactions.addAll(_validSlpTransactions);
+            _notYetValidatedSlpTransactions.addAll(_invalidSlpTransactions);
+            _validSlpTransactions.clear();
+            _invalidSlpTransactions.clear();
 
-        Logger.debug(SlpValidity.INVALID + " SLP transaction: " + transactionHash);
+            // mark implicitly tracked validity as unknown
+            _notYetValidatedSlpTransactions.addAll(_slpTransactionTokenIds.keySet());
+        }
+        finally {
+            _endWrite();
+        }
     }
 
-    public synchronized void clearSlpValidity() {
-        // mark explicitly tracked validity as unknown
-        _notYetValidatedSlpTransactions.addAll(_validSlpTransactions);
-        _notYetValidatedSlpTransactions.addAll(_invalidSlpTransactions);
-        _validSlpTransactions.clear();
-        _invalidSlpTransactions.clear();
+    public BigInteger getSlpTokenAmount(final SlpTokenId slpTokenId, final TransactionOutputIdentifier transactionOutputIdentifier) {
+        return _read(new WalletRead<BigInteger>() {
+            @Override
+            public BigInteger run() {
+                final SlpTokenId outputSlpTokenId = _getSlpTokenId(transactionOutputIdentifier);
+                if (! Util.areEqual(slpTokenId, outputSlpTokenId)) { return BigInteger.ZERO; }
 
-        // mark implicitly tracked validity as unknown
-        for (final Sha256Hash transactionHash : _transactions.keySet()) {
-            final Transaction transaction = _transactions.get(transactionHash);
-            if (Transaction.isSlpTransaction(transaction)) {
-                _notYetValidatedSlpTransactions.add(transactionHash);
+                return _getSlpTokenAmount(transactionOutputIdentifier);
             }
-        }
-    }
-
-    public synchronized BigInteger getSlpTokenAmount(final SlpTokenId slpTokenId, final TransactionOutputIdentifier transactionOutputIdentifier) {
-        final SlpTokenId outputSlpTokenId = _getSlpTokenId(transactionOutputIdentifier);
-        if (! Util.areEqual(slpTokenId, outputSlpTokenId)) { return BigInteger.ZERO; }
+        });
+    }
+
+    public List<SlpTokenId> getSlpTokenIds() {
+        return _read(new WalletRead<List<SlpTokenId>>() {
+            @Override
+            public List<SlpTokenId> run() {
+                final MutableList<SlpTokenId> tokenIds = new MutableList<>(_unspentSlpTokenOutputsByTokenId.size());
+                for (final Map.Entry<SlpTokenId, Set<TransactionOutputIdentifier>> entry : _unspentSlpTokenOutputsByTokenId.entrySet()) {
+                    final SlpTokenId tokenId = entry.getKey();
+
+                    for (final TransactionOutputIdentifier transactionOutputIdentifier : entry.getValue()) {
+                        final SpendableTransactionOutput spendableTransactionOutput = _transactionOutputs.get(transactionOutputIdentifier);
+                        final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
+                        if (hasPrivateKey) {
+                            tokenIds.add(tokenId);
+                            break;
+                        }
+                    }
+                }
 
-        return _getSlpTokenAmount(transactionOutputIdentifier);
+                tokenIds.sort(SlpTokenId.COMPARATOR);
+                return tokenIds;
+            }
+        });
     }
 
-    public synchronized List<SlpTokenId> getSlpTokenIds() {
-        final HashSet<SlpTokenId> tokenIdsSet = new HashSet<>();
-        for (final SpendableTransactionOutput spendableTransactionOutput : _transactionOutputs.values()) {
-            if (! spendableTransactionOutput.isSpent()) {
-                final Boolean hasPrivateKey = _hasPrivateKeyFor(spendableTransactionOutput);
-                if (! hasPrivateKey) { continue; }
-
-                final TransactionOutputIdentifier transactionOutputIdentifier = spendableTransactionOutput.getIdentifier();
-                final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-                final Integer transactionOutputIndex = transactionOutputIdentifier.getOutputIndex();
-
-                final Transaction transaction = _transactions.get(transactionHash);
-                if (transaction == null) { return null; }
-
-                final boolean outputContainsTokens = SlpUtil.isSlpTokenOutput(transaction, transactionOutputIndex);
-                if (! outputContainsTokens) { continue; }
-
-                final SlpTokenId tokenId = SlpUtil.getTokenId(transaction);
-                if (tokenId == null) { continue; }
-
-                tokenIdsSet.add(tokenId);
-            }
+    public Boolean hasPrivateKeys() {
+        _readLock.lock();
+        try {
+            return (! _privateKeys.isEmpty());
+        }
+        finally {
+            _readLock.unlock();
         }
-
-        final MutableList<SlpTokenId> tokenIds = new MutableList<>();
-        tokenIds.addAll(tokenIdsSet);
-        tokenIds.sort(SlpTokenId.COMPARATOR);
-        return tokenIds;
     }
 
-    public synchronized Boolean hasPrivateKeys() {
-        return (! _privateKeys.isEmpty());
-    }
+    public Address getReceivingAddress() {
+        _readLock.lock();
+        try {
+            final AddressInflater addressInflater = new AddressInflater();
+            for (final PublicKey publicKey : _privateKeys.keySet()) {
+                return addressInflater.fromPublicKey(publicKey, true);
+            }
 
-    public synchronized Address getReceivingAddress() {
-        final AddressInflater addressInflater = new AddressInflater();
-        for (final PublicKey publicKey : _privateKeys.keySet()) {
-            return addressInflater.fromPublicKey(publicKey, true);
+            return null;
+        }
+        finally {
+            _readLock.unlock();
         }
-
-        return null;
     }
 
-    public synchronized List<PublicKey> getPublicKeys() {
-        return new ImmutableList<>(_privateKeys.keySet());
+    public List<PublicKey> getPublicKeys() {
+        _readLock.lock();
+        try {
+            return new ImmutableList<>(_privateKeys.keySet());
+        }
+        finally {
+            _readLock.unlock();
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.softwareverde.siphash;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+
+/**
+ * SipHash-2-4, as specified by Aumasson and Bernstein ( https://131002.net/siphash/siphash.pdf ).
+ *  The 128-bit key is provided as two 64-bit words, each read from the key bytes in little-endian order.
+ */
+public class SipHashUtil {
+    private static long _rotateLeft64(final long x, final int r) {
+        return ( (x << r) | (x >>> (64 - r)) );
+    }
+
+    private static void _sipRound(final long[] v) {
+        v[0] += v[1];
+        v[1] = _rotateLeft64(v[1], 13);
+        v[1] ^= v[0];
+        v[0] = _rotateLeft64(v[0], 32);
+
+        v[2] += v[3];
+        v[3] = _rotateLeft64(v[3], 16);
+        v[3] ^= v[2];
+
+        v[0] += v[3];
+        v[3] = _rotateLeft64(v[3], 21);
+        v[3] ^= v[0];
+
+        v[2] += v[1];
+        v[1] = _rotateLeft64(v[1], 17);
+        v[1] ^= v[2];
+        v[2] = _rotateLeft64(v[2], 32);
+    }
+
+    protected static long _readLittleEndianLong(final ByteArray byteArray, final int offset, final int byteCount) {
+        long value = 0L;
+        for (int i = 0; i < byteCount; ++i) {
+            value |= ( (byteArray.getByte(offset + i) & 0xFFL) << (8 * i) );
+        }
+        return value;
+    }
+
+    public static long readKey0(final ByteArray key) {
+        return _readLittleEndianLong(key, 0, 8);
+    }
+
+    public static long readKey1(final ByteArray key) {
+        return _readLittleEndianLong(key, 8, 8);
+    }
+
+    public static long sipHash24(final long k0, final long k1, final ByteArray object) {
+        final long[] v = new long[4];
+        v[0] = (0x736F6D6570736575L ^ k0);
+        v[1] = (0x646F72616E646F6DL ^ k1);
+        v[2] = (0x6C7967656E657261L ^ k0);
+        v[3] = (0x7465646279746573L ^ k1);
+
+        final int objectByteCount = object.getByteCount();
+        final int numBlocks = ( (objectByteCount / 8) * 8 );
+        for (int i = 0; i < numBlocks; i += 8) {
+            final long m = _readLittleEndianLong(object, i, 8);
+
+            v[3] ^= m;
+            for (int round = 0; round < 2; ++round) {
+                _sipRound(v);
+            }
+            v[0] ^= m;
+        }
+
+        final long lastBlock = ( (((long) objectByteCount) << 56) | _readLittleEndianLong(object, numBlocks, (objectByteCount - numBlocks)) );
+        v[3] ^= lastBlock;
+        for (int round = 0; round < 2; ++round) {
+            _sipRound(v);
+        }
+        v[0] ^= lastBlock;
+
+        v[2] ^= 0xFFL;
+        for (int round = 0; round < 4; ++round) {
+            _sipRound(v);
+        }
+
+        return (v[0] ^ v[1] ^ v[2] ^ v[3]);
+    }
+
+    public static long sipHash24(final ByteArray key, final ByteArray object) {
+        return SipHashUtil.sipHash24(SipHashUtil.readKey0(key), SipHashUtil.readKey1(key), object);
+    }
+}
@@ -1,6 +1,8 @@
 package com.softwareverde.bitcoin.context;
 
 import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.TransactionOutputId;
 import com.softwareverde.bitcoin.slp.SlpTokenId;
 import com.softwareverde.bitcoin.transaction.Transaction;
@@ -19,6 +21,14 @@ public interface AtomicTransactionOutputIndexerContext extends AutoCloseable {
     List<TransactionId> getUnprocessedTransactions(Integer batchSize) throws ContextException;
     void markTransactionProcessed(TransactionId transactionId) throws ContextException;
 
+    BlockView getBlockView(BlockId blockId) throws ContextException;
+    List<TransactionId> getBlockTransactionIds(BlockId blockId) throws ContextException;
+
+    /**
+     * Marks the block as the last indexed block; the mark is committed atomically with the queued outputs and inputs upon finish.
+     */
+    void markBlockProcessed(BlockId blockId) throws ContextException;
+
     void storeTransactions(List<Sha256Hash> transactionHashes, List<Integer> byteCounts) throws ContextException;
     TransactionId getTransactionId(Sha256Hash transactionHash) throws ContextException;
     TransactionId getTransactionId(SlpTokenId slpTokenId) throws ContextException;
@@ -1,8 +1,20 @@
 package com.softwareverde.bitcoin.context;
 
+import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.constable.list.List;
 
 public interface TransactionOutputIndexerContext {
     AtomicTransactionOutputIndexerContext newTransactionOutputIndexerContext() throws ContextException;
     void commitLastProcessedTransactionId(TransactionId transactionId) throws ContextException;
+
+    /**
+     * Returns up to maxBlockCount blocks of the head blockchain, in order, that have not yet been indexed.
+     */
+    List<BlockId> getUnindexedBlockIds(Integer maxBlockCount) throws ContextException;
+
+    /**
+     * Advances the materialized scriptHash balances by at most maxBlockCount blocks; returns the number of blocks applied or undone.
+     */
+    Integer updateScriptHashBalances(Integer maxBlockCount) throws ContextException;
 }
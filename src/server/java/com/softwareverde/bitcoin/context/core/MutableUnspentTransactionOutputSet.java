@@ -59,9 +59,9 @@ public class MutableUnspentTransactionOutputSet implements UnspentTransactionOut
         BlockId blockId = headBlockId;
         while (undoDepth < maxDepth) {
             final Block block = blockDatabaseManager.getBlock(blockId);
-            utxoUndoLog.undoBlock(block);
-
             final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+            utxoUndoLog.undoBlock(block, blockHeight);
+
             final List<Transaction> blockTransactions = block.getTransactions();
             for (final Transaction transaction : blockTransactions) {
                 final Sha256Hash transactionHash = transaction.getHash();
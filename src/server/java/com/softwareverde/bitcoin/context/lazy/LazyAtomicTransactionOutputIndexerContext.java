@@ -1,9 +1,13 @@
 package com.softwareverde.bitcoin.context.lazy;
 
 import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.context.AtomicTransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.context.ContextException;
 import com.softwareverde.bitcoin.context.IndexerCache;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.TransactionOutputId;
@@ -18,6 +22,7 @@ import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.util.TransactionUtil;
 import com.softwareverde.logging.Logger;
 import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.NanoTimer;
@@ -69,6 +74,7 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
     protected final QueuedInputs _queuedInputs = new QueuedInputs();
     protected final QueuedOutputs _queuedOutputs = new QueuedOutputs();
     protected TransactionId _greatestProcessedTransactionId = null;
+    protected BlockId _lastProcessedBlockId = null;
 
     protected Double _getUnprocessedTransactionsMs = 0D;
     protected Double _dequeueTransactionsForProcessingMs = 0D;
@@ -101,11 +107,11 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
 
     protected Transaction _getTransaction(final TransactionId transactionId) throws ContextException {
         try {
-            final TransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
 
             final NanoTimer nanoTimer = new NanoTimer();
             nanoTimer.start();
-            final Transaction transaction = transactionDatabaseManager.getTransaction(transactionId);
+            final Transaction transaction = transactionDatabaseManager.getTransactionView(transactionId); // The indexer only decodes the outputs and the inputs' outpoints.
             nanoTimer.stop();
             _getTransactionMs += nanoTimer.getMillisecondsElapsed();
             return transaction;
@@ -119,6 +125,7 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
         _queuedInputs.clear();
         _queuedOutputs.clear();
         _greatestProcessedTransactionId = null;
+        _lastProcessedBlockId = null;
 
         _getUnprocessedTransactionsMs = 0D;
         _dequeueTransactionsForProcessingMs = 0D;
@@ -139,8 +146,17 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
 
     @Override
     public TransactionId finish() throws ContextException {
+        DatabaseConnection transactionDatabaseConnection = null; // Set while the checkpointed database transaction is open.
         try {
+            final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
             final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = _databaseManager.getBlockchainIndexerDatabaseManager();
+
+            final boolean isCheckpointed = (_lastProcessedBlockId != null);
+            if (isCheckpointed) {
+                TransactionUtil.startTransaction(databaseConnection);
+                transactionDatabaseConnection = databaseConnection;
+            }
+
             {
                 final NanoTimer nanoTimer = new NanoTimer();
                 nanoTimer.start();
@@ -203,6 +219,12 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
                 _indexTransactionInputMs += nanoTimer.getMillisecondsElapsed();
             }
 
+            if (isCheckpointed) {
+                blockchainIndexerDatabaseManager.setLastIndexedBlockId(_lastProcessedBlockId);
+                TransactionUtil.commitTransaction(databaseConnection);
+                transactionDatabaseConnection = null;
+            }
+
             Logger.trace("_getUnprocessedTransactionsMs=" + _getUnprocessedTransactionsMs + "ms, _dequeueTransactionsForProcessingMs=" + _dequeueTransactionsForProcessingMs + "ms, _getTransactionIdMs=" + _getTransactionIdMs + "ms, _getTransactionMs=" + _getTransactionMs + "ms, _indexTransactionOutputMs=" + _indexTransactionOutputMs + "ms, _indexTransactionInputMs=" + _indexTransactionInputMs + "ms");
 
             return _greatestProcessedTransactionId;
@@ -211,6 +233,15 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
             throw new ContextException(databaseException);
         }
         finally {
+            if (transactionDatabaseConnection != null) { // Never leave the rows of a partially written batch within an open transaction...
+                try {
+                    TransactionUtil.rollbackTransaction(transactionDatabaseConnection);
+                }
+                catch (final DatabaseException databaseException) {
+                    Logger.debug(databaseException);
+                }
+            }
+
             _clear();
         }
     }
@@ -241,6 +272,41 @@ public class LazyAtomicTransactionOutputIndexerContext implements AtomicTransact
         }
     }
 
+    @Override
+    public BlockView getBlockView(final BlockId blockId) throws ContextException {
+        try {
+            final FullNodeBlockDatabaseManager blockDatabaseManager = _databaseManager.getBlockDatabaseManager();
+
+            final NanoTimer nanoTimer = new NanoTimer();
+            nanoTimer.start();
+            final BlockView blockView = blockDatabaseManager.getBlockView(blockId);
+            nanoTimer.stop();
+            _getTransactionMs += nanoTimer.getMillisecondsElapsed();
+            return blockView;
+        }
+        catch (final DatabaseException databaseException) {
+            throw new ContextException(databaseException);
+        }
+    }
+
+    @Override
+    public List<TransactionId> getBlockTransactionIds(final BlockId blockId) throws ContextException {
+        try {
+            final FullNodeBlockDatabaseManager blockDatabaseManager = _databaseManager.getBlockDatabaseManager();
+            return blockDatabaseManager.getTransactionIds(blockId);
+        }
+        catch (final DatabaseException databaseException) {
+            throw new ContextException(databaseException);
+        }
+    }
+
+    @Override
+    public void markBlockProcessed(final BlockId blockId) throws ContextException {
+        if (blockId == null) { return; }
+
+        _lastProcessedBlockId = blockId;
+    }
+
     @Override
     public void storeTransactions(final List<Sha256Hash> transactionHashes, final List<Integer> byteCounts) throws ContextException {
         final int transactionCount = transactionHashes.getCount();
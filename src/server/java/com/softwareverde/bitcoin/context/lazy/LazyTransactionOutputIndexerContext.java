@@ -1,5 +1,6 @@
 package com.softwareverde.bitcoin.context.lazy;
 
+import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.context.AtomicTransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.context.ContextException;
 import com.softwareverde.bitcoin.context.IndexerCache;
@@ -8,6 +9,7 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.constable.list.List;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.LogLevel;
 import com.softwareverde.logging.Logger;
@@ -59,4 +61,26 @@ public class LazyTransactionOutputIndexerContext implements TransactionOutputInd
             throw new ContextException(exception);
         }
     }
+
+    @Override
+    public List<BlockId> getUnindexedBlockIds(final Integer maxBlockCount) throws ContextException {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            return blockchainIndexerDatabaseManager.getUnindexedBlockIds(maxBlockCount);
+        }
+        catch (final Exception exception) {
+            throw new ContextException(exception);
+        }
+    }
+
+    @Override
+    public Integer updateScriptHashBalances(final Integer maxBlockCount) throws ContextException {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            return blockchainIndexerDatabaseManager.updateScriptHashBalances(maxBlockCount);
+        }
+        catch (final Exception exception) {
+            throw new ContextException(exception);
+        }
+    }
 }
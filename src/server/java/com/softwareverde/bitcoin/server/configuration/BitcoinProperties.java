@@ -33,10 +33,14 @@ public class BitcoinProperties {
     protected Long _maxUtxoCacheByteCount;
     protected Long _utxoCommitFrequency;
     protected Float _utxoPurgePercent;
+    protected Long _maxUtxoFlushRate;
+    protected Boolean _blockHeaderIndexIsEnabled;
     protected Boolean _bootstrapIsEnabled;
     protected Boolean _fastSyncIsEnabled;
     protected Long _fastSyncTimeoutInSeconds;
     protected Boolean _indexingModeIsEnabled;
+    protected Boolean _indexerKeyValueStoreIsEnabled;
+    protected Boolean _blockFilterIndexingIsEnabled;
     protected Integer _maxMessagesPerSecond;
     protected String _dataDirectory;
     protected Boolean _shouldRelayInvalidSlpTransactions;
@@ -113,8 +117,12 @@ public class BitcoinProperties {
     }
     public Long getUtxoCacheCommitFrequency() { return _utxoCommitFrequency; }
     public Float getUtxoCachePurgePercent() { return _utxoPurgePercent; }
+    public Long getMaxUtxoFlushRate() { return _maxUtxoFlushRate; }
+    public Boolean isBlockHeaderIndexEnabled() { return _blockHeaderIndexIsEnabled; }
 
     public Boolean isIndexingModeEnabled() { return _indexingModeIsEnabled; }
+    public Boolean isIndexerKeyValueStoreEnabled() { return _indexerKeyValueStoreIsEnabled; }
+    public Boolean isBlockFilterIndexingEnabled() { return _blockFilterIndexingIsEnabled; }
     public Integer getMaxMessagesPerSecond() { return _maxMessagesPerSecond; }
     public Boolean isBootstrapEnabled() { return (_isTestNet() ? false : _bootstrapIsEnabled); }
     public Boolean isFastSyncEnabled() { return (_pruningModeIsEnabled && _fastSyncIsEnabled); }
@@ -98,11 +98,15 @@ public class BitcoinPropertiesLoader {
         else if (bitcoinProperties._utxoPurgePercent > 1F) {
             bitcoinProperties._utxoPurgePercent = 1F;
         }
+        bitcoinProperties._maxUtxoFlushRate = Util.parseLong(properties.getProperty("bitcoin.maxUtxoFlushRate", "0"));
+        bitcoinProperties._blockHeaderIndexIsEnabled = Util.parseBool(properties.getProperty("bitcoin.enableBlockHeaderIndex", "1"));
 
         bitcoinProperties._bootstrapIsEnabled = Util.parseBool(properties.getProperty("bitcoin.enableBootstrap", "1"));
         bitcoinProperties._fastSyncIsEnabled = Util.parseBool(properties.getProperty("bitcoin.enableFastSync", "0"));
         bitcoinProperties._fastSyncTimeoutInSeconds = Util.parseLong(properties.getProperty("bitcoin.fastSyncTimeoutSeconds", "14400"));
         bitcoinProperties._indexingModeIsEnabled = Util.parseBool(properties.getProperty("bitcoin.indexBlocks", "1"));
+        bitcoinProperties._indexerKeyValueStoreIsEnabled = Util.parseBool(properties.getProperty("bitcoin.indexer.useKeyValueStore", "0"));
+        bitcoinProperties._blockFilterIndexingIsEnabled = Util.parseBool(properties.getProperty("bitcoin.indexBlockFilters", "0"));
         bitcoinProperties._maxMessagesPerSecond = Util.parseInt(properties.getProperty("bitcoin.maxMessagesPerSecondPerNode", "250"));
         bitcoinProperties._dataDirectory = properties.getProperty("bitcoin.dataDirectory", "data");
         bitcoinProperties._shouldRelayInvalidSlpTransactions = Util.parseBool(properties.getProperty("bitcoin.relayInvalidSlpTransactions", "1"));
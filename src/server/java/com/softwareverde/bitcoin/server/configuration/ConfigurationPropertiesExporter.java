@@ -42,10 +42,14 @@ public class ConfigurationPropertiesExporter {
     public static final String MAX_UTXO_CACHE_BYTE_COUNT = "bitcoin.maxUtxoCacheByteCount";
     public static final String UTXO_COMMIT_FREQUENCY = "bitcoin.utxoCommitFrequency";
     public static final String UTXO_PURGE_PERCENT = "bitcoin.utxoPurgePercent";
+    public static final String MAX_UTXO_FLUSH_RATE = "bitcoin.maxUtxoFlushRate";
+    public static final String BLOCK_HEADER_INDEX_IS_ENABLED = "bitcoin.enableBlockHeaderIndex";
     public static final String BOOTSTRAP_IS_ENABLED = "bitcoin.enableBootstrap";
     public static final String FAST_SYNC_IS_ENABLED = "bitcoin.enableFastSync";
     public static final String FAST_SYNC_TIMEOUT = "bitcoin.fastSyncTimeoutSeconds";
     public static final String INDEXING_MODE_IS_ENABLED = "bitcoin.indexBlocks";
+    public static final String INDEXER_KEY_VALUE_STORE_IS_ENABLED = "bitcoin.indexer.useKeyValueStore";
+    public static final String BLOCK_FILTER_INDEXING_IS_ENABLED = "bitcoin.indexBlockFilters";
     public static final String MAX_MESSAGES_PER_SECOND = "bitcoin.maxMessagesPerSecondPerNode";
     public static final String BITCOIN_PROPERTIES_DATA_DIRECTORY = "bitcoin.dataDirectory";
     public static final String SHOULD_RELAY_INVALID_SLP_TRANSACTIONS = "bitcoin.relayInvalidSlpTransactions";
@@ -162,10 +166,14 @@ public class ConfigurationPropertiesExporter {
             this.put(MAX_UTXO_CACHE_BYTE_COUNT, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._maxUtxoCacheByteCount));
             this.put(UTXO_COMMIT_FREQUENCY, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._utxoCommitFrequency));
             this.put(UTXO_PURGE_PERCENT, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._utxoPurgePercent));
+            this.put(MAX_UTXO_FLUSH_RATE, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._maxUtxoFlushRate));
+            this.put(BLOCK_HEADER_INDEX_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._blockHeaderIndexIsEnabled));
             this.put(BOOTSTRAP_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._bootstrapIsEnabled));
             this.put(FAST_SYNC_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._fastSyncIsEnabled));
             this.put(FAST_SYNC_TIMEOUT, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._fastSyncTimeoutInSeconds));
             this.put(INDEXING_MODE_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._indexingModeIsEnabled));
+            this.put(INDEXER_KEY_VALUE_STORE_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._indexerKeyValueStoreIsEnabled));
+            this.put(BLOCK_FILTER_INDEXING_IS_ENABLED, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._blockFilterIndexingIsEnabled));
             this.put(MAX_MESSAGES_PER_SECOND, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._maxMessagesPerSecond));
             this.put(BITCOIN_PROPERTIES_DATA_DIRECTORY, bitcoinProperties._dataDirectory);
             this.put(SHOULD_RELAY_INVALID_SLP_TRANSACTIONS, ConfigurationPropertiesExporter.coalesce(bitcoinProperties._shouldRelayInvalidSlpTransactions));
@@ -117,6 +117,15 @@ public class BitcoinVerdeDatabase implements Database {
                 upgradedVersion = 10;
             }
 
+            // v10 -> v11 (Indexed ScriptHash Balances)
+            if ( (upgradedVersion == 10) && (requiredVersion >= 11) ) {
+                Logger.info("[Upgrading DB to v11]");
+                final Boolean wasSuccessful = BitcoinVerdeDatabase.upgradeIndexedBalancesSupport(maintenanceDatabaseConnection);
+                if (! wasSuccessful) { return false; }
+
+                upgradedVersion = 11;
+            }
+
             return (upgradedVersion >= requiredVersion);
         }
     };
@@ -325,6 +334,24 @@ public class BitcoinVerdeDatabase implements Database {
         }
     }
 
+    protected static Boolean upgradeIndexedBalancesSupport(final com.softwareverde.database.DatabaseConnection<Connection> databaseConnection) {
+        try {
+            final String upgradeScript = IoUtil.getResource("/sql/node/mysql/upgrade/indexed_balances_v1.sql"); // TODO: Use mysql/sqlite when appropriate...
+            if (Util.isBlank(upgradeScript)) { return false; }
+
+            TransactionUtil.startTransaction(databaseConnection);
+            final SqlScriptRunner scriptRunner = new SqlScriptRunner(databaseConnection.getRawConnection(), false, true);
+            scriptRunner.runScript(new StringReader(upgradeScript));
+            TransactionUtil.commitTransaction(databaseConnection);
+
+            return true;
+        }
+        catch (final Exception exception) {
+            Logger.debug(exception);
+            return false;
+        }
+    }
+
     protected static Boolean upgradeStratumWorkerShares(final com.softwareverde.database.DatabaseConnection<Connection> databaseConnection) {
         try {
             final String upgradeScript = IoUtil.getResource("/sql/stratum/mysql/upgrade/worker_shares_v2.sql"); // TODO: Use mysql/sqlite when appropriate...
@@ -0,0 +1,252 @@
+package com.softwareverde.bitcoin.server.memory;
+
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.CommitAsyncMode;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputJvmManager;
+import com.softwareverde.concurrent.service.SleepyService;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically measures the heap retained after garbage collection and sizes the UTXO cache to fit within the heap that
+ *  remains once everything else (pending blocks, the mempool, peers, etc) has been accounted for.
+ *  The budget shrinks immediately when memory becomes scarce, but only grows gradually so that the cache does not
+ *  oscillate between sizes.  The budget never exceeds the configured UTXO cache size.
+ *  The budget is expressed in the same units as the configured cache size (i.e. UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO
+ *  per UTXO), so an idle heap governs the cache to exactly the configured UTXO count.
+ */
+public class MemoryGovernor extends SleepyService {
+    public static final Float DEFAULT_TARGET_HEAP_PERCENT = 0.75F;
+
+    protected static final Long SAMPLE_INTERVAL_MS = 5000L;
+    protected static final Float MAX_GROWTH_PERCENT = 0.10F; // The maximum growth of the budget per sample.
+    protected static final Float MIN_BUDGET_PERCENT = 0.10F; // The minimum budget, as a percentage of the configured UTXO cache size.
+
+    /**
+     * Returns the number of bytes the UTXO cache may retain so that the total retained heap does not exceed
+     *  targetHeapPercent of maxHeapByteCount, bounded by minByteBudget and maxByteBudget.
+     *  The heap retained by the UTXO cache itself is excluded from the heap used by everything else.
+     */
+    public static Long calculateUtxoCacheByteBudget(final Long maxHeapByteCount, final Long retainedHeapByteCount, final Long utxoCacheByteCount, final Float targetHeapPercent, final Long minByteBudget, final Long maxByteBudget) {
+        final long otherRetainedByteCount = Math.max(0L, (retainedHeapByteCount - utxoCacheByteCount));
+        final long targetHeapByteCount = (long) (maxHeapByteCount * targetHeapPercent.doubleValue());
+        final long availableByteCount = (targetHeapByteCount - otherRetainedByteCount);
+        return Math.max(minByteBudget, Math.min(maxByteBudget, availableByteCount));
+    }
+
+    /**
+     * Returns the budget to apply after currentByteBudget given the desired targetByteBudget.
+     *  Reductions are applied immediately; increases are limited to maxGrowthPercent of the current budget.
+     */
+    public static Long calculateNextUtxoCacheByteBudget(final Long currentByteBudget, final Long targetByteBudget, final Float maxGrowthPercent) {
+        if (targetByteBudget <= currentByteBudget) { return targetByteBudget; }
+
+        final long maxGrowthByteCount = Math.max(1L, (long) (currentByteBudget * maxGrowthPercent.doubleValue()));
+        return Math.min(targetByteBudget, (currentByteBudget + maxGrowthByteCount));
+    }
+
+    /**
+     * Returns the heap used after the most recent garbage collection of each heap memory pool, which approximates the
+     *  heap retained by live objects.  If the JVM does not report collection usage then the current heap usage is returned.
+     */
+    protected static Long measureRetainedHeapByteCount() {
+        long retainedByteCount = 0L;
+        boolean collectionUsageIsSupported = false;
+
+        final List<MemoryPoolMXBean> memoryPoolBeans = ManagementFactory.getMemoryPoolMXBeans();
+        for (final MemoryPoolMXBean memoryPoolBean : memoryPoolBeans) {
+            if (memoryPoolBean.getType() != MemoryType.HEAP) { continue; }
+
+            final MemoryUsage collectionUsage = memoryPoolBean.getCollectionUsage();
+            if (collectionUsage == null) { continue; }
+
+            retainedByteCount += collectionUsage.getUsed();
+            collectionUsageIsSupported = true;
+        }
+
+        if (! collectionUsageIsSupported) {
+            final Runtime runtime = Runtime.getRuntime();
+            return (runtime.totalMemory() - runtime.freeMemory());
+        }
+
+        return retainedByteCount;
+    }
+
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final Long _maxByteBudget;
+    protected final Long _minByteBudget;
+    protected final Float _purgePercent;
+    protected final Float _targetHeapPercent;
+
+    protected final AtomicLong _memoryPressureEventCount = new AtomicLong(0L);
+    protected final AtomicBoolean _memoryPressureCommitIsRunning = new AtomicBoolean(false);
+    protected volatile Long _utxoCacheByteBudget;
+    protected volatile Long _utxoCacheByteCount = 0L;
+    protected volatile Long _retainedHeapByteCount = 0L;
+
+    protected Long _getCachedUtxoCount() {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = databaseManager.getUnspentTransactionOutputDatabaseManager();
+            return Util.coalesce(unspentTransactionOutputDatabaseManager.getUncommittedUnspentTransactionOutputCount(true));
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+            return 0L;
+        }
+    }
+
+    /**
+     * Applies the byte budget to the UTXO cache by converting it to a UTXO count.
+     *  Half of the budget is reserved for the double-buffer used while committing, consistent with BitcoinProperties::getMaxCachedUtxoCount.
+     */
+    protected void _setUtxoCacheByteBudget(final Long utxoCacheByteBudget) {
+        final long maxUtxoCount = Math.max(1L, ((utxoCacheByteBudget / 2L) / UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO));
+
+        _utxoCacheByteBudget = utxoCacheByteBudget;
+        UnspentTransactionOutputDatabaseManager.setGovernedMaxUtxoCount(maxUtxoCount);
+    }
+
+    /**
+     * Samples the retained heap and adjusts the budget.
+     *  The UTXOs held by the commit's double-buffer and queued buffer are counted as part of the UTXO cache, since the budget
+     *  reserves half of itself for them; otherwise the budget would shrink (and then recover) during every commit.
+     */
+    protected void _updateUtxoCacheByteBudget() {
+        final Long cachedUtxoCount = _getCachedUtxoCount();
+        final Long bufferedUtxoCount = UnspentTransactionOutputJvmManager.getBufferedUtxoCount();
+        final long utxoCacheByteCount = ((cachedUtxoCount + bufferedUtxoCount) * UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO);
+        final Long retainedHeapByteCount = MemoryGovernor.measureRetainedHeapByteCount();
+
+        final Runtime runtime = Runtime.getRuntime();
+        final Long targetByteBudget = MemoryGovernor.calculateUtxoCacheByteBudget(runtime.maxMemory(), retainedHeapByteCount, utxoCacheByteCount, _targetHeapPercent, _minByteBudget, _maxByteBudget);
+        final Long nextByteBudget = MemoryGovernor.calculateNextUtxoCacheByteBudget(_utxoCacheByteBudget, targetByteBudget, MAX_GROWTH_PERCENT);
+
+        _utxoCacheByteCount = utxoCacheByteCount;
+        _retainedHeapByteCount = retainedHeapByteCount;
+
+        if (! Util.areEqual(_utxoCacheByteBudget, nextByteBudget)) {
+            Logger.debug("UTXO cache budget: " + _utxoCacheByteBudget + " -> " + nextByteBudget + " bytes. Retained heap: " + retainedHeapByteCount + " bytes, UTXO cache: " + utxoCacheByteCount + " bytes.");
+        }
+        _setUtxoCacheByteBudget(nextByteBudget);
+    }
+
+    @Override
+    protected void _onStart() { }
+
+    @Override
+    protected Boolean _run() {
+        _updateUtxoCacheByteBudget();
+
+        try {
+            Thread.sleep(SAMPLE_INTERVAL_MS);
+        }
+        catch (final InterruptedException exception) {
+            final Thread currentThread = Thread.currentThread();
+            currentThread.interrupt();
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    protected void _onSleep() { }
+
+    public MemoryGovernor(final FullNodeDatabaseManagerFactory databaseManagerFactory, final Long maxUtxoCacheByteCount, final Float purgePercent) {
+        this(databaseManagerFactory, maxUtxoCacheByteCount, purgePercent, DEFAULT_TARGET_HEAP_PERCENT);
+    }
+
+    public MemoryGovernor(final FullNodeDatabaseManagerFactory databaseManagerFactory, final Long maxUtxoCacheByteCount, final Float purgePercent, final Float targetHeapPercent) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _maxByteBudget = maxUtxoCacheByteCount;
+        _minByteBudget = (long) (maxUtxoCacheByteCount * MIN_BUDGET_PERCENT.doubleValue());
+        _purgePercent = purgePercent;
+        _targetHeapPercent = targetHeapPercent;
+
+        _utxoCacheByteBudget = maxUtxoCacheByteCount;
+    }
+
+    protected void _commitUnspentTransactionOutputs() {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = databaseManager.getUnspentTransactionOutputDatabaseManager();
+            unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_databaseManagerFactory, CommitAsyncMode.SKIP_IF_BUSY);
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    /**
+     * Immediately reduces the UTXO cache budget by the purge percent and purges the cache if it is not already being committed.
+     *  Intended to be invoked when the JVM reports that a memory threshold has been exceeded.
+     *  The purge is performed by a separate thread so that the caller (e.g. the JVM's notification thread) is not blocked;
+     *  events received while a purge is running only reduce the budget.
+     */
+    public void onMemoryPressure() {
+        _memoryPressureEventCount.incrementAndGet();
+
+        final Long reducedByteBudget = Math.max(_minByteBudget, (long) (_utxoCacheByteBudget * (1.0D - _purgePercent.doubleValue())));
+        Logger.info("Memory pressure detected; reducing UTXO cache budget to " + reducedByteBudget + " bytes.");
+        _setUtxoCacheByteBudget(reducedByteBudget);
+
+        if (! _memoryPressureCommitIsRunning.compareAndSet(false, true)) { return; }
+
+        final Thread commitThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    _commitUnspentTransactionOutputs();
+                }
+                finally {
+                    _memoryPressureCommitIsRunning.set(false);
+                }
+            }
+        });
+        commitThread.setName("UTXO Memory Pressure Commit");
+        commitThread.setDaemon(true);
+        commitThread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(final Thread thread, final Throwable exception) {
+                Logger.error("Uncaught exception in UTXO Memory Pressure Commit", exception);
+            }
+        });
+        commitThread.start();
+    }
+
+    public Long getUtxoCacheByteBudget() {
+        return _utxoCacheByteBudget;
+    }
+
+    /**
+     * Returns the estimated heap retained by the UTXO cache (including its commit buffers) as of the most recent sample.
+     */
+    public Long getUtxoCacheByteCount() {
+        return _utxoCacheByteCount;
+    }
+
+    /**
+     * Returns the heap retained after garbage collection as of the most recent sample.
+     */
+    public Long getRetainedHeapByteCount() {
+        return _retainedHeapByteCount;
+    }
+
+    public Long getMemoryPressureEventCount() {
+        return _memoryPressureEventCount.get();
+    }
+
+    public Long getEvictedUtxoCount() {
+        return UnspentTransactionOutputDatabaseManager.getEvictedUtxoCount();
+    }
+}
@@ -4,6 +4,7 @@ import com.softwareverde.bitcoin.address.Address;
 import com.softwareverde.bitcoin.address.AddressInflater;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.header.BlockHeaderDeflater;
 import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
@@ -104,7 +105,7 @@ public class ElectrumModule {
     protected final HashMap<AddressSubscriptionKey, LinkedList<ConnectionAddress>> _connectionAddresses = new HashMap<>();
     protected final ConcurrentHashMap<Long, ElectrumPeer> _peers = new ConcurrentHashMap<>();
     protected final ConcurrentHashSet<Ip> _bannedConnections = new ConcurrentHashSet<>();
-    protected final ConcurrentHashMap<Ip, WorkerThread> _workerThreads = new ConcurrentHashMap<>();
+    protected final ElectrumRequestScheduler _requestScheduler;
 
     protected final ReentrantReadWriteLock.WriteLock _blockHeaderCacheWriteLock;
     protected final ReentrantReadWriteLock.ReadLock _blockHeaderCacheReadLock;
@@ -243,18 +244,19 @@ public class ElectrumModule {
 
         // Invalidate cached transaction heights...
         try (final NodeJsonRpcConnection nodeConnection = _getNodeConnection()) {
-            final BlockInflater blockInflater = new BlockInflater();
             final Json blockJson = nodeConnection.getBlock(blockHash, true);
             final String blockHexString = blockJson.getString("block");
 
-            final Block block = blockInflater.fromBytes(ByteArray.fromHexString(blockHexString));
-            if (block == null) {
+            // NOTE: Only the Transaction hashes are required, so the Block is not inflated.
+            final BlockView blockView = BlockView.wrap(ByteArray.fromHexString(blockHexString));
+            if (blockView == null) {
                 _cachedTransactionBlockHeights.clear();
                 Logger.info("Unable to inflate new block; clearing cache.");
             }
             else {
-                for (final Transaction transaction : block.getTransactions()) {
-                    final Sha256Hash transactionHash = transaction.getHash();
+                final int transactionCount = blockView.getTransactionCount();
+                for (int i = 0; i < transactionCount; ++i) {
+                    final Sha256Hash transactionHash = blockView.getTransactionHash(i);
                     _cachedTransactionBlockHeights.remove(transactionHash);
                 }
             }
@@ -1840,36 +1842,16 @@ public class ElectrumModule {
         _debugWriteMessage(jsonSocket, json);
     }
 
-    protected final CachedThreadPool _requestBooster = new CachedThreadPool(10, 30000L);
     protected void _handleRequest(final Json json, final JsonSocket jsonSocket) {
-        final Integer idleThreadCount = _requestBooster.getIdleThreadCount();
-        if (idleThreadCount > 0) {
-            _requestBooster.execute(new Runnable() {
-                @Override
-                public void run() {
-                    if (! jsonSocket.isConnected()) { return; }
-
-                    final NanoTimer nanoTimer = new NanoTimer();
-                    nanoTimer.start();
-
-                    _handleMessage(json, jsonSocket);
-
-                    nanoTimer.stop();
-                    Logger.trace("Executed boosted request in: " + nanoTimer.getMillisecondsElapsed() + "ms.");
-                }
-            });
-        }
-        else {
-            if (! jsonSocket.isConnected()) { return; }
+        if (! jsonSocket.isConnected()) { return; }
 
-            final NanoTimer nanoTimer = new NanoTimer();
-            nanoTimer.start();
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
 
-            _handleMessage(json, jsonSocket);
+        _handleMessage(json, jsonSocket);
 
-            nanoTimer.stop();
-            Logger.trace("Executed request in: " + nanoTimer.getMillisecondsElapsed() + "ms.");
-        }
+        nanoTimer.stop();
+        Logger.trace("Executed request in: " + nanoTimer.getMillisecondsElapsed() + "ms.");
     }
 
     protected void _handleMessage(final Json jsonMessage, final JsonSocket jsonSocket) {
@@ -1984,34 +1966,7 @@ public class ElectrumModule {
         }
 
         _connections.put(socketId, jsonSocket);
-        final WorkerThread workerThread;
-        synchronized (_workerThreads) {
-            if (_workerThreads.containsKey(ip)) {
-                workerThread = _workerThreads.get(ip);
-            }
-            else {
-                workerThread = new WorkerThread(new WorkerThread.RequestHandler() {
-                    @Override
-                    public void handleRequest(final Json json, final JsonSocket jsonSocket) {
-                        _handleRequest(json, jsonSocket);
-                    }
-
-                    @Override
-                    public void handleError(final Json json, final JsonSocket jsonSocket) {
-                        final Object requestId = ElectrumModule.getRequestId(json);
-
-                        final Json errorJson = ElectrumModule.createErrorJson(requestId, "Internal error.", null);
-                        jsonSocket.write(new ElectrumJsonProtocolMessage(errorJson));
-
-                        _debugWriteMessage(jsonSocket, errorJson);
-                    }
-                });
-                workerThread.start();
-                _workerThreads.put(ip, workerThread);
-            }
-
-            workerThread.addSocket(jsonSocket);
-        }
+        _requestScheduler.addConnection(ip);
 
         jsonSocket.setMessageReceivedCallback(new Runnable() {
             @Override
@@ -2020,7 +1975,7 @@ public class ElectrumModule {
                 if (jsonProtocolMessage == null) { return; }
 
                 final Json jsonMessage = jsonProtocolMessage.getMessage();
-                workerThread.enqueue(jsonMessage, jsonSocket);
+                _requestScheduler.enqueue(ip, jsonMessage, jsonSocket);
             }
         });
 
@@ -2038,17 +1993,9 @@ public class ElectrumModule {
         final Long socketId = jsonSocket.getId();
         final Ip ip = jsonSocket.getIp();
         Logger.info("Electrum Socket Disconnected: " + jsonSocket);
-        _connections.remove(socketId);
-
-        synchronized (_workerThreads) {
-            final WorkerThread workerThread = _workerThreads.get(ip);
-            if (workerThread != null) {
-                workerThread.removeSocket(jsonSocket);
-                if (! workerThread.hasActiveSockets()) {
-                    _workerThreads.remove(ip);
-                    workerThread.interrupt();
-                }
-            }
+        final JsonSocket removedJsonSocket = _connections.remove(socketId);
+        if (removedJsonSocket != null) {
+            _requestScheduler.removeConnection(ip);
         }
     }
 
@@ -2062,6 +2009,50 @@ public class ElectrumModule {
             _blockHeaderCacheReadLock = readWriteLock.readLock();
         }
 
+        _requestScheduler = new ElectrumRequestScheduler(new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) {
+                _handleRequest(json, jsonSocket);
+            }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) {
+                final Object requestId = ElectrumModule.getRequestId(json);
+
+                final Json errorJson = ElectrumModule.createErrorJson(requestId, "Internal error.", null);
+                jsonSocket.write(new ElectrumJsonProtocolMessage(errorJson));
+
+                _debugWriteMessage(jsonSocket, errorJson);
+            }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) {
+                for (final JsonSocket jsonSocket : _connections.values()) {
+                    if (Util.areEqual(ip, jsonSocket.getIp())) {
+                        jsonSocket.close();
+                    }
+                }
+            }
+        });
+
+        { // Prevent the expensive methods from monopolizing the worker threads so inexpensive requests are always serviceable...
+            final int expensiveMethodConcurrencyLimit = Math.max(1, (ElectrumRequestScheduler.DEFAULT_WORKER_THREAD_COUNT / 2));
+            final String[] expensiveMethods = new String[] {
+                "blockchain.scripthash.subscribe",
+                "blockchain.address.subscribe",
+                "blockchain.scripthash.get_history",
+                "blockchain.address.get_history",
+                "blockchain.scripthash.listunspent",
+                "blockchain.address.listunspent",
+                "blockchain.scripthash.get_balance",
+                "blockchain.address.get_balance",
+                "blockchain.transaction.get_merkle"
+            };
+            for (final String method : expensiveMethods) {
+                _requestScheduler.setMethodConcurrencyLimit(method, expensiveMethodConcurrencyLimit);
+            }
+        }
+
         _minTransactionFeePerByte = 1L;
 
         final Integer port = _electrumProperties.getHttpPort();
@@ -2100,6 +2091,14 @@ public class ElectrumModule {
 
                     iterationsSinceAddressCleanup += 1;
 
+                    final ElectrumRequestScheduler.QueueMetrics queueMetrics = _requestScheduler.getAndResetMetrics();
+                    if (queueMetrics.droppedConnectionCount > 0L) {
+                        Logger.info("Electrum Request Queue: " + queueMetrics);
+                    }
+                    else {
+                        Logger.debug("Electrum Request Queue: " + queueMetrics);
+                    }
+
                     if (iterationsSinceAddressCleanup >= 20) {
                         synchronized (_connectionAddresses) {
                             final HashSet<AddressSubscriptionKey> connectionsToRemove = new HashSet<>();
@@ -2179,7 +2178,7 @@ public class ElectrumModule {
         }
 
         _threadPool.start();
-        _requestBooster.start();
+        _requestScheduler.start();
 
         _cacheBlockHeaders();
         _createNodeNotificationConnection();
@@ -2218,6 +2217,6 @@ public class ElectrumModule {
         }
 
         _threadPool.stop();
-        _requestBooster.stop();
+        _requestScheduler.stop();
     }
 }
@@ -0,0 +1,415 @@
+package com.softwareverde.bitcoin.server.module.electrum;
+
+import com.softwareverde.json.Json;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.network.ip.Ip;
+import com.softwareverde.network.socket.JsonSocket;
+import com.softwareverde.util.ByteUtil;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules Electrum requests across a fixed set of worker threads.
+ *  Each remote Ip has its own request queue, and queues with pending requests are served in round-robin order so that
+ *  a single client flooding the server cannot starve other clients.  Requests from the same Ip are executed one at a
+ *  time in the order they were received, so their responses are never reordered.
+ *  Expensive methods may also be limited globally via ::setMethodConcurrencyLimit, and a connection whose queue exceeds
+ *  its bounds is dropped via the RequestHandler::onQueueOverflow callback.
+ */
+public class ElectrumRequestScheduler {
+    public static final Integer DEFAULT_WORKER_THREAD_COUNT = 10;
+    public static final Integer MAX_IN_FLIGHT_REQUEST_COUNT_PER_CONNECTION = 1;
+    public static final Integer MAX_REQUEST_QUEUE_COUNT = 2500;
+    public static final Long MAX_QUEUE_BYTE_COUNT = (64L * ByteUtil.Unit.Binary.MEBIBYTES);
+
+    public interface RequestHandler {
+        void handleRequest(Json json, JsonSocket jsonSocket);
+        void handleError(Json json, JsonSocket jsonSocket);
+        void onQueueOverflow(Ip ip);
+    }
+
+    public static class QueueMetrics {
+        public final Long dispatchedRequestCount;
+        public final Long averageQueueWaitMs;
+        public final Long maxQueueWaitMs;
+        public final Long droppedConnectionCount;
+        public final Integer queuedRequestCount;
+
+        protected QueueMetrics(final Long dispatchedRequestCount, final Long averageQueueWaitMs, final Long maxQueueWaitMs, final Long droppedConnectionCount, final Integer queuedRequestCount) {
+            this.dispatchedRequestCount = dispatchedRequestCount;
+            this.averageQueueWaitMs = averageQueueWaitMs;
+            this.maxQueueWaitMs = maxQueueWaitMs;
+            this.droppedConnectionCount = droppedConnectionCount;
+            this.queuedRequestCount = queuedRequestCount;
+        }
+
+        @Override
+        public String toString() {
+            return "dispatchedRequestCount=" + this.dispatchedRequestCount + " averageQueueWaitMs=" + this.averageQueueWaitMs + " maxQueueWaitMs=" + this.maxQueueWaitMs + " droppedConnectionCount=" + this.droppedConnectionCount + " queuedRequestCount=" + this.queuedRequestCount;
+        }
+    }
+
+    protected static class ConnectionQueue {
+        public final Ip ip;
+        public final ArrayDeque<Request> requests = new ArrayDeque<Request>();
+        public long byteCount = 0L;
+        public int inFlightCount = 0;
+        public int socketCount = 0;
+        public boolean isReady = false;
+        public boolean isDead = false;
+
+        public ConnectionQueue(final Ip ip) {
+            this.ip = ip;
+        }
+    }
+
+    protected static class Request {
+        public final ConnectionQueue connectionQueue;
+        public final Json json;
+        public final JsonSocket jsonSocket;
+        public final String method;
+        public final Integer byteCount;
+        public final Long enqueueTimeNanos;
+
+        public Request(final ConnectionQueue connectionQueue, final Json json, final JsonSocket jsonSocket, final String method, final Integer byteCount, final Long enqueueTimeNanos) {
+            this.connectionQueue = connectionQueue;
+            this.json = json;
+            this.jsonSocket = jsonSocket;
+            this.method = method;
+            this.byteCount = byteCount;
+            this.enqueueTimeNanos = enqueueTimeNanos;
+        }
+    }
+
+    protected final RequestHandler _requestHandler;
+    protected final Integer _workerThreadCount;
+    protected final Object _mutex = new Object();
+    protected final HashMap<Ip, ConnectionQueue> _connectionQueues = new HashMap<>();
+    protected final ArrayDeque<ConnectionQueue> _readyConnectionQueues = new ArrayDeque<>();
+    protected final HashMap<String, Integer> _methodConcurrencyLimits = new HashMap<>();
+    protected final HashMap<String, Integer> _inFlightMethodCounts = new HashMap<>();
+    protected Thread[] _workerThreads = null;
+    protected boolean _isShuttingDown = false;
+    protected int _queuedRequestCount = 0;
+
+    protected final AtomicLong _dispatchedRequestCount = new AtomicLong(0L);
+    protected final AtomicLong _totalQueueWaitNanos = new AtomicLong(0L);
+    protected final AtomicLong _maxQueueWaitNanos = new AtomicLong(0L);
+    protected final AtomicLong _droppedConnectionCount = new AtomicLong(0L);
+
+    protected static String _getMethod(final Json json) {
+        final String method = json.getOrNull("method", Json.Types.STRING);
+        return (method != null ? method : "");
+    }
+
+    /**
+     * Returns true if a request of the provided method may be dispatched without exceeding the method's concurrency limit.
+     *  Must be invoked while synchronized on _mutex.
+     */
+    protected Boolean _isMethodAvailable(final String method) {
+        final Integer concurrencyLimit = _methodConcurrencyLimits.get(method);
+        if (concurrencyLimit == null) { return true; }
+
+        final Integer inFlightCount = _inFlightMethodCounts.get(method);
+        return ( (inFlightCount == null) || (inFlightCount < concurrencyLimit) );
+    }
+
+    /**
+     * Marks the ConnectionQueue as eligible for dispatch if it has pending requests and available capacity.
+     *  Must be invoked while synchronized on _mutex.
+     */
+    protected void _markReadyIfEligible(final ConnectionQueue connectionQueue) {
+        if (connectionQueue.isDead) { return; }
+        if (connectionQueue.isReady) { return; }
+        if (connectionQueue.requests.isEmpty()) { return; }
+        if (connectionQueue.inFlightCount >= MAX_IN_FLIGHT_REQUEST_COUNT_PER_CONNECTION) { return; }
+
+        connectionQueue.isReady = true;
+        _readyConnectionQueues.addLast(connectionQueue);
+        _mutex.notifyAll();
+    }
+
+    /**
+     * Removes all pending requests for the ConnectionQueue.
+     *  Must be invoked while synchronized on _mutex.
+     */
+    protected void _clearConnectionQueue(final ConnectionQueue connectionQueue) {
+        _queuedRequestCount -= connectionQueue.requests.size();
+        connectionQueue.requests.clear();
+        connectionQueue.byteCount = 0L;
+        connectionQueue.isDead = true;
+        if (connectionQueue.isReady) {
+            _readyConnectionQueues.remove(connectionQueue);
+            connectionQueue.isReady = false;
+        }
+    }
+
+    /**
+     * Blocks until a request is eligible for dispatch, or returns null if the scheduler is shutting down.
+     *  ConnectionQueues are visited in round-robin order; a connection whose head request is blocked by its method's
+     *  concurrency limit is skipped (without reordering its requests) until a request of that method completes.
+     */
+    protected Request _takeNextRequest() throws InterruptedException {
+        synchronized (_mutex) {
+            while (! _isShuttingDown) {
+                final int readyConnectionCount = _readyConnectionQueues.size();
+                for (int i = 0; i < readyConnectionCount; ++i) {
+                    final ConnectionQueue connectionQueue = _readyConnectionQueues.removeFirst();
+                    final Request request = connectionQueue.requests.peekFirst();
+                    if (request == null) {
+                        connectionQueue.isReady = false;
+                        continue;
+                    }
+
+                    if (! _isMethodAvailable(request.method)) {
+                        _readyConnectionQueues.addLast(connectionQueue);
+                        continue;
+                    }
+
+                    connectionQueue.requests.removeFirst();
+                    connectionQueue.byteCount -= request.byteCount;
+                    connectionQueue.inFlightCount += 1;
+                    _queuedRequestCount -= 1;
+
+                    final Integer inFlightMethodCount = _inFlightMethodCounts.get(request.method);
+                    _inFlightMethodCounts.put(request.method, (inFlightMethodCount != null ? (inFlightMethodCount + 1) : 1));
+
+                    final boolean hasCapacity = (connectionQueue.inFlightCount < MAX_IN_FLIGHT_REQUEST_COUNT_PER_CONNECTION);
+                    if ( hasCapacity && (! connectionQueue.requests.isEmpty()) ) {
+                        _readyConnectionQueues.addLast(connectionQueue);
+                    }
+                    else {
+                        connectionQueue.isReady = false;
+                    }
+
+                    return request;
+                }
+
+                _mutex.wait();
+            }
+        }
+
+        return null;
+    }
+
+    protected void _onRequestComplete(final Request request) {
+        synchronized (_mutex) {
+            final Integer inFlightMethodCount = _inFlightMethodCounts.get(request.method);
+            if ( (inFlightMethodCount == null) || (inFlightMethodCount <= 1) ) {
+                _inFlightMethodCounts.remove(request.method);
+            }
+            else {
+                _inFlightMethodCounts.put(request.method, (inFlightMethodCount - 1));
+            }
+
+            final ConnectionQueue connectionQueue = request.connectionQueue;
+            connectionQueue.inFlightCount -= 1;
+            _markReadyIfEligible(connectionQueue);
+
+            _mutex.notifyAll();
+        }
+    }
+
+    protected void _recordQueueWaitTime(final Long queueWaitNanos) {
+        _dispatchedRequestCount.incrementAndGet();
+        _totalQueueWaitNanos.addAndGet(queueWaitNanos);
+
+        while (true) {
+            final long maxQueueWaitNanos = _maxQueueWaitNanos.get();
+            if (queueWaitNanos <= maxQueueWaitNanos) { break; }
+            if (_maxQueueWaitNanos.compareAndSet(maxQueueWaitNanos, queueWaitNanos)) { break; }
+        }
+    }
+
+    protected void _runWorker() {
+        final Thread thread = Thread.currentThread();
+        while (! thread.isInterrupted()) {
+            final Request request;
+            try {
+                request = _takeNextRequest();
+                if (request == null) { break; }
+            }
+            catch (final InterruptedException exception) { break; }
+
+            final long queueWaitNanos = (System.nanoTime() - request.enqueueTimeNanos);
+            _recordQueueWaitTime(queueWaitNanos);
+
+            try {
+                _requestHandler.handleRequest(request.json, request.jsonSocket);
+            }
+            catch (final Exception exception) {
+                Logger.debug(exception);
+
+                _requestHandler.handleError(request.json, request.jsonSocket);
+            }
+            finally {
+                _onRequestComplete(request);
+            }
+        }
+    }
+
+    public ElectrumRequestScheduler(final RequestHandler requestHandler) {
+        this(ElectrumRequestScheduler.DEFAULT_WORKER_THREAD_COUNT, requestHandler);
+    }
+
+    public ElectrumRequestScheduler(final Integer workerThreadCount, final RequestHandler requestHandler) {
+        _workerThreadCount = workerThreadCount;
+        _requestHandler = requestHandler;
+    }
+
+    /**
+     * Limits the number of requests of the provided method that may execute concurrently across all connections.
+     *  A null concurrencyLimit removes the limit.
+     */
+    public void setMethodConcurrencyLimit(final String method, final Integer concurrencyLimit) {
+        synchronized (_mutex) {
+            if (concurrencyLimit == null) {
+                _methodConcurrencyLimits.remove(method);
+            }
+            else {
+                _methodConcurrencyLimits.put(method, Math.max(1, concurrencyLimit));
+            }
+            _mutex.notifyAll();
+        }
+    }
+
+    public void addConnection(final Ip ip) {
+        synchronized (_mutex) {
+            final ConnectionQueue existingConnectionQueue = _connectionQueues.get(ip);
+            final ConnectionQueue connectionQueue;
+            if ( (existingConnectionQueue == null) || existingConnectionQueue.isDead ) {
+                connectionQueue = new ConnectionQueue(ip);
+                if (existingConnectionQueue != null) { // The overflowed sockets are still closing; they remain counted so that their removal is balanced...
+                    connectionQueue.socketCount = existingConnectionQueue.socketCount;
+                }
+                _connectionQueues.put(ip, connectionQueue);
+            }
+            else {
+                connectionQueue = existingConnectionQueue;
+            }
+            connectionQueue.socketCount += 1;
+        }
+    }
+
+    public void removeConnection(final Ip ip) {
+        synchronized (_mutex) {
+            final ConnectionQueue connectionQueue = _connectionQueues.get(ip);
+            if (connectionQueue == null) { return; }
+
+            connectionQueue.socketCount -= 1;
+            if (connectionQueue.socketCount <= 0) {
+                _clearConnectionQueue(connectionQueue);
+                _connectionQueues.remove(ip);
+            }
+        }
+    }
+
+    /**
+     * Queues the request for execution.
+     *  If the connection exceeds MAX_REQUEST_QUEUE_COUNT or MAX_QUEUE_BYTE_COUNT, its pending requests are discarded and
+     *  RequestHandler::onQueueOverflow is invoked; the Ip will not be served again until a new connection is added.
+     */
+    public void enqueue(final Ip ip, final Json json, final JsonSocket jsonSocket) {
+        final String method = _getMethod(json);
+        final int byteCount = json.toString().length();
+
+        final boolean queueOverflowed;
+        synchronized (_mutex) {
+            final ConnectionQueue connectionQueue = _connectionQueues.get(ip);
+            if (connectionQueue == null) { return; }
+            if (connectionQueue.isDead) { return; }
+
+            connectionQueue.requests.addLast(new Request(connectionQueue, json, jsonSocket, method, byteCount, System.nanoTime()));
+            connectionQueue.byteCount += byteCount;
+            _queuedRequestCount += 1;
+
+            queueOverflowed = ( (connectionQueue.requests.size() > MAX_REQUEST_QUEUE_COUNT) || (connectionQueue.byteCount > MAX_QUEUE_BYTE_COUNT) );
+            if (queueOverflowed) {
+                _clearConnectionQueue(connectionQueue);
+            }
+            else {
+                _markReadyIfEligible(connectionQueue);
+            }
+        }
+
+        if (queueOverflowed) {
+            _droppedConnectionCount.incrementAndGet();
+            Logger.debug("Electrum request queue exceeded for " + ip + ".");
+            _requestHandler.onQueueOverflow(ip);
+        }
+    }
+
+    /**
+     * Returns the queue-wait metrics collected since the previous invocation.
+     */
+    public QueueMetrics getAndResetMetrics() {
+        final long dispatchedRequestCount = _dispatchedRequestCount.getAndSet(0L);
+        final long totalQueueWaitNanos = _totalQueueWaitNanos.getAndSet(0L);
+        final long maxQueueWaitNanos = _maxQueueWaitNanos.getAndSet(0L);
+        final long droppedConnectionCount = _droppedConnectionCount.getAndSet(0L);
+
+        final int queuedRequestCount;
+        synchronized (_mutex) {
+            queuedRequestCount = _queuedRequestCount;
+        }
+
+        final long averageQueueWaitNanos = (dispatchedRequestCount > 0L ? (totalQueueWaitNanos / dispatchedRequestCount) : 0L);
+        return new QueueMetrics(dispatchedRequestCount, (averageQueueWaitNanos / 1000000L), (maxQueueWaitNanos / 1000000L), droppedConnectionCount, queuedRequestCount);
+    }
+
+    public void start() {
+        synchronized (_mutex) {
+            if (_workerThreads != null) { return; }
+            _isShuttingDown = false;
+
+            _workerThreads = new Thread[_workerThreadCount];
+            for (int i = 0; i < _workerThreadCount; ++i) {
+                final Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        _runWorker();
+                    }
+                });
+                thread.setName("Electrum Request Worker Thread " + i);
+                thread.setDaemon(true);
+                _workerThreads[i] = thread;
+            }
+        }
+
+        for (final Thread thread : _workerThreads) {
+            thread.start();
+        }
+    }
+
+    public void stop() {
+        final Thread[] workerThreads;
+        synchronized (_mutex) {
+            workerThreads = _workerThreads;
+            _workerThreads = null;
+            _isShuttingDown = true;
+
+            for (final Map.Entry<Ip, ConnectionQueue> entry : _connectionQueues.entrySet()) {
+                _clearConnectionQueue(entry.getValue());
+            }
+            _connectionQueues.clear();
+
+            _mutex.notifyAll();
+        }
+
+        if (workerThreads == null) { return; }
+
+        for (final Thread thread : workerThreads) {
+            thread.interrupt();
+        }
+
+        for (final Thread thread : workerThreads) {
+            try {
+                thread.join(30000L);
+            }
+            catch (final InterruptedException exception) { break; }
+        }
+    }
+}
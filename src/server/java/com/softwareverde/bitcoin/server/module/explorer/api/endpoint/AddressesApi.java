@@ -4,6 +4,7 @@ import com.softwareverde.bitcoin.server.module.api.ApiResult;
 import com.softwareverde.bitcoin.server.module.explorer.api.Environment;
 import com.softwareverde.bitcoin.server.module.explorer.api.v1.get.GetAddressBalanceHandler;
 import com.softwareverde.bitcoin.server.module.explorer.api.v1.get.GetAddressTransactionsHandler;
+import com.softwareverde.bitcoin.server.module.explorer.api.v1.get.GetAddressesHandler;
 import com.softwareverde.http.HttpMethod;
 import com.softwareverde.json.Json;
 
@@ -44,9 +45,26 @@ public class AddressesApi extends ExplorerApiEndpoint {
         }
     }
 
+    public static class GetAddressesResult extends ApiResult {
+        private Json _addressesJson = new Json(true);
+
+        public void setAddressesJson(final Json addressesJson) {
+            _addressesJson = addressesJson;
+        }
+
+        @Override
+        public Json toJson() {
+            final Json json = super.toJson();
+            json.put("addresses", _addressesJson);
+            return json;
+        }
+    }
+
     public AddressesApi(final String apiPrePath, final Environment environment) {
         super(environment);
 
+        _defineEndpoint((apiPrePath + "/addresses"), HttpMethod.GET, new GetAddressesHandler());
+        _defineEndpoint((apiPrePath + "/addresses"), HttpMethod.POST, new GetAddressesHandler());
         _defineEndpoint((apiPrePath + "/addresses/<address>/balance"), HttpMethod.GET, new GetAddressBalanceHandler());
         _defineEndpoint((apiPrePath + "/addresses/<address>/transactions"), HttpMethod.GET, new GetAddressTransactionsHandler());
     }
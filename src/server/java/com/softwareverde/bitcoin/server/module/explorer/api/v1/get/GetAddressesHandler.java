@@ -0,0 +1,97 @@
+package com.softwareverde.bitcoin.server.module.explorer.api.v1.get;
+
+import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.address.AddressInflater;
+import com.softwareverde.bitcoin.rpc.NodeJsonRpcConnection;
+import com.softwareverde.bitcoin.server.module.api.ApiResult;
+import com.softwareverde.bitcoin.server.module.explorer.api.Environment;
+import com.softwareverde.bitcoin.server.module.explorer.api.endpoint.AddressesApi;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.http.querystring.GetParameters;
+import com.softwareverde.http.querystring.PostParameters;
+import com.softwareverde.http.server.servlet.request.Request;
+import com.softwareverde.http.server.servlet.response.JsonResponse;
+import com.softwareverde.http.server.servlet.response.Response;
+import com.softwareverde.http.server.servlet.routed.RequestHandler;
+import com.softwareverde.json.Json;
+import com.softwareverde.util.Util;
+
+import java.util.Map;
+
+public class GetAddressesHandler implements RequestHandler<Environment> {
+    public static final Integer MAX_ADDRESS_COUNT = 4096;
+
+    protected final AddressInflater _addressInflater = new AddressInflater();
+
+    /**
+     * GET ADDRESSES
+     * Requires GET:    addresses, [includeTransactions=0], [includeUnspentOutputs=0]
+     * Requires POST:
+     *  The addresses are comma-separated; they may instead be provided via POST when the list is too large for the url.
+     */
+    @Override
+    public Response handleRequest(final Request request, final Environment environment, final Map<String, String> urlParameters) throws Exception {
+        final GetParameters getParameters = request.getGetParameters();
+        final PostParameters postParameters = request.getPostParameters();
+
+        final String addressesString = Util.coalesce(getParameters.get("addresses"), postParameters.get("addresses"));
+        if (Util.isBlank(addressesString)) {
+            return new JsonResponse(Response.Codes.BAD_REQUEST, (new ApiResult(false, "Missing Parameter: addresses")));
+        }
+
+        final List<Address> addresses;
+        {
+            final String[] addressStrings = addressesString.split(",");
+            if (addressStrings.length > MAX_ADDRESS_COUNT) {
+                return new JsonResponse(Response.Codes.BAD_REQUEST, (new ApiResult(false, "Too many addresses; max: " + MAX_ADDRESS_COUNT)));
+            }
+
+            final ImmutableListBuilder<Address> listBuilder = new ImmutableListBuilder<>(addressStrings.length);
+            for (final String untrimmedAddressString : addressStrings) {
+                final String addressString = untrimmedAddressString.trim();
+                final Address base58Address = _addressInflater.fromBase58Check(addressString);
+                final Address base32Address = _addressInflater.fromBase32Check(addressString);
+                final Address address = Util.coalesce(base58Address, base32Address);
+                if (address == null) {
+                    return new JsonResponse(Response.Codes.BAD_REQUEST, (new ApiResult(false, "Invalid address parameter: " + addressString)));
+                }
+
+                listBuilder.add(address);
+            }
+            addresses = listBuilder.build();
+        }
+
+        final Boolean includeTransactions = Util.parseBool(Util.coalesce(getParameters.get("includeTransactions"), postParameters.get("includeTransactions")));
+        final Boolean includeUnspentOutputs = Util.parseBool(Util.coalesce(getParameters.get("includeUnspentOutputs"), postParameters.get("includeUnspentOutputs")));
+
+        try (final NodeJsonRpcConnection nodeJsonRpcConnection = environment.getNodeJsonRpcConnection()) {
+            if (nodeJsonRpcConnection == null) {
+                final AddressesApi.GetAddressesResult result = new AddressesApi.GetAddressesResult();
+                result.setWasSuccess(false);
+                result.setErrorMessage("Unable to connect to node.");
+                return new JsonResponse(Response.Codes.SERVER_ERROR, result);
+            }
+
+            final Json addressesJson;
+            {
+                final Json rpcResponseJson = nodeJsonRpcConnection.getAddresses(addresses, null, includeTransactions, includeUnspentOutputs);
+                if (rpcResponseJson == null) {
+                    return new JsonResponse(Response.Codes.SERVER_ERROR, new ApiResult(false, "Request timed out."));
+                }
+
+                if (! rpcResponseJson.getBoolean("wasSuccess")) {
+                    final String errorMessage = rpcResponseJson.getString("errorMessage");
+                    return new JsonResponse(Response.Codes.SERVER_ERROR, new ApiResult(false, errorMessage));
+                }
+
+                addressesJson = rpcResponseJson.get("addresses");
+            }
+
+            final AddressesApi.GetAddressesResult getAddressesResult = new AddressesApi.GetAddressesResult();
+            getAddressesResult.setWasSuccess(true);
+            getAddressesResult.setAddressesJson(addressesJson);
+            return new JsonResponse(Response.Codes.OK, getAddressesResult);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.softwareverde.bitcoin.server.module.node;
 import com.softwareverde.bitcoin.bip.UpgradeSchedule;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterBuilder;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.validator.BlockHeaderValidator;
 import com.softwareverde.bitcoin.block.validator.BlockValidationResult;
@@ -41,8 +43,12 @@ import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnod
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UndoLogDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
+import com.softwareverde.bitcoin.server.module.node.store.BlockFilterStore;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.validator.BlockOutputs;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidationResult;
 import com.softwareverde.bitcoin.transaction.validator.TransactionValidator;
@@ -54,6 +60,7 @@ import com.softwareverde.database.util.TransactionUtil;
 import com.softwareverde.logging.Logger;
 import com.softwareverde.network.time.VolatileNetworkTime;
 import com.softwareverde.util.RotatingQueue;
+import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.timer.MultiTimer;
 import com.softwareverde.util.timer.NanoTimer;
@@ -75,6 +82,8 @@ public class BlockProcessor {
     protected Long _utxoCommitFrequency = 2016L;
     protected Integer _maxThreadCount = 4;
     protected Long _trustedBlockHeight = 0L;
+    protected BlockFilterStore _blockFilterStore = null;
+    protected volatile Boolean _blockFilterStoreIsBehind = false;
 
     protected final Long _startTime;
     protected Float _averageTransactionsPerSecond = 0F;
@@ -103,6 +112,75 @@ public class BlockProcessor {
         _trustedBlockHeight = trustedBlockHeight;
     }
 
+    /**
+     * Sets the store used to index the BIP-158 filter of each Block connected to the head blockchain.
+     *  A null store disables filter indexing.
+     */
+    public void setBlockFilterStore(final BlockFilterStore blockFilterStore) {
+        _blockFilterStore = blockFilterStore;
+    }
+
+    /**
+     * Returns true if the Block's filter extends (or replaces) the tip of the BlockFilterStore and should be built.
+     *  Blocks beyond the tip of the store are skipped, since they are indexed by the BlockFilterIndexer once it catches up.
+     */
+    protected Boolean _shouldStoreBlockFilter(final Long blockHeight, final Block block) {
+        final BlockFilterStore blockFilterStore = _blockFilterStore;
+        if (blockFilterStore == null) { return false; }
+
+        final Long blockFilterCount = blockFilterStore.getBlockFilterCount();
+        if (blockHeight > blockFilterCount) {
+            if (! _blockFilterStoreIsBehind) {
+                Logger.info("BlockFilterStore is behind @ " + blockFilterCount + "; BlockFilters from " + blockHeight + " will be indexed by the BlockFilterIndexer.");
+                _blockFilterStoreIsBehind = true;
+            }
+            return false;
+        }
+        _blockFilterStoreIsBehind = false;
+
+        if (blockHeight > 0L) {
+            final Sha256Hash previousBlockHash = blockFilterStore.getBlockHash(blockHeight - 1L);
+            if (! Util.areEqual(previousBlockHash, block.getPreviousBlockHash())) {
+                Logger.warn("Unable to index BlockFilter for " + block.getHash() + " @ " + blockHeight + "; the previous filter is not its parent.");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Builds and stores the Block's filter; the caller must first ensure ::_shouldStoreBlockFilter is true for the Block.
+     *  The UnspentTransactionOutputContext must contain every output spent by the Block.
+     */
+    protected void _storeBlockFilter(final Long blockHeight, final Block block, final UnspentTransactionOutputContext unspentTransactionOutputContext) {
+        final BlockFilterStore blockFilterStore = _blockFilterStore;
+
+        final Sha256Hash blockHash = block.getHash();
+        final BlockFilterBuilder blockFilterBuilder = new BlockFilterBuilder();
+        blockFilterBuilder.addBlockOutputScripts(block);
+        for (final Transaction transaction : block.getTransactions()) {
+            if (Transaction.isCoinbaseTransaction(transaction)) { continue; }
+
+            for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+                final TransactionOutput transactionOutput = unspentTransactionOutputContext.getTransactionOutput(transactionOutputIdentifier);
+                if (transactionOutput == null) {
+                    Logger.warn("Unable to index BlockFilter for " + blockHash + "; missing output " + transactionOutputIdentifier + ".");
+                    return;
+                }
+
+                blockFilterBuilder.addSpentOutputScript(transactionOutput.getLockingScript());
+            }
+        }
+
+        final BlockFilter blockFilter = blockFilterBuilder.build(blockHash);
+        final Boolean blockFilterWasStored = blockFilterStore.storeBlockFilter(blockHeight, blockFilter);
+        if (! blockFilterWasStored) {
+            Logger.warn("Unable to store BlockFilter for " + blockHash + " @ " + blockHeight + ".");
+        }
+    }
+
     protected static class ProcessBlockHeaderResult {
         protected final BlockId _blockId;
         protected final Long _blockHeight;
@@ -191,6 +269,7 @@ public class BlockProcessor {
         final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
         final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
         final UnspentTransactionOutputManager unspentTransactionOutputManager = new UnspentTransactionOutputManager(databaseManager, _utxoCommitFrequency);
+        final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(databaseManager);
 
         BlockId nextBlockId;
         final MilliTimer timer = new MilliTimer();
@@ -243,6 +322,21 @@ public class BlockProcessor {
             final Block nextBlock = blockDatabaseManager.getBlock(nextBlockId);
             final List<TransactionId> transactionIds = blockDatabaseManager.getTransactionIds(nextBlockId);
 
+            final boolean shouldCreateUndoLog = (_undoLogIsEnabled && (! undoLogDatabaseManager.undoLogExists(nextBlockHeight, nextBlock.getHash())));
+            final boolean shouldStoreBlockFilter = _shouldStoreBlockFilter(nextBlockHeight, nextBlock);
+            if (shouldStoreBlockFilter || shouldCreateUndoLog) { // Index the Block's filter and record its undo log while the outputs it spends are still available...
+                final MutableUnspentTransactionOutputSet mutableUnspentTransactionOutputSet = new MutableUnspentTransactionOutputSet();
+                mutableUnspentTransactionOutputSet.loadOutputsForBlock(databaseManager, nextBlock, nextBlockHeight);
+
+                if (shouldStoreBlockFilter) {
+                    _storeBlockFilter(nextBlockHeight, nextBlock, mutableUnspentTransactionOutputSet);
+                }
+
+                if (shouldCreateUndoLog) {
+                    undoLogDatabaseManager.createUndoLog(nextBlockHeight, nextBlock, mutableUnspentTransactionOutputSet);
+                }
+            }
+
             { // Add UTXOs to the UTXO set, and remove spent UTXOs...
                 Logger.trace("Applying Block to UTXO Set: " + nextBlock.getHash() + " @ " + nextBlockHeight);
                 unspentTransactionOutputManager.applyBlockToUtxoSet(nextBlock, nextBlockHeight, databaseManagerFactory);
@@ -527,10 +621,7 @@ public class BlockProcessor {
             final boolean skipUndoLog = (currentBlockHeightLag > UndoLogDatabaseManager.MAX_REORG_DEPTH);
 
             if (! skipUndoLog) {
-                // NOTE: UndoLog generation creates records within the pruned_previous_transaction_outputs table within a DB transaction, which causes a DB lock
-                //  until the transaction is committed.  Applying a block to the UTXO can trigger a UTXO commit, which will require a scan of the same table,
-                //  causing a deadlock.  Therefore, while UndoLog creation is now a background task, that task will be blocked until this transaction is committed,
-                //  so it is best that the UndoLog is created after the UTXO update.
+                // NOTE: The UndoLog is written sequentially to its own file alongside the block data, so it does not contend with the database transaction.
                 final NanoTimer undoLogTimer = new NanoTimer();
                 undoLogTimer.start();
 
@@ -545,6 +636,10 @@ public class BlockProcessor {
 
         TransactionUtil.commitTransaction(databaseConnection);
 
+        if (blockIsConnectedToUtxoSet && _shouldStoreBlockFilter(blockHeight, block)) { // NOTE: Blocks connected via a reorg are indexed within ::_switchHeadBlock...
+            _storeBlockFilter(blockHeight, block, unspentTransactionOutputContext);
+        }
+
         final float averageTransactionsPerSecond;
         synchronized (_statisticsMutex) {
             _blocksPerSecond.add(Math.round(blockValidationTimer.getMillisecondsElapsed() + storeBlockTimer.getMillisecondsElapsed()));
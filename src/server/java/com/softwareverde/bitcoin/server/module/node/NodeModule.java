@@ -38,6 +38,7 @@ import com.softwareverde.bitcoin.server.database.DatabaseMaintainer;
 import com.softwareverde.bitcoin.server.main.BitcoinConstants;
 import com.softwareverde.bitcoin.server.main.NetworkType;
 import com.softwareverde.bitcoin.server.memory.LowMemoryMonitor;
+import com.softwareverde.bitcoin.server.memory.MemoryGovernor;
 import com.softwareverde.bitcoin.server.message.BitcoinBinaryPacketFormat;
 import com.softwareverde.bitcoin.server.message.BitcoinProtocolMessage;
 import com.softwareverde.bitcoin.server.message.type.node.address.BitcoinNodeIpAddress;
@@ -48,6 +49,7 @@ import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderIndex;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
@@ -61,6 +63,7 @@ import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnod
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
 import com.softwareverde.bitcoin.server.module.node.handler.BlockInventoryMessageHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.MemoryPoolEnquirerHandler;
+import com.softwareverde.bitcoin.server.module.node.handler.QueryBlockFiltersHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.QueryUtxoCommitmentsHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.RequestDataHandler;
 import com.softwareverde.bitcoin.server.module.node.handler.SpvUnconfirmedTransactionsHandler;
@@ -95,9 +98,11 @@ import com.softwareverde.bitcoin.server.module.node.rpc.handler.ServiceInquisito
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.ShutdownHandler;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.ThreadPoolInquisitor;
 import com.softwareverde.bitcoin.server.module.node.rpc.handler.UtxoCacheHandler;
+import com.softwareverde.bitcoin.server.module.node.store.BlockFilterStoreCore;
 import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStoreCore;
 import com.softwareverde.bitcoin.server.module.node.store.UtxoCommitmentStore;
 import com.softwareverde.bitcoin.server.module.node.store.UtxoCommitmentStoreCore;
+import com.softwareverde.bitcoin.server.module.node.store.kv.KeyValueStoreCore;
 import com.softwareverde.bitcoin.server.module.node.sync.BlockHeaderDownloader;
 import com.softwareverde.bitcoin.server.module.node.sync.BlockchainBuilder;
 import com.softwareverde.bitcoin.server.module.node.sync.BlockchainIndexer;
@@ -105,6 +110,7 @@ import com.softwareverde.bitcoin.server.module.node.sync.DisabledBlockchainIndex
 import com.softwareverde.bitcoin.server.module.node.sync.SlpTransactionProcessor;
 import com.softwareverde.bitcoin.server.module.node.sync.block.BlockDownloadPlannerCore;
 import com.softwareverde.bitcoin.server.module.node.sync.block.BlockDownloader;
+import com.softwareverde.bitcoin.server.module.node.sync.block.BlockFilterIndexer;
 import com.softwareverde.bitcoin.server.module.node.sync.block.BlockPruner;
 import com.softwareverde.bitcoin.server.module.node.sync.bootstrap.FullNodeHeadersBootstrapper;
 import com.softwareverde.bitcoin.server.module.node.sync.bootstrap.HeadersBootstrapper;
@@ -183,6 +189,10 @@ public class NodeModule {
     protected final RequestDataHandlerMonitor _transactionWhitelist;
     protected final BlockPruner _blockPruner;
     protected final UtxoCommitmentStore _utxoCommitmentStore;
+    protected final KeyValueStoreCore _indexerKeyValueStore;
+    protected final BlockHeaderIndex _blockHeaderIndex;
+    protected final BlockFilterStoreCore _blockFilterStore;
+    protected final BlockFilterIndexer _blockFilterIndexer;
     protected final UtxoCommitmentGenerator _utxoCommitmentGenerator;
     protected final UtxoCommitmentDownloader _utxoCommitmentDownloader;
     protected final List<SleepyService> _allServices;
@@ -201,6 +211,7 @@ public class NodeModule {
     protected final Thread _databaseMaintenanceThread;
 
     protected final LowMemoryMonitor _lowMemoryMonitor;
+    protected final MemoryGovernor _memoryGovernor;
 
     protected final AtomicBoolean _isShuttingDown = new AtomicBoolean(false);
 
@@ -283,6 +294,14 @@ public class NodeModule {
             _blockPruner.stop();
         }
 
+        if (_blockFilterIndexer != null) {
+            Logger.info("[Stopping BlockFilterIndexer]");
+            _blockFilterIndexer.stop();
+        }
+
+        Logger.info("[Stopping MemoryGovernor]");
+        _memoryGovernor.stop();
+
         try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
             final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = databaseManager.getUnspentTransactionOutputDatabaseManager();
             if (unspentTransactionOutputDatabaseManager instanceof UnspentTransactionOutputJvmManager) {
@@ -326,6 +345,21 @@ public class NodeModule {
             _jsonRpcSocketServer.stop();
         }
 
+        if (_indexerKeyValueStore != null) {
+            Logger.info("[Closing Indexer KeyValueStore]");
+            try {
+                _indexerKeyValueStore.close();
+            }
+            catch (final DatabaseException exception) {
+                Logger.warn(exception);
+            }
+        }
+
+        if (_blockFilterStore != null) {
+            Logger.info("[Closing BlockFilterStore]");
+            _blockFilterStore.close();
+        }
+
         Logger.info("[Shutting Down Database]");
         final DatabaseConnectionFactory databaseConnectionFactory = _environment.getDatabaseConnectionFactory();
         try {
@@ -414,6 +448,41 @@ public class NodeModule {
             }
         }
 
+        { // Initialize the indexer's KeyValueStore...
+            KeyValueStoreCore indexerKeyValueStore = null;
+            if (bitcoinProperties.isIndexingModeEnabled() && bitcoinProperties.isIndexerKeyValueStoreEnabled()) {
+                if (bitcoinProperties.isPruningModeEnabled()) {
+                    Logger.warn("The indexer KeyValueStore is not supported with pruning mode; indexing to the database instead.");
+                }
+                else {
+                    final String indexerDataDirectory = bitcoinProperties.getDataDirectory() + "/" + BitcoinProperties.DATA_DIRECTORY_NAME + "/indexer";
+                    indexerKeyValueStore = new KeyValueStoreCore(indexerDataDirectory);
+                    try {
+                        indexerKeyValueStore.open();
+                    }
+                    catch (final DatabaseException exception) {
+                        Logger.error("Unable to open the indexer KeyValueStore; indexing to the database instead.", exception);
+                        indexerKeyValueStore = null;
+                    }
+                }
+            }
+            _indexerKeyValueStore = indexerKeyValueStore;
+        }
+
+        _blockHeaderIndex = (bitcoinProperties.isBlockHeaderIndexEnabled() ? new BlockHeaderIndex() : null);
+
+        { // Initialize the BlockFilterStore...
+            BlockFilterStoreCore blockFilterStore = null;
+            if (bitcoinProperties.isBlockFilterIndexingEnabled()) {
+                blockFilterStore = new BlockFilterStoreCore(bitcoinProperties.getDataDirectory());
+                if (! blockFilterStore.open()) {
+                    Logger.error("Unable to open the BlockFilterStore; compact block filters are disabled.");
+                    blockFilterStore = null;
+                }
+            }
+            _blockFilterStore = blockFilterStore;
+        }
+
         { // Block Checkpoints
             final Boolean isTestNet = bitcoinProperties.isTestNet();
             if (isTestNet) {
@@ -451,8 +520,11 @@ public class NodeModule {
             _masterInflater,
             _checkpointConfiguration,
             _bitcoinProperties.getMaxCachedUtxoCount(),
-            _bitcoinProperties.getUtxoCachePurgePercent()
+            _bitcoinProperties.getUtxoCachePurgePercent(),
+            _indexerKeyValueStore,
+            _blockHeaderIndex
         );
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(_bitcoinProperties.getMaxUtxoFlushRate());
 
         _banFilter = (bitcoinProperties.isBanFilterEnabled() ? new BanFilterCore(databaseManagerFactory) : new DisabledBanFilter());
 
@@ -486,6 +558,13 @@ public class NodeModule {
         final boolean fastSyncIsEnabled = bitcoinProperties.isFastSyncEnabled();
         final Long fastSyncTimeout = _bitcoinProperties.getFastSyncTimeoutMs();
 
+        if (_blockFilterStore != null) {
+            _blockFilterIndexer = new BlockFilterIndexer(databaseManagerFactory, _blockFilterStore);
+        }
+        else {
+            _blockFilterIndexer = null;
+        }
+
         final LocalNodeFeatures localNodeFeatures = new LocalNodeFeatures() {
             @Override
             public NodeFeatures getNodeFeatures() {
@@ -508,6 +587,10 @@ public class NodeModule {
 
                 nodeFeatures.enableFeature(NodeFeatures.Feature.MINIMUM_OF_TWO_DAYS_BLOCKCHAIN_ENABLED);
 
+                if ( (_blockFilterIndexer != null) && _blockFilterIndexer.hasReachedHeadBlock() ) { // Only advertised once the filters can be served through the head Block...
+                    nodeFeatures.enableFeature(NodeFeatures.Feature.COMPACT_FILTERS_ENABLED);
+                }
+
                 return nodeFeatures;
             }
         };
@@ -574,6 +657,9 @@ public class NodeModule {
             nodeInitializerContext.requestSpvBlocksHandler = new RequestSpvBlocksHandler(databaseManagerFactory, spvUnconfirmedTransactionsHandler);
             nodeInitializerContext.requestSlpTransactionsHandler = new RequestSlpTransactionsHandler(databaseManagerFactory);
             nodeInitializerContext.queryUtxoCommitmentsHandler = new QueryUtxoCommitmentsHandler(databaseManagerFactory);
+            if (_blockFilterStore != null) {
+                nodeInitializerContext.queryBlockFiltersHandler = new QueryBlockFiltersHandler(databaseManagerFactory, _blockFilterStore);
+            }
             nodeInitializerContext.requestUnconfirmedTransactionsHandler = new QueryUnconfirmedTransactionsHandler(databaseManagerFactory);
 
             nodeInitializerContext.requestPeersHandler = new BitcoinNode.RequestPeersHandler() {
@@ -721,8 +807,11 @@ public class NodeModule {
             blockProcessor.setMaxThreadCount(maxThreadCount);
             blockProcessor.setTrustedBlockHeight(trustedBlockHeight);
             blockProcessor.enableUndoLog(pruningModeIsEnabled);
+            blockProcessor.setBlockFilterStore(_blockFilterStore);
         }
 
+        _memoryGovernor = new MemoryGovernor(databaseManagerFactory, _bitcoinProperties.getMaxUtxoCacheByteCount(), _bitcoinProperties.getUtxoCachePurgePercent());
+
         if (pruningModeIsEnabled) {
             _blockPruner = new BlockPruner(databaseManagerFactory, _blockStore, indexModeIsEnabled, new BlockPruner.RequiredBlockChecker() {
                 @Override
@@ -807,7 +896,7 @@ public class NodeModule {
             final Integer threadCount = bitcoinProperties.getMaxThreadCount();
             final IndexerCache indexerCache = new IndexerCache(64);
             final TransactionOutputIndexerContext transactionOutputIndexerContext = new LazyTransactionOutputIndexerContext(databaseManagerFactory, indexerCache);
-            _blockchainIndexer = new BlockchainIndexer(transactionOutputIndexerContext, threadCount);
+            _blockchainIndexer = new BlockchainIndexer(transactionOutputIndexerContext, _generalThreadPool, threadCount);
             _blockchainIndexer.setOnSleepCallback(new Runnable() {
                 @Override
                 public void run() {
@@ -928,6 +1017,10 @@ public class NodeModule {
                         _blockPruner.wakeUp();
                     }
 
+                    if (_blockFilterIndexer != null) {
+                        _blockFilterIndexer.wakeUp();
+                    }
+
                     _utxoCommitmentGenerator.wakeUp();
                 }
             });
@@ -1068,6 +1161,10 @@ public class NodeModule {
             if (_blockPruner != null) {
                 listBuilder.add(_blockPruner);
             }
+            if (_blockFilterIndexer != null) {
+                listBuilder.add(_blockFilterIndexer);
+            }
+            listBuilder.add(_memoryGovernor);
             _allServices = listBuilder.build();
         }
 
@@ -1076,7 +1173,7 @@ public class NodeModule {
             final NodeRpcHandler rpcSocketServerHandler = new NodeRpcHandler(_rpcThreadPool, _masterInflater);
             {
                 final ShutdownHandler shutdownHandler = new ShutdownHandler(mainThread, synchronizationStatusHandler);
-                final UtxoCacheHandler utxoCacheHandler = new UtxoCacheHandler(databaseManagerFactory);
+                final UtxoCacheHandler utxoCacheHandler = new UtxoCacheHandler(databaseManagerFactory, _memoryGovernor);
                 final NodeHandler nodeHandler = new NodeHandler(_bitcoinNodeManager, _bitcoinNodeFactory);
                 final QueryAddressHandler queryAddressHandler = new QueryAddressHandler(databaseManagerFactory);
                 final ThreadPoolInquisitor threadPoolInquisitor = new ThreadPoolInquisitor(_generalThreadPool); // TODO: Should combine _generalThreadPool and _networkThreadPool, and/or refactor completely.
@@ -1190,6 +1287,8 @@ public class NodeModule {
             @Override
             public void run() {
                 Logger.warn("90% of memory usage reached.");
+                _memoryGovernor.onMemoryPressure();
+
                 final List<BitcoinNode> bitcoinNodes = _bitcoinNodeManager.getNodes();
                 final int bitcoinNodeCount = bitcoinNodes.getCount();
                 for (int i = 0; i < bitcoinNodeCount; ++i) {
@@ -1230,7 +1329,9 @@ public class NodeModule {
             _masterInflater,
             _checkpointConfiguration,
             _bitcoinProperties.getMaxCachedUtxoCount(),
-            _bitcoinProperties.getUtxoCachePurgePercent()
+            _bitcoinProperties.getUtxoCachePurgePercent(),
+            _indexerKeyValueStore,
+            _blockHeaderIndex
         );
 
         if (bootstrapIsEnabled) {
@@ -1410,6 +1511,14 @@ public class NodeModule {
             _blockPruner.start();
         }
 
+        if (_blockFilterIndexer != null) {
+            Logger.info("[Starting BlockFilterIndexer]");
+            _blockFilterIndexer.start();
+        }
+
+        Logger.info("[Starting MemoryGovernor]");
+        _memoryGovernor.start();
+
         _uptimeTimer.start();
         _databaseMaintenanceThread.start();
 
@@ -1,7 +1,9 @@
 package com.softwareverde.bitcoin.server.module.node.database.block.fullnode;
 
 import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockDeflater;
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.block.MutableBlock;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.header.BlockHeaderInflater;
@@ -21,6 +23,7 @@ import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
@@ -194,6 +197,37 @@ public class FullNodeBlockDatabaseManager implements BlockDatabaseManager {
         return _getBlock(blockId);
     }
 
+    /**
+     * Returns a lazily-decoded view of the stored Block, which avoids inflating every Transaction when only a few fields
+     *  or Transactions are required.
+     */
+    public BlockView getBlockView(final BlockId blockId) throws DatabaseException {
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+
+        if (! _hasTransactions(blockId)) { return null; }
+
+        final Sha256Hash blockHash = blockHeaderDatabaseManager.getBlockHash(blockId);
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+
+        final Integer byteCount = blockHeaderDatabaseManager.getBlockByteCount(blockId);
+        if (byteCount == null) { // The byte count is recorded once the Block is processed; otherwise fall back to the full Block.
+            final MutableBlock block = _blockStore.getBlock(blockHash, blockHeight);
+            if (block == null) { return null; }
+
+            final BlockDeflater blockDeflater = new BlockDeflater();
+            return BlockView.wrap(blockDeflater.toBytes(block));
+        }
+
+        final ByteArray blockBytes = _blockStore.readFromBlock(blockHash, blockHeight, 0L, byteCount);
+        if (blockBytes == null) { return null; }
+
+        final BlockView blockView = BlockView.wrap(blockBytes);
+        if (blockView == null) {
+            throw new DatabaseException("Malformed Block: " + blockHash);
+        }
+        return blockView;
+    }
+
     /**
      * Inserts the Block (and BlockHeader if it does not exist) (including its transactions) into the database.
      *  If the BlockHeader has already been stored, this will update the existing BlockHeader.
@@ -8,11 +8,13 @@ import com.softwareverde.bitcoin.server.database.DatabaseConnection;
 import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderIndex;
 import com.softwareverde.bitcoin.server.module.node.database.block.header.fullnode.BlockHeaderDatabaseManagerCore;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManagerCore;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManagerCore;
+import com.softwareverde.bitcoin.server.module.node.database.indexer.KeyValueBlockchainIndexerDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.node.fullnode.FullNodeBitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.node.fullnode.FullNodeBitcoinNodeDatabaseManagerCore;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
@@ -26,7 +28,10 @@ import com.softwareverde.bitcoin.server.module.node.database.transaction.slp.Slp
 import com.softwareverde.bitcoin.server.module.node.database.transaction.slp.SlpTransactionDatabaseManagerCore;
 import com.softwareverde.bitcoin.server.module.node.database.utxo.UtxoCommitmentDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStore;
+import com.softwareverde.bitcoin.server.module.node.store.UndoLogStore;
+import com.softwareverde.bitcoin.server.module.node.store.UndoLogStoreCore;
 import com.softwareverde.bitcoin.server.module.node.store.UtxoCommitmentStore;
+import com.softwareverde.bitcoin.server.module.node.store.kv.KeyValueStore;
 import com.softwareverde.bitcoin.server.module.node.utxo.UtxoCommitmentManagerCore;
 import com.softwareverde.bitcoin.server.properties.PropertiesStore;
 import com.softwareverde.database.DatabaseException;
@@ -41,6 +46,8 @@ public class FullNodeDatabaseManager implements DatabaseManager {
     protected final Float _utxoPurgePercent;
     protected final CheckpointConfiguration _checkpointConfiguration;
     protected final UtxoCommitmentStore _utxoCommitmentStore;
+    protected final KeyValueStore _indexerKeyValueStore;
+    protected final BlockHeaderIndex _blockHeaderIndex;
 
     protected FullNodeBitcoinNodeDatabaseManager _nodeDatabaseManager;
     protected BlockchainDatabaseManagerCore _blockchainDatabaseManager;
@@ -55,12 +62,28 @@ public class FullNodeDatabaseManager implements DatabaseManager {
     protected UnspentTransactionOutputDatabaseManager _unspentTransactionOutputDatabaseManager;
     protected UtxoCommitmentDatabaseManager _utxoCommitmentDatabaseManager;
     protected UtxoCommitmentManager _utxoCommitmentManager;
+    protected UndoLogStore _undoLogStore;
 
     public FullNodeDatabaseManager(final DatabaseConnection databaseConnection, final Integer maxQueryBatchSize, final PropertiesStore propertiesStore, final PendingBlockStore blockStore, final UtxoCommitmentStore utxoCommitmentStore, final MasterInflater masterInflater, final CheckpointConfiguration checkpointConfiguration) {
         this(databaseConnection, maxQueryBatchSize, propertiesStore, blockStore, utxoCommitmentStore, masterInflater, checkpointConfiguration, UnspentTransactionOutputDatabaseManager.DEFAULT_MAX_UTXO_CACHE_COUNT, UnspentTransactionOutputDatabaseManager.DEFAULT_PURGE_PERCENT);
     }
 
     public FullNodeDatabaseManager(final DatabaseConnection databaseConnection, final Integer maxQueryBatchSize, final PropertiesStore propertiesStore, final PendingBlockStore blockStore, final UtxoCommitmentStore utxoCommitmentStore, final MasterInflater masterInflater, final CheckpointConfiguration checkpointConfiguration, final Long maxUtxoCount, final Float utxoPurgePercent) {
+        this(databaseConnection, maxQueryBatchSize, propertiesStore, blockStore, utxoCommitmentStore, masterInflater, checkpointConfiguration, maxUtxoCount, utxoPurgePercent, null);
+    }
+
+    /**
+     * When indexerKeyValueStore is provided, indexed outputs and inputs are stored within it instead of the database.
+     */
+    public FullNodeDatabaseManager(final DatabaseConnection databaseConnection, final Integer maxQueryBatchSize, final PropertiesStore propertiesStore, final PendingBlockStore blockStore, final UtxoCommitmentStore utxoCommitmentStore, final MasterInflater masterInflater, final CheckpointConfiguration checkpointConfiguration, final Long maxUtxoCount, final Float utxoPurgePercent, final KeyValueStore indexerKeyValueStore) {
+        this(databaseConnection, maxQueryBatchSize, propertiesStore, blockStore, utxoCommitmentStore, masterInflater, checkpointConfiguration, maxUtxoCount, utxoPurgePercent, indexerKeyValueStore, null);
+    }
+
+    /**
+     * When blockHeaderIndex is provided, block lookups are served from it before the database; the index must be shared
+     *  by every DatabaseManager of the database.
+     */
+    public FullNodeDatabaseManager(final DatabaseConnection databaseConnection, final Integer maxQueryBatchSize, final PropertiesStore propertiesStore, final PendingBlockStore blockStore, final UtxoCommitmentStore utxoCommitmentStore, final MasterInflater masterInflater, final CheckpointConfiguration checkpointConfiguration, final Long maxUtxoCount, final Float utxoPurgePercent, final KeyValueStore indexerKeyValueStore, final BlockHeaderIndex blockHeaderIndex) {
         _databaseConnection = databaseConnection;
         _propertiesStore = propertiesStore;
         _maxQueryBatchSize = maxQueryBatchSize;
@@ -70,6 +93,8 @@ public class FullNodeDatabaseManager implements DatabaseManager {
         _utxoPurgePercent = utxoPurgePercent;
         _checkpointConfiguration = checkpointConfiguration;
         _utxoCommitmentStore = utxoCommitmentStore;
+        _indexerKeyValueStore = indexerKeyValueStore;
+        _blockHeaderIndex = blockHeaderIndex;
     }
 
     @Override
@@ -107,7 +132,7 @@ public class FullNodeDatabaseManager implements DatabaseManager {
     @Override
     public BlockHeaderDatabaseManager getBlockHeaderDatabaseManager() {
         if (_blockHeaderDatabaseManager == null) {
-            _blockHeaderDatabaseManager = new BlockHeaderDatabaseManagerCore(this, _checkpointConfiguration);
+            _blockHeaderDatabaseManager = new BlockHeaderDatabaseManagerCore(this, _checkpointConfiguration, _blockHeaderIndex);
         }
 
         return _blockHeaderDatabaseManager;
@@ -132,10 +157,27 @@ public class FullNodeDatabaseManager implements DatabaseManager {
         return _propertiesStore;
     }
 
+    /**
+     * Returns the store of per-block undo logs, which are kept alongside the block data.
+     */
+    public UndoLogStore getUndoLogStore() {
+        if (_undoLogStore == null) {
+            final String dataDirectory = (_blockStore != null ? _blockStore.getDataDirectory() : null);
+            _undoLogStore = new UndoLogStoreCore(dataDirectory);
+        }
+
+        return _undoLogStore;
+    }
+
     public BlockchainIndexerDatabaseManager getBlockchainIndexerDatabaseManager() {
         if (_blockchainIndexerDatabaseManager == null) {
             final AddressInflater addressInflater = _masterInflater.getAddressInflater();
-            _blockchainIndexerDatabaseManager = new BlockchainIndexerDatabaseManagerCore(addressInflater, this);
+            if (_indexerKeyValueStore != null) {
+                _blockchainIndexerDatabaseManager = new KeyValueBlockchainIndexerDatabaseManager(addressInflater, this, _indexerKeyValueStore);
+            }
+            else {
+                _blockchainIndexerDatabaseManager = new BlockchainIndexerDatabaseManagerCore(addressInflater, this);
+            }
         }
 
         return _blockchainIndexerDatabaseManager;
@@ -199,6 +241,10 @@ public class FullNodeDatabaseManager implements DatabaseManager {
 
     @Override
     public void close() throws DatabaseException {
+        if (_blockHeaderDatabaseManager != null) {
+            _blockHeaderDatabaseManager.flushBlockHeaderIndex();
+        }
+
         _databaseConnection.close();
     }
 }
@@ -1,6 +1,7 @@
 package com.softwareverde.bitcoin.server.module.node.database.indexer;
 
 import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.slp.SlpTokenId;
 import com.softwareverde.bitcoin.transaction.TransactionId;
@@ -17,15 +18,52 @@ public interface BlockchainIndexerDatabaseManager {
     List<TransactionId> getTransactionIds(BlockchainSegmentId blockchainSegmentId, Sha256Hash scriptHash, Boolean includeUnconfirmedTransactions) throws DatabaseException;
     Long getAddressBalance(BlockchainSegmentId blockchainSegmentId, Address address, Boolean includeUnconfirmedTransactions) throws DatabaseException;
     Long getAddressBalance(BlockchainSegmentId blockchainSegmentId, Sha256Hash scriptHash, Boolean includeUnconfirmedTransactions) throws DatabaseException;
+
+    /**
+     * The following methods resolve many scriptHashes at once using a constant number of IN-clause queries per batch.
+     *  Every provided scriptHash is present within the returned Map, even if it has no history.
+     */
+    Map<Sha256Hash, List<TransactionId>> getTransactionIds(BlockchainSegmentId blockchainSegmentId, List<Sha256Hash> scriptHashes, Boolean includeUnconfirmedTransactions) throws DatabaseException;
+    Map<Sha256Hash, Long> getAddressBalances(BlockchainSegmentId blockchainSegmentId, List<Sha256Hash> scriptHashes, Boolean includeUnconfirmedTransactions) throws DatabaseException;
+    Map<Sha256Hash, List<IndexedTransactionOutput>> getUnspentTransactionOutputs(BlockchainSegmentId blockchainSegmentId, List<Sha256Hash> scriptHashes, Boolean includeUnconfirmedTransactions) throws DatabaseException;
+
+    /**
+     * Returns the confirmed and unconfirmed balance of each scriptHash, and optionally its history and unspent outputs, from a single pass over the index.
+     */
+    Map<Sha256Hash, ScriptHashSummary> getScriptHashSummaries(BlockchainSegmentId blockchainSegmentId, List<Sha256Hash> scriptHashes, Boolean includeTransactionHashes, Boolean includeUnspentTransactionOutputs) throws DatabaseException;
+
+    /**
+     * The balance and unspent outputs of every scriptHash are materialized for the head blockchain, one block at a time, once the block's
+     *  Transactions have been indexed.  Blocks that are no longer a part of the head blockchain are undone before new blocks are applied.
+     *  While the materialized head matches the head block, the above balance and unspent output queries are served from it.
+     *  Returns the number of blocks applied or undone, which is at most maxBlockCount.
+     */
+    Integer updateScriptHashBalances(Integer maxBlockCount) throws DatabaseException;
+    BlockId getScriptHashBalancesHeadBlockId() throws DatabaseException;
+
     Map<Integer, TransactionId> getTransactionsSpendingOutputsOf(TransactionId transactionId) throws DatabaseException;
 
     SlpTokenId getSlpTokenId(TransactionId transactionId) throws DatabaseException;
     List<TransactionId> getSlpTransactionIds(SlpTokenId slpTokenId) throws DatabaseException;
 
     void queueTransactionsForProcessing(List<TransactionId> transactionIds) throws DatabaseException;
+
+    /**
+     * Returns the unconfirmed Transactions that have not been indexed.
+     *  Confirmed Transactions are indexed in block order via getUnindexedBlockIds.
+     */
     List<TransactionId> getUnprocessedTransactions(Integer batchSize) throws DatabaseException;
     void markTransactionProcessed(TransactionId transactionId) throws DatabaseException;
 
+    /**
+     * Returns up to maxBlockCount blocks of the head blockchain, in order, that follow the last indexed block.
+     *  The last indexed block is set within the same database transaction as the block's indexed outputs and inputs.
+     *  Header-only blocks are included so that they are checkpointed; without a checkpoint, the genesis block is the first block returned.
+     */
+    List<BlockId> getUnindexedBlockIds(Integer maxBlockCount) throws DatabaseException;
+    BlockId getLastIndexedBlockId() throws DatabaseException;
+    void setLastIndexedBlockId(BlockId blockId) throws DatabaseException;
+
     void indexTransactionOutputs(List<TransactionId> transactionIds, List<Integer> outputIndexes, List<Long> amounts, List<ScriptType> scriptTypes, List<Address> addresses, List<Sha256Hash> scriptHashes, List<TransactionId> slpTransactionIds, List<ByteArray> memoActionTypes, List<ByteArray> memoActionIdentifiers) throws DatabaseException;
     void indexTransactionInputs(List<TransactionId> transactionIds, List<Integer> inputIndexes, List<TransactionOutputId> transactionOutputIds) throws DatabaseException;
 
@@ -2,6 +2,7 @@ package com.softwareverde.bitcoin.server.module.node.database.indexer;
 
 import com.softwareverde.bitcoin.address.Address;
 import com.softwareverde.bitcoin.address.AddressInflater;
+import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.server.database.BatchRunner;
 import com.softwareverde.bitcoin.server.database.DatabaseConnection;
@@ -9,6 +10,8 @@ import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
 import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
@@ -35,18 +38,89 @@ import com.softwareverde.database.query.parameter.InClauseParameter;
 import com.softwareverde.database.query.parameter.TypedParameter;
 import com.softwareverde.database.row.Row;
 import com.softwareverde.database.util.TransactionUtil;
+import com.softwareverde.logging.Logger;
 import com.softwareverde.util.Tuple;
 import com.softwareverde.util.Util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDatabaseManager {
     protected static final Boolean STORE_ADDRESS_IS_ENABLED = false; // Since Electrum requires script hash, storing address is redundant and is therefore disabled in order to save space.
     protected static final String LAST_INDEXED_TRANSACTION_KEY = "last_indexed_transaction_id";
+    protected static final String LAST_INDEXED_BLOCK_KEY = "last_indexed_block_id"; // Stored within the properties table so that it is committed alongside the indexed rows.
+
+    protected static final ValueExtractor<TransactionOutputId> TRANSACTION_OUTPUT_ID_VALUE_EXTRACTOR = new ValueExtractor<TransactionOutputId>() {
+        @Override
+        public InClauseParameter extractValues(final TransactionOutputId transactionOutputId) {
+            final TransactionId transactionId = transactionOutputId.getTransactionId();
+            final Integer outputIndex = transactionOutputId.getOutputIndex();
+            final TypedParameter transactionIdTypedParameter = (transactionId != null ? new TypedParameter(transactionId.longValue()) : TypedParameter.NULL);
+            final TypedParameter outputIndexTypedParameter = (outputIndex != null ? new TypedParameter(outputIndex) : TypedParameter.NULL);
+            return new InClauseParameter(transactionIdTypedParameter, outputIndexTypedParameter);
+        }
+    };
+
+    /**
+     * The credits and debits of a single scriptHash that are connected to the requested BlockchainSegment.
+     */
+    protected static class ScriptHashTransactions {
+        public final TreeSet<TransactionId> transactionIds = new TreeSet<>();
+        public final MutableList<IndexedTransactionOutput> transactionOutputs = new MutableList<>();
+        public final HashSet<TransactionOutputId> spentTransactionOutputIds = new HashSet<>();
+        public final HashSet<TransactionId> unconfirmedTransactionIds = new HashSet<>();
+        public final HashSet<TransactionOutputId> unconfirmedSpentTransactionOutputIds = new HashSet<>(); // The subset of spentTransactionOutputIds that are only spent by the mempool.
+    }
+
+    /**
+     * Returns the connected Transactions that are not within a block, which are therefore within the mempool.
+     */
+    protected static Set<TransactionId> _getUnconfirmedTransactionIds(final Set<Tuple<TransactionId, BlockchainSegmentId>> transactionBlockchainSegmentIds, final Set<TransactionId> connectedTransactionIds) {
+        final HashSet<TransactionId> unconfirmedTransactionIds = new HashSet<>();
+        for (final Tuple<TransactionId, BlockchainSegmentId> tuple : transactionBlockchainSegmentIds) {
+            if (tuple.second != null) { continue; }
+            if (! connectedTransactionIds.contains(tuple.first)) { continue; }
+
+            unconfirmedTransactionIds.add(tuple.first);
+        }
+        return unconfirmedTransactionIds;
+    }
+
+    /**
+     * An output stored within indexed_unspent_transaction_outputs, or an indexed output that may become one.
+     */
+    protected static class ScriptHashTransactionOutput {
+        public static ScriptHashTransactionOutput fromRow(final Row row) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+            final Integer outputIndex = row.getInteger("output_index");
+            final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+            final Long amount = row.getLong("amount");
+            return new ScriptHashTransactionOutput(new TransactionOutputId(transactionId, outputIndex), scriptHash, amount);
+        }
+
+        public final TransactionOutputId transactionOutputId;
+        public final Sha256Hash scriptHash;
+        public final Long amount;
+
+        public ScriptHashTransactionOutput(final TransactionOutputId transactionOutputId, final Sha256Hash scriptHash, final Long amount) {
+            this.transactionOutputId = transactionOutputId;
+            this.scriptHash = scriptHash;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * The net change to a scriptHash's row within indexed_script_hash_balances.
+     */
+    protected static class ScriptHashBalanceDelta {
+        public long balance = 0L;
+        public int unspentOutputCount = 0;
+    }
 
     protected final FullNodeDatabaseManager _databaseManager;
     protected final AddressInflater _addressInflater;
@@ -237,6 +311,12 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
     }
 
     protected Long _getAddressBalance(final BlockchainSegmentId blockchainSegmentId, final Address address, final Sha256Hash scriptHash, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        if (_areScriptHashBalancesCurrent(blockchainSegmentId)) {
+            final Sha256Hash balanceScriptHash = (scriptHash != null ? scriptHash : ScriptBuilder.computeScriptHash(address));
+            final Map<Sha256Hash, Long> balances = _getMaterializedBalances(new ImmutableList<>(balanceScriptHash), includeUnconfirmedTransactions);
+            return balances.get(balanceScriptHash);
+        }
+
         final TransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
         final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
         final BlockchainSegmentId headBlockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
@@ -299,6 +379,569 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
         return balance;
     }
 
+    /**
+     * Loads the credits and debits for all of the provided scriptHashes with one outputs query and one inputs query per batch,
+     *  then filters the found Transactions against the blockchainSegmentId once for every scriptHash.
+     *  Amounts are read from indexed_transaction_outputs so Transactions are never loaded, which also supports pruned mode.
+     */
+    protected Map<Sha256Hash, ScriptHashTransactions> _getScriptHashTransactions(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        final HashMap<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = new HashMap<>(scriptHashes.getCount());
+        final MutableList<Sha256Hash> uniqueScriptHashes = new MutableList<>(scriptHashes.getCount());
+        for (final Sha256Hash scriptHash : scriptHashes) {
+            if (scriptHashTransactions.containsKey(scriptHash)) { continue; }
+
+            scriptHashTransactions.put(scriptHash, new ScriptHashTransactions());
+            uniqueScriptHashes.add(scriptHash);
+        }
+        if (uniqueScriptHashes.isEmpty()) { return scriptHashTransactions; }
+
+        final ArrayList<Row> transactionOutputRows = new ArrayList<>();
+        { // Load credits for every scriptHash...
+            final BatchRunner<Sha256Hash> batchRunner = new BatchRunner<>(batchSize, false);
+            batchRunner.run(uniqueScriptHashes, new BatchRunner.Batch<Sha256Hash>() {
+                @Override
+                public void run(final List<Sha256Hash> batchItems) throws Exception {
+                    final java.util.List<Row> rows = databaseConnection.query(
+                        new Query("SELECT blocks.blockchain_segment_id, indexed_transaction_outputs.transaction_id, indexed_transaction_outputs.output_index, indexed_transaction_outputs.amount, indexed_transaction_outputs.script_hash, transactions.hash FROM indexed_transaction_outputs INNER JOIN transactions ON transactions.id = indexed_transaction_outputs.transaction_id LEFT OUTER JOIN block_transactions ON block_transactions.transaction_id = indexed_transaction_outputs.transaction_id LEFT OUTER JOIN blocks ON blocks.id = block_transactions.block_id WHERE indexed_transaction_outputs.script_hash IN (?)")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    );
+                    transactionOutputRows.addAll(rows);
+                }
+            });
+        }
+
+        final HashMap<TransactionOutputId, Sha256Hash> transactionOutputScriptHashes = new HashMap<>(transactionOutputRows.size());
+        for (final Row row : transactionOutputRows) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+            final Integer outputIndex = row.getInteger("output_index");
+            final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+            transactionOutputScriptHashes.put(new TransactionOutputId(transactionId, outputIndex), scriptHash);
+        }
+
+        final ArrayList<Row> transactionInputRows = new ArrayList<>();
+        if (! transactionOutputScriptHashes.isEmpty()) { // Load debits for every credit...
+            final MutableList<TransactionOutputId> transactionOutputIds = new MutableList<>(transactionOutputScriptHashes.keySet());
+            final BatchRunner<TransactionOutputId> batchRunner = new BatchRunner<>(batchSize, false);
+            batchRunner.run(transactionOutputIds, new BatchRunner.Batch<TransactionOutputId>() {
+                @Override
+                public void run(final List<TransactionOutputId> batchItems) throws Exception {
+                    final java.util.List<Row> rows = databaseConnection.query(
+                        new Query("SELECT blocks.blockchain_segment_id, indexed_transaction_inputs.transaction_id, indexed_transaction_inputs.spends_transaction_id, indexed_transaction_inputs.spends_output_index FROM indexed_transaction_inputs LEFT OUTER JOIN block_transactions ON block_transactions.transaction_id = indexed_transaction_inputs.transaction_id LEFT OUTER JOIN blocks ON blocks.id = block_transactions.block_id WHERE (indexed_transaction_inputs.spends_transaction_id, indexed_transaction_inputs.spends_output_index) IN (?)")
+                            .setInClauseParameters(batchItems, TRANSACTION_OUTPUT_ID_VALUE_EXTRACTOR)
+                    );
+                    transactionInputRows.addAll(rows);
+                }
+            });
+        }
+
+        // Determine which Transactions are connected to the provided blockchainSegmentId, once for all scriptHashes...
+        final ArrayList<Row> rows = new ArrayList<>(transactionOutputRows.size() + transactionInputRows.size());
+        rows.addAll(transactionOutputRows);
+        rows.addAll(transactionInputRows);
+        final Set<Tuple<TransactionId, BlockchainSegmentId>> transactionBlockchainSegmentIds = _extractTransactionBlockchainSegmentIds(rows);
+        final Set<TransactionId> connectedTransactionIds = _filterTransactionsConnectedToBlockchainSegment(transactionBlockchainSegmentIds, blockchainSegmentId, includeUnconfirmedTransactions);
+        final Set<TransactionId> unconfirmedTransactionIds = _getUnconfirmedTransactionIds(transactionBlockchainSegmentIds, connectedTransactionIds);
+
+        final HashSet<TransactionOutputId> creditedTransactionOutputIds = new HashSet<>(transactionOutputRows.size());
+        for (final Row row : transactionOutputRows) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+            if (! connectedTransactionIds.contains(transactionId)) { continue; }
+
+            final Integer outputIndex = row.getInteger("output_index");
+            final TransactionOutputId transactionOutputId = new TransactionOutputId(transactionId, outputIndex);
+            if (! creditedTransactionOutputIds.add(transactionOutputId)) { continue; } // The Transaction may be included in multiple blocks...
+
+            final Sha256Hash scriptHash = transactionOutputScriptHashes.get(transactionOutputId);
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+            if (transactions == null) { continue; }
+
+            final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("hash"));
+            final Long amount = row.getLong("amount");
+
+            transactions.transactionIds.add(transactionId);
+            transactions.transactionOutputs.add(new IndexedTransactionOutput(transactionId, transactionHash, outputIndex, amount));
+            if (unconfirmedTransactionIds.contains(transactionId)) {
+                transactions.unconfirmedTransactionIds.add(transactionId);
+            }
+        }
+
+        for (final Row row : transactionInputRows) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+            if (! connectedTransactionIds.contains(transactionId)) { continue; }
+
+            final TransactionId spentTransactionId = TransactionId.wrap(row.getLong("spends_transaction_id"));
+            final Integer spentOutputIndex = row.getInteger("spends_output_index");
+            final TransactionOutputId spentTransactionOutputId = new TransactionOutputId(spentTransactionId, spentOutputIndex);
+
+            final Sha256Hash scriptHash = transactionOutputScriptHashes.get(spentTransactionOutputId);
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+            if (transactions == null) { continue; }
+
+            transactions.transactionIds.add(transactionId);
+            transactions.spentTransactionOutputIds.add(spentTransactionOutputId);
+            if (unconfirmedTransactionIds.contains(transactionId)) {
+                transactions.unconfirmedTransactionIds.add(transactionId);
+                transactions.unconfirmedSpentTransactionOutputIds.add(spentTransactionOutputId);
+            }
+        }
+
+        return scriptHashTransactions;
+    }
+
+    /**
+     * Returns the BlockId of the most recent block applied to the materialized scriptHash balances, or null if none have been applied.
+     */
+    protected BlockId _getScriptHashBalancesHeadBlockId() throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT block_id FROM indexed_script_hash_balances_head_block LIMIT 1")
+        );
+        if (rows.isEmpty()) { return null; }
+
+        final Row row = rows.get(0);
+        return BlockId.wrap(row.getLong("block_id"));
+    }
+
+    protected void _setScriptHashBalancesHeadBlockId(final BlockId blockId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        databaseConnection.executeSql(
+            new Query("DELETE FROM indexed_script_hash_balances_head_block")
+        );
+
+        if (blockId != null) {
+            databaseConnection.executeSql(
+                new Query("INSERT INTO indexed_script_hash_balances_head_block (block_id) VALUES (?)")
+                    .setParameter(blockId)
+            );
+        }
+    }
+
+    /**
+     * Returns the greatest TransactionId within the block, or null if the block has no associated Transactions (i.e. blocks loaded via a UTXO Commitment).
+     */
+    protected Long _getMaxTransactionId(final BlockId blockId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT MAX(transaction_id) AS max_transaction_id FROM block_transactions WHERE block_id = ?")
+                .setParameter(blockId)
+        );
+        if (rows.isEmpty()) { return null; }
+
+        final Row row = rows.get(0);
+        return row.getLong("max_transaction_id");
+    }
+
+    /**
+     * Returns true if the block is the lastIndexedBlockId or one of its ancestors.
+     *  Blocks without any associated Transactions (i.e. blocks loaded via a UTXO Commitment) are never considered indexed.
+     */
+    protected Boolean _isBlockIndexed(final BlockId blockId, final BlockId lastIndexedBlockId) throws DatabaseException {
+        if (lastIndexedBlockId == null) { return false; }
+
+        final Long maxTransactionId = _getMaxTransactionId(blockId);
+        if (maxTransactionId == null) { return false; }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final Long blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+        final Long lastIndexedBlockHeight = blockHeaderDatabaseManager.getBlockHeight(lastIndexedBlockId);
+        if (blockHeight > lastIndexedBlockHeight) { return false; }
+
+        final BlockchainSegmentId lastIndexedBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(lastIndexedBlockId);
+        return blockHeaderDatabaseManager.isBlockConnectedToChain(blockId, lastIndexedBlockchainSegmentId, BlockRelationship.ANCESTOR);
+    }
+
+    protected BlockId _getLastIndexedBlockId() throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT value FROM properties WHERE `key` = ?")
+                .setParameter(LAST_INDEXED_BLOCK_KEY)
+        );
+        if (rows.isEmpty()) { return null; }
+
+        final Row row = rows.get(0);
+        return BlockId.wrap(row.getLong("value"));
+    }
+
+    /**
+     * Returns the indexed outputs created by the block's Transactions, excluding outputs without a scriptHash.
+     */
+    protected HashMap<TransactionOutputId, ScriptHashTransactionOutput> _getBlockTransactionOutputs(final BlockId blockId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT indexed_transaction_outputs.transaction_id, indexed_transaction_outputs.output_index, indexed_transaction_outputs.script_hash, indexed_transaction_outputs.amount FROM block_transactions INNER JOIN indexed_transaction_outputs ON indexed_transaction_outputs.transaction_id = block_transactions.transaction_id WHERE block_transactions.block_id = ? AND indexed_transaction_outputs.script_hash IS NOT NULL")
+                .setParameter(blockId)
+        );
+
+        final HashMap<TransactionOutputId, ScriptHashTransactionOutput> transactionOutputs = new HashMap<>(rows.size());
+        for (final Row row : rows) {
+            final ScriptHashTransactionOutput transactionOutput = ScriptHashTransactionOutput.fromRow(row);
+            transactionOutputs.put(transactionOutput.transactionOutputId, transactionOutput);
+        }
+        return transactionOutputs;
+    }
+
+    /**
+     * Returns the outputs spent by the block's Transactions.
+     */
+    protected HashSet<TransactionOutputId> _getBlockSpentTransactionOutputIds(final BlockId blockId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT indexed_transaction_inputs.spends_transaction_id, indexed_transaction_inputs.spends_output_index FROM block_transactions INNER JOIN indexed_transaction_inputs ON indexed_transaction_inputs.transaction_id = block_transactions.transaction_id WHERE block_transactions.block_id = ? AND indexed_transaction_inputs.spends_transaction_id IS NOT NULL")
+                .setParameter(blockId)
+        );
+
+        final HashSet<TransactionOutputId> spentTransactionOutputIds = new HashSet<>(rows.size());
+        for (final Row row : rows) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("spends_transaction_id"));
+            final Integer outputIndex = row.getInteger("spends_output_index");
+            spentTransactionOutputIds.add(new TransactionOutputId(transactionId, outputIndex));
+        }
+        return spentTransactionOutputIds;
+    }
+
+    /**
+     * Loads the provided outputs from tableName, which must be either indexed_unspent_transaction_outputs or indexed_transaction_outputs.
+     *  Outputs without a scriptHash are excluded.
+     */
+    protected List<ScriptHashTransactionOutput> _getScriptHashTransactionOutputs(final String tableName, final List<TransactionOutputId> transactionOutputIds) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        final MutableList<ScriptHashTransactionOutput> transactionOutputs = new MutableList<>(transactionOutputIds.getCount());
+        final BatchRunner<TransactionOutputId> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(transactionOutputIds, new BatchRunner.Batch<TransactionOutputId>() {
+            @Override
+            public void run(final List<TransactionOutputId> batchItems) throws Exception {
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT transaction_id, output_index, script_hash, amount FROM " + tableName + " WHERE (transaction_id, output_index) IN (?)")
+                        .setInClauseParameters(batchItems, TRANSACTION_OUTPUT_ID_VALUE_EXTRACTOR)
+                );
+
+                for (final Row row : rows) {
+                    if (row.getBytes("script_hash") == null) { continue; }
+                    transactionOutputs.add(ScriptHashTransactionOutput.fromRow(row));
+                }
+            }
+        });
+        return transactionOutputs;
+    }
+
+    protected void _addScriptHashBalanceDelta(final HashMap<Sha256Hash, ScriptHashBalanceDelta> balanceDeltas, final ScriptHashTransactionOutput transactionOutput, final boolean isCredit) {
+        ScriptHashBalanceDelta balanceDelta = balanceDeltas.get(transactionOutput.scriptHash);
+        if (balanceDelta == null) {
+            balanceDelta = new ScriptHashBalanceDelta();
+            balanceDeltas.put(transactionOutput.scriptHash, balanceDelta);
+        }
+
+        balanceDelta.balance += (isCredit ? transactionOutput.amount : -transactionOutput.amount);
+        balanceDelta.unspentOutputCount += (isCredit ? 1 : -1);
+    }
+
+    /**
+     * Stores the provided unspent outputs and deletes the provided spent outputs from indexed_unspent_transaction_outputs,
+     *  then applies balanceDeltas to indexed_script_hash_balances.
+     *  ScriptHashes left without any unspent outputs are removed so that the table only grows with the UTXO set.
+     */
+    protected void _storeScriptHashBalanceChanges(final List<ScriptHashTransactionOutput> unspentTransactionOutputs, final List<TransactionOutputId> spentTransactionOutputIds, final HashMap<Sha256Hash, ScriptHashBalanceDelta> balanceDeltas) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        if (! unspentTransactionOutputs.isEmpty()) {
+            final BatchRunner<ScriptHashTransactionOutput> batchRunner = new BatchRunner<>(batchSize, false);
+            batchRunner.run(unspentTransactionOutputs, new BatchRunner.Batch<ScriptHashTransactionOutput>() {
+                @Override
+                public void run(final List<ScriptHashTransactionOutput> batchItems) throws Exception {
+                    final BatchedInsertQuery batchedInsertQuery = new BatchedInsertQuery("INSERT INTO indexed_unspent_transaction_outputs (transaction_id, output_index, script_hash, amount) VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE script_hash = VALUES(script_hash), amount = VALUES(amount)");
+                    for (final ScriptHashTransactionOutput transactionOutput : batchItems) {
+                        final TransactionOutputId transactionOutputId = transactionOutput.transactionOutputId;
+                        batchedInsertQuery
+                            .setParameter(transactionOutputId.getTransactionId())
+                            .setParameter(transactionOutputId.getOutputIndex())
+                            .setParameter(transactionOutput.scriptHash)
+                            .setParameter(transactionOutput.amount);
+                    }
+
+                    databaseConnection.executeSql(batchedInsertQuery);
+                }
+            });
+        }
+
+        if (! spentTransactionOutputIds.isEmpty()) {
+            final BatchRunner<TransactionOutputId> batchRunner = new BatchRunner<>(batchSize, false);
+            batchRunner.run(spentTransactionOutputIds, new BatchRunner.Batch<TransactionOutputId>() {
+                @Override
+                public void run(final List<TransactionOutputId> batchItems) throws Exception {
+                    databaseConnection.executeSql(
+                        new Query("DELETE FROM indexed_unspent_transaction_outputs WHERE (transaction_id, output_index) IN (?)")
+                            .setInClauseParameters(batchItems, TRANSACTION_OUTPUT_ID_VALUE_EXTRACTOR)
+                    );
+                }
+            });
+        }
+
+        if (! balanceDeltas.isEmpty()) {
+            final MutableList<Sha256Hash> scriptHashes = new MutableList<>(balanceDeltas.keySet());
+            final BatchRunner<Sha256Hash> batchRunner = new BatchRunner<>(batchSize, false);
+            batchRunner.run(scriptHashes, new BatchRunner.Batch<Sha256Hash>() {
+                @Override
+                public void run(final List<Sha256Hash> batchItems) throws Exception {
+                    final BatchedInsertQuery batchedInsertQuery = new BatchedInsertQuery("INSERT INTO indexed_script_hash_balances (script_hash, balance, unspent_output_count) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), unspent_output_count = unspent_output_count + VALUES(unspent_output_count)");
+                    for (final Sha256Hash scriptHash : batchItems) {
+                        final ScriptHashBalanceDelta balanceDelta = balanceDeltas.get(scriptHash);
+                        batchedInsertQuery
+                            .setParameter(scriptHash)
+                            .setParameter(balanceDelta.balance)
+                            .setParameter(balanceDelta.unspentOutputCount);
+                    }
+                    databaseConnection.executeSql(batchedInsertQuery);
+
+                    databaseConnection.executeSql(
+                        new Query("DELETE FROM indexed_script_hash_balances WHERE script_hash IN (?) AND unspent_output_count <= 0")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    );
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies the block's credits and debits to the materialized scriptHash balances.
+     *  Outputs both created and spent within the block are never stored.
+     */
+    protected void _applyBlockToScriptHashBalances(final BlockId blockId) throws DatabaseException {
+        final HashMap<TransactionOutputId, ScriptHashTransactionOutput> createdTransactionOutputs = _getBlockTransactionOutputs(blockId);
+        final HashSet<TransactionOutputId> spentTransactionOutputIds = _getBlockSpentTransactionOutputIds(blockId);
+
+        final HashMap<Sha256Hash, ScriptHashBalanceDelta> balanceDeltas = new HashMap<>();
+
+        final MutableList<ScriptHashTransactionOutput> unspentTransactionOutputs = new MutableList<>(createdTransactionOutputs.size());
+        for (final ScriptHashTransactionOutput transactionOutput : createdTransactionOutputs.values()) {
+            if (spentTransactionOutputIds.contains(transactionOutput.transactionOutputId)) { continue; }
+
+            unspentTransactionOutputs.add(transactionOutput);
+            _addScriptHashBalanceDelta(balanceDeltas, transactionOutput, true);
+        }
+
+        final MutableList<TransactionOutputId> previouslyUnspentTransactionOutputIds = new MutableList<>(spentTransactionOutputIds.size());
+        for (final TransactionOutputId transactionOutputId : spentTransactionOutputIds) {
+            if (createdTransactionOutputs.containsKey(transactionOutputId)) { continue; }
+            previouslyUnspentTransactionOutputIds.add(transactionOutputId);
+        }
+
+        final List<ScriptHashTransactionOutput> spentTransactionOutputs = _getScriptHashTransactionOutputs("indexed_unspent_transaction_outputs", previouslyUnspentTransactionOutputIds);
+        final MutableList<TransactionOutputId> deletedTransactionOutputIds = new MutableList<>(spentTransactionOutputs.getCount());
+        for (final ScriptHashTransactionOutput transactionOutput : spentTransactionOutputs) {
+            deletedTransactionOutputIds.add(transactionOutput.transactionOutputId);
+            _addScriptHashBalanceDelta(balanceDeltas, transactionOutput, false);
+        }
+
+        _storeScriptHashBalanceChanges(unspentTransactionOutputs, deletedTransactionOutputIds, balanceDeltas);
+    }
+
+    /**
+     * Reverts the block's credits and debits from the materialized scriptHash balances.
+     *  The outputs spent by the block are restored from indexed_transaction_outputs.
+     */
+    protected void _removeBlockFromScriptHashBalances(final BlockId blockId) throws DatabaseException {
+        final HashMap<TransactionOutputId, ScriptHashTransactionOutput> createdTransactionOutputs = _getBlockTransactionOutputs(blockId);
+        final HashSet<TransactionOutputId> spentTransactionOutputIds = _getBlockSpentTransactionOutputIds(blockId);
+
+        final HashMap<Sha256Hash, ScriptHashBalanceDelta> balanceDeltas = new HashMap<>();
+
+        final MutableList<TransactionOutputId> deletedTransactionOutputIds = new MutableList<>(createdTransactionOutputs.size());
+        for (final ScriptHashTransactionOutput transactionOutput : createdTransactionOutputs.values()) {
+            if (spentTransactionOutputIds.contains(transactionOutput.transactionOutputId)) { continue; }
+
+            deletedTransactionOutputIds.add(transactionOutput.transactionOutputId);
+            _addScriptHashBalanceDelta(balanceDeltas, transactionOutput, false);
+        }
+
+        final MutableList<TransactionOutputId> restoredTransactionOutputIds = new MutableList<>(spentTransactionOutputIds.size());
+        for (final TransactionOutputId transactionOutputId : spentTransactionOutputIds) {
+            if (createdTransactionOutputs.containsKey(transactionOutputId)) { continue; }
+            restoredTransactionOutputIds.add(transactionOutputId);
+        }
+
+        final List<ScriptHashTransactionOutput> restoredTransactionOutputs = _getScriptHashTransactionOutputs("indexed_transaction_outputs", restoredTransactionOutputIds);
+        for (final ScriptHashTransactionOutput transactionOutput : restoredTransactionOutputs) {
+            _addScriptHashBalanceDelta(balanceDeltas, transactionOutput, true);
+        }
+
+        _storeScriptHashBalanceChanges(restoredTransactionOutputs, deletedTransactionOutputIds, balanceDeltas);
+    }
+
+    /**
+     * Returns true if the materialized scriptHash balances reflect the head block and blockchainSegmentId is the head blockchain segment.
+     *  Otherwise, balances must be calculated from the individual credits and debits.
+     */
+    protected Boolean _areScriptHashBalancesCurrent(final BlockchainSegmentId blockchainSegmentId) throws DatabaseException {
+        final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
+        final BlockchainSegmentId headBlockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+        if (! Util.areEqual(blockchainSegmentId, headBlockchainSegmentId)) { return false; }
+
+        final BlockId scriptHashBalancesHeadBlockId = _getScriptHashBalancesHeadBlockId();
+        if (scriptHashBalancesHeadBlockId == null) { return false; }
+
+        final FullNodeBlockDatabaseManager blockDatabaseManager = _databaseManager.getBlockDatabaseManager();
+        final BlockId headBlockId = blockDatabaseManager.getHeadBlockId();
+        if (! Util.areEqual(scriptHashBalancesHeadBlockId, headBlockId)) { return false; }
+
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        return blockHeaderDatabaseManager.isBlockConnectedToChain(headBlockId, blockchainSegmentId, BlockRelationship.ANCESTOR);
+    }
+
+    /**
+     * Loads the materialized unspent outputs of the provided unique scriptHashes.
+     *  If includeUnconfirmedTransactions is set, outputs created by the mempool are added and outputs spent by the mempool are removed.
+     */
+    protected Map<Sha256Hash, MutableList<IndexedTransactionOutput>> _getMaterializedUnspentTransactionOutputs(final List<Sha256Hash> uniqueScriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        final ArrayList<Row> transactionOutputRows = new ArrayList<>();
+        final HashSet<TransactionOutputId> spentTransactionOutputIds = new HashSet<>();
+        final BatchRunner<Sha256Hash> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(uniqueScriptHashes, new BatchRunner.Batch<Sha256Hash>() {
+            @Override
+            public void run(final List<Sha256Hash> batchItems) throws Exception {
+                transactionOutputRows.addAll(databaseConnection.query(
+                    new Query("SELECT indexed_unspent_transaction_outputs.transaction_id, indexed_unspent_transaction_outputs.output_index, indexed_unspent_transaction_outputs.script_hash, indexed_unspent_transaction_outputs.amount, transactions.hash FROM indexed_unspent_transaction_outputs INNER JOIN transactions ON transactions.id = indexed_unspent_transaction_outputs.transaction_id WHERE indexed_unspent_transaction_outputs.script_hash IN (?)")
+                        .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                ));
+
+                if (includeUnconfirmedTransactions) {
+                    transactionOutputRows.addAll(databaseConnection.query(
+                        new Query("SELECT indexed_transaction_outputs.transaction_id, indexed_transaction_outputs.output_index, indexed_transaction_outputs.script_hash, indexed_transaction_outputs.amount, transactions.hash FROM unconfirmed_transactions INNER JOIN indexed_transaction_outputs ON indexed_transaction_outputs.transaction_id = unconfirmed_transactions.transaction_id INNER JOIN transactions ON transactions.id = indexed_transaction_outputs.transaction_id WHERE indexed_transaction_outputs.script_hash IN (?)")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    ));
+
+                    final java.util.List<Row> spentRows = databaseConnection.query(
+                        new Query("SELECT indexed_transaction_inputs.spends_transaction_id, indexed_transaction_inputs.spends_output_index FROM unconfirmed_transactions INNER JOIN indexed_transaction_inputs ON indexed_transaction_inputs.transaction_id = unconfirmed_transactions.transaction_id INNER JOIN indexed_transaction_outputs ON (indexed_transaction_outputs.transaction_id = indexed_transaction_inputs.spends_transaction_id AND indexed_transaction_outputs.output_index = indexed_transaction_inputs.spends_output_index) WHERE indexed_transaction_outputs.script_hash IN (?)")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    );
+                    for (final Row row : spentRows) {
+                        final TransactionId transactionId = TransactionId.wrap(row.getLong("spends_transaction_id"));
+                        final Integer outputIndex = row.getInteger("spends_output_index");
+                        spentTransactionOutputIds.add(new TransactionOutputId(transactionId, outputIndex));
+                    }
+                }
+            }
+        });
+
+        final HashMap<Sha256Hash, MutableList<IndexedTransactionOutput>> unspentTransactionOutputs = new HashMap<>(uniqueScriptHashes.getCount());
+        for (final Sha256Hash scriptHash : uniqueScriptHashes) {
+            unspentTransactionOutputs.put(scriptHash, new MutableList<IndexedTransactionOutput>());
+        }
+
+        final HashSet<TransactionOutputId> foundTransactionOutputIds = new HashSet<>(transactionOutputRows.size());
+        for (final Row row : transactionOutputRows) {
+            final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+            final Integer outputIndex = row.getInteger("output_index");
+            final TransactionOutputId transactionOutputId = new TransactionOutputId(transactionId, outputIndex);
+            if (spentTransactionOutputIds.contains(transactionOutputId)) { continue; }
+            if (! foundTransactionOutputIds.add(transactionOutputId)) { continue; }
+
+            final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+            final MutableList<IndexedTransactionOutput> transactionOutputs = unspentTransactionOutputs.get(scriptHash);
+            if (transactionOutputs == null) { continue; }
+
+            final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("hash"));
+            final Long amount = row.getLong("amount");
+            transactionOutputs.add(new IndexedTransactionOutput(transactionId, transactionHash, outputIndex, amount));
+        }
+        return unspentTransactionOutputs;
+    }
+
+    /**
+     * Loads the materialized balances of the provided unique scriptHashes into confirmedBalances.
+     *  If balances is provided, it receives the same balances with the net change of the mempool applied.
+     */
+    protected void _loadMaterializedBalances(final List<Sha256Hash> uniqueScriptHashes, final Map<Sha256Hash, Long> confirmedBalances, final Map<Sha256Hash, Long> balances) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        for (final Sha256Hash scriptHash : uniqueScriptHashes) {
+            confirmedBalances.put(scriptHash, 0L);
+            if (balances != null) {
+                balances.put(scriptHash, 0L);
+            }
+        }
+
+        final BatchRunner<Sha256Hash> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(uniqueScriptHashes, new BatchRunner.Batch<Sha256Hash>() {
+            @Override
+            public void run(final List<Sha256Hash> batchItems) throws Exception {
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT script_hash, balance FROM indexed_script_hash_balances WHERE script_hash IN (?)")
+                        .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                );
+                for (final Row row : rows) {
+                    final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+                    confirmedBalances.put(scriptHash, row.getLong("balance"));
+                    if (balances != null) {
+                        balances.put(scriptHash, row.getLong("balance"));
+                    }
+                }
+
+                if (balances != null) {
+                    final java.util.List<Row> creditRows = databaseConnection.query(
+                        new Query("SELECT indexed_transaction_outputs.script_hash, SUM(indexed_transaction_outputs.amount) AS amount FROM unconfirmed_transactions INNER JOIN indexed_transaction_outputs ON indexed_transaction_outputs.transaction_id = unconfirmed_transactions.transaction_id WHERE indexed_transaction_outputs.script_hash IN (?) GROUP BY indexed_transaction_outputs.script_hash")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    );
+                    for (final Row row : creditRows) {
+                        final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+                        balances.put(scriptHash, (balances.get(scriptHash) + row.getLong("amount")));
+                    }
+
+                    final java.util.List<Row> debitRows = databaseConnection.query(
+                        new Query("SELECT indexed_transaction_outputs.script_hash, SUM(indexed_transaction_outputs.amount) AS amount FROM unconfirmed_transactions INNER JOIN indexed_transaction_inputs ON indexed_transaction_inputs.transaction_id = unconfirmed_transactions.transaction_id INNER JOIN indexed_transaction_outputs ON (indexed_transaction_outputs.transaction_id = indexed_transaction_inputs.spends_transaction_id AND indexed_transaction_outputs.output_index = indexed_transaction_inputs.spends_output_index) WHERE indexed_transaction_outputs.script_hash IN (?) GROUP BY indexed_transaction_outputs.script_hash")
+                            .setInClauseParameters(batchItems, ValueExtractor.SHA256_HASH)
+                    );
+                    for (final Row row : debitRows) {
+                        final Sha256Hash scriptHash = Sha256Hash.wrap(row.getBytes("script_hash"));
+                        balances.put(scriptHash, (balances.get(scriptHash) - row.getLong("amount")));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the materialized balances of the provided unique scriptHashes.
+     *  If includeUnconfirmedTransactions is set, the net change of the mempool is applied to each balance.
+     */
+    protected Map<Sha256Hash, Long> _getMaterializedBalances(final List<Sha256Hash> uniqueScriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final HashMap<Sha256Hash, Long> confirmedBalances = new HashMap<>(uniqueScriptHashes.getCount());
+        if (! includeUnconfirmedTransactions) {
+            _loadMaterializedBalances(uniqueScriptHashes, confirmedBalances, null);
+            return confirmedBalances;
+        }
+
+        final HashMap<Sha256Hash, Long> balances = new HashMap<>(uniqueScriptHashes.getCount());
+        _loadMaterializedBalances(uniqueScriptHashes, confirmedBalances, balances);
+        return balances;
+    }
+
+    protected List<Sha256Hash> _getUniqueScriptHashes(final List<Sha256Hash> scriptHashes) {
+        final HashSet<Sha256Hash> scriptHashSet = new HashSet<>(scriptHashes.getCount());
+        final MutableList<Sha256Hash> uniqueScriptHashes = new MutableList<>(scriptHashes.getCount());
+        for (final Sha256Hash scriptHash : scriptHashes) {
+            if (scriptHashSet.add(scriptHash)) {
+                uniqueScriptHashes.add(scriptHash);
+            }
+        }
+        return uniqueScriptHashes;
+    }
+
     protected Long _getLastIndexedTransactionId() {
         final PropertiesStore propertiesStore = _databaseManager.getPropertiesStore();
         return Util.coalesce(propertiesStore.getLong(LAST_INDEXED_TRANSACTION_KEY));
@@ -326,6 +969,207 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
         return _getAddressBalance(blockchainSegmentId, null, scriptHash, includeUnconfirmedTransactions);
     }
 
+    @Override
+    public Map<Sha256Hash, List<TransactionId>> getTransactionIds(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final Map<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = _getScriptHashTransactions(blockchainSegmentId, scriptHashes, includeUnconfirmedTransactions);
+
+        final HashMap<Sha256Hash, List<TransactionId>> transactionIds = new HashMap<>(scriptHashTransactions.size());
+        for (final Sha256Hash scriptHash : scriptHashTransactions.keySet()) {
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+            transactionIds.put(scriptHash, new ImmutableList<>(transactions.transactionIds));
+        }
+        return transactionIds;
+    }
+
+    @Override
+    public Map<Sha256Hash, Long> getAddressBalances(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        if (_areScriptHashBalancesCurrent(blockchainSegmentId)) {
+            return _getMaterializedBalances(_getUniqueScriptHashes(scriptHashes), includeUnconfirmedTransactions);
+        }
+
+        final Map<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = _getScriptHashTransactions(blockchainSegmentId, scriptHashes, includeUnconfirmedTransactions);
+
+        final HashMap<Sha256Hash, Long> balances = new HashMap<>(scriptHashTransactions.size());
+        for (final Sha256Hash scriptHash : scriptHashTransactions.keySet()) {
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+            long balance = 0L;
+            for (final IndexedTransactionOutput transactionOutput : transactions.transactionOutputs) {
+                if (transactions.spentTransactionOutputIds.contains(transactionOutput.getTransactionOutputId())) { continue; }
+                balance += transactionOutput.getAmount();
+            }
+            balances.put(scriptHash, balance);
+        }
+        return balances;
+    }
+
+    @Override
+    public Map<Sha256Hash, List<IndexedTransactionOutput>> getUnspentTransactionOutputs(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        if (_areScriptHashBalancesCurrent(blockchainSegmentId)) {
+            final Map<Sha256Hash, MutableList<IndexedTransactionOutput>> materializedTransactionOutputs = _getMaterializedUnspentTransactionOutputs(_getUniqueScriptHashes(scriptHashes), includeUnconfirmedTransactions);
+            return new HashMap<Sha256Hash, List<IndexedTransactionOutput>>(materializedTransactionOutputs);
+        }
+
+        final Map<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = _getScriptHashTransactions(blockchainSegmentId, scriptHashes, includeUnconfirmedTransactions);
+
+        final HashMap<Sha256Hash, List<IndexedTransactionOutput>> unspentTransactionOutputs = new HashMap<>(scriptHashTransactions.size());
+        for (final Sha256Hash scriptHash : scriptHashTransactions.keySet()) {
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+            final ImmutableListBuilder<IndexedTransactionOutput> listBuilder = new ImmutableListBuilder<>(transactions.transactionOutputs.getCount());
+            for (final IndexedTransactionOutput transactionOutput : transactions.transactionOutputs) {
+                if (transactions.spentTransactionOutputIds.contains(transactionOutput.getTransactionOutputId())) { continue; }
+                listBuilder.add(transactionOutput);
+            }
+            unspentTransactionOutputs.put(scriptHash, listBuilder.build());
+        }
+        return unspentTransactionOutputs;
+    }
+
+    @Override
+    public Map<Sha256Hash, ScriptHashSummary> getScriptHashSummaries(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeTransactionHashes, final Boolean includeUnspentTransactionOutputs) throws DatabaseException {
+        if ( (! includeTransactionHashes) && (! includeUnspentTransactionOutputs) && _areScriptHashBalancesCurrent(blockchainSegmentId) ) {
+            final List<Sha256Hash> uniqueScriptHashes = _getUniqueScriptHashes(scriptHashes);
+            final HashMap<Sha256Hash, Long> confirmedBalances = new HashMap<>(uniqueScriptHashes.getCount());
+            final HashMap<Sha256Hash, Long> balances = new HashMap<>(uniqueScriptHashes.getCount());
+            _loadMaterializedBalances(uniqueScriptHashes, confirmedBalances, balances);
+
+            final HashMap<Sha256Hash, ScriptHashSummary> scriptHashSummaries = new HashMap<>(uniqueScriptHashes.getCount());
+            for (final Sha256Hash scriptHash : uniqueScriptHashes) {
+                scriptHashSummaries.put(scriptHash, new ScriptHashSummary(balances.get(scriptHash), confirmedBalances.get(scriptHash), null, null));
+            }
+            return scriptHashSummaries;
+        }
+
+        // The confirmed and unconfirmed views are both derived from a single load that includes the mempool...
+        final Map<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = _getScriptHashTransactions(blockchainSegmentId, scriptHashes, true);
+
+        final Map<TransactionId, Sha256Hash> transactionHashes;
+        if (includeTransactionHashes) { // Resolve the hashes of every Transaction at once...
+            final HashSet<TransactionId> uniqueTransactionIds = new HashSet<>();
+            for (final ScriptHashTransactions transactions : scriptHashTransactions.values()) {
+                uniqueTransactionIds.addAll(transactions.transactionIds);
+            }
+
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = _databaseManager.getTransactionDatabaseManager();
+            transactionHashes = transactionDatabaseManager.getTransactionHashes(new MutableList<>(uniqueTransactionIds));
+        }
+        else {
+            transactionHashes = null;
+        }
+
+        final HashMap<Sha256Hash, ScriptHashSummary> scriptHashSummaries = new HashMap<>(scriptHashTransactions.size());
+        for (final Sha256Hash scriptHash : scriptHashTransactions.keySet()) {
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+            long balance = 0L;
+            long confirmedBalance = 0L;
+            final ImmutableListBuilder<IndexedTransactionOutput> unspentTransactionOutputs = new ImmutableListBuilder<>(transactions.transactionOutputs.getCount());
+            for (final IndexedTransactionOutput transactionOutput : transactions.transactionOutputs) {
+                final TransactionOutputId transactionOutputId = transactionOutput.getTransactionOutputId();
+                final boolean isSpent = transactions.spentTransactionOutputIds.contains(transactionOutputId);
+                final boolean isSpentByBlock = (isSpent && (! transactions.unconfirmedSpentTransactionOutputIds.contains(transactionOutputId)));
+                final boolean isConfirmed = (! transactions.unconfirmedTransactionIds.contains(transactionOutput.getTransactionId()));
+
+                if (isConfirmed && (! isSpentByBlock)) {
+                    confirmedBalance += transactionOutput.getAmount();
+                }
+
+                if (! isSpent) {
+                    balance += transactionOutput.getAmount();
+                    unspentTransactionOutputs.add(transactionOutput);
+                }
+            }
+
+            final List<Sha256Hash> scriptHashTransactionHashes;
+            if (transactionHashes != null) {
+                final ImmutableListBuilder<Sha256Hash> listBuilder = new ImmutableListBuilder<>(transactions.transactionIds.size());
+                for (final TransactionId transactionId : transactions.transactionIds) {
+                    final Sha256Hash transactionHash = transactionHashes.get(transactionId);
+                    if (transactionHash == null) { continue; }
+
+                    listBuilder.add(transactionHash);
+                }
+                scriptHashTransactionHashes = listBuilder.build();
+            }
+            else {
+                scriptHashTransactionHashes = null;
+            }
+
+            scriptHashSummaries.put(scriptHash, new ScriptHashSummary(balance, confirmedBalance, scriptHashTransactionHashes, (includeUnspentTransactionOutputs ? unspentTransactionOutputs.build() : null)));
+        }
+        return scriptHashSummaries;
+    }
+
+    @Override
+    public BlockId getScriptHashBalancesHeadBlockId() throws DatabaseException {
+        return _getScriptHashBalancesHeadBlockId();
+    }
+
+    @Override
+    public Integer updateScriptHashBalances(final Integer maxBlockCount) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final FullNodeBlockDatabaseManager blockDatabaseManager = _databaseManager.getBlockDatabaseManager();
+
+        final BlockId headBlockId = blockDatabaseManager.getHeadBlockId();
+        if (headBlockId == null) { return 0; }
+
+        final BlockchainSegmentId headBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockId);
+        final BlockId lastIndexedBlockId = _getLastIndexedBlockId();
+
+        int blockCount = 0;
+        BlockId blockId = _getScriptHashBalancesHeadBlockId();
+
+        // Undo the blocks that are no longer a part of the head blockchain...
+        while ( (blockId != null) && (blockCount < maxBlockCount) ) {
+            final Boolean isConnectedToHeadBlockchain = blockHeaderDatabaseManager.isBlockConnectedToChain(blockId, headBlockchainSegmentId, BlockRelationship.ANCESTOR);
+            if (isConnectedToHeadBlockchain) { break; }
+
+            final BlockId parentBlockId = blockHeaderDatabaseManager.getAncestorBlockId(blockId, 1);
+
+            TransactionUtil.startTransaction(databaseConnection);
+            _removeBlockFromScriptHashBalances(blockId);
+            _setScriptHashBalancesHeadBlockId(parentBlockId);
+            TransactionUtil.commitTransaction(databaseConnection);
+
+            Logger.trace("Removed block " + blockId + " from indexed balances.");
+            blockId = parentBlockId;
+            blockCount += 1;
+        }
+
+        // Apply the head blockchain's blocks whose transactions have all been indexed...
+        while ( (! Util.areEqual(blockId, headBlockId)) && (blockCount < maxBlockCount) ) {
+            final BlockId nextBlockId;
+            if (blockId == null) {
+                nextBlockId = blockHeaderDatabaseManager.getBlockIdAtHeight(headBlockchainSegmentId, 0L);
+            }
+            else {
+                nextBlockId = blockHeaderDatabaseManager.getChildBlockId(headBlockchainSegmentId, blockId);
+            }
+            if (nextBlockId == null) { break; }
+
+            // Header-only blocks precede the head block and never receive Transactions, so they have nothing to apply...
+            if (! blockDatabaseManager.hasTransactions(nextBlockId)) {
+                _setScriptHashBalancesHeadBlockId(nextBlockId);
+                blockId = nextBlockId;
+                blockCount += 1;
+                continue;
+            }
+            if (! _isBlockIndexed(nextBlockId, lastIndexedBlockId)) { break; }
+
+            TransactionUtil.startTransaction(databaseConnection);
+            _applyBlockToScriptHashBalances(nextBlockId);
+            _setScriptHashBalancesHeadBlockId(nextBlockId);
+            TransactionUtil.commitTransaction(databaseConnection);
+
+            blockId = nextBlockId;
+            blockCount += 1;
+        }
+
+        return blockCount;
+    }
+
     @Override
     public Map<Integer, TransactionId> getTransactionsSpendingOutputsOf(final TransactionId transactionId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -383,19 +1227,18 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
 
     @Override
     public List<TransactionId> getUnprocessedTransactions(final Integer batchSize) throws DatabaseException {
-        final Long firstTransactionId = _getLastIndexedTransactionId();
-
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        // Every Transaction has a first output, so a Transaction without an indexed first output has not been indexed...
         final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT id FROM transactions WHERE id > ? ORDER BY id ASC LIMIT " + batchSize)
-                .setParameter(firstTransactionId)
+            new Query("SELECT unconfirmed_transactions.transaction_id FROM unconfirmed_transactions LEFT OUTER JOIN indexed_transaction_outputs ON (indexed_transaction_outputs.transaction_id = unconfirmed_transactions.transaction_id AND indexed_transaction_outputs.output_index = 0) WHERE indexed_transaction_outputs.transaction_id IS NULL ORDER BY unconfirmed_transactions.transaction_id ASC LIMIT " + batchSize)
         );
 
         if (rows.isEmpty()) { return new MutableList<>(0); }
 
         final ImmutableListBuilder<TransactionId> listBuilder = new ImmutableListBuilder<>(rows.size());
         for (final Row row : rows) {
-            final Long rowId = row.getLong("id");
+            final Long rowId = row.getLong("transaction_id");
             final TransactionId transactionId = TransactionId.wrap(rowId);
             listBuilder.add(transactionId);
         }
@@ -414,6 +1257,61 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
         });
     }
 
+    @Override
+    public List<BlockId> getUnindexedBlockIds(final Integer maxBlockCount) throws DatabaseException {
+        final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
+        final FullNodeBlockDatabaseManager blockDatabaseManager = _databaseManager.getBlockDatabaseManager();
+
+        final BlockId headBlockId = blockDatabaseManager.getHeadBlockId();
+        if (headBlockId == null) { return new MutableList<>(0); }
+
+        final BlockchainSegmentId headBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockId);
+
+        // Only blocks written by the indexer are checkpointed; without a checkpoint, indexing (re)starts from the genesis block...
+        BlockId blockId = _getLastIndexedBlockId();
+
+        // The indexes are not specific to a blockchain, so after a reorg indexing only needs to resume from the shared ancestor...
+        while (blockId != null) {
+            final Boolean isConnectedToHeadBlockchain = blockHeaderDatabaseManager.isBlockConnectedToChain(blockId, headBlockchainSegmentId, BlockRelationship.ANCESTOR);
+            if (isConnectedToHeadBlockchain) { break; }
+
+            blockId = blockHeaderDatabaseManager.getAncestorBlockId(blockId, 1);
+        }
+
+        final MutableList<BlockId> blockIds = new MutableList<>(maxBlockCount);
+        while ( (blockIds.getCount() < maxBlockCount) && (! Util.areEqual(blockId, headBlockId)) ) {
+            final BlockId nextBlockId;
+            if (blockId == null) {
+                nextBlockId = blockHeaderDatabaseManager.getBlockIdAtHeight(headBlockchainSegmentId, 0L);
+            }
+            else {
+                nextBlockId = blockHeaderDatabaseManager.getChildBlockId(headBlockchainSegmentId, blockId);
+            }
+            if (nextBlockId == null) { break; }
+
+            // Header-only blocks (e.g. those preceding a fast-sync) never receive their Transactions since they precede the head block,
+            //  so they are returned without Transactions and are checkpointed like any other block rather than halting the indexer.
+            blockIds.add(nextBlockId);
+            blockId = nextBlockId;
+        }
+        return blockIds;
+    }
+
+    @Override
+    public BlockId getLastIndexedBlockId() throws DatabaseException {
+        return _getLastIndexedBlockId();
+    }
+
+    @Override
+    public void setLastIndexedBlockId(final BlockId blockId) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        databaseConnection.executeSql(
+            new Query("INSERT INTO properties (`key`, value) VALUES (?, ?) ON DUPLICATE KEY UPDATE value = VALUES(value)")
+                .setParameter(LAST_INDEXED_BLOCK_KEY)
+                .setParameter(blockId)
+        );
+    }
+
     @Override
     public void indexTransactionOutputs(final List<TransactionId> transactionIds, final List<Integer> outputIndexes, final List<Long> amounts, final List<ScriptType> scriptTypes, final List<Address> addresses, final List<Sha256Hash> scriptHashes, final List<TransactionId> slpTransactionIds, final List<ByteArray> memoActionTypes, final List<ByteArray> memoActionIdentifiers) throws DatabaseException {
         final int itemCount = transactionIds.getCount();
@@ -521,10 +1419,23 @@ public class BlockchainIndexerDatabaseManagerCore implements BlockchainIndexerDa
         databaseConnection.executeSql(
             new Query("DELETE FROM indexed_transaction_inputs")
         );
+        databaseConnection.executeSql(
+            new Query("DELETE FROM indexed_unspent_transaction_outputs")
+        );
+        databaseConnection.executeSql(
+            new Query("DELETE FROM indexed_script_hash_balances")
+        );
+        databaseConnection.executeSql(
+            new Query("DELETE FROM indexed_script_hash_balances_head_block")
+        );
         databaseConnection.executeSql(
             new Query("DELETE FROM properties WHERE `key` = ?")
                 .setParameter(LAST_INDEXED_TRANSACTION_KEY)
         );
+        databaseConnection.executeSql(
+            new Query("DELETE FROM properties WHERE `key` = ?")
+                .setParameter(LAST_INDEXED_BLOCK_KEY)
+        );
 
         TransactionUtil.commitTransaction(databaseConnection);
     }
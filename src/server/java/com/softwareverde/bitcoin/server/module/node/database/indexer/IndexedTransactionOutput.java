@@ -0,0 +1,48 @@
+package com.softwareverde.bitcoin.server.module.node.database.indexer;
+
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.constable.Const;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * An output recorded within indexed_transaction_outputs, including its amount, so that its value may be reported
+ *  without loading the Transaction that created it.
+ */
+public class IndexedTransactionOutput implements Const {
+    protected final TransactionId _transactionId;
+    protected final Sha256Hash _transactionHash;
+    protected final Integer _outputIndex;
+    protected final Long _amount;
+
+    public IndexedTransactionOutput(final TransactionId transactionId, final Sha256Hash transactionHash, final Integer outputIndex, final Long amount) {
+        _transactionId = transactionId;
+        _transactionHash = transactionHash;
+        _outputIndex = outputIndex;
+        _amount = amount;
+    }
+
+    public TransactionId getTransactionId() {
+        return _transactionId;
+    }
+
+    public Sha256Hash getTransactionHash() {
+        return _transactionHash;
+    }
+
+    public Integer getOutputIndex() {
+        return _outputIndex;
+    }
+
+    public Long getAmount() {
+        return _amount;
+    }
+
+    public TransactionOutputId getTransactionOutputId() {
+        return new TransactionOutputId(_transactionId, _outputIndex);
+    }
+
+    @Override
+    public String toString() {
+        return (_transactionHash + ":" + _outputIndex + " (" + _amount + ")");
+    }
+}
@@ -0,0 +1,455 @@
+package com.softwareverde.bitcoin.server.module.node.database.indexer;
+
+import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.address.AddressInflater;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.database.BatchRunner;
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.store.kv.KeyValueStore;
+import com.softwareverde.bitcoin.server.module.node.store.kv.KeyValueWriteBatch;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.script.ScriptBuilder;
+import com.softwareverde.bitcoin.transaction.script.ScriptType;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableList;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.row.Row;
+import com.softwareverde.util.Tuple;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A BlockchainIndexerDatabaseManager that stores the indexed outputs and inputs within an embedded KeyValueStore instead of
+ *  indexed_transaction_outputs and indexed_transaction_inputs.
+ *  Keys are big-endian so that each of the following may be prefix-scanned:
+ *      'o' | transactionId | outputIndex                                                   -> amount | scriptHash
+ *      's' | scriptHash | transactionId | outputIndex                                      -> amount
+ *      'i' | spendsTransactionId | spendsOutputIndex | transactionId | inputIndex          -> (empty)
+ *  Outputs with an SLP TransactionId are also written to indexed_transaction_outputs, since SLP validation queries that table.
+ *  The materialized scriptHash balances are not maintained; balances are computed from the indexed outputs.
+ */
+public class KeyValueBlockchainIndexerDatabaseManager extends BlockchainIndexerDatabaseManagerCore {
+    protected static final byte TRANSACTION_OUTPUT_KEY_PREFIX = 'o';
+    protected static final byte SCRIPT_HASH_KEY_PREFIX = 's';
+    protected static final byte TRANSACTION_INPUT_KEY_PREFIX = 'i';
+    protected static final Integer UNPROCESSED_TRANSACTIONS_PAGE_SIZE = 1024;
+
+    protected static ByteArray _getTransactionOutputKey(final TransactionId transactionId, final Integer outputIndex) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(1 + 8 + 4);
+        byteBuffer.put(TRANSACTION_OUTPUT_KEY_PREFIX);
+        byteBuffer.putLong(transactionId.longValue());
+        byteBuffer.putInt(outputIndex);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _getScriptHashKeyPrefix(final Sha256Hash scriptHash) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(1 + Sha256Hash.BYTE_COUNT);
+        byteBuffer.put(SCRIPT_HASH_KEY_PREFIX);
+        byteBuffer.put(scriptHash.getBytes());
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _getScriptHashKey(final Sha256Hash scriptHash, final TransactionId transactionId, final Integer outputIndex) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(1 + Sha256Hash.BYTE_COUNT + 8 + 4);
+        byteBuffer.put(SCRIPT_HASH_KEY_PREFIX);
+        byteBuffer.put(scriptHash.getBytes());
+        byteBuffer.putLong(transactionId.longValue());
+        byteBuffer.putInt(outputIndex);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _getTransactionInputKeyPrefix(final TransactionId spendsTransactionId, final Integer spendsOutputIndex) {
+        final int byteCount = ((spendsOutputIndex != null) ? (1 + 8 + 4) : (1 + 8));
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(byteCount);
+        byteBuffer.put(TRANSACTION_INPUT_KEY_PREFIX);
+        byteBuffer.putLong(spendsTransactionId.longValue());
+        if (spendsOutputIndex != null) {
+            byteBuffer.putInt(spendsOutputIndex);
+        }
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _getTransactionInputKey(final TransactionOutputId transactionOutputId, final TransactionId transactionId, final Integer inputIndex) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(1 + 8 + 4 + 8 + 4);
+        byteBuffer.put(TRANSACTION_INPUT_KEY_PREFIX);
+        byteBuffer.putLong(transactionOutputId.getTransactionId().longValue());
+        byteBuffer.putInt(transactionOutputId.getOutputIndex());
+        byteBuffer.putLong(transactionId.longValue());
+        byteBuffer.putInt(inputIndex);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _encodeAmount(final Long amount) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8);
+        byteBuffer.putLong(amount);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray _encodeTransactionOutput(final Long amount, final Sha256Hash scriptHash) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8 + ((scriptHash != null) ? Sha256Hash.BYTE_COUNT : 0));
+        byteBuffer.putLong(amount);
+        if (scriptHash != null) {
+            byteBuffer.put(scriptHash.getBytes());
+        }
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected final KeyValueStore _keyValueStore;
+
+    /**
+     * Returns the BlockchainSegmentId of each of the Transactions; Transactions that are not within a block are paired with a null BlockchainSegmentId.
+     */
+    protected Set<Tuple<TransactionId, BlockchainSegmentId>> _getTransactionBlockchainSegmentIds(final Set<TransactionId> transactionIds) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        final HashSet<Tuple<TransactionId, BlockchainSegmentId>> transactionBlockchainSegmentIds = new HashSet<>(transactionIds.size());
+        final HashSet<TransactionId> confirmedTransactionIds = new HashSet<>(transactionIds.size());
+
+        final BatchRunner<TransactionId> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(new MutableList<>(transactionIds), new BatchRunner.Batch<TransactionId>() {
+            @Override
+            public void run(final List<TransactionId> batchItems) throws Exception {
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT blocks.blockchain_segment_id, block_transactions.transaction_id FROM block_transactions INNER JOIN blocks ON blocks.id = block_transactions.block_id WHERE block_transactions.transaction_id IN (?)")
+                        .setInClauseParameters(batchItems, ValueExtractor.IDENTIFIER)
+                );
+
+                synchronized (transactionBlockchainSegmentIds) {
+                    for (final Row row : rows) {
+                        final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+                        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(row.getLong("blockchain_segment_id"));
+                        transactionBlockchainSegmentIds.add(new Tuple<>(transactionId, blockchainSegmentId));
+                        confirmedTransactionIds.add(transactionId);
+                    }
+                }
+            }
+        });
+
+        for (final TransactionId transactionId : transactionIds) {
+            if (confirmedTransactionIds.contains(transactionId)) { continue; }
+            transactionBlockchainSegmentIds.add(new Tuple<TransactionId, BlockchainSegmentId>(transactionId, null));
+        }
+
+        return transactionBlockchainSegmentIds;
+    }
+
+    protected Map<TransactionId, Sha256Hash> _getTransactionHashes(final Set<TransactionId> transactionIds) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+
+        final HashMap<TransactionId, Sha256Hash> transactionHashes = new HashMap<>(transactionIds.size());
+        final BatchRunner<TransactionId> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(new MutableList<>(transactionIds), new BatchRunner.Batch<TransactionId>() {
+            @Override
+            public void run(final List<TransactionId> batchItems) throws Exception {
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT id, hash FROM transactions WHERE id IN (?)")
+                        .setInClauseParameters(batchItems, ValueExtractor.IDENTIFIER)
+                );
+
+                synchronized (transactionHashes) {
+                    for (final Row row : rows) {
+                        final TransactionId transactionId = TransactionId.wrap(row.getLong("id"));
+                        final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("hash"));
+                        transactionHashes.put(transactionId, transactionHash);
+                    }
+                }
+            }
+        });
+        return transactionHashes;
+    }
+
+    /**
+     * Loads the credits of each scriptHash via a prefix scan of its 's' keys, and the debits of each credit via a prefix scan of its 'i' keys.
+     */
+    @Override
+    protected Map<Sha256Hash, ScriptHashTransactions> _getScriptHashTransactions(final BlockchainSegmentId blockchainSegmentId, final List<Sha256Hash> scriptHashes, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final HashMap<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = new HashMap<>(scriptHashes.getCount());
+        final List<Sha256Hash> uniqueScriptHashes = _getUniqueScriptHashes(scriptHashes);
+        for (final Sha256Hash scriptHash : uniqueScriptHashes) {
+            scriptHashTransactions.put(scriptHash, new ScriptHashTransactions());
+        }
+        if (uniqueScriptHashes.isEmpty()) { return scriptHashTransactions; }
+
+        final HashMap<TransactionOutputId, Sha256Hash> transactionOutputScriptHashes = new HashMap<>();
+        final HashMap<TransactionOutputId, Long> transactionOutputAmounts = new HashMap<>();
+        final HashSet<TransactionId> transactionIds = new HashSet<>();
+
+        for (final Sha256Hash scriptHash : uniqueScriptHashes) { // Load credits...
+            _keyValueStore.scan(_getScriptHashKeyPrefix(scriptHash), new KeyValueStore.Visitor() {
+                @Override
+                public Boolean visit(final ByteArray key, final ByteArray value) {
+                    final ByteBuffer keyBuffer = ByteBuffer.wrap(key.getBytes());
+                    keyBuffer.position(1 + Sha256Hash.BYTE_COUNT);
+                    final TransactionId transactionId = TransactionId.wrap(keyBuffer.getLong());
+                    final Integer outputIndex = keyBuffer.getInt();
+                    final Long amount = ByteBuffer.wrap(value.getBytes()).getLong();
+
+                    final TransactionOutputId transactionOutputId = new TransactionOutputId(transactionId, outputIndex);
+                    transactionOutputScriptHashes.put(transactionOutputId, scriptHash);
+                    transactionOutputAmounts.put(transactionOutputId, amount);
+                    transactionIds.add(transactionId);
+                    return true;
+                }
+            });
+        }
+
+        final MutableList<Tuple<TransactionId, TransactionOutputId>> transactionInputs = new MutableList<>();
+        for (final TransactionOutputId transactionOutputId : transactionOutputScriptHashes.keySet()) { // Load debits...
+            final ByteArray keyPrefix = _getTransactionInputKeyPrefix(transactionOutputId.getTransactionId(), transactionOutputId.getOutputIndex());
+            _keyValueStore.scan(keyPrefix, new KeyValueStore.Visitor() {
+                @Override
+                public Boolean visit(final ByteArray key, final ByteArray value) {
+                    final ByteBuffer keyBuffer = ByteBuffer.wrap(key.getBytes());
+                    keyBuffer.position(1 + 8 + 4);
+                    final TransactionId transactionId = TransactionId.wrap(keyBuffer.getLong());
+
+                    transactionInputs.add(new Tuple<>(transactionId, transactionOutputId));
+                    transactionIds.add(transactionId);
+                    return true;
+                }
+            });
+        }
+
+        // Determine which Transactions are connected to the provided blockchainSegmentId, once for all scriptHashes...
+        final Set<Tuple<TransactionId, BlockchainSegmentId>> transactionBlockchainSegmentIds = _getTransactionBlockchainSegmentIds(transactionIds);
+        final Set<TransactionId> connectedTransactionIds = _filterTransactionsConnectedToBlockchainSegment(transactionBlockchainSegmentIds, blockchainSegmentId, includeUnconfirmedTransactions);
+        final Set<TransactionId> unconfirmedTransactionIds = _getUnconfirmedTransactionIds(transactionBlockchainSegmentIds, connectedTransactionIds);
+
+        final HashSet<TransactionId> creditedTransactionIds = new HashSet<>();
+        for (final TransactionOutputId transactionOutputId : transactionOutputScriptHashes.keySet()) {
+            final TransactionId transactionId = transactionOutputId.getTransactionId();
+            if (connectedTransactionIds.contains(transactionId)) {
+                creditedTransactionIds.add(transactionId);
+            }
+        }
+        final Map<TransactionId, Sha256Hash> transactionHashes = _getTransactionHashes(creditedTransactionIds);
+
+        for (final TransactionOutputId transactionOutputId : transactionOutputScriptHashes.keySet()) {
+            final TransactionId transactionId = transactionOutputId.getTransactionId();
+            if (! connectedTransactionIds.contains(transactionId)) { continue; }
+
+            final Sha256Hash scriptHash = transactionOutputScriptHashes.get(transactionOutputId);
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+            final Sha256Hash transactionHash = transactionHashes.get(transactionId);
+            final Long amount = transactionOutputAmounts.get(transactionOutputId);
+
+            transactions.transactionIds.add(transactionId);
+            transactions.transactionOutputs.add(new IndexedTransactionOutput(transactionId, transactionHash, transactionOutputId.getOutputIndex(), amount));
+            if (unconfirmedTransactionIds.contains(transactionId)) {
+                transactions.unconfirmedTransactionIds.add(transactionId);
+            }
+        }
+
+        for (final Tuple<TransactionId, TransactionOutputId> transactionInput : transactionInputs) {
+            final TransactionId transactionId = transactionInput.first;
+            if (! connectedTransactionIds.contains(transactionId)) { continue; }
+
+            final TransactionOutputId spentTransactionOutputId = transactionInput.second;
+            final Sha256Hash scriptHash = transactionOutputScriptHashes.get(spentTransactionOutputId);
+            final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+            transactions.transactionIds.add(transactionId);
+            transactions.spentTransactionOutputIds.add(spentTransactionOutputId);
+            if (unconfirmedTransactionIds.contains(transactionId)) {
+                transactions.unconfirmedTransactionIds.add(transactionId);
+                transactions.unconfirmedSpentTransactionOutputIds.add(spentTransactionOutputId);
+            }
+        }
+
+        return scriptHashTransactions;
+    }
+
+    @Override
+    protected AddressTransactions _getAddressTransactions(final BlockchainSegmentId blockchainSegmentId, final Address address, final Sha256Hash nullableScriptHash, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final Sha256Hash scriptHash = ((nullableScriptHash != null) ? nullableScriptHash : ScriptBuilder.computeScriptHash(address));
+
+        final Map<Sha256Hash, ScriptHashTransactions> scriptHashTransactions = _getScriptHashTransactions(blockchainSegmentId, new ImmutableList<>(scriptHash), includeUnconfirmedTransactions);
+        final ScriptHashTransactions transactions = scriptHashTransactions.get(scriptHash);
+
+        final HashMap<TransactionId, MutableList<Integer>> previousOutputs = new HashMap<>();
+        for (final IndexedTransactionOutput transactionOutput : transactions.transactionOutputs) {
+            final TransactionId transactionId = transactionOutput.getTransactionId();
+
+            MutableList<Integer> indexes = previousOutputs.get(transactionId);
+            if (indexes == null) {
+                indexes = new MutableList<>(1);
+                previousOutputs.put(transactionId, indexes);
+            }
+            indexes.add(transactionOutput.getOutputIndex());
+        }
+
+        final HashMap<TransactionId, MutableList<Integer>> spentOutputs = new HashMap<>();
+        for (final TransactionOutputId transactionOutputId : transactions.spentTransactionOutputIds) {
+            final TransactionId spentTransactionId = transactionOutputId.getTransactionId();
+
+            MutableList<Integer> indexes = spentOutputs.get(spentTransactionId);
+            if (indexes == null) {
+                indexes = new MutableList<>(1);
+                spentOutputs.put(spentTransactionId, indexes);
+            }
+            indexes.add(transactionOutputId.getOutputIndex());
+        }
+
+        return new AddressTransactions(blockchainSegmentId, new ImmutableList<>(transactions.transactionIds), previousOutputs, spentOutputs);
+    }
+
+    @Override
+    protected Long _getAddressBalance(final BlockchainSegmentId blockchainSegmentId, final Address address, final Sha256Hash nullableScriptHash, final Boolean includeUnconfirmedTransactions) throws DatabaseException {
+        final Sha256Hash scriptHash = ((nullableScriptHash != null) ? nullableScriptHash : ScriptBuilder.computeScriptHash(address));
+        final Map<Sha256Hash, Long> balances = this.getAddressBalances(blockchainSegmentId, new ImmutableList<>(scriptHash), includeUnconfirmedTransactions);
+        return balances.get(scriptHash);
+    }
+
+    @Override
+    protected Boolean _areScriptHashBalancesCurrent(final BlockchainSegmentId blockchainSegmentId) {
+        return false;
+    }
+
+    public KeyValueBlockchainIndexerDatabaseManager(final AddressInflater addressInflater, final FullNodeDatabaseManager databaseManager, final KeyValueStore keyValueStore) {
+        super(addressInflater, databaseManager);
+        _keyValueStore = keyValueStore;
+    }
+
+    @Override
+    public Integer updateScriptHashBalances(final Integer maxBlockCount) {
+        return 0;
+    }
+
+    @Override
+    public Map<Integer, TransactionId> getTransactionsSpendingOutputsOf(final TransactionId transactionId) throws DatabaseException {
+        final HashMap<Integer, TransactionId> spentOutputsMap = new HashMap<>();
+        _keyValueStore.scan(_getTransactionInputKeyPrefix(transactionId, null), new KeyValueStore.Visitor() {
+            @Override
+            public Boolean visit(final ByteArray key, final ByteArray value) {
+                final ByteBuffer keyBuffer = ByteBuffer.wrap(key.getBytes());
+                keyBuffer.position(1 + 8);
+                final Integer spendsOutputIndex = keyBuffer.getInt();
+                final TransactionId spendingTransactionId = TransactionId.wrap(keyBuffer.getLong());
+
+                spentOutputsMap.put(spendsOutputIndex, spendingTransactionId);
+                return true;
+            }
+        });
+        return spentOutputsMap;
+    }
+
+    @Override
+    public List<TransactionId> getUnprocessedTransactions(final Integer batchSize) throws DatabaseException {
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+
+        // The unconfirmed Transactions are read in pages, since most are usually already indexed...
+        final int pageSize = Math.max(batchSize, UNPROCESSED_TRANSACTIONS_PAGE_SIZE);
+        final ImmutableListBuilder<TransactionId> listBuilder = new ImmutableListBuilder<>(batchSize);
+        long previousTransactionId = 0L;
+        while (listBuilder.getCount() < batchSize) {
+            final java.util.List<Row> rows = databaseConnection.query(
+                new Query("SELECT transaction_id FROM unconfirmed_transactions WHERE transaction_id > ? ORDER BY transaction_id ASC LIMIT " + pageSize)
+                    .setParameter(previousTransactionId)
+            );
+
+            for (final Row row : rows) {
+                final TransactionId transactionId = TransactionId.wrap(row.getLong("transaction_id"));
+                previousTransactionId = transactionId.longValue();
+
+                // Every Transaction has a first output, so a Transaction without an indexed first output has not been indexed...
+                final ByteArray transactionOutput = _keyValueStore.get(_getTransactionOutputKey(transactionId, 0));
+                if (transactionOutput == null) {
+                    listBuilder.add(transactionId);
+                    if (listBuilder.getCount() >= batchSize) { break; }
+                }
+            }
+
+            if (rows.size() < pageSize) { break; }
+        }
+        return listBuilder.build();
+    }
+
+    @Override
+    public void indexTransactionOutputs(final List<TransactionId> transactionIds, final List<Integer> outputIndexes, final List<Long> amounts, final List<ScriptType> scriptTypes, final List<Address> addresses, final List<Sha256Hash> scriptHashes, final List<TransactionId> slpTransactionIds, final List<ByteArray> memoActionTypes, final List<ByteArray> memoActionIdentifiers) throws DatabaseException {
+        final int itemCount = transactionIds.getCount();
+        if (outputIndexes.getCount()            != itemCount) { throw new DatabaseException("Mismatch parameter count outputIndexes expected "          + itemCount + " got " + outputIndexes.getCount()); }
+        if (amounts.getCount()                  != itemCount) { throw new DatabaseException("Mismatch parameter count amounts expected "                + itemCount + " got " + amounts.getCount()); }
+        if (scriptHashes.getCount()             != itemCount) { throw new DatabaseException("Mismatch parameter count scriptHashes expected "           + itemCount + " got " + scriptHashes.getCount()); }
+        if (slpTransactionIds.getCount()        != itemCount) { throw new DatabaseException("Mismatch parameter count slpTransactionIds expected "      + itemCount + " got " + slpTransactionIds.getCount()); }
+
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch(itemCount * 2);
+        final MutableList<Integer> slpItemIndexes = new MutableList<>(0);
+        for (int i = 0; i < itemCount; ++i) {
+            final TransactionId transactionId = transactionIds.get(i);
+            final Integer outputIndex = outputIndexes.get(i);
+            final Long amount = amounts.get(i);
+            final Sha256Hash scriptHash = scriptHashes.get(i);
+
+            writeBatch.put(_getTransactionOutputKey(transactionId, outputIndex), _encodeTransactionOutput(amount, scriptHash));
+            if (scriptHash != null) {
+                writeBatch.put(_getScriptHashKey(scriptHash, transactionId, outputIndex), _encodeAmount(amount));
+            }
+
+            if (slpTransactionIds.get(i) != null) {
+                slpItemIndexes.add(i);
+            }
+        }
+        _keyValueStore.write(writeBatch);
+
+        if (slpItemIndexes.isEmpty()) { return; }
+
+        // SLP validation queries indexed_transaction_outputs directly, so SLP outputs are also stored within the database...
+        final int slpItemCount = slpItemIndexes.getCount();
+        final ImmutableListBuilder<TransactionId> slpOutputTransactionIds = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<Integer> slpOutputIndexes = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<Long> slpOutputAmounts = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<ScriptType> slpOutputScriptTypes = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<Address> slpOutputAddresses = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<Sha256Hash> slpOutputScriptHashes = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<TransactionId> slpOutputSlpTransactionIds = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<ByteArray> slpOutputMemoActionTypes = new ImmutableListBuilder<>(slpItemCount);
+        final ImmutableListBuilder<ByteArray> slpOutputMemoActionIdentifiers = new ImmutableListBuilder<>(slpItemCount);
+        for (final Integer itemIndex : slpItemIndexes) {
+            slpOutputTransactionIds.add(transactionIds.get(itemIndex));
+            slpOutputIndexes.add(outputIndexes.get(itemIndex));
+            slpOutputAmounts.add(amounts.get(itemIndex));
+            slpOutputScriptTypes.add(scriptTypes.get(itemIndex));
+            slpOutputAddresses.add(addresses.get(itemIndex));
+            slpOutputScriptHashes.add(scriptHashes.get(itemIndex));
+            slpOutputSlpTransactionIds.add(slpTransactionIds.get(itemIndex));
+            slpOutputMemoActionTypes.add(memoActionTypes.get(itemIndex));
+            slpOutputMemoActionIdentifiers.add(memoActionIdentifiers.get(itemIndex));
+        }
+
+        super.indexTransactionOutputs(slpOutputTransactionIds.build(), slpOutputIndexes.build(), slpOutputAmounts.build(), slpOutputScriptTypes.build(), slpOutputAddresses.build(), slpOutputScriptHashes.build(), slpOutputSlpTransactionIds.build(), slpOutputMemoActionTypes.build(), slpOutputMemoActionIdentifiers.build());
+    }
+
+    @Override
+    public void indexTransactionInputs(final List<TransactionId> transactionIds, final List<Integer> inputIndexes, final List<TransactionOutputId> transactionOutputIds) throws DatabaseException {
+        final int itemCount = transactionIds.getCount();
+        if (inputIndexes.getCount()                 != itemCount) { throw new DatabaseException("Mismatch parameter count inputIndexes expected "           + itemCount + " got " + inputIndexes.getCount()); }
+        if (transactionOutputIds.getCount()         != itemCount) { throw new DatabaseException("Mismatch parameter count transactionOutputIds expected "   + itemCount + " got " + transactionOutputIds.getCount()); }
+
+        final ByteArray emptyValue = ByteArray.wrap(new byte[0]);
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch(itemCount);
+        for (int i = 0; i < itemCount; ++i) {
+            writeBatch.put(_getTransactionInputKey(transactionOutputIds.get(i), transactionIds.get(i), inputIndexes.get(i)), emptyValue);
+        }
+        _keyValueStore.write(writeBatch);
+    }
+
+    @Override
+    public void deleteTransactionIndexes() throws DatabaseException {
+        super.deleteTransactionIndexes();
+        _keyValueStore.clear();
+    }
+}
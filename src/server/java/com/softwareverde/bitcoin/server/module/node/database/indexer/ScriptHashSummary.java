@@ -0,0 +1,47 @@
+package com.softwareverde.bitcoin.server.module.node.database.indexer;
+
+import com.softwareverde.constable.Const;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * The balances of a single scriptHash, with its history and unspent outputs when they were requested.
+ */
+public class ScriptHashSummary implements Const {
+    protected final Long _balance;
+    protected final Long _confirmedBalance;
+    protected final List<Sha256Hash> _transactionHashes;
+    protected final List<IndexedTransactionOutput> _unspentTransactionOutputs;
+
+    public ScriptHashSummary(final Long balance, final Long confirmedBalance, final List<Sha256Hash> transactionHashes, final List<IndexedTransactionOutput> unspentTransactionOutputs) {
+        _balance = balance;
+        _confirmedBalance = confirmedBalance;
+        _transactionHashes = transactionHashes;
+        _unspentTransactionOutputs = unspentTransactionOutputs;
+    }
+
+    /**
+     * Returns the balance including the mempool.
+     */
+    public Long getBalance() {
+        return _balance;
+    }
+
+    public Long getConfirmedBalance() {
+        return _confirmedBalance;
+    }
+
+    /**
+     * Returns null if the history was not requested.
+     */
+    public List<Sha256Hash> getTransactionHashes() {
+        return _transactionHashes;
+    }
+
+    /**
+     * Returns null if the unspent outputs were not requested.
+     */
+    public List<IndexedTransactionOutput> getUnspentTransactionOutputs() {
+        return _unspentTransactionOutputs;
+    }
+}
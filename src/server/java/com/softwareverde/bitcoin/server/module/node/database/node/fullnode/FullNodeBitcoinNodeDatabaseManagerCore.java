@@ -3,7 +3,6 @@ package com.softwareverde.bitcoin.server.module.node.database.node.fullnode;
 import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
 import com.softwareverde.bitcoin.server.database.DatabaseConnection;
-import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.database.query.ValueExtractor;
 import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
@@ -65,58 +64,6 @@ public class FullNodeBitcoinNodeDatabaseManagerCore extends BitcoinNodeDatabaseM
         return true;
     }
 
-    @Override
-    public void updateTransactionInventory(final BitcoinNode node, final List<Sha256Hash> transactionHashes) throws DatabaseException {
-        if (transactionHashes.isEmpty()) { return; }
-
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-
-        final Ip ip = node.getIp();
-        final Integer port = node.getPort();
-
-        final NodeId nodeId = _getNodeId(ip, port);
-        if (nodeId == null) { return; }
-
-        final BatchedInsertQuery batchedInsertQuery = new BatchedInsertQuery("INSERT IGNORE INTO node_transactions_inventory (node_id, hash) VALUES (?, ?)");
-        for (final Sha256Hash transactionHash : transactionHashes) {
-            batchedInsertQuery.setParameter(nodeId);
-            batchedInsertQuery.setParameter(transactionHash);
-        }
-
-        databaseConnection.executeSql(batchedInsertQuery);
-    }
-
-    @Override
-    public List<NodeId> filterNodesViaTransactionInventory(final List<NodeId> nodeIds, final Sha256Hash transactionHash, final FilterType filterType) throws DatabaseException {
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-
-        final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT node_id FROM node_transactions_inventory WHERE hash = ? AND node_id IN (?)")
-                .setParameter(transactionHash)
-                .setInClauseParameters(nodeIds, ValueExtractor.IDENTIFIER)
-        );
-
-        final HashSet<NodeId> filteredNodes = new HashSet<>(rows.size());
-        if (filterType == FilterType.KEEP_NODES_WITHOUT_INVENTORY) {
-            for (final NodeId nodeId : nodeIds) {
-                filteredNodes.add(nodeId);
-            }
-        }
-
-        for (final Row row : rows) {
-            final NodeId nodeWithTransaction = NodeId.wrap(row.getLong("node_id"));
-
-            if (filterType == FilterType.KEEP_NODES_WITHOUT_INVENTORY) {
-                filteredNodes.remove(nodeWithTransaction);
-            }
-            else {
-                filteredNodes.add(nodeWithTransaction);
-            }
-        }
-
-        return new ImmutableList<>(filteredNodes);
-    }
-
     @Override
     public List<NodeId> filterNodesViaBlockInventory(final List<NodeId> nodeIds, final Sha256Hash blockHash, final FilterType filterType) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -11,6 +11,8 @@ import com.softwareverde.constable.list.List;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 
+import java.util.Map;
+
 public interface FullNodeTransactionDatabaseManager extends TransactionDatabaseManager {
     Boolean isCoinbaseTransaction(Sha256Hash transactionHash) throws DatabaseException;
 
@@ -20,6 +22,14 @@ public interface FullNodeTransactionDatabaseManager extends TransactionDatabaseM
     List<TransactionId> storeTransactionHashes(List<Transaction> transactions) throws DatabaseException;
     List<TransactionId> storeTransactionHashes(List<Transaction> transactions, DatabaseConnectionFactory databaseConnectionFactory, Integer maxConnectionCount) throws DatabaseException;
     Boolean previousOutputsExist(Transaction transaction) throws DatabaseException;
+    Map<TransactionId, Sha256Hash> getTransactionHashes(List<TransactionId> transactionIds) throws DatabaseException;
+
+    /**
+     * Returns the Transaction as a lazily-decoded TransactionView when it is stored within a Block.
+     *  Unconfirmed Transactions are returned fully inflated.
+     *  A DatabaseException is thrown if the stored bytes are not a well-formed Transaction.
+     */
+    Transaction getTransactionView(TransactionId transactionId) throws DatabaseException;
 
     TransactionId storeUnconfirmedTransaction(Transaction transaction) throws DatabaseException;
     List<TransactionId> storeUnconfirmedTransactions(List<Transaction> transactions) throws DatabaseException;
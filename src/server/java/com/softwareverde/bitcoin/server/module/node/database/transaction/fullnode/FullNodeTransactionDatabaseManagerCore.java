@@ -24,6 +24,7 @@ import com.softwareverde.bitcoin.transaction.MutableTransaction;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.bitcoin.transaction.TransactionInflater;
+import com.softwareverde.bitcoin.transaction.TransactionView;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.input.UnconfirmedTransactionInputId;
 import com.softwareverde.bitcoin.transaction.locktime.ImmutableLockTime;
@@ -224,7 +225,7 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return transaction;
     }
 
-    protected Transaction _getTransaction(final TransactionId transactionId) throws DatabaseException {
+    protected ByteArray _getTransactionBytes(final TransactionId transactionId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         // Attempt to load the Transaction from a Block on disk...
@@ -240,7 +241,11 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         final Long diskOffset = row.getLong("disk_offset");
         final Integer byteCount = row.getInteger("byte_count");
 
-        final ByteArray transactionData = _blockStore.readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
+        return _blockStore.readFromBlock(blockHash, blockHeight, diskOffset, byteCount);
+    }
+
+    protected Transaction _getTransaction(final TransactionId transactionId) throws DatabaseException {
+        final ByteArray transactionData = _getTransactionBytes(transactionId);
         if (transactionData == null) { return null; }
 
         final TransactionInflater transactionInflater = _masterInflater.getTransactionInflater();
@@ -432,6 +437,20 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return _getUnconfirmedTransaction(transactionId);
     }
 
+    @Override
+    public Transaction getTransactionView(final TransactionId transactionId) throws DatabaseException {
+        final ByteArray transactionData = _getTransactionBytes(transactionId);
+        if (transactionData != null) {
+            final TransactionView transactionView = TransactionView.wrap(transactionData);
+            if (transactionView == null) {
+                throw new DatabaseException("Malformed Transaction: " + transactionId);
+            }
+            return transactionView;
+        }
+
+        return _getUnconfirmedTransaction(transactionId);
+    }
+
     @Override
     public Map<Sha256Hash, Transaction> getTransactions(final List<Sha256Hash> transactionHashes) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -1039,6 +1058,33 @@ public class FullNodeTransactionDatabaseManagerCore implements FullNodeTransacti
         return Sha256Hash.wrap(row.getBytes("hash"));
     }
 
+    @Override
+    public Map<TransactionId, Sha256Hash> getTransactionHashes(final List<TransactionId> transactionIds) throws DatabaseException {
+        if (transactionIds.isEmpty()) { return new HashMap<>(0); }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
+        final HashMap<TransactionId, Sha256Hash> transactionHashes = new HashMap<>(transactionIds.getCount());
+
+        final Integer batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<TransactionId> batchRunner = new BatchRunner<>(batchSize, false);
+        batchRunner.run(transactionIds, new BatchRunner.Batch<TransactionId>() {
+            @Override
+            public void run(final List<TransactionId> batchItems) throws Exception {
+                final java.util.List<Row> rows = databaseConnection.query(
+                    new Query("SELECT id, hash FROM transactions WHERE id IN (?)")
+                        .setInClauseParameters(batchItems, ValueExtractor.IDENTIFIER)
+                );
+
+                for (final Row row : rows) {
+                    final TransactionId transactionId = TransactionId.wrap(row.getLong("id"));
+                    final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("hash"));
+                    transactionHashes.put(transactionId, transactionHash);
+                }
+            }
+        });
+        return transactionHashes;
+    }
+
     @Override
     public BlockId getBlockId(final BlockchainSegmentId blockchainSegmentId, final TransactionId transactionId) throws DatabaseException {
         final BlockHeaderDatabaseManager blockHeaderDatabaseManager = _databaseManager.getBlockHeaderDatabaseManager();
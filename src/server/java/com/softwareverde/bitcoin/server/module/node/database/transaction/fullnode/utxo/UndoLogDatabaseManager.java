@@ -3,26 +3,38 @@ package com.softwareverde.bitcoin.server.module.node.database.transaction.fullno
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.context.UnspentTransactionOutputContext;
 import com.softwareverde.bitcoin.server.database.DatabaseConnection;
-import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
 import com.softwareverde.bitcoin.server.database.query.Query;
-import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.store.UndoLogStore;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
-import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
-import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
+import com.softwareverde.database.row.Row;
 import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.MilliTimer;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Maintains the undo log of each recently connected block: the previous outputs spent by the block, which are restored
+ *  to the UTXO set if the block is disconnected.  Undo logs are written sequentially to per-block files via the UndoLogStore,
+ *  read back only during a reorg, and removed once they are more than MAX_REORG_DEPTH blocks below the committed UTXO set.
+ *  Databases created before undo log files retain their undo logs within the pruned_previous_transaction_outputs table;
+ *  those rows remain readable until they expire, after which the table is no longer queried.
+ */
 public class UndoLogDatabaseManager {
     public static final ReentrantReadWriteLock.WriteLock WRITE_LOCK;
     public static final ReentrantReadWriteLock.ReadLock READ_LOCK;
@@ -34,16 +46,18 @@ public class UndoLogDatabaseManager {
 
     public static final Integer MAX_REORG_DEPTH = 288;
 
-    protected final DatabaseManager _databaseManager;
+    protected static volatile Boolean LEGACY_PRUNED_OUTPUTS_EXIST = true; // Cleared once the legacy table is found to be empty.
 
-    protected void _createUndoLog(final Long blockHeight, final Block block, final UnspentTransactionOutputContext unspentTransactionOutputContext, final DatabaseConnection databaseConnection) throws DatabaseException {
+    protected final FullNodeDatabaseManager _databaseManager;
+    protected final UndoLogStore _undoLogStore;
+
+    protected HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> _getSpentTransactionOutputs(final Long blockHeight, final Block block, final UnspentTransactionOutputContext unspentTransactionOutputContext) throws DatabaseException {
         final List<Transaction> transactions = block.getTransactions();
         final int transactionCount = transactions.getCount();
 
-        final HashMap<TransactionOutputIdentifier, TransactionOutput> transactionOutputs = new HashMap<>();
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = new HashMap<>();
         final MutableList<TransactionOutputIdentifier> missingPreviousOutputs = new MutableList<>();
         final HashMap<Sha256Hash, Transaction> blockTransactions = new HashMap<>(transactionCount);
-        final HashMap<TransactionOutputIdentifier, Long> utxoBlockHeights = new HashMap<>();
 
         boolean isCoinbase = true;
         for (final Transaction transaction : transactions) {
@@ -64,9 +78,9 @@ public class UndoLogDatabaseManager {
                 }
 
                 final Long utxoBlockHeight = unspentTransactionOutputContext.getBlockHeight(transactionOutputIdentifier);
+                final Boolean utxoIsCoinbase = unspentTransactionOutputContext.isCoinbaseTransactionOutput(transactionOutputIdentifier);
 
-                transactionOutputs.put(transactionOutputIdentifier, unspentTransactionOutput);
-                utxoBlockHeights.put(transactionOutputIdentifier, utxoBlockHeight);
+                spentTransactionOutputs.put(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(unspentTransactionOutput, utxoBlockHeight, Util.coalesce(utxoIsCoinbase, false)));
             }
         }
 
@@ -85,102 +99,133 @@ public class UndoLogDatabaseManager {
             }
 
             final TransactionOutput transactionOutput = outputs.get(outputIndex);
-            transactionOutputs.put(transactionOutputIdentifier, transactionOutput);
-            utxoBlockHeights.put(transactionOutputIdentifier, blockHeight);
+            spentTransactionOutputs.put(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(transactionOutput, blockHeight, false));
         }
 
-        if (transactionOutputs.isEmpty()) { return; } // Block contains only its coinbase...
-
-        final Long expiresAfterBlockHeight = (blockHeight + UndoLogDatabaseManager.MAX_REORG_DEPTH);
-
-        // TODO: Confirm "GREATEST(VALUES(value), value)" is not affected by MariaDB bug as of v10.5.9-p1.
-        final BatchedInsertQuery query = new BatchedInsertQuery("INSERT INTO pruned_previous_transaction_outputs (transaction_hash, `index`, block_height, amount, locking_script, expires_after_block_height) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE block_height = VALUES(block_height), expires_after_block_height = GREATEST(VALUES(expires_after_block_height), expires_after_block_height)");
-        for (Map.Entry<TransactionOutputIdentifier, TransactionOutput> transactionOutputEntry : transactionOutputs.entrySet()) {
-            final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputEntry.getKey();
-            final TransactionOutput transactionOutput = transactionOutputEntry.getValue();
-            final Long utxoBlockHeight = utxoBlockHeights.get(transactionOutputIdentifier);
-
-            final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
-            final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
+        return spentTransactionOutputs;
+    }
 
-            final Long amount = transactionOutput.getAmount();
-            final LockingScript lockingScript = transactionOutput.getLockingScript();
-            final ByteArray lockingScriptBytes = lockingScript.getBytes();
+    protected void _createUndoLog(final Long blockHeight, final Block block, final UnspentTransactionOutputContext unspentTransactionOutputContext) throws DatabaseException {
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = _getSpentTransactionOutputs(blockHeight, block, unspentTransactionOutputContext);
 
-            query.setParameter(transactionHash);
-            query.setParameter(outputIndex);
-            query.setParameter(utxoBlockHeight);
-            query.setParameter(amount);
-            query.setParameter(lockingScriptBytes);
-            query.setParameter(expiresAfterBlockHeight);
+        // NOTE: An undo log is written even if the block contains only its coinbase, so that its absence indicates it was never created.
+        final Sha256Hash blockHash = block.getHash();
+        final Boolean undoLogWasStored = _undoLogStore.storeUndoLog(blockHeight, blockHash, spentTransactionOutputs);
+        if (! undoLogWasStored) {
+            throw new DatabaseException("Unable to store undo log for block: " + blockHash);
         }
-
-        databaseConnection.executeSql(query);
     }
 
-    protected void _clearExpiredPrunedOutputs(final Long committedBlockHeight, final DatabaseConnection databaseConnection) throws DatabaseException {
-        // Delete expired pruning/undoLog outputs...
+    protected void _removeExpiredUndoLogs(final Long committedBlockHeight) {
         final MilliTimer milliTimer = new MilliTimer();
         milliTimer.start();
 
-        // final java.util.List<Row> heightRows = databaseConnection.query(
-        //     new Query("SELECT DISTINCT expires_after_block_height FROM pruned_previous_transaction_outputs WHERE expires_after_block_height >= ? ORDER BY expires_after_block_height ASC")
-        //         .setParameter(committedBlockHeight)
-        // );
-        // for (final Row row : heightRows) {
-        //     final Long blockHeight = row.getLong("expires_after_block_height");
-        //
-        //     databaseConnection.executeSql(
-        //         new Query("INSERT INTO pruned_previous_transaction_outputs_buffer SELECT * FROM pruned_previous_transaction_outputs WHERE expires_after_block_height = ?")
-        //             .setParameter(blockHeight)
-        //     );
-        // }
+        // Undo logs are retained for MAX_REORG_DEPTH blocks below the committed UTXO set's height.
+        final long minimumBlockHeight = (committedBlockHeight - UndoLogDatabaseManager.MAX_REORG_DEPTH);
+        _undoLogStore.removeUndoLogsBelow(minimumBlockHeight);
+
+        milliTimer.stop();
+        Logger.trace("Removed expired undo logs in " + milliTimer.getMillisecondsElapsed() + "ms.");
+    }
+
+    /**
+     * Deletes the expired rows of the legacy pruned_previous_transaction_outputs table.
+     *  No rows are added to the table, so it becomes empty once its newest undo log expires.
+     */
+    protected void _removeExpiredLegacyPrunedOutputs(final Long committedBlockHeight) throws DatabaseException {
+        if (! LEGACY_PRUNED_OUTPUTS_EXIST) { return; }
+
+        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         databaseConnection.executeSql(
-            new Query("INSERT INTO pruned_previous_transaction_outputs_buffer SELECT * FROM pruned_previous_transaction_outputs WHERE expires_after_block_height >= ?")
+            new Query("DELETE FROM pruned_previous_transaction_outputs WHERE expires_after_block_height < ?")
                 .setParameter(committedBlockHeight)
         );
 
-        // NOTICE: The method of table rotation and truncation causes an implicit database commit.
-
-        // databaseConnection.executeDdl(
-        //     new Query("RENAME TABLE pruned_previous_transaction_outputs TO pruned_previous_transaction_outputs2, pruned_previous_transaction_outputs_buffer TO pruned_previous_transaction_outputs, pruned_previous_transaction_outputs2 TO pruned_previous_transaction_outputs_buffer")
-        //         .setParameter(newCommittedBlockHeight)
-        // );
-        //
-        // databaseConnection.executeDdl(
-        //     new Query("TRUNCATE TABLE pruned_previous_transaction_outputs_buffer")
-        //         .setParameter(newCommittedBlockHeight)
-        // );
-        databaseConnection.executeSql(
-            new Query("CALL ROTATE_PRUNED_PREVIOUS_TRANSACTION_OUTPUTS")
+        final java.util.List<Row> rows = databaseConnection.query(
+            new Query("SELECT 1 FROM pruned_previous_transaction_outputs LIMIT 1")
         );
-
-        milliTimer.stop();
-        Logger.trace("Cleared expired pruned outputs in " + milliTimer.getMillisecondsElapsed() + "ms.");
+        if (rows.isEmpty()) {
+            LEGACY_PRUNED_OUTPUTS_EXIST = false;
+            Logger.debug("Legacy pruned outputs have expired.");
+        }
     }
 
-    public UndoLogDatabaseManager(final DatabaseManager databaseManager) {
+    public UndoLogDatabaseManager(final FullNodeDatabaseManager databaseManager) {
         _databaseManager = databaseManager;
+        _undoLogStore = databaseManager.getUndoLogStore();
     }
 
     public void createUndoLog(final Long blockHeight, final Block block, final UnspentTransactionOutputContext unspentTransactionOutputContext) throws DatabaseException {
         try {
             WRITE_LOCK.lock();
 
-            final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-            _createUndoLog(blockHeight, block, unspentTransactionOutputContext, databaseConnection);
+            _createUndoLog(blockHeight, block, unspentTransactionOutputContext);
         }
         finally {
             WRITE_LOCK.unlock();
         }
     }
 
-    public void clearExpiredPrunedOutputs(final Long committedBlockHeight) throws DatabaseException {
+    /**
+     * Returns the outputs spent by the block at blockHeight, or null if the block's undo log does not exist.
+     */
+    public Map<TransactionOutputIdentifier, UnspentTransactionOutput> getUndoLog(final Long blockHeight, final Sha256Hash blockHash) {
         try {
-            WRITE_LOCK.lock();
+            READ_LOCK.lock();
+
+            return _undoLogStore.getUndoLog(blockHeight, blockHash);
+        }
+        finally {
+            READ_LOCK.unlock();
+        }
+    }
+
+    public Boolean undoLogExists(final Long blockHeight, final Sha256Hash blockHash) {
+        try {
+            READ_LOCK.lock();
+
+            return _undoLogStore.undoLogExists(blockHeight, blockHash);
+        }
+        finally {
+            READ_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the spent output from the legacy pruned_previous_transaction_outputs table, or null if it is not present.
+     */
+    public UnspentTransactionOutput getLegacyPrunedTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
+        if (! LEGACY_PRUNED_OUTPUTS_EXIST) { return null; }
+
+        try {
+            READ_LOCK.lock();
 
             final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-            _clearExpiredPrunedOutputs(committedBlockHeight, databaseConnection);
+            final java.util.List<Row> rows = databaseConnection.query(
+                new Query("SELECT block_height, is_coinbase, amount, locking_script FROM pruned_previous_transaction_outputs WHERE transaction_hash = ? AND `index` = ?")
+                    .setParameter(transactionOutputIdentifier.getTransactionHash())
+                    .setParameter(transactionOutputIdentifier.getOutputIndex())
+            );
+            if (rows.isEmpty()) { return null; }
+
+            final Row row = rows.get(0);
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(transactionOutputIdentifier.getOutputIndex());
+            transactionOutput.setAmount(row.getLong("amount"));
+            transactionOutput.setLockingScript(new ImmutableLockingScript(MutableByteArray.wrap(row.getBytes("locking_script"))));
+            return new ImmutableUnspentTransactionOutput(transactionOutput, row.getLong("block_height"), row.getBoolean("is_coinbase"));
+        }
+        finally {
+            READ_LOCK.unlock();
+        }
+    }
+
+    public void removeExpiredUndoLogs(final Long committedBlockHeight) throws DatabaseException {
+        try {
+            WRITE_LOCK.lock();
+
+            _removeExpiredUndoLogs(committedBlockHeight);
+            _removeExpiredLegacyPrunedOutputs(committedBlockHeight);
         }
         finally {
             WRITE_LOCK.unlock();
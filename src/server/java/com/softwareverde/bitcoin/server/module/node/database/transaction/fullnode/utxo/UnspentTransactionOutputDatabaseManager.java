@@ -7,7 +7,9 @@ import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutput
 import com.softwareverde.constable.list.List;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
+import com.softwareverde.util.Util;
 
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public interface UnspentTransactionOutputDatabaseManager {
@@ -54,6 +56,29 @@ public interface UnspentTransactionOutputDatabaseManager {
         return UtxoCacheStaticState.isUtxoCacheReady();
     }
 
+    /**
+     * Restricts the UTXO cache to hold at most maxUtxoCount UTXOs, regardless of the configured maximum.
+     *  The restriction is applied by the next UTXO commit.  A null or non-positive maxUtxoCount removes the restriction.
+     */
+    static void setGovernedMaxUtxoCount(final Long maxUtxoCount) {
+        UtxoCacheStaticState.GOVERNED_MAX_UTXO_COUNT.set(Math.max(0L, Util.coalesce(maxUtxoCount, 0L)));
+    }
+
+    /**
+     * Returns the UTXO count restriction set via ::setGovernedMaxUtxoCount, or null if the cache is unrestricted.
+     */
+    static Long getGovernedMaxUtxoCount() {
+        final long governedMaxUtxoCount = UtxoCacheStaticState.GOVERNED_MAX_UTXO_COUNT.get();
+        return (governedMaxUtxoCount > 0L ? governedMaxUtxoCount : null);
+    }
+
+    /**
+     * Returns the total number of unspent UTXOs purged from the cache in order to satisfy its maximum size.
+     */
+    static Long getEvictedUtxoCount() {
+        return UtxoCacheStaticState.EVICTED_UTXO_COUNT.get();
+    }
+
     void markTransactionOutputsAsSpent(List<TransactionOutputIdentifier> spentTransactionOutputIdentifiers) throws DatabaseException;
     void insertUnspentTransactionOutputs(List<TransactionOutputIdentifier> unspentTransactionOutputIdentifiers, List<TransactionOutput> transactionOutputs, Long blockHeight, Sha256Hash coinbaseTransactionHash) throws DatabaseException;
 
@@ -64,8 +89,9 @@ public interface UnspentTransactionOutputDatabaseManager {
 
     /**
      * Re-inserts the provided UTXOs into the UTXO set and looks up their original associated blockHeight.  These UTXOs will be synchronized to disk during the next UTXO commit.
+     *  spentTransactionOutputs is the undo log of the block being disconnected, if available, and is consulted before any other source; it may be null.
      */
-    void undoSpendingOfTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException;
+    void undoSpendingOfTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers, Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs) throws DatabaseException;
 
     UnspentTransactionOutput getUnspentTransactionOutput(TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException;
 
@@ -110,5 +136,18 @@ public interface UnspentTransactionOutputDatabaseManager {
 
     UnspentTransactionOutput findOutputData(TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException;
 
+    /**
+     * Adds the provided UTXOs, which must already exist within the committed UTXO set, to the cache without scheduling them to be written to disk.
+     *  UTXOs are only cached while the cache has capacity remaining.  Returns the number of UTXOs that were cached.
+     */
+    Integer cacheCommittedUnspentTransactionOutputs(List<TransactionOutputIdentifier> transactionOutputIdentifiers, List<UnspentTransactionOutput> transactionOutputs) throws DatabaseException;
+
+    /**
+     * Loads the committed UTXOs that are not already cached into the cache, via parallel batched queries, so that later lookups are cache hits.
+     *  Identifiers that are not unspent are ignored, and UTXOs are only cached while the cache has capacity remaining.
+     *  Returns the number of UTXOs that were cached.
+     */
+    Integer prefetchUnspentTransactionOutputs(DatabaseManagerFactory databaseManagerFactory, List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException;
+
     void visitUnspentTransactionOutputs(UnspentTransactionOutputVisitor visitor) throws DatabaseException;
 }
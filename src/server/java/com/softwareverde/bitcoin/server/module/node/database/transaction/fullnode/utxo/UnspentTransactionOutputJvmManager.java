@@ -13,9 +13,13 @@ import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFact
 import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.ConcurrentUtxoMap;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.JvmSpentState;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.SortedUtxoList;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.Utxo;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoCacheSnapshot;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoValue;
 import com.softwareverde.bitcoin.server.module.node.store.BlockStore;
@@ -29,7 +33,6 @@ import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutput
 import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
 import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
 import com.softwareverde.constable.bytearray.ByteArray;
-import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
@@ -40,7 +43,6 @@ import com.softwareverde.database.query.parameter.TypedParameter;
 import com.softwareverde.database.row.Row;
 import com.softwareverde.database.util.TransactionUtil;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.util.ByteUtil;
 import com.softwareverde.util.HexUtil;
 import com.softwareverde.util.Tuple;
 import com.softwareverde.util.Util;
@@ -48,10 +50,9 @@ import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.timer.NanoTimer;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -89,10 +90,10 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
         final MutableUnspentTransactionOutput transactionOutput = new MutableUnspentTransactionOutput();
         transactionOutput.setIndex(outputIndex);
-        transactionOutput.setBlockHeight(utxoValue.blockHeight);
-        transactionOutput.setIsCoinbase(utxoValue.isCoinbase);
-        transactionOutput.setAmount(utxoValue.amount);
-        transactionOutput.setLockingScript(ByteArray.wrap(utxoValue.lockingScript));
+        transactionOutput.setBlockHeight(utxoValue.getBlockHeight());
+        transactionOutput.setIsCoinbase(utxoValue.isCoinbase());
+        transactionOutput.setAmount(utxoValue.getAmount());
+        transactionOutput.setLockingScript(ByteArray.wrap(utxoValue.getLockingScript()));
         return transactionOutput;
     }
 
@@ -125,12 +126,97 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 Check primary cache
                 Check secondary cache
                 Check database (even during a commit this will be the expected pre-commit state)
+
+            Write-behind flushing:
+                A commit no longer waits for the previous double-buffer flush to finish.  Instead, the changes are queued
+                within the QUEUED_BUFFER and the flusher thread moves them to the DOUBLE_BUFFER once its current flush pass
+                completes; the flusher thread exits once the queue is empty.  The buffers may only use the headroom reserved for
+                them by BitcoinProperties::getMaxCachedUtxoCount and the MemoryGovernor (i.e. the maximum UTXO count), so the
+                commit only blocks (or is skipped) if the buffered UTXOs plus the UTXOs the commit would queue exceed it.
+                Each flush pass writes the DOUBLE_BUFFER in chunks of FLUSH_CHUNK_SIZE UTXOs, each within its own database
+                transaction, and removes each chunk from the DOUBLE_BUFFER once it is committed.  The committed UTXO block
+                height is only advanced once the entire pass has been written, so if the node crashes mid-pass, the
+                committed table is a mix of the previous and next commit's state, both of which are corrected by replaying
+                the blocks after the (previous) committed UTXO block height, since re-applying a block is idempotent.
+            When checking for a UTXO state:
+                Check primary cache
+                Check queued buffer
+                Check secondary cache
+                Check database
+
+            Cache snapshot:
+                Upon shutdown the unspent contents of the primary cache are written to a sharded, checksummed snapshot
+                (see UtxoCacheSnapshot) for the block height about to be committed.  Upon startup, if the snapshot's block
+                height matches the committed UTXO block height, its shards are memory-mapped and parsed in parallel and
+                the (sorted) result is inserted into the primary cache in order; no database queries are required.
+
+            Lock-free reads:
+                The primary cache and both buffers are concurrent skip-list maps, so lookups acquire neither UTXO_READ_MUTEX
+                nor the DOUBLE_BUFFER monitor.  Modifications remain serialized by UTXO_WRITE_MUTEX (and the DOUBLE_BUFFER
+                monitor), and each modification of the UTXO states is bracketed by incrementing UTXO_SET_SEQUENCE_NUMBER,
+                which is therefore odd while a modification is in progress (i.e. a seqlock).  A lookup records the sequence
+                number, performs its reads, and only returns its result if the sequence number is unchanged, otherwise it
+                retries; after MAX_OPTIMISTIC_READ_ATTEMPTS the lookup falls back to acquiring UTXO_READ_MUTEX.
+                Commits and flushes do not change any UTXO's state, only where it is stored, and are not bracketed:
+                UTXOs are always copied to their next location before being removed from their previous location
+                (primary cache -> queued buffer -> secondary cache -> database), and the locations are checked in that order.
          */
 
-    protected static final TreeMap<UtxoKey, UtxoValue> UTXO_SET = new TreeMap<>(UtxoKey.COMPARATOR);
-    protected static final TreeMap<UtxoKey, UtxoValue> DOUBLE_BUFFER = new TreeMap<>(UtxoKey.COMPARATOR);
+    protected static final ConcurrentUtxoMap UTXO_SET = new ConcurrentUtxoMap();
+    protected static final ConcurrentUtxoMap DOUBLE_BUFFER = new ConcurrentUtxoMap(); // NOTE: DOUBLE_BUFFER's monitor guards modifications of DOUBLE_BUFFER and QUEUED_BUFFER, and also guards QUEUED_COMMIT_BLOCK_HEIGHT and DOUBLE_BUFFER_THREAD.
+    protected static final ConcurrentUtxoMap QUEUED_BUFFER = new ConcurrentUtxoMap();
+    protected static Long QUEUED_COMMIT_BLOCK_HEIGHT = null; // The UTXO block height of the most recent commit within QUEUED_BUFFER, or null if no commit is queued.
     protected static Thread DOUBLE_BUFFER_THREAD = null;
 
+    protected static final Integer DEFAULT_FLUSH_CHUNK_SIZE = 32768;
+    protected static volatile Integer FLUSH_CHUNK_SIZE = DEFAULT_FLUSH_CHUNK_SIZE; // The number of UTXOs written within each database transaction of a flush pass; not final so that tests may flush in smaller chunks.
+    protected static volatile Long MAX_UTXO_FLUSH_RATE = 0L; // The maximum number of UTXOs written per second by the flusher thread; zero indicates no limit.
+    protected static final Integer PREFETCH_THREAD_COUNT = 4; // The maximum number of concurrent queries used to prefetch UTXOs.
+    protected static final AtomicLong CACHE_GENERATION = new AtomicLong(0L); // Incremented whenever UTXO states may leave the cache (i.e. commits and clears); used to discard prefetches that raced with such a change.
+    protected static final AtomicLong UTXO_SET_SEQUENCE_NUMBER = new AtomicLong(0L); // Odd while UTXO states are being modified; see "Lock-free reads".
+    protected static final Integer MAX_OPTIMISTIC_READ_ATTEMPTS = 3; // The number of lock-free attempts of a lookup before it acquires UTXO_READ_MUTEX.
+
+    protected interface UtxoSetRead<T> {
+        T run() throws DatabaseException;
+    }
+
+    /**
+     * Marks the start of a modification of the UTXO states, invalidating any concurrent lock-free lookup.
+     *  Must be invoked while holding UTXO_WRITE_MUTEX, and must be followed by endUtxoSetModification.
+     */
+    protected static void beginUtxoSetModification() {
+        UTXO_SET_SEQUENCE_NUMBER.incrementAndGet();
+    }
+
+    protected static void endUtxoSetModification() {
+        UTXO_SET_SEQUENCE_NUMBER.incrementAndGet();
+    }
+
+    /**
+     * Performs the lookup without acquiring UTXO_READ_MUTEX, repeating it if the UTXO states were modified during the lookup.
+     *  If the lookup continues to overlap with modifications, UTXO_READ_MUTEX is acquired so that the lookup is guaranteed to complete.
+     */
+    protected static <T> T readUtxoSet(final UtxoSetRead<T> utxoSetRead) throws DatabaseException {
+        for (int i = 0; i < MAX_OPTIMISTIC_READ_ATTEMPTS; ++i) {
+            final long sequenceNumber = UTXO_SET_SEQUENCE_NUMBER.get();
+            if ((sequenceNumber & 1L) != 0L) { // A modification is in progress...
+                Thread.yield();
+                continue;
+            }
+
+            final T result = utxoSetRead.run();
+            if (UTXO_SET_SEQUENCE_NUMBER.get() == sequenceNumber) { return result; }
+        }
+
+        UTXO_READ_MUTEX.lock();
+        try {
+            return utxoSetRead.run();
+        }
+        finally {
+            UTXO_READ_MUTEX.unlock();
+        }
+    }
+
     protected final Long _maxUtxoCount;
     protected final MasterInflater _masterInflater;
     protected final FullNodeDatabaseManager _databaseManager;
@@ -140,16 +226,53 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     protected long _minBlockHeight = Long.MAX_VALUE;
     protected long _maxBlockHeight = 0L;
 
+    /**
+     * Returns the maximum number of UTXOs the cache may hold, which is the configured maximum unless the MemoryGovernor
+     *  has restricted the cache further.
+     */
+    protected long _getMaxUtxoCount() {
+        final long governedMaxUtxoCount = UtxoCacheStaticState.GOVERNED_MAX_UTXO_COUNT.get();
+        if (governedMaxUtxoCount > 0L) {
+            return Math.min(_maxUtxoCount, governedMaxUtxoCount);
+        }
+        return _maxUtxoCount;
+    }
+
     protected void _clearUncommittedUtxoSet() {
         UtxoCacheStaticState.UNCOMMITTED_UTXO_BLOCK_HEIGHT.value = null;
+        CACHE_GENERATION.incrementAndGet();
         UTXO_SET.clear();
     }
 
     protected void _invalidateUncommittedUtxoSet() {
         UtxoCacheStaticState.UNCOMMITTED_UTXO_BLOCK_HEIGHT.value = -1L;
+        CACHE_GENERATION.incrementAndGet();
         UTXO_SET.clear();
     }
 
+    protected static int getFlushedUnspentStateCode() {
+        final JvmSpentState spentState = new JvmSpentState();
+        spentState.setIsSpent(false);
+        spentState.setIsFlushedToDisk(true);
+        spentState.setIsFlushMandatory(false);
+        return spentState.intValue();
+    }
+
+    /**
+     * Inserts the sorted UTXOs into the cache, skipping any UTXO already present, since the cache's state is more recent.
+     */
+    protected void _insertSortedUtxos(final SortedUtxoList sortedUtxos) {
+        final int utxoCount = sortedUtxos.getCount();
+        for (int i = 0; i < utxoCount; ++i) {
+            final UtxoValue utxoValue = sortedUtxos.getUtxoValue(i);
+            UTXO_SET.putIfAbsent(sortedUtxos.getUtxoKey(i), utxoValue);
+
+            final long lastUsedBlockHeight = utxoValue.getLastUsedBlockHeight();
+            _minBlockHeight = Math.min(lastUsedBlockHeight, _minBlockHeight);
+            _maxBlockHeight = Math.max(lastUsedBlockHeight, _maxBlockHeight);
+        }
+    }
+
     protected void _invalidateUncommittedUtxoSetAndRethrow(final Exception exception) throws DatabaseException {
         try {
             _invalidateUncommittedUtxoSet();
@@ -184,7 +307,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     newSpentState.setIsFlushedToDisk(false);
                     newSpentState.setIsFlushMandatory(true);
 
-                    final UtxoValue newUtxoValue = new UtxoValue(newSpentState, utxoValue.blockHeight, utxoValue.isCoinbase, utxoValue.amount, utxoValue.lockingScript);
+                    final UtxoValue newUtxoValue = new UtxoValue(newSpentState.intValue(), utxoValue);
                     queuedUpdates.put(utxoKey, newUtxoValue);
                 }
                 else { } // The UTXO was never written to disk, therefore it can be removed.
@@ -252,9 +375,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     newJvmSpentState.setIsFlushedToDisk(false);
                     newJvmSpentState.setIsFlushMandatory(true);
 
-                    final long amount = utxoValue.amount;
-                    final byte[] lockingScript = utxoValue.lockingScript;
-                    customUtxoValue = new UtxoValue(newJvmSpentState, blockHeight, isCoinbase, amount, lockingScript);
+                    customUtxoValue = new UtxoValue(newJvmSpentState.intValue(), utxoValue);
                 }
             }
 
@@ -285,8 +406,8 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 newSpentState.setIsFlushedToDisk(false);
                 newSpentState.setIsFlushMandatory(true);
 
-                final boolean isCoinbase = (utxoValue != null ? utxoValue.isCoinbase : false);
-                final UtxoValue newUtxoValue = new UtxoValue(newSpentState, (utxoValue != null ? utxoValue.blockHeight : UtxoValue.UNKNOWN_BLOCK_HEIGHT), isCoinbase, UtxoValue.SPENT_AMOUNT);
+                final boolean isCoinbase = (utxoValue != null ? utxoValue.isCoinbase() : false);
+                final UtxoValue newUtxoValue = new UtxoValue(newSpentState, (utxoValue != null ? utxoValue.getBlockHeight() : UtxoValue.UNKNOWN_BLOCK_HEIGHT), isCoinbase, UtxoValue.SPENT_AMOUNT);
                 queuedUpdates.put(utxoKey, newUtxoValue);
             }
         }
@@ -297,8 +418,9 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
      * Attempts to find the outputKey's corresponding amount and LockingScript.
      *  If the amount/LockingScript cannot be found, then null is returned.
      *  This operation can be fairly expensive.
-     *  Lookup is attempted first via the utxo table, then the pruned outputs table (aka the semi- undo log, if enabled),
-     *  then the mempool, then the block flat file.
+     *  Lookup is attempted first via the utxo table, then the legacy pruned outputs table (until its rows expire),
+     *  then the block flat file.
+     *  Outputs spent by recently connected blocks are instead restored via the block's undo log (see UndoLogDatabaseManager).
      */
     protected OutputData _findOutputData(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
         final Sha256Hash transactionHash = transactionOutputIdentifier.getTransactionHash();
@@ -321,27 +443,15 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             }
         }
 
-        UndoLogDatabaseManager.READ_LOCK.lock();
-        try { // Check for the amount/script via the pruned_previous_transaction_outputs table (aka the semi- undo-log)...
-
-            final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-            final java.util.List<Row> rows = databaseConnection.query(
-                new Query("SELECT block_height, is_coinbase, amount, locking_script FROM pruned_previous_transaction_outputs WHERE transaction_hash = ? AND `index` = ?")
-                    .setParameter(transactionHash)
-                    .setParameter(outputIndex)
-            );
-            if (! rows.isEmpty()) {
-                final Row row = rows.get(0);
-                final Long blockHeight = row.getLong("block_height");
-                final Boolean isCoinbase = row.getBoolean("is_coinbase");
-                final Long amount = row.getLong("amount");
-                final byte[] lockingScriptBytes = row.getBytes("locking_script");
-                return new OutputData(blockHeight, isCoinbase, amount, lockingScriptBytes);
+        { // Check for the amount/script via the legacy pruned_previous_transaction_outputs table, until its rows expire...
+            final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(_databaseManager);
+            final UnspentTransactionOutput transactionOutput = undoLogDatabaseManager.getLegacyPrunedTransactionOutput(transactionOutputIdentifier);
+            if (transactionOutput != null) {
+                final LockingScript lockingScript = transactionOutput.getLockingScript();
+                final ByteArray lockingScriptBytes = lockingScript.getBytes();
+                return new OutputData(transactionOutput.getBlockHeight(), transactionOutput.isCoinbase(), transactionOutput.getAmount(), lockingScriptBytes.getBytes());
             }
         }
-        finally {
-            UndoLogDatabaseManager.READ_LOCK.unlock();
-        }
 
         { // Attempt to find the amount/script from block flat-file, which may not exist for nodes operating in pruned mode.
             final BlockchainDatabaseManager blockchainDatabaseManager = _databaseManager.getBlockchainDatabaseManager();
@@ -372,7 +482,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         }
     }
 
-    protected void _undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+    protected void _undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers, final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs) throws DatabaseException {
         final TreeMap<UtxoKey, UtxoValue> queuedUpdates = new TreeMap<>(UtxoKey.COMPARATOR);
         for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
             final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
@@ -385,8 +495,8 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     newSpentState.setIsFlushedToDisk(false);
                     newSpentState.setIsFlushMandatory(true);
 
-                    if (utxoValue.blockHeight != UtxoValue.UNKNOWN_BLOCK_HEIGHT) {
-                        final UtxoValue newUtxoValue = new UtxoValue(newSpentState, utxoValue.blockHeight, utxoValue.isCoinbase, utxoValue.amount, utxoValue.lockingScript);
+                    if (utxoValue.getBlockHeight() != UtxoValue.UNKNOWN_BLOCK_HEIGHT) {
+                        final UtxoValue newUtxoValue = new UtxoValue(newSpentState.intValue(), utxoValue);
                         queuedUpdates.put(utxoKey, newUtxoValue);
                     }
                     else {
@@ -409,7 +519,16 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 newSpentState.setIsFlushedToDisk(false);
                 newSpentState.setIsFlushMandatory(true); // It is unknown if the UTXO was flushed to disk.
 
-                final OutputData utxoData = _findOutputData(transactionOutputIdentifier);
+                final UnspentTransactionOutput spentTransactionOutput = (spentTransactionOutputs != null ? spentTransactionOutputs.get(transactionOutputIdentifier) : null);
+                final OutputData utxoData;
+                if (spentTransactionOutput != null) {
+                    final LockingScript lockingScript = spentTransactionOutput.getLockingScript();
+                    final ByteArray lockingScriptBytes = lockingScript.getBytes();
+                    utxoData = new OutputData(spentTransactionOutput.getBlockHeight(), spentTransactionOutput.isCoinbase(), spentTransactionOutput.getAmount(), lockingScriptBytes.getBytes());
+                }
+                else {
+                    utxoData = _findOutputData(transactionOutputIdentifier);
+                }
                 if (utxoData == null) {
                     throw new DatabaseException("Unable to restore UTXO: " + HexUtil.toHexString(utxoKey.transactionHash) + ":" + utxoKey.outputIndex);
                 }
@@ -420,6 +539,48 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         UTXO_SET.putAll(queuedUpdates);
     }
 
+    /**
+     * Returns the most recent buffered state of the UTXO, checking the queued buffer before the double buffer, or null if
+     *  the UTXO is not buffered.  UTXOs are added to the double buffer before being removed from the queued buffer,
+     *  so synchronizing on DOUBLE_BUFFER is not required.
+     */
+    protected static UtxoValue getBufferedUtxoValue(final UtxoKey utxoKey) {
+        final UtxoValue queuedUtxoValue = QUEUED_BUFFER.get(utxoKey);
+        if (queuedUtxoValue != null) { return queuedUtxoValue; }
+
+        return DOUBLE_BUFFER.get(utxoKey);
+    }
+
+    /**
+     * Returns the number of UTXOs held by the queued buffer and the double buffer, awaiting a flush to disk.
+     *  The count is approximate while a commit or flush is in progress.
+     */
+    public static Long getBufferedUtxoCount() {
+        return (long) (QUEUED_BUFFER.size() + DOUBLE_BUFFER.size());
+    }
+
+    /**
+     * Sleeps as necessary to keep the flush rate below MAX_UTXO_FLUSH_RATE, if set.
+     */
+    protected static void throttleFlush(final int flushedUtxoCount, final Long elapsedMilliseconds) throws InterruptedException {
+        final long maxUtxoFlushRate = MAX_UTXO_FLUSH_RATE;
+        if (maxUtxoFlushRate <= 0L) { return; }
+
+        final long minimumMilliseconds = ((flushedUtxoCount * 1000L) / maxUtxoFlushRate);
+        final long sleepMilliseconds = (minimumMilliseconds - elapsedMilliseconds);
+        if (sleepMilliseconds > 0L) {
+            Thread.sleep(sleepMilliseconds);
+        }
+    }
+
+    /**
+     * Sets the maximum number of UTXOs written to disk per second by the flusher thread; zero or null removes the limit.
+     *  Limiting the flush rate leaves database capacity for block processing at the expense of the flush taking longer.
+     */
+    public static void setMaxUtxoFlushRate(final Long maxUtxoFlushRate) {
+        MAX_UTXO_FLUSH_RATE = Math.max(0L, Util.coalesce(maxUtxoFlushRate, 0L));
+    }
+
     protected static void commitDoubleBufferedUnspentTransactionOutputs(final Long newCommittedBlockHeight, final DatabaseManager databaseManager) throws Exception {
         final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
 
@@ -490,70 +651,107 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final MilliTimer iterationTimer = new MilliTimer();
         iterationTimer.start();
 
-        final int startSize = DOUBLE_BUFFER.size();
+        final int startSize;
+        synchronized (DOUBLE_BUFFER) {
+            startSize = DOUBLE_BUFFER.size();
+        }
+
         int i = 0;
+        final int flushChunkSize = FLUSH_CHUNK_SIZE;
         final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
-        final Iterator<Map.Entry<UtxoKey, UtxoValue>> iterator = DOUBLE_BUFFER.entrySet().iterator();
+        final MutableList<UtxoKey> chunkUtxoKeys = new MutableList<>(flushChunkSize);
+        final MutableList<UtxoValue> chunkUtxoValues = new MutableList<>(flushChunkSize);
 
         final MutableList<UtxoKey> nextDeleteBatch = new MutableList<>(maxUtxoPerBatch);
         final MutableList<Utxo> nextInsertBatch = new MutableList<>(maxUtxoPerBatch);
 
-        while (iterator.hasNext()) {
-            final Map.Entry<UtxoKey, UtxoValue> entry = iterator.next();
-            final UtxoKey utxoKey = entry.getKey();
-            final UtxoValue utxoValue = entry.getValue();
+        while (true) {
+            final MilliTimer chunkTimer = new MilliTimer();
+            chunkTimer.start();
 
-            transientSpentState.initialize(utxoValue.spentStateCode);
+            chunkUtxoKeys.clear();
+            chunkUtxoValues.clear();
+            synchronized (DOUBLE_BUFFER) {
+                // Flushed chunks are removed from the DOUBLE_BUFFER, so the next chunk is always at the head of the buffer.
+                for (final Map.Entry<UtxoKey, UtxoValue> entry : DOUBLE_BUFFER.entrySet()) {
+                    if (chunkUtxoKeys.getCount() >= flushChunkSize) { break; }
 
-            // All items in the double-buffer are scheduled for flushing, either delete or insert...
-            if (transientSpentState.isSpent()) {
-                nextDeleteBatch.add(utxoKey);
-            }
-            else {
-                // Insert the unspent UTXO to disk.
-                final Utxo unspentTransactionOutput = new Utxo(utxoKey, utxoValue);
-                nextInsertBatch.add(unspentTransactionOutput);
+                    chunkUtxoKeys.add(entry.getKey());
+                    chunkUtxoValues.add(entry.getValue());
+                }
             }
+            if (chunkUtxoKeys.isEmpty()) { break; }
 
-            if (nextDeleteBatch.getCount() >= maxUtxoPerBatch) {
-                final NanoTimer nanoTimer = new NanoTimer();
-                nanoTimer.start();
+            TransactionUtil.startTransaction(databaseConnection);
+            final int chunkSize = chunkUtxoKeys.getCount();
+            for (int j = 0; j < chunkSize; ++j) {
+                final UtxoKey utxoKey = chunkUtxoKeys.get(j);
+                final UtxoValue utxoValue = chunkUtxoValues.get(j);
 
-                onDiskUtxoDeleteBatch.run(nextDeleteBatch);
-                nextDeleteBatch.clear();
+                transientSpentState.initialize(utxoValue.spentStateCode);
 
-                nanoTimer.stop();
-                totalTimeWaited += nanoTimer.getMillisecondsElapsed();
+                // All items in the double-buffer are scheduled for flushing, either delete or insert...
+                if (transientSpentState.isSpent()) {
+                    nextDeleteBatch.add(utxoKey);
+                }
+                else {
+                    // Insert the unspent UTXO to disk.
+                    final Utxo unspentTransactionOutput = new Utxo(utxoKey, utxoValue);
+                    nextInsertBatch.add(unspentTransactionOutput);
+                }
+
+                if (nextDeleteBatch.getCount() >= maxUtxoPerBatch) {
+                    final NanoTimer nanoTimer = new NanoTimer();
+                    nanoTimer.start();
+
+                    onDiskUtxoDeleteBatch.run(nextDeleteBatch);
+                    nextDeleteBatch.clear();
+
+                    nanoTimer.stop();
+                    totalTimeWaited += nanoTimer.getMillisecondsElapsed();
+                }
+
+                if (nextInsertBatch.getCount() >= maxUtxoPerBatch) {
+                    final NanoTimer nanoTimer = new NanoTimer();
+                    nanoTimer.start();
+
+                    onDiskUtxoInsertBatch.run(nextInsertBatch);
+                    nextInsertBatch.clear();
+
+                    nanoTimer.stop();
+                    totalTimeWaited += nanoTimer.getMillisecondsElapsed();
+                }
+
+                i += 1;
+
+                if (startSize >= 10) {
+                    if ((i % (startSize / 10)) == 0) {
+                        Logger.trace("Flushing thread " + ((10 * i) / (startSize / 10)) + "% done. " + (startSize - i) + " remaining.");
+                    }
+                }
             }
 
-            if (nextInsertBatch.getCount() >= maxUtxoPerBatch) {
-                final NanoTimer nanoTimer = new NanoTimer();
-                nanoTimer.start();
+            if (! nextDeleteBatch.isEmpty()) {
+                onDiskUtxoDeleteBatch.run(nextDeleteBatch);
+                nextDeleteBatch.clear();
+            }
 
+            if (! nextInsertBatch.isEmpty()) {
                 onDiskUtxoInsertBatch.run(nextInsertBatch);
                 nextInsertBatch.clear();
-
-                nanoTimer.stop();
-                totalTimeWaited += nanoTimer.getMillisecondsElapsed();
             }
+            TransactionUtil.commitTransaction(databaseConnection);
 
-            i += 1;
-
-            if (startSize >= 10) {
-                if ((i % (startSize / 10)) == 0) {
-                    Logger.trace("Flushing thread " + ((10 * i) / (startSize / 10)) + "% done. " + (startSize - i) + " remaining.");
+            // Once committed, the chunk may be read from disk, so it no longer needs to be retained in memory.
+            synchronized (DOUBLE_BUFFER) {
+                for (final UtxoKey utxoKey : chunkUtxoKeys) {
+                    DOUBLE_BUFFER.remove(utxoKey);
                 }
+                DOUBLE_BUFFER.notifyAll(); // Wake any commit waiting for buffer headroom...
             }
-        }
-
-        if (! nextDeleteBatch.isEmpty()) {
-            onDiskUtxoDeleteBatch.run(nextDeleteBatch);
-            nextDeleteBatch.clear();
-        }
 
-        if (! nextInsertBatch.isEmpty()) {
-            onDiskUtxoInsertBatch.run(nextInsertBatch);
-            nextInsertBatch.clear();
+            chunkTimer.stop();
+            UnspentTransactionOutputJvmManager.throttleFlush(chunkSize, chunkTimer.getMillisecondsElapsed());
         }
 
         iterationTimer.stop();
@@ -569,45 +767,105 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             ", totalTimeWaited=" + totalTimeWaited
         );
 
-        { // Save the committed set's block height...
+        { // Save the committed set's block height, now that the entire pass has been written...
             final PropertiesStore propertiesStore = databaseManager.getPropertiesStore();
             propertiesStore.set(COMMITTED_UTXO_BLOCK_HEIGHT_KEY, newCommittedBlockHeight);
         }
 
-        synchronized (DOUBLE_BUFFER) {
-            DOUBLE_BUFFER.clear();
-        }
-
         // This request for garbage collection is not strictly necessary but considering the drastic change in memory
         // usage, it is useful to ensure a collection after the double-buffer is cleared, particularly in cases when
         // periodic calls to gc aren't schedule (i.e. initial node boot).
         System.gc();
     }
 
-    protected void _startClearExpiredPrunedOutputsThread(final Long committedUtxoBlockHeight, final DatabaseManagerFactory databaseManagerFactory) {
-        final Thread thread = (new Thread(new Runnable() {
+    /**
+     * Starts the flusher thread, which repeatedly moves the queued commit into the double buffer and writes it to disk
+     *  until no commit remains queued.  Must be invoked while synchronized on DOUBLE_BUFFER.
+     *  The thread uses only the DatabaseManagers it creates, since the manager that started it may be closed before it finishes.
+     */
+    protected void _startDoubleBufferThread(final FullNodeDatabaseManagerFactory databaseManagerFactory) {
+        DOUBLE_BUFFER_THREAD = new Thread(new Runnable() {
             @Override
             public void run() {
-                try (final DatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                Logger.debug("UTXO double buffer flusher thread started.");
+
+                try (final FullNodeDatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
                     final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(databaseManager);
-                    undoLogDatabaseManager.clearExpiredPrunedOutputs(committedUtxoBlockHeight);
+                    while (true) {
+                        final Long newCommittedBlockHeight;
+                        synchronized (DOUBLE_BUFFER) {
+                            if (QUEUED_COMMIT_BLOCK_HEIGHT == null) { break; }
+
+                            DOUBLE_BUFFER.putAll(QUEUED_BUFFER);
+                            QUEUED_BUFFER.clear();
+                            newCommittedBlockHeight = QUEUED_COMMIT_BLOCK_HEIGHT;
+                            QUEUED_COMMIT_BLOCK_HEIGHT = null;
+
+                            DOUBLE_BUFFER.notifyAll(); // Wake any commit waiting for the queue to drain...
+                        }
+
+                        final MilliTimer milliTimer = new MilliTimer();
+                        milliTimer.start();
+
+                        COMMITTED_UTXO_TABLE_WRITE_LOCK.lock();
+                        try {
+                            Logger.debug("UTXO double buffer lock acquired.");
+                            UnspentTransactionOutputJvmManager.commitDoubleBufferedUnspentTransactionOutputs(newCommittedBlockHeight, databaseManager);
+                            undoLogDatabaseManager.removeExpiredUndoLogs(newCommittedBlockHeight);
+                        }
+                        finally {
+                            COMMITTED_UTXO_TABLE_WRITE_LOCK.unlock();
+                            Logger.debug("UTXO double buffer lock released.");
+                        }
+
+                        milliTimer.stop();
+                        Logger.debug("UTXO set flushed through block height " + newCommittedBlockHeight + " after " + milliTimer.getMillisecondsElapsed() + "ms.");
+                    }
                 }
                 catch (final Exception exception) {
-                    Logger.debug("Unable to clear expired pruned outputs.", exception);
+                    _invalidateUncommittedUtxoSet();
+                    synchronized (DOUBLE_BUFFER) {
+                        DOUBLE_BUFFER.clear();
+                        QUEUED_BUFFER.clear();
+                        QUEUED_COMMIT_BLOCK_HEIGHT = null;
+                    }
+                    Logger.warn(exception);
                 }
-            }
-        }));
-        thread.setName("PrunedOutputsCleanupThread");
-        thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
-            @Override
-            public void uncaughtException(final Thread thread, final Throwable exception) {
-                Logger.debug(exception);
+                finally {
+                    synchronized (DOUBLE_BUFFER) {
+                        DOUBLE_BUFFER_THREAD = null;
+                        DOUBLE_BUFFER.notifyAll();
+                    }
+                }
+
+                Logger.debug("UTXO double buffer flusher thread finished.");
             }
         });
-        thread.start();
+        DOUBLE_BUFFER_THREAD.setName("UTXO Double Buffer Flusher");
+        DOUBLE_BUFFER_THREAD.start();
+    }
+
+    /**
+     * Returns the number of cached UTXOs that the next commit would queue, i.e. those not yet flushed or whose flush is mandatory.
+     *  Must be invoked while holding UTXO_WRITE_MUTEX.
+     */
+    protected static long countUnflushedUtxos() {
+        long unflushedUtxoCount = 0L;
+        final JvmSpentState transientSpentState = new JvmSpentState(); // Re-initialize the same instance instead of creating many objects.
+        for (final UtxoValue utxoValue : UTXO_SET.values()) {
+            transientSpentState.initialize(utxoValue.spentStateCode);
+            if ( (! transientSpentState.isFlushedToDisk()) || transientSpentState.isFlushMandatory() ) {
+                unflushedUtxoCount += 1L;
+            }
+        }
+        return unflushedUtxoCount;
     }
 
     protected Boolean _commitUnspentTransactionOutputs(final DatabaseManagerFactory databaseManagerFactory, final CommitAsyncMode commitAsyncMode) throws DatabaseException {
+        if (! (databaseManagerFactory instanceof FullNodeDatabaseManagerFactory)) {
+            throw new DatabaseException("UTXO set may only be committed via a FullNodeDatabaseManagerFactory.");
+        }
+
         if (! UtxoCacheStaticState.isUtxoCacheReady()) {
             // Prevent committing a UTXO set that has been invalidated or empty...
             Logger.warn("Not committing UTXO set due to invalidated or empty cache.");
@@ -623,8 +881,16 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         }
 
         try {
+            // The buffers may only use the headroom reserved for them by the cache sizing, which is the maximum UTXO count;
+            //  the UTXOs this commit would queue are bounded by the cache's size, and are only counted if that bound does not fit.
+            final long maxBufferedUtxoCount = _getMaxUtxoCount();
+            final long cachedUtxoCount = UTXO_SET.size();
+            final long queuedUtxoCount = ( (cachedUtxoCount + DOUBLE_BUFFER.size() + QUEUED_BUFFER.size()) > maxBufferedUtxoCount ? UnspentTransactionOutputJvmManager.countUnflushedUtxos() : cachedUtxoCount );
+
+            final Thread doubleBufferThread;
             synchronized (DOUBLE_BUFFER) {
-                while (DOUBLE_BUFFER_THREAD != null) { // Protect against spontaneous wake-ups..
+                // The flusher is waited upon until the commit fits within the headroom, or until it has flushed everything buffered.
+                while ( (DOUBLE_BUFFER_THREAD != null) && ((DOUBLE_BUFFER.size() + QUEUED_BUFFER.size() + queuedUtxoCount) > maxBufferedUtxoCount) ) { // Protect against spontaneous wake-ups..
                     if (commitAsyncMode == CommitAsyncMode.SKIP_IF_BUSY) { return false; } // NOTE: UTXO_WRITE_MUTEX is unlocked by finally block...
                     DOUBLE_BUFFER.wait();
                 }
@@ -635,54 +901,18 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 }
 
                 _commitUnspentTransactionOutputsToDoubleBuffer();
+                QUEUED_COMMIT_BLOCK_HEIGHT = newCommittedBlockHeight;
 
-                DOUBLE_BUFFER_THREAD = new Thread(new Runnable() {
-                    @Override
-                    public void run() {
-                        Logger.debug("UTXO double buffer flusher thread started.");
-                        final MilliTimer milliTimer = new MilliTimer();
-                        milliTimer.start();
-
-                        COMMITTED_UTXO_TABLE_WRITE_LOCK.lock();
-                        try (final DatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
-                            Logger.debug("UTXO double buffer lock acquired.");
-                            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
-                            TransactionUtil.startTransaction(databaseConnection);
-                            UnspentTransactionOutputJvmManager.commitDoubleBufferedUnspentTransactionOutputs(newCommittedBlockHeight, databaseManager);
-                            TransactionUtil.commitTransaction(databaseConnection);
-
-                            _startClearExpiredPrunedOutputsThread(newCommittedBlockHeight, databaseManagerFactory);
-                        }
-                        catch (final Exception exception) {
-                            _invalidateUncommittedUtxoSet();
-                            DOUBLE_BUFFER.clear();
-                            Logger.warn(exception);
-                        }
-                        finally {
-                            COMMITTED_UTXO_TABLE_WRITE_LOCK.unlock();
-                            DOUBLE_BUFFER_THREAD = null;
-
-                            Logger.debug("UTXO double buffer lock released.");
-
-                            synchronized (DOUBLE_BUFFER) {
-                                DOUBLE_BUFFER.notifyAll();
-                            }
-                        }
-
-                        milliTimer.stop();
-                        Logger.debug("UTXO double buffer flusher thread finished after " + milliTimer.getMillisecondsElapsed() + "ms.");
-                    }
-                });
-                DOUBLE_BUFFER_THREAD.setName("UTXO Double Buffer Flusher");
-                DOUBLE_BUFFER_THREAD.start();
+                if (DOUBLE_BUFFER_THREAD == null) {
+                    _startDoubleBufferThread((FullNodeDatabaseManagerFactory) databaseManagerFactory);
+                }
+                doubleBufferThread = DOUBLE_BUFFER_THREAD;
             }
 
             // Must be done outside of synchronization block...
             if (commitAsyncMode == CommitAsyncMode.BLOCK_UNTIL_COMPLETE) {
-                final Thread thread = DOUBLE_BUFFER_THREAD;
-                if (thread != null) {
-                    thread.join();
-                }
+                // The flusher thread exits once the queue is empty, which includes this commit.
+                doubleBufferThread.join();
             }
 
             return true;
@@ -697,7 +927,8 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     }
 
     protected void _commitUnspentTransactionOutputsToDoubleBuffer() {
-        final int maxKeepCount = (int) (_maxUtxoCount * (1.0D - _purgePercent));
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
+        CACHE_GENERATION.incrementAndGet(); // Spent UTXOs are about to leave the cache, so any in-flight prefetch may be stale.
 
         final long oldMinBlockHeight = _minBlockHeight;
         final long oldMaxBlockHeight = _maxBlockHeight;
@@ -707,6 +938,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         int remainingPurgeCount = Math.max(0, (UTXO_SET.size() - maxKeepCount));
         long maxBlockHeight = 0L;
         long minBlockHeight = Long.MAX_VALUE;
+        long evictedUtxoCount = 0L;
 
         final int flushedUnspentStateCode;
         {
@@ -729,7 +961,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             transientSpentState.initialize(utxoValue.spentStateCode);
             // Flush the UTXO to disk if the item should be flushed...
             if ( (! transientSpentState.isFlushedToDisk()) || transientSpentState.isFlushMandatory()) {
-                DOUBLE_BUFFER.put(utxoKey, utxoValue);
+                QUEUED_BUFFER.put(utxoKey, utxoValue);
             }
 
             // Remove the UTXO from the cache if it is spent.
@@ -739,31 +971,40 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             }
             else {
                 // Mark the UTXO as flushed and clear the mandatory-flush flag.
-                entry.setValue(new UtxoValue(flushedUnspentStateCode, utxoValue.blockHeight, utxoValue.isCoinbase, utxoValue.amount, utxoValue.lockingScript));
+                final UtxoValue flushedUtxoValue = new UtxoValue(flushedUnspentStateCode, utxoValue); // NOTE: Retains the UTXO's access height.
+                UTXO_SET.put(utxoKey, flushedUtxoValue); // NOTE: The map's entries are immutable; replacing the value of the current key is permitted during iteration.
+
+                // UTXOs are purged by how recently they were created or accessed, so that cold UTXOs are purged before recently used ones, regardless of their age.
+                final long lastUsedBlockHeight = utxoValue.getLastUsedBlockHeight();
 
                 boolean wasPurged = false;
                 if (remainingPurgeCount > 0) {
-                    // Progressively purge UTXOs as the iterator creeps towards the end, prioritizing purging older UTXOs.
+                    // Progressively purge UTXOs as the iterator creeps towards the end, prioritizing purging colder UTXOs.
                     final long iterationsRemaining = (oldItemCount - i - 1L);
                     final double purgeAggressiveness = Math.min(1D, (( (double) remainingPurgeCount ) / iterationsRemaining)); // 0=purgeNothing, 1=purgeEverything
                     final long purgeDistanceThreshold = ( oldMinBlockHeight + ((long) (oldTotalBlockDistance * purgeAggressiveness)) );
-                    if (utxoValue.blockHeight <= purgeDistanceThreshold) {
+                    if (lastUsedBlockHeight <= purgeDistanceThreshold) {
                         iterator.remove();
                         remainingPurgeCount -= 1;
+                        evictedUtxoCount += 1L;
                         wasPurged = true;
                     }
                 }
 
-                if ( (! wasPurged) && (utxoValue.blockHeight != UtxoValue.UNKNOWN_BLOCK_HEIGHT) ) {
-                    maxBlockHeight = Math.max(utxoValue.blockHeight, maxBlockHeight);
-                    minBlockHeight = Math.min(utxoValue.blockHeight, minBlockHeight);
+                if (! wasPurged) {
+                    if (utxoValue.getBlockHeight() != UtxoValue.UNKNOWN_BLOCK_HEIGHT) {
+                        maxBlockHeight = Math.max(lastUsedBlockHeight, maxBlockHeight);
+                        minBlockHeight = Math.min(lastUsedBlockHeight, minBlockHeight);
+                    }
                 }
             }
 
             i += 1;
         }
 
-        Logger.debug("remainingPurgeCount=" + remainingPurgeCount);
+        Logger.debug("remainingPurgeCount=" + remainingPurgeCount + " evictedUtxoCount=" + evictedUtxoCount);
+
+        UtxoCacheStaticState.EVICTED_UTXO_COUNT.addAndGet(evictedUtxoCount);
 
         _minBlockHeight = minBlockHeight;
         _maxBlockHeight = maxBlockHeight;
@@ -800,143 +1041,96 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         return new Tuple<>(utxoKey, utxoValue);
     }
 
+    protected File _getCacheLoadFile() {
+        final String dataDirectory = _blockStore.getDataDirectory();
+        if (dataDirectory == null) { return null; }
+
+        return new File(dataDirectory + "/" + UTXO_CACHE_LOAD_FILE_NAME);
+    }
+
     protected void _writeCacheLoadFile() throws DatabaseException, IOException {
         final NanoTimer nanoTimer = new NanoTimer();
         nanoTimer.start();
 
-        final String dataDirectory = _blockStore.getDataDirectory();
-        if (dataDirectory == null) { return; }
+        final File file = _getCacheLoadFile();
+        if (file == null) { return; }
 
-        final File file = new File(dataDirectory + "/" + UTXO_CACHE_LOAD_FILE_NAME);
         if (file.exists()) {
             file.delete();
         }
 
         if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
 
-        final int outputIndexByteCount = 4;
-        final int bytesPerIdentifier = (Sha256Hash.BYTE_COUNT + outputIndexByteCount);
-        final int pageSize = (int) (16L * ByteUtil.Unit.Binary.MEBIBYTES);
-        final MutableByteArray buffer = new MutableByteArray(pageSize);
-        int bufferWriteIndex = 0;
-
-        long writtenIdentifierCount = 0L;
-        long writtenByteCount = 0L;
-
-        try (final FileOutputStream fileOutputStream = new FileOutputStream(file)) {
-            final Long committedBlockHeight = UtxoCacheStaticState.getUtxoBlockHeight();
-            {
-                final byte[] blockHeightBytes = ByteUtil.longToBytes(committedBlockHeight);
-                fileOutputStream.write(blockHeightBytes);
-                writtenByteCount += blockHeightBytes.length;
-            }
-
-            for (final UtxoKey utxoKey : UTXO_SET.keySet()) {
-                if (bufferWriteIndex + bytesPerIdentifier >= buffer.getByteCount()) {
-                    fileOutputStream.write(buffer.unwrap(), 0, bufferWriteIndex);
-                    writtenByteCount += bufferWriteIndex;
-                    bufferWriteIndex = 0;
-                }
-
-                final byte[] outputIndexBytes = ByteUtil.integerToBytes(utxoKey.outputIndex);
-
-                buffer.setBytes(bufferWriteIndex, utxoKey.transactionHash);
-                bufferWriteIndex += utxoKey.transactionHash.length;
-
-                buffer.setBytes(bufferWriteIndex, outputIndexBytes);
-                bufferWriteIndex += outputIndexBytes.length;
-
-                writtenIdentifierCount += 1L;
-            }
+        final ArrayList<Map.Entry<UtxoKey, UtxoValue>> unspentUtxos = new ArrayList<>(UTXO_SET.size());
+        final JvmSpentState transientSpentState = new JvmSpentState();
+        for (final Map.Entry<UtxoKey, UtxoValue> entry : UTXO_SET.entrySet()) {
+            final UtxoValue utxoValue = entry.getValue();
+            transientSpentState.initialize(utxoValue.spentStateCode);
+            if (transientSpentState.isSpent()) { continue; }
 
-            if (bufferWriteIndex != 0) {
-                fileOutputStream.write(buffer.unwrap(), 0, bufferWriteIndex);
-                writtenByteCount += bufferWriteIndex;
-            }
+            unspentUtxos.add(entry);
         }
 
+        final Runtime runtime = Runtime.getRuntime();
+        final Long uncommittedBlockHeight = UtxoCacheStaticState.getUtxoBlockHeight();
+        UtxoCacheSnapshot.write(file, uncommittedBlockHeight, unspentUtxos, runtime.availableProcessors());
+
         nanoTimer.stop();
-        if (Logger.isTraceEnabled()) {
-            Logger.trace("Wrote " + writtenIdentifierCount + " identifiers (" + writtenByteCount + " bytes) in " + nanoTimer.getMillisecondsElapsed() + "ms.");
-        }
+        Logger.debug("Wrote " + unspentUtxos.size() + " UTXOs (" + file.length() + " bytes) to the UTXO cache snapshot in " + nanoTimer.getMillisecondsElapsed() + "ms.");
     }
 
-    protected void _populateCacheViaLoadFile() throws DatabaseException, IOException {
-        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
-
-        final int maxKeepCount = (int) (_maxUtxoCount * (1.0D - _purgePercent));
-        long maxRemainingCount = maxKeepCount;
-
-        final String dataDirectory = _blockStore.getDataDirectory();
-        final File file = new File(dataDirectory + "/" + UTXO_CACHE_LOAD_FILE_NAME);
-        if ( (dataDirectory == null) || (! file.exists()) ) {
+    /**
+     * Opens the UTXO cache snapshot if it exists and matches the committed UTXO set, otherwise returns null.
+     */
+    protected UtxoCacheSnapshot _openCacheLoadFile() throws IOException {
+        final File file = _getCacheLoadFile();
+        if ( (file == null) || (! file.exists()) ) {
             Logger.debug("UtxoCache file does not exist.");
-            return;
+            return null;
         }
 
-        final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
-        try (final FileInputStream fileInputStream = new FileInputStream(file)) {
-            final long blockHeight;
-            {
-                final byte[] blockHeightBytes = new byte[8];
-                final int bytesRead = fileInputStream.read(blockHeightBytes);
-                if (! Util.areEqual(bytesRead, blockHeightBytes.length)) {
-                    Logger.debug("Unable to read UtxoCache file block height.");
-                    return;
-                }
-
-                blockHeight = ByteUtil.bytesToLong(blockHeightBytes);
-            }
+        final UtxoCacheSnapshot utxoCacheSnapshot = UtxoCacheSnapshot.open(file);
+        if (utxoCacheSnapshot == null) {
+            Logger.info("UtxoCache file is corrupt or of an unsupported version; aborting UTXO cache loading.");
+            return null;
+        }
 
-            final Long committedBlockHeight = _getCommittedUnspentTransactionOutputBlockHeight();
+        final Long committedBlockHeight = _getCommittedUnspentTransactionOutputBlockHeight();
+        if (! Util.areEqual(committedBlockHeight, utxoCacheSnapshot.getBlockHeight())) {
+            Logger.info("UtxoCache file does not match committed UTXO block height; aborting UTXO cache loading.");
+            return null;
+        }
 
-            if (! Util.areEqual(committedBlockHeight, blockHeight)) {
-                Logger.info("UtxoCache file does not match committed UTXO block height; aborting UTXO cache loading.");
-                return;
-            }
+        return utxoCacheSnapshot;
+    }
 
-            final int outputIndexByteCount = 4;
-            final int bytesPerIdentifier = (Sha256Hash.BYTE_COUNT + outputIndexByteCount);
-            final int batchSize = Math.min(1024, _databaseManager.getMaxQueryBatchSize());
-            final MutableByteArray buffer = new MutableByteArray(batchSize * bytesPerIdentifier);
+    protected void _populateCacheViaLoadFile() throws DatabaseException, IOException {
+        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
 
-            int bytesRead;
-            do {
-                final NanoTimer nanoTimer = new NanoTimer();
-                nanoTimer.start();
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
 
-                bytesRead = fileInputStream.read(buffer.unwrap());
-                final int identifierCount = (int) Math.min(maxRemainingCount, (bytesRead / bytesPerIdentifier));
-                if (identifierCount < 1) { continue; }
+        final UtxoCacheSnapshot utxoCacheSnapshot = _openCacheLoadFile();
+        if (utxoCacheSnapshot == null) { return; }
 
-                final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<>(identifierCount);
-                for (int i = 0; i < identifierCount; ++i) {
-                    final int offset = (i * bytesPerIdentifier);
-                    final Sha256Hash transactionHash = Sha256Hash.copyOf(buffer.getBytes(offset, Sha256Hash.BYTE_COUNT));
-                    final Integer outputIndex = ByteUtil.bytesToInteger(buffer.getBytes(offset + Sha256Hash.BYTE_COUNT, outputIndexByteCount));
-                    final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
-                    transactionOutputIdentifiers.add(transactionOutputIdentifier);
-                }
-                final java.util.List<Row> rows = databaseConnection.query(
-                    new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE (transaction_hash, `index`) IN (?) AND amount >= 0")
-                        .setExpandedInClauseParameters(transactionOutputIdentifiers, ValueExtractor.TRANSACTION_OUTPUT_IDENTIFIER)
-                );
-                for (final Row row : rows) {
-                    final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
-                    final Integer outputIndex = row.getInteger("index");
-                    final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
+        final SortedUtxoList sortedUtxos;
+        try {
+            sortedUtxos = utxoCacheSnapshot.read(UnspentTransactionOutputJvmManager.getFlushedUnspentStateCode(), maxKeepCount);
+        }
+        catch (final InterruptedException exception) {
+            throw new DatabaseException(exception);
+        }
 
-                    final Tuple<UtxoKey, UtxoValue> utxo = _inflateUtxoFromCommittedTransactionOutputRow(transactionOutputIdentifier, row);
-                    UTXO_SET.putIfAbsent(utxo.first, utxo.second);
-                    maxRemainingCount -= 1;
-                }
+        if (sortedUtxos == null) {
+            Logger.info("UtxoCache file is corrupt; aborting UTXO cache loading.");
+            return;
+        }
 
-                nanoTimer.stop();
-                Logger.trace("Populated " + rows.size() + " UTXOs in " + nanoTimer.getMillisecondsElapsed() + "ms, " + maxRemainingCount + " remaining.");
+        _insertSortedUtxos(sortedUtxos);
 
-                if (maxRemainingCount < 1) { break; }
-            } while (bytesRead >= 0);
-        }
+        nanoTimer.stop();
+        Logger.debug("Populated " + sortedUtxos.getCount() + " UTXOs from " + utxoCacheSnapshot.getShardCount() + " shards in " + nanoTimer.getMillisecondsElapsed() + "ms.");
     }
 
     protected void _populateCacheWithRecentTransactionUtxos() throws DatabaseException {
@@ -951,7 +1145,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         final int blockBatchCount = 12;
 
         BlockId nextBlockId = blockHeaderDatabaseManager.getBlockIdAtHeight(blockchainSegmentId, committedBlockHeight);
-        final int maxKeepCount = (int) (_maxUtxoCount * (1.0D - _purgePercent));
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
         long maxRemainingCount = maxKeepCount;
 
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -1002,14 +1196,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             if (utxoValue != null) {
                 final JvmSpentState spentState = utxoValue.getSpentState();
                 if (spentState.isSpent()) { return null; }
+                utxoValue.accessBlockHeight = UtxoCacheStaticState.getUtxoBlockHeight().intValue();
                 return UnspentTransactionOutputJvmManager.inflateTransactionOutput(transactionOutputIdentifier, utxoValue);
             }
             else { // Possible cache miss
                 // Check the double-buffer before checking disk...
-                final UtxoValue doubleBufferedUtxoValue;
-                synchronized (DOUBLE_BUFFER) {
-                    doubleBufferedUtxoValue = DOUBLE_BUFFER.get(utxoKey);
-                }
+                final UtxoValue doubleBufferedUtxoValue = UnspentTransactionOutputJvmManager.getBufferedUtxoValue(utxoKey);
                 if (doubleBufferedUtxoValue != null) {
                     final JvmSpentState spentState = doubleBufferedUtxoValue.getSpentState();
                     if (spentState.isSpent()) { return null; }
@@ -1071,6 +1263,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         if (spentTransactionOutputIdentifiers.isEmpty()) { return; }
 
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             _markTransactionOutputsAsSpent(spentTransactionOutputIdentifiers);
         }
@@ -1078,6 +1271,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             _invalidateUncommittedUtxoSetAndRethrow(exception);
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1092,6 +1286,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         if (transactionOutputIdentifiers.isEmpty()) { return; }
 
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             _insertUnspentTransactionOutputs(transactionOutputIdentifiers, transactionOutputs, blockHeight, coinbaseTransactionHash);
         }
@@ -1099,6 +1294,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             _invalidateUncommittedUtxoSetAndRethrow(exception);
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1109,6 +1305,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         if (transactionOutputIdentifiers.isEmpty()) { return; }
 
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             _undoCreationOfTransactionOutputs(transactionOutputIdentifiers);
         }
@@ -1116,23 +1313,26 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             _invalidateUncommittedUtxoSetAndRethrow(exception);
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
 
     @Override
-    public void undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+    public void undoSpendingOfTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers, final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs) throws DatabaseException {
         if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
         if (transactionOutputIdentifiers.isEmpty()) { return; }
 
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
-            _undoSpendingOfTransactionOutputs(transactionOutputIdentifiers);
+            _undoSpendingOfTransactionOutputs(transactionOutputIdentifiers, spentTransactionOutputs);
         }
         catch (final Exception exception) {
             _invalidateUncommittedUtxoSetAndRethrow(exception);
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1141,13 +1341,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     public UnspentTransactionOutput getUnspentTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier) throws DatabaseException {
         if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
 
-        UTXO_READ_MUTEX.lock();
-        try {
-            return _getUnspentTransactionOutput(transactionOutputIdentifier, false);
-        }
-        finally {
-            UTXO_READ_MUTEX.unlock();
-        }
+        return UnspentTransactionOutputJvmManager.readUtxoSet(new UtxoSetRead<UnspentTransactionOutput>() {
+            @Override
+            public UnspentTransactionOutput run() throws DatabaseException {
+                return _getUnspentTransactionOutput(transactionOutputIdentifier, false);
+            }
+        });
     }
 
     @Override
@@ -1163,11 +1362,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         }
     }
 
-    @Override
-    public List<UnspentTransactionOutput> getUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
-        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
-        if (transactionOutputIdentifiers.isEmpty()) { return new MutableList<>(0); }
-
+    protected List<UnspentTransactionOutput> _getUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
         final int transactionOutputIdentifierCount = transactionOutputIdentifiers.getCount();
 
@@ -1176,12 +1371,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
         final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> transactionOutputs = new HashMap<>();
 
-        UTXO_READ_MUTEX.lock();
-        try {
+        {
             final NanoTimer cacheTimer = new NanoTimer();
             cacheTimer.start();
 
             int cacheHitCount = 0;
+            final int accessBlockHeight = UtxoCacheStaticState.getUtxoBlockHeight().intValue();
             { // Only return outputs that are in the UTXO set...
                 for (TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
                     final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
@@ -1190,6 +1385,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                         final JvmSpentState spentState = utxoValue.getSpentState();
                         if (! spentState.isSpent()) {
                             unspentTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                            utxoValue.accessBlockHeight = accessBlockHeight;
 
                             final UnspentTransactionOutput transactionOutput = UnspentTransactionOutputJvmManager.inflateTransactionOutput(transactionOutputIdentifier, utxoValue);
                             transactionOutputs.put(transactionOutputIdentifier, transactionOutput);
@@ -1198,10 +1394,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     }
                     else { // Possible cache miss...
                         // Check the double buffer first before queuing for disk-lookup...
-                        final UtxoValue doubleBufferedUtxoValue;
-                        synchronized (DOUBLE_BUFFER) {
-                            doubleBufferedUtxoValue = DOUBLE_BUFFER.get(utxoKey);
-                        }
+                        final UtxoValue doubleBufferedUtxoValue = UnspentTransactionOutputJvmManager.getBufferedUtxoValue(utxoKey);
                         if (doubleBufferedUtxoValue != null) {
                             final JvmSpentState spentState = doubleBufferedUtxoValue.getSpentState();
                             if (! spentState.isSpent()) {
@@ -1270,9 +1463,6 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             cacheTimer.stop();
             Logger.trace("getUnspentTransactionOutputs " + diskHitCount + " from disk in " + diskTimer.getMillisecondsElapsed() + "ms.");
         }
-        finally {
-            UTXO_READ_MUTEX.unlock();
-        }
 
         final NanoTimer nanoTimer = new NanoTimer();
         nanoTimer.start();
@@ -1297,6 +1487,19 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         }
     }
 
+    @Override
+    public List<UnspentTransactionOutput> getUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
+        if (transactionOutputIdentifiers.isEmpty()) { return new MutableList<>(0); }
+
+        return UnspentTransactionOutputJvmManager.readUtxoSet(new UtxoSetRead<List<UnspentTransactionOutput>>() {
+            @Override
+            public List<UnspentTransactionOutput> run() throws DatabaseException {
+                return _getUnspentTransactionOutputs(transactionOutputIdentifiers);
+            }
+        });
+    }
+
     @Override
     public List<TransactionOutputIdentifier> getFastSyncOutputIdentifiers(final Sha256Hash transactionHash) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
@@ -1374,10 +1577,12 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
 
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             UtxoCacheStaticState.UNCOMMITTED_UTXO_BLOCK_HEIGHT.value = blockHeight;
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1408,18 +1613,22 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     @Override
     public void clearCommittedUtxoSet() throws DatabaseException {
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             synchronized (DOUBLE_BUFFER) {
-                if (DOUBLE_BUFFER_THREAD != null) {
-                    try {
-                        DOUBLE_BUFFER_THREAD.join();
-                    }
-                    catch (final Exception exception) {
-                        throw new DatabaseException(exception);
+                try {
+                    while (DOUBLE_BUFFER_THREAD != null) { // The flusher thread must acquire the DOUBLE_BUFFER monitor to exit, so it cannot be joined here.
+                        DOUBLE_BUFFER.wait();
                     }
                 }
+                catch (final InterruptedException exception) {
+                    throw new DatabaseException(exception);
+                }
                 DOUBLE_BUFFER.clear();
+                QUEUED_BUFFER.clear();
+                QUEUED_COMMIT_BLOCK_HEIGHT = null;
             }
+            CACHE_GENERATION.incrementAndGet();
 
             COMMITTED_UTXO_TABLE_WRITE_LOCK.lock();
             try {
@@ -1439,6 +1648,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             }
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1446,17 +1656,19 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     @Override
     public void clearUncommittedUtxoSet() {
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             _clearUncommittedUtxoSet();
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
 
     @Override
     public Long getMaxUtxoCount() {
-        return _maxUtxoCount;
+        return _getMaxUtxoCount();
     }
 
     @Override
@@ -1478,6 +1690,145 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
         return unspentTransactionOutput;
     }
 
+    @Override
+    public Integer cacheCommittedUnspentTransactionOutputs(final List<TransactionOutputIdentifier> transactionOutputIdentifiers, final List<UnspentTransactionOutput> transactionOutputs) throws DatabaseException {
+        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
+
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
+
+        final int flushedUnspentStateCode;
+        {
+            final JvmSpentState spentState = new JvmSpentState();
+            spentState.setIsSpent(false);
+            spentState.setIsFlushedToDisk(true);
+            spentState.setIsFlushMandatory(false);
+            flushedUnspentStateCode = spentState.intValue();
+        }
+
+        UTXO_WRITE_MUTEX.lock();
+        try {
+            int cachedCount = 0;
+            final int transactionOutputCount = transactionOutputs.getCount();
+            for (int i = 0; i < transactionOutputCount; ++i) {
+                if (UTXO_SET.size() >= maxKeepCount) { break; }
+
+                final TransactionOutputIdentifier transactionOutputIdentifier = transactionOutputIdentifiers.get(i);
+                final UnspentTransactionOutput transactionOutput = transactionOutputs.get(i);
+                final long blockHeight = transactionOutput.getBlockHeight();
+                final LockingScript lockingScript = transactionOutput.getLockingScript();
+
+                final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
+                final UtxoValue utxoValue = new UtxoValue(flushedUnspentStateCode, blockHeight, transactionOutput.isCoinbase(), transactionOutput.getAmount(), lockingScript.getBytes().getBytes());
+                final UtxoValue existingUtxoValue = UTXO_SET.putIfAbsent(utxoKey, utxoValue);
+                if (existingUtxoValue == null) {
+                    _minBlockHeight = Math.min(blockHeight, _minBlockHeight);
+                    _maxBlockHeight = Math.max(blockHeight, _maxBlockHeight);
+                    cachedCount += 1;
+                }
+            }
+            return cachedCount;
+        }
+        finally {
+            UTXO_WRITE_MUTEX.unlock();
+        }
+    }
+
+    /**
+     * The prefetch is performed in three steps so that the database is never queried while holding the UTXO mutex:
+     *  1. Without acquiring UTXO_READ_MUTEX, the identifiers not found within the cache or buffers are collected.
+     *  2. The committed UTXO set is queried for the collected identifiers, in sorted order, across PREFETCH_THREAD_COUNT connections.
+     *  3. While holding UTXO_WRITE_MUTEX, the results are added to the cache without replacing any UTXO cached in the meantime.
+     *  Any UTXO spent after step 1 is recorded within the cache until the next commit, so the results of step 2 are only
+     *  stale if a commit (or clear) occurred before step 3, in which case the results are discarded.
+     */
+    @Override
+    public Integer prefetchUnspentTransactionOutputs(final DatabaseManagerFactory databaseManagerFactory, final List<TransactionOutputIdentifier> transactionOutputIdentifiers) throws DatabaseException {
+        if (UtxoCacheStaticState.isUtxoCacheDefunct()) { throw new DatabaseException("Attempting to access invalidated UTXO set."); }
+        if (transactionOutputIdentifiers.isEmpty()) { return 0; }
+
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
+
+        final long cacheGeneration = CACHE_GENERATION.get();
+        final MutableList<TransactionOutputIdentifier> cacheMissIdentifiers = new MutableList<>(transactionOutputIdentifiers.getCount());
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : transactionOutputIdentifiers) {
+            final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
+            if (UTXO_SET.containsKey(utxoKey)) { continue; }
+            if (UnspentTransactionOutputJvmManager.getBufferedUtxoValue(utxoKey) != null) { continue; }
+
+            cacheMissIdentifiers.add(transactionOutputIdentifier);
+        }
+
+        if (cacheMissIdentifiers.isEmpty()) { return 0; }
+
+        // Sorting the identifiers clusters each batch within the committed UTXO table's primary key.
+        cacheMissIdentifiers.sort(new Comparator<TransactionOutputIdentifier>() {
+            @Override
+            public int compare(final TransactionOutputIdentifier transactionOutputIdentifier0, final TransactionOutputIdentifier transactionOutputIdentifier1) {
+                return transactionOutputIdentifier0.compareTo(transactionOutputIdentifier1);
+            }
+        });
+
+        final java.util.List<Row> rows = new ArrayList<>(cacheMissIdentifiers.getCount());
+        final Integer batchSize = Math.min(512, _databaseManager.getMaxQueryBatchSize());
+        final BatchRunner<TransactionOutputIdentifier> batchRunner = new BatchRunner<>(batchSize, true, PREFETCH_THREAD_COUNT);
+        batchRunner.run(cacheMissIdentifiers, new BatchRunner.Batch<TransactionOutputIdentifier>() {
+            @Override
+            public void run(final List<TransactionOutputIdentifier> batchIdentifiers) throws Exception {
+                try (final DatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
+                    final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+                    final java.util.List<Row> batchRows = databaseConnection.query(
+                        new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM committed_unspent_transaction_outputs WHERE (transaction_hash, `index`) IN (?) AND amount >= 0")
+                            .setExpandedInClauseParameters(batchIdentifiers, ValueExtractor.TRANSACTION_OUTPUT_IDENTIFIER)
+                    );
+
+                    synchronized (rows) {
+                        rows.addAll(batchRows);
+                    }
+                }
+            }
+        });
+
+        final int maxKeepCount = (int) (_getMaxUtxoCount() * (1.0D - _purgePercent));
+
+        int cachedCount = 0;
+        UTXO_WRITE_MUTEX.lock();
+        try {
+            if (CACHE_GENERATION.get() != cacheGeneration) {
+                Logger.debug("Discarding " + rows.size() + " prefetched UTXOs due to an intervening commit.");
+                return 0;
+            }
+
+            final int accessBlockHeight = UtxoCacheStaticState.getUtxoBlockHeight().intValue();
+            for (final Row row : rows) {
+                if (UTXO_SET.size() >= maxKeepCount) { break; }
+
+                final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
+                final Integer outputIndex = row.getInteger("index");
+                final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+
+                final Tuple<UtxoKey, UtxoValue> utxo = _inflateUtxoFromCommittedTransactionOutputRow(transactionOutputIdentifier, row);
+                utxo.second.accessBlockHeight = accessBlockHeight; // Prevent the prefetched UTXO from being purged as cold before it is used.
+
+                final UtxoValue existingUtxoValue = UTXO_SET.putIfAbsent(utxo.first, utxo.second);
+                if (existingUtxoValue == null) {
+                    final long lastUsedBlockHeight = utxo.second.getLastUsedBlockHeight();
+                    _minBlockHeight = Math.min(lastUsedBlockHeight, _minBlockHeight);
+                    _maxBlockHeight = Math.max(lastUsedBlockHeight, _maxBlockHeight);
+                    cachedCount += 1;
+                }
+            }
+        }
+        finally {
+            UTXO_WRITE_MUTEX.unlock();
+        }
+
+        nanoTimer.stop();
+        Logger.trace("Prefetched " + cachedCount + " of " + cacheMissIdentifiers.getCount() + " UTXOs in " + nanoTimer.getMillisecondsElapsed() + "ms.");
+
+        return cachedCount;
+    }
+
     protected void _visitUtxoKey(final UtxoKey utxoKey, final UnspentTransactionOutputVisitor visitor) throws Exception {
         final Sha256Hash transactionHash = Sha256Hash.copyOf(utxoKey.transactionHash);
         final Integer outputIndex = utxoKey.outputIndex;
@@ -1518,7 +1869,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                     final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
                     final UtxoKey utxoKey = new UtxoKey(transactionOutputIdentifier);
                     if (UTXO_SET.containsKey(utxoKey)) { continue; }
-                    if (DOUBLE_BUFFER.containsKey(utxoKey)) { continue; }
+                    if (UnspentTransactionOutputJvmManager.getBufferedUtxoValue(utxoKey) != null) { continue; }
 
                     final UnspentTransactionOutput unspentTransactionOutput = _getUnspentTransactionOutput(transactionOutputIdentifier, false);
                     if (unspentTransactionOutput == null) { continue; }
@@ -1558,10 +1909,17 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
                 _visitUtxoKey(utxoKey, visitor);
             }
 
-            // Iterate through the UTXO double buffer, omitting items found within the cache to prevent duplicates...
+            // Iterate through the UTXO queued buffer and double buffer, omitting items found within the cache (or queued buffer) to prevent duplicates...
             synchronized (DOUBLE_BUFFER) {
+                for (final UtxoKey utxoKey : QUEUED_BUFFER.keySet()) {
+                    if (UTXO_SET.containsKey(utxoKey)) { continue; }
+
+                    _visitUtxoKey(utxoKey, visitor);
+                }
+
                 for (final UtxoKey utxoKey : DOUBLE_BUFFER.keySet()) {
                     if (UTXO_SET.containsKey(utxoKey)) { continue; }
+                    if (QUEUED_BUFFER.containsKey(utxoKey)) { continue; }
 
                     _visitUtxoKey(utxoKey, visitor);
                 }
@@ -1583,6 +1941,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
 
     public void populateCache(final CacheLoadingMethod cacheLoadingMethod) throws DatabaseException {
         UTXO_WRITE_MUTEX.lock();
+        UnspentTransactionOutputJvmManager.beginUtxoSetModification();
         try {
             if (cacheLoadingMethod == CacheLoadingMethod.LOAD_VIA_UTXO_LOAD_FILE) {
                 _populateCacheViaLoadFile();
@@ -1595,6 +1954,7 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
             throw new DatabaseException(exception);
         }
         finally {
+            UnspentTransactionOutputJvmManager.endUtxoSetModification();
             UTXO_WRITE_MUTEX.unlock();
         }
     }
@@ -1613,15 +1973,13 @@ public class UnspentTransactionOutputJvmManager implements UnspentTransactionOut
     }
 
     public Boolean doesUtxoCacheLoadFileExist() {
-        final String dataDirectory = _blockStore.getDataDirectory();
-        final File file = new File(dataDirectory + "/" + UTXO_CACHE_LOAD_FILE_NAME);
-        return ( (dataDirectory != null) && file.exists() );
+        final File file = _getCacheLoadFile();
+        return ( (file != null) && file.exists() );
     }
 
     public void deleteUtxoCacheLoadFile() {
-        final String dataDirectory = _blockStore.getDataDirectory();
-        final File file = new File(dataDirectory + "/" + UTXO_CACHE_LOAD_FILE_NAME);
-        if ( (dataDirectory == null) || (! file.exists()) ) { return; }
+        final File file = _getCacheLoadFile();
+        if ( (file == null) || (! file.exists()) ) { return; }
 
         file.delete();
     }
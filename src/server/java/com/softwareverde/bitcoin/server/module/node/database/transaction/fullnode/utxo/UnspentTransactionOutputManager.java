@@ -11,6 +11,7 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.script.ScriptPatternMatcher;
 import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
@@ -22,6 +23,8 @@ import com.softwareverde.logging.Logger;
 import com.softwareverde.util.Util;
 import com.softwareverde.util.timer.MilliTimer;
 
+import java.util.Map;
+
 public class UnspentTransactionOutputManager {
     public static void lockUtxoSet() {
         UnspentTransactionOutputDatabaseManager.lockUtxoSet();
@@ -285,8 +288,11 @@ public class UnspentTransactionOutputManager {
                 newOutputIdentifiers.addAll(transactionOutputIdentifiers);
             }
 
+            final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(_databaseManager);
+            final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = undoLogDatabaseManager.getUndoLog(blockHeight, block.getHash());
+
             unspentTransactionOutputDatabaseManager.undoCreationOfTransactionOutputs(newOutputIdentifiers);
-            unspentTransactionOutputDatabaseManager.undoSpendingOfTransactionOutputs(previousOutputIdentifiers);
+            unspentTransactionOutputDatabaseManager.undoSpendingOfTransactionOutputs(previousOutputIdentifiers, spentTransactionOutputs);
             unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(blockHeight - 1L);
             Logger.trace("UTXO Block Height: " + (blockHeight - 1L) + " " + unspentTransactionOutputDatabaseManager.getUncommittedUnspentTransactionOutputBlockHeight());
         }
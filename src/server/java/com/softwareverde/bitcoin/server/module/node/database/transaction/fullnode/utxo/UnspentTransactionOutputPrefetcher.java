@@ -0,0 +1,124 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.inflater.BlockInflaters;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStore;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.concurrent.threadpool.ThreadPool;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the UTXOs spent by an upcoming pending block into the UTXO cache in the background, so that validating the
+ *  block rarely waits on the database.  The prefetch is intended to run while the preceding block is validated.
+ *  Only one block is prefetched at a time; requests made while a prefetch is in progress are ignored.
+ */
+public class UnspentTransactionOutputPrefetcher {
+    /**
+     * Returns the identifiers of the outputs spent by the block that are not created by the block itself, which are the
+     *  only outputs that may need to be loaded from the committed UTXO set.
+     */
+    public static List<TransactionOutputIdentifier> getRequiredPreviousTransactionOutputIdentifiers(final Block block) {
+        final List<Transaction> transactions = block.getTransactions();
+        final int transactionCount = transactions.getCount();
+
+        final HashSet<Sha256Hash> blockTransactionHashes = new HashSet<>(transactionCount);
+        for (final Transaction transaction : transactions) {
+            final Sha256Hash transactionHash = transaction.getHash();
+            blockTransactionHashes.add(transactionHash.asConst());
+        }
+
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<>();
+        for (int i = 1; i < transactionCount; ++i) { // Skip the coinbase transaction...
+            final Transaction transaction = transactions.get(i);
+            for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+                if (blockTransactionHashes.contains(transactionOutputIdentifier.getTransactionHash())) { continue; }
+
+                transactionOutputIdentifiers.add(transactionOutputIdentifier);
+            }
+        }
+        return transactionOutputIdentifiers;
+    }
+
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final PendingBlockStore _blockStore;
+    protected final BlockInflaters _blockInflaters;
+    protected final ThreadPool _threadPool;
+
+    protected final AtomicBoolean _isPrefetching = new AtomicBoolean(false);
+    protected volatile Sha256Hash _lastPrefetchedBlockHash = null;
+
+    protected void _prefetch(final Sha256Hash blockHash) {
+        final ByteArray pendingBlockData = _blockStore.getPendingBlockData(blockHash);
+        if (pendingBlockData == null) { return; }
+
+        final BlockInflater blockInflater = _blockInflaters.getBlockInflater();
+        final Block block = blockInflater.fromBytes(pendingBlockData);
+        if (block == null) { return; }
+
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcher.getRequiredPreviousTransactionOutputIdentifiers(block);
+
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = databaseManager.getUnspentTransactionOutputDatabaseManager();
+            final Integer prefetchedCount = unspentTransactionOutputDatabaseManager.prefetchUnspentTransactionOutputs(_databaseManagerFactory, transactionOutputIdentifiers);
+            Logger.debug("Prefetched " + prefetchedCount + " of " + transactionOutputIdentifiers.getCount() + " UTXOs for block " + blockHash + ".");
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    public UnspentTransactionOutputPrefetcher(final FullNodeDatabaseManagerFactory databaseManagerFactory, final PendingBlockStore blockStore, final BlockInflaters blockInflaters, final ThreadPool threadPool) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _blockStore = blockStore;
+        _blockInflaters = blockInflaters;
+        _threadPool = threadPool;
+    }
+
+    /**
+     * Schedules the UTXOs spent by the pending block to be loaded into the UTXO cache and returns immediately.
+     *  Returns false if the block was not scheduled because a prefetch is already in progress, the block was already
+     *  prefetched, or the UTXO cache is not ready.
+     */
+    public Boolean prefetch(final Sha256Hash blockHash) {
+        if (! UnspentTransactionOutputDatabaseManager.isUtxoCacheReady()) { return false; }
+        if (Util.areEqual(_lastPrefetchedBlockHash, blockHash)) { return false; }
+        if (! _isPrefetching.compareAndSet(false, true)) { return false; }
+
+        _lastPrefetchedBlockHash = blockHash;
+        _threadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    _prefetch(blockHash);
+                }
+                catch (final Exception exception) {
+                    Logger.debug(exception);
+                }
+                finally {
+                    _isPrefetching.set(false);
+                }
+            }
+        });
+
+        return true;
+    }
+
+    public Boolean isPrefetching() {
+        return _isPrefetching.get();
+    }
+}
@@ -3,6 +3,7 @@ package com.softwareverde.bitcoin.server.module.node.database.transaction.fullno
 import com.softwareverde.util.Container;
 import com.softwareverde.util.Util;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class UtxoCacheStaticState {
@@ -17,6 +18,12 @@ public class UtxoCacheStaticState {
     // null indicates uninitialized; -1 represents an invalidated set, and must first be cleared (via _clearUncommittedUtxoSet) before any other operations are performed.
     protected static final Container<Long> UNCOMMITTED_UTXO_BLOCK_HEIGHT = new Container<>(null);
 
+    // The maximum number of UTXOs the cache may hold as determined by the MemoryGovernor; 0 indicates the cache is ungoverned and only the configured maximum applies.
+    protected static final AtomicLong GOVERNED_MAX_UTXO_COUNT = new AtomicLong(0L);
+
+    // The number of unspent UTXOs purged from the cache to satisfy its maximum size; spent UTXOs removed during a commit are not considered evictions.
+    protected static final AtomicLong EVICTED_UTXO_COUNT = new AtomicLong(0L);
+
     protected static Long getUtxoBlockHeight() {
         return Util.coalesce(UNCOMMITTED_UTXO_BLOCK_HEIGHT.value, 0L);
     }
@@ -0,0 +1,65 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A sorted UTXO map that may be read concurrently with (and without blocking on) modifications.
+ *  Unlike ConcurrentSkipListMap, size() is a constant-time counter rather than a traversal of the map; the count
+ *  is only exact if modifications are serialized, and is only maintained through put, putIfAbsent, remove, and clear
+ *  (including removals via the map's views and iterators).
+ */
+public class ConcurrentUtxoMap extends ConcurrentSkipListMap<UtxoKey, UtxoValue> {
+    protected final AtomicInteger _utxoCount = new AtomicInteger(0);
+
+    public ConcurrentUtxoMap() {
+        super(UtxoKey.COMPARATOR);
+    }
+
+    @Override
+    public UtxoValue put(final UtxoKey utxoKey, final UtxoValue utxoValue) {
+        final UtxoValue previousUtxoValue = super.put(utxoKey, utxoValue);
+        if (previousUtxoValue == null) {
+            _utxoCount.incrementAndGet();
+        }
+        return previousUtxoValue;
+    }
+
+    @Override
+    public UtxoValue putIfAbsent(final UtxoKey utxoKey, final UtxoValue utxoValue) {
+        final UtxoValue existingUtxoValue = super.putIfAbsent(utxoKey, utxoValue);
+        if (existingUtxoValue == null) {
+            _utxoCount.incrementAndGet();
+        }
+        return existingUtxoValue;
+    }
+
+    @Override
+    public UtxoValue remove(final Object utxoKey) {
+        final UtxoValue removedUtxoValue = super.remove(utxoKey);
+        if (removedUtxoValue != null) {
+            _utxoCount.decrementAndGet();
+        }
+        return removedUtxoValue;
+    }
+
+    @Override
+    public boolean remove(final Object utxoKey, final Object utxoValue) {
+        final boolean wasRemoved = super.remove(utxoKey, utxoValue);
+        if (wasRemoved) {
+            _utxoCount.decrementAndGet();
+        }
+        return wasRemoved;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        _utxoCount.set(0);
+    }
+
+    @Override
+    public int size() {
+        return _utxoCount.get();
+    }
+}
@@ -0,0 +1,32 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+/**
+ * UTXOs that are already sorted by UtxoKey, as read from a UtxoCacheSnapshot.
+ *  Inserting the UTXOs into the cache in this order keeps each insertion adjacent to the previous one, which avoids
+ *  the random access of inserting them unordered; each insertion is still a skip-list insertion.
+ */
+public class SortedUtxoList {
+    protected final UtxoKey[] _utxoKeys;
+    protected final UtxoValue[] _utxoValues;
+    protected final int _utxoCount;
+
+    public SortedUtxoList(final UtxoKey[] utxoKeys, final UtxoValue[] utxoValues, final int utxoCount) {
+        _utxoKeys = utxoKeys;
+        _utxoValues = utxoValues;
+        _utxoCount = utxoCount;
+    }
+
+    public int getCount() {
+        return _utxoCount;
+    }
+
+    public UtxoKey getUtxoKey(final int index) {
+        if ( (index < 0) || (index >= _utxoCount) ) { throw new IndexOutOfBoundsException(); }
+        return _utxoKeys[index];
+    }
+
+    public UtxoValue getUtxoValue(final int index) {
+        if ( (index < 0) || (index >= _utxoCount) ) { throw new IndexOutOfBoundsException(); }
+        return _utxoValues[index];
+    }
+}
@@ -27,18 +27,18 @@ public class Utxo {
     }
 
     public long getBlockHeight() {
-        return _utxoValue.blockHeight;
+        return _utxoValue.getBlockHeight();
     }
 
     public boolean isCoinbase() {
-        return _utxoValue.isCoinbase;
+        return _utxoValue.isCoinbase();
     }
 
     public long getAmount() {
-        return _utxoValue.amount;
+        return _utxoValue.getAmount();
     }
 
     public byte[] getLockingScript() {
-        return _utxoValue.lockingScript;
+        return _utxoValue.getLockingScript();
     }
 }
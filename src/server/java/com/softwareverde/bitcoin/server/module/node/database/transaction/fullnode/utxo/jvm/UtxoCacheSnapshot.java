@@ -0,0 +1,413 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * A versioned, checksummed snapshot of the UTXO cache, split into shards so that it may be verified and loaded in parallel.
+ *  The file is laid out as (all integers are big-endian):
+ *      [4 bytes magic][4 bytes version][8 bytes block height][8 bytes UTXO count][4 bytes shard count]
+ *      per shard: [8 bytes file offset][8 bytes byte count][4 bytes UTXO count][8 bytes CRC32 of the shard]
+ *      [8 bytes CRC32 of the preceding header bytes]
+ *  followed by each shard:
+ *      [4 bytes per UTXO: the offset of the UTXO's record relative to the end of the shard's index]
+ *      per UTXO, in UtxoKey order: [32 bytes transaction hash][4 bytes output index][4 bytes packed block height]
+ *          [4 bytes access block height][4 bytes compressed output byte count][compressed output]
+ *  The packed block height and compressed output are the UtxoValue's in-memory forms (see UtxoCompressor), so UTXOs
+ *  are loaded from the snapshot without being re-encoded.
+ *  Shards are contiguous ranges of the sorted UTXOs and are read via memory mapping.
+ *  The snapshot is written to a temporary file and then renamed, so a partially written snapshot is never read.
+ */
+public class UtxoCacheSnapshot {
+    public static final int MAGIC = 0x55545853; // "UTXS"
+    public static final int VERSION = 2; // Version 1 stored uncompressed UTXOs.
+
+    protected static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    protected static final int HEADER_BYTE_COUNT = (4 + 4 + 8 + 8 + 4);
+    protected static final int SHARD_DESCRIPTOR_BYTE_COUNT = (8 + 8 + 4 + 8);
+    protected static final int CHECKSUM_BYTE_COUNT = 8;
+    protected static final int INDEX_ENTRY_BYTE_COUNT = 4;
+    protected static final int RECORD_HEADER_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4 + 4 + 4 + 4);
+    protected static final long MAX_SHARD_BYTE_COUNT = (256L * 1024L * 1024L);
+
+    protected interface ShardTask {
+        void run(int shardIndex) throws Exception;
+    }
+
+    protected static class Shard {
+        public final int utxoCount;
+        public final long checksum;
+        public final ByteBuffer byteBuffer;
+
+        public Shard(final int utxoCount, final long checksum, final ByteBuffer byteBuffer) {
+            this.utxoCount = utxoCount;
+            this.checksum = checksum;
+            this.byteBuffer = byteBuffer;
+        }
+    }
+
+    protected static long getRecordByteCount(final UtxoValue utxoValue) {
+        return (RECORD_HEADER_BYTE_COUNT + utxoValue.compressedOutput.length);
+    }
+
+    protected static void write(final OutputStream outputStream, final CRC32 crc32, final byte[] bytes, final int byteCount) throws IOException {
+        outputStream.write(bytes, 0, byteCount);
+        crc32.update(bytes, 0, byteCount);
+    }
+
+    protected static UtxoKey readUtxoKey(final ByteBuffer byteBuffer, final int recordPosition) {
+        final byte[] transactionHash = new byte[Sha256Hash.BYTE_COUNT];
+        final ByteBuffer recordBuffer = byteBuffer.duplicate();
+        recordBuffer.position(recordPosition);
+        recordBuffer.get(transactionHash);
+        final int outputIndex = recordBuffer.getInt();
+        return new UtxoKey(transactionHash, outputIndex);
+    }
+
+    protected static UtxoValue readUtxoValue(final ByteBuffer byteBuffer, final int recordPosition, final int spentStateCode) {
+        final ByteBuffer recordBuffer = byteBuffer.duplicate();
+        recordBuffer.position(recordPosition + Sha256Hash.BYTE_COUNT + 4);
+        final int packedBlockHeight = recordBuffer.getInt();
+        final int accessBlockHeight = recordBuffer.getInt();
+        final byte[] compressedOutput = new byte[recordBuffer.getInt()];
+        recordBuffer.get(compressedOutput);
+
+        final UtxoValue utxoValue = new UtxoValue(spentStateCode, packedBlockHeight, compressedOutput);
+        utxoValue.accessBlockHeight = accessBlockHeight;
+        return utxoValue;
+    }
+
+    /**
+     * Writes the UTXOs, which must be sorted by UtxoKey, to the snapshot file, replacing any existing snapshot.
+     *  The UTXOs are split across at least minShardCount shards, and more if necessary to keep each shard within
+     *  MAX_SHARD_BYTE_COUNT bytes.
+     */
+    public static void write(final File file, final Long blockHeight, final List<Map.Entry<UtxoKey, UtxoValue>> utxos, final Integer minShardCount) throws IOException {
+        final int utxoCount = utxos.size();
+
+        final int shardCount;
+        {
+            long totalByteCount = 0L;
+            for (final Map.Entry<UtxoKey, UtxoValue> utxo : utxos) {
+                totalByteCount += (INDEX_ENTRY_BYTE_COUNT + UtxoCacheSnapshot.getRecordByteCount(utxo.getValue()));
+            }
+            final int requiredShardCount = (int) ((totalByteCount / MAX_SHARD_BYTE_COUNT) + 1L);
+            shardCount = Math.max(1, Math.min(Math.max(minShardCount, requiredShardCount), utxoCount));
+        }
+
+        final int[] shardUtxoCounts = new int[shardCount];
+        final long[] shardByteCounts = new long[shardCount];
+        final long[] shardChecksums = new long[shardCount];
+        final int headerByteCount = (HEADER_BYTE_COUNT + (shardCount * SHARD_DESCRIPTOR_BYTE_COUNT) + CHECKSUM_BYTE_COUNT);
+
+        final File temporaryFile = new File(file.getPath() + TEMPORARY_FILE_EXTENSION);
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(temporaryFile, "rw")) {
+            randomAccessFile.setLength(0L);
+
+            final FileChannel fileChannel = randomAccessFile.getChannel();
+            fileChannel.position(headerByteCount);
+
+            final OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(fileChannel), (1024 * 1024));
+            final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_HEADER_BYTE_COUNT);
+            for (int shardIndex = 0; shardIndex < shardCount; ++shardIndex) {
+                final int startIndex = (int) ((((long) utxoCount) * shardIndex) / shardCount);
+                final int endIndex = (int) ((((long) utxoCount) * (shardIndex + 1)) / shardCount);
+                final CRC32 crc32 = new CRC32();
+
+                long shardByteCount = 0L;
+                int recordOffset = 0;
+                for (int i = startIndex; i < endIndex; ++i) {
+                    final UtxoValue utxoValue = utxos.get(i).getValue();
+
+                    recordBuffer.clear();
+                    recordBuffer.putInt(recordOffset);
+                    UtxoCacheSnapshot.write(outputStream, crc32, recordBuffer.array(), INDEX_ENTRY_BYTE_COUNT);
+                    shardByteCount += INDEX_ENTRY_BYTE_COUNT;
+
+                    final long recordByteCount = UtxoCacheSnapshot.getRecordByteCount(utxoValue);
+                    if ((recordOffset + recordByteCount) > Integer.MAX_VALUE) {
+                        throw new IOException("UTXO cache snapshot shard exceeds the maximum size.");
+                    }
+                    recordOffset += recordByteCount;
+                }
+
+                for (int i = startIndex; i < endIndex; ++i) {
+                    final Map.Entry<UtxoKey, UtxoValue> utxo = utxos.get(i);
+                    final UtxoKey utxoKey = utxo.getKey();
+                    final UtxoValue utxoValue = utxo.getValue();
+                    final byte[] compressedOutput = utxoValue.compressedOutput;
+
+                    recordBuffer.clear();
+                    recordBuffer.put(utxoKey.transactionHash);
+                    recordBuffer.putInt(utxoKey.outputIndex);
+                    recordBuffer.putInt(utxoValue.packedBlockHeight);
+                    recordBuffer.putInt(utxoValue.accessBlockHeight);
+                    recordBuffer.putInt(compressedOutput.length);
+                    UtxoCacheSnapshot.write(outputStream, crc32, recordBuffer.array(), RECORD_HEADER_BYTE_COUNT);
+                    UtxoCacheSnapshot.write(outputStream, crc32, compressedOutput, compressedOutput.length);
+                    shardByteCount += (RECORD_HEADER_BYTE_COUNT + compressedOutput.length);
+                }
+
+                shardUtxoCounts[shardIndex] = (endIndex - startIndex);
+                shardByteCounts[shardIndex] = shardByteCount;
+                shardChecksums[shardIndex] = crc32.getValue();
+            }
+            outputStream.flush();
+
+            final ByteBuffer headerBuffer = ByteBuffer.allocate(headerByteCount);
+            headerBuffer.putInt(MAGIC);
+            headerBuffer.putInt(VERSION);
+            headerBuffer.putLong(blockHeight);
+            headerBuffer.putLong(utxoCount);
+            headerBuffer.putInt(shardCount);
+
+            long shardOffset = headerByteCount;
+            for (int shardIndex = 0; shardIndex < shardCount; ++shardIndex) {
+                headerBuffer.putLong(shardOffset);
+                headerBuffer.putLong(shardByteCounts[shardIndex]);
+                headerBuffer.putInt(shardUtxoCounts[shardIndex]);
+                headerBuffer.putLong(shardChecksums[shardIndex]);
+                shardOffset += shardByteCounts[shardIndex];
+            }
+
+            final CRC32 headerCrc32 = new CRC32();
+            headerCrc32.update(headerBuffer.array(), 0, headerBuffer.position());
+            headerBuffer.putLong(headerCrc32.getValue());
+
+            headerBuffer.flip();
+            fileChannel.position(0L);
+            while (headerBuffer.hasRemaining()) {
+                fileChannel.write(headerBuffer);
+            }
+            fileChannel.force(false);
+        }
+        catch (final IOException exception) {
+            temporaryFile.delete();
+            throw exception;
+        }
+
+        if (file.exists()) {
+            file.delete();
+        }
+
+        if (! temporaryFile.renameTo(file)) {
+            temporaryFile.delete();
+            throw new IOException("Unable to rename UTXO cache snapshot: " + temporaryFile.getPath());
+        }
+    }
+
+    /**
+     * Memory-maps the snapshot file and verifies its header.
+     *  Returns null if the file is not a snapshot, is of an unsupported version, or its header is corrupt.
+     *  The shards' contents are not verified until the snapshot is read (or explicitly verified).
+     */
+    public static UtxoCacheSnapshot open(final File file) throws IOException {
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            final FileChannel fileChannel = randomAccessFile.getChannel();
+            final long fileByteCount = fileChannel.size();
+            if (fileByteCount < (HEADER_BYTE_COUNT + CHECKSUM_BYTE_COUNT)) {
+                Logger.debug("UTXO cache snapshot is truncated: " + file.getPath());
+                return null;
+            }
+
+            final byte[] headerBytes = new byte[HEADER_BYTE_COUNT];
+            randomAccessFile.readFully(headerBytes);
+            final ByteBuffer headerBuffer = ByteBuffer.wrap(headerBytes);
+
+            final int magic = headerBuffer.getInt();
+            final int version = headerBuffer.getInt();
+            if ( (magic != MAGIC) || (version != VERSION) ) {
+                Logger.debug("Unsupported UTXO cache snapshot format: " + file.getPath());
+                return null;
+            }
+
+            final long blockHeight = headerBuffer.getLong();
+            final long utxoCount = headerBuffer.getLong();
+            final int shardCount = headerBuffer.getInt();
+            final long headerByteCount = (HEADER_BYTE_COUNT + (((long) shardCount) * SHARD_DESCRIPTOR_BYTE_COUNT) + CHECKSUM_BYTE_COUNT);
+            if ( (shardCount < 1) || (headerByteCount > fileByteCount) ) {
+                Logger.debug("UTXO cache snapshot header is corrupt: " + file.getPath());
+                return null;
+            }
+
+            final byte[] shardDescriptorBytes = new byte[(int) (headerByteCount - HEADER_BYTE_COUNT)];
+            randomAccessFile.readFully(shardDescriptorBytes);
+            final ByteBuffer shardDescriptorBuffer = ByteBuffer.wrap(shardDescriptorBytes);
+
+            final CRC32 headerCrc32 = new CRC32();
+            headerCrc32.update(headerBytes);
+            headerCrc32.update(shardDescriptorBytes, 0, (shardDescriptorBytes.length - CHECKSUM_BYTE_COUNT));
+            final long headerChecksum = shardDescriptorBuffer.getLong(shardDescriptorBytes.length - CHECKSUM_BYTE_COUNT);
+            if (headerCrc32.getValue() != headerChecksum) {
+                Logger.debug("UTXO cache snapshot header checksum mismatch: " + file.getPath());
+                return null;
+            }
+
+            final Shard[] shards = new Shard[shardCount];
+            for (int shardIndex = 0; shardIndex < shardCount; ++shardIndex) {
+                final long shardOffset = shardDescriptorBuffer.getLong();
+                final long shardByteCount = shardDescriptorBuffer.getLong();
+                final int shardUtxoCount = shardDescriptorBuffer.getInt();
+                final long shardChecksum = shardDescriptorBuffer.getLong();
+
+                final boolean shardIsOutOfBounds = ( (shardOffset < headerByteCount) || (shardByteCount > Integer.MAX_VALUE) || ((shardOffset + shardByteCount) > fileByteCount) );
+                final boolean shardIndexIsOutOfBounds = ( (shardUtxoCount < 0) || ((((long) shardUtxoCount) * INDEX_ENTRY_BYTE_COUNT) > shardByteCount) );
+                if (shardIsOutOfBounds || shardIndexIsOutOfBounds) {
+                    Logger.debug("UTXO cache snapshot shard " + shardIndex + " is out of bounds: " + file.getPath());
+                    return null;
+                }
+
+                final ByteBuffer byteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, shardOffset, shardByteCount);
+                shards[shardIndex] = new Shard(shardUtxoCount, shardChecksum, byteBuffer);
+            }
+
+            return new UtxoCacheSnapshot(blockHeight, utxoCount, shards);
+        }
+    }
+
+    protected final Long _blockHeight;
+    protected final Long _utxoCount;
+    protected final Shard[] _shards;
+
+    protected UtxoCacheSnapshot(final Long blockHeight, final Long utxoCount, final Shard[] shards) {
+        _blockHeight = blockHeight;
+        _utxoCount = utxoCount;
+        _shards = shards;
+    }
+
+    protected int _getRecordPosition(final Shard shard, final int utxoIndex) {
+        final int indexByteCount = (shard.utxoCount * INDEX_ENTRY_BYTE_COUNT);
+        return (indexByteCount + shard.byteBuffer.getInt(utxoIndex * INDEX_ENTRY_BYTE_COUNT));
+    }
+
+    protected Boolean _isShardValid(final Shard shard) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(shard.byteBuffer.duplicate());
+        return (crc32.getValue() == shard.checksum);
+    }
+
+    /**
+     * Runs the task for each shard across up to one thread per processor.
+     *  Returns false if the task failed for any shard, in which case the remaining shards may not have been run.
+     */
+    protected Boolean _forEachShard(final ShardTask shardTask) throws InterruptedException {
+        final AtomicInteger nextShardIndex = new AtomicInteger(0);
+        final AtomicBoolean hasFailed = new AtomicBoolean(false);
+
+        final Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                while (! hasFailed.get()) {
+                    final int shardIndex = nextShardIndex.getAndIncrement();
+                    if (shardIndex >= _shards.length) { break; }
+
+                    try {
+                        shardTask.run(shardIndex);
+                    }
+                    catch (final Exception exception) {
+                        Logger.debug(exception);
+                        hasFailed.set(true);
+                    }
+                }
+            }
+        };
+
+        final Runtime runtime = Runtime.getRuntime();
+        final int threadCount = Math.max(1, Math.min(_shards.length, runtime.availableProcessors()));
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; ++i) {
+            final Thread thread = new Thread(runnable);
+            thread.setName("UTXO Cache Snapshot Loader " + i);
+            thread.start();
+            threads[i] = thread;
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        return (! hasFailed.get());
+    }
+
+    public Long getBlockHeight() {
+        return _blockHeight;
+    }
+
+    public Long getUtxoCount() {
+        return _utxoCount;
+    }
+
+    public Integer getShardCount() {
+        return _shards.length;
+    }
+
+    /**
+     * Verifies the checksum of every shard, in parallel.
+     */
+    public Boolean verify() throws InterruptedException {
+        return _forEachShard(new ShardTask() {
+            @Override
+            public void run(final int shardIndex) throws Exception {
+                if (! _isShardValid(_shards[shardIndex])) {
+                    throw new IOException("UTXO cache snapshot shard " + shardIndex + " checksum mismatch.");
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads, in parallel, the first maxUtxoCount UTXOs of the snapshot (in UtxoKey order), assigning each the provided spent state.
+     *  Each shard is verified against its checksum before it is read; null is returned if any shard is corrupt.
+     */
+    public SortedUtxoList read(final int spentStateCode, final long maxUtxoCount) throws InterruptedException {
+        final int utxoCount = (int) Math.max(0L, Math.min(Math.min(maxUtxoCount, _utxoCount), Integer.MAX_VALUE));
+        final UtxoKey[] utxoKeys = new UtxoKey[utxoCount];
+        final UtxoValue[] utxoValues = new UtxoValue[utxoCount];
+
+        final int[] shardOffsets = new int[_shards.length];
+        {
+            long shardOffset = 0L;
+            for (int shardIndex = 0; shardIndex < _shards.length; ++shardIndex) {
+                shardOffsets[shardIndex] = (int) Math.min(shardOffset, utxoCount);
+                shardOffset += _shards[shardIndex].utxoCount;
+            }
+        }
+
+        final Boolean wasSuccessful = _forEachShard(new ShardTask() {
+            @Override
+            public void run(final int shardIndex) throws Exception {
+                final Shard shard = _shards[shardIndex];
+                final int shardOffset = shardOffsets[shardIndex];
+                final int shardUtxoCount = Math.min(shard.utxoCount, (utxoCount - shardOffset));
+                if (shardUtxoCount < 1) { return; }
+
+                if (! _isShardValid(shard)) {
+                    throw new IOException("UTXO cache snapshot shard " + shardIndex + " checksum mismatch.");
+                }
+
+                for (int i = 0; i < shardUtxoCount; ++i) {
+                    final int recordPosition = _getRecordPosition(shard, i);
+                    utxoKeys[shardOffset + i] = UtxoCacheSnapshot.readUtxoKey(shard.byteBuffer, recordPosition);
+                    utxoValues[shardOffset + i] = UtxoCacheSnapshot.readUtxoValue(shard.byteBuffer, recordPosition, spentStateCode);
+                }
+            }
+        });
+        if (! wasSuccessful) { return null; }
+
+        return new SortedUtxoList(utxoKeys, utxoValues, utxoCount);
+    }
+}
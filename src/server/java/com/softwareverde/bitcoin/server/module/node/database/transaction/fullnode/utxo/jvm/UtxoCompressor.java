@@ -0,0 +1,219 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+/**
+ * Encodes a UTXO's amount and locking script into a compact byte array, which is how UTXOs are retained within the
+ *  UTXO cache and its snapshot.  The compressed output is laid out as:
+ *      [variable-length amount code][variable-length script code][script payload]
+ *  The amount code is 0 for a spent output's amount, otherwise the amount compressed via compressAmount, plus one.
+ *  The script code is 0 for a missing locking script, 1 for a P2PKH script, and 2 for a P2SH script, whose payloads are
+ *  the 20-byte hash; any other script is stored verbatim with a script code of its byte count plus 3.
+ *  The P2PKH and P2SH templates are the byte forms of the patterns recognized by ScriptPatternMatcher.
+ *  Variable-length integers are encoded 7 bits per byte, least-significant group first, with the high bit set on all but the last byte.
+ */
+public class UtxoCompressor {
+    protected static final int HASH_BYTE_COUNT = 20;
+
+    protected static final int NULL_SCRIPT_CODE = 0;
+    protected static final int PAY_TO_PUBLIC_KEY_HASH_SCRIPT_CODE = 1;
+    protected static final int PAY_TO_SCRIPT_HASH_SCRIPT_CODE = 2;
+    protected static final int RAW_SCRIPT_CODE_OFFSET = 3;
+
+    // OP_DUP OP_HASH160 <20-byte hash> OP_EQUALVERIFY OP_CHECKSIG
+    protected static final byte[] PAY_TO_PUBLIC_KEY_HASH_PREFIX = new byte[]{ (byte) 0x76, (byte) 0xA9, (byte) 0x14 };
+    protected static final byte[] PAY_TO_PUBLIC_KEY_HASH_SUFFIX = new byte[]{ (byte) 0x88, (byte) 0xAC };
+
+    // OP_HASH160 <20-byte hash> OP_EQUAL
+    protected static final byte[] PAY_TO_SCRIPT_HASH_PREFIX = new byte[]{ (byte) 0xA9, (byte) 0x14 };
+    protected static final byte[] PAY_TO_SCRIPT_HASH_SUFFIX = new byte[]{ (byte) 0x87 };
+
+    protected static boolean matchesTemplate(final byte[] lockingScript, final byte[] prefix, final byte[] suffix) {
+        if (lockingScript.length != (prefix.length + HASH_BYTE_COUNT + suffix.length)) { return false; }
+
+        for (int i = 0; i < prefix.length; ++i) {
+            if (lockingScript[i] != prefix[i]) { return false; }
+        }
+
+        final int suffixOffset = (prefix.length + HASH_BYTE_COUNT);
+        for (int i = 0; i < suffix.length; ++i) {
+            if (lockingScript[suffixOffset + i] != suffix[i]) { return false; }
+        }
+
+        return true;
+    }
+
+    protected static byte[] inflateTemplate(final byte[] compressedOutput, final int hashOffset, final byte[] prefix, final byte[] suffix) {
+        final byte[] lockingScript = new byte[prefix.length + HASH_BYTE_COUNT + suffix.length];
+        System.arraycopy(prefix, 0, lockingScript, 0, prefix.length);
+        System.arraycopy(compressedOutput, hashOffset, lockingScript, prefix.length, HASH_BYTE_COUNT);
+        System.arraycopy(suffix, 0, lockingScript, (prefix.length + HASH_BYTE_COUNT), suffix.length);
+        return lockingScript;
+    }
+
+    protected static int getVariableLengthIntegerByteCount(final long value) {
+        int byteCount = 1;
+        long remainingValue = (value >>> 7);
+        while (remainingValue != 0L) {
+            byteCount += 1;
+            remainingValue >>>= 7;
+        }
+        return byteCount;
+    }
+
+    /**
+     * Writes the value at the position and returns the position following the value.
+     */
+    protected static int writeVariableLengthInteger(final byte[] bytes, final int position, final long value) {
+        int index = position;
+        long remainingValue = value;
+        while ((remainingValue & ~0x7FL) != 0L) {
+            bytes[index] = (byte) ((remainingValue & 0x7FL) | 0x80L);
+            remainingValue >>>= 7;
+            index += 1;
+        }
+        bytes[index] = (byte) remainingValue;
+        return (index + 1);
+    }
+
+    protected static long readVariableLengthInteger(final byte[] bytes, final int position) {
+        long value = 0L;
+        int shift = 0;
+        int index = position;
+        while (true) {
+            final int b = (bytes[index] & 0xFF);
+            value |= (((long) (b & 0x7F)) << shift);
+            if ((b & 0x80) == 0) { break; }
+
+            shift += 7;
+            index += 1;
+        }
+        return value;
+    }
+
+    protected static int skipVariableLengthInteger(final byte[] bytes, final int position) {
+        int index = position;
+        while ((bytes[index] & 0x80) != 0) {
+            index += 1;
+        }
+        return (index + 1);
+    }
+
+    /**
+     * Compresses a non-negative amount so that round amounts (i.e. those with trailing decimal zeroes) are small numbers.
+     *  The amount's trailing zeroes (up to 9) are moved into the lowest decimal digit of the result.
+     */
+    public static long compressAmount(final long amount) {
+        if (amount == 0L) { return 0L; }
+
+        long n = amount;
+        int exponent = 0;
+        while ( ((n % 10L) == 0L) && (exponent < 9) ) {
+            n /= 10L;
+            exponent += 1;
+        }
+
+        if (exponent < 9) {
+            final long lastDigit = (n % 10L);
+            n /= 10L;
+            return (1L + (((n * 9L) + lastDigit - 1L) * 10L) + exponent);
+        }
+
+        return (1L + ((n - 1L) * 10L) + 9L);
+    }
+
+    public static long decompressAmount(final long compressedAmount) {
+        if (compressedAmount == 0L) { return 0L; }
+
+        long x = (compressedAmount - 1L);
+        int exponent = (int) (x % 10L);
+        x /= 10L;
+
+        long n;
+        if (exponent < 9) {
+            final long lastDigit = ((x % 9L) + 1L);
+            x /= 9L;
+            n = ((x * 10L) + lastDigit);
+        }
+        else {
+            n = (x + 1L);
+        }
+
+        while (exponent > 0) {
+            n *= 10L;
+            exponent -= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the compressed form of the amount and locking script.
+     *  The amount must either be non-negative or UtxoValue.SPENT_AMOUNT; the locking script may be null.
+     */
+    public static byte[] compressOutput(final long amount, final byte[] lockingScript) {
+        final long amountCode = (amount == UtxoValue.SPENT_AMOUNT ? 0L : (UtxoCompressor.compressAmount(amount) + 1L));
+
+        final long scriptCode;
+        final int payloadOffset;
+        final int payloadByteCount;
+        if (lockingScript == null) {
+            scriptCode = NULL_SCRIPT_CODE;
+            payloadOffset = 0;
+            payloadByteCount = 0;
+        }
+        else if (UtxoCompressor.matchesTemplate(lockingScript, PAY_TO_PUBLIC_KEY_HASH_PREFIX, PAY_TO_PUBLIC_KEY_HASH_SUFFIX)) {
+            scriptCode = PAY_TO_PUBLIC_KEY_HASH_SCRIPT_CODE;
+            payloadOffset = PAY_TO_PUBLIC_KEY_HASH_PREFIX.length;
+            payloadByteCount = HASH_BYTE_COUNT;
+        }
+        else if (UtxoCompressor.matchesTemplate(lockingScript, PAY_TO_SCRIPT_HASH_PREFIX, PAY_TO_SCRIPT_HASH_SUFFIX)) {
+            scriptCode = PAY_TO_SCRIPT_HASH_SCRIPT_CODE;
+            payloadOffset = PAY_TO_SCRIPT_HASH_PREFIX.length;
+            payloadByteCount = HASH_BYTE_COUNT;
+        }
+        else {
+            scriptCode = (lockingScript.length + RAW_SCRIPT_CODE_OFFSET);
+            payloadOffset = 0;
+            payloadByteCount = lockingScript.length;
+        }
+
+        final int byteCount = (UtxoCompressor.getVariableLengthIntegerByteCount(amountCode) + UtxoCompressor.getVariableLengthIntegerByteCount(scriptCode) + payloadByteCount);
+        final byte[] compressedOutput = new byte[byteCount];
+
+        int position = UtxoCompressor.writeVariableLengthInteger(compressedOutput, 0, amountCode);
+        position = UtxoCompressor.writeVariableLengthInteger(compressedOutput, position, scriptCode);
+        if (payloadByteCount > 0) {
+            System.arraycopy(lockingScript, payloadOffset, compressedOutput, position, payloadByteCount);
+        }
+
+        return compressedOutput;
+    }
+
+    public static long getAmount(final byte[] compressedOutput) {
+        final long amountCode = UtxoCompressor.readVariableLengthInteger(compressedOutput, 0);
+        if (amountCode == 0L) { return UtxoValue.SPENT_AMOUNT; }
+
+        return UtxoCompressor.decompressAmount(amountCode - 1L);
+    }
+
+    public static byte[] getLockingScript(final byte[] compressedOutput) {
+        final int scriptCodePosition = UtxoCompressor.skipVariableLengthInteger(compressedOutput, 0);
+        final long scriptCode = UtxoCompressor.readVariableLengthInteger(compressedOutput, scriptCodePosition);
+        final int payloadPosition = UtxoCompressor.skipVariableLengthInteger(compressedOutput, scriptCodePosition);
+
+        if (scriptCode == NULL_SCRIPT_CODE) { return null; }
+
+        if (scriptCode == PAY_TO_PUBLIC_KEY_HASH_SCRIPT_CODE) {
+            return UtxoCompressor.inflateTemplate(compressedOutput, payloadPosition, PAY_TO_PUBLIC_KEY_HASH_PREFIX, PAY_TO_PUBLIC_KEY_HASH_SUFFIX);
+        }
+
+        if (scriptCode == PAY_TO_SCRIPT_HASH_SCRIPT_CODE) {
+            return UtxoCompressor.inflateTemplate(compressedOutput, payloadPosition, PAY_TO_SCRIPT_HASH_PREFIX, PAY_TO_SCRIPT_HASH_SUFFIX);
+        }
+
+        final int lockingScriptByteCount = (int) (scriptCode - RAW_SCRIPT_CODE_OFFSET);
+        final byte[] lockingScript = new byte[lockingScriptByteCount];
+        System.arraycopy(compressedOutput, payloadPosition, lockingScript, 0, lockingScriptByteCount);
+        return lockingScript;
+    }
+
+    protected UtxoCompressor() { }
+}
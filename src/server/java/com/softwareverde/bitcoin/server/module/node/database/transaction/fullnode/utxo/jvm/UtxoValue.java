@@ -5,11 +5,21 @@ public class UtxoValue {
     public static final long UNKNOWN_BLOCK_HEIGHT = -1L; // Sentinel value for Utxo's with an unknown block height; this state is only possible if the UTXO has been spent.
     public static final long SPENT_AMOUNT = -1L;
 
+    /**
+     * Returns the block height and coinbase flag packed into a single int, as (blockHeight << 1) | isCoinbase.
+     */
+    public static int packBlockHeight(final long blockHeight, final boolean isCoinbase) {
+        return (int) ((blockHeight << 1) | (isCoinbase ? 1L : 0L));
+    }
+
     public final int spentStateCode;
-    public final long blockHeight;
-    public final long amount;
-    public final boolean isCoinbase;
-    public final byte[] lockingScript;
+    public final int packedBlockHeight; // See UtxoValue::packBlockHeight.
+    public final byte[] compressedOutput; // The amount and locking script; see UtxoCompressor.
+
+    // The uncommitted UTXO block height at which the UTXO was last read from the cache; used to retain frequently accessed UTXOs during a purge.
+    //  The value is a hint only, so updates are intentionally unsynchronized.  Stored as an int, like packedBlockHeight, to
+    //  keep the per-UTXO footprint small.
+    public int accessBlockHeight;
 
     // Spent Output Constructor
     public UtxoValue(final JvmSpentState jvmSpentState, final long blockHeight, final boolean isCoinbase, final Object dummy) {
@@ -21,14 +31,54 @@ public class UtxoValue {
     }
 
     public UtxoValue(final int spentStateCode, final long blockHeight, final boolean isCoinbase, final long amount, final byte[] lockingScript) {
+        this(spentStateCode, UtxoValue.packBlockHeight(blockHeight, isCoinbase), UtxoCompressor.compressOutput(amount, lockingScript));
+    }
+
+    /**
+     * Creates a UTXO from its packed block height and compressed output, which are retained without being copied.
+     */
+    public UtxoValue(final int spentStateCode, final int packedBlockHeight, final byte[] compressedOutput) {
         this.spentStateCode = spentStateCode;
-        this.blockHeight = blockHeight;
-        this.isCoinbase = isCoinbase;
-        this.amount = amount;
-        this.lockingScript = lockingScript;
+        this.packedBlockHeight = packedBlockHeight;
+        this.compressedOutput = compressedOutput;
+        this.accessBlockHeight = (this.packedBlockHeight >> 1);
+    }
+
+    /**
+     * Creates a copy of the UTXO with a different spent state, sharing the UTXO's compressed output.
+     */
+    public UtxoValue(final int spentStateCode, final UtxoValue utxoValue) {
+        this(spentStateCode, utxoValue.packedBlockHeight, utxoValue.compressedOutput);
+        this.accessBlockHeight = utxoValue.accessBlockHeight;
+    }
+
+    public long getBlockHeight() {
+        return (this.packedBlockHeight >> 1);
+    }
+
+    public boolean isCoinbase() {
+        return ((this.packedBlockHeight & 1) != 0);
+    }
+
+    public long getAmount() {
+        return UtxoCompressor.getAmount(this.compressedOutput);
+    }
+
+    /**
+     * Returns a new copy of the UTXO's (decompressed) locking script, or null if the UTXO does not have one.
+     */
+    public byte[] getLockingScript() {
+        return UtxoCompressor.getLockingScript(this.compressedOutput);
+    }
+
+    /**
+     * Returns the most recent block height at which the UTXO was either created or accessed.
+     */
+    public long getLastUsedBlockHeight() {
+        return Math.max(this.getBlockHeight(), this.accessBlockHeight);
     }
 
     public JvmSpentState getSpentState() {
         return new JvmSpentState(this.spentStateCode);
     }
-}
\ No newline at end of file
+}
@@ -20,12 +20,10 @@ import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.database.row.Row;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.network.p2p.node.NodeId;
+import com.softwareverde.util.Tuple;
 import com.softwareverde.util.type.time.SystemTime;
 
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class PendingTransactionDatabaseManager {
@@ -110,30 +108,25 @@ public class PendingTransactionDatabaseManager {
         return pendingTransactionIds.build();
     }
 
-    protected Map<NodeId, ? extends List<PendingTransactionId>> _selectIncompletePendingTransactions(final List<NodeId> connectedNodeIds) throws DatabaseException {
+    protected List<Tuple<PendingTransactionId, Sha256Hash>> _selectIncompletePendingTransactions(final Integer maxCount) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
         final Long minSecondsBetweenDownloadAttempts = 5L;
         final Long currentTimestamp = _systemTime.getCurrentTimeInSeconds();
+        final int limit = Math.max(0, maxCount);
         final java.util.List<Row> rows = databaseConnection.query(
-            new Query("SELECT node_transactions_inventory.node_id, pending_transactions.id AS pending_transaction_id FROM pending_transactions LEFT OUTER JOIN pending_transaction_data ON pending_transactions.id = pending_transaction_data.pending_transaction_id INNER JOIN node_transactions_inventory ON node_transactions_inventory.hash = pending_transactions.hash WHERE (pending_transaction_data.id IS NULL) AND ( (? - COALESCE(last_download_attempt_timestamp, 0)) > ? ) AND node_transactions_inventory.node_id IN (?) ORDER BY pending_transactions.priority ASC, pending_transactions.id ASC LIMIT 1024")
+            new Query("SELECT pending_transactions.id, pending_transactions.hash FROM pending_transactions LEFT OUTER JOIN pending_transaction_data ON pending_transactions.id = pending_transaction_data.pending_transaction_id WHERE (pending_transaction_data.id IS NULL) AND ( (? - COALESCE(last_download_attempt_timestamp, 0)) > ? ) ORDER BY pending_transactions.priority ASC, pending_transactions.id ASC LIMIT " + limit)
                 .setParameter(currentTimestamp)
                 .setParameter(minSecondsBetweenDownloadAttempts)
-                .setInClauseParameters(connectedNodeIds, ValueExtractor.IDENTIFIER)
         );
 
-        final HashMap<NodeId, MutableList<PendingTransactionId>> downloadPlan = new HashMap<>();
+        final ImmutableListBuilder<Tuple<PendingTransactionId, Sha256Hash>> pendingTransactions = new ImmutableListBuilder<>(rows.size());
         for (final Row row : rows) {
-            final NodeId nodeId = NodeId.wrap(row.getLong("node_id"));
-            final PendingTransactionId pendingTransactionId = PendingTransactionId.wrap(row.getLong("pending_transaction_id"));
-            if (! downloadPlan.containsKey(nodeId)) {
-                downloadPlan.put(nodeId, new MutableList<>());
-            }
-
-            final MutableList<PendingTransactionId> list = downloadPlan.get(nodeId);
-            list.add(pendingTransactionId);
+            final PendingTransactionId pendingTransactionId = PendingTransactionId.wrap(row.getLong("id"));
+            final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("hash"));
+            pendingTransactions.add(new Tuple<>(pendingTransactionId, transactionHash));
         }
-        return downloadPlan;
+        return pendingTransactions.build();
     }
 
     protected List<PendingTransactionId> _selectCandidatePendingTransactionIds() throws DatabaseException {
@@ -197,17 +190,10 @@ public class PendingTransactionDatabaseManager {
     protected void _deletePendingTransaction(final PendingTransactionId pendingTransactionId) throws DatabaseException {
         final DatabaseConnection databaseConnection = _databaseManager.getDatabaseConnection();
 
-        final Sha256Hash pendingTransactionHash = _getPendingTransactionHash(pendingTransactionId);
-
         databaseConnection.executeSql(
             new Query("DELETE FROM pending_transactions WHERE id = ?")
                 .setParameter(pendingTransactionId)
         );
-
-        databaseConnection.executeSql(
-            new Query("DELETE FROM node_transactions_inventory WHERE hash = ?")
-                .setParameter(pendingTransactionHash)
-        );
     }
 
     protected void _purgeFailedPendingTransactions(final Integer maxFailedDownloadCount) throws DatabaseException {
@@ -233,21 +219,10 @@ public class PendingTransactionDatabaseManager {
 
         if (pendingTransactionIds.isEmpty()) { return; }
 
-        final HashSet<Sha256Hash> pendingTransactionHashes = new HashSet<>(pendingTransactionIds.getCount());
-        for (final PendingTransactionId pendingTransactionId : pendingTransactionIds) {
-            final Sha256Hash pendingTransactionHash = _getPendingTransactionHash(pendingTransactionId);
-            pendingTransactionHashes.add(pendingTransactionHash);
-        }
-
         databaseConnection.executeSql(
             new Query("DELETE FROM pending_transactions WHERE id IN (?)")
                 .setInClauseParameters(pendingTransactionIds, ValueExtractor.IDENTIFIER)
         );
-
-        databaseConnection.executeSql(
-            new Query("DELETE FROM node_transactions_inventory WHERE hash IN (?)")
-                .setInClauseParameters(pendingTransactionHashes, ValueExtractor.SHA256_HASH)
-        );
     }
 
     protected void _purgeExpiredOrphanedTransactions() throws DatabaseException {
@@ -476,10 +451,14 @@ public class PendingTransactionDatabaseManager {
         }
     }
 
-    public Map<NodeId, ? extends List<PendingTransactionId>> selectIncompletePendingTransactions(final List<NodeId> connectedNodeIds) throws DatabaseException {
+    /**
+     * Returns the highest-priority PendingTransactions that have not been downloaded and were not recently attempted.
+     *  Determining which peers may serve each Transaction is left to the caller, since peer inventory is tracked in-memory.
+     */
+    public List<Tuple<PendingTransactionId, Sha256Hash>> selectIncompletePendingTransactions(final Integer maxCount) throws DatabaseException {
         try {
             READ_LOCK.lock();
-            return _selectIncompletePendingTransactions(connectedNodeIds);
+            return _selectIncompletePendingTransactions(maxCount);
         }
         finally {
             READ_LOCK.unlock();
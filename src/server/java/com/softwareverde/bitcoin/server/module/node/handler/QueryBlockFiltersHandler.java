@@ -0,0 +1,139 @@
+package com.softwareverde.bitcoin.server.module.node.handler;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.filter.QueryBlockFiltersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterCheckpointMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterHeadersMessage;
+import com.softwareverde.bitcoin.server.message.type.query.response.filter.BlockFilterMessage;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.store.BlockFilterStore;
+import com.softwareverde.bitcoin.server.node.BitcoinNode;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+/**
+ * Serves BIP-157 getcfilters, getcfheaders, and getcfcheckpt requests from the BlockFilterStore.
+ *  Requests for unsupported filter types, for blocks not on the head blockchain, or for blocks that have not yet been indexed are ignored.
+ */
+public class QueryBlockFiltersHandler implements BitcoinNode.QueryBlockFiltersHandler {
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final BlockFilterStore _blockFilterStore;
+
+    /**
+     * Returns the height of the stopBlockHash if its filter has been indexed on the head blockchain, otherwise null.
+     */
+    protected Long _getIndexedBlockHeight(final Sha256Hash stopBlockHash) throws DatabaseException {
+        final Long blockHeight;
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockId blockId = blockHeaderDatabaseManager.getBlockHeaderId(stopBlockHash);
+            if (blockId == null) { return null; }
+
+            blockHeight = blockHeaderDatabaseManager.getBlockHeight(blockId);
+        }
+        if (blockHeight == null) { return null; }
+
+        final Sha256Hash indexedBlockHash = _blockFilterStore.getBlockHash(blockHeight);
+        if (! Util.areEqual(stopBlockHash, indexedBlockHash)) { return null; }
+
+        return blockHeight;
+    }
+
+    protected Boolean _isValidRange(final Long startBlockHeight, final Long stopBlockHeight, final Integer maxBlockCount) {
+        if (startBlockHeight < 0L) { return false; }
+        if (startBlockHeight > stopBlockHeight) { return false; }
+        return ((stopBlockHeight - startBlockHeight) < maxBlockCount);
+    }
+
+    public QueryBlockFiltersHandler(final FullNodeDatabaseManagerFactory databaseManagerFactory, final BlockFilterStore blockFilterStore) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _blockFilterStore = blockFilterStore;
+    }
+
+    @Override
+    public void getBlockFilters(final BitcoinNode bitcoinNode, final BlockFilterType filterType, final Long startBlockHeight, final Sha256Hash stopBlockHash) {
+        if (filterType != BlockFilterType.BASIC) { return; }
+
+        try {
+            final Long stopBlockHeight = _getIndexedBlockHeight(stopBlockHash);
+            if (stopBlockHeight == null) { return; }
+            if (! _isValidRange(startBlockHeight, stopBlockHeight, QueryBlockFiltersMessage.MAX_BLOCK_FILTER_COUNT)) { return; }
+
+            for (long blockHeight = startBlockHeight; blockHeight <= stopBlockHeight; ++blockHeight) {
+                final BlockFilter blockFilter = _blockFilterStore.getBlockFilter(blockHeight);
+                if (blockFilter == null) { return; }
+
+                final BlockFilterMessage blockFilterMessage = new BlockFilterMessage();
+                blockFilterMessage.setBlockFilter(blockFilter);
+                bitcoinNode.queueMessage(blockFilterMessage);
+            }
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    @Override
+    public void getBlockFilterHeaders(final BitcoinNode bitcoinNode, final BlockFilterType filterType, final Long startBlockHeight, final Sha256Hash stopBlockHash) {
+        if (filterType != BlockFilterType.BASIC) { return; }
+
+        try {
+            final Long stopBlockHeight = _getIndexedBlockHeight(stopBlockHash);
+            if (stopBlockHeight == null) { return; }
+            if (! _isValidRange(startBlockHeight, stopBlockHeight, QueryBlockFilterHeadersMessage.MAX_BLOCK_FILTER_HEADER_COUNT)) { return; }
+
+            final Sha256Hash previousFilterHeader = (startBlockHeight > 0L ? _blockFilterStore.getFilterHeader(startBlockHeight - 1L) : Sha256Hash.EMPTY_HASH);
+            if (previousFilterHeader == null) { return; }
+
+            final BlockFilterHeadersMessage blockFilterHeadersMessage = new BlockFilterHeadersMessage();
+            blockFilterHeadersMessage.setFilterType(filterType);
+            blockFilterHeadersMessage.setStopBlockHash(stopBlockHash);
+            blockFilterHeadersMessage.setPreviousFilterHeader(previousFilterHeader);
+            for (long blockHeight = startBlockHeight; blockHeight <= stopBlockHeight; ++blockHeight) {
+                final Sha256Hash filterHash = _blockFilterStore.getFilterHash(blockHeight);
+                if (filterHash == null) { return; }
+
+                blockFilterHeadersMessage.addFilterHash(filterHash);
+            }
+
+            bitcoinNode.queueMessage(blockFilterHeadersMessage);
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    @Override
+    public void getBlockFilterCheckpoint(final BitcoinNode bitcoinNode, final BlockFilterType filterType, final Sha256Hash stopBlockHash) {
+        if (filterType != BlockFilterType.BASIC) { return; }
+
+        try {
+            final Long stopBlockHeight = _getIndexedBlockHeight(stopBlockHash);
+            if (stopBlockHeight == null) { return; }
+
+            final BlockFilterCheckpointMessage blockFilterCheckpointMessage = new BlockFilterCheckpointMessage();
+            blockFilterCheckpointMessage.setFilterType(filterType);
+            blockFilterCheckpointMessage.setStopBlockHash(stopBlockHash);
+
+            final long checkpointInterval = BlockFilterCheckpointMessage.CHECKPOINT_INTERVAL;
+            for (long blockHeight = checkpointInterval; blockHeight <= stopBlockHeight; blockHeight += checkpointInterval) {
+                final Sha256Hash filterHeader = _blockFilterStore.getFilterHeader(blockHeight);
+                if (filterHeader == null) { return; }
+
+                blockFilterCheckpointMessage.addFilterHeader(filterHeader);
+            }
+
+            bitcoinNode.queueMessage(blockFilterCheckpointMessage);
+        }
+        catch (final DatabaseException exception) {
+            Logger.debug(exception);
+        }
+    }
+}
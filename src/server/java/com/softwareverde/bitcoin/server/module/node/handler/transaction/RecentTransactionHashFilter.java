@@ -0,0 +1,98 @@
+package com.softwareverde.bitcoin.server.module.node.handler.transaction;
+
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, thread-safe set of recently announced TransactionHashes that is shared across all peers.
+ *  Hashes are partitioned into independently locked stripes by their leading bytes, so lookups are constant-time and
+ *  concurrent announcements from different peers rarely contend for the same lock.
+ *  Each stripe evicts its oldest hash once it reaches its capacity.
+ */
+public class RecentTransactionHashFilter {
+    public static final Integer DEFAULT_STRIPE_COUNT = 64;
+    public static final Integer DEFAULT_ITEM_COUNT = 65536; // Roughly several minutes of announcements at peak transaction throughput.
+
+    protected static class Stripe extends LinkedHashMap<Sha256Hash, Boolean> {
+        protected final Integer _maxItemCount;
+
+        public Stripe(final Integer maxItemCount) {
+            super(16, 0.75F, false);
+            _maxItemCount = maxItemCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Sha256Hash, Boolean> eldestEntry) {
+            return (this.size() > _maxItemCount);
+        }
+    }
+
+    protected final Stripe[] _stripes;
+
+    protected Stripe _getStripe(final Sha256Hash transactionHash) {
+        final int stripeHash = (((transactionHash.getByte(0) & 0xFF) << 8) | (transactionHash.getByte(1) & 0xFF));
+        return _stripes[stripeHash % _stripes.length];
+    }
+
+    public RecentTransactionHashFilter() {
+        this(DEFAULT_ITEM_COUNT, DEFAULT_STRIPE_COUNT);
+    }
+
+    public RecentTransactionHashFilter(final Integer maxItemCount, final Integer stripeCount) {
+        final int clampedStripeCount = Math.max(1, Math.min(65536, stripeCount));
+        final int maxItemCountPerStripe = Math.max(1, ((maxItemCount + clampedStripeCount - 1) / clampedStripeCount));
+
+        _stripes = new Stripe[clampedStripeCount];
+        for (int i = 0; i < clampedStripeCount; ++i) {
+            _stripes[i] = new Stripe(maxItemCountPerStripe);
+        }
+    }
+
+    /**
+     * Adds the transactionHash to the filter.
+     *  Returns true if the transactionHash was not already present.
+     */
+    public Boolean add(final Sha256Hash transactionHash) {
+        final Stripe stripe = _getStripe(transactionHash);
+        synchronized (stripe) {
+            final Boolean previousValue = stripe.put(transactionHash, Boolean.TRUE);
+            return (previousValue == null);
+        }
+    }
+
+    /**
+     * Adds each transactionHash to the filter and returns those that were not already present, in their original order.
+     *  Each hash is checked-and-added atomically, so concurrent callers will never both receive the same hash.
+     */
+    public List<Sha256Hash> addAll(final List<Sha256Hash> transactionHashes) {
+        final MutableList<Sha256Hash> newTransactionHashes = new MutableList<>(transactionHashes.getCount());
+        for (final Sha256Hash transactionHash : transactionHashes) {
+            final Boolean wasAdded = this.add(transactionHash);
+            if (wasAdded) {
+                newTransactionHashes.add(transactionHash);
+            }
+        }
+        return newTransactionHashes;
+    }
+
+    public Boolean contains(final Sha256Hash transactionHash) {
+        final Stripe stripe = _getStripe(transactionHash);
+        synchronized (stripe) {
+            return stripe.containsKey(transactionHash);
+        }
+    }
+
+    public Integer getCount() {
+        int count = 0;
+        for (final Stripe stripe : _stripes) {
+            synchronized (stripe) {
+                count += stripe.size();
+            }
+        }
+        return count;
+    }
+}
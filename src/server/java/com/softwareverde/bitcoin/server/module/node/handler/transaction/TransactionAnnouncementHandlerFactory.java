@@ -4,8 +4,6 @@ import com.softwareverde.bitcoin.server.SynchronizationStatus;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.manager.NodeInitializer;
 import com.softwareverde.bitcoin.server.node.BitcoinNode;
-import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
-import com.softwareverde.util.CircleBuffer;
 
 public class TransactionAnnouncementHandlerFactory implements NodeInitializer.TransactionsAnnouncementHandlerFactory {
     public static final TransactionAnnouncementHandlerFactory IGNORE_NEW_TRANSACTIONS_HANDLER_FACTORY = new TransactionAnnouncementHandlerFactory(null, null, null) {
@@ -15,7 +13,7 @@ public class TransactionAnnouncementHandlerFactory implements NodeInitializer.Tr
         }
     };
 
-    protected final CircleBuffer<Sha256Hash> _recentlyAnnouncedTransactionHashes = new CircleBuffer<>(1024);
+    protected final RecentTransactionHashFilter _recentlyAnnouncedTransactionHashes = new RecentTransactionHashFilter();
 
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
     protected final SynchronizationStatus _synchronizationStatus;
@@ -3,18 +3,17 @@ package com.softwareverde.bitcoin.server.module.node.handler.transaction;
 import com.softwareverde.bitcoin.server.SynchronizationStatus;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
-import com.softwareverde.bitcoin.server.module.node.database.node.fullnode.FullNodeBitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.PendingTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.node.BitcoinNode;
 import com.softwareverde.bitcoin.transaction.TransactionId;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
-import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.util.CircleBuffer;
+
+import java.util.Map;
 
 public class TransactionInventoryAnnouncementHandler implements BitcoinNode.TransactionInventoryAnnouncementHandler {
     public static final BitcoinNode.TransactionInventoryAnnouncementHandler IGNORE_NEW_TRANSACTIONS_HANDLER = new BitcoinNode.TransactionInventoryAnnouncementHandler() {
@@ -27,15 +26,15 @@ public class TransactionInventoryAnnouncementHandler implements BitcoinNode.Tran
     protected final Runnable _newInventoryCallback;
     protected final SynchronizationStatus _synchronizationStatus;
 
-    // The cache is intended to be used across multiple threads and peers, and is essentially a global state.
-    protected final CircleBuffer<Sha256Hash> _recentlyAnnouncedTransactionHashCache;
+    // The filter is intended to be used across multiple threads and peers, and is essentially a global state.
+    protected final RecentTransactionHashFilter _recentlyAnnouncedTransactionHashFilter;
 
-    public TransactionInventoryAnnouncementHandler(final BitcoinNode bitcoinNode, final FullNodeDatabaseManagerFactory databaseManagerFactory, final SynchronizationStatus synchronizationStatus, final Runnable newInventoryCallback, final CircleBuffer<Sha256Hash> recentlyAnnouncedTransactionHashCache) {
+    public TransactionInventoryAnnouncementHandler(final BitcoinNode bitcoinNode, final FullNodeDatabaseManagerFactory databaseManagerFactory, final SynchronizationStatus synchronizationStatus, final Runnable newInventoryCallback, final RecentTransactionHashFilter recentlyAnnouncedTransactionHashFilter) {
         _bitcoinNode = bitcoinNode;
         _databaseManagerFactory = databaseManagerFactory;
         _newInventoryCallback = newInventoryCallback;
         _synchronizationStatus = synchronizationStatus;
-        _recentlyAnnouncedTransactionHashCache = recentlyAnnouncedTransactionHashCache;
+        _recentlyAnnouncedTransactionHashFilter = recentlyAnnouncedTransactionHashFilter;
     }
 
     @Override
@@ -46,30 +45,19 @@ public class TransactionInventoryAnnouncementHandler implements BitcoinNode.Tran
         }
 
         // Handle global recency caching for TransactionHashes and skip transactions that have already been announced by other peers.
-        final MutableList<Sha256Hash> cacheMissTransactionHashes = new MutableList<>(transactionHashes.getCount());
-        synchronized (_recentlyAnnouncedTransactionHashCache) {
-            for (final Sha256Hash transactionHash : transactionHashes) {
-                final boolean hasBeenSeen = _recentlyAnnouncedTransactionHashCache.contains(transactionHash);
-                if (hasBeenSeen) { continue; }
-
-                cacheMissTransactionHashes.add(transactionHash);
-            }
-
-            _recentlyAnnouncedTransactionHashCache.pushAll(cacheMissTransactionHashes);
-        }
+        final List<Sha256Hash> cacheMissTransactionHashes = _recentlyAnnouncedTransactionHashFilter.addAll(transactionHashes);
         if (cacheMissTransactionHashes.isEmpty()) { return; }
 
         try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
             final TransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
             final PendingTransactionDatabaseManager pendingTransactionDatabaseManager = databaseManager.getPendingTransactionDatabaseManager();
-            final FullNodeBitcoinNodeDatabaseManager nodeDatabaseManager = databaseManager.getNodeDatabaseManager();
 
             final List<Sha256Hash> unseenTransactionHashes;
             {
                 final ImmutableListBuilder<Sha256Hash> unseenTransactionHashesBuilder = new ImmutableListBuilder<>(cacheMissTransactionHashes.getCount());
+                final Map<Sha256Hash, TransactionId> knownTransactionIds = transactionDatabaseManager.getTransactionIds(cacheMissTransactionHashes);
                 for (final Sha256Hash transactionHash : cacheMissTransactionHashes) {
-                    final TransactionId transactionId = transactionDatabaseManager.getTransactionId(transactionHash);
-                    if (transactionId == null) {
+                    if (! knownTransactionIds.containsKey(transactionHash)) {
                         unseenTransactionHashesBuilder.add(transactionHash);
                     }
                 }
@@ -77,8 +65,8 @@ public class TransactionInventoryAnnouncementHandler implements BitcoinNode.Tran
             }
 
             if (! unseenTransactionHashes.isEmpty()) {
+                // NOTE: The node's inventory is tracked in-memory by the BitcoinNode as the announcement is received.
                 pendingTransactionDatabaseManager.storeTransactionHashes(unseenTransactionHashes);
-                nodeDatabaseManager.updateTransactionInventory(_bitcoinNode, unseenTransactionHashes);
 
                 if (_newInventoryCallback != null) {
                     _newInventoryCallback.run();
@@ -2,7 +2,6 @@ package com.softwareverde.bitcoin.server.module.node.manager;
 
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
-import com.softwareverde.bitcoin.server.module.node.database.node.fullnode.FullNodeBitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.rpc.NodeRpcHandler;
 import com.softwareverde.bitcoin.server.module.node.sync.SlpTransactionProcessor;
@@ -13,12 +12,10 @@ import com.softwareverde.bitcoin.slp.validator.TransactionAccumulator;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionWithFee;
 import com.softwareverde.constable.list.List;
-import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.network.p2p.node.NodeId;
 import com.softwareverde.util.Util;
 
 import java.util.HashMap;
@@ -35,26 +32,17 @@ public class TransactionRelay {
     protected final ConcurrentLinkedDeque<Transaction> _queuedTransactions = new ConcurrentLinkedDeque<>();
 
     protected void _relayTransactions(final List<Transaction> transactions) {
-        final HashMap<NodeId, MutableList<Sha256Hash>> nodeUnseenTransactionHashes = new HashMap<>();
+        final HashMap<BitcoinNode, MutableList<Sha256Hash>> nodeUnseenTransactionHashes = new HashMap<>();
         final MutableList<TransactionWithFee> transactionsToAnnounceViaRpc = new MutableList<>((_nodeRpcHandler != null) ? transactions.getCount() : 0);
 
         try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
-            final FullNodeBitcoinNodeDatabaseManager nodeDatabaseManager = databaseManager.getNodeDatabaseManager();
             final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
 
             final TransactionAccumulator transactionAccumulator = SlpTransactionProcessor.createTransactionAccumulator(databaseManager, null);
             final SlpTransactionValidationCache slpTransactionValidationCache = SlpTransactionProcessor.createSlpTransactionValidationCache(databaseManager);
             final SlpTransactionValidator slpTransactionValidator = new SlpTransactionValidator(transactionAccumulator, slpTransactionValidationCache);
 
-            final List<NodeId> connectedNodes;
-            {
-                final List<BitcoinNode> nodes = _bitcoinNodeManager.getNodes();
-                final ImmutableListBuilder<NodeId> nodeIdsBuilder = new ImmutableListBuilder<>(nodes.getCount());
-                for (final BitcoinNode bitcoinNode : nodes) {
-                    nodeIdsBuilder.add(bitcoinNode.getId());
-                }
-                connectedNodes = nodeIdsBuilder.build();
-            }
+            final List<BitcoinNode> connectedNodes = _bitcoinNodeManager.getNodes();
 
             for (final Transaction transaction : transactions) {
                 final Sha256Hash transactionHash = transaction.getHash();
@@ -76,17 +64,16 @@ public class TransactionRelay {
                     transactionsToAnnounceViaRpc.add(new TransactionWithFee(transaction, transactionFee));
                 }
 
-                final List<NodeId> nodesWithoutTransaction = nodeDatabaseManager.filterNodesViaTransactionInventory(connectedNodes, transactionHash, FilterType.KEEP_NODES_WITHOUT_INVENTORY);
-                for (final NodeId nodeId : nodesWithoutTransaction) {
-                    final BitcoinNode bitcoinNode = _bitcoinNodeManager.getNode(nodeId);
-                    if (bitcoinNode == null) { continue; }
+                // NOTE: Each node's inventory is tracked in-memory by the BitcoinNode, so relaying does not require a database lookup per peer.
+                for (final BitcoinNode bitcoinNode : connectedNodes) {
+                    if (bitcoinNode.hasTransactionInventory(transactionHash)) { continue; }
                     if (! bitcoinNode.matchesFilter(transaction)) { continue; }
 
-                    if (! nodeUnseenTransactionHashes.containsKey(nodeId)) {
-                        nodeUnseenTransactionHashes.put(nodeId, new MutableList<>());
+                    if (! nodeUnseenTransactionHashes.containsKey(bitcoinNode)) {
+                        nodeUnseenTransactionHashes.put(bitcoinNode, new MutableList<>());
                     }
 
-                    final MutableList<Sha256Hash> transactionHashes = nodeUnseenTransactionHashes.get(nodeId);
+                    final MutableList<Sha256Hash> transactionHashes = nodeUnseenTransactionHashes.get(bitcoinNode);
                     transactionHashes.add(transactionHash);
                 }
             }
@@ -96,17 +83,12 @@ public class TransactionRelay {
             return;
         }
 
-        for (final NodeId nodeId : nodeUnseenTransactionHashes.keySet()) {
-            final BitcoinNode bitcoinNode = _bitcoinNodeManager.getNode(nodeId);
-            if (bitcoinNode == null) { continue; }
-
+        for (final BitcoinNode bitcoinNode : nodeUnseenTransactionHashes.keySet()) {
+            if (! bitcoinNode.isConnected()) { continue; }
             if (! Util.coalesce(bitcoinNode.isTransactionRelayEnabled(), false)) { continue; }
 
-            final List<Sha256Hash> newTransactionHashes = nodeUnseenTransactionHashes.get(nodeId);
-            bitcoinNode.transmitTransactionHashes(newTransactionHashes);
-
-            // NOTE: It could be beneficial to update the available Node inventory, although is unnecessary unless the same Transaction is attempted to be broadcast multiple times (should never happen).
-            // nodeDatabaseManager.updateTransactionInventory(bitcoinNode, newTransactionHashes);
+            final List<Sha256Hash> newTransactionHashes = nodeUnseenTransactionHashes.get(bitcoinNode);
+            bitcoinNode.transmitTransactionHashes(newTransactionHashes); // NOTE: Transmitting the hashes also adds them to the node's inventory.
         }
 
         if (_nodeRpcHandler != null) {
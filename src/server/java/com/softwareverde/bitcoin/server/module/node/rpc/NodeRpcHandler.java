@@ -16,6 +16,8 @@ import com.softwareverde.bitcoin.inflater.MasterInflater;
 import com.softwareverde.bitcoin.server.SynchronizationStatus;
 import com.softwareverde.bitcoin.server.message.type.node.feature.NodeFeatures;
 import com.softwareverde.bitcoin.server.message.type.query.header.RequestBlockHeadersMessage;
+import com.softwareverde.bitcoin.server.module.node.database.indexer.IndexedTransactionOutput;
+import com.softwareverde.bitcoin.server.module.node.database.indexer.ScriptHashSummary;
 import com.softwareverde.bitcoin.server.module.node.rpc.blockchain.BlockchainMetadata;
 import com.softwareverde.bitcoin.server.node.BitcoinNode;
 import com.softwareverde.bitcoin.server.node.request.UnfulfilledPublicKeyRequest;
@@ -28,6 +30,7 @@ import com.softwareverde.bitcoin.transaction.TransactionWithFee;
 import com.softwareverde.bitcoin.transaction.dsproof.DoubleSpendProof;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.ScriptBuilder;
 import com.softwareverde.bloomfilter.BloomFilter;
 import com.softwareverde.bloomfilter.MutableBloomFilter;
 import com.softwareverde.concurrent.threadpool.ThreadPool;
@@ -57,6 +60,7 @@ import java.util.Map;
 
 public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback {
     public static final Integer MAX_ADDRESS_FILTER_SIZE = 256;
+    public static final Integer MAX_QUERY_ADDRESSES_KEY_COUNT = 4096;
 
     protected static final String ERROR_MESSAGE_KEY = "errorMessage";
     protected static final String WAS_SUCCESS_KEY = "wasSuccess";
@@ -92,6 +96,8 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         List<Transaction> getAddressTransactions(Sha256Hash scriptHash);
         List<Sha256Hash> getAddressTransactionHashes(Address address);
         List<Sha256Hash> getAddressTransactionHashes(Sha256Hash scriptHash);
+
+        Map<Sha256Hash, ScriptHashSummary> getScriptHashSummaries(List<Sha256Hash> scriptHashes, Boolean includeTransactionHashes, Boolean includeUnspentTransactionOutputs);
     }
 
     public interface ThreadPoolInquisitor {
@@ -110,6 +116,12 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         Long getUncommittedUtxoCount();
         Long getCommittedUtxoBlockHeight();
 
+        Long getUtxoCacheByteCount();
+        Long getUtxoCacheByteBudget();
+        Long getEvictedUtxoCount();
+        Long getRetainedHeapByteCount();
+        Long getMemoryPressureEventCount();
+
         void commitUtxoCache();
     }
 
@@ -805,6 +817,12 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         response.put("uncommittedUtxoCount", uncommittedUtxoCount);
         response.put("committedUtxoBlockHeight", committedUtxoBlockHeight);
 
+        response.put("utxoCacheByteCount", utxoCacheHandler.getUtxoCacheByteCount());
+        response.put("utxoCacheByteBudget", utxoCacheHandler.getUtxoCacheByteBudget());
+        response.put("evictedUtxoCount", utxoCacheHandler.getEvictedUtxoCount());
+        response.put("retainedHeapByteCount", utxoCacheHandler.getRetainedHeapByteCount());
+        response.put("memoryPressureEventCount", utxoCacheHandler.getMemoryPressureEventCount());
+
         response.put(WAS_SUCCESS_KEY, 1);
     }
 
@@ -1200,6 +1218,116 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
         response.put(WAS_SUCCESS_KEY, 1);
     }
 
+    // Requires GET: <addresses|scriptHashes>, [includeTransactionHashes], [includeUnspentOutputs]
+    protected void _queryAddresses(final Json parameters, final Json response) {
+        final QueryAddressHandler queryAddressHandler = _queryAddressHandler;
+        if (queryAddressHandler == null) {
+            response.put(ERROR_MESSAGE_KEY, "Operation not supported.");
+            return;
+        }
+
+        final Json addressesJson = parameters.getOrNull("addresses", Json.Types.JSON);
+        final Json scriptHashesJson = parameters.getOrNull("scriptHashes", Json.Types.JSON);
+        if ( ((addressesJson == null) || (! addressesJson.isArray())) && ((scriptHashesJson == null) || (! scriptHashesJson.isArray())) ) {
+            response.put(ERROR_MESSAGE_KEY, "Missing parameters. Required: addresses or scriptHashes");
+            return;
+        }
+
+        final int keyCount = ( (addressesJson != null ? addressesJson.length() : 0) + (scriptHashesJson != null ? scriptHashesJson.length() : 0) );
+        if (keyCount > MAX_QUERY_ADDRESSES_KEY_COUNT) {
+            response.put(ERROR_MESSAGE_KEY, "Too many addresses; max: " + MAX_QUERY_ADDRESSES_KEY_COUNT);
+            return;
+        }
+
+        final boolean shouldIncludeTransactionHashes = (parameters.hasKey("includeTransactionHashes") ? parameters.getBoolean("includeTransactionHashes") : false);
+        final boolean shouldIncludeUnspentOutputs = (parameters.hasKey("includeUnspentOutputs") ? parameters.getBoolean("includeUnspentOutputs") : false);
+
+        // Each requested key is resolved to its scriptHash so that all keys may be queried together; the JSON describing each key is retained in request order.
+        final MutableList<Sha256Hash> scriptHashes = new MutableList<>();
+        final MutableList<Json> keysJson = new MutableList<>();
+        if ( (addressesJson != null) && addressesJson.isArray() ) {
+            final AddressInflater addressInflater = _masterInflater.getAddressInflater();
+            for (int i = 0; i < addressesJson.length(); ++i) {
+                final String addressString = addressesJson.getString(i);
+                final Address base58Address = addressInflater.fromBase58Check(addressString);
+                final Address base32Address = addressInflater.fromBase32Check(addressString);
+                final Address address = Util.coalesce(base58Address, base32Address);
+                if (address == null) {
+                    response.put(ERROR_MESSAGE_KEY, "Invalid address: " + addressString);
+                    return;
+                }
+
+                final Json addressJson = new Json(false);
+                addressJson.put("base32CheckEncoded", address.toBase32CheckEncoded(true));
+                addressJson.put("base58CheckEncoded", address.toBase58CheckEncoded());
+
+                final Json keyJson = new Json(false);
+                keyJson.put("address", addressJson);
+
+                scriptHashes.add(ScriptBuilder.computeScriptHash(address));
+                keysJson.add(keyJson);
+            }
+        }
+        if ( (scriptHashesJson != null) && scriptHashesJson.isArray() ) {
+            for (int i = 0; i < scriptHashesJson.length(); ++i) {
+                final String scriptHashString = scriptHashesJson.getString(i);
+                final Sha256Hash scriptHash = Sha256Hash.fromHexString(scriptHashString);
+                if (scriptHash == null) {
+                    response.put(ERROR_MESSAGE_KEY, "Invalid scriptHash: " + scriptHashString);
+                    return;
+                }
+
+                final Json keyJson = new Json(false);
+                keyJson.put("scriptHash", scriptHash);
+
+                scriptHashes.add(scriptHash);
+                keysJson.add(keyJson);
+            }
+        }
+
+        final Map<Sha256Hash, ScriptHashSummary> scriptHashSummaries = queryAddressHandler.getScriptHashSummaries(scriptHashes, shouldIncludeTransactionHashes, shouldIncludeUnspentOutputs);
+        if (scriptHashSummaries == null) {
+            response.put(ERROR_MESSAGE_KEY, "Unable to determine address balances.");
+            return;
+        }
+
+        final Json addressesResponseJson = new Json(true);
+        for (int i = 0; i < scriptHashes.getCount(); ++i) {
+            final Sha256Hash scriptHash = scriptHashes.get(i);
+            final ScriptHashSummary scriptHashSummary = scriptHashSummaries.get(scriptHash);
+            final Json keyJson = keysJson.get(i);
+
+            keyJson.put("balance", scriptHashSummary.getBalance());
+            keyJson.put("confirmedBalance", scriptHashSummary.getConfirmedBalance());
+
+            if (shouldIncludeTransactionHashes) {
+                final Json transactionHashesJson = new Json(true);
+                for (final Sha256Hash transactionHash : scriptHashSummary.getTransactionHashes()) {
+                    transactionHashesJson.add(transactionHash);
+                }
+                keyJson.put("transactions", transactionHashesJson);
+            }
+
+            if (shouldIncludeUnspentOutputs) {
+                final Json unspentOutputsJson = new Json(true);
+                for (final IndexedTransactionOutput transactionOutput : scriptHashSummary.getUnspentTransactionOutputs()) {
+                    final Json unspentOutputJson = new Json(false);
+                    unspentOutputJson.put("transactionHash", transactionOutput.getTransactionHash());
+                    unspentOutputJson.put("outputIndex", transactionOutput.getOutputIndex());
+                    unspentOutputJson.put("amount", transactionOutput.getAmount());
+                    unspentOutputsJson.add(unspentOutputJson);
+                }
+                keyJson.put("unspentOutputs", unspentOutputsJson);
+            }
+
+            addressesResponseJson.add(keyJson);
+        }
+
+        response.put("addresses", addressesResponseJson);
+
+        response.put(WAS_SUCCESS_KEY, 1);
+    }
+
     // Requires GET: <hash>
     protected void _queryIsSlpTransaction(final Json parameters, final Json response) {
         final DataHandler dataHandler = _dataHandler;
@@ -2176,6 +2304,10 @@ public class NodeRpcHandler implements JsonSocketServer.SocketConnectedCallback
                                 _queryAddressTransactions(parameters, response);
                             } break;
 
+                            case "ADDRESSES": {
+                                _queryAddresses(parameters, response);
+                            } break;
+
                             case "BLOCKCHAIN": {
                                 _queryBlockchainMetadata(parameters, response);
                             } break;
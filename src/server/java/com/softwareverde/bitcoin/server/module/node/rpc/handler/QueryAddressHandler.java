@@ -8,6 +8,7 @@ import com.softwareverde.bitcoin.server.module.node.database.blockchain.Blockcha
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.BlockchainIndexerDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.indexer.ScriptHashSummary;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.TransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.rpc.NodeRpcHandler;
 import com.softwareverde.bitcoin.transaction.MutableTransaction;
@@ -22,6 +23,7 @@ import com.softwareverde.logging.Logger;
 import com.softwareverde.util.SortUtil;
 
 import java.util.HashMap;
+import java.util.Map;
 
 public class QueryAddressHandler implements NodeRpcHandler.QueryAddressHandler {
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
@@ -176,4 +178,19 @@ public class QueryAddressHandler implements NodeRpcHandler.QueryAddressHandler {
             return null;
         }
     }
+
+    @Override
+    public Map<Sha256Hash, ScriptHashSummary> getScriptHashSummaries(final List<Sha256Hash> scriptHashes, final Boolean includeTransactionHashes, final Boolean includeUnspentTransactionOutputs) {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            final BlockchainSegmentId headChainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+            return blockchainIndexerDatabaseManager.getScriptHashSummaries(headChainSegmentId, scriptHashes, includeTransactionHashes, includeUnspentTransactionOutputs);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
 }
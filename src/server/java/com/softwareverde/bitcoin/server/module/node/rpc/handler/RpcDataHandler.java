@@ -5,6 +5,7 @@ import com.softwareverde.bitcoin.address.AddressInflater;
 import com.softwareverde.bitcoin.bip.UpgradeSchedule;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.block.CanonicalMutableBlock;
 import com.softwareverde.bitcoin.block.header.BlockHeader;
 import com.softwareverde.bitcoin.block.header.MutableBlockHeader;
@@ -133,18 +134,20 @@ public class RpcDataHandler implements NodeRpcHandler.DataHandler {
     protected List<Transaction> _getBlockTransactions(final BlockId blockId, final Integer pageSize, final Integer pageNumber, final FullNodeDatabaseManager databaseManager) throws DatabaseException {
         if (blockId == null) { return null; }
 
-        final Block block = _getBlock(blockId, databaseManager);
-        if (block == null) { return null; }
+        // NOTE: Only the requested page of Transactions is decoded, and only as lazily-inflated TransactionViews.
+        final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+        final BlockView blockView = blockDatabaseManager.getBlockView(blockId);
+        if (blockView == null) { return null; }
 
-        final List<Transaction> transactions = block.getTransactions();
+        final int transactionCount = blockView.getTransactionCount();
 
         final MutableList<Transaction> returnedTransactions = new MutableList<>(pageSize);
         final int startIndex = (pageNumber * pageSize);
         for (int i = 0; i < pageSize; ++i) {
             final int readIndex = (startIndex + i);
-            if (readIndex >= transactions.getCount()) { break; }
+            if (readIndex >= transactionCount) { break; }
 
-            final Transaction transaction = transactions.get(readIndex);
+            final Transaction transaction = blockView.getTransaction(readIndex);
             returnedTransactions.add(transaction);
         }
         return returnedTransactions;
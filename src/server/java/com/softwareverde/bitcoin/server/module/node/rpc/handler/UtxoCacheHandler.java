@@ -1,5 +1,6 @@
 package com.softwareverde.bitcoin.server.module.node.rpc.handler;
 
+import com.softwareverde.bitcoin.server.memory.MemoryGovernor;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.CommitAsyncMode;
@@ -10,9 +11,11 @@ import com.softwareverde.logging.Logger;
 
 public class UtxoCacheHandler implements NodeRpcHandler.UtxoCacheHandler {
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final MemoryGovernor _memoryGovernor;
 
-    public UtxoCacheHandler(final FullNodeDatabaseManagerFactory databaseManagerFactory) {
+    public UtxoCacheHandler(final FullNodeDatabaseManagerFactory databaseManagerFactory, final MemoryGovernor memoryGovernor) {
         _databaseManagerFactory = databaseManagerFactory;
+        _memoryGovernor = memoryGovernor;
     }
 
     @Override
@@ -63,6 +66,43 @@ public class UtxoCacheHandler implements NodeRpcHandler.UtxoCacheHandler {
         }
     }
 
+    @Override
+    public Long getUtxoCacheByteCount() {
+        final MemoryGovernor memoryGovernor = _memoryGovernor;
+        if (memoryGovernor == null) { return null; }
+
+        return memoryGovernor.getUtxoCacheByteCount();
+    }
+
+    @Override
+    public Long getUtxoCacheByteBudget() {
+        final MemoryGovernor memoryGovernor = _memoryGovernor;
+        if (memoryGovernor == null) { return null; }
+
+        return memoryGovernor.getUtxoCacheByteBudget();
+    }
+
+    @Override
+    public Long getEvictedUtxoCount() {
+        return UnspentTransactionOutputDatabaseManager.getEvictedUtxoCount();
+    }
+
+    @Override
+    public Long getRetainedHeapByteCount() {
+        final MemoryGovernor memoryGovernor = _memoryGovernor;
+        if (memoryGovernor == null) { return null; }
+
+        return memoryGovernor.getRetainedHeapByteCount();
+    }
+
+    @Override
+    public Long getMemoryPressureEventCount() {
+        final MemoryGovernor memoryGovernor = _memoryGovernor;
+        if (memoryGovernor == null) { return null; }
+
+        return memoryGovernor.getMemoryPressureEventCount();
+    }
+
     @Override
     public void commitUtxoCache() {
         try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
@@ -0,0 +1,34 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * Stores one BlockFilter per block height of the head blockchain, along with its filter hash and filter header.
+ *  Filters must be stored contiguously; storing a filter at a height below the current count replaces that filter
+ *  and removes every filter above it.
+ */
+public interface BlockFilterStore extends AutoCloseable {
+    Boolean open();
+
+    /**
+     * Returns the number of contiguous filters stored, beginning at the genesis block.
+     */
+    Long getBlockFilterCount();
+
+    Boolean storeBlockFilter(Long blockHeight, BlockFilter blockFilter);
+    BlockFilter getBlockFilter(Long blockHeight);
+    Sha256Hash getBlockHash(Long blockHeight);
+    Sha256Hash getFilterHash(Long blockHeight);
+    Sha256Hash getFilterHeader(Long blockHeight);
+
+    /**
+     * Removes the filter at blockHeight and every filter above it.
+     */
+    void removeBlockFilters(Long blockHeight);
+
+    String getBlockFilterDataDirectory();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,271 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.configuration.BitcoinProperties;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Stores basic BlockFilters within two append-only files: an index file and a data file.
+ *  The index file contains one fixed-size record per block height:
+ *      [32 bytes block hash][32 bytes filter hash][32 bytes filter header][8 bytes data offset][4 bytes data byte count]
+ *  The data file contains the serialized filters, in block height order.
+ *  The data is written and synced before its index record, so an interrupted write leaves at most a trailing partial record,
+ *  which is discarded when the store is opened.  Truncations are synced immediately so that a stale index record can never
+ *  refer to data written after it was removed; appended index records are synced when the store is closed, and any
+ *  records lost to a crash are re-indexed.
+ */
+public class BlockFilterStoreCore implements BlockFilterStore {
+    protected static final String INDEX_FILE_NAME = "basic.idx";
+    protected static final String DATA_FILE_NAME = "basic.dat";
+
+    protected static final Integer BLOCK_HASH_OFFSET = 0;
+    protected static final Integer FILTER_HASH_OFFSET = (BLOCK_HASH_OFFSET + Sha256Hash.BYTE_COUNT);
+    protected static final Integer FILTER_HEADER_OFFSET = (FILTER_HASH_OFFSET + Sha256Hash.BYTE_COUNT);
+    protected static final Integer DATA_OFFSET_OFFSET = (FILTER_HEADER_OFFSET + Sha256Hash.BYTE_COUNT);
+    protected static final Integer DATA_BYTE_COUNT_OFFSET = (DATA_OFFSET_OFFSET + 8);
+    protected static final Integer RECORD_BYTE_COUNT = (DATA_BYTE_COUNT_OFFSET + 4);
+
+    protected final String _blockFilterDataDirectory;
+
+    protected RandomAccessFile _indexFile;
+    protected RandomAccessFile _dataFile;
+    protected Long _blockFilterCount = 0L;
+
+    protected Sha256Hash _readHash(final Long blockHeight, final Integer recordOffset) throws IOException {
+        final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+        _indexFile.seek((blockHeight * RECORD_BYTE_COUNT) + recordOffset);
+        _indexFile.readFully(bytes);
+        return Sha256Hash.wrap(bytes);
+    }
+
+    protected Long _readDataOffset(final Long blockHeight) throws IOException {
+        _indexFile.seek((blockHeight * RECORD_BYTE_COUNT) + DATA_OFFSET_OFFSET);
+        return _indexFile.readLong();
+    }
+
+    protected Integer _readDataByteCount(final Long blockHeight) throws IOException {
+        _indexFile.seek((blockHeight * RECORD_BYTE_COUNT) + DATA_BYTE_COUNT_OFFSET);
+        return _indexFile.readInt();
+    }
+
+    /**
+     * Returns the data file length implied by the first blockFilterCount records.
+     */
+    protected Long _getDataByteCount(final Long blockFilterCount) throws IOException {
+        if (blockFilterCount < 1L) { return 0L; }
+
+        final long blockHeight = (blockFilterCount - 1L);
+        return (_readDataOffset(blockHeight) + _readDataByteCount(blockHeight));
+    }
+
+    protected void _truncate(final Long blockFilterCount) throws IOException {
+        final Long dataByteCount = _getDataByteCount(blockFilterCount);
+        _indexFile.setLength(blockFilterCount * RECORD_BYTE_COUNT);
+        _indexFile.getFD().sync();
+        _dataFile.setLength(dataByteCount);
+        _blockFilterCount = blockFilterCount;
+    }
+
+    protected Boolean _isOpen() {
+        return (_indexFile != null);
+    }
+
+    protected void _close() {
+        try {
+            if (_indexFile != null) {
+                _indexFile.getFD().sync();
+                _indexFile.close();
+            }
+            if (_dataFile != null) {
+                _dataFile.close();
+            }
+        }
+        catch (final Exception exception) {
+            Logger.debug(exception);
+        }
+        finally {
+            _indexFile = null;
+            _dataFile = null;
+            _blockFilterCount = 0L;
+        }
+    }
+
+    public BlockFilterStoreCore(final String dataDirectory) {
+        _blockFilterDataDirectory = (dataDirectory != null ? (dataDirectory + "/" + BitcoinProperties.DATA_DIRECTORY_NAME + "/filters") : null);
+    }
+
+    @Override
+    public synchronized Boolean open() {
+        if (_blockFilterDataDirectory == null) { return false; }
+        if (_isOpen()) { return true; }
+
+        final File directory = new File(_blockFilterDataDirectory);
+        if (! directory.exists()) {
+            final boolean mkdirSuccessful = directory.mkdirs();
+            if (! mkdirSuccessful) {
+                Logger.warn("Unable to create block filter data directory: " + _blockFilterDataDirectory);
+                return false;
+            }
+        }
+
+        try {
+            _indexFile = new RandomAccessFile(new File(directory, INDEX_FILE_NAME), "rw");
+            _dataFile = new RandomAccessFile(new File(directory, DATA_FILE_NAME), "rw");
+
+            long blockFilterCount = (_indexFile.length() / RECORD_BYTE_COUNT);
+            final long dataFileByteCount = _dataFile.length();
+            while (blockFilterCount > 0L) { // Discard trailing records whose data is missing or that were never fully written...
+                final boolean dataIsMissing = (_getDataByteCount(blockFilterCount) > dataFileByteCount);
+                final boolean recordIsEmpty = Util.areEqual(Sha256Hash.EMPTY_HASH, _readHash(blockFilterCount - 1L, BLOCK_HASH_OFFSET));
+                if ( (! dataIsMissing) && (! recordIsEmpty) ) { break; }
+
+                blockFilterCount -= 1L;
+            }
+            _truncate(blockFilterCount);
+
+            return true;
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            _close();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized Long getBlockFilterCount() {
+        return _blockFilterCount;
+    }
+
+    @Override
+    public synchronized Boolean storeBlockFilter(final Long blockHeight, final BlockFilter blockFilter) {
+        if (! _isOpen()) { return false; }
+        if ( (blockHeight < 0L) || (blockHeight > _blockFilterCount) ) { return false; }
+        if (blockFilter.getFilterType() != BlockFilterType.BASIC) { return false; }
+
+        try {
+            if (blockHeight < _blockFilterCount) {
+                _truncate(blockHeight);
+            }
+
+            final Sha256Hash previousFilterHeader = (blockHeight > 0L ? _readHash(blockHeight - 1L, FILTER_HEADER_OFFSET) : Sha256Hash.EMPTY_HASH);
+            final Sha256Hash filterHash = blockFilter.getFilterHash();
+            final Sha256Hash filterHeader = BlockFilter.calculateFilterHeader(filterHash, previousFilterHeader);
+
+            final byte[] filterBytes = blockFilter.getBytes().getBytes();
+            final long dataOffset = _dataFile.length();
+            _dataFile.seek(dataOffset);
+            _dataFile.write(filterBytes);
+            _dataFile.getFD().sync();
+
+            _indexFile.seek(blockHeight * RECORD_BYTE_COUNT);
+            _indexFile.write(blockFilter.getBlockHash().getBytes());
+            _indexFile.write(filterHash.getBytes());
+            _indexFile.write(filterHeader.getBytes());
+            _indexFile.writeLong(dataOffset);
+            _indexFile.writeInt(filterBytes.length);
+
+            _blockFilterCount = (blockHeight + 1L);
+            return true;
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized BlockFilter getBlockFilter(final Long blockHeight) {
+        if (! _isOpen()) { return null; }
+        if ( (blockHeight < 0L) || (blockHeight >= _blockFilterCount) ) { return null; }
+
+        try {
+            final Sha256Hash blockHash = _readHash(blockHeight, BLOCK_HASH_OFFSET);
+            final Long dataOffset = _readDataOffset(blockHeight);
+            final Integer dataByteCount = _readDataByteCount(blockHeight);
+
+            final byte[] filterBytes = new byte[dataByteCount];
+            _dataFile.seek(dataOffset);
+            _dataFile.readFully(filterBytes);
+
+            return new BlockFilter(BlockFilterType.BASIC, blockHash, MutableByteArray.wrap(filterBytes));
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized Sha256Hash getBlockHash(final Long blockHeight) {
+        if (! _isOpen()) { return null; }
+        if ( (blockHeight < 0L) || (blockHeight >= _blockFilterCount) ) { return null; }
+
+        try {
+            return _readHash(blockHeight, BLOCK_HASH_OFFSET);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized Sha256Hash getFilterHash(final Long blockHeight) {
+        if (! _isOpen()) { return null; }
+        if ( (blockHeight < 0L) || (blockHeight >= _blockFilterCount) ) { return null; }
+
+        try {
+            return _readHash(blockHeight, FILTER_HASH_OFFSET);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized Sha256Hash getFilterHeader(final Long blockHeight) {
+        if (! _isOpen()) { return null; }
+        if ( (blockHeight < 0L) || (blockHeight >= _blockFilterCount) ) { return null; }
+
+        try {
+            return _readHash(blockHeight, FILTER_HEADER_OFFSET);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void removeBlockFilters(final Long blockHeight) {
+        if (! _isOpen()) { return; }
+        if ( (blockHeight < 0L) || (blockHeight >= _blockFilterCount) ) { return; }
+
+        try {
+            _truncate(blockHeight);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+        }
+    }
+
+    @Override
+    public String getBlockFilterDataDirectory() {
+        return _blockFilterDataDirectory;
+    }
+
+    @Override
+    public synchronized void close() {
+        _close();
+    }
+}
@@ -0,0 +1,35 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+import java.util.Map;
+
+/**
+ * Stores, per connected block, the previous outputs spent by that block so that they may be restored if the block is
+ *  disconnected during a reorg.  Undo logs are only read back during a reorg and are removed once they are deeper than
+ *  the maximum reorg depth.
+ */
+public interface UndoLogStore {
+    /**
+     * Stores the spent outputs of the block at blockHeight, replacing any undo log previously stored for the block.
+     */
+    Boolean storeUndoLog(Long blockHeight, Sha256Hash blockHash, Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs);
+
+    /**
+     * Returns the spent outputs of the block at blockHeight, or null if no undo log exists for the block.
+     */
+    Map<TransactionOutputIdentifier, UnspentTransactionOutput> getUndoLog(Long blockHeight, Sha256Hash blockHash);
+
+    Boolean undoLogExists(Long blockHeight, Sha256Hash blockHash);
+
+    void removeUndoLog(Long blockHeight, Sha256Hash blockHash);
+
+    /**
+     * Removes every undo log stored below minimumBlockHeight.
+     */
+    void removeUndoLogsBelow(Long minimumBlockHeight);
+
+    String getUndoLogDataDirectory();
+}
@@ -0,0 +1,267 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.server.configuration.BitcoinProperties;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.bitcoin.util.bytearray.ByteArrayReader;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.IoUtil;
+import com.softwareverde.util.Util;
+import com.softwareverde.util.bytearray.Endian;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores each block's undo log within its own append-only file, named by block height and block hash so that the
+ *  undo logs of competing blocks at the same height do not collide.
+ *  Each file is written sequentially as:
+ *      [32 bytes block hash][variable-length output count]
+ *  followed by one record per spent output:
+ *      [32 bytes transaction hash][variable-length output index][variable-length block height][1 byte is-coinbase]
+ *      [8 bytes amount][variable-length locking script byte count][locking script]
+ *  The file is written to a temporary file, synced, and then atomically renamed, so a partially written undo log is never read;
+ *  an undo log that cannot be parsed is treated as missing.
+ */
+public class UndoLogStoreCore implements UndoLogStore {
+    protected static final String FILE_EXTENSION = ".undo";
+    protected static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    protected final String _undoLogDataDirectory;
+
+    protected String _getUndoLogPath(final Long blockHeight, final Sha256Hash blockHash) {
+        return (_undoLogDataDirectory + "/" + blockHeight + "-" + blockHash + FILE_EXTENSION);
+    }
+
+    protected static void writeVariableLengthInteger(final OutputStream outputStream, final long value) throws Exception {
+        outputStream.write(ByteUtil.variableLengthIntegerToBytes(value));
+    }
+
+    protected static void writeLong(final OutputStream outputStream, final long value) throws Exception {
+        final byte[] bytes = ByteUtil.longToBytes(value);
+        outputStream.write(ByteUtil.reverseEndian(bytes));
+    }
+
+    /**
+     * Returns the block height encoded within the undo log's file name, or null if the file is not an undo log.
+     *  Temporary files left behind by an interrupted write are considered undo logs so that they are eventually removed.
+     */
+    protected static Long parseBlockHeight(final String fileName) {
+        final boolean isUndoLog = (fileName.endsWith(FILE_EXTENSION) || fileName.endsWith(FILE_EXTENSION + TEMPORARY_FILE_EXTENSION));
+        if (! isUndoLog) { return null; }
+
+        final int separatorIndex = fileName.indexOf('-');
+        if (separatorIndex < 0) { return null; }
+
+        final String blockHeightString = fileName.substring(0, separatorIndex);
+        try {
+            return Long.parseLong(blockHeightString);
+        }
+        catch (final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Syncs the directory so that a rename within it survives a crash.  Not every platform supports opening a directory,
+     *  in which case the rename's durability is left to the filesystem.
+     */
+    protected static void syncDirectory(final File directory) {
+        try (final FileChannel fileChannel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            fileChannel.force(true);
+        }
+        catch (final IOException exception) {
+            Logger.debug(exception);
+        }
+    }
+
+    /**
+     * Returns a reader positioned at the undo log's output count, or null if the undo log does not exist.
+     */
+    protected ByteArrayReader _openUndoLog(final Long blockHeight, final Sha256Hash blockHash) {
+        final String undoLogPath = _getUndoLogPath(blockHeight, blockHash);
+        if (! IoUtil.fileExists(undoLogPath)) { return null; }
+
+        final byte[] bytes = IoUtil.getFileContents(undoLogPath);
+        if (bytes == null) { return null; }
+
+        final ByteArrayReader byteArrayReader = new ByteArrayReader(bytes);
+        final Sha256Hash undoLogBlockHash = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT));
+        if (byteArrayReader.didOverflow()) { return null; }
+        if (! Util.areEqual(blockHash, undoLogBlockHash)) { return null; }
+
+        return byteArrayReader;
+    }
+
+    @Override
+    public Boolean storeUndoLog(final Long blockHeight, final Sha256Hash blockHash, final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs) {
+        if (_undoLogDataDirectory == null) { return false; }
+
+        final File directory = new File(_undoLogDataDirectory);
+        if (! directory.exists()) {
+            final boolean mkdirSuccessful = directory.mkdirs();
+            if ( (! mkdirSuccessful) && (! directory.exists()) ) {
+                Logger.warn("Unable to create undo log data directory: " + _undoLogDataDirectory);
+                return false;
+            }
+        }
+
+        final File undoLogFile = new File(_getUndoLogPath(blockHeight, blockHash));
+        final File temporaryFile = new File(undoLogFile.getPath() + TEMPORARY_FILE_EXTENSION);
+        try (
+            final FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile);
+            final OutputStream outputStream = new BufferedOutputStream(fileOutputStream)
+        ) {
+            outputStream.write(blockHash.getBytes());
+            UndoLogStoreCore.writeVariableLengthInteger(outputStream, spentTransactionOutputs.size());
+
+            for (final Map.Entry<TransactionOutputIdentifier, UnspentTransactionOutput> entry : spentTransactionOutputs.entrySet()) {
+                final TransactionOutputIdentifier transactionOutputIdentifier = entry.getKey();
+                final UnspentTransactionOutput transactionOutput = entry.getValue();
+                final ByteArray lockingScriptBytes = transactionOutput.getLockingScript().getBytes();
+
+                outputStream.write(transactionOutputIdentifier.getTransactionHash().getBytes());
+                UndoLogStoreCore.writeVariableLengthInteger(outputStream, transactionOutputIdentifier.getOutputIndex());
+                UndoLogStoreCore.writeVariableLengthInteger(outputStream, transactionOutput.getBlockHeight());
+                outputStream.write(transactionOutput.isCoinbase() ? 1 : 0);
+                UndoLogStoreCore.writeLong(outputStream, transactionOutput.getAmount());
+                UndoLogStoreCore.writeVariableLengthInteger(outputStream, lockingScriptBytes.getByteCount());
+                outputStream.write(lockingScriptBytes.getBytes());
+            }
+
+            outputStream.flush();
+            fileOutputStream.getChannel().force(true);
+        }
+        catch (final Exception exception) {
+            Logger.warn(exception);
+            temporaryFile.delete();
+            return false;
+        }
+
+        try {
+            Files.move(temporaryFile.toPath(), undoLogFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException exception) {
+            Logger.warn("Unable to rename undo log: " + temporaryFile.getPath(), exception);
+            temporaryFile.delete();
+            return false;
+        }
+
+        UndoLogStoreCore.syncDirectory(directory);
+        return true;
+    }
+
+    /**
+     * Returns the undo log's spent outputs, or null if the undo log does not exist or cannot be parsed.
+     */
+    protected Map<TransactionOutputIdentifier, UnspentTransactionOutput> _readUndoLog(final Long blockHeight, final Sha256Hash blockHash) {
+        final ByteArrayReader byteArrayReader = _openUndoLog(blockHeight, blockHash);
+        if (byteArrayReader == null) { return null; }
+
+        final long outputCount = byteArrayReader.readVariableLengthInteger();
+        if ( byteArrayReader.didOverflow() || (outputCount < 0L) || (outputCount > byteArrayReader.remainingByteCount()) ) {
+            Logger.warn("Corrupted undo log at block height: " + blockHeight);
+            return null;
+        }
+
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = new HashMap<>((int) outputCount);
+        for (int i = 0; i < outputCount; ++i) {
+            final Sha256Hash transactionHash = Sha256Hash.wrap(byteArrayReader.readBytes(Sha256Hash.BYTE_COUNT));
+            final Integer outputIndex = byteArrayReader.readVariableLengthInteger().intValue();
+            final Long outputBlockHeight = byteArrayReader.readVariableLengthInteger();
+            final Boolean isCoinbase = (byteArrayReader.readByte() != 0);
+            final Long amount = byteArrayReader.readLong(8, Endian.LITTLE);
+            final Integer lockingScriptByteCount = byteArrayReader.readVariableLengthInteger().intValue();
+            final ByteArray lockingScriptBytes = MutableByteArray.wrap(byteArrayReader.readBytes(lockingScriptByteCount, Endian.BIG));
+
+            if (byteArrayReader.didOverflow()) {
+                Logger.warn("Corrupted undo log at block height: " + blockHeight);
+                return null;
+            }
+
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(outputIndex);
+            transactionOutput.setAmount(amount);
+            transactionOutput.setLockingScript(new ImmutableLockingScript(lockingScriptBytes));
+
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+            spentTransactionOutputs.put(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(transactionOutput, outputBlockHeight, isCoinbase));
+        }
+
+        if (byteArrayReader.remainingByteCount() > 0) {
+            Logger.warn("Corrupted undo log at block height: " + blockHeight);
+            return null;
+        }
+
+        return spentTransactionOutputs;
+    }
+
+    public UndoLogStoreCore(final String dataDirectory) {
+        _undoLogDataDirectory = (dataDirectory != null ? (dataDirectory + "/" + BitcoinProperties.DATA_DIRECTORY_NAME + "/undo") : null);
+    }
+
+    @Override
+    public Map<TransactionOutputIdentifier, UnspentTransactionOutput> getUndoLog(final Long blockHeight, final Sha256Hash blockHash) {
+        if (_undoLogDataDirectory == null) { return null; }
+
+        return _readUndoLog(blockHeight, blockHash);
+    }
+
+    /**
+     * Returns true only if the undo log can be parsed, so that a corrupted undo log is rewritten rather than relied upon.
+     */
+    @Override
+    public Boolean undoLogExists(final Long blockHeight, final Sha256Hash blockHash) {
+        if (_undoLogDataDirectory == null) { return false; }
+
+        return (_readUndoLog(blockHeight, blockHash) != null);
+    }
+
+    @Override
+    public void removeUndoLog(final Long blockHeight, final Sha256Hash blockHash) {
+        if (_undoLogDataDirectory == null) { return; }
+
+        final File undoLogFile = new File(_getUndoLogPath(blockHeight, blockHash));
+        if (undoLogFile.exists()) {
+            undoLogFile.delete();
+        }
+    }
+
+    @Override
+    public void removeUndoLogsBelow(final Long minimumBlockHeight) {
+        if (_undoLogDataDirectory == null) { return; }
+
+        final File[] files = (new File(_undoLogDataDirectory)).listFiles();
+        if (files == null) { return; }
+
+        for (final File file : files) {
+            final Long blockHeight = UndoLogStoreCore.parseBlockHeight(file.getName());
+            if (blockHeight == null) { continue; }
+
+            if (blockHeight < minimumBlockHeight) {
+                file.delete();
+            }
+        }
+    }
+
+    @Override
+    public String getUndoLogDataDirectory() {
+        return _undoLogDataDirectory;
+    }
+}
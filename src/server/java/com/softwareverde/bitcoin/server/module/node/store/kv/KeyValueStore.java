@@ -0,0 +1,40 @@
+package com.softwareverde.bitcoin.server.module.node.store.kv;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.database.DatabaseException;
+
+/**
+ * An embedded, ordered key-value store.
+ *  Keys are ordered lexicographically as unsigned bytes, so composite keys with big-endian components may be prefix-scanned.
+ */
+public interface KeyValueStore extends AutoCloseable {
+    interface Visitor {
+        /**
+         * Returns false to end the scan.
+         */
+        Boolean visit(ByteArray key, ByteArray value) throws Exception;
+    }
+
+    /**
+     * Returns the value stored for the key, or null if the key does not exist.
+     */
+    ByteArray get(ByteArray key) throws DatabaseException;
+
+    /**
+     * Applies every put and delete within the batch; once this method returns the batch is durable.
+     */
+    void write(KeyValueWriteBatch writeBatch) throws DatabaseException;
+
+    /**
+     * Visits each key beginning with the prefix, in key order.
+     */
+    void scan(ByteArray prefix, Visitor visitor) throws DatabaseException;
+
+    /**
+     * Removes every key.
+     */
+    void clear() throws DatabaseException;
+
+    @Override
+    void close() throws DatabaseException;
+}
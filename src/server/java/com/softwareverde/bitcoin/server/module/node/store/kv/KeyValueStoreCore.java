@@ -0,0 +1,757 @@
+package com.softwareverde.bitcoin.server.module.node.store.kv;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * A log-structured merge KeyValueStore.
+ *  Writes are appended to a write-ahead log and applied to an in-memory table; once the table exceeds its byte limit
+ *  it is flushed to an immutable SortedRun and the log is truncated.  When the number of runs exceeds its limit,
+ *  a background thread merges the adjacent runs with the smallest combined size, at most MAX_COMPACTED_SORTED_RUN_COUNT
+ *  at a time, and swaps the merged run in place of them; writes are only delayed if compaction falls far behind.
+ *  Reads consult the in-memory table, then each run from newest to oldest.
+ */
+public class KeyValueStoreCore implements KeyValueStore {
+    public static final Long DEFAULT_MAX_MEMTABLE_BYTE_COUNT = (64L * 1024L * 1024L);
+    public static final Integer DEFAULT_MAX_SORTED_RUN_COUNT = 8;
+    public static final Integer MAX_COMPACTED_SORTED_RUN_COUNT = 4;
+
+    protected static final String WRITE_AHEAD_LOG_FILE_NAME = "wal.log";
+    protected static final String SORTED_RUN_FILE_EXTENSION = ".run";
+    protected static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+    protected static final Integer ENTRY_OVERHEAD_BYTE_COUNT = 64; // Approximate TreeMap node and array header overhead.
+
+    protected static final Comparator<byte[]> KEY_COMPARATOR = new Comparator<byte[]>() {
+        @Override
+        public int compare(final byte[] key0, final byte[] key1) {
+            return SortedRun.compare(key0, key1);
+        }
+    };
+
+    /**
+     * Returns the smallest key greater than every key beginning with the prefix, or null if no such key exists.
+     */
+    protected static byte[] _getPrefixEnd(final byte[] prefix) {
+        for (int i = (prefix.length - 1); i >= 0; --i) {
+            if ((prefix[i] & 0xFF) != 0xFF) {
+                final byte[] prefixEnd = new byte[i + 1];
+                System.arraycopy(prefix, 0, prefixEnd, 0, (i + 1));
+                prefixEnd[i] += 1;
+                return prefixEnd;
+            }
+        }
+        return null;
+    }
+
+    protected static Long _parseSequence(final String fileName) {
+        if (! fileName.endsWith(SORTED_RUN_FILE_EXTENSION)) { return null; }
+
+        final String sequenceString = fileName.substring(0, (fileName.length() - SORTED_RUN_FILE_EXTENSION.length()));
+        try {
+            return Long.parseLong(sequenceString);
+        }
+        catch (final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    protected final File _directory;
+    protected final Long _maxMemtableByteCount;
+    protected final Integer _maxSortedRunCount;
+    protected final ReentrantReadWriteLock _readWriteLock = new ReentrantReadWriteLock();
+    protected final TreeMap<byte[], byte[]> _memtable = new TreeMap<>(KEY_COMPARATOR);
+    protected final MutableList<SortedRun> _sortedRuns = new MutableList<>(); // Ordered oldest to newest.
+    protected final Object _compactionPin = new Object();
+
+    protected volatile int _sortedRunCount = 0;
+    protected boolean _isCompactionRequested = false; // Guarded by _compactionPin.
+    protected boolean _isCompacting = false; // Guarded by _compactionPin.
+    protected Thread _compactionThread = null;
+    protected long _memtableByteCount = 0L;
+    protected long _nextSequence = 1L;
+    protected FileOutputStream _writeAheadLog = null;
+    protected boolean _isOpen = false;
+
+    protected File _getSortedRunFile(final Long sequence) {
+        return new File(_directory, String.format("%016d", sequence) + SORTED_RUN_FILE_EXTENSION);
+    }
+
+    protected void _applyToMemtable(final byte[] key, final byte[] value) {
+        final byte[] previousValue = _memtable.put(key, value);
+        if (previousValue == null) {
+            _memtableByteCount += (key.length + ENTRY_OVERHEAD_BYTE_COUNT);
+        }
+        else {
+            _memtableByteCount -= previousValue.length;
+        }
+        _memtableByteCount += value.length;
+    }
+
+    protected byte[] _encodeWriteBatch(final KeyValueWriteBatch writeBatch) {
+        final List<ByteArray> keys = writeBatch.getKeys();
+        final List<ByteArray> values = writeBatch.getValues();
+        final int itemCount = keys.getCount();
+
+        int byteCount = 4;
+        for (int i = 0; i < itemCount; ++i) {
+            final ByteArray value = values.get(i);
+            byteCount += (4 + keys.get(i).getByteCount() + 4 + ((value != null) ? value.getByteCount() : 0));
+        }
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8 + byteCount);
+        byteBuffer.putInt(byteCount);
+        byteBuffer.putInt(0); // Checksum placeholder.
+        byteBuffer.putInt(itemCount);
+        for (int i = 0; i < itemCount; ++i) {
+            final ByteArray key = keys.get(i);
+            final ByteArray value = values.get(i);
+            byteBuffer.putInt(key.getByteCount());
+            byteBuffer.put(key.getBytes());
+            if (value == null) {
+                byteBuffer.putInt(-1);
+            }
+            else {
+                byteBuffer.putInt(value.getByteCount());
+                byteBuffer.put(value.getBytes());
+            }
+        }
+
+        final byte[] bytes = byteBuffer.array();
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, 8, byteCount);
+        byteBuffer.putInt(4, (int) crc32.getValue());
+        return bytes;
+    }
+
+    /**
+     * Applies each intact batch within the write-ahead log to the memtable, and returns the byte count of the intact portion.
+     *  Replay stops at the first truncated or corrupted batch, which is the remnant of an interrupted write.
+     */
+    protected long _replayWriteAheadLog(final File writeAheadLogFile) throws IOException {
+        if (! writeAheadLogFile.exists()) { return 0L; }
+
+        long validByteCount = 0L;
+        try (final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(writeAheadLogFile), (64 * 1024)))) {
+            final long fileByteCount = writeAheadLogFile.length();
+            while (true) {
+                final int payloadByteCount;
+                final int checksum;
+                try {
+                    payloadByteCount = inputStream.readInt();
+                    checksum = inputStream.readInt();
+                }
+                catch (final EOFException exception) { break; }
+
+                if ( (payloadByteCount < 4) || (payloadByteCount > (fileByteCount - validByteCount - 8L)) ) { break; }
+
+                final byte[] payload = new byte[payloadByteCount];
+                try {
+                    inputStream.readFully(payload);
+                }
+                catch (final EOFException exception) { break; }
+
+                final CRC32 crc32 = new CRC32();
+                crc32.update(payload, 0, payloadByteCount);
+                if (((int) crc32.getValue()) != checksum) { break; }
+
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(payload);
+                final int itemCount = byteBuffer.getInt();
+                for (int i = 0; i < itemCount; ++i) {
+                    final byte[] key = SortedRun._readKey(byteBuffer);
+                    final byte[] value = SortedRun._readValue(byteBuffer);
+                    _applyToMemtable(key, value);
+                }
+
+                validByteCount += (8L + payloadByteCount);
+            }
+        }
+
+        return validByteCount;
+    }
+
+    protected void _openWriteAheadLog(final Boolean shouldTruncate) throws IOException {
+        if (_writeAheadLog != null) {
+            _writeAheadLog.close();
+        }
+
+        final File writeAheadLogFile = new File(_directory, WRITE_AHEAD_LOG_FILE_NAME);
+        _writeAheadLog = new FileOutputStream(writeAheadLogFile, (! shouldTruncate));
+        if (shouldTruncate) {
+            _writeAheadLog.getFD().sync();
+        }
+    }
+
+    /**
+     * Writes the memtable to a new SortedRun and truncates the write-ahead log.
+     */
+    protected void _flushMemtable() throws IOException {
+        if (_memtable.isEmpty()) { return; }
+
+        final Long sequence = (_nextSequence++);
+        final File file = _getSortedRunFile(sequence);
+        try (final SortedRun.Writer writer = new SortedRun.Writer(file, 0L)) {
+            for (final Map.Entry<byte[], byte[]> entry : _memtable.entrySet()) {
+                writer.append(entry.getKey(), entry.getValue());
+            }
+            writer.finish();
+        }
+
+        _sortedRuns.add(SortedRun.open(file, sequence));
+        _sortedRunCount = _sortedRuns.getCount();
+        _memtable.clear();
+        _memtableByteCount = 0L;
+        _openWriteAheadLog(true);
+
+        if (_sortedRunCount > _maxSortedRunCount) {
+            _requestCompaction();
+        }
+    }
+
+    protected void _requestCompaction() {
+        synchronized (_compactionPin) {
+            _isCompactionRequested = true;
+            _isCompacting = true;
+            _compactionPin.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the adjacent SortedRuns with the smallest combined byte count, or null if compaction is not necessary.
+     *  Only adjacent runs are merged, so the merged run takes their place without reordering newer and older values.
+     */
+    protected List<SortedRun> _selectSortedRunsToCompact() {
+        _readWriteLock.readLock().lock();
+        try {
+            if (! _isOpen) { return null; }
+
+            final int sortedRunCount = _sortedRuns.getCount();
+            if (sortedRunCount <= _maxSortedRunCount) { return null; }
+
+            final int compactedSortedRunCount = Math.min(sortedRunCount, MAX_COMPACTED_SORTED_RUN_COUNT);
+            int selectedIndex = 0;
+            long selectedByteCount = Long.MAX_VALUE;
+            for (int i = 0; i <= (sortedRunCount - compactedSortedRunCount); ++i) {
+                long byteCount = 0L;
+                for (int j = 0; j < compactedSortedRunCount; ++j) {
+                    byteCount += _sortedRuns.get(i + j).getByteCount();
+                }
+
+                if (byteCount < selectedByteCount) {
+                    selectedIndex = i;
+                    selectedByteCount = byteCount;
+                }
+            }
+
+            final MutableList<SortedRun> sortedRuns = new MutableList<>(compactedSortedRunCount);
+            for (int i = 0; i < compactedSortedRunCount; ++i) {
+                sortedRuns.add(_sortedRuns.get(selectedIndex + i));
+            }
+            return sortedRuns;
+        }
+        finally {
+            _readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the adjacent SortedRuns into a single run without blocking reads or writes, then swaps it in place of them.
+     *  The newest value of each key wins; deleted keys are discarded only if the oldest run is merged, since otherwise
+     *  the deletion must still hide the key's value within an older run.
+     *  The merged run replaces the file of the newest merged run and records the oldest sequence it replaces,
+     *  so the remaining replaced runs are removed on open if a crash prevents their deletion here.
+     *  Returns false if the merge was interrupted.
+     */
+    protected Boolean _compactSortedRuns(final List<SortedRun> sortedRuns) throws IOException {
+        final int sortedRunCount = sortedRuns.getCount();
+        final SortedRun oldestSortedRun = sortedRuns.get(0);
+        final SortedRun newestSortedRun = sortedRuns.get(sortedRunCount - 1);
+
+        final boolean shouldDiscardDeletedKeys;
+        _readWriteLock.readLock().lock();
+        try {
+            shouldDiscardDeletedKeys = ( (! _sortedRuns.isEmpty()) && (_sortedRuns.get(0) == oldestSortedRun) );
+        }
+        finally {
+            _readWriteLock.readLock().unlock();
+        }
+
+        final Long sequence = newestSortedRun.getSequence();
+        final File file = _getSortedRunFile(sequence);
+
+        final PriorityQueue<SortedRun.Cursor> cursors = new PriorityQueue<>(sortedRunCount, new Comparator<SortedRun.Cursor>() {
+            @Override
+            public int compare(final SortedRun.Cursor cursor0, final SortedRun.Cursor cursor1) {
+                final int compareValue = SortedRun.compare(cursor0.key, cursor1.key);
+                if (compareValue != 0) { return compareValue; }
+                return Long.compare(cursor1.getSortedRun().getSequence(), cursor0.getSortedRun().getSequence()); // Newest first.
+            }
+        });
+        for (final SortedRun sortedRun : sortedRuns) {
+            final SortedRun.Cursor cursor = sortedRun.newCursor();
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+
+        final Thread thread = Thread.currentThread();
+        try (final SortedRun.Writer writer = new SortedRun.Writer(file, oldestSortedRun.getSequence())) {
+            byte[] previousKey = null;
+            while (! cursors.isEmpty()) {
+                if (thread.isInterrupted()) { return false; }
+
+                final SortedRun.Cursor cursor = cursors.poll();
+                final byte[] key = cursor.key;
+                final byte[] value = cursor.value;
+
+                final boolean isNewestValue = ( (previousKey == null) || (SortedRun.compare(previousKey, key) != 0) );
+                if ( isNewestValue && ( (value != SortedRun.DELETED) || (! shouldDiscardDeletedKeys) ) ) {
+                    writer.append(key, value);
+                }
+                previousKey = key;
+
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+            writer.finish();
+        }
+
+        final SortedRun compactedSortedRun = SortedRun.open(file, sequence);
+
+        _readWriteLock.writeLock().lock();
+        try {
+            int index = -1;
+            for (int i = 0; i < _sortedRuns.getCount(); ++i) {
+                if (_sortedRuns.get(i) == oldestSortedRun) {
+                    index = i;
+                    break;
+                }
+            }
+
+            if (index < 0) { // The runs were released while they were being merged, so the merged run is obsolete.
+                compactedSortedRun.close();
+                file.delete();
+                return true;
+            }
+
+            final MutableList<SortedRun> remainingSortedRuns = new MutableList<>(_sortedRuns.getCount());
+            for (int i = 0; i < _sortedRuns.getCount(); ++i) {
+                if (i == index) {
+                    remainingSortedRuns.add(compactedSortedRun);
+                }
+                else if ( (i < index) || (i >= (index + sortedRunCount)) ) {
+                    remainingSortedRuns.add(_sortedRuns.get(i));
+                }
+            }
+
+            _sortedRuns.clear();
+            for (final SortedRun sortedRun : remainingSortedRuns) {
+                _sortedRuns.add(sortedRun);
+            }
+            _sortedRunCount = _sortedRuns.getCount();
+
+            for (final SortedRun sortedRun : sortedRuns) {
+                sortedRun.close();
+                if (sortedRun == newestSortedRun) { continue; } // Its file now contains the merged run.
+
+                if (! sortedRun.getFile().delete()) {
+                    Logger.warn("Unable to delete compacted SortedRun: " + sortedRun.getFile().getPath());
+                }
+            }
+        }
+        finally {
+            _readWriteLock.writeLock().unlock();
+        }
+
+        return true;
+    }
+
+    protected void _runCompactions() {
+        final Thread thread = Thread.currentThread();
+        try {
+            while (! thread.isInterrupted()) {
+                synchronized (_compactionPin) {
+                    while (! _isCompactionRequested) {
+                        _isCompacting = false;
+                        _compactionPin.notifyAll();
+                        _compactionPin.wait();
+                    }
+                    _isCompactionRequested = false;
+                    _isCompacting = true;
+                }
+
+                try {
+                    while (! thread.isInterrupted()) {
+                        final List<SortedRun> sortedRuns = _selectSortedRunsToCompact();
+                        if (sortedRuns == null) { break; }
+
+                        final Boolean wasCompleted = _compactSortedRuns(sortedRuns);
+                        if (! wasCompleted) { break; }
+
+                        synchronized (_compactionPin) {
+                            _compactionPin.notifyAll();
+                        }
+                    }
+                }
+                catch (final IOException exception) {
+                    Logger.warn("Unable to compact KeyValueStore: " + _directory.getPath(), exception);
+                }
+            }
+        }
+        catch (final InterruptedException exception) { }
+        finally {
+            synchronized (_compactionPin) {
+                _isCompacting = false;
+                _compactionPin.notifyAll();
+            }
+        }
+    }
+
+    protected void _startCompactionThread() {
+        final Thread compactionThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                _runCompactions();
+            }
+        });
+        compactionThread.setName("KeyValueStore Compaction Thread");
+        compactionThread.setDaemon(true);
+        compactionThread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+            @Override
+            public void uncaughtException(final Thread thread, final Throwable exception) {
+                Logger.debug(exception);
+            }
+        });
+
+        synchronized (_compactionPin) {
+            _isCompactionRequested = (_sortedRunCount > _maxSortedRunCount);
+            _isCompacting = _isCompactionRequested;
+        }
+
+        _compactionThread = compactionThread;
+        compactionThread.start();
+    }
+
+    /**
+     * Interrupts any in-progress compaction and waits for the compaction thread to exit.
+     *  Must not be invoked while holding _readWriteLock, since the compaction thread may be waiting to swap in a merged run.
+     */
+    protected void _stopCompactionThread() {
+        final Thread compactionThread = _compactionThread;
+        if (compactionThread == null) { return; }
+
+        compactionThread.interrupt();
+        try {
+            compactionThread.join();
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        _compactionThread = null;
+    }
+
+    /**
+     * Blocks while there are at least sortedRunCount SortedRuns and a compaction is in progress.
+     */
+    protected void _waitForCompaction(final int sortedRunCount) throws InterruptedException {
+        synchronized (_compactionPin) {
+            while ( _isCompacting && (_sortedRunCount >= sortedRunCount) ) {
+                _compactionPin.wait();
+            }
+        }
+    }
+
+    protected void _closeSortedRuns() {
+        for (final SortedRun sortedRun : _sortedRuns) {
+            try {
+                sortedRun.close();
+            }
+            catch (final Exception exception) {
+                Logger.debug(exception);
+            }
+        }
+        _sortedRuns.clear();
+        _sortedRunCount = 0;
+    }
+
+    protected void _requireOpen() throws DatabaseException {
+        if (! _isOpen) {
+            throw new DatabaseException("KeyValueStore is not open.");
+        }
+    }
+
+    public KeyValueStoreCore(final String directory) {
+        this(directory, DEFAULT_MAX_MEMTABLE_BYTE_COUNT, DEFAULT_MAX_SORTED_RUN_COUNT);
+    }
+
+    public KeyValueStoreCore(final String directory, final Long maxMemtableByteCount, final Integer maxSortedRunCount) {
+        _directory = new File(directory);
+        _maxMemtableByteCount = maxMemtableByteCount;
+        _maxSortedRunCount = Math.max(2, maxSortedRunCount);
+    }
+
+    /**
+     * Opens the store, creating its directory if necessary, and recovers any writes not yet flushed to a SortedRun.
+     */
+    public void open() throws DatabaseException {
+        _readWriteLock.writeLock().lock();
+        try {
+            if (_isOpen) { return; }
+
+            if ( (! _directory.exists()) && (! _directory.mkdirs()) ) {
+                throw new DatabaseException("Unable to create KeyValueStore directory: " + _directory.getPath());
+            }
+
+            final File[] files = _directory.listFiles();
+            final TreeMap<Long, File> sortedRunFiles = new TreeMap<>();
+            if (files != null) {
+                for (final File file : files) {
+                    if (file.getName().endsWith(TEMPORARY_FILE_EXTENSION)) {
+                        file.delete();
+                        continue;
+                    }
+
+                    final Long sequence = _parseSequence(file.getName());
+                    if (sequence != null) {
+                        sortedRunFiles.put(sequence, file);
+                    }
+                }
+            }
+
+            long replacedSequenceBoundary = 0L; // Runs with a sequence below this boundary were replaced by a compaction.
+            for (final Map.Entry<Long, File> entry : sortedRunFiles.descendingMap().entrySet()) {
+                final Long sequence = entry.getKey();
+                final File file = entry.getValue();
+
+                if ( (replacedSequenceBoundary > 0L) && (sequence >= replacedSequenceBoundary) ) {
+                    file.delete();
+                    continue;
+                }
+
+                final SortedRun sortedRun = SortedRun.open(file, sequence);
+                if (sortedRun.getReplacedSequence() > 0L) {
+                    replacedSequenceBoundary = sortedRun.getReplacedSequence();
+                }
+                _sortedRuns.add(0, sortedRun);
+                _nextSequence = Math.max(_nextSequence, (sequence + 1L));
+            }
+            _sortedRunCount = _sortedRuns.getCount();
+
+            final File writeAheadLogFile = new File(_directory, WRITE_AHEAD_LOG_FILE_NAME);
+            final long validByteCount = _replayWriteAheadLog(writeAheadLogFile);
+            if (writeAheadLogFile.exists() && (writeAheadLogFile.length() > validByteCount)) {
+                Logger.warn("Discarding incomplete KeyValueStore write: " + (writeAheadLogFile.length() - validByteCount) + " bytes.");
+                try (final RandomAccessFile randomAccessFile = new RandomAccessFile(writeAheadLogFile, "rw")) {
+                    randomAccessFile.setLength(validByteCount);
+                }
+            }
+
+            _openWriteAheadLog(false);
+            _isOpen = true;
+            _startCompactionThread();
+        }
+        catch (final IOException exception) {
+            _closeSortedRuns();
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _readWriteLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public ByteArray get(final ByteArray key) throws DatabaseException {
+        final byte[] keyBytes = key.getBytes();
+
+        _readWriteLock.readLock().lock();
+        try {
+            _requireOpen();
+
+            final byte[] memtableValue = _memtable.get(keyBytes);
+            if (memtableValue != null) {
+                return ((memtableValue == SortedRun.DELETED) ? null : ByteArray.wrap(memtableValue));
+            }
+
+            for (int i = (_sortedRuns.getCount() - 1); i >= 0; --i) {
+                final SortedRun sortedRun = _sortedRuns.get(i);
+                final byte[] value = sortedRun.get(keyBytes);
+                if (value != null) {
+                    return ((value == SortedRun.DELETED) ? null : ByteArray.wrap(value));
+                }
+            }
+
+            return null;
+        }
+        catch (final IOException exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _readWriteLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void write(final KeyValueWriteBatch writeBatch) throws DatabaseException {
+        if (writeBatch.isEmpty()) { return; }
+
+        final byte[] encodedWriteBatch = _encodeWriteBatch(writeBatch);
+
+        try {
+            _waitForCompaction(_maxSortedRunCount * 2); // Bound the number of runs each read consults if compaction falls behind.
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(exception);
+        }
+
+        _readWriteLock.writeLock().lock();
+        try {
+            _requireOpen();
+
+            _writeAheadLog.write(encodedWriteBatch);
+            _writeAheadLog.getFD().sync();
+
+            final List<ByteArray> keys = writeBatch.getKeys();
+            final List<ByteArray> values = writeBatch.getValues();
+            final int itemCount = keys.getCount();
+            for (int i = 0; i < itemCount; ++i) {
+                final ByteArray value = values.get(i);
+                _applyToMemtable(keys.get(i).getBytes(), ((value != null) ? value.getBytes() : SortedRun.DELETED));
+            }
+
+            if (_memtableByteCount >= _maxMemtableByteCount) {
+                _flushMemtable();
+            }
+        }
+        catch (final IOException exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visits each key beginning with the prefix, in key order.
+     *  The matching entries are collected before being visited, so scans are intended for bounded prefixes.
+     */
+    @Override
+    public void scan(final ByteArray prefix, final Visitor visitor) throws DatabaseException {
+        final byte[] startKey = prefix.getBytes();
+        final byte[] endKey = _getPrefixEnd(startKey);
+        final TreeMap<byte[], byte[]> entries = new TreeMap<>(KEY_COMPARATOR);
+
+        _readWriteLock.readLock().lock();
+        try {
+            _requireOpen();
+
+            for (final SortedRun sortedRun : _sortedRuns) { // Oldest to newest, so newer values replace older values.
+                sortedRun.scan(startKey, endKey, new SortedRun.EntryVisitor() {
+                    @Override
+                    public boolean visit(final byte[] key, final byte[] value) {
+                        entries.put(key, value);
+                        return true;
+                    }
+                });
+            }
+
+            final Map<byte[], byte[]> memtableEntries = ((endKey != null) ? _memtable.subMap(startKey, endKey) : _memtable.tailMap(startKey));
+            entries.putAll(memtableEntries);
+        }
+        catch (final Exception exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _readWriteLock.readLock().unlock();
+        }
+
+        try {
+            for (final Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+                final byte[] value = entry.getValue();
+                if (value == SortedRun.DELETED) { continue; }
+
+                final Boolean shouldContinue = visitor.visit(ByteArray.wrap(entry.getKey()), ByteArray.wrap(value));
+                if (! shouldContinue) { break; }
+            }
+        }
+        catch (final DatabaseException exception) {
+            throw exception;
+        }
+        catch (final Exception exception) {
+            throw new DatabaseException(exception);
+        }
+    }
+
+    @Override
+    public void clear() throws DatabaseException {
+        _stopCompactionThread();
+
+        _readWriteLock.writeLock().lock();
+        try {
+            _requireOpen();
+
+            for (final SortedRun sortedRun : _sortedRuns) {
+                sortedRun.close();
+                sortedRun.getFile().delete();
+            }
+            _sortedRuns.clear();
+            _sortedRunCount = 0;
+            _memtable.clear();
+            _memtableByteCount = 0L;
+            _openWriteAheadLog(true);
+        }
+        catch (final IOException exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            if (_isOpen) {
+                _startCompactionThread();
+            }
+            _readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops compaction, flushes the memtable so the next open does not need to replay the write-ahead log, and releases all files.
+     */
+    @Override
+    public void close() throws DatabaseException {
+        _stopCompactionThread();
+
+        _readWriteLock.writeLock().lock();
+        try {
+            if (! _isOpen) { return; }
+
+            _flushMemtable();
+            _writeAheadLog.close();
+            _writeAheadLog = null;
+        }
+        catch (final IOException exception) {
+            throw new DatabaseException(exception);
+        }
+        finally {
+            _closeSortedRuns();
+            _isOpen = false;
+            _readWriteLock.writeLock().unlock();
+        }
+    }
+}
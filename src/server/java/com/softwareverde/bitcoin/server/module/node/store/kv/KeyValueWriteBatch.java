@@ -0,0 +1,58 @@
+package com.softwareverde.bitcoin.server.module.node.store.kv;
+
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+
+/**
+ * An ordered set of puts and deletes that are written to a KeyValueStore together.
+ *  Later operations on the same key replace earlier ones.
+ */
+public class KeyValueWriteBatch {
+    protected final MutableList<ByteArray> _keys;
+    protected final MutableList<ByteArray> _values; // A null value denotes a delete.
+
+    public KeyValueWriteBatch() {
+        _keys = new MutableList<>();
+        _values = new MutableList<>();
+    }
+
+    public KeyValueWriteBatch(final Integer initialCapacity) {
+        _keys = new MutableList<>(initialCapacity);
+        _values = new MutableList<>(initialCapacity);
+    }
+
+    public void put(final ByteArray key, final ByteArray value) {
+        _keys.add(key);
+        _values.add(value);
+    }
+
+    public void delete(final ByteArray key) {
+        _keys.add(key);
+        _values.add(null);
+    }
+
+    public List<ByteArray> getKeys() {
+        return _keys;
+    }
+
+    /**
+     * Returns the value of each operation, which is null for deletes.
+     */
+    public List<ByteArray> getValues() {
+        return _values;
+    }
+
+    public Integer getCount() {
+        return _keys.getCount();
+    }
+
+    public Boolean isEmpty() {
+        return _keys.isEmpty();
+    }
+
+    public void clear() {
+        _keys.clear();
+        _values.clear();
+    }
+}
@@ -0,0 +1,395 @@
+package com.softwareverde.bitcoin.server.module.node.store.kv;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * An immutable file of key-ordered entries, written once by a KeyValueStoreCore flush or compaction.
+ *  Entries are grouped into blocks of ENTRIES_PER_BLOCK; the first key and the offset of every block are kept in memory,
+ *  so a lookup reads a single block from disk.
+ *  File layout: [blocks][block index][footer], where each entry is: [keyByteCount][key][valueByteCount][value],
+ *  and a valueByteCount of -1 denotes a deleted key.
+ */
+public class SortedRun implements AutoCloseable {
+    public static final Integer ENTRIES_PER_BLOCK = 128;
+
+    /**
+     * The value of a deleted key; compared by identity.
+     */
+    public static final byte[] DELETED = new byte[0];
+
+    protected static final Integer MAGIC = 0x4B565352;
+    protected static final Integer FOOTER_BYTE_COUNT = (8 + 4 + 8 + 8 + 4);
+
+    public interface EntryVisitor {
+        /**
+         * Returns false to end the scan.  The value is SortedRun.DELETED for deleted keys.
+         */
+        boolean visit(byte[] key, byte[] value) throws Exception;
+    }
+
+    /**
+     * Compares the keys as unsigned bytes, lexicographically.
+     */
+    public static int compare(final byte[] key0, final byte[] key1) {
+        final int byteCount = Math.min(key0.length, key1.length);
+        for (int i = 0; i < byteCount; ++i) {
+            final int byte0 = (key0[i] & 0xFF);
+            final int byte1 = (key1[i] & 0xFF);
+            if (byte0 != byte1) {
+                return ((byte0 < byte1) ? -1 : 1);
+            }
+        }
+        return Integer.compare(key0.length, key1.length);
+    }
+
+    /**
+     * Writes entries, which must be provided in strictly ascending key order, to a new SortedRun file.
+     *  The file is written to a temporary path and renamed once complete, so a partially written run is never opened.
+     */
+    public static class Writer implements AutoCloseable {
+        protected final File _file;
+        protected final File _temporaryFile;
+        protected final Long _replacedSequence;
+        protected final FileOutputStream _fileOutputStream;
+        protected final BufferedOutputStream _outputStream;
+        protected final ArrayList<byte[]> _blockKeys = new ArrayList<>();
+        protected final ArrayList<Long> _blockOffsets = new ArrayList<>();
+        protected final ByteBuffer _integerBuffer = ByteBuffer.allocate(8);
+        protected long _offset = 0L;
+        protected long _entryCount = 0L;
+        protected boolean _isFinished = false;
+
+        protected void _writeInteger(final int value) throws IOException {
+            _integerBuffer.clear();
+            _integerBuffer.putInt(value);
+            _outputStream.write(_integerBuffer.array(), 0, 4);
+            _offset += 4L;
+        }
+
+        protected void _writeLong(final long value) throws IOException {
+            _integerBuffer.clear();
+            _integerBuffer.putLong(value);
+            _outputStream.write(_integerBuffer.array(), 0, 8);
+            _offset += 8L;
+        }
+
+        protected void _writeBytes(final byte[] bytes) throws IOException {
+            _outputStream.write(bytes);
+            _offset += bytes.length;
+        }
+
+        /**
+         * The replacedSequence is the oldest SortedRun sequence that this run supersedes (i.e. via compaction), or zero.
+         *  If the file already exists, it is atomically replaced once the run is finished.
+         */
+        public Writer(final File file, final Long replacedSequence) throws IOException {
+            _file = file;
+            _temporaryFile = new File(file.getPath() + ".tmp");
+            _replacedSequence = replacedSequence;
+            _fileOutputStream = new FileOutputStream(_temporaryFile);
+            _outputStream = new BufferedOutputStream(_fileOutputStream, (64 * 1024));
+        }
+
+        public void append(final byte[] key, final byte[] value) throws IOException {
+            if ((_entryCount % ENTRIES_PER_BLOCK) == 0L) {
+                _blockKeys.add(key);
+                _blockOffsets.add(_offset);
+            }
+
+            _writeInteger(key.length);
+            _writeBytes(key);
+            if (value == DELETED) {
+                _writeInteger(-1);
+            }
+            else {
+                _writeInteger(value.length);
+                _writeBytes(value);
+            }
+
+            _entryCount += 1L;
+        }
+
+        public Long getEntryCount() {
+            return _entryCount;
+        }
+
+        /**
+         * Writes the block index and footer, syncs the file to disk, and moves it to its final path.
+         */
+        public void finish() throws IOException {
+            final long indexOffset = _offset;
+            final int blockCount = _blockKeys.size();
+            for (int i = 0; i < blockCount; ++i) {
+                final byte[] blockKey = _blockKeys.get(i);
+                _writeInteger(blockKey.length);
+                _writeBytes(blockKey);
+                _writeLong(_blockOffsets.get(i));
+            }
+
+            _writeLong(indexOffset);
+            _writeInteger(blockCount);
+            _writeLong(_entryCount);
+            _writeLong(_replacedSequence);
+            _writeInteger(MAGIC);
+
+            _outputStream.flush();
+            _fileOutputStream.getFD().sync();
+            _outputStream.close();
+            _isFinished = true;
+
+            if (! _temporaryFile.renameTo(_file)) {
+                throw new IOException("Unable to rename SortedRun: " + _temporaryFile.getPath());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (_isFinished) { return; }
+
+            _outputStream.close();
+            _temporaryFile.delete();
+        }
+    }
+
+    /**
+     * Iterates every entry of a SortedRun in key order.
+     */
+    public class Cursor {
+        protected int _blockIndex = -1;
+        protected ByteBuffer _block = null;
+
+        public byte[] key;
+        public byte[] value;
+
+        /**
+         * Loads the next entry into key and value; returns false once every entry has been visited.
+         */
+        public boolean next() throws IOException {
+            while ( (_block == null) || (! _block.hasRemaining()) ) {
+                _blockIndex += 1;
+                if (_blockIndex >= _blockOffsets.length) {
+                    this.key = null;
+                    this.value = null;
+                    return false;
+                }
+                _block = ByteBuffer.wrap(_readBlock(_blockIndex));
+            }
+
+            this.key = SortedRun._readKey(_block);
+            this.value = SortedRun._readValue(_block);
+            return true;
+        }
+
+        public SortedRun getSortedRun() {
+            return SortedRun.this;
+        }
+    }
+
+    protected static byte[] _readKey(final ByteBuffer block) {
+        final int keyByteCount = block.getInt();
+        final byte[] key = new byte[keyByteCount];
+        block.get(key);
+        return key;
+    }
+
+    protected static byte[] _readValue(final ByteBuffer block) {
+        final int valueByteCount = block.getInt();
+        if (valueByteCount < 0) { return DELETED; }
+
+        final byte[] value = new byte[valueByteCount];
+        block.get(value);
+        return value;
+    }
+
+    protected static void _skipValue(final ByteBuffer block) {
+        final int valueByteCount = block.getInt();
+        if (valueByteCount > 0) {
+            block.position(block.position() + valueByteCount);
+        }
+    }
+
+    public static SortedRun open(final File file, final Long sequence) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final long fileByteCount = randomAccessFile.length();
+            if (fileByteCount < FOOTER_BYTE_COUNT) { throw new IOException("Invalid SortedRun: " + file.getPath()); }
+
+            final ByteBuffer footer;
+            {
+                final byte[] bytes = new byte[FOOTER_BYTE_COUNT];
+                randomAccessFile.seek(fileByteCount - FOOTER_BYTE_COUNT);
+                randomAccessFile.readFully(bytes);
+                footer = ByteBuffer.wrap(bytes);
+            }
+
+            final long indexOffset = footer.getLong();
+            final int blockCount = footer.getInt();
+            final long entryCount = footer.getLong();
+            final long replacedSequence = footer.getLong();
+            final int magic = footer.getInt();
+            if ( (magic != MAGIC) || (indexOffset < 0L) || (indexOffset > (fileByteCount - FOOTER_BYTE_COUNT)) || (blockCount < 0) ) {
+                throw new IOException("Invalid SortedRun: " + file.getPath());
+            }
+
+            final ByteBuffer index;
+            {
+                final byte[] bytes = new byte[(int) (fileByteCount - FOOTER_BYTE_COUNT - indexOffset)];
+                randomAccessFile.seek(indexOffset);
+                randomAccessFile.readFully(bytes);
+                index = ByteBuffer.wrap(bytes);
+            }
+
+            final byte[][] blockKeys = new byte[blockCount][];
+            final long[] blockOffsets = new long[blockCount];
+            for (int i = 0; i < blockCount; ++i) {
+                blockKeys[i] = SortedRun._readKey(index);
+                blockOffsets[i] = index.getLong();
+            }
+
+            return new SortedRun(file, sequence, randomAccessFile, blockKeys, blockOffsets, indexOffset, entryCount, replacedSequence);
+        }
+        catch (final Exception exception) {
+            randomAccessFile.close();
+            if (exception instanceof IOException) { throw (IOException) exception; }
+            throw new IOException(exception);
+        }
+    }
+
+    protected final File _file;
+    protected final Long _sequence;
+    protected final RandomAccessFile _randomAccessFile;
+    protected final byte[][] _blockKeys;
+    protected final long[] _blockOffsets;
+    protected final long _indexOffset;
+    protected final Long _entryCount;
+    protected final Long _replacedSequence;
+
+    protected SortedRun(final File file, final Long sequence, final RandomAccessFile randomAccessFile, final byte[][] blockKeys, final long[] blockOffsets, final long indexOffset, final Long entryCount, final Long replacedSequence) {
+        _file = file;
+        _sequence = sequence;
+        _randomAccessFile = randomAccessFile;
+        _blockKeys = blockKeys;
+        _blockOffsets = blockOffsets;
+        _indexOffset = indexOffset;
+        _entryCount = entryCount;
+        _replacedSequence = replacedSequence;
+    }
+
+    /**
+     * Returns the index of the last block whose first key is less than or equal to the key, or -1 if the key precedes every block.
+     */
+    protected int _findBlockIndex(final byte[] key) {
+        int minIndex = 0;
+        int maxIndex = (_blockKeys.length - 1);
+        int blockIndex = -1;
+        while (minIndex <= maxIndex) {
+            final int index = ((minIndex + maxIndex) >>> 1);
+            if (SortedRun.compare(_blockKeys[index], key) <= 0) {
+                blockIndex = index;
+                minIndex = (index + 1);
+            }
+            else {
+                maxIndex = (index - 1);
+            }
+        }
+        return blockIndex;
+    }
+
+    protected byte[] _readBlock(final int blockIndex) throws IOException {
+        final long startOffset = _blockOffsets[blockIndex];
+        final long endOffset = (((blockIndex + 1) < _blockOffsets.length) ? _blockOffsets[blockIndex + 1] : _indexOffset);
+        final byte[] bytes = new byte[(int) (endOffset - startOffset)];
+        synchronized (_randomAccessFile) {
+            _randomAccessFile.seek(startOffset);
+            _randomAccessFile.readFully(bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the value of the key, SortedRun.DELETED if the key was deleted, or null if this run does not contain the key.
+     */
+    public byte[] get(final byte[] key) throws IOException {
+        final int blockIndex = _findBlockIndex(key);
+        if (blockIndex < 0) { return null; }
+
+        final ByteBuffer block = ByteBuffer.wrap(_readBlock(blockIndex));
+        while (block.hasRemaining()) {
+            final byte[] entryKey = SortedRun._readKey(block);
+            final int compareValue = SortedRun.compare(entryKey, key);
+            if (compareValue == 0) {
+                return SortedRun._readValue(block);
+            }
+            if (compareValue > 0) { break; }
+
+            SortedRun._skipValue(block);
+        }
+        return null;
+    }
+
+    /**
+     * Visits the entries with keys within [startKey, endKey), in key order; a null endKey is unbounded.
+     */
+    public void scan(final byte[] startKey, final byte[] endKey, final EntryVisitor entryVisitor) throws Exception {
+        final int blockCount = _blockOffsets.length;
+        for (int blockIndex = Math.max(0, _findBlockIndex(startKey)); blockIndex < blockCount; ++blockIndex) {
+            if ( (endKey != null) && (SortedRun.compare(_blockKeys[blockIndex], endKey) >= 0) ) { return; }
+
+            final ByteBuffer block = ByteBuffer.wrap(_readBlock(blockIndex));
+            while (block.hasRemaining()) {
+                final byte[] key = SortedRun._readKey(block);
+                if (SortedRun.compare(key, startKey) < 0) {
+                    SortedRun._skipValue(block);
+                    continue;
+                }
+                if ( (endKey != null) && (SortedRun.compare(key, endKey) >= 0) ) { return; }
+
+                final byte[] value = SortedRun._readValue(block);
+                if (! entryVisitor.visit(key, value)) { return; }
+            }
+        }
+    }
+
+    public Cursor newCursor() {
+        return new Cursor();
+    }
+
+    public File getFile() {
+        return _file;
+    }
+
+    public Long getSequence() {
+        return _sequence;
+    }
+
+    /**
+     * Returns the oldest sequence superseded by this run, or zero if this run was not created by a compaction.
+     */
+    public Long getReplacedSequence() {
+        return _replacedSequence;
+    }
+
+    public Long getEntryCount() {
+        return _entryCount;
+    }
+
+    /**
+     * Returns the byte count of the run's entries, excluding its block index and footer.
+     */
+    public Long getByteCount() {
+        return _indexOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (_randomAccessFile) {
+            _randomAccessFile.close();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDa
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputPrefetcher;
 import com.softwareverde.bitcoin.server.module.node.manager.BitcoinNodeManager;
 import com.softwareverde.bitcoin.server.module.node.store.PendingBlockStore;
 import com.softwareverde.bitcoin.server.module.node.sync.block.BlockDownloader;
@@ -58,6 +59,7 @@ public class BlockchainBuilder extends GracefulSleepyService {
     protected final BlockProcessor _blockProcessor;
     protected final BlockDownloader.StatusMonitor _blockDownloaderStatusMonitor;
     protected final PendingBlockStore _blockStore;
+    protected final UnspentTransactionOutputPrefetcher _unspentTransactionOutputPrefetcher;
     protected Boolean _hasGenesisBlock;
     protected NewBlockProcessedCallback _asynchronousNewBlockProcessedCallback;
     protected NewBlockProcessedCallback _synchronousNewBlockProcessedCallback;
@@ -312,6 +314,16 @@ public class BlockchainBuilder extends GracefulSleepyService {
 
             _checkUtxoSet(databaseManager);
 
+            { // Load the UTXOs spent by the following Block while this Block is being validated...
+                final BlockId followingBlockId = blockHeaderDatabaseManager.getChildBlockId(blockchainSegmentId, nextBlockId);
+                if (followingBlockId != null) {
+                    final Sha256Hash followingBlockHash = blockHeaderDatabaseManager.getBlockHash(followingBlockId);
+                    if (_blockStore.pendingBlockExists(followingBlockHash)) {
+                        _unspentTransactionOutputPrefetcher.prefetch(followingBlockHash);
+                    }
+                }
+            }
+
             final Boolean processBlockWasSuccessful = _processPendingBlock(block);
 
             if (! processBlockWasSuccessful) {
@@ -384,6 +396,7 @@ public class BlockchainBuilder extends GracefulSleepyService {
         _blockProcessor = blockProcessor;
         _blockStore = blockStore;
         _blockDownloaderStatusMonitor = downloadStatusMonitor;
+        _unspentTransactionOutputPrefetcher = new UnspentTransactionOutputPrefetcher(context.getDatabaseManagerFactory(), blockStore, context, context.getThreadPool());
 
         final DatabaseManagerFactory databaseManagerFactory = _context.getDatabaseManagerFactory();
         try (final DatabaseManager databaseManager = databaseManagerFactory.newDatabaseManager()) {
@@ -1,6 +1,8 @@
 package com.softwareverde.bitcoin.server.module.node.sync;
 
 import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.context.AtomicTransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.context.ContextException;
 import com.softwareverde.bitcoin.context.TransactionOutputIndexerContext;
@@ -9,6 +11,7 @@ import com.softwareverde.bitcoin.server.module.node.database.indexer.Transaction
 import com.softwareverde.bitcoin.slp.SlpTokenId;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.TransactionView;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
@@ -25,6 +28,7 @@ import com.softwareverde.bitcoin.transaction.script.slp.genesis.SlpGenesisScript
 import com.softwareverde.bitcoin.transaction.script.slp.mint.SlpMintScript;
 import com.softwareverde.bitcoin.transaction.script.slp.send.SlpSendScript;
 import com.softwareverde.concurrent.service.PausableSleepyService;
+import com.softwareverde.concurrent.threadpool.ThreadPool;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
@@ -40,9 +44,13 @@ import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BlockchainIndexer extends PausableSleepyService {
     public static final Integer BATCH_SIZE = 1024;
+    public static final Integer MAX_BALANCE_BLOCK_COUNT_PER_EXECUTION = 128;
+    public static final Integer BLOCKS_PER_PARSER_THREAD = 8;
+    public static final Integer WRITE_BATCH_ROW_COUNT = 65536;
 
     protected static class OutputIndexData {
         TransactionId transactionId;
@@ -62,7 +70,19 @@ public class BlockchainIndexer extends PausableSleepyService {
         TransactionOutputId transactionOutputId;
     }
 
+    protected static class BlockIndexData {
+        final BlockId blockId;
+        final MutableList<TransactionId> transactionIds = new MutableList<>();
+        final MutableList<OutputIndexData> outputIndexData = new MutableList<>();
+        final MutableList<InputIndexData> inputIndexData = new MutableList<>();
+
+        BlockIndexData(final BlockId blockId) {
+            this.blockId = blockId;
+        }
+    }
+
     protected final Integer _threadCount;
+    protected final ThreadPool _threadPool;
     protected final TransactionOutputIndexerContext _context;
     protected final ScriptPatternMatcher _scriptPatternMatcher = new ScriptPatternMatcher();
     protected final SlpScriptInflater _slpScriptInflater = new SlpScriptInflater();
@@ -104,27 +124,45 @@ public class BlockchainIndexer extends PausableSleepyService {
         }
     }
 
+    /**
+     * Returns the outpoint spent by each of the Transaction's inputs.
+     *  TransactionViews provide the outpoints without inflating the inputs (and their UnlockingScripts).
+     */
+    protected List<TransactionOutputIdentifier> _getPreviousTransactionOutputIdentifiers(final Transaction transaction) {
+        if (transaction instanceof TransactionView) {
+            final TransactionView transactionView = (TransactionView) transaction;
+            final int transactionInputCount = transactionView.getTransactionInputCount();
+            final MutableList<TransactionOutputIdentifier> previousTransactionOutputIdentifiers = new MutableList<>(transactionInputCount);
+            for (int inputIndex = 0; inputIndex < transactionInputCount; ++inputIndex) {
+                previousTransactionOutputIdentifiers.add(transactionView.getPreviousTransactionOutputIdentifier(inputIndex));
+            }
+            return previousTransactionOutputIdentifiers;
+        }
+
+        final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
+        final MutableList<TransactionOutputIdentifier> previousTransactionOutputIdentifiers = new MutableList<>(transactionInputs.getCount());
+        for (final TransactionInput transactionInput : transactionInputs) {
+            previousTransactionOutputIdentifiers.add(TransactionOutputIdentifier.fromTransactionInput(transactionInput));
+        }
+        return previousTransactionOutputIdentifiers;
+    }
+
     protected List<InputIndexData> _indexTransactionInputs(final AtomicTransactionOutputIndexerContext context, final TransactionId transactionId, final Transaction transaction) throws ContextException {
         final MutableList<InputIndexData> inputIndexDataList = new MutableList<>();
 
         final int transactionInputCount;
         final List<Sha256Hash> previousTransactionHashes;
-        final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
+        final List<TransactionOutputIdentifier> previousTransactionOutputIdentifiers = _getPreviousTransactionOutputIdentifiers(transaction);
         {
             final HashSet<Sha256Hash> previousTransactionHashSet = new HashSet<>();
-            transactionInputCount = transactionInputs.getCount();
+            transactionInputCount = previousTransactionOutputIdentifiers.getCount();
             for (int inputIndex = 0; inputIndex < transactionInputCount; ++inputIndex) {
-                final TransactionInput transactionInput = transactionInputs.get(inputIndex);
-                final Sha256Hash previousTransactionHash = transactionInput.getPreviousOutputTransactionHash();
+                final TransactionOutputIdentifier previousTransactionOutputIdentifier = previousTransactionOutputIdentifiers.get(inputIndex);
 
-                { // Avoid indexing Coinbase Inputs...
-                    final TransactionOutputIdentifier previousTransactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
-                    if (Util.areEqual(TransactionOutputIdentifier.COINBASE, previousTransactionOutputIdentifier)) {
-                        continue;
-                    }
-                }
+                // Avoid indexing Coinbase Inputs...
+                if (Util.areEqual(TransactionOutputIdentifier.COINBASE, previousTransactionOutputIdentifier)) { continue; }
 
-                previousTransactionHashSet.add(previousTransactionHash);
+                previousTransactionHashSet.add(previousTransactionOutputIdentifier.getTransactionHash());
             }
 
             final MutableList<Sha256Hash> transactionHashList = new MutableList<>(previousTransactionHashSet);
@@ -134,16 +172,12 @@ public class BlockchainIndexer extends PausableSleepyService {
 
         final Map<Sha256Hash, TransactionId> transactionIds = context.getTransactionIds(previousTransactionHashes);
         for (int inputIndex = 0; inputIndex < transactionInputCount; ++inputIndex) {
-            final TransactionInput transactionInput = transactionInputs.get(inputIndex);
-            final Integer previousTransactionOutputIndex = transactionInput.getPreviousOutputIndex();
-            final Sha256Hash previousTransactionHash = transactionInput.getPreviousOutputTransactionHash();
-
-            { // Avoid indexing Coinbase Inputs...
-                final TransactionOutputIdentifier previousTransactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
-                if (Util.areEqual(TransactionOutputIdentifier.COINBASE, previousTransactionOutputIdentifier)) {
-                    continue;
-                }
-            }
+            final TransactionOutputIdentifier previousTransactionOutputIdentifier = previousTransactionOutputIdentifiers.get(inputIndex);
+            final Integer previousTransactionOutputIndex = previousTransactionOutputIdentifier.getOutputIndex();
+            final Sha256Hash previousTransactionHash = previousTransactionOutputIdentifier.getTransactionHash();
+
+            // Avoid indexing Coinbase Inputs...
+            if (Util.areEqual(TransactionOutputIdentifier.COINBASE, previousTransactionOutputIdentifier)) { continue; }
 
             final TransactionId previousTransactionId = transactionIds.get(previousTransactionHash);
             // final Transaction previousTransaction = context.getTransaction(previousTransactionId);
@@ -165,9 +199,7 @@ public class BlockchainIndexer extends PausableSleepyService {
         return inputIndexDataList;
     }
 
-    protected OutputIndexData _indexTransactionOutputWithoutSlpData(final TransactionId transactionId, final Integer outputIndex, final TransactionOutput transactionOutput) {
-        final LockingScript lockingScript = transactionOutput.getLockingScript();
-
+    protected OutputIndexData _indexTransactionOutputWithoutSlpData(final TransactionId transactionId, final Integer outputIndex, final Long amount, final LockingScript lockingScript) {
         final ScriptType scriptType;
         final Address address;
         final Sha256Hash scriptHash;
@@ -202,7 +234,7 @@ public class BlockchainIndexer extends PausableSleepyService {
         final OutputIndexData indexData = new OutputIndexData();
         indexData.transactionId = transactionId;
         indexData.outputIndex = outputIndex;
-        indexData.amount = transactionOutput.getAmount();
+        indexData.amount = amount;
         indexData.scriptType = scriptType;
         indexData.address = address;
         indexData.scriptHash = scriptHash;
@@ -213,25 +245,45 @@ public class BlockchainIndexer extends PausableSleepyService {
         return indexData;
     }
 
-    protected Map<TransactionOutputIdentifier, OutputIndexData> _indexTransactionOutputs(final TransactionId transactionId, final Sha256Hash transactionHash, final List<TransactionOutput> transactionOutputs) throws ContextException {
+    /**
+     * Builds the OutputIndexData for each of the Transaction's outputs.
+     *  TransactionViews provide each output's amount and LockingScript without inflating the TransactionOutputs.
+     */
+    protected Map<TransactionOutputIdentifier, OutputIndexData> _indexTransactionOutputs(final TransactionId transactionId, final Transaction transaction) throws ContextException {
         final HashMap<TransactionOutputIdentifier, OutputIndexData> outputIndexData = new HashMap<>();
 
-        final int transactionOutputCount = transactionOutputs.getCount();
-
-        final LockingScript firstOutputLockingScript;
-        {
-            final TransactionOutput transactionOutput = transactionOutputs.get(0);
-            firstOutputLockingScript = transactionOutput.getLockingScript();
-        }
+        final Sha256Hash transactionHash = transaction.getHash();
+        final TransactionView transactionView = ((transaction instanceof TransactionView) ? (TransactionView) transaction : null);
+        final List<TransactionOutput> transactionOutputs = ((transactionView == null) ? transaction.getTransactionOutputs() : null);
+        final int transactionOutputCount = ((transactionView != null) ? transactionView.getTransactionOutputCount() : transactionOutputs.getCount());
 
+        LockingScript firstOutputLockingScript = null;
         for (int outputIndex = 0; outputIndex < transactionOutputCount; ++outputIndex) {
-            final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
-            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+            final Long amount;
+            final LockingScript lockingScript;
+            if (transactionView != null) {
+                amount = transactionView.getTransactionOutputAmount(outputIndex);
+                lockingScript = transactionView.getLockingScript(outputIndex);
+            }
+            else {
+                final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
+                amount = transactionOutput.getAmount();
+                lockingScript = transactionOutput.getLockingScript();
+            }
 
-            final OutputIndexData indexDataWithoutSlpData = _indexTransactionOutputWithoutSlpData(transactionId, outputIndex, transactionOutput);
+            if (outputIndex == 0) {
+                firstOutputLockingScript = lockingScript;
+            }
+
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+            final OutputIndexData indexDataWithoutSlpData = _indexTransactionOutputWithoutSlpData(transactionId, outputIndex, amount, lockingScript);
             outputIndexData.put(transactionOutputIdentifier, indexDataWithoutSlpData);
         }
 
+        if (firstOutputLockingScript == null) {
+            return outputIndexData;
+        }
+
         final ScriptType scriptType = _scriptPatternMatcher.getScriptType(firstOutputLockingScript);
         final boolean isSlpScriptType = ScriptType.isSlpScriptType(scriptType);
         if (! isSlpScriptType) {
@@ -323,7 +375,15 @@ public class BlockchainIndexer extends PausableSleepyService {
     }
 
     public BlockchainIndexer(final TransactionOutputIndexerContext context, final Integer threadCount) {
+        this(context, null, threadCount);
+    }
+
+    /**
+     * Blocks are parsed via threadPool; if threadPool is null, blocks are parsed on the indexer's thread.
+     */
+    public BlockchainIndexer(final TransactionOutputIndexerContext context, final ThreadPool threadPool, final Integer threadCount) {
         _context = context;
+        _threadPool = threadPool;
         _threadCount = threadCount;
     }
 
@@ -355,12 +415,7 @@ public class BlockchainIndexer extends PausableSleepyService {
             return null;
         }
 
-        final Map<TransactionOutputIdentifier, OutputIndexData> outputIndexData;
-        {
-            final Sha256Hash transactionHash = transaction.getHash();
-            final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
-            outputIndexData = _indexTransactionOutputs(transactionId, transactionHash, transactionOutputs);
-        }
+        final Map<TransactionOutputIdentifier, OutputIndexData> outputIndexData = _indexTransactionOutputs(transactionId, transaction);
         timer.mark("_indexTransactionOutputs");
         for (final OutputIndexData indexData : outputIndexData.values()) {
             context.indexTransactionOutput(indexData.transactionId, indexData.outputIndex, indexData.amount, indexData.scriptType, indexData.address, indexData.scriptHash, indexData.slpTransactionId, indexData.memoActionType, indexData.memoActionIdentifier);
@@ -382,8 +437,210 @@ public class BlockchainIndexer extends PausableSleepyService {
         Logger.trace("BlockchainIndexer Starting.");
     }
 
-    @Override
-    protected Boolean _execute() {
+    /**
+     * Applies newly indexed blocks to (or removes orphaned blocks from) the materialized scriptHash balances.
+     *  Returns true if any blocks were applied or removed.
+     */
+    protected Boolean _updateScriptHashBalances() {
+        try {
+            final Integer blockCount = _context.updateScriptHashBalances(MAX_BALANCE_BLOCK_COUNT_PER_EXECUTION);
+            if (blockCount > 0) {
+                Logger.debug("Updated indexed balances by " + blockCount + " blocks.");
+            }
+            return (blockCount > 0);
+        }
+        catch (final Exception exception) {
+            Logger.debug(exception);
+            return false;
+        }
+    }
+
+    /**
+     * Parses the block's Transactions into the rows to be indexed; no rows are written.
+     *  Blocks without Transactions (i.e. blocks loaded via a UTXO Commitment) result in an empty BlockIndexData.
+     *  A ContextException is thrown if the block's Transactions cannot be loaded, so that the block is retried rather than checkpointed.
+     */
+    protected BlockIndexData _parseBlock(final BlockId blockId, final AtomicTransactionOutputIndexerContext context) throws ContextException {
+        final BlockIndexData blockIndexData = new BlockIndexData(blockId);
+
+        final List<TransactionId> transactionIds = context.getBlockTransactionIds(blockId);
+        if (transactionIds.isEmpty()) { return blockIndexData; }
+
+        final BlockView blockView = context.getBlockView(blockId);
+        final int transactionCount = transactionIds.getCount();
+        if (blockView == null) {
+            throw new ContextException("Unable to load Block for indexing: " + blockId);
+        }
+        if (! Util.areEqual(transactionCount, blockView.getTransactionCount())) {
+            throw new ContextException("Block Transaction count mismatch: " + blockId + " (" + transactionCount + " != " + blockView.getTransactionCount() + ")");
+        }
+
+        for (int i = 0; i < transactionCount; ++i) {
+            final TransactionId transactionId = transactionIds.get(i);
+            final Transaction transaction = blockView.getTransaction(i);
+
+            final Map<TransactionOutputIdentifier, OutputIndexData> outputIndexData = _indexTransactionOutputs(transactionId, transaction);
+            blockIndexData.outputIndexData.addAll(outputIndexData.values());
+
+            final List<InputIndexData> inputIndexData = _indexTransactionInputs(context, transactionId, transaction);
+            blockIndexData.inputIndexData.addAll(inputIndexData);
+
+            blockIndexData.transactionIds.add(transactionId);
+        }
+
+        return blockIndexData;
+    }
+
+    /**
+     * Writes the queued rows along with the last processed block, then advances the last indexed TransactionId.
+     */
+    protected void _finishBlocks(final AtomicTransactionOutputIndexerContext context) throws ContextException {
+        final TransactionId lastProcessedTransactionId = context.finish();
+        if (lastProcessedTransactionId != null) {
+            _context.commitLastProcessedTransactionId(lastProcessedTransactionId);
+        }
+
+        context.initialize();
+    }
+
+    /**
+     * Indexes the next blocks of the head blockchain.
+     *  Blocks are parsed concurrently by up to _threadCount ThreadPool jobs, each with its own context, while the current thread writes the
+     *  parsed rows in block order.  Rows are written in large batches; each batch is committed with the last block it completes, so a
+     *  restart resumes after the last committed block without skipping or partially indexing a block.
+     *  Returns the number of blocks indexed.
+     */
+    protected Integer _indexBlocks() throws Exception {
+        final int parserThreadCount = Math.max(1, _threadCount);
+        final List<BlockId> blockIds = _context.getUnindexedBlockIds(BLOCKS_PER_PARSER_THREAD * parserThreadCount);
+        final int blockCount = blockIds.getCount();
+        if (blockCount == 0) { return 0; }
+
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
+
+        final BlockIndexData[] parsedBlocks = new BlockIndexData[blockCount];
+        final Container<Exception> parserException = new Container<>();
+        final AtomicInteger nextBlockIndex = new AtomicInteger(0);
+        final AtomicInteger runningParserCount = new AtomicInteger(0);
+
+        final Runnable parser = new Runnable() {
+            @Override
+            public void run() {
+                try (final AtomicTransactionOutputIndexerContext context = _context.newTransactionOutputIndexerContext()) {
+                    while (true) {
+                        final int blockIndex = nextBlockIndex.getAndIncrement();
+                        if (blockIndex >= blockCount) { break; }
+
+                        final BlockId blockId = blockIds.get(blockIndex);
+                        final BlockIndexData blockIndexData = _parseBlock(blockId, context);
+                        synchronized (parsedBlocks) {
+                            parsedBlocks[blockIndex] = blockIndexData;
+                            parsedBlocks.notifyAll();
+                        }
+                    }
+                }
+                catch (final Exception exception) {
+                    synchronized (parsedBlocks) {
+                        if (parserException.value == null) {
+                            parserException.value = exception;
+                        }
+                        nextBlockIndex.set(blockCount); // Stop the other parsers...
+                    }
+                }
+                finally {
+                    synchronized (parsedBlocks) {
+                        runningParserCount.decrementAndGet();
+                        parsedBlocks.notifyAll();
+                    }
+                }
+            }
+        };
+
+        if (_threadPool == null) {
+            runningParserCount.set(1);
+            parser.run();
+        }
+        else {
+            final int parserCount = Math.min(parserThreadCount, blockCount);
+            runningParserCount.set(parserCount);
+            for (int i = 0; i < parserCount; ++i) {
+                _threadPool.execute(parser);
+            }
+        }
+
+        int transactionCount = 0;
+        int indexedBlockCount = 0;
+        try (final AtomicTransactionOutputIndexerContext context = _context.newTransactionOutputIndexerContext()) {
+            context.initialize();
+
+            int queuedRowCount = 0;
+            int queuedBlockCount = 0;
+            for (int blockIndex = 0; blockIndex < blockCount; ++blockIndex) {
+                final BlockIndexData blockIndexData;
+                synchronized (parsedBlocks) {
+                    while ( (parsedBlocks[blockIndex] == null) && (parserException.value == null) && (runningParserCount.get() > 0) ) {
+                        parsedBlocks.wait();
+                    }
+
+                    blockIndexData = parsedBlocks[blockIndex];
+                    parsedBlocks[blockIndex] = null; // Release the parsed rows once they are queued...
+                }
+                if (blockIndexData == null) { break; } // The blocks parsed before the failure are still committed below.
+
+                for (final OutputIndexData indexData : blockIndexData.outputIndexData) {
+                    context.indexTransactionOutput(indexData.transactionId, indexData.outputIndex, indexData.amount, indexData.scriptType, indexData.address, indexData.scriptHash, indexData.slpTransactionId, indexData.memoActionType, indexData.memoActionIdentifier);
+                }
+                for (final InputIndexData inputIndexData : blockIndexData.inputIndexData) {
+                    context.indexTransactionInput(inputIndexData.transactionId, inputIndexData.inputIndex, inputIndexData.transactionOutputId);
+                }
+                for (final TransactionId transactionId : blockIndexData.transactionIds) {
+                    context.markTransactionProcessed(transactionId);
+                }
+                context.markBlockProcessed(blockIndexData.blockId);
+
+                queuedRowCount += (blockIndexData.outputIndexData.getCount() + blockIndexData.inputIndexData.getCount());
+                queuedBlockCount += 1;
+                transactionCount += blockIndexData.transactionIds.getCount();
+                indexedBlockCount += 1;
+
+                if (queuedRowCount >= WRITE_BATCH_ROW_COUNT) {
+                    _finishBlocks(context);
+                    queuedRowCount = 0;
+                    queuedBlockCount = 0;
+                }
+            }
+
+            if (queuedBlockCount > 0) {
+                _finishBlocks(context);
+            }
+
+            if (parserException.value != null) {
+                throw parserException.value;
+            }
+        }
+        finally {
+            synchronized (parsedBlocks) {
+                nextBlockIndex.set(blockCount);
+                while (runningParserCount.get() > 0) {
+                    parsedBlocks.wait();
+                }
+            }
+        }
+
+        nanoTimer.stop();
+        final double msElapsed = nanoTimer.getMillisecondsElapsed();
+        final long tps = (long) ((transactionCount * 1000L) / (msElapsed > 0D ? msElapsed : 0.01));
+        Logger.info("Indexed " + indexedBlockCount + " blocks (" + transactionCount + " transactions) in " + msElapsed + "ms. (" + tps + "tps)");
+
+        return indexedBlockCount;
+    }
+
+    /**
+     * Indexes the unconfirmed Transactions that have not yet been indexed.
+     *  Returns the number of Transactions indexed.
+     */
+    protected Integer _indexTransactions() throws Exception {
         final NanoTimer nanoTimer = new NanoTimer();
         nanoTimer.start();
 
@@ -394,66 +651,87 @@ public class BlockchainIndexer extends PausableSleepyService {
             final List<TransactionId> queuedTransactionIds = context.getUnprocessedTransactions(maxBatchCount);
             transactionIdQueue.addAll(queuedTransactionIds);
         }
-        catch (final Exception exception) {
-            Logger.warn(exception);
-            return false;
-        }
 
-        if (transactionIdQueue.isEmpty()) {
-            Logger.trace("BlockchainIndexer has nothing to do.");
-            return false;
-        }
+        if (transactionIdQueue.isEmpty()) { return 0; }
+
+        final Container<TransactionId> committedTransactionIdContainer = new Container<>();
+        final AtomicInteger indexedTransactionCount = new AtomicInteger(0);
 
         final BatchRunner<TransactionId> batchRunner = new BatchRunner<>(BATCH_SIZE, shouldExecuteAsynchronously);
-        try {
-            final Container<TransactionId> committedTransactionIdContainer = new Container<>();
+        batchRunner.run(transactionIdQueue, new BatchRunner.Batch<TransactionId>() {
+            @Override
+            public void run(final List<TransactionId> transactionIds) throws Exception {
+                final MultiTimer multiTimer = (Logger.isTraceEnabled() ? new MultiTimer() : new DisabledMultiTimer());
+                multiTimer.start();
+
+                try (final AtomicTransactionOutputIndexerContext context = _context.newTransactionOutputIndexerContext()) {
+                    context.initialize();
+
+                    for (final TransactionId transactionId : transactionIds) {
+                        final TransactionId indexedTransactionId = _indexTransaction(transactionId, null, context, multiTimer);
+                        if (indexedTransactionId != null) {
+                            indexedTransactionCount.incrementAndGet();
+                        }
 
-            batchRunner.run(transactionIdQueue, new BatchRunner.Batch<TransactionId>() {
-                @Override
-                public void run(final List<TransactionId> transactionIds) throws Exception {
-                    final MultiTimer multiTimer = (Logger.isTraceEnabled() ? new MultiTimer() : new DisabledMultiTimer());
-                    multiTimer.start();
+                        context.markTransactionProcessed(transactionId);
+                        multiTimer.mark("dequeueTransactionsForProcessing");
+                    }
 
-                    try (final AtomicTransactionOutputIndexerContext context = _context.newTransactionOutputIndexerContext()) {
-                        context.initialize();
+                    final TransactionId lastProcessedTransactionId = context.finish();
+                    synchronized (committedTransactionIdContainer) {
+                        final TransactionId previousValue = committedTransactionIdContainer.value;
+                        if ( (previousValue == null) || (previousValue.longValue() < lastProcessedTransactionId.longValue()) ) {
+                            committedTransactionIdContainer.value = lastProcessedTransactionId;
+                        }
+                    }
 
-                        for (final TransactionId transactionId : transactionIds) {
-                            _indexTransaction(transactionId, null, context, multiTimer);
+                    multiTimer.mark("commitDatabaseTransaction");
+                }
 
-                            context.markTransactionProcessed(transactionId);
-                            multiTimer.mark("dequeueTransactionsForProcessing");
-                        }
+                multiTimer.stop("done");
+                Logger.trace(multiTimer);
+            }
+        });
 
-                        final TransactionId lastProcessedTransactionId = context.finish();
-                        synchronized (committedTransactionIdContainer) {
-                            final TransactionId previousValue = committedTransactionIdContainer.value;
-                            if ( (previousValue == null) || (previousValue.longValue() < lastProcessedTransactionId.longValue()) ) {
-                                committedTransactionIdContainer.value = lastProcessedTransactionId;
-                            }
-                        }
+        _context.commitLastProcessedTransactionId(committedTransactionIdContainer.value);
 
-                        multiTimer.mark("commitDatabaseTransaction");
-                    }
+        nanoTimer.stop();
+        final double msElapsed = nanoTimer.getMillisecondsElapsed();
+        final int actualBatchCount = transactionIdQueue.getCount();
+        final long tps = (long) ((actualBatchCount * 1000L) / (msElapsed > 0D ? msElapsed : 0.01));
+        Logger.info("Indexed " + actualBatchCount + " transactions in " + msElapsed + "ms. (" + tps + "tps)");
 
-                    multiTimer.stop("done");
-                    Logger.trace(multiTimer);
-                }
-            });
+        // Transactions that could not be loaded remain unindexed; reporting them as progress would cause the service to spin...
+        return indexedTransactionCount.get();
+    }
 
-            _context.commitLastProcessedTransactionId(committedTransactionIdContainer.value);
+    @Override
+    protected Boolean _execute() {
+        final int indexedBlockCount;
+        try {
+            indexedBlockCount = _indexBlocks();
         }
         catch (final Exception exception) {
             Logger.debug(exception);
             return false;
         }
 
-        nanoTimer.stop();
-        final double msElapsed = nanoTimer.getMillisecondsElapsed();
-        final int actualBatchCount = transactionIdQueue.getCount();
-        final long tps = (long) ((actualBatchCount * 1000L) / (msElapsed > 0D ? msElapsed : 0.01));
-        Logger.info("Indexed " + actualBatchCount + " transactions in " + msElapsed + "ms. (" + tps + "tps)");
+        final int indexedTransactionCount;
+        try {
+            indexedTransactionCount = _indexTransactions();
+        }
+        catch (final Exception exception) {
+            Logger.debug(exception);
+            return false;
+        }
+
+        final Boolean didUpdateBalances = _updateScriptHashBalances();
 
-        return true;
+        final boolean didWork = ( (indexedBlockCount > 0) || (indexedTransactionCount > 0) || didUpdateBalances );
+        if (! didWork) {
+            Logger.trace("BlockchainIndexer has nothing to do.");
+        }
+        return didWork;
     }
 
     @Override
@@ -498,7 +776,7 @@ public class BlockchainIndexer extends PausableSleepyService {
                 //  however, since all SLP Transactions' first output is an OP_RETURN, they will never be included in the UTXO set,
                 //  and therefore SLP data cannot be collected.
                 final Integer outputIndex = transactionOutputIdentifier.getOutputIndex();
-                final OutputIndexData outputIndexData = _indexTransactionOutputWithoutSlpData(transactionId, outputIndex, transactionOutput);
+                final OutputIndexData outputIndexData = _indexTransactionOutputWithoutSlpData(transactionId, outputIndex, transactionOutput.getAmount(), transactionOutput.getLockingScript());
                 context.indexTransactionOutput(outputIndexData.transactionId, outputIndexData.outputIndex, outputIndexData.amount, outputIndexData.scriptType, outputIndexData.address, outputIndexData.scriptHash, outputIndexData.slpTransactionId, outputIndexData.memoActionType, outputIndexData.memoActionIdentifier);
                 context.markTransactionProcessed(transactionId);
             }
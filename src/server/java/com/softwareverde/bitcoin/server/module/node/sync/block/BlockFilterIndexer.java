@@ -0,0 +1,154 @@
+package com.softwareverde.bitcoin.server.module.node.sync.block;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterBuilder;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UndoLogDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.store.BlockFilterStore;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.concurrent.service.SleepyService;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.database.DatabaseException;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Util;
+
+import java.util.Map;
+
+/**
+ * Indexes the BlockFilters of head blockchain Blocks that were processed before the BlockFilterStore was enabled,
+ *  or while the store was behind the BlockProcessor.  Once caught up, new Blocks are indexed by the BlockProcessor.
+ *  Spent outputs are read from the Block's undo log when it exists, and otherwise from the transactions database or the
+ *  legacy pruned outputs table.  Blocks whose spent outputs are available from none of these (e.g. Blocks older than a
+ *  pruned node's undo logs) cannot be indexed, in which case the store remains behind the head Block.
+ */
+public class BlockFilterIndexer extends SleepyService {
+    protected static final Integer BATCH_SIZE = 144;
+
+    protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
+    protected final BlockFilterStore _blockFilterStore;
+
+    protected volatile Boolean _hasReachedHeadBlock = false;
+
+    /**
+     * Returns the output spent by the Block, preferring its undo log (which may be null) over the databases.
+     */
+    protected TransactionOutput _getSpentTransactionOutput(final TransactionOutputIdentifier transactionOutputIdentifier, final Map<TransactionOutputIdentifier, UnspentTransactionOutput> undoLog, final FullNodeTransactionDatabaseManager transactionDatabaseManager, final UndoLogDatabaseManager undoLogDatabaseManager) throws DatabaseException {
+        if (undoLog != null) {
+            final TransactionOutput transactionOutput = undoLog.get(transactionOutputIdentifier);
+            if (transactionOutput != null) { return transactionOutput; }
+        }
+
+        final TransactionOutput transactionOutput = transactionDatabaseManager.getTransactionOutput(transactionOutputIdentifier);
+        if (transactionOutput != null) { return transactionOutput; }
+
+        return undoLogDatabaseManager.getLegacyPrunedTransactionOutput(transactionOutputIdentifier);
+    }
+
+    protected Boolean _indexBlockFilter(final Long blockHeight, final Block block, final FullNodeTransactionDatabaseManager transactionDatabaseManager, final UndoLogDatabaseManager undoLogDatabaseManager) throws DatabaseException {
+        final Map<TransactionOutputIdentifier, UnspentTransactionOutput> undoLog = undoLogDatabaseManager.getUndoLog(blockHeight, block.getHash());
+
+        final BlockFilterBuilder blockFilterBuilder = new BlockFilterBuilder();
+        blockFilterBuilder.addBlockOutputScripts(block);
+        for (final Transaction transaction : block.getTransactions()) {
+            if (Transaction.isCoinbaseTransaction(transaction)) { continue; }
+
+            for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
+                final TransactionOutput transactionOutput = _getSpentTransactionOutput(transactionOutputIdentifier, undoLog, transactionDatabaseManager, undoLogDatabaseManager);
+                if (transactionOutput == null) {
+                    Logger.warn("Unable to index BlockFilter for " + block.getHash() + "; missing output " + transactionOutputIdentifier + ".");
+                    return false;
+                }
+
+                blockFilterBuilder.addSpentOutputScript(transactionOutput.getLockingScript());
+            }
+        }
+
+        final BlockFilter blockFilter = blockFilterBuilder.build(block.getHash());
+        return _blockFilterStore.storeBlockFilter(blockHeight, blockFilter);
+    }
+
+    public BlockFilterIndexer(final FullNodeDatabaseManagerFactory databaseManagerFactory, final BlockFilterStore blockFilterStore) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _blockFilterStore = blockFilterStore;
+    }
+
+    @Override
+    protected void _onStart() { }
+
+    @Override
+    protected Boolean _run() {
+        try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final FullNodeBlockDatabaseManager blockDatabaseManager = databaseManager.getBlockDatabaseManager();
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(databaseManager);
+
+            final BlockId headBlockId = blockDatabaseManager.getHeadBlockId();
+            if (headBlockId == null) { return false; }
+
+            final Long headBlockHeight = blockHeaderDatabaseManager.getBlockHeight(headBlockId);
+            final BlockchainSegmentId headBlockchainSegmentId = blockHeaderDatabaseManager.getBlockchainSegmentId(headBlockId);
+
+            for (int i = 0; i < BATCH_SIZE; ++i) {
+                if (_shouldAbort()) { return false; }
+
+                final Long blockHeight = _blockFilterStore.getBlockFilterCount();
+                if (blockHeight > headBlockHeight) {
+                    if (! _hasReachedHeadBlock) {
+                        Logger.info("BlockFilters indexed through the head Block @ " + headBlockHeight + ".");
+                        _hasReachedHeadBlock = true;
+                    }
+                    return false;
+                }
+
+                final BlockId blockId = blockHeaderDatabaseManager.getBlockIdAtHeight(headBlockchainSegmentId, blockHeight);
+                final Block block = (blockId != null ? blockDatabaseManager.getBlock(blockId) : null);
+                if (block == null) {
+                    Logger.debug("Unable to load Block @ " + blockHeight + " for BlockFilter indexing.");
+                    return false;
+                }
+
+                if (blockHeight > 0L) { // Remove filters indexed for a chain that has since been reorganized away...
+                    final Sha256Hash previousBlockHash = _blockFilterStore.getBlockHash(blockHeight - 1L);
+                    if (! Util.areEqual(previousBlockHash, block.getPreviousBlockHash())) {
+                        Logger.info("Removing stale BlockFilter @ " + (blockHeight - 1L) + ".");
+                        _blockFilterStore.removeBlockFilters(blockHeight - 1L);
+                        continue;
+                    }
+                }
+
+                final Boolean blockFilterWasIndexed = _indexBlockFilter(blockHeight, block, transactionDatabaseManager, undoLogDatabaseManager);
+                if (! blockFilterWasIndexed) { return false; }
+            }
+
+            return true;
+        }
+        catch (final DatabaseException exception) {
+            Logger.warn(exception);
+            return false;
+        }
+    }
+
+    @Override
+    protected void _onSleep() { }
+
+    /**
+     * Returns true once the BlockFilterStore has been indexed through the head Block.
+     *  Compact block filters should not be advertised before then, since requests for recent Blocks could not be served.
+     */
+    public Boolean hasReachedHeadBlock() {
+        return _hasReachedHeadBlock;
+    }
+}
@@ -0,0 +1,91 @@
+package com.softwareverde.bitcoin.server.module.node.sync.bootstrap;
+
+import com.softwareverde.constable.list.List;
+
+import java.util.HashMap;
+
+/**
+ * Selects among candidates at random, weighted by each candidate's observed throughput.
+ *  Throughput is tracked as an exponentially weighted moving average of bytes per millisecond; failures halve the estimate.
+ *  Candidates without any measurement are weighted as the fastest known candidate so that they are given a chance to be measured.
+ */
+public class ThroughputWeightedSelector<T> {
+    public static final Double DEFAULT_SMOOTHING_FACTOR = 0.5D;
+    protected static final Double DEFAULT_THROUGHPUT = 1D;
+    protected static final Double MIN_THROUGHPUT = 0.000001D;
+
+    protected final HashMap<T, Double> _throughputs = new HashMap<>();
+    protected final Double _smoothingFactor;
+
+    protected Double _getUnmeasuredThroughput() {
+        double maxThroughput = 0D;
+        for (final Double throughput : _throughputs.values()) {
+            maxThroughput = Math.max(maxThroughput, throughput);
+        }
+        return ((maxThroughput > 0D) ? maxThroughput : DEFAULT_THROUGHPUT);
+    }
+
+    public ThroughputWeightedSelector() {
+        this(DEFAULT_SMOOTHING_FACTOR);
+    }
+
+    public ThroughputWeightedSelector(final Double smoothingFactor) {
+        _smoothingFactor = Math.min(1D, Math.max(0D, smoothingFactor));
+    }
+
+    public synchronized void recordTransfer(final T item, final Long byteCount, final Double msElapsed) {
+        final double throughput = Math.max(MIN_THROUGHPUT, (byteCount / Math.max(1D, msElapsed)));
+
+        final Double previousThroughput = _throughputs.get(item);
+        if (previousThroughput == null) {
+            _throughputs.put(item, throughput);
+        }
+        else {
+            _throughputs.put(item, ((_smoothingFactor * throughput) + ((1D - _smoothingFactor) * previousThroughput)));
+        }
+    }
+
+    public synchronized void recordFailure(final T item) {
+        final Double previousThroughput = _throughputs.get(item);
+        final double throughput = ((previousThroughput != null) ? previousThroughput : _getUnmeasuredThroughput());
+        _throughputs.put(item, Math.max(MIN_THROUGHPUT, (throughput / 2D)));
+    }
+
+    public synchronized Double getThroughput(final T item) {
+        return _throughputs.get(item);
+    }
+
+    public synchronized void remove(final T item) {
+        _throughputs.remove(item);
+    }
+
+    /**
+     * Selects a candidate using the provided randomValue, which must be within [0, 1).
+     */
+    public synchronized T select(final List<T> candidates, final Double randomValue) {
+        if (candidates.isEmpty()) { return null; }
+
+        final Double unmeasuredThroughput = _getUnmeasuredThroughput();
+
+        double totalWeight = 0D;
+        for (final T candidate : candidates) {
+            final Double throughput = _throughputs.get(candidate);
+            totalWeight += ((throughput != null) ? throughput : unmeasuredThroughput);
+        }
+
+        double remainingWeight = (randomValue * totalWeight);
+        for (final T candidate : candidates) {
+            final Double throughput = _throughputs.get(candidate);
+            remainingWeight -= ((throughput != null) ? throughput : unmeasuredThroughput);
+            if (remainingWeight < 0D) {
+                return candidate;
+            }
+        }
+
+        return candidates.get(candidates.getCount() - 1); // Rounding error...
+    }
+
+    public T select(final List<T> candidates) {
+        return this.select(candidates, Math.random());
+    }
+}
@@ -21,51 +21,71 @@ import com.softwareverde.bitcoin.server.module.node.manager.BitcoinNodeManager;
 import com.softwareverde.bitcoin.server.module.node.manager.NodeFilter;
 import com.softwareverde.bitcoin.server.module.node.store.UtxoCommitmentStore;
 import com.softwareverde.bitcoin.server.module.node.sync.block.BlockPruner;
-import com.softwareverde.bitcoin.server.module.node.utxo.CommittedUnspentTransactionOutput;
-import com.softwareverde.bitcoin.server.module.node.utxo.CommittedUnspentTransactionOutputInflater;
+import com.softwareverde.bitcoin.server.module.node.utxo.UtxoCommitmentFileSorter;
+import com.softwareverde.bitcoin.server.module.node.utxo.UtxoCommitmentImporter;
 import com.softwareverde.bitcoin.server.module.node.utxo.UtxoCommitmentLoader;
 import com.softwareverde.bitcoin.server.module.node.utxo.UtxoDatabaseSubBucket;
 import com.softwareverde.bitcoin.server.node.BitcoinNode;
 import com.softwareverde.bitcoin.server.node.RequestId;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.concurrent.Pin;
 import com.softwareverde.constable.bytearray.ByteArray;
 import com.softwareverde.constable.list.List;
-import com.softwareverde.constable.list.immutable.ImmutableList;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.secp256k1.EcMultiset;
 import com.softwareverde.cryptography.secp256k1.key.PublicKey;
 import com.softwareverde.database.util.TransactionUtil;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.util.ByteUtil;
 import com.softwareverde.util.Container;
 import com.softwareverde.util.Tuple;
 import com.softwareverde.util.Util;
-import com.softwareverde.util.bytearray.ByteArrayStream;
 import com.softwareverde.util.timer.MilliTimer;
 import com.softwareverde.util.timer.MultiTimer;
 import com.softwareverde.util.timer.NanoTimer;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class UtxoCommitmentDownloader {
     protected static final Long MAX_TIMEOUT_MS = ((UtxoCommitment.MAX_BUCKET_BYTE_COUNT * 1000L ) / BitcoinNode.MIN_BYTES_PER_SECOND);
 
+    protected static final Integer MAX_CONCURRENT_BUCKET_DOWNLOAD_COUNT = 8;
+    protected static final Integer MAX_BUCKET_DOWNLOAD_ATTEMPT_COUNT = 8;
+
     protected static class BucketDownload {
-        boolean isComplete = false;
+        final Integer bucketIndex;
+        volatile boolean isComplete = false;
         final AtomicInteger downloadAttemptCount = new AtomicInteger(0);
+        final MutableList<File> files = new MutableList<>(); // Sorted and verified files, available once isComplete.
+        final MutableList<UtxoDatabaseSubBucket> databaseSubBuckets = new MutableList<>();
+
+        BucketDownload(final Integer bucketIndex) {
+            this.bucketIndex = bucketIndex;
+        }
+    }
+
+    protected static class DownloadContext {
+        final DownloadableUtxoCommitment downloadableUtxoCommitment;
+        final LinkedBlockingQueue<BucketDownload> pendingBucketDownloads = new LinkedBlockingQueue<>();
+        final LinkedBlockingQueue<BucketDownload> verifiedBucketDownloads = new LinkedBlockingQueue<>();
+        final HashMap<BitcoinNode, Integer> reservedBitcoinNodes = new HashMap<>(); // Also guards DownloadableUtxoCommitment::nodeBreakdowns.
+        final AtomicInteger remainingBucketCount;
+        volatile boolean isStopped = false;
+        volatile boolean hasFailed = false;
+
+        DownloadContext(final DownloadableUtxoCommitment downloadableUtxoCommitment, final Integer bucketCount) {
+            this.downloadableUtxoCommitment = downloadableUtxoCommitment;
+            this.remainingBucketCount = new AtomicInteger(bucketCount);
+        }
     }
 
     protected static class DownloadBucketResult {
@@ -135,44 +155,13 @@ public class UtxoCommitmentDownloader {
         return validCount;
     }
 
-    protected static void sortUtxoCommitmentFile(final File file) throws IOException {
-        final CommittedUnspentTransactionOutputInflater utxoInflater = new CommittedUnspentTransactionOutputInflater();
-        final TreeSet<CommittedUnspentTransactionOutput> sortedSet = new TreeSet<>(new Comparator<CommittedUnspentTransactionOutput>() {
-            @Override
-            public int compare(final CommittedUnspentTransactionOutput committedUnspentTransactionOutput0, final CommittedUnspentTransactionOutput committedUnspentTransactionOutput1) {
-                return CommittedUnspentTransactionOutput.compare(committedUnspentTransactionOutput0, committedUnspentTransactionOutput1);
-            }
-        });
-
-        try (final ByteArrayStream byteArrayStream = new ByteArrayStream()) {
-            final FileInputStream inputStream = new FileInputStream(file);
-            byteArrayStream.appendInputStream(inputStream);
-
-            while (true) {
-                final CommittedUnspentTransactionOutput unspentTransactionOutput = utxoInflater.fromByteArrayReader(byteArrayStream);
-                if (unspentTransactionOutput == null) { break; }
-
-                sortedSet.add(unspentTransactionOutput);
-            }
-        }
-
-        final int pageSize = (int) (16L * ByteUtil.Unit.Binary.KIBIBYTES);
-        try (final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), pageSize)) {
-            for (final CommittedUnspentTransactionOutput unspentTransactionOutput : sortedSet) {
-                final ByteArray deflatedUtxo = unspentTransactionOutput.getBytes();
-                for (final byte b : deflatedUtxo) {
-                    outputStream.write(b);
-                }
-            }
-            outputStream.flush();
-        }
-    }
-
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
     protected final List<UtxoCommitmentMetadata> _trustedUtxoCommitments;
     protected final BitcoinNodeManager _bitcoinNodeManager;
     protected final UtxoCommitmentStore _utxoCommitmentStore;
     protected final UtxoCommitmentLoader _utxoCommitmentLoader = new UtxoCommitmentLoader();
+    protected final ThroughputWeightedSelector<BitcoinNode> _nodeThroughputSelector = new ThroughputWeightedSelector<>();
+    protected final UtxoCommitmentImporter _utxoCommitmentImporter;
     protected final AtomicBoolean _isRunning = new AtomicBoolean(false);
     protected final AtomicBoolean _hasCompleted = new AtomicBoolean(false);
     protected final BlockPruner _blockPruner;
@@ -332,7 +321,7 @@ public class UtxoCommitmentDownloader {
         if (_utxoCommitmentStore.utxoCommitmentExists(publicKey)) {
             final DownloadBucketResult downloadResult = new DownloadBucketResult();
             final File file = _utxoCommitmentStore.getUtxoCommitmentFile(publicKey);
-            final UtxoCommitmentLoader.CalculateMultisetHashResult calculateMultisetHashResult = _utxoCommitmentLoader.calculateMultisetHash(file);
+            final UtxoCommitmentLoader.CalculateMultisetHashResult calculateMultisetHashResult = _utxoCommitmentLoader.calculateMultisetHash(file, false); // Buckets are already hashed concurrently by the download threads...
             final EcMultiset multisetHash = calculateMultisetHashResult.multisetHash;
 
             downloadResult.file = file;
@@ -372,9 +361,13 @@ public class UtxoCommitmentDownloader {
 
                     downloadTimer.stop();
                     Logger.trace("Downloaded " + publicKey + " (" + byteCount + " bytes) in " + downloadTimer.getMillisecondsElapsed() + "ms.");
+                    _nodeThroughputSelector.recordTransfer(bitcoinNode, (long) byteCount, downloadTimer.getMillisecondsElapsed());
+
+                    // Verify the bucket from the received bytes rather than re-reading it from disk...
+                    final UtxoCommitmentLoader.CalculateMultisetHashResult calculateMultisetHashResult = _utxoCommitmentLoader.calculateMultisetHash(utxoCommitmentBytes, false);
+                    if (calculateMultisetHashResult == null) { return; }
 
                     final File file = _utxoCommitmentStore.storeUtxoCommitment(publicKey, utxoCommitmentBytes);
-                    final UtxoCommitmentLoader.CalculateMultisetHashResult calculateMultisetHashResult = _utxoCommitmentLoader.calculateMultisetHash(file);
                     final EcMultiset multisetHash = calculateMultisetHashResult.multisetHash;
                     final Boolean isSorted = calculateMultisetHashResult.isSorted;
                     final Integer utxoCount = calculateMultisetHashResult.utxoCount;
@@ -426,7 +419,10 @@ public class UtxoCommitmentDownloader {
             final boolean wasSuccessful = (downloadResult.file != null);
             Logger.info("Downloaded " + publicKey + " from " + bitcoinNode + " in " + nanoTimer.getMillisecondsElapsed() + "ms. success=" + wasSuccessful);
 
-            if (! wasSuccessful) { return null; }
+            if (! wasSuccessful) {
+                _nodeThroughputSelector.recordFailure(bitcoinNode);
+                return null;
+            }
             return downloadResult;
         }
         catch (final InterruptedException exception) {
@@ -532,54 +528,66 @@ public class UtxoCommitmentDownloader {
         return candidateBitcoinNodes.get(nodeIndex);
     }
 
-    protected Boolean _downloadUtxoCommitmentBucket(final DownloadableUtxoCommitment downloadableUtxoCommitment, final Integer bucketIndex, final BucketDownload bucketDownload, final Container<Integer> completeCount, final MutableList<File> unsortedCommitmentFiles, final MutableList<File> utxoCommitmentFiles, final MutableList<UtxoDatabaseSubBucket> localUtxoCommitmentFiles) {
-        if (_shouldAbort) { return false; }
-
-        if (bucketDownload.isComplete) {
-            completeCount.value += 1;
-            return true;
-        }
+    /**
+     * Reserves a connected node capable of serving the UtxoCommitment, selected at random weighted by its observed throughput.
+     *  Idle nodes are preferred; if every capable node is already downloading then a node is shared.
+     *  If no capable node remains connected then a new node is requested from the connected peers.
+     */
+    protected Tuple<BitcoinNode, List<UtxoCommitmentBucket>> _reserveBitcoinNode(final DownloadContext downloadContext) {
+        final DownloadableUtxoCommitment downloadableUtxoCommitment = downloadContext.downloadableUtxoCommitment;
+        final HashMap<BitcoinNode, Integer> reservedBitcoinNodes = downloadContext.reservedBitcoinNodes;
+
+        synchronized (reservedBitcoinNodes) {
+            final MutableList<BitcoinNode> connectedBitcoinNodes = new MutableList<>();
+            final MutableList<BitcoinNode> idleBitcoinNodes = new MutableList<>();
+            for (final BitcoinNode bitcoinNode : downloadableUtxoCommitment.nodeBreakdowns.keySet()) {
+                if (! bitcoinNode.isConnected()) { continue; }
+
+                connectedBitcoinNodes.add(bitcoinNode);
+                if (! reservedBitcoinNodes.containsKey(bitcoinNode)) {
+                    idleBitcoinNodes.add(bitcoinNode);
+                }
+            }
 
-        final int downloadAttemptCount = bucketDownload.downloadAttemptCount.getAndIncrement();
-        if (downloadAttemptCount > 8) {
-            Logger.info("Attempted to download bucket too many times. Aborting.");
-            return false;
+            final BitcoinNode bitcoinNode = _nodeThroughputSelector.select(idleBitcoinNodes.isEmpty() ? connectedBitcoinNodes : idleBitcoinNodes);
+            if (bitcoinNode != null) {
+                final NodeSpecificUtxoCommitmentBreakdown nodeSpecificUtxoCommitmentBreakdown = downloadableUtxoCommitment.nodeBreakdowns.get(bitcoinNode);
+                reservedBitcoinNodes.put(bitcoinNode, (reservedBitcoinNodes.getOrDefault(bitcoinNode, 0) + 1));
+                return new Tuple<>(bitcoinNode, nodeSpecificUtxoCommitmentBreakdown.getBuckets());
+            }
         }
 
-        final BitcoinNode selectedBitcoinNode;
-        final List<UtxoCommitmentBucket> utxoCommitmentBreakdownBuckets;
-        {
-            final List<BitcoinNode> bitcoinNodes = new ImmutableList<>(downloadableUtxoCommitment.nodeBreakdowns.keySet());
-            final int bitcoinNodeCount = bitcoinNodes.getCount();
+        // NOTE: The new node is requested outside of the lock since the request may take some time...
+        final Tuple<BitcoinNode, NodeSpecificUtxoCommitmentBreakdown> tuple = _findBitcoinNodeForUtxoCommitment(downloadableUtxoCommitment.metadata);
+        if (tuple == null) { return null; }
 
-            BitcoinNode bitcoinNode = null;
-            for (int i = 0; i < bitcoinNodeCount; ++i) {
-                final int fuzzedBitcoinNodeIndex = (bucketIndex + i) % bitcoinNodeCount;
-                bitcoinNode = bitcoinNodes.get(fuzzedBitcoinNodeIndex);
-
-                if (! bitcoinNode.isConnected()) {
-                    bitcoinNode = null;
-                    continue;
-                }
+        final BitcoinNode bitcoinNode = tuple.first;
+        synchronized (reservedBitcoinNodes) {
+            downloadableUtxoCommitment.nodeBreakdowns.put(bitcoinNode, tuple.second);
+            reservedBitcoinNodes.put(bitcoinNode, (reservedBitcoinNodes.getOrDefault(bitcoinNode, 0) + 1));
+        }
+        return new Tuple<>(bitcoinNode, tuple.second.getBuckets());
+    }
 
-                break;
-            }
-            if (bitcoinNode != null) {
-                final NodeSpecificUtxoCommitmentBreakdown nodeSpecificUtxoCommitmentBreakdown = downloadableUtxoCommitment.nodeBreakdowns.get(bitcoinNode);
-                selectedBitcoinNode = bitcoinNode;
-                utxoCommitmentBreakdownBuckets = nodeSpecificUtxoCommitmentBreakdown.getBuckets();
+    protected void _releaseBitcoinNode(final DownloadContext downloadContext, final BitcoinNode bitcoinNode) {
+        final HashMap<BitcoinNode, Integer> reservedBitcoinNodes = downloadContext.reservedBitcoinNodes;
+        synchronized (reservedBitcoinNodes) {
+            final int reservationCount = (reservedBitcoinNodes.getOrDefault(bitcoinNode, 0) - 1);
+            if (reservationCount > 0) {
+                reservedBitcoinNodes.put(bitcoinNode, reservationCount);
             }
             else {
-                final UtxoCommitmentMetadata utxoCommitmentMetadata = downloadableUtxoCommitment.metadata;
-                final Tuple<BitcoinNode, NodeSpecificUtxoCommitmentBreakdown> tuple = _findBitcoinNodeForUtxoCommitment(utxoCommitmentMetadata);
-                if (tuple == null) { return false; }
-
-                selectedBitcoinNode = tuple.first;
-                utxoCommitmentBreakdownBuckets = tuple.second.getBuckets();
+                reservedBitcoinNodes.remove(bitcoinNode);
             }
         }
-        if (selectedBitcoinNode == null) { return false; }
+    }
 
+    /**
+     * Downloads and verifies the bucket (and its subBuckets) from the provided node, sorting any unsorted file once verified.
+     *  Returns true if the bucket was verified; upon success the bucketDownload's files and databaseSubBuckets are populated.
+     */
+    protected Boolean _downloadUtxoCommitmentBucket(final BitcoinNode selectedBitcoinNode, final List<UtxoCommitmentBucket> utxoCommitmentBreakdownBuckets, final BucketDownload bucketDownload, final UtxoCommitmentFileSorter utxoCommitmentFileSorter) {
+        final Integer bucketIndex = bucketDownload.bucketIndex;
         final EcMultiset calculatedMultisetHash = new EcMultiset();
         final UtxoCommitmentBucket bitcoinNodeBucket = utxoCommitmentBreakdownBuckets.get(bucketIndex);
 
@@ -624,7 +632,7 @@ public class UtxoCommitmentDownloader {
         if (! wasDownloaded) {
             Logger.info("Unable to download UtxoCommitment " + expectedPublicKey + " from " + selectedBitcoinNode + ".");
             selectedBitcoinNode.disconnect();
-            return true; // Continue attempting future downloads...
+            return false;
         }
 
         final PublicKey calculatedPublicKey = calculatedMultisetHash.getPublicKey().compress();
@@ -632,69 +640,126 @@ public class UtxoCommitmentDownloader {
         if (! bucketPassedIntegrityCheck) {
             Logger.info("Node served invalid UtxoCommitment: " + selectedBitcoinNode + ", expected " + expectedPublicKey + " received " + calculatedPublicKey + ".");
             selectedBitcoinNode.disconnect();
-            return true; // Continue attempting future downloads...
+            return false;
+        }
+
+        // Sort contents of any unsorted file so the bucket may be imported as soon as it is verified...
+        for (final File unsortedFile : unsortedSubBucketFiles) {
+            final NanoTimer nanoTimer = new NanoTimer();
+            nanoTimer.start();
+            try {
+                utxoCommitmentFileSorter.sort(unsortedFile);
+            }
+            catch (final Exception exception) {
+                Logger.debug(exception);
+                return false;
+            }
+            nanoTimer.stop();
+            Logger.debug("Sorted UtxoCommitment " + unsortedFile.getName() + " in " + nanoTimer.getMillisecondsElapsed() + "ms.");
         }
 
+        bucketDownload.files.addAll(subBucketFiles);
+        bucketDownload.databaseSubBuckets.addAll(databaseSubBuckets);
         bucketDownload.isComplete = true;
-        utxoCommitmentFiles.addAll(subBucketFiles);
-        localUtxoCommitmentFiles.addAll(databaseSubBuckets);
-        unsortedCommitmentFiles.addAll(unsortedSubBucketFiles);
         return true;
     }
 
+    protected void _runBucketDownloadWorker(final DownloadContext downloadContext) {
+        final UtxoCommitmentFileSorter utxoCommitmentFileSorter = new UtxoCommitmentFileSorter();
+
+        while ( (! downloadContext.isStopped) && (! _shouldAbort) ) {
+            final BucketDownload bucketDownload;
+            try {
+                bucketDownload = downloadContext.pendingBucketDownloads.poll(500L, TimeUnit.MILLISECONDS);
+            }
+            catch (final InterruptedException exception) { break; }
+
+            if (bucketDownload == null) {
+                if (downloadContext.remainingBucketCount.get() <= 0) { break; }
+                continue;
+            }
+
+            final int downloadAttemptCount = bucketDownload.downloadAttemptCount.getAndIncrement();
+            if (downloadAttemptCount > MAX_BUCKET_DOWNLOAD_ATTEMPT_COUNT) {
+                Logger.info("Attempted to download bucket too many times. Aborting.");
+                downloadContext.hasFailed = true;
+                break;
+            }
+
+            final Tuple<BitcoinNode, List<UtxoCommitmentBucket>> tuple = _reserveBitcoinNode(downloadContext);
+            if (tuple == null) {
+                Logger.info("Unable to find node to serve UtxoCommitment " + downloadContext.downloadableUtxoCommitment.metadata.publicKey + ".");
+                downloadContext.hasFailed = true;
+                break;
+            }
+
+            final BitcoinNode bitcoinNode = tuple.first;
+            final Boolean wasVerified;
+            try {
+                wasVerified = _downloadUtxoCommitmentBucket(bitcoinNode, tuple.second, bucketDownload, utxoCommitmentFileSorter);
+            }
+            finally {
+                _releaseBitcoinNode(downloadContext, bitcoinNode);
+            }
+
+            if (wasVerified) {
+                downloadContext.remainingBucketCount.decrementAndGet();
+                downloadContext.verifiedBucketDownloads.add(bucketDownload);
+            }
+            else {
+                downloadContext.pendingBucketDownloads.add(bucketDownload); // Retry the bucket, likely from another node...
+            }
+        }
+    }
+
+    /**
+     * Downloads the UtxoCommitment's buckets concurrently from multiple nodes, importing each bucket as soon as it has been verified.
+     *  The UTXO set is cleared before the first bucket is imported, so the import is rolled back if the download does not complete.
+     */
     protected Boolean _downloadUtxoCommitment(final DownloadableUtxoCommitment downloadableUtxoCommitment, final MilliTimer executionTimer, final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) {
         Logger.info("Downloading " + downloadableUtxoCommitment.metadata.blockHash + " - " + downloadableUtxoCommitment.metadata.publicKey + " from " + downloadableUtxoCommitment.nodeBreakdowns.size() + " nodes.");
 
         final UtxoCommitmentBreakdown utxoCommitmentBreakdown = downloadableUtxoCommitment.breakdown;
         final List<MultisetBucket> utxoCommitmentBuckets = utxoCommitmentBreakdown.getBuckets();
         final int utxoCommitmentBucketCount = utxoCommitmentBuckets.getCount();
-        final BucketDownload[] bucketDownloads = new BucketDownload[utxoCommitmentBucketCount];
+
+        final DownloadContext downloadContext = new DownloadContext(downloadableUtxoCommitment, utxoCommitmentBucketCount);
         for (int i = 0; i < utxoCommitmentBucketCount; ++i) {
-            bucketDownloads[i] = new BucketDownload();
+            downloadContext.pendingBucketDownloads.add(new BucketDownload(i));
         }
 
-        final MutableList<File> unsortedCommitmentFiles = new MutableList<>();
-        final MutableList<File> utxoCommitmentFiles = new MutableList<>();
-        final MutableList<UtxoDatabaseSubBucket> localUtxoCommitmentFiles = new MutableList<>(); // Used to store the Utxo Commitment metadata in the database for serving to new peers.
-
-        final Container<Integer> completeCount = new Container<>(0);
-        while (executionTimer.getMillisecondsElapsed() <= _fastSyncTimeoutMs) {
-            for (int bucketIndex = 0; bucketIndex < utxoCommitmentBucketCount; ++bucketIndex) {
-                final BucketDownload bucketDownload = bucketDownloads[bucketIndex];
-                final Boolean shouldContinue = _downloadUtxoCommitmentBucket(downloadableUtxoCommitment, bucketIndex, bucketDownload, completeCount, unsortedCommitmentFiles, utxoCommitmentFiles, localUtxoCommitmentFiles);
-                if (! shouldContinue) {
-                    return false;
+        final int downloadThreadCount = Math.max(1, Math.min(MAX_CONCURRENT_BUCKET_DOWNLOAD_COUNT, downloadableUtxoCommitment.nodeBreakdowns.size()));
+        final MutableList<Thread> downloadThreads = new MutableList<>(downloadThreadCount);
+        for (int i = 0; i < downloadThreadCount; ++i) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    _runBucketDownloadWorker(downloadContext);
                 }
-            }
-
-            if (completeCount.value >= utxoCommitmentBucketCount) {
-                break;
-            }
+            });
+            thread.setName("UtxoCommitmentDownloader Thread " + i);
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(final Thread thread, final Throwable exception) {
+                    downloadContext.hasFailed = true;
+                    Logger.debug(exception);
+                }
+            });
+            downloadThreads.add(thread);
         }
 
-        // Ensure all files were downloaded (and that the timer did not expire)...
-        if (! Util.areEqual(utxoCommitmentBucketCount, completeCount.value)) {
-            Logger.info("Unable to complete download of UTXO commitment: " + downloadableUtxoCommitment.metadata.publicKey);
-            return false;
+        for (final Thread thread : downloadThreads) {
+            thread.start();
         }
 
+        final MutableList<UtxoDatabaseSubBucket> localUtxoCommitmentFiles = new MutableList<>(); // Used to store the Utxo Commitment metadata in the database for serving to new peers.
+
         boolean didComplete = false;
         final PublicKey multisetPublicKey = downloadableUtxoCommitment.metadata.publicKey;
-        final File loadFileDestination = new File(_utxoCommitmentStore.getUtxoDataDirectory(), (multisetPublicKey + ".sql"));
         try {
-            // Sort contents of any unsorted file...
-            for (final File unsortedFile : unsortedCommitmentFiles) {
-                final NanoTimer nanoTimer = new NanoTimer();
-                nanoTimer.start();
-                UtxoCommitmentDownloader.sortUtxoCommitmentFile(unsortedFile);
-                nanoTimer.stop();
-                Logger.debug("Sorted UtxoCommitment " + unsortedFile.getName() + " in " + nanoTimer.getMillisecondsElapsed() + "ms.");
-            }
-
             final MultiTimer multiTimer = new MultiTimer();
             multiTimer.start();
-            _utxoCommitmentLoader.createLoadFile(utxoCommitmentFiles, loadFileDestination, unspentTransactionOutputVisitor);
-            multiTimer.mark("createLoadFile");
 
             try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
                 final UtxoCommitmentDatabaseManager utxoCommitmentDatabaseManager = databaseManager.getUtxoCommitmentDatabaseManager();
@@ -706,14 +771,72 @@ public class UtxoCommitmentDownloader {
 
                 UnspentTransactionOutputDatabaseManager.UTXO_WRITE_MUTEX.lock();
                 try {
-                    final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
-                    TransactionUtil.startTransaction(databaseConnection);
-
+                    // NOTE: The committed set is cleared outside of a transaction since the import is written across multiple connections.
                     unspentTransactionOutputDatabaseManager.clearCommittedUtxoSet();
+                    unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet();
                     multiTimer.mark("clearCommittedUtxoSet");
 
-                    _utxoCommitmentLoader.loadFile(loadFileDestination, databaseConnection);
-                    multiTimer.mark("loadFile");
+                    final MutableList<TransactionOutputIdentifier> cacheTransactionOutputIdentifiers = new MutableList<>(UtxoCommitmentImporter.DEFAULT_BATCH_SIZE);
+                    final MutableList<UnspentTransactionOutput> cacheTransactionOutputs = new MutableList<>(UtxoCommitmentImporter.DEFAULT_BATCH_SIZE);
+                    final Container<Boolean> cacheHasCapacity = new Container<>(true);
+
+                    final UnspentTransactionOutputVisitor cachingUnspentTransactionOutputVisitor = new UnspentTransactionOutputVisitor() {
+                        @Override
+                        public void run(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput transactionOutput) throws Exception {
+                            if (unspentTransactionOutputVisitor != null) {
+                                unspentTransactionOutputVisitor.run(transactionOutputIdentifier, transactionOutput);
+                            }
+
+                            if (! cacheHasCapacity.value) { return; }
+
+                            cacheTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+                            cacheTransactionOutputs.add(transactionOutput);
+                            if (cacheTransactionOutputs.getCount() >= UtxoCommitmentImporter.DEFAULT_BATCH_SIZE) {
+                                final Integer cachedCount = unspentTransactionOutputDatabaseManager.cacheCommittedUnspentTransactionOutputs(cacheTransactionOutputIdentifiers, cacheTransactionOutputs);
+                                cacheHasCapacity.value = Util.areEqual(cachedCount, cacheTransactionOutputs.getCount());
+                                cacheTransactionOutputIdentifiers.clear();
+                                cacheTransactionOutputs.clear();
+                            }
+                        }
+                    };
+
+                    final UtxoCommitmentImporter.ImportResult importResult;
+                    try (final UtxoCommitmentImporter.ImportSession importSession = _utxoCommitmentImporter.startImport(cachingUnspentTransactionOutputVisitor)) {
+                        int importedBucketCount = 0;
+                        while (importedBucketCount < utxoCommitmentBucketCount) {
+                            if ( downloadContext.hasFailed || _hasTimedOut(executionTimer) ) { break; }
+
+                            final BucketDownload bucketDownload = downloadContext.verifiedBucketDownloads.poll(1000L, TimeUnit.MILLISECONDS);
+                            if (bucketDownload == null) { continue; }
+
+                            importSession.importUtxoCommitmentFiles(bucketDownload.files);
+                            localUtxoCommitmentFiles.addAll(bucketDownload.databaseSubBuckets);
+                            importedBucketCount += 1;
+
+                            Logger.debug("Imported UtxoCommitment bucket " + bucketDownload.bucketIndex + " (" + importedBucketCount + " of " + utxoCommitmentBucketCount + ") after " + executionTimer.getMillisecondsElapsed() + "ms.");
+                        }
+
+                        // Ensure all buckets were downloaded (and that the timer did not expire)...
+                        if (importedBucketCount < utxoCommitmentBucketCount) {
+                            Logger.info("Unable to complete download of UTXO commitment: " + multisetPublicKey);
+                            return false;
+                        }
+
+                        importResult = importSession.finish();
+                    }
+                    if ( cacheHasCapacity.value && (! cacheTransactionOutputs.isEmpty()) ) {
+                        unspentTransactionOutputDatabaseManager.cacheCommittedUnspentTransactionOutputs(cacheTransactionOutputIdentifiers, cacheTransactionOutputs);
+                    }
+                    multiTimer.mark("downloadAndImportUtxos");
+
+                    final PublicKey calculatedPublicKey = importResult.multisetHash.getPublicKey().compress();
+                    if (! Util.areEqual(multisetPublicKey.compress(), calculatedPublicKey)) {
+                        Logger.info("Imported UtxoCommitment does not match " + multisetPublicKey + ", found " + calculatedPublicKey + ".");
+                        return false;
+                    }
+
+                    final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+                    TransactionUtil.startTransaction(databaseConnection);
 
                     unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(blockHeight);
                     unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_databaseManagerFactory, CommitAsyncMode.BLOCK_UNTIL_COMPLETE);
@@ -735,8 +858,12 @@ public class UtxoCommitmentDownloader {
                     TransactionUtil.commitTransaction(databaseConnection);
                 }
                 finally {
+                    if (! didComplete) {
+                        // The imported (partial) set was committed independently by the importer, so it must be removed...
+                        unspentTransactionOutputDatabaseManager.clearCommittedUtxoSet();
+                        unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet();
+                    }
                     UnspentTransactionOutputDatabaseManager.UTXO_WRITE_MUTEX.unlock();
-                    loadFileDestination.delete();
                 }
             }
             Logger.debug("Loaded UtxoCommitment: " + multiTimer);
@@ -744,12 +871,30 @@ public class UtxoCommitmentDownloader {
         catch (final Exception exception) {
             Logger.debug(exception);
         }
+        finally {
+            downloadContext.isStopped = true;
+            for (final Thread thread : downloadThreads) {
+                thread.interrupt();
+            }
+
+            for (final Thread thread : downloadThreads) {
+                try {
+                    thread.join();
+                }
+                catch (final InterruptedException exception) {
+                    final Thread currentThread = Thread.currentThread();
+                    currentThread.interrupt();
+                    break;
+                }
+            }
+        }
 
         return didComplete;
     }
 
     public UtxoCommitmentDownloader(final FullNodeDatabaseManagerFactory databaseManagerFactory, final BitcoinNodeManager bitcoinNodeManager, final UtxoCommitmentStore utxoCommitmentStore, final BlockPruner blockPruner, final Long fastSyncTimeoutMs) {
         _databaseManagerFactory = databaseManagerFactory;
+        _utxoCommitmentImporter = new UtxoCommitmentImporter(databaseManagerFactory);
         _trustedUtxoCommitments = BitcoinConstants.getUtxoCommitments();
         _bitcoinNodeManager = bitcoinNodeManager;
         _utxoCommitmentStore = utxoCommitmentStore;
@@ -2,7 +2,6 @@ package com.softwareverde.bitcoin.server.module.node.sync.transaction;
 
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManagerFactory;
-import com.softwareverde.bitcoin.server.module.node.database.node.BitcoinNodeDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.pending.PendingTransactionDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.manager.BitcoinNodeManager;
 import com.softwareverde.bitcoin.server.module.node.sync.transaction.pending.PendingTransactionId;
@@ -11,12 +10,10 @@ import com.softwareverde.bitcoin.server.node.RequestId;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.concurrent.service.SleepyService;
 import com.softwareverde.constable.list.List;
-import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
-import com.softwareverde.network.p2p.node.NodeId;
 import com.softwareverde.util.Tuple;
 import com.softwareverde.util.timer.MilliTimer;
 
@@ -29,6 +26,7 @@ public class TransactionDownloader extends SleepyService {
     public static final Integer MAX_DOWNLOAD_FAILURE_COUNT = 10;
 
     protected static final Long MAX_TIMEOUT = 90000L;
+    protected static final Integer MAX_PLANNED_TRANSACTION_COUNT = 1024;
 
     protected final Object _downloadCallbackPin = new Object();
 
@@ -130,36 +128,65 @@ public class TransactionDownloader extends SleepyService {
         }
 
         try (final FullNodeDatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
-            final BitcoinNodeDatabaseManager nodeDatabaseManager = databaseManager.getNodeDatabaseManager();
             final PendingTransactionDatabaseManager pendingTransactionDatabaseManager = databaseManager.getPendingTransactionDatabaseManager();
 
             final List<BitcoinNode> nodes = _bitcoinNodeManager.getNodes();
-            final HashMap<NodeId, BitcoinNode> nodeMap = new HashMap<>();
-            final List<NodeId> nodeIds;
-            {
-                final ImmutableListBuilder<NodeId> listBuilder = new ImmutableListBuilder<>(nodes.getCount());
-                for (final BitcoinNode node : nodes) {
-                    final NodeId nodeId = nodeDatabaseManager.getNodeId(node);
-                    if (nodeId != null) {
-                        listBuilder.add(nodeId);
-                        nodeMap.put(nodeId, node);
+            final int nodeCount = nodes.getCount();
+            if (nodeCount == 0) { return false; }
+
+            final List<Tuple<PendingTransactionId, Sha256Hash>> pendingTransactions = pendingTransactionDatabaseManager.selectIncompletePendingTransactions(MAX_PLANNED_TRANSACTION_COUNT);
+            if (pendingTransactions.isEmpty()) { return false; }
+
+            // Plan the download via each node's in-memory transaction inventory, spreading the Transactions across the nodes that announced them...
+            final HashMap<BitcoinNode, MutableList<Tuple<PendingTransactionId, Sha256Hash>>> downloadPlan = new HashMap<>();
+            final MutableList<PendingTransactionId> unavailablePendingTransactionIds = new MutableList<>();
+            int nodeIndexOffset = 0;
+            for (final Tuple<PendingTransactionId, Sha256Hash> pendingTransaction : pendingTransactions) {
+                final Sha256Hash transactionHash = pendingTransaction.second;
+                final boolean itemIsAlreadyBeingDownloaded = _currentTransactionDownloadSet.containsKey(transactionHash);
+                if (itemIsAlreadyBeingDownloaded) { continue; }
+
+                BitcoinNode selectedNode = null;
+                for (int i = 0; i < nodeCount; ++i) {
+                    final BitcoinNode bitcoinNode = nodes.get((nodeIndexOffset + i) % nodeCount);
+                    if (bitcoinNode.hasTransactionInventory(transactionHash)) {
+                        selectedNode = bitcoinNode;
+                        break;
                     }
                 }
-                nodeIds = listBuilder.build();
+                nodeIndexOffset += 1;
+
+                if (selectedNode == null) {
+                    unavailablePendingTransactionIds.add(pendingTransaction.first);
+                    continue;
+                }
+
+                if (! downloadPlan.containsKey(selectedNode)) {
+                    downloadPlan.put(selectedNode, new MutableList<>());
+                }
+
+                final MutableList<Tuple<PendingTransactionId, Sha256Hash>> nodePendingTransactions = downloadPlan.get(selectedNode);
+                nodePendingTransactions.add(pendingTransaction);
+            }
+
+            // Transactions that no connected node has announced are treated as failed attempts so they do not starve the queue...
+            if (! unavailablePendingTransactionIds.isEmpty()) {
+                for (final PendingTransactionId pendingTransactionId : unavailablePendingTransactionIds) {
+                    pendingTransactionDatabaseManager.updateLastDownloadAttemptTime(pendingTransactionId);
+                    pendingTransactionDatabaseManager.incrementFailedDownloadCount(pendingTransactionId);
+                }
+                pendingTransactionDatabaseManager.purgeFailedPendingTransactions(MAX_DOWNLOAD_FAILURE_COUNT);
             }
 
-            final Map<NodeId, ? extends List<PendingTransactionId>> downloadPlan = pendingTransactionDatabaseManager.selectIncompletePendingTransactions(nodeIds);
             if (downloadPlan.isEmpty()) { return false; }
 
-            for (final NodeId nodeId : downloadPlan.keySet()) {
+            for (final BitcoinNode bitcoinNode : downloadPlan.keySet()) {
                 if (_currentTransactionDownloadSet.size() >= maximumConcurrentDownloadCount) { break; }
-                final List<PendingTransactionId> pendingTransactionIds = downloadPlan.get(nodeId);
-                final MutableList<Sha256Hash> pendingTransactionHashes = new MutableList<>(pendingTransactionIds.getCount());
-                for (final PendingTransactionId pendingTransactionId : pendingTransactionIds) {
-                    final Sha256Hash transactionHash = pendingTransactionDatabaseManager.getPendingTransactionHash(pendingTransactionId);
-                    if (transactionHash == null) { continue; }
-                    final boolean itemIsAlreadyBeingDownloaded = _currentTransactionDownloadSet.containsKey(transactionHash);
-                    if (itemIsAlreadyBeingDownloaded) { continue; }
+                final List<Tuple<PendingTransactionId, Sha256Hash>> nodePendingTransactions = downloadPlan.get(bitcoinNode);
+                final MutableList<Sha256Hash> pendingTransactionHashes = new MutableList<>(nodePendingTransactions.getCount());
+                for (final Tuple<PendingTransactionId, Sha256Hash> pendingTransaction : nodePendingTransactions) {
+                    final PendingTransactionId pendingTransactionId = pendingTransaction.first;
+                    final Sha256Hash transactionHash = pendingTransaction.second;
 
                     pendingTransactionHashes.add(transactionHash);
 
@@ -171,7 +198,6 @@ public class TransactionDownloader extends SleepyService {
                 }
 
                 if (pendingTransactionHashes.isEmpty()) { continue; }
-                final BitcoinNode bitcoinNode = nodeMap.get(nodeId);
                 final RequestId requestId = bitcoinNode.requestTransactions(pendingTransactionHashes, _transactionDownloadedCallback);
 
                 final Tuple<RequestId, BitcoinNode> requestInformation = new Tuple<>(requestId, bitcoinNode);
@@ -1,6 +1,7 @@
 package com.softwareverde.bitcoin.server.module.node.utxo;
 
 import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.secp256k1.EcMultiset;
@@ -13,10 +14,10 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 class BucketFile implements AutoCloseable {
     protected static final int PAGE_SIZE = (int) (16L * ByteUtil.Unit.Binary.KIBIBYTES);
+    protected static final int SCRATCH_BUFFER_COUNT = 256; // Covers the serialized size of the standard output types.
 
     public static class SubBucketFile {
         public final PublicKey publicKey;
@@ -43,18 +44,20 @@ class BucketFile implements AutoCloseable {
     protected final Integer _index;
     protected final EcMultiset _bucketMultisetHash = new EcMultiset();
     protected final MutableList<SubBucketFile> _subBuckets = new MutableList<>();
-    protected final ConcurrentLinkedQueue<CommittedUnspentTransactionOutput> _queue;
+
+    // Reusable buffers for the serialized UTXOs provided to the MultisetHash, indexed by byte count; the MultisetHash only
+    //  hashes the item and does not retain it.
+    protected final MutableByteArray[] _utxoScratchBuffers = new MutableByteArray[SCRATCH_BUFFER_COUNT];
 
     protected EcMultiset _multisetHash = new EcMultiset();
-    protected Long _bytesWritten = 0L;
-    protected Integer _utxoCount = 0;
+    protected long _bytesWritten = 0L;
+    protected int _utxoCount = 0;
     protected OutputStream _outputStream;
 
     public BucketFile(final Integer index, final String outputDirectory, final Long maxByteCountPerFile) {
         _outputDirectory = outputDirectory;
         _maxByteCountPerFile = maxByteCountPerFile;
 
-        _queue = new ConcurrentLinkedQueue<>();
         _protoFile = new File(outputDirectory, "utxo-" + index + ".dat");
         _index = index;
         _outputStream = null;
@@ -116,20 +119,56 @@ class BucketFile implements AutoCloseable {
         }
 
         _multisetHash.addItem(byteArray);
-        for (int i = 0; i < byteCount; ++i) {
-            final byte b = byteArray.getByte(i);
-            _outputStream.write(b);
-        }
+        _outputStream.write(byteArray.getBytes());
         _bytesWritten += byteCount;
         _utxoCount += 1;
     }
 
-    public CommittedUnspentTransactionOutput pollFromQueue() {
-        return _queue.poll();
+    /**
+     * Appends the serialized UTXO located within the buffer at [offset, offset + byteCount).
+     *  The bytes must be formatted as CommittedUnspentTransactionOutput::getBytes.
+     */
+    public void addOutput(final byte[] buffer, final int offset, final int byteCount) throws Exception {
+        if (_outputStream == null) {
+            _outputStream = new BufferedOutputStream(new FileOutputStream(_protoFile), PAGE_SIZE);
+        }
+
+        if (_bytesWritten + byteCount > _maxByteCountPerFile) {
+            this.createPartialUtxoCommitmentFile(true);
+        }
+
+        final MutableByteArray utxoBytes;
+        if (byteCount < SCRATCH_BUFFER_COUNT) {
+            if (_utxoScratchBuffers[byteCount] == null) {
+                _utxoScratchBuffers[byteCount] = new MutableByteArray(byteCount);
+            }
+            utxoBytes = _utxoScratchBuffers[byteCount];
+        }
+        else { // Abnormally large LockingScripts are not worth retaining a buffer for...
+            utxoBytes = new MutableByteArray(byteCount);
+        }
+        System.arraycopy(buffer, offset, utxoBytes.unwrap(), 0, byteCount);
+
+        _multisetHash.addItem(utxoBytes);
+        _outputStream.write(buffer, offset, byteCount);
+        _bytesWritten += byteCount;
+        _utxoCount += 1;
     }
 
-    public void addToQueue(final CommittedUnspentTransactionOutput committedUnspentTransactionOutput) {
-        _queue.add(committedUnspentTransactionOutput);
+    /**
+     * Closes the current stream without creating its partial UtxoCommitment file; the BucketFile is left incomplete.
+     */
+    public void abort() {
+        final OutputStream outputStream = _outputStream;
+        _outputStream = null;
+        if (outputStream != null) {
+            try {
+                outputStream.close();
+            }
+            catch (final Exception exception) {
+                Logger.debug(exception);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,75 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+
+/**
+ * Serializes CommittedUnspentTransactionOutputs directly from their primitive components into a pre-allocated buffer.
+ *  The produced bytes are identical to CommittedUnspentTransactionOutput::getBytes, but avoid the intermediary objects
+ *  (Sha256Hash, LockingScript, ByteArrayBuilder, etc.) when serializing large numbers of UTXOs.
+ */
+public class CommittedUnspentTransactionOutputDeflater {
+    public static final Integer OUTPUT_IDENTIFIER_BYTE_COUNT = (Sha256Hash.BYTE_COUNT + 4);
+
+    /**
+     * Returns the number of bytes required to serialize a UTXO with a LockingScript of lockingScriptByteCount bytes.
+     */
+    public static int getByteCount(final int lockingScriptByteCount) {
+        final int variableLengthIntegerByteCount = ByteUtil.variableLengthIntegerToBytes(lockingScriptByteCount).length;
+        return (CommittedUnspentTransactionOutputInflater.NON_LOCKING_SCRIPT_BYTE_COUNT - 4 + variableLengthIntegerByteCount + lockingScriptByteCount);
+    }
+
+    /**
+     * Writes the little-endian TransactionOutputIdentifier (i.e. the first OUTPUT_IDENTIFIER_BYTE_COUNT bytes of the
+     *  serialized UTXO) to the buffer.  The transactionHash is provided in its big-endian (i.e. database) byte order.
+     */
+    public static void writeOutputIdentifier(final byte[] transactionHash, final int outputIndex, final byte[] buffer, final int offset) {
+        for (int i = 0; i < Sha256Hash.BYTE_COUNT; ++i) {
+            buffer[offset + i] = transactionHash[(Sha256Hash.BYTE_COUNT - 1) - i];
+        }
+        CommittedUnspentTransactionOutputDeflater._writeIntegerLittleEndian(outputIndex, buffer, (offset + Sha256Hash.BYTE_COUNT));
+    }
+
+    protected static void _writeIntegerLittleEndian(final int value, final byte[] buffer, final int offset) {
+        buffer[offset] = (byte) (value);
+        buffer[offset + 1] = (byte) (value >>> 8);
+        buffer[offset + 2] = (byte) (value >>> 16);
+        buffer[offset + 3] = (byte) (value >>> 24);
+    }
+
+    protected static void _writeLongLittleEndian(final long value, final byte[] buffer, final int offset) {
+        for (int i = 0; i < 8; ++i) {
+            buffer[offset + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    /**
+     * Serializes the UTXO into the buffer at the provided offset and returns the number of bytes written.
+     *  The buffer must have at least ::getByteCount(lockingScript.length) bytes available after offset.
+     *  The transactionHash is provided in its big-endian (i.e. database) byte order.
+     */
+    public int toBytes(final byte[] transactionHash, final int outputIndex, final long blockHeight, final boolean isCoinbase, final long amount, final byte[] lockingScript, final byte[] buffer, final int offset) {
+        int writeIndex = offset;
+
+        CommittedUnspentTransactionOutputDeflater.writeOutputIdentifier(transactionHash, outputIndex, buffer, writeIndex);
+        writeIndex += OUTPUT_IDENTIFIER_BYTE_COUNT;
+
+        { // NOTE: IS_COINBASE_FLAG_BIT_INDEX refers to the most significant bit of the (big-endian) 32-bit blockHeight; see CommittedUnspentTransactionOutput.
+            final int blockHeightAndIsCoinbase = (((int) blockHeight) | (isCoinbase ? 0x80000000 : 0x00));
+            CommittedUnspentTransactionOutputDeflater._writeIntegerLittleEndian(blockHeightAndIsCoinbase, buffer, writeIndex);
+            writeIndex += 4;
+        }
+
+        CommittedUnspentTransactionOutputDeflater._writeLongLittleEndian(amount, buffer, writeIndex);
+        writeIndex += 8;
+
+        final byte[] lockingScriptByteCountBytes = ByteUtil.variableLengthIntegerToBytes(lockingScript.length);
+        System.arraycopy(lockingScriptByteCountBytes, 0, buffer, writeIndex, lockingScriptByteCountBytes.length);
+        writeIndex += lockingScriptByteCountBytes.length;
+
+        System.arraycopy(lockingScript, 0, buffer, writeIndex, lockingScript.length);
+        writeIndex += lockingScript.length;
+
+        return (writeIndex - offset);
+    }
+}
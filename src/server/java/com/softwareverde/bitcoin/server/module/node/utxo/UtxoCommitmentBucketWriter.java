@@ -0,0 +1,240 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.constable.list.List;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.ByteUtil;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributes serialized UTXOs to their BucketFiles across a set of worker threads.
+ *  Each BucketFile is owned by exactly one worker (bucketIndex % workerCount), so the UTXOs within a bucket are written
+ *  (and multiset-hashed) in the order they were provided.  UTXOs are serialized by the producer directly into
+ *  fixed-size RecordBatch buffers, which are handed off to the workers through bounded blocking queues and then
+ *  recycled, so memory remains constant and neither the producer nor the workers poll or sleep while idle.
+ *  This class is not thread-safe for producers; UTXOs must be provided from a single thread.
+ */
+class UtxoCommitmentBucketWriter implements AutoCloseable {
+    protected static final int BATCH_BYTE_COUNT = (int) (256L * ByteUtil.Unit.Binary.KIBIBYTES);
+    protected static final int BATCH_COUNT_PER_WORKER = 4;
+
+    protected static class RecordBatch {
+        public byte[] buffer;
+        public int byteCount = 0;
+        public int[] recordOffsets;
+        public byte[] bucketIndexes;
+        public int recordCount = 0;
+
+        public RecordBatch(final int byteCount, final int maxRecordCount) {
+            this.buffer = new byte[byteCount];
+            this.recordOffsets = new int[maxRecordCount + 1];
+            this.bucketIndexes = new byte[maxRecordCount];
+        }
+
+        public int getRemainingByteCount() {
+            return (this.buffer.length - this.byteCount);
+        }
+
+        public Boolean hasRecordCapacity() {
+            return (this.recordCount < this.bucketIndexes.length);
+        }
+
+        public void clear() {
+            this.byteCount = 0;
+            this.recordCount = 0;
+        }
+    }
+
+    protected static class Worker {
+        public final ArrayBlockingQueue<RecordBatch> pendingBatches = new ArrayBlockingQueue<>(BATCH_COUNT_PER_WORKER + 1);
+        public final ArrayBlockingQueue<RecordBatch> availableBatches = new ArrayBlockingQueue<>(BATCH_COUNT_PER_WORKER);
+        public RecordBatch currentBatch;
+        public Thread thread;
+    }
+
+    protected static final RecordBatch END_OF_STREAM = new RecordBatch(0, 0);
+
+    protected final CommittedUnspentTransactionOutputDeflater _deflater = new CommittedUnspentTransactionOutputDeflater();
+    protected final List<BucketFile> _bucketFiles;
+    protected final Worker[] _workers;
+    protected volatile Exception _exception = null;
+    protected Boolean _isFinished = false;
+
+    protected void _runWorker(final Worker worker) {
+        try {
+            while (true) {
+                final RecordBatch recordBatch = worker.pendingBatches.take();
+                if (recordBatch == END_OF_STREAM) { break; }
+
+                for (int i = 0; i < recordBatch.recordCount; ++i) {
+                    final int bucketIndex = (recordBatch.bucketIndexes[i] & 0xFF);
+                    final int offset = recordBatch.recordOffsets[i];
+                    final int byteCount = (recordBatch.recordOffsets[i + 1] - offset);
+
+                    final BucketFile bucketFile = _bucketFiles.get(bucketIndex);
+                    bucketFile.addOutput(recordBatch.buffer, offset, byteCount);
+                }
+
+                recordBatch.clear();
+                worker.availableBatches.put(recordBatch);
+            }
+        }
+        catch (final InterruptedException exception) {
+            // Nothing.
+        }
+        catch (final Exception exception) {
+            _exception = exception;
+            Logger.debug(exception);
+        }
+    }
+
+    protected void _throwIfFailed() throws Exception {
+        final Exception exception = _exception;
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    protected void _dispatchCurrentBatch(final Worker worker) throws Exception {
+        final RecordBatch recordBatch = worker.currentBatch;
+        worker.currentBatch = null;
+        if ( (recordBatch == null) || (recordBatch.recordCount == 0) ) {
+            worker.currentBatch = recordBatch;
+            return;
+        }
+
+        worker.pendingBatches.put(recordBatch);
+    }
+
+    protected RecordBatch _getAvailableBatch(final Worker worker, final int requiredByteCount) throws Exception {
+        RecordBatch recordBatch = worker.currentBatch;
+        if (recordBatch != null) {
+            if ( recordBatch.hasRecordCapacity() && (recordBatch.getRemainingByteCount() >= requiredByteCount) ) {
+                return recordBatch;
+            }
+
+            _dispatchCurrentBatch(worker);
+        }
+
+        while (true) {
+            recordBatch = worker.availableBatches.poll(1L, TimeUnit.SECONDS);
+            if (recordBatch != null) { break; }
+            _throwIfFailed(); // Prevent waiting indefinitely on a failed worker...
+        }
+
+        if (recordBatch.buffer.length < requiredByteCount) { // Accommodate abnormally large LockingScripts...
+            recordBatch.buffer = new byte[requiredByteCount];
+        }
+
+        worker.currentBatch = recordBatch;
+        return recordBatch;
+    }
+
+    /**
+     * Creates a writer for the provided BucketFiles; the BucketFiles are closed by the writer upon ::finish.
+     */
+    public UtxoCommitmentBucketWriter(final List<BucketFile> bucketFiles, final Integer workerCount) {
+        _bucketFiles = bucketFiles;
+        _workers = new Worker[Math.max(1, Math.min(workerCount, bucketFiles.getCount()))];
+
+        final int maxRecordCountPerBatch = (BATCH_BYTE_COUNT / CommittedUnspentTransactionOutputInflater.NON_LOCKING_SCRIPT_BYTE_COUNT);
+        for (int i = 0; i < _workers.length; ++i) {
+            final Worker worker = new Worker();
+            for (int j = 0; j < BATCH_COUNT_PER_WORKER; ++j) {
+                worker.availableBatches.add(new RecordBatch(BATCH_BYTE_COUNT, maxRecordCountPerBatch));
+            }
+
+            worker.thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    _runWorker(worker);
+                }
+            });
+            worker.thread.setName("UtxoCommitmentBucketWriter Thread " + i);
+            worker.thread.setDaemon(true);
+            worker.thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(final Thread thread, final Throwable exception) {
+                    Logger.debug(exception);
+                }
+            });
+
+            _workers[i] = worker;
+        }
+    }
+
+    public void start() {
+        for (final Worker worker : _workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Serializes the UTXO and queues it for its bucket.
+     *  Blocks if the bucket's worker has fallen behind.  The transactionHash is provided in its big-endian byte order.
+     */
+    public void addUtxo(final int bucketIndex, final byte[] transactionHash, final int outputIndex, final long blockHeight, final boolean isCoinbase, final long amount, final byte[] lockingScript) throws Exception {
+        _throwIfFailed();
+
+        final Worker worker = _workers[bucketIndex % _workers.length];
+        final int byteCount = CommittedUnspentTransactionOutputDeflater.getByteCount(lockingScript.length);
+        final RecordBatch recordBatch = _getAvailableBatch(worker, byteCount);
+
+        final int offset = recordBatch.byteCount;
+        final int bytesWritten = _deflater.toBytes(transactionHash, outputIndex, blockHeight, isCoinbase, amount, lockingScript, recordBatch.buffer, offset);
+
+        recordBatch.bucketIndexes[recordBatch.recordCount] = (byte) bucketIndex;
+        recordBatch.recordOffsets[recordBatch.recordCount] = offset;
+        recordBatch.recordCount += 1;
+        recordBatch.byteCount += bytesWritten;
+        recordBatch.recordOffsets[recordBatch.recordCount] = recordBatch.byteCount;
+    }
+
+    /**
+     * Flushes all queued UTXOs, waits for the workers to complete, and closes the BucketFiles.
+     */
+    public void finish() throws Exception {
+        for (final Worker worker : _workers) {
+            _dispatchCurrentBatch(worker);
+            worker.pendingBatches.put(END_OF_STREAM);
+        }
+
+        for (final Worker worker : _workers) {
+            worker.thread.join();
+        }
+        _throwIfFailed();
+
+        for (final BucketFile bucketFile : _bucketFiles) {
+            bucketFile.close();
+        }
+        _isFinished = true;
+    }
+
+    /**
+     * Aborts any in-progress work and releases the BucketFiles' streams; unless ::finish completed, the BucketFiles are
+     *  left in an undefined state.
+     */
+    @Override
+    public void close() {
+        if (_isFinished) { return; }
+
+        for (final Worker worker : _workers) {
+            worker.thread.interrupt();
+        }
+
+        try {
+            for (final Worker worker : _workers) {
+                worker.thread.join(); // The streams may only be closed once their worker is no longer writing to them...
+            }
+        }
+        catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            for (final BucketFile bucketFile : _bucketFiles) {
+                bucketFile.abort();
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.ByteUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts a file of serialized CommittedUnspentTransactionOutputs using a bounded amount of memory.
+ *  UTXOs are read into a fixed-size buffer and sorted in place via an index table (without inflating them), and each
+ *  full buffer is written to a temporary run file.  The runs are then k-way merged back into the original file.
+ *  UTXOs are ordered by their TransactionHash (big-endian, unsigned) and then by their output index, which is the
+ *  same order used by CommittedUnspentTransactionOutput::compare.  UTXOs sharing an output identifier are written only
+ *  once, retaining the first occurrence within the original file.
+ *  This class is not thread-safe; its buffers are reused across calls to ::sort.
+ */
+public class UtxoCommitmentFileSorter {
+    public static final Integer DEFAULT_RUN_BYTE_COUNT = (int) (4L * ByteUtil.Unit.Binary.MEBIBYTES);
+    protected static final Integer MIN_RECORD_BYTE_COUNT = (CommittedUnspentTransactionOutputDeflater.OUTPUT_IDENTIFIER_BYTE_COUNT + 4 + 8 + 1);
+    protected static final Integer FIXED_RECORD_BYTE_COUNT = (MIN_RECORD_BYTE_COUNT - 1); // The portion of the record preceding the LockingScript's variable-length-integer.
+    protected static final Integer STREAM_BUFFER_BYTE_COUNT = (int) (64L * ByteUtil.Unit.Binary.KIBIBYTES);
+    protected static final String RUN_FILE_EXTENSION = ".run";
+
+    /**
+     * Compares the serialized (little-endian) output identifiers located at offset0 and offset1.
+     */
+    protected static int _compare(final byte[] buffer0, final int offset0, final byte[] buffer1, final int offset1) {
+        for (int i = (Sha256Hash.BYTE_COUNT - 1); i >= 0; --i) {
+            final int byte0 = (buffer0[offset0 + i] & 0xFF);
+            final int byte1 = (buffer1[offset1 + i] & 0xFF);
+            if (byte0 != byte1) {
+                return ((byte0 < byte1) ? -1 : 1);
+            }
+        }
+
+        final int index0 = UtxoCommitmentFileSorter._readIntegerLittleEndian(buffer0, (offset0 + Sha256Hash.BYTE_COUNT));
+        final int index1 = UtxoCommitmentFileSorter._readIntegerLittleEndian(buffer1, (offset1 + Sha256Hash.BYTE_COUNT));
+        return Integer.compare(index0, index1);
+    }
+
+    protected static int _readIntegerLittleEndian(final byte[] buffer, final int offset) {
+        return ( (buffer[offset] & 0xFF) | ((buffer[offset + 1] & 0xFF) << 8) | ((buffer[offset + 2] & 0xFF) << 16) | ((buffer[offset + 3] & 0xFF) << 24) );
+    }
+
+    protected static int _getVariableLengthIntegerByteCount(final byte prefix) {
+        final int prefixValue = (prefix & 0xFF);
+        if (prefixValue < 0xFD) { return 1; }
+        if (prefixValue == 0xFD) { return 3; }
+        if (prefixValue == 0xFE) { return 5; }
+        return 9;
+    }
+
+    protected static long _readVariableLengthInteger(final byte[] buffer, final int offset) {
+        final int prefixValue = (buffer[offset] & 0xFF);
+        if (prefixValue < 0xFD) { return prefixValue; }
+
+        final int byteCount = (UtxoCommitmentFileSorter._getVariableLengthIntegerByteCount(buffer[offset]) - 1);
+        long value = 0L;
+        for (int i = 0; i < byteCount; ++i) {
+            value |= ((buffer[offset + 1 + i] & 0xFFL) << (i * 8));
+        }
+        return value;
+    }
+
+    /**
+     * Reads exactly byteCount bytes into the buffer.
+     *  Returns false if the stream ended before any bytes were read; throws EOFException if the stream ended mid-read.
+     */
+    protected static boolean _readFully(final InputStream inputStream, final byte[] buffer, final int offset, final int byteCount) throws IOException {
+        int readByteCount = 0;
+        while (readByteCount < byteCount) {
+            final int result = inputStream.read(buffer, (offset + readByteCount), (byteCount - readByteCount));
+            if (result < 0) {
+                if (readByteCount == 0) { return false; }
+                throw new EOFException();
+            }
+            readByteCount += result;
+        }
+        return true;
+    }
+
+    /**
+     * Reads serialized UTXOs, one at a time, from a stream into a reusable buffer.
+     */
+    protected static class RecordReader implements AutoCloseable {
+        protected final InputStream _inputStream;
+        protected final Integer _maxRecordByteCount;
+        protected final Integer _runIndex;
+
+        public byte[] record = new byte[STREAM_BUFFER_BYTE_COUNT];
+        public int recordByteCount = 0;
+
+        public RecordReader(final InputStream inputStream, final Integer maxRecordByteCount) {
+            this(inputStream, maxRecordByteCount, 0);
+        }
+
+        public RecordReader(final InputStream inputStream, final Integer maxRecordByteCount, final Integer runIndex) {
+            _inputStream = inputStream;
+            _maxRecordByteCount = maxRecordByteCount;
+            _runIndex = runIndex;
+        }
+
+        public Integer getRunIndex() {
+            return _runIndex;
+        }
+
+        /**
+         * Loads the next record; returns false once the stream has been exhausted.
+         *  A truncated trailing record is treated as the end of the stream.
+         */
+        public boolean next() throws IOException {
+            try {
+                if (! UtxoCommitmentFileSorter._readFully(_inputStream, this.record, 0, MIN_RECORD_BYTE_COUNT)) {
+                    this.recordByteCount = 0;
+                    return false;
+                }
+
+                final int variableLengthIntegerByteCount = UtxoCommitmentFileSorter._getVariableLengthIntegerByteCount(this.record[FIXED_RECORD_BYTE_COUNT]);
+                final int headerByteCount = (FIXED_RECORD_BYTE_COUNT + variableLengthIntegerByteCount);
+                UtxoCommitmentFileSorter._readFully(_inputStream, this.record, MIN_RECORD_BYTE_COUNT, (variableLengthIntegerByteCount - 1));
+
+                final long lockingScriptByteCount = UtxoCommitmentFileSorter._readVariableLengthInteger(this.record, FIXED_RECORD_BYTE_COUNT);
+                final long byteCount = (headerByteCount + lockingScriptByteCount);
+                if ( (lockingScriptByteCount < 0L) || (byteCount > _maxRecordByteCount) ) {
+                    throw new IOException("UTXO exceeds sort buffer size.");
+                }
+
+                if (this.record.length < byteCount) {
+                    final byte[] record = new byte[(int) byteCount];
+                    System.arraycopy(this.record, 0, record, 0, headerByteCount);
+                    this.record = record;
+                }
+
+                UtxoCommitmentFileSorter._readFully(_inputStream, this.record, headerByteCount, (int) lockingScriptByteCount);
+                this.recordByteCount = (int) byteCount;
+                return true;
+            }
+            catch (final EOFException exception) {
+                Logger.debug("Truncated UTXO found at end of UtxoCommitment file.");
+                this.recordByteCount = 0;
+                return false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            _inputStream.close();
+        }
+    }
+
+    protected final byte[] _runBuffer;
+    protected final int[] _recordOffsets;
+    protected final int[] _sortedRecordIndexes;
+    protected final int[] _scratchRecordIndexes;
+
+    protected void _mergeSort(final int[] recordIndexes, final int[] scratch, final int startIndex, final int endIndex) {
+        final int count = (endIndex - startIndex);
+        if (count < 2) { return; }
+
+        if (count <= 16) { // Insertion sort small ranges...
+            for (int i = (startIndex + 1); i < endIndex; ++i) {
+                final int recordIndex = recordIndexes[i];
+                final int recordOffset = _recordOffsets[recordIndex];
+                int j = (i - 1);
+                while ( (j >= startIndex) && (UtxoCommitmentFileSorter._compare(_runBuffer, _recordOffsets[recordIndexes[j]], _runBuffer, recordOffset) > 0) ) {
+                    recordIndexes[j + 1] = recordIndexes[j];
+                    j -= 1;
+                }
+                recordIndexes[j + 1] = recordIndex;
+            }
+            return;
+        }
+
+        final int middleIndex = (startIndex + (count / 2));
+        _mergeSort(recordIndexes, scratch, startIndex, middleIndex);
+        _mergeSort(recordIndexes, scratch, middleIndex, endIndex);
+
+        if (UtxoCommitmentFileSorter._compare(_runBuffer, _recordOffsets[recordIndexes[middleIndex - 1]], _runBuffer, _recordOffsets[recordIndexes[middleIndex]]) <= 0) {
+            return; // Already in order.
+        }
+
+        System.arraycopy(recordIndexes, startIndex, scratch, startIndex, count);
+        int leftIndex = startIndex;
+        int rightIndex = middleIndex;
+        int writeIndex = startIndex;
+        while ( (leftIndex < middleIndex) && (rightIndex < endIndex) ) {
+            final int leftRecordIndex = scratch[leftIndex];
+            final int rightRecordIndex = scratch[rightIndex];
+            if (UtxoCommitmentFileSorter._compare(_runBuffer, _recordOffsets[leftRecordIndex], _runBuffer, _recordOffsets[rightRecordIndex]) <= 0) {
+                recordIndexes[writeIndex] = leftRecordIndex;
+                leftIndex += 1;
+            }
+            else {
+                recordIndexes[writeIndex] = rightRecordIndex;
+                rightIndex += 1;
+            }
+            writeIndex += 1;
+        }
+        while (leftIndex < middleIndex) {
+            recordIndexes[writeIndex] = scratch[leftIndex];
+            leftIndex += 1;
+            writeIndex += 1;
+        }
+        // NOTE: Any remaining right-side indexes are already in their final position.
+    }
+
+    protected void _writeSortedRun(final int recordCount, final OutputStream outputStream) throws IOException {
+        for (int i = 0; i < recordCount; ++i) {
+            _sortedRecordIndexes[i] = i;
+        }
+        _mergeSort(_sortedRecordIndexes, _scratchRecordIndexes, 0, recordCount);
+
+        int previousOffset = -1;
+        for (int i = 0; i < recordCount; ++i) {
+            final int recordIndex = _sortedRecordIndexes[i];
+            final int offset = _recordOffsets[recordIndex];
+            if ( (previousOffset >= 0) && (UtxoCommitmentFileSorter._compare(_runBuffer, previousOffset, _runBuffer, offset) == 0) ) {
+                continue; // The sort is stable, so the first occurrence of a duplicate has already been written.
+            }
+
+            final int byteCount = (_recordOffsets[recordIndex + 1] - offset);
+            outputStream.write(_runBuffer, offset, byteCount);
+            previousOffset = offset;
+        }
+    }
+
+    protected void _merge(final List<File> runFiles, final File outputFile) throws IOException {
+        final PriorityQueue<RecordReader> recordReaders = new PriorityQueue<>(Math.max(1, runFiles.getCount()), new Comparator<RecordReader>() {
+            @Override
+            public int compare(final RecordReader recordReader0, final RecordReader recordReader1) {
+                final int compareValue = UtxoCommitmentFileSorter._compare(recordReader0.record, 0, recordReader1.record, 0);
+                if (compareValue != 0) { return compareValue; }
+                return recordReader0.getRunIndex().compareTo(recordReader1.getRunIndex()); // Earlier runs contain the earlier occurrences of duplicates...
+            }
+        });
+
+        final MutableList<RecordReader> openedRecordReaders = new MutableList<>(runFiles.getCount());
+        try {
+            for (final File runFile : runFiles) {
+                final RecordReader recordReader = new RecordReader(new BufferedInputStream(new FileInputStream(runFile), STREAM_BUFFER_BYTE_COUNT), _runBuffer.length, openedRecordReaders.getCount());
+                openedRecordReaders.add(recordReader);
+                if (recordReader.next()) {
+                    recordReaders.add(recordReader);
+                }
+            }
+
+            try (final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile), STREAM_BUFFER_BYTE_COUNT)) {
+                final byte[] previousOutputIdentifier = new byte[CommittedUnspentTransactionOutputDeflater.OUTPUT_IDENTIFIER_BYTE_COUNT];
+                boolean hasPreviousOutputIdentifier = false;
+                while (! recordReaders.isEmpty()) {
+                    final RecordReader recordReader = recordReaders.poll();
+                    final boolean isDuplicate = ( hasPreviousOutputIdentifier && (UtxoCommitmentFileSorter._compare(previousOutputIdentifier, 0, recordReader.record, 0) == 0) );
+                    if (! isDuplicate) {
+                        outputStream.write(recordReader.record, 0, recordReader.recordByteCount);
+                        System.arraycopy(recordReader.record, 0, previousOutputIdentifier, 0, previousOutputIdentifier.length);
+                        hasPreviousOutputIdentifier = true;
+                    }
+
+                    if (recordReader.next()) {
+                        recordReaders.add(recordReader);
+                    }
+                }
+                outputStream.flush();
+            }
+        }
+        finally {
+            for (final RecordReader recordReader : openedRecordReaders) {
+                recordReader.close();
+            }
+        }
+    }
+
+    protected File _writeRunFile(final File file, final int runIndex, final int recordCount) throws IOException {
+        final File runFile = new File(file.getParentFile(), file.getName() + "." + runIndex + RUN_FILE_EXTENSION);
+        try (final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(runFile), STREAM_BUFFER_BYTE_COUNT)) {
+            _writeSortedRun(recordCount, outputStream);
+            outputStream.flush();
+        }
+        return runFile;
+    }
+
+    public UtxoCommitmentFileSorter() {
+        this(DEFAULT_RUN_BYTE_COUNT);
+    }
+
+    /**
+     * Creates a sorter that holds at most runByteCount bytes of UTXOs in memory at once.
+     *  UTXOs larger than runByteCount are not supported.
+     */
+    public UtxoCommitmentFileSorter(final Integer runByteCount) {
+        final int maxRecordCount = (runByteCount / MIN_RECORD_BYTE_COUNT);
+
+        _runBuffer = new byte[runByteCount];
+        _recordOffsets = new int[maxRecordCount + 1];
+        _sortedRecordIndexes = new int[maxRecordCount];
+        _scratchRecordIndexes = new int[maxRecordCount];
+    }
+
+    /**
+     * Sorts the UTXOs within the file, replacing its contents.
+     *  Temporary run files are created alongside the file and are removed before returning.
+     */
+    public void sort(final File file) throws IOException {
+        final MutableList<File> runFiles = new MutableList<>();
+        try {
+            int recordCount = 0;
+            int byteCount = 0;
+
+            try (final RecordReader recordReader = new RecordReader(new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_BYTE_COUNT), _runBuffer.length)) {
+                while (recordReader.next()) {
+                    final int recordByteCount = recordReader.recordByteCount;
+                    if ( ((byteCount + recordByteCount) > _runBuffer.length) || (recordCount >= _sortedRecordIndexes.length) ) {
+                        final File runFile = _writeRunFile(file, runFiles.getCount(), recordCount);
+                        runFiles.add(runFile);
+
+                        recordCount = 0;
+                        byteCount = 0;
+                    }
+
+                    System.arraycopy(recordReader.record, 0, _runBuffer, byteCount, recordByteCount);
+                    _recordOffsets[recordCount] = byteCount;
+                    recordCount += 1;
+                    byteCount += recordByteCount;
+                    _recordOffsets[recordCount] = byteCount;
+                }
+            }
+
+            if (runFiles.isEmpty()) {
+                // The entire file fit within a single run; it is sorted in memory and written directly to the file.
+                try (final OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), STREAM_BUFFER_BYTE_COUNT)) {
+                    _writeSortedRun(recordCount, outputStream);
+                    outputStream.flush();
+                }
+                return;
+            }
+
+            if (recordCount > 0) {
+                final File runFile = _writeRunFile(file, runFiles.getCount(), recordCount);
+                runFiles.add(runFile);
+            }
+
+            _merge(runFiles, file);
+        }
+        finally {
+            for (final File runFile : runFiles) {
+                if (runFile.exists()) {
+                    if (! runFile.delete()) {
+                        Logger.debug("Unable to delete run file: " + runFile);
+                    }
+                }
+            }
+        }
+    }
+}
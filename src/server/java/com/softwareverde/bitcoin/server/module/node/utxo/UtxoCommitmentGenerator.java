@@ -41,26 +41,23 @@ import com.softwareverde.database.row.Row;
 import com.softwareverde.database.util.TransactionUtil;
 import com.softwareverde.logging.Logger;
 import com.softwareverde.util.ByteUtil;
-import com.softwareverde.util.Container;
-import com.softwareverde.util.Tuple;
 import com.softwareverde.util.Util;
 import com.softwareverde.util.bytearray.ByteArrayBuilder;
 import com.softwareverde.util.bytearray.Endian;
-import com.softwareverde.util.timer.MultiTimer;
 import com.softwareverde.util.timer.NanoTimer;
 
 import java.io.File;
+import java.security.MessageDigest;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class UtxoCommitmentGenerator extends PausableSleepyService {
     protected static final String STAGED_COMMITMENT_BLOCK_HEIGHT_KEY = "staged_utxo_commitment_block_height";
     protected static final Integer UTXO_COMMITMENT_BLOCK_LAG = UndoLogDatabaseManager.MAX_REORG_DEPTH;
     protected static final Long MIN_BLOCK_HEIGHT = 650000L;
+    protected static final Integer STAGED_UTXO_SCAN_BATCH_SIZE = 16384;
 
     protected final FullNodeDatabaseManagerFactory _databaseManagerFactory;
     protected final Long _publishCommitInterval = 10000L;
@@ -157,6 +154,18 @@ public class UtxoCommitmentGenerator extends PausableSleepyService {
         return (utxoHash.getByte(0) & 0x7F);
     }
 
+    /**
+     * Calculates the bucket index without intermediary allocations; equivalent to ::_calculateBucketIndex(Sha256Hash, TransactionOutputIdentifier).
+     *  The blockHash must be little-endian, and outputIdentifierBytes must be the little-endian serialized TransactionOutputIdentifier.
+     */
+    protected int _calculateBucketIndex(final byte[] blockHashLittleEndianBytes, final byte[] outputIdentifierBytes, final MessageDigest messageDigest, final byte[] digestBuffer) throws Exception {
+        messageDigest.reset();
+        messageDigest.update(blockHashLittleEndianBytes);
+        messageDigest.update(outputIdentifierBytes);
+        messageDigest.digest(digestBuffer, 0, digestBuffer.length);
+        return (digestBuffer[0] & 0x7F);
+    }
+
     protected UtxoCommitment _publishUtxoCommitment(final BlockId blockId, final Sha256Hash blockHash, final Long commitBlockHeight, final FullNodeDatabaseManager databaseManager) throws Exception {
         final UtxoCommitmentDatabaseManager utxoCommitmentDatabaseManager = databaseManager.getUtxoCommitmentDatabaseManager();
         { // Check if a UTXO commitment already exists for this blockId...
@@ -192,199 +201,80 @@ public class UtxoCommitmentGenerator extends PausableSleepyService {
         final EcMultiset utxoCommitMultiset = new EcMultiset();
         final MutableList<File> utxoCommitmentFiles = new MutableList<>(UtxoCommitment.BUCKET_COUNT);
 
-        final int batchSize = Math.min(1024, databaseManager.getMaxQueryBatchSize());
-        final AtomicInteger objectMemoryCount = new AtomicInteger(0);
-
-        final MutableList<BucketFile> bucketQueues = new MutableList<>(UtxoCommitment.BUCKET_COUNT);
+        final MutableList<BucketFile> bucketFiles = new MutableList<>(UtxoCommitment.BUCKET_COUNT);
         for (int i = 0; i < UtxoCommitment.BUCKET_COUNT; ++i) {
-            bucketQueues.add(new BucketFile(i, _outputDirectory, UtxoCommitment.MAX_BUCKET_BYTE_COUNT));
+            bucketFiles.add(new BucketFile(i, _outputDirectory, UtxoCommitment.MAX_BUCKET_BYTE_COUNT));
         }
 
         final Runtime runtime = Runtime.getRuntime();
-        final int threadCount = Math.max(1, (runtime.availableProcessors() / 2));
-        final Container<Exception> exceptionContainer = new Container<>(null);
-        final MutableList<Tuple<Thread, AtomicBoolean>> threads = new MutableList<>(threadCount);
-        for (int i = 0; i < threadCount; ++i) {
-            final int minIndex = i * (UtxoCommitment.BUCKET_COUNT / threadCount);
-            final int maxIndex;
-            if (i < (threadCount - 1)) {
-                maxIndex = (((i + 1) * (UtxoCommitment.BUCKET_COUNT / threadCount)) - 1);
-            }
-            else { // Account for bucketCount non-divisible by threadCount...
-                maxIndex = (UtxoCommitment.BUCKET_COUNT - 1);
-            }
+        final int workerCount = Math.max(1, (runtime.availableProcessors() - 1)); // Reserve one processor for the producer (this thread)...
 
-            final AtomicBoolean jobIsComplete = new AtomicBoolean(false);
-            final Thread thread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    final Thread thread = Thread.currentThread();
-                    try {
-                        while (! thread.isInterrupted()) {
-                            final NanoTimer nanoTimer = new NanoTimer();
-                            nanoTimer.start();
-
-                            int processedCount = 0;
-                            for (int i = minIndex; i <= maxIndex; ++i) {
-                                final BucketFile bucket = bucketQueues.get(i);
-                                final CommittedUnspentTransactionOutput transactionOutput = bucket.pollFromQueue();
-                                if (transactionOutput == null) { continue; }
-
-                                objectMemoryCount.decrementAndGet();
-                                bucket.addOutput(transactionOutput);
-                                processedCount += 1;
-                            }
-
-                            if (processedCount == 0) {
-                                if (jobIsComplete.get()) {
-                                    break;
-                                }
-
-                                Thread.sleep(100);
-                            }
-                            nanoTimer.stop();
-
-                            if (Logger.isTraceEnabled()) {
-                                Logger.trace(thread.getName() + " processed " + processedCount + " outputs in " + nanoTimer.getMillisecondsElapsed() + "ms.");
-                            }
-                        }
-                    }
-                    catch (final Exception exception) {
-                        exceptionContainer.value = exception;
-                        Logger.trace(exception);
-                    }
-                    finally {
-                        for (int i = minIndex; i <= maxIndex; ++i) {
-                            try {
-                                final BucketFile bucket = bucketQueues.get(i);
-                                bucket.close();
-                            }
-                            catch (final Exception exception) {
-                                Logger.debug(exception);
-                            }
-                        }
+        try (final UtxoCommitmentBucketWriter bucketWriter = new UtxoCommitmentBucketWriter(bucketFiles, workerCount)) {
+            bucketWriter.start();
 
-                        Logger.debug(thread.getName() + " exited.");
-                    }
-                }
-            });
-            thread.setName("UtxoCommitGenerator Thread " + minIndex + "-" + maxIndex);
-            thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
-                @Override
-                public void uncaughtException(final Thread thread, final Throwable exception) {
-                    Logger.debug(exception);
-                }
-            });
+            final UtxoCommitmentCore utxoCommitment = new UtxoCommitmentCore();
 
-            threads.add(new Tuple<>(thread, jobIsComplete));
-            thread.start();
-        }
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            final byte[] blockHashBytes = blockHash.toReversedEndian().getBytes();
+            final byte[] outputIdentifierBytes = new byte[CommittedUnspentTransactionOutputDeflater.OUTPUT_IDENTIFIER_BYTE_COUNT];
+            final byte[] digestBytes = new byte[Sha256Hash.BYTE_COUNT];
 
-        try {
-            final UtxoCommitmentCore utxoCommitment = new UtxoCommitmentCore();
-            TransactionOutputIdentifier previousTransactionOutputIdentifier = new TransactionOutputIdentifier(Sha256Hash.EMPTY_HASH, -1);
+            Sha256Hash previousTransactionHash = Sha256Hash.EMPTY_HASH;
+            Integer previousOutputIndex = -1;
+            long utxoCount = 0L;
 
-            while (true) {
+            while (true) { // Perform a single ordered scan of the staged UTXO set...
                 if (_shouldAbort()) { throw new DatabaseException("UTXO Commit aborted."); }
-                if (exceptionContainer.value != null) { break; }
 
                 final java.util.List<Row> rows;
                 {
                     final NanoTimer queryTimer = new NanoTimer();
                     queryTimer.start();
-                    final Sha256Hash transactionHash = previousTransactionOutputIdentifier.getTransactionHash();
-                    final Integer outputIndex = previousTransactionOutputIdentifier.getOutputIndex();
                     rows = databaseConnection.query(
-                        new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM staged_utxo_commitment WHERE (transaction_hash > ?) OR (transaction_hash = ? AND `index` > ?) ORDER BY transaction_hash ASC, `index` ASC LIMIT " + batchSize)
-                            .setParameter(transactionHash)
-                            .setParameter(transactionHash)
-                            .setParameter(outputIndex)
+                        new Query("SELECT transaction_hash, `index`, block_height, is_coinbase, amount, locking_script FROM staged_utxo_commitment WHERE (transaction_hash > ?) OR (transaction_hash = ? AND `index` > ?) ORDER BY transaction_hash ASC, `index` ASC LIMIT " + STAGED_UTXO_SCAN_BATCH_SIZE)
+                            .setParameter(previousTransactionHash)
+                            .setParameter(previousTransactionHash)
+                            .setParameter(previousOutputIndex)
                     );
                     queryTimer.stop();
                     Logger.trace("queryTimer=" + queryTimer.getMillisecondsElapsed() + "ms.");
                 }
                 if (rows.isEmpty()) { break; }
 
-                final MultiTimer bucketQueueTimer = new MultiTimer();
+                final NanoTimer bucketQueueTimer = new NanoTimer();
                 bucketQueueTimer.start();
 
                 for (final Row row : rows) {
-                    final Sha256Hash transactionHash = Sha256Hash.wrap(row.getBytes("transaction_hash"));
-                    final Integer outputIndex = row.getInteger("index");
-
-                    final Long blockHeight = row.getLong("block_height");
-                    final Boolean isCoinbase = row.getBoolean("is_coinbase");
-                    final Long amount = row.getLong("amount");
-                    final ByteArray lockingScriptBytes = ByteArray.wrap(row.getBytes("locking_script"));
-                    bucketQueueTimer.mark("row values");
-
-                    final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
-
-                    final MutableCommittedUnspentTransactionOutput committedUnspentTransactionOutput = new MutableCommittedUnspentTransactionOutput();
-                    committedUnspentTransactionOutput.setTransactionHash(transactionHash);
-                    committedUnspentTransactionOutput.setIndex(outputIndex);
-                    committedUnspentTransactionOutput.setBlockHeight(blockHeight);
-                    committedUnspentTransactionOutput.setIsCoinbase(isCoinbase);
-                    committedUnspentTransactionOutput.setAmount(amount);
-                    committedUnspentTransactionOutput.setLockingScript(lockingScriptBytes);
-                    bucketQueueTimer.mark("committedUnspentTransactionOutput inflation");
-
-                    final int bucketIndex = _calculateBucketIndex(blockHash, transactionOutputIdentifier);
-                    bucketQueueTimer.mark("calculateBucketIndex");
-                    final BucketFile bucket = bucketQueues.get(bucketIndex);
-                    bucketQueueTimer.mark("get bucket");
-                    try {
-                        bucketQueueTimer.mark("queue add");
-                        while (objectMemoryCount.get() > 16384) { // NOTE: About 1.25 MB.
-                            Thread.sleep(10); // Throttle to prevent oom...
-                            bucketQueueTimer.mark("sleep");
-                        }
+                    final byte[] transactionHash = row.getBytes("transaction_hash");
+                    final int outputIndex = row.getInteger("index");
+                    final long blockHeight = row.getLong("block_height");
+                    final boolean isCoinbase = row.getBoolean("is_coinbase");
+                    final long amount = row.getLong("amount");
+                    final byte[] lockingScript = row.getBytes("locking_script");
 
-                        bucket.addToQueue(committedUnspentTransactionOutput);
-                        objectMemoryCount.incrementAndGet();
-                        bucketQueueTimer.mark("atomic int");
-                    }
-                    catch (final InterruptedException exception) {
-                        throw new DatabaseException(exception);
-                    }
+                    CommittedUnspentTransactionOutputDeflater.writeOutputIdentifier(transactionHash, outputIndex, outputIdentifierBytes, 0);
+                    final int bucketIndex = _calculateBucketIndex(blockHashBytes, outputIdentifierBytes, messageDigest, digestBytes);
+
+                    bucketWriter.addUtxo(bucketIndex, transactionHash, outputIndex, blockHeight, isCoinbase, amount, lockingScript);
                 }
+                utxoCount += rows.size();
 
-                bucketQueueTimer.stop("end");
+                bucketQueueTimer.stop();
                 if (Logger.isTraceEnabled()) {
-                    // Logger.trace("bucketQueueTimer=" + bucketQueueTimer.getMillisecondsElapsed() + "ms, rowCount=" + rows.size() + " queue=" + objectMemoryCount.get());
-                    Logger.trace(bucketQueueTimer);
+                    Logger.trace("Queued " + rows.size() + " UTXOs in " + bucketQueueTimer.getMillisecondsElapsed() + "ms. (" + utxoCount + " total)");
                 }
 
-                { // Update the previousTransactionOutputIdentifier for the next loop...
+                { // Update the previous TransactionOutputIdentifier for the next loop...
                     final int rowCount = rows.size();
                     final Row row = rows.get(rowCount - 1);
-                    final Sha256Hash transactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
-                    final Integer outputIndex = row.getInteger("index");
-
-                    previousTransactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+                    previousTransactionHash = Sha256Hash.copyOf(row.getBytes("transaction_hash"));
+                    previousOutputIndex = row.getInteger("index");
                 }
             }
 
-            if (exceptionContainer.value != null) {
-                throw exceptionContainer.value;
-            }
+            bucketWriter.finish();
 
-            for (final Tuple<Thread, AtomicBoolean> tuple : threads) {
-                final Thread thread = tuple.first;
-                final AtomicBoolean jobsIsComplete = tuple.second;
-
-                jobsIsComplete.set(true);
-
-                try {
-                    thread.join();
-                }
-                catch (final Exception exception) {
-                    final Thread currentThread = Thread.currentThread();
-                    currentThread.interrupt();
-                }
-            }
-
-            for (final BucketFile bucket : bucketQueues) {
+            for (final BucketFile bucket : bucketFiles) {
                 final Integer bucketIndex = bucket.getIndex();
                 final PublicKey bucketPublicKey = bucket.getPublicKey();
                 final Long bucketId = utxoCommitmentDatabaseManager.createUtxoCommitmentBucket(utxoCommitmentId, bucketIndex, bucketPublicKey);
@@ -414,12 +304,6 @@ public class UtxoCommitmentGenerator extends PausableSleepyService {
 
             return utxoCommitment;
         }
-        finally {
-            for (final Tuple<Thread, AtomicBoolean> tuple : threads) {
-                final Thread thread = tuple.first;
-                thread.interrupt();
-            }
-        }
     }
 
     protected void _deleteOldUtxoCommitments(final DatabaseConnection databaseConnection) throws DatabaseException {
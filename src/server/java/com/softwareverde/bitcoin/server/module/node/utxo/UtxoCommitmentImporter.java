@@ -0,0 +1,275 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.BatchedInsertQuery;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputVisitor;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.secp256k1.EcMultiset;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.timer.NanoTimer;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports sorted UTXO commitment files directly into the committed UTXO table.
+ *  UTXOs are streamed from the files in sorted order and distributed in batches to a set of worker threads, each with
+ *  its own database connection, which write the UTXOs via binary batched inserts.  Each worker also accumulates the
+ *  multiset hash of the UTXOs it wrote, so the imported set is verified within the same pass.
+ *  The committed UTXO table is expected to be empty before the import; since the workers commit independently, a failed
+ *  import must be cleared by the caller.
+ */
+public class UtxoCommitmentImporter {
+    public static final Integer DEFAULT_BATCH_SIZE = 1024;
+    protected static final Integer BATCH_COUNT_PER_WORKER = 4;
+    protected static final MutableList<CommittedUnspentTransactionOutput> END_OF_STREAM = new MutableList<>(0);
+
+    public static class ImportResult {
+        public final EcMultiset multisetHash;
+        public final Long utxoCount;
+
+        public ImportResult(final EcMultiset multisetHash, final Long utxoCount) {
+            this.multisetHash = multisetHash;
+            this.utxoCount = utxoCount;
+        }
+    }
+
+    protected static class Worker {
+        public final ArrayBlockingQueue<MutableList<CommittedUnspentTransactionOutput>> pendingBatches = new ArrayBlockingQueue<>(BATCH_COUNT_PER_WORKER + 1);
+        public final EcMultiset multisetHash = new EcMultiset();
+        public Thread thread;
+    }
+
+    protected final DatabaseManagerFactory _databaseManagerFactory;
+    protected final Integer _workerCount;
+    protected final Integer _batchSize;
+    protected volatile Exception _exception = null;
+
+    protected void _insertUtxos(final List<CommittedUnspentTransactionOutput> utxos, final DatabaseConnection databaseConnection) throws Exception {
+        final Query batchedInsertQuery = new BatchedInsertQuery("INSERT INTO committed_unspent_transaction_outputs (transaction_hash, `index`, block_height, is_coinbase, amount, locking_script) VALUES (?, ?, ?, ?, ?, ?)");
+        for (final CommittedUnspentTransactionOutput unspentTransactionOutput : utxos) {
+            batchedInsertQuery.setParameter(unspentTransactionOutput.getTransactionHash());
+            batchedInsertQuery.setParameter(unspentTransactionOutput.getIndex());
+            batchedInsertQuery.setParameter(unspentTransactionOutput.getBlockHeight());
+            batchedInsertQuery.setParameter(unspentTransactionOutput.isCoinbase());
+            batchedInsertQuery.setParameter(unspentTransactionOutput.getAmount());
+            batchedInsertQuery.setParameter(unspentTransactionOutput.getLockingScript().getBytes());
+        }
+        databaseConnection.executeSql(batchedInsertQuery);
+    }
+
+    protected void _runWorker(final Worker worker) {
+        try (final DatabaseManager databaseManager = _databaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            final int maxBatchSize = Math.min(_batchSize, databaseManager.getMaxQueryBatchSize());
+
+            while (true) {
+                final MutableList<CommittedUnspentTransactionOutput> utxos = worker.pendingBatches.take();
+                if (utxos == END_OF_STREAM) { break; }
+
+                if (utxos.getCount() <= maxBatchSize) {
+                    _insertUtxos(utxos, databaseConnection);
+                }
+                else {
+                    final MutableList<CommittedUnspentTransactionOutput> batch = new MutableList<>(maxBatchSize);
+                    for (final CommittedUnspentTransactionOutput unspentTransactionOutput : utxos) {
+                        batch.add(unspentTransactionOutput);
+                        if (batch.getCount() >= maxBatchSize) {
+                            _insertUtxos(batch, databaseConnection);
+                            batch.clear();
+                        }
+                    }
+                    if (! batch.isEmpty()) {
+                        _insertUtxos(batch, databaseConnection);
+                    }
+                }
+
+                for (final CommittedUnspentTransactionOutput unspentTransactionOutput : utxos) {
+                    worker.multisetHash.addItem(unspentTransactionOutput.getBytes());
+                }
+            }
+        }
+        catch (final InterruptedException exception) {
+            // Nothing.
+        }
+        catch (final Exception exception) {
+            _exception = exception;
+            Logger.debug(exception);
+        }
+    }
+
+    protected void _throwIfFailed() throws Exception {
+        final Exception exception = _exception;
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    protected void _dispatchBatch(final Worker worker, final MutableList<CommittedUnspentTransactionOutput> batch) throws Exception {
+        while (! worker.pendingBatches.offer(batch, 1L, TimeUnit.SECONDS)) {
+            _throwIfFailed(); // Prevent waiting indefinitely on a failed worker...
+        }
+    }
+
+    /**
+     * An in-progress import; UTXO files may be imported as they become available (e.g. as each bucket is verified).
+     *  Each call to ImportSession::importUtxoCommitmentFiles streams its files in sorted order; the session must either
+     *  be finished via ImportSession::finish or aborted via ImportSession::close.
+     */
+    public class ImportSession implements AutoCloseable {
+        protected final NanoTimer _nanoTimer = new NanoTimer();
+        protected final UnspentTransactionOutputVisitor _unspentTransactionOutputVisitor;
+        protected final Worker[] _workers;
+        protected MutableList<CommittedUnspentTransactionOutput> _currentBatch = new MutableList<>(_batchSize);
+        protected int _nextWorkerIndex = 0;
+        protected long _utxoCount = 0L;
+        protected int _fileCount = 0;
+        protected boolean _isFinished = false;
+
+        protected void _dispatchCurrentBatch() throws Exception {
+            final Worker worker = _workers[_nextWorkerIndex];
+            _nextWorkerIndex = ((_nextWorkerIndex + 1) % _workers.length);
+
+            _dispatchBatch(worker, _currentBatch);
+            _currentBatch = new MutableList<>(_batchSize);
+        }
+
+        protected ImportSession(final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) {
+            _nanoTimer.start();
+            _unspentTransactionOutputVisitor = unspentTransactionOutputVisitor;
+
+            _workers = new Worker[_workerCount];
+            for (int i = 0; i < _workers.length; ++i) {
+                final Worker worker = new Worker();
+                worker.thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        _runWorker(worker);
+                    }
+                });
+                worker.thread.setName("UtxoCommitmentImporter Thread " + i);
+                worker.thread.setDaemon(true);
+                worker.thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+                    @Override
+                    public void uncaughtException(final Thread thread, final Throwable exception) {
+                        Logger.debug(exception);
+                    }
+                });
+                _workers[i] = worker;
+            }
+
+            for (final Worker worker : _workers) {
+                worker.thread.start();
+            }
+        }
+
+        /**
+         * Imports the UTXOs within the provided (individually sorted) files.
+         *  The visitor, if provided, is invoked for each UTXO in sorted order (relative to the provided files) from the calling thread.
+         */
+        public void importUtxoCommitmentFiles(final List<File> utxoCommitmentFiles) throws Exception {
+            _throwIfFailed();
+
+            UtxoCommitmentLoader.visitSortedUtxos(utxoCommitmentFiles, new UtxoCommitmentLoader.SortedUtxoVisitor() {
+                @Override
+                public void run(final CommittedUnspentTransactionOutput committedUnspentTransactionOutput) throws Exception {
+                    _currentBatch.add(committedUnspentTransactionOutput);
+                    _utxoCount += 1L;
+
+                    if (_unspentTransactionOutputVisitor != null) {
+                        final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(committedUnspentTransactionOutput.getTransactionHash(), committedUnspentTransactionOutput.getIndex());
+                        _unspentTransactionOutputVisitor.run(transactionOutputIdentifier, committedUnspentTransactionOutput);
+                    }
+
+                    if (_currentBatch.getCount() >= _batchSize) {
+                        _dispatchCurrentBatch();
+                    }
+                }
+            });
+
+            _fileCount += utxoCommitmentFiles.getCount();
+        }
+
+        public Long getUtxoCount() {
+            return _utxoCount;
+        }
+
+        /**
+         * Waits for all UTXOs to be written and returns the combined multiset hash of all imported UTXOs.
+         */
+        public ImportResult finish() throws Exception {
+            if (! _currentBatch.isEmpty()) {
+                _dispatchCurrentBatch();
+            }
+
+            for (final Worker worker : _workers) {
+                _dispatchBatch(worker, END_OF_STREAM);
+            }
+
+            for (final Worker worker : _workers) {
+                worker.thread.join();
+            }
+            _throwIfFailed();
+            _isFinished = true;
+
+            final EcMultiset multisetHash = new EcMultiset();
+            for (final Worker worker : _workers) {
+                multisetHash.add(worker.multisetHash);
+            }
+
+            _nanoTimer.stop();
+            Logger.debug("Imported " + _utxoCount + " UTXOs from " + _fileCount + " files in " + _nanoTimer.getMillisecondsElapsed() + "ms.");
+
+            return new ImportResult(multisetHash, _utxoCount);
+        }
+
+        /**
+         * Aborts the import if it was not finished.
+         */
+        @Override
+        public void close() {
+            if (_isFinished) { return; }
+
+            for (final Worker worker : _workers) {
+                worker.thread.interrupt();
+            }
+        }
+    }
+
+    public UtxoCommitmentImporter(final DatabaseManagerFactory databaseManagerFactory) {
+        this(databaseManagerFactory, Math.max(1, (Runtime.getRuntime().availableProcessors() / 2)), DEFAULT_BATCH_SIZE);
+    }
+
+    public UtxoCommitmentImporter(final DatabaseManagerFactory databaseManagerFactory, final Integer workerCount, final Integer batchSize) {
+        _databaseManagerFactory = databaseManagerFactory;
+        _workerCount = Math.max(1, workerCount);
+        _batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Starts a new import session.  Only one session may be active per UtxoCommitmentImporter at a time.
+     *  The unspentTransactionOutputVisitor, if provided, is invoked for each UTXO from the importing thread.
+     */
+    public ImportSession startImport(final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) {
+        _exception = null;
+        return new ImportSession(unspentTransactionOutputVisitor);
+    }
+
+    /**
+     * Imports the UTXOs within the provided (individually sorted) files into the committed UTXO table.
+     *  The unspentTransactionOutputVisitor, if provided, is invoked for each UTXO in sorted order from the calling thread.
+     *  Returns the combined multiset hash of all imported UTXOs, which should be compared against the expected commitment.
+     */
+    public ImportResult importUtxoCommitmentFiles(final List<File> utxoCommitmentFiles, final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) throws Exception {
+        try (final ImportSession importSession = this.startImport(unspentTransactionOutputVisitor)) {
+            importSession.importUtxoCommitmentFiles(utxoCommitmentFiles);
+            return importSession.finish();
+        }
+    }
+}
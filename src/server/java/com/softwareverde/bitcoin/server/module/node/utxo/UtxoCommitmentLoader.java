@@ -13,8 +13,10 @@ import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.cryptography.secp256k1.EcMultiset;
 import com.softwareverde.logging.Logger;
+import com.softwareverde.util.Container;
 import com.softwareverde.util.StringUtil;
 import com.softwareverde.util.Util;
+import com.softwareverde.util.bytearray.ByteArrayReader;
 import com.softwareverde.util.bytearray.ByteArrayStream;
 import com.softwareverde.util.timer.NanoTimer;
 
@@ -69,15 +71,18 @@ public class UtxoCommitmentLoader {
         }
     }
 
-    public void createLoadFile(final List<File> utxoCommitmentFiles, final File outputLoadFile, final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) throws Exception {
-        final CommittedUnspentTransactionOutputInflater committedUnspentTransactionOutputInflater = new CommittedUnspentTransactionOutputInflater();
+    protected interface SortedUtxoVisitor {
+        void run(CommittedUnspentTransactionOutput committedUnspentTransactionOutput) throws Exception;
+    }
 
-        final NanoTimer nanoTimer = new NanoTimer();
-        nanoTimer.start();
+    /**
+     * Merges the UTXOs within the provided (individually sorted) files, visiting each UTXO in sorted order.
+     */
+    protected static void visitSortedUtxos(final List<File> utxoCommitmentFiles, final SortedUtxoVisitor visitor) throws Exception {
+        final CommittedUnspentTransactionOutputInflater committedUnspentTransactionOutputInflater = new CommittedUnspentTransactionOutputInflater();
 
         final MutableList<ReadAheadUtxoInflater> utxoInflaters = new MutableList<>(utxoCommitmentFiles.getCount());
-        long bytesWrittenCount = 0L;
-        try (final FileOutputStream fileOutputStream = new FileOutputStream(outputLoadFile)) {
+        try {
             for (final File inputFile : utxoCommitmentFiles) {
                 final FileInputStream fileInputStream = new FileInputStream(inputFile);
 
@@ -104,56 +109,71 @@ public class UtxoCommitmentLoader {
                 }
                 if (committedUnspentTransactionOutput == null) { break; }
 
-                // transaction_hash BINARY(32) NOT NULL
-                // `index` INT UNSIGNED NOT NULL
-                // block_height INT UNSIGNED NOT NULL
-                // is_coinbase TINYINT(1) NOT NULL DEFAULT 0
-                // amount BIGINT NOT NULL
-                // locking_script BLOB NOT NULL
-
-                final String separator = "\t";
-
-                final Sha256Hash transactionHash = committedUnspentTransactionOutput.getTransactionHash();
-                final Integer outputIndex = committedUnspentTransactionOutput.getIndex();
-                final Long blockHeight = committedUnspentTransactionOutput.getBlockHeight();
-                final Boolean isCoinbase = committedUnspentTransactionOutput.isCoinbase();
-                final Long amount = committedUnspentTransactionOutput.getAmount();
-                final LockingScript lockingScript = committedUnspentTransactionOutput.getLockingScript();
-
-                final StringBuilder stringBuilder = new StringBuilder();
-                stringBuilder.append(transactionHash);
-                stringBuilder.append(separator);
-                stringBuilder.append(outputIndex);
-                stringBuilder.append(separator);
-                stringBuilder.append(blockHeight);
-                stringBuilder.append(separator);
-                stringBuilder.append(isCoinbase ? "1" : "0");
-                stringBuilder.append(separator);
-                stringBuilder.append(amount);
-                stringBuilder.append(separator);
-                stringBuilder.append(lockingScript);
-                stringBuilder.append(System.lineSeparator());
-
-                final byte[] bytes = StringUtil.stringToBytes(stringBuilder.toString());
-                fileOutputStream.write(bytes);
-                bytesWrittenCount += bytes.length;
-
-                if (unspentTransactionOutputVisitor != null) {
-                    final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
-                    unspentTransactionOutputVisitor.run(transactionOutputIdentifier, committedUnspentTransactionOutput);
-                }
+                visitor.run(committedUnspentTransactionOutput);
             }
-
-            fileOutputStream.flush();
         }
         finally {
             for (final ReadAheadUtxoInflater readAheadUtxoInflater : utxoInflaters) {
                 readAheadUtxoInflater.close();
             }
         }
+    }
+
+    public void createLoadFile(final List<File> utxoCommitmentFiles, final File outputLoadFile, final UnspentTransactionOutputVisitor unspentTransactionOutputVisitor) throws Exception {
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
+
+        final Container<Long> bytesWrittenCount = new Container<>(0L);
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(outputLoadFile)) {
+            UtxoCommitmentLoader.visitSortedUtxos(utxoCommitmentFiles, new SortedUtxoVisitor() {
+                @Override
+                public void run(final CommittedUnspentTransactionOutput committedUnspentTransactionOutput) throws Exception {
+                    // transaction_hash BINARY(32) NOT NULL
+                    // `index` INT UNSIGNED NOT NULL
+                    // block_height INT UNSIGNED NOT NULL
+                    // is_coinbase TINYINT(1) NOT NULL DEFAULT 0
+                    // amount BIGINT NOT NULL
+                    // locking_script BLOB NOT NULL
+
+                    final String separator = "\t";
+
+                    final Sha256Hash transactionHash = committedUnspentTransactionOutput.getTransactionHash();
+                    final Integer outputIndex = committedUnspentTransactionOutput.getIndex();
+                    final Long blockHeight = committedUnspentTransactionOutput.getBlockHeight();
+                    final Boolean isCoinbase = committedUnspentTransactionOutput.isCoinbase();
+                    final Long amount = committedUnspentTransactionOutput.getAmount();
+                    final LockingScript lockingScript = committedUnspentTransactionOutput.getLockingScript();
+
+                    final StringBuilder stringBuilder = new StringBuilder();
+                    stringBuilder.append(transactionHash);
+                    stringBuilder.append(separator);
+                    stringBuilder.append(outputIndex);
+                    stringBuilder.append(separator);
+                    stringBuilder.append(blockHeight);
+                    stringBuilder.append(separator);
+                    stringBuilder.append(isCoinbase ? "1" : "0");
+                    stringBuilder.append(separator);
+                    stringBuilder.append(amount);
+                    stringBuilder.append(separator);
+                    stringBuilder.append(lockingScript);
+                    stringBuilder.append(System.lineSeparator());
+
+                    final byte[] bytes = StringUtil.stringToBytes(stringBuilder.toString());
+                    fileOutputStream.write(bytes);
+                    bytesWrittenCount.value += bytes.length;
+
+                    if (unspentTransactionOutputVisitor != null) {
+                        final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, outputIndex);
+                        unspentTransactionOutputVisitor.run(transactionOutputIdentifier, committedUnspentTransactionOutput);
+                    }
+                }
+            });
+
+            fileOutputStream.flush();
+        }
 
         nanoTimer.stop();
-        Logger.trace("Wrote " + bytesWrittenCount + " in " + nanoTimer.getMillisecondsElapsed() + "ms.");
+        Logger.trace("Wrote " + bytesWrittenCount.value + " in " + nanoTimer.getMillisecondsElapsed() + "ms.");
     }
 
     public void loadFile(final File loadFile, final DatabaseConnection databaseConnection) throws Exception {
@@ -180,6 +200,60 @@ public class UtxoCommitmentLoader {
         }
     }
 
+    /**
+     * Calculates the MultisetHash of the Committed UTXOs provided by the byteArrayReader.
+     *  If enableMultiThread is true then the calculation will be ran in parallel across all available processors, but
+     *  all UTXOs will be inflated into memory before being hashed.
+     */
+    protected CalculateMultisetHashResult _calculateMultisetHash(final ByteArrayReader byteArrayReader, final Boolean enableMultiThread) throws Exception {
+        final CommittedUnspentTransactionOutputInflater utxoInflater = new CommittedUnspentTransactionOutputInflater();
+
+        TransactionOutputIdentifier minOutputIdentifier = TransactionOutputIdentifier.COINBASE;
+
+        int utxoCount = 0;
+        final EcMultiset multisetHash = new EcMultiset();
+        final MutableList<ByteArray> byteArrays = new MutableList<>();
+        while (true) {
+            final CommittedUnspentTransactionOutput unspentTransactionOutput = utxoInflater.fromByteArrayReader(byteArrayReader);
+            if (unspentTransactionOutput == null) { break; }
+            // Check if the set is sorted.
+            if (minOutputIdentifier != null) { // NOTE: Once/if the set is determined to be NOT sorted, this check is disabled.
+                final boolean isInSortedOrder = (CommittedUnspentTransactionOutput.compare(minOutputIdentifier, unspentTransactionOutput) <= 0);
+                if (! isInSortedOrder) {
+                    minOutputIdentifier = null;
+                }
+            }
+
+            final ByteArray unspentTransactionOutputBytes = unspentTransactionOutput.getBytes();
+            if (enableMultiThread) {
+                byteArrays.add(unspentTransactionOutputBytes);
+            }
+            else {
+                multisetHash.addItem(unspentTransactionOutputBytes);
+            }
+
+            utxoCount += 1;
+        }
+
+        if (enableMultiThread) {
+            final Runtime runtime = Runtime.getRuntime();
+            final int threadCount = Math.max(1, (runtime.availableProcessors() / 2));
+            final int batchSize = (int) Math.ceil(((double) byteArrays.getCount()) / threadCount);
+            final BatchRunner<ByteArray> batchRunner = new BatchRunner<>(Math.max(1, batchSize), true);
+            batchRunner.run(byteArrays, new BatchRunner.Batch<ByteArray>() {
+                @Override
+                public void run(final List<ByteArray> batchItems) {
+                    for (final ByteArray byteArray : batchItems) {
+                        multisetHash.addItem(byteArray);
+                    }
+                }
+            });
+        }
+
+        final boolean isSorted = (minOutputIdentifier != null);
+        return new CalculateMultisetHashResult(multisetHash, utxoCount, isSorted);
+    }
+
     public CalculateMultisetHashResult calculateMultisetHash(final File file) {
         return this.calculateMultisetHash(file, true);
     }
@@ -203,63 +277,49 @@ public class UtxoCommitmentLoader {
             return null;
         }
 
-        final CommittedUnspentTransactionOutputInflater utxoInflater = new CommittedUnspentTransactionOutputInflater();
-
-        TransactionOutputIdentifier minOutputIdentifier = TransactionOutputIdentifier.COINBASE;
-
-        int utxoCount = 0;
-        final EcMultiset multisetHash = new EcMultiset();
+        final CalculateMultisetHashResult calculateMultisetHashResult;
         try (final ByteArrayStream byteArrayStream = new ByteArrayStream()) {
             final FileInputStream inputStream = new FileInputStream(file);
             byteArrayStream.appendInputStream(inputStream);
 
-            final MutableList<ByteArray> byteArrays = new MutableList<>();
-            while (true) {
-                final CommittedUnspentTransactionOutput unspentTransactionOutput = utxoInflater.fromByteArrayReader(byteArrayStream);
-                if (unspentTransactionOutput == null) { break; }
-                // Check if the set is sorted.
-                if (minOutputIdentifier != null) { // NOTE: Once/if the set is determined to be NOT sorted, this check is disabled.
-                    final boolean isInSortedOrder = (CommittedUnspentTransactionOutput.compare(minOutputIdentifier, unspentTransactionOutput) <= 0);
-                    if (! isInSortedOrder) {
-                        minOutputIdentifier = null;
-                    }
-                }
+            calculateMultisetHashResult = _calculateMultisetHash(byteArrayStream, enableMultiThread);
+        }
+        catch (final Exception exception) {
+            Logger.debug("Unable to access loadFile: " + filePath);
+            return null;
+        }
 
-                final ByteArray unspentTransactionOutputBytes = unspentTransactionOutput.getBytes();
-                if (enableMultiThread) {
-                    byteArrays.add(unspentTransactionOutputBytes);
-                }
-                else {
-                    multisetHash.addItem(unspentTransactionOutputBytes);
-                }
+        nanoTimer.stop();
+        Logger.trace("Calculated MultisetHash of " + file + ", containing " + calculateMultisetHashResult.utxoCount + " UTXOs, in " + nanoTimer.getMillisecondsElapsed() + "ms. " + calculateMultisetHashResult.multisetHash.getHash());
 
-                utxoCount += 1;
-            }
+        return calculateMultisetHashResult;
+    }
 
-            if (enableMultiThread) {
-                final Runtime runtime = Runtime.getRuntime();
-                final int threadCount = Math.max(1, (runtime.availableProcessors() / 2));
-                final int batchSize = (int) Math.ceil(((double) byteArrays.getCount()) / threadCount);
-                final BatchRunner<ByteArray> batchRunner = new BatchRunner<>(batchSize, true);
-                batchRunner.run(byteArrays, new BatchRunner.Batch<ByteArray>() {
-                    @Override
-                    public void run(final List<ByteArray> batchItems) {
-                        for (final ByteArray byteArray : batchItems) {
-                            multisetHash.addItem(byteArray);
-                        }
-                    }
-                });
-            }
+    public CalculateMultisetHashResult calculateMultisetHash(final ByteArray utxoCommitmentBytes) {
+        return this.calculateMultisetHash(utxoCommitmentBytes, true);
+    }
+
+    /**
+     * Calculates the MultisetHash of the serialized Committed UTXOs directly from memory, as they were received.
+     *  Callers that already hash multiple buckets concurrently should disable enableMultiThread.
+     */
+    public CalculateMultisetHashResult calculateMultisetHash(final ByteArray utxoCommitmentBytes, final Boolean enableMultiThread) {
+        final NanoTimer nanoTimer = new NanoTimer();
+        nanoTimer.start();
+
+        final CalculateMultisetHashResult calculateMultisetHashResult;
+        try {
+            final ByteArrayReader byteArrayReader = new ByteArrayReader(utxoCommitmentBytes);
+            calculateMultisetHashResult = _calculateMultisetHash(byteArrayReader, enableMultiThread);
         }
         catch (final Exception exception) {
-            Logger.debug("Unable to access loadFile: " + filePath);
+            Logger.debug(exception);
             return null;
         }
 
         nanoTimer.stop();
-        Logger.trace("Calculated MultisetHash of " + file + ", containing " + utxoCount + " UTXOs, in " + nanoTimer.getMillisecondsElapsed() + "ms. " + multisetHash.getHash());
+        Logger.trace("Calculated MultisetHash of " + utxoCommitmentBytes.getByteCount() + " bytes, containing " + calculateMultisetHashResult.utxoCount + " UTXOs, in " + nanoTimer.getMillisecondsElapsed() + "ms. " + calculateMultisetHashResult.multisetHash.getHash());
 
-        final boolean isSorted = (minOutputIdentifier != null);
-        return new CalculateMultisetHashResult(multisetHash, utxoCount, isSorted);
+        return calculateMultisetHashResult;
     }
 }
@@ -2,6 +2,7 @@ package com.softwareverde.bitcoin.transaction.validator;
 
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UndoLogDatabaseManager;
 import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
 import com.softwareverde.bitcoin.transaction.Transaction;
 import com.softwareverde.bitcoin.transaction.input.TransactionInput;
@@ -10,11 +11,13 @@ import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.constable.list.List;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.database.DatabaseException;
 import com.softwareverde.logging.Logger;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 
 public class UtxoUndoLog {
     protected final FullNodeDatabaseManager _databaseManager;
@@ -25,10 +28,14 @@ public class UtxoUndoLog {
         _databaseManager = databaseManager;
     }
 
-    public void undoBlock(final Block block) throws DatabaseException {
-        Logger.debug("Undoing Block: " + block.getHash());
+    public void undoBlock(final Block block, final Long blockHeight) throws DatabaseException {
+        final Sha256Hash blockHash = block.getHash();
+        Logger.debug("Undoing Block: " + blockHash);
         final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _databaseManager.getUnspentTransactionOutputDatabaseManager();
 
+        final UndoLogDatabaseManager undoLogDatabaseManager = new UndoLogDatabaseManager(_databaseManager);
+        final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = undoLogDatabaseManager.getUndoLog(blockHeight, blockHash);
+
         final List<Transaction> transactions = block.getTransactions();
         boolean isCoinbase = true;
         for (final Transaction transaction : transactions) {
@@ -36,7 +43,8 @@ public class UtxoUndoLog {
                 final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
                 for (final TransactionInput transactionInput : transactionInputs) {
                     final TransactionOutputIdentifier transactionOutputIdentifier = TransactionOutputIdentifier.fromTransactionInput(transactionInput);
-                    final UnspentTransactionOutput unspentTransactionOutput = unspentTransactionOutputDatabaseManager.findOutputData(transactionOutputIdentifier);
+                    final UnspentTransactionOutput spentTransactionOutput = (spentTransactionOutputs != null ? spentTransactionOutputs.get(transactionOutputIdentifier) : null);
+                    final UnspentTransactionOutput unspentTransactionOutput = (spentTransactionOutput != null ? spentTransactionOutput : unspentTransactionOutputDatabaseManager.findOutputData(transactionOutputIdentifier));
                     if (unspentTransactionOutput == null) {
                         throw new DatabaseException("Unable to find Output: " + transactionOutputIdentifier);
                     }
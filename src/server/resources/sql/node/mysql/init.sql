@@ -311,6 +311,27 @@ CREATE TABLE indexed_transaction_inputs (
     INDEX indexed_transaction_inputs_prevout_ix (spends_transaction_id, spends_output_index) USING BTREE
 ) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
 
+CREATE TABLE indexed_script_hash_balances (
+    script_hash BINARY(32) NOT NULL,
+    balance BIGINT NOT NULL,
+    unspent_output_count INT NOT NULL,
+    PRIMARY KEY (script_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
+CREATE TABLE indexed_unspent_transaction_outputs (
+    transaction_id INT UNSIGNED NOT NULL,
+    output_index INT UNSIGNED NOT NULL,
+    script_hash BINARY(32) NOT NULL,
+    amount BIGINT UNSIGNED NOT NULL,
+    PRIMARY KEY (transaction_id, output_index),
+    INDEX indexed_unspent_transaction_outputs_script_hash (script_hash) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
+CREATE TABLE indexed_script_hash_balances_head_block (
+    block_id INT UNSIGNED NOT NULL,
+    PRIMARY KEY (block_id)
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
 CREATE TABLE validated_slp_transactions (
     id INT UNSIGNED NOT NULL AUTO_INCREMENT,
     transaction_id INT UNSIGNED NOT NULL,
@@ -336,4 +357,4 @@ CREATE TABLE properties (
     PRIMARY KEY (`key`)
 ) ENGINE=InnoDB DEFAULT CHARSET=UTF8MB4;
 
-INSERT INTO metadata (version, timestamp) VALUES (10, UNIX_TIMESTAMP());
+INSERT INTO metadata (version, timestamp) VALUES (11, UNIX_TIMESTAMP());
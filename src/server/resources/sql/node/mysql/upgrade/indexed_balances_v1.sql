@@ -0,0 +1,20 @@
+CREATE TABLE indexed_script_hash_balances (
+    script_hash BINARY(32) NOT NULL,
+    balance BIGINT NOT NULL,
+    unspent_output_count INT NOT NULL,
+    PRIMARY KEY (script_hash)
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
+CREATE TABLE indexed_unspent_transaction_outputs (
+    transaction_id INT UNSIGNED NOT NULL,
+    output_index INT UNSIGNED NOT NULL,
+    script_hash BINARY(32) NOT NULL,
+    amount BIGINT UNSIGNED NOT NULL,
+    PRIMARY KEY (transaction_id, output_index),
+    INDEX indexed_unspent_transaction_outputs_script_hash (script_hash) USING BTREE
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
+
+CREATE TABLE indexed_script_hash_balances_head_block (
+    block_id INT UNSIGNED NOT NULL,
+    PRIMARY KEY (block_id)
+) ENGINE=InnoDB DEFAULT CHARSET=LATIN1;
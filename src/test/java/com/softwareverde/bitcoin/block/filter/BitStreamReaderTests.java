@@ -0,0 +1,53 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitStreamReaderTests extends UnitTest {
+    @Test
+    public void should_read_values_written_across_word_boundaries() {
+        // Setup
+        final BitStreamWriter bitStreamWriter = new BitStreamWriter();
+        for (int i = 0; i < 200; ++i) {
+            bitStreamWriter.writeUnary(i % 70);
+            bitStreamWriter.writeBits((i * 0x9E3779B97F4A7C15L) >>> 45, 19);
+        }
+        bitStreamWriter.writeBits(0xFEDCBA9876543210L, 64);
+        final byte[] bytes = bitStreamWriter.toBytes().getBytes();
+
+        final BitStreamReader bitStreamReader = new BitStreamReader(bytes, 0);
+        final long[] unaryValues = new long[200];
+        final long[] fixedWidthValues = new long[200];
+
+        // Action
+        for (int i = 0; i < 200; ++i) {
+            unaryValues[i] = bitStreamReader.readUnary();
+            fixedWidthValues[i] = bitStreamReader.readBits(19);
+        }
+        final long trailingValue = bitStreamReader.readBits(64);
+
+        // Assert
+        for (int i = 0; i < 200; ++i) {
+            Assert.assertEquals((long) (i % 70), unaryValues[i]);
+            Assert.assertEquals(((i * 0x9E3779B97F4A7C15L) >>> 45), fixedWidthValues[i]);
+        }
+        Assert.assertEquals(0xFEDCBA9876543210L, trailingValue);
+        Assert.assertFalse(bitStreamReader.didOverflow());
+    }
+
+    @Test
+    public void should_flag_overflow_when_reading_beyond_the_end() {
+        // Setup
+        final byte[] bytes = new byte[] { (byte) 0x00, (byte) 0xFF, (byte) 0xFF };
+        final BitStreamReader bitStreamReader = new BitStreamReader(bytes, 1);
+
+        // Action
+        final long value = bitStreamReader.readUnary();
+
+        // Assert
+        Assert.assertEquals(16L, value);
+        Assert.assertTrue(bitStreamReader.didOverflow());
+        Assert.assertEquals(0L, bitStreamReader.readBits(8));
+    }
+}
@@ -0,0 +1,121 @@
+package com.softwareverde.bitcoin.block.filter;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class GolombCodedSetTests extends UnitTest {
+    protected static final Sha256Hash TESTNET_GENESIS_BLOCK_HASH = Sha256Hash.fromHexString("000000000933EA01AD0EE984209779BAAEC3CED90FA3F408719526F8D77F4943");
+
+    protected static ByteArray createItem(final int value) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(25);
+        byteBuffer.putInt(value);
+        byteBuffer.putLong(value * 31L);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_build_bip158_testnet_genesis_filter() {
+        // Setup
+        final ByteArray coinbaseOutputScript = ByteArray.fromHexString("4104678AFDB0FE5548271967F1A67130B7105CD6A828E03909A67962E0EA1F61DEB649F6BC3F4CEF38C4F35504E51EC112DE5C384DF7BA0B8D578A4C702B6BF11D5FAC");
+        final MutableList<ByteArray> items = new MutableList<>();
+        items.add(coinbaseOutputScript);
+
+        final BlockFilterType filterType = BlockFilterType.BASIC;
+        final ByteArray key = BlockFilter.getKey(TESTNET_GENESIS_BLOCK_HASH);
+
+        // Action
+        final GolombCodedSet golombCodedSet = GolombCodedSet.build(key, items, filterType.p, filterType.m);
+        final Sha256Hash filterHash = BlockFilter.calculateFilterHash(golombCodedSet.getBytes());
+        final Sha256Hash filterHeader = BlockFilter.calculateFilterHeader(filterHash, Sha256Hash.EMPTY_HASH);
+
+        // Assert
+        Assert.assertEquals(ByteArray.fromHexString("019DFCA8"), golombCodedSet.getBytes());
+        Assert.assertEquals(Sha256Hash.fromHexString("21584579B7EB08997773E5AEFF3A7F932700042D0ED2A6129012B7D7AE81B750"), filterHeader);
+        Assert.assertTrue(golombCodedSet.matches(coinbaseOutputScript));
+    }
+
+    @Test
+    public void should_match_every_item_after_inflation() {
+        // Setup
+        final BlockFilterType filterType = BlockFilterType.BASIC;
+        final ByteArray key = BlockFilter.getKey(TESTNET_GENESIS_BLOCK_HASH);
+
+        final MutableList<ByteArray> items = new MutableList<>();
+        for (int i = 0; i < 1000; ++i) {
+            items.add(GolombCodedSetTests.createItem(i));
+        }
+        items.add(GolombCodedSetTests.createItem(7)); // Duplicate items are only encoded once...
+
+        final GolombCodedSet golombCodedSet = GolombCodedSet.build(key, items, filterType.p, filterType.m);
+
+        // Action
+        final GolombCodedSet inflatedGolombCodedSet = GolombCodedSet.fromBytes(key, golombCodedSet.getBytes(), filterType.p, filterType.m);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(1000L), inflatedGolombCodedSet.getItemCount());
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertTrue(inflatedGolombCodedSet.matches(GolombCodedSetTests.createItem(i)));
+        }
+    }
+
+    @Test
+    public void should_match_any_when_only_one_item_is_within_the_set() {
+        // Setup
+        final BlockFilterType filterType = BlockFilterType.BASIC;
+        final ByteArray key = BlockFilter.getKey(TESTNET_GENESIS_BLOCK_HASH);
+
+        final MutableList<ByteArray> items = new MutableList<>();
+        for (int i = 0; i < 100; ++i) {
+            items.add(GolombCodedSetTests.createItem(i));
+        }
+        final GolombCodedSet golombCodedSet = GolombCodedSet.build(key, items, filterType.p, filterType.m);
+
+        final MutableList<ByteArray> matchingQuery = new MutableList<>();
+        final MutableList<ByteArray> nonMatchingQuery = new MutableList<>();
+        for (int i = 1000; i < 1010; ++i) {
+            matchingQuery.add(GolombCodedSetTests.createItem(i));
+            nonMatchingQuery.add(GolombCodedSetTests.createItem(i));
+        }
+        matchingQuery.add(GolombCodedSetTests.createItem(42));
+
+        // Action
+        final Boolean matchingQueryMatches = golombCodedSet.matchesAny(matchingQuery);
+        final Boolean nonMatchingQueryMatches = golombCodedSet.matchesAny(nonMatchingQuery);
+
+        // Assert
+        Assert.assertTrue(matchingQueryMatches);
+        Assert.assertFalse(nonMatchingQueryMatches);
+    }
+
+    @Test
+    public void should_not_match_anything_when_empty() {
+        // Setup
+        final BlockFilterType filterType = BlockFilterType.BASIC;
+        final ByteArray key = BlockFilter.getKey(TESTNET_GENESIS_BLOCK_HASH);
+
+        // Action
+        final GolombCodedSet golombCodedSet = GolombCodedSet.build(key, new MutableList<ByteArray>(), filterType.p, filterType.m);
+
+        // Assert
+        Assert.assertEquals(ByteArray.fromHexString("00"), golombCodedSet.getBytes());
+        Assert.assertFalse(golombCodedSet.matches(GolombCodedSetTests.createItem(0)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.softwareverde.bitcoin.server.memory;
+
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputDatabaseManager;
+import com.softwareverde.bitcoin.test.UnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemoryGovernorTests extends UnitTest {
+    @After @Override
+    public void after() throws Exception {
+        UnspentTransactionOutputDatabaseManager.setGovernedMaxUtxoCount(null);
+        super.after();
+    }
+
+    @Test
+    public void should_exclude_utxo_cache_from_retained_heap_when_calculating_budget() {
+        // Setup
+        final Long maxHeapByteCount = 1000L;
+        final Long retainedHeapByteCount = 700L;
+        final Long utxoCacheByteCount = 400L;
+
+        // Action
+        final Long byteBudget = MemoryGovernor.calculateUtxoCacheByteBudget(maxHeapByteCount, retainedHeapByteCount, utxoCacheByteCount, 0.75F, 10L, 1000L);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(450L), byteBudget); // (1000 * 0.75) - (700 - 400)
+    }
+
+    @Test
+    public void should_bound_budget_by_min_and_max() {
+        // Setup
+        final Long minByteBudget = 100L;
+        final Long maxByteBudget = 500L;
+
+        // Action
+        final Long exhaustedByteBudget = MemoryGovernor.calculateUtxoCacheByteBudget(1000L, 990L, 0L, 0.75F, minByteBudget, maxByteBudget);
+        final Long idleByteBudget = MemoryGovernor.calculateUtxoCacheByteBudget(1000L, 0L, 0L, 0.75F, minByteBudget, maxByteBudget);
+
+        // Assert
+        Assert.assertEquals(minByteBudget, exhaustedByteBudget);
+        Assert.assertEquals(maxByteBudget, idleByteBudget);
+    }
+
+    @Test
+    public void should_shrink_immediately_and_grow_gradually() {
+        // Setup
+        final Long currentByteBudget = 1000L;
+
+        // Action
+        final Long shrunkByteBudget = MemoryGovernor.calculateNextUtxoCacheByteBudget(currentByteBudget, 200L, 0.10F);
+        final Long grownByteBudget = MemoryGovernor.calculateNextUtxoCacheByteBudget(currentByteBudget, 5000L, 0.10F);
+        final Long nearlyGrownByteBudget = MemoryGovernor.calculateNextUtxoCacheByteBudget(currentByteBudget, 1050L, 0.10F);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(200L), shrunkByteBudget);
+        Assert.assertEquals(Long.valueOf(1100L), grownByteBudget);
+        Assert.assertEquals(Long.valueOf(1050L), nearlyGrownByteBudget);
+    }
+
+    @Test
+    public void should_govern_an_unrestricted_budget_to_the_configured_utxo_count() {
+        // Setup
+        final Long maxUtxoCacheByteCount = (1024L * 1024L * 1024L);
+        final Long configuredMaxUtxoCount = ((maxUtxoCacheByteCount / 2L) / UnspentTransactionOutputDatabaseManager.BYTES_PER_UTXO); // Consistent with BitcoinProperties::getMaxCachedUtxoCount.
+        final MemoryGovernor memoryGovernor = new MemoryGovernor(null, maxUtxoCacheByteCount, 0.5F);
+
+        // Action
+        memoryGovernor._setUtxoCacheByteBudget(maxUtxoCacheByteCount);
+
+        // Assert
+        Assert.assertEquals(configuredMaxUtxoCount, UnspentTransactionOutputDatabaseManager.getGovernedMaxUtxoCount());
+    }
+}
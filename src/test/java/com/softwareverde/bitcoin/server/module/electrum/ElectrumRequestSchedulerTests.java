@@ -0,0 +1,259 @@
+package com.softwareverde.bitcoin.server.module.electrum;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.json.Json;
+import com.softwareverde.network.ip.Ip;
+import com.softwareverde.network.socket.JsonSocket;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ElectrumRequestSchedulerTests extends UnitTest {
+    protected static Json createRequest(final String method, final Integer requestId) {
+        final Json json = new Json(false);
+        json.put("id", requestId);
+        json.put("method", method);
+        return json;
+    }
+
+    @Before
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_interleave_requests_from_a_flooding_connection_with_other_connections() throws Exception {
+        // Setup
+        final Ip floodingIp = Ip.fromString("10.0.0.1");
+        final Ip walletIp = Ip.fromString("10.0.0.2");
+
+        final ConcurrentLinkedDeque<Integer> executedRequestIds = new ConcurrentLinkedDeque<>();
+        final ElectrumRequestScheduler requestScheduler = new ElectrumRequestScheduler(1, new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) {
+                executedRequestIds.add(json.getInteger("id"));
+            }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) { }
+        });
+
+        requestScheduler.addConnection(floodingIp);
+        requestScheduler.addConnection(walletIp);
+
+        for (int i = 0; i < 100; ++i) {
+            requestScheduler.enqueue(floodingIp, ElectrumRequestSchedulerTests.createRequest("blockchain.scripthash.subscribe", i), null);
+        }
+        requestScheduler.enqueue(walletIp, ElectrumRequestSchedulerTests.createRequest("server.ping", 1000), null);
+
+        // Action
+        requestScheduler.start();
+        while (executedRequestIds.size() < 101) {
+            Thread.sleep(10L);
+        }
+        requestScheduler.stop();
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(0), executedRequestIds.removeFirst());
+        Assert.assertEquals(Integer.valueOf(1000), executedRequestIds.removeFirst());
+        for (int i = 1; i < 100; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), executedRequestIds.removeFirst());
+        }
+    }
+
+    @Test
+    public void should_not_exceed_method_concurrency_limit() throws Exception {
+        // Setup
+        final int connectionCount = 8;
+        final int requestCountPerConnection = 4;
+
+        final AtomicInteger concurrentRequestCount = new AtomicInteger(0);
+        final AtomicInteger maxConcurrentRequestCount = new AtomicInteger(0);
+        final AtomicInteger executedRequestCount = new AtomicInteger(0);
+
+        final ElectrumRequestScheduler requestScheduler = new ElectrumRequestScheduler(4, new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) {
+                final int requestCount = concurrentRequestCount.incrementAndGet();
+                synchronized (maxConcurrentRequestCount) {
+                    if (requestCount > maxConcurrentRequestCount.get()) {
+                        maxConcurrentRequestCount.set(requestCount);
+                    }
+                }
+
+                try { Thread.sleep(5L); } catch (final InterruptedException exception) { }
+
+                concurrentRequestCount.decrementAndGet();
+                executedRequestCount.incrementAndGet();
+            }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) { }
+        });
+        requestScheduler.setMethodConcurrencyLimit("blockchain.scripthash.get_history", 1);
+
+        for (int i = 0; i < connectionCount; ++i) {
+            final Ip ip = Ip.fromString("10.0.0." + (i + 1));
+            requestScheduler.addConnection(ip);
+            for (int j = 0; j < requestCountPerConnection; ++j) {
+                requestScheduler.enqueue(ip, ElectrumRequestSchedulerTests.createRequest("blockchain.scripthash.get_history", j), null);
+            }
+        }
+
+        // Action
+        requestScheduler.start();
+        while (executedRequestCount.get() < (connectionCount * requestCountPerConnection)) {
+            Thread.sleep(10L);
+        }
+        requestScheduler.stop();
+
+        // Assert
+        Assert.assertEquals(1, maxConcurrentRequestCount.get());
+
+        final ElectrumRequestScheduler.QueueMetrics queueMetrics = requestScheduler.getAndResetMetrics();
+        Assert.assertEquals(Long.valueOf(connectionCount * requestCountPerConnection), queueMetrics.dispatchedRequestCount);
+        Assert.assertEquals(Integer.valueOf(0), queueMetrics.queuedRequestCount);
+    }
+
+    @Test
+    public void should_drop_connection_when_queue_depth_is_exceeded() throws Exception {
+        // Setup
+        final Ip ip = Ip.fromString("10.0.0.1");
+        final ConcurrentLinkedDeque<Ip> overflowedIps = new ConcurrentLinkedDeque<>();
+
+        final ElectrumRequestScheduler requestScheduler = new ElectrumRequestScheduler(1, new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) {
+                overflowedIps.add(ip);
+            }
+        });
+        requestScheduler.addConnection(ip);
+
+        // Action
+        for (int i = 0; i <= ElectrumRequestScheduler.MAX_REQUEST_QUEUE_COUNT; ++i) {
+            requestScheduler.enqueue(ip, ElectrumRequestSchedulerTests.createRequest("server.ping", i), null);
+        }
+
+        // Assert
+        Assert.assertEquals(1, overflowedIps.size());
+        Assert.assertEquals(ip, overflowedIps.getFirst());
+
+        final ElectrumRequestScheduler.QueueMetrics queueMetrics = requestScheduler.getAndResetMetrics();
+        Assert.assertEquals(Integer.valueOf(0), queueMetrics.queuedRequestCount);
+        Assert.assertEquals(Long.valueOf(1L), queueMetrics.droppedConnectionCount);
+    }
+
+    @Test
+    public void should_execute_requests_from_the_same_connection_one_at_a_time_and_in_order() throws Exception {
+        // Setup
+        final Ip ip = Ip.fromString("10.0.0.1");
+        final int requestCount = 16;
+
+        final AtomicInteger concurrentRequestCount = new AtomicInteger(0);
+        final AtomicInteger maxConcurrentRequestCount = new AtomicInteger(0);
+        final ConcurrentLinkedDeque<Integer> executedRequestIds = new ConcurrentLinkedDeque<>();
+
+        final ElectrumRequestScheduler requestScheduler = new ElectrumRequestScheduler(4, new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) {
+                final int concurrentCount = concurrentRequestCount.incrementAndGet();
+                synchronized (maxConcurrentRequestCount) {
+                    if (concurrentCount > maxConcurrentRequestCount.get()) {
+                        maxConcurrentRequestCount.set(concurrentCount);
+                    }
+                }
+
+                try { Thread.sleep(2L); } catch (final InterruptedException exception) { }
+
+                executedRequestIds.add(json.getInteger("id"));
+                concurrentRequestCount.decrementAndGet();
+            }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) { }
+        });
+
+        requestScheduler.addConnection(ip);
+        for (int i = 0; i < requestCount; ++i) {
+            requestScheduler.enqueue(ip, ElectrumRequestSchedulerTests.createRequest("server.ping", i), null);
+        }
+
+        // Action
+        requestScheduler.start();
+        while (executedRequestIds.size() < requestCount) {
+            Thread.sleep(10L);
+        }
+        requestScheduler.stop();
+
+        // Assert
+        Assert.assertEquals(1, maxConcurrentRequestCount.get());
+        for (int i = 0; i < requestCount; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), executedRequestIds.removeFirst());
+        }
+    }
+
+    @Test
+    public void should_serve_a_new_connection_from_an_ip_whose_queue_overflowed() throws Exception {
+        // Setup
+        final Ip ip = Ip.fromString("10.0.0.1");
+        final ConcurrentLinkedDeque<Integer> executedRequestIds = new ConcurrentLinkedDeque<>();
+
+        final ElectrumRequestScheduler requestScheduler = new ElectrumRequestScheduler(1, new ElectrumRequestScheduler.RequestHandler() {
+            @Override
+            public void handleRequest(final Json json, final JsonSocket jsonSocket) {
+                executedRequestIds.add(json.getInteger("id"));
+            }
+
+            @Override
+            public void handleError(final Json json, final JsonSocket jsonSocket) { }
+
+            @Override
+            public void onQueueOverflow(final Ip ip) { }
+        });
+        requestScheduler.addConnection(ip);
+
+        for (int i = 0; i <= ElectrumRequestScheduler.MAX_REQUEST_QUEUE_COUNT; ++i) {
+            requestScheduler.enqueue(ip, ElectrumRequestSchedulerTests.createRequest("server.ping", i), null);
+        }
+
+        // Action
+        requestScheduler.addConnection(ip); // The client reconnects before its overflowed socket has finished closing...
+        requestScheduler.removeConnection(ip);
+        requestScheduler.enqueue(ip, ElectrumRequestSchedulerTests.createRequest("server.ping", -1), null);
+
+        requestScheduler.start();
+        final long startTime = System.currentTimeMillis();
+        while ( executedRequestIds.isEmpty() && ((System.currentTimeMillis() - startTime) < 5000L) ) {
+            Thread.sleep(10L);
+        }
+        requestScheduler.stop();
+
+        // Assert
+        Assert.assertEquals(1, executedRequestIds.size());
+        Assert.assertEquals(Integer.valueOf(-1), executedRequestIds.getFirst());
+    }
+}
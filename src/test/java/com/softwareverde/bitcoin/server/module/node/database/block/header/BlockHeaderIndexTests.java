@@ -0,0 +1,173 @@
+package com.softwareverde.bitcoin.server.module.node.database.block.header;
+
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegment;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.module.node.database.block.BlockRelationship;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockHeaderIndexTests extends UnitTest {
+    protected static final Sha256Hash BLOCK_HASH = Sha256Hash.fromHexString("000000000019D6689C085AE165831E934FF763AE46A2A6C172B3F1B60A8CE26F");
+
+    /**
+     * Returns the segments of a chain that forked once: segment 1 is the parent of segments 2 and 3.
+     */
+    protected static MutableList<BlockchainSegment> createBlockchainSegments() {
+        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(1L);
+
+        final MutableList<BlockchainSegment> blockchainSegments = new MutableList<>();
+        blockchainSegments.add(new BlockchainSegment(blockchainSegmentId, null, 1L, 6L));
+        blockchainSegments.add(new BlockchainSegment(BlockchainSegmentId.wrap(2L), blockchainSegmentId, 2L, 3L));
+        blockchainSegments.add(new BlockchainSegment(BlockchainSegmentId.wrap(3L), blockchainSegmentId, 4L, 5L));
+        return blockchainSegments;
+    }
+
+    @Test
+    public void should_cache_blocks_read_within_the_current_generation() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockId blockId = BlockId.wrap(1L);
+
+        // Action
+        final Long readGeneration = blockHeaderIndex.beginRead();
+        blockHeaderIndex.cacheBlock(readGeneration, blockId, BLOCK_HASH, null, 0L);
+
+        // Assert
+        final BlockHeaderIndex.IndexedBlock indexedBlock = blockHeaderIndex.getBlock(BLOCK_HASH);
+        Assert.assertNotNull(indexedBlock);
+        Assert.assertEquals(blockId, indexedBlock.blockId);
+        Assert.assertEquals(Long.valueOf(0L), indexedBlock.blockHeight);
+        Assert.assertNull(indexedBlock.previousBlockId);
+        Assert.assertSame(indexedBlock, blockHeaderIndex.getBlock(blockId));
+        Assert.assertEquals(Integer.valueOf(1), blockHeaderIndex.getBlockCount());
+    }
+
+    @Test
+    public void should_not_cache_values_read_before_a_write_began() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockId blockId = BlockId.wrap(1L);
+        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(1L);
+
+        final Long readGeneration = blockHeaderIndex.beginRead();
+
+        // Action
+        blockHeaderIndex.beginWrite();
+        blockHeaderIndex.endWrite();
+
+        blockHeaderIndex.cacheBlock(readGeneration, blockId, BLOCK_HASH, null, 0L);
+        blockHeaderIndex.cacheBlockchainSegmentId(readGeneration, blockId, blockchainSegmentId);
+        blockHeaderIndex.cacheBlockIdAtHeight(readGeneration, blockchainSegmentId, 0L, blockId);
+        blockHeaderIndex.cacheBlockchainSegments(readGeneration, BlockHeaderIndexTests.createBlockchainSegments());
+
+        // Assert
+        Assert.assertNull(blockHeaderIndex.getBlock(blockId));
+        Assert.assertNull(blockHeaderIndex.getBlockchainSegmentId(blockId));
+        Assert.assertNull(blockHeaderIndex.getBlockIdAtHeight(blockchainSegmentId, 0L));
+        Assert.assertFalse(blockHeaderIndex.hasBlockchainSegments());
+    }
+
+    @Test
+    public void should_not_begin_reads_while_a_write_is_pending() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+
+        // Action
+        blockHeaderIndex.beginWrite();
+        final Long pendingReadGeneration = blockHeaderIndex.beginRead();
+        blockHeaderIndex.endWrite();
+        final Long readGeneration = blockHeaderIndex.beginRead();
+
+        // Assert
+        Assert.assertNull(pendingReadGeneration);
+        Assert.assertNotNull(readGeneration);
+    }
+
+    @Test
+    public void should_discard_segment_state_when_a_write_begins() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockId blockId = BlockId.wrap(1L);
+        final BlockchainSegmentId blockchainSegmentId = BlockchainSegmentId.wrap(1L);
+
+        final Long readGeneration = blockHeaderIndex.beginRead();
+        blockHeaderIndex.cacheBlock(readGeneration, blockId, BLOCK_HASH, null, 0L);
+        blockHeaderIndex.cacheBlockchainSegmentId(readGeneration, blockId, blockchainSegmentId);
+        blockHeaderIndex.cacheBlockIdAtHeight(readGeneration, blockchainSegmentId, 0L, blockId);
+        blockHeaderIndex.cacheBlockchainSegments(readGeneration, BlockHeaderIndexTests.createBlockchainSegments());
+
+        Assert.assertEquals(blockchainSegmentId, blockHeaderIndex.getBlockchainSegmentId(blockId));
+        Assert.assertEquals(blockId, blockHeaderIndex.getBlockIdAtHeight(blockchainSegmentId, 0L));
+        Assert.assertTrue(blockHeaderIndex.hasBlockchainSegment(blockchainSegmentId));
+
+        // Action
+        blockHeaderIndex.beginWrite();
+
+        // Assert
+        Assert.assertNull(blockHeaderIndex.getBlockchainSegmentId(blockId));
+        Assert.assertNull(blockHeaderIndex.getBlockIdAtHeight(blockchainSegmentId, 0L));
+        Assert.assertFalse(blockHeaderIndex.hasBlockchainSegments());
+        Assert.assertNotNull(blockHeaderIndex.getBlock(blockId)); // Committed blocks are immutable, so they are retained.
+    }
+
+    @Test
+    public void should_determine_segment_connectivity_from_the_nested_set() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockchainSegmentId parentBlockchainSegmentId = BlockchainSegmentId.wrap(1L);
+        final BlockchainSegmentId blockchainSegmentId0 = BlockchainSegmentId.wrap(2L);
+        final BlockchainSegmentId blockchainSegmentId1 = BlockchainSegmentId.wrap(3L);
+
+        // Action
+        blockHeaderIndex.cacheBlockchainSegments(blockHeaderIndex.beginRead(), BlockHeaderIndexTests.createBlockchainSegments());
+
+        // Assert
+        Assert.assertTrue(blockHeaderIndex.areBlockchainSegmentsConnected(parentBlockchainSegmentId, blockchainSegmentId0, BlockRelationship.ANCESTOR));
+        Assert.assertFalse(blockHeaderIndex.areBlockchainSegmentsConnected(parentBlockchainSegmentId, blockchainSegmentId0, BlockRelationship.DESCENDANT));
+        Assert.assertTrue(blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, parentBlockchainSegmentId, BlockRelationship.DESCENDANT));
+        Assert.assertTrue(blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, parentBlockchainSegmentId, BlockRelationship.ANY));
+        Assert.assertTrue(blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, blockchainSegmentId0, BlockRelationship.ANY));
+        Assert.assertFalse(blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, blockchainSegmentId1, BlockRelationship.ANY));
+        Assert.assertNull(blockHeaderIndex.areBlockchainSegmentsConnected(blockchainSegmentId0, BlockchainSegmentId.wrap(4L), BlockRelationship.ANY));
+    }
+
+    @Test
+    public void should_determine_block_connectivity_from_the_block_segment() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockId blockId = BlockId.wrap(2L);
+        final BlockId unindexedBlockId = BlockId.wrap(3L);
+
+        final Long readGeneration = blockHeaderIndex.beginRead();
+        blockHeaderIndex.cacheBlockchainSegments(readGeneration, BlockHeaderIndexTests.createBlockchainSegments());
+
+        // Action
+        blockHeaderIndex.cacheBlockchainSegmentId(readGeneration, blockId, BlockchainSegmentId.wrap(2L));
+
+        // Assert
+        Assert.assertTrue(blockHeaderIndex.isBlockConnectedToChain(blockId, BlockchainSegmentId.wrap(1L), BlockRelationship.DESCENDANT));
+        Assert.assertFalse(blockHeaderIndex.isBlockConnectedToChain(blockId, BlockchainSegmentId.wrap(1L), BlockRelationship.ANCESTOR));
+        Assert.assertFalse(blockHeaderIndex.isBlockConnectedToChain(blockId, BlockchainSegmentId.wrap(3L), BlockRelationship.ANY));
+        Assert.assertNull(blockHeaderIndex.isBlockConnectedToChain(unindexedBlockId, BlockchainSegmentId.wrap(1L), BlockRelationship.ANY));
+    }
+
+    @Test
+    public void should_remove_blocks_by_hash_and_id() {
+        // Setup
+        final BlockHeaderIndex blockHeaderIndex = new BlockHeaderIndex();
+        final BlockId blockId = BlockId.wrap(1L);
+        blockHeaderIndex.cacheBlock(blockHeaderIndex.beginRead(), blockId, BLOCK_HASH, null, 0L);
+
+        // Action
+        blockHeaderIndex.removeBlock(blockId);
+
+        // Assert
+        Assert.assertNull(blockHeaderIndex.getBlock(blockId));
+        Assert.assertNull(blockHeaderIndex.getBlock(BLOCK_HASH));
+        Assert.assertEquals(Integer.valueOf(0), blockHeaderIndex.getBlockCount());
+    }
+}
@@ -0,0 +1,374 @@
+package com.softwareverde.bitcoin.server.module.node.database.indexer;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.context.IndexerCache;
+import com.softwareverde.bitcoin.context.TransactionOutputIndexerContext;
+import com.softwareverde.bitcoin.context.lazy.LazyTransactionOutputIndexerContext;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.sync.BlockchainIndexer;
+import com.softwareverde.bitcoin.server.module.node.sync.BlockchainIndexerTests;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.script.ScriptBuilder;
+import com.softwareverde.concurrent.service.SleepyService;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableList;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.util.HexUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+
+public class BlockchainIndexerDatabaseManagerTests extends IntegrationTest {
+    @Override @Before
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @Override @After
+    public void after() throws Exception {
+        super.after();
+    }
+
+    protected void _storeBlocks(final Block... blocks) throws Exception {
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final FullNodeBlockDatabaseManager fullNodeBlockDatabaseManager = databaseManager.getBlockDatabaseManager();
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                for (final Block block : blocks) {
+                    fullNodeBlockDatabaseManager.storeBlock(block);
+                }
+            }
+        }
+    }
+
+    protected void _runBlockchainIndexer() throws Exception {
+        final IndexerCache indexerCache = new IndexerCache(1);
+        final TransactionOutputIndexerContext transactionOutputIndexerContext = new LazyTransactionOutputIndexerContext(_fullNodeDatabaseManagerFactory, indexerCache);
+        final BlockchainIndexer blockchainIndexer = new BlockchainIndexer(transactionOutputIndexerContext, 0);
+
+        try {
+            final BlockchainIndexer.StatusMonitor statusMonitor = blockchainIndexer.getStatusMonitor();
+            blockchainIndexer.start();
+
+            final int maxSleepCount = 10;
+            int sleepCount = 0;
+            do {
+                Thread.sleep(250L);
+                sleepCount += 1;
+
+                if (sleepCount >= maxSleepCount) { throw new RuntimeException("Test execution timeout exceeded."); }
+            } while (statusMonitor.getStatus() != SleepyService.Status.SLEEPING);
+        }
+        finally {
+            blockchainIndexer.stop();
+        }
+    }
+
+    protected static Sha256Hash _getCoinbaseScriptHash(final Block block) {
+        final Transaction coinbaseTransaction = block.getCoinbaseTransaction();
+        final TransactionOutput transactionOutput = coinbaseTransaction.getTransactionOutputs().get(0);
+        return ScriptBuilder.computeScriptHash(transactionOutput.getLockingScript());
+    }
+
+    /**
+     * Stores the genesis block and the test token Transactions as unconfirmed, returning the unique scriptHashes of their outputs.
+     */
+    protected List<Sha256Hash> _storeUnconfirmedTestTokens() throws Exception {
+        final List<Transaction> transactions = BlockchainIndexerTests.inflateBitcoinVerdeTestTokens();
+        final MutableList<Sha256Hash> scriptHashes = new MutableList<>();
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockInflater blockInflater = new BlockInflater();
+            final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                final FullNodeBlockDatabaseManager fullNodeBlockDatabaseManager = databaseManager.getBlockDatabaseManager();
+                fullNodeBlockDatabaseManager.storeBlock(genesisBlock);
+            }
+
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            final HashSet<Sha256Hash> uniqueScriptHashes = new HashSet<>();
+            for (final Transaction transaction : transactions) {
+                final TransactionId transactionId = transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
+                transactionDatabaseManager.addToUnconfirmedTransactions(transactionId);
+                blockchainIndexerDatabaseManager.queueTransactionsForProcessing(new ImmutableList<>(transactionId));
+
+                for (final TransactionOutput transactionOutput : transaction.getTransactionOutputs()) {
+                    final Sha256Hash scriptHash = ScriptBuilder.computeScriptHash(transactionOutput.getLockingScript());
+                    if (uniqueScriptHashes.add(scriptHash)) {
+                        scriptHashes.add(scriptHash);
+                    }
+                }
+            }
+        }
+
+        return scriptHashes;
+    }
+
+    @Test
+    public void batched_queries_should_match_single_script_hash_queries() throws Exception {
+        // Setup
+        final List<Sha256Hash> scriptHashes = _storeUnconfirmedTestTokens();
+        _runBlockchainIndexer();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            // Action
+            final Map<Sha256Hash, Long> balances = blockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<TransactionId>> transactionIds = blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<IndexedTransactionOutput>> unspentTransactionOutputs = blockchainIndexerDatabaseManager.getUnspentTransactionOutputs(blockchainSegmentId, scriptHashes, true);
+
+            // Assert
+            Assert.assertEquals(scriptHashes.getCount(), balances.size());
+            for (final Sha256Hash scriptHash : scriptHashes) {
+                final Long expectedBalance = blockchainIndexerDatabaseManager.getAddressBalance(blockchainSegmentId, scriptHash, true);
+                Assert.assertEquals(expectedBalance, balances.get(scriptHash));
+
+                final HashSet<TransactionId> expectedTransactionIds = new HashSet<>();
+                for (final TransactionId transactionId : blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, scriptHash, true)) {
+                    expectedTransactionIds.add(transactionId);
+                }
+                final HashSet<TransactionId> batchedTransactionIds = new HashSet<>();
+                for (final TransactionId transactionId : transactionIds.get(scriptHash)) {
+                    batchedTransactionIds.add(transactionId);
+                }
+                Assert.assertEquals(expectedTransactionIds, batchedTransactionIds);
+
+                long unspentAmount = 0L;
+                for (final IndexedTransactionOutput transactionOutput : unspentTransactionOutputs.get(scriptHash)) {
+                    unspentAmount += transactionOutput.getAmount();
+                }
+                Assert.assertEquals(expectedBalance.longValue(), unspentAmount);
+            }
+        }
+    }
+
+    @Test
+    public void script_hash_summaries_should_match_batched_queries() throws Exception {
+        // Setup
+        final List<Sha256Hash> scriptHashes = _storeUnconfirmedTestTokens();
+        _runBlockchainIndexer();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            final Map<Sha256Hash, Long> expectedBalances = blockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, Long> expectedConfirmedBalances = blockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, false);
+            final Map<Sha256Hash, List<TransactionId>> expectedTransactionIds = blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<IndexedTransactionOutput>> expectedUnspentTransactionOutputs = blockchainIndexerDatabaseManager.getUnspentTransactionOutputs(blockchainSegmentId, scriptHashes, true);
+
+            // Action
+            final Map<Sha256Hash, ScriptHashSummary> scriptHashSummaries = blockchainIndexerDatabaseManager.getScriptHashSummaries(blockchainSegmentId, scriptHashes, true, true);
+            final Map<Sha256Hash, ScriptHashSummary> balanceSummaries = blockchainIndexerDatabaseManager.getScriptHashSummaries(blockchainSegmentId, scriptHashes, false, false);
+
+            // Assert
+            Assert.assertEquals(scriptHashes.getCount(), scriptHashSummaries.size());
+            for (final Sha256Hash scriptHash : scriptHashes) {
+                final ScriptHashSummary scriptHashSummary = scriptHashSummaries.get(scriptHash);
+                Assert.assertEquals(expectedBalances.get(scriptHash), scriptHashSummary.getBalance());
+                Assert.assertEquals(expectedConfirmedBalances.get(scriptHash), scriptHashSummary.getConfirmedBalance());
+                Assert.assertEquals(expectedTransactionIds.get(scriptHash).getCount(), scriptHashSummary.getTransactionHashes().getCount());
+                Assert.assertEquals(expectedUnspentTransactionOutputs.get(scriptHash).getCount(), scriptHashSummary.getUnspentTransactionOutputs().getCount());
+
+                final ScriptHashSummary balanceSummary = balanceSummaries.get(scriptHash);
+                Assert.assertEquals(expectedBalances.get(scriptHash), balanceSummary.getBalance());
+                Assert.assertEquals(expectedConfirmedBalances.get(scriptHash), balanceSummary.getConfirmedBalance());
+                Assert.assertNull(balanceSummary.getTransactionHashes());
+                Assert.assertNull(balanceSummary.getUnspentTransactionOutputs());
+            }
+        }
+    }
+
+    @Test
+    public void script_hash_summaries_should_separate_confirmed_balances() throws Exception {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block block1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+        final Sha256Hash scriptHash = _getCoinbaseScriptHash(block1);
+
+        _storeBlocks(genesisBlock, block1);
+        _runBlockchainIndexer();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            // Action
+            final Map<Sha256Hash, ScriptHashSummary> scriptHashSummaries = blockchainIndexerDatabaseManager.getScriptHashSummaries(blockchainSegmentId, new ImmutableList<>(scriptHash), true, true);
+
+            // Assert
+            final ScriptHashSummary scriptHashSummary = scriptHashSummaries.get(scriptHash);
+            Assert.assertEquals(Long.valueOf(50L * Transaction.SATOSHIS_PER_BITCOIN), scriptHashSummary.getBalance());
+            Assert.assertEquals(Long.valueOf(50L * Transaction.SATOSHIS_PER_BITCOIN), scriptHashSummary.getConfirmedBalance());
+            Assert.assertEquals(1, scriptHashSummary.getTransactionHashes().getCount());
+            Assert.assertEquals(block1.getCoinbaseTransaction().getHash(), scriptHashSummary.getTransactionHashes().get(0));
+            Assert.assertEquals(1, scriptHashSummary.getUnspentTransactionOutputs().getCount());
+        }
+    }
+
+    @Test
+    public void materialized_balances_should_follow_the_head_blockchain() throws Exception {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block mainChainBlock1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+        final Block forkChainBlock1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.ForkChain2.BLOCK_1));
+        final Block forkChainBlock2 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.ForkChain2.BLOCK_2));
+
+        final Sha256Hash mainChainScriptHash = _getCoinbaseScriptHash(mainChainBlock1);
+        final Sha256Hash forkChainBlock1ScriptHash = _getCoinbaseScriptHash(forkChainBlock1);
+        final Sha256Hash forkChainBlock2ScriptHash = _getCoinbaseScriptHash(forkChainBlock2);
+        final List<Sha256Hash> scriptHashes = new ImmutableList<>(mainChainScriptHash, forkChainBlock1ScriptHash, forkChainBlock2ScriptHash);
+
+        _storeBlocks(genesisBlock, mainChainBlock1);
+        _runBlockchainIndexer();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(mainChainBlock1.getHash()), blockchainIndexerDatabaseManager.getScriptHashBalancesHeadBlockId());
+            Assert.assertEquals(Long.valueOf(50L * Transaction.SATOSHIS_PER_BITCOIN), blockchainIndexerDatabaseManager.getAddressBalance(blockchainSegmentId, mainChainScriptHash, false));
+        }
+
+        // Action
+        _storeBlocks(forkChainBlock1, forkChainBlock2);
+        _runBlockchainIndexer();
+
+        // Assert
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(forkChainBlock2.getHash()), blockchainIndexerDatabaseManager.getScriptHashBalancesHeadBlockId());
+
+            final Map<Sha256Hash, Long> balances = blockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, false);
+            Assert.assertEquals(Long.valueOf(0L), balances.get(mainChainScriptHash));
+            Assert.assertEquals(Long.valueOf(50L * Transaction.SATOSHIS_PER_BITCOIN), balances.get(forkChainBlock1ScriptHash));
+            Assert.assertEquals(Long.valueOf(50L * Transaction.SATOSHIS_PER_BITCOIN), balances.get(forkChainBlock2ScriptHash));
+
+            final Map<Sha256Hash, List<IndexedTransactionOutput>> unspentTransactionOutputs = blockchainIndexerDatabaseManager.getUnspentTransactionOutputs(blockchainSegmentId, scriptHashes, false);
+            Assert.assertEquals(0, unspentTransactionOutputs.get(mainChainScriptHash).getCount());
+            Assert.assertEquals(1, unspentTransactionOutputs.get(forkChainBlock1ScriptHash).getCount());
+            Assert.assertEquals(1, unspentTransactionOutputs.get(forkChainBlock2ScriptHash).getCount());
+        }
+    }
+
+    @Test
+    public void last_indexed_block_should_follow_the_head_blockchain() throws Exception {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block mainChainBlock1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+        final Block forkChainBlock1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.ForkChain2.BLOCK_1));
+        final Block forkChainBlock2 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.ForkChain2.BLOCK_2));
+
+        _storeBlocks(genesisBlock, mainChainBlock1);
+        _runBlockchainIndexer();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(mainChainBlock1.getHash()), blockchainIndexerDatabaseManager.getLastIndexedBlockId());
+            Assert.assertTrue(blockchainIndexerDatabaseManager.getUnindexedBlockIds(16).isEmpty());
+        }
+
+        // Action
+        _storeBlocks(forkChainBlock1, forkChainBlock2);
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            final List<BlockId> unindexedBlockIds = blockchainIndexerDatabaseManager.getUnindexedBlockIds(16);
+            Assert.assertEquals(2, unindexedBlockIds.getCount());
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(forkChainBlock1.getHash()), unindexedBlockIds.get(0));
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(forkChainBlock2.getHash()), unindexedBlockIds.get(1));
+        }
+
+        _runBlockchainIndexer();
+
+        // Assert
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(forkChainBlock2.getHash()), blockchainIndexerDatabaseManager.getLastIndexedBlockId());
+            Assert.assertTrue(blockchainIndexerDatabaseManager.getUnindexedBlockIds(16).isEmpty());
+
+            final Sha256Hash forkChainScriptHash = _getCoinbaseScriptHash(forkChainBlock2);
+            final BlockchainSegmentId blockchainSegmentId = databaseManager.getBlockchainDatabaseManager().getHeadBlockchainSegmentId();
+            final List<TransactionId> transactionIds = blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, forkChainScriptHash, false);
+            Assert.assertEquals(1, transactionIds.getCount());
+        }
+    }
+
+    @Test
+    public void header_only_blocks_should_not_halt_block_indexing() throws Exception {
+        // Setup
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+        final Block block1 = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.BLOCK_1));
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                blockHeaderDatabaseManager.storeBlockHeader(genesisBlock); // The genesis block's Transactions are never stored...
+            }
+        }
+        _storeBlocks(block1);
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            final List<BlockId> unindexedBlockIds = blockchainIndexerDatabaseManager.getUnindexedBlockIds(16);
+            Assert.assertEquals(2, unindexedBlockIds.getCount());
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(genesisBlock.getHash()), unindexedBlockIds.get(0));
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(block1.getHash()), unindexedBlockIds.get(1));
+        }
+
+        // Action
+        _runBlockchainIndexer();
+
+        // Assert
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+
+            Assert.assertEquals(blockHeaderDatabaseManager.getBlockHeaderId(block1.getHash()), blockchainIndexerDatabaseManager.getLastIndexedBlockId());
+            Assert.assertTrue(blockchainIndexerDatabaseManager.getUnindexedBlockIds(16).isEmpty());
+
+            final BlockchainSegmentId blockchainSegmentId = databaseManager.getBlockchainDatabaseManager().getHeadBlockchainSegmentId();
+            final List<TransactionId> transactionIds = blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, _getCoinbaseScriptHash(block1), false);
+            Assert.assertEquals(1, transactionIds.getCount());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.softwareverde.bitcoin.server.module.node.database.indexer;
+
+import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.address.AddressInflater;
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.chain.segment.BlockchainSegmentId;
+import com.softwareverde.bitcoin.server.module.node.database.block.fullnode.FullNodeBlockDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.blockchain.BlockchainDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.FullNodeTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.store.kv.KeyValueStoreCore;
+import com.softwareverde.bitcoin.server.module.node.sync.BlockchainIndexerTests;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.script.ScriptBuilder;
+import com.softwareverde.bitcoin.transaction.script.ScriptType;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.logging.Logger;
+import com.softwareverde.util.HexUtil;
+import com.softwareverde.util.timer.MilliTimer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Map;
+
+public class KeyValueBlockchainIndexerDatabaseManagerTests extends IntegrationTest {
+    protected File _directory;
+    protected KeyValueStoreCore _keyValueStore;
+
+    /**
+     * The columns of indexed outputs and inputs, as provided to BlockchainIndexerDatabaseManager::indexTransactionOutputs and ::indexTransactionInputs.
+     */
+    protected static class IndexedRows {
+        public final MutableList<TransactionId> outputTransactionIds = new MutableList<>();
+        public final MutableList<Integer> outputIndexes = new MutableList<>();
+        public final MutableList<Long> amounts = new MutableList<>();
+        public final MutableList<ScriptType> scriptTypes = new MutableList<>();
+        public final MutableList<Address> addresses = new MutableList<>();
+        public final MutableList<Sha256Hash> scriptHashes = new MutableList<>();
+        public final MutableList<TransactionId> slpTransactionIds = new MutableList<>();
+        public final MutableList<ByteArray> memoActionTypes = new MutableList<>();
+        public final MutableList<ByteArray> memoActionIdentifiers = new MutableList<>();
+
+        public final MutableList<TransactionId> inputTransactionIds = new MutableList<>();
+        public final MutableList<Integer> inputIndexes = new MutableList<>();
+        public final MutableList<TransactionOutputId> spentTransactionOutputIds = new MutableList<>();
+
+        public void addOutput(final TransactionId transactionId, final Integer outputIndex, final Long amount, final Sha256Hash scriptHash) {
+            this.outputTransactionIds.add(transactionId);
+            this.outputIndexes.add(outputIndex);
+            this.amounts.add(amount);
+            this.scriptTypes.add(ScriptType.UNKNOWN);
+            this.addresses.add(null);
+            this.scriptHashes.add(scriptHash);
+            this.slpTransactionIds.add(null);
+            this.memoActionTypes.add(null);
+            this.memoActionIdentifiers.add(null);
+        }
+
+        public void addInput(final TransactionId transactionId, final Integer inputIndex, final TransactionOutputId spentTransactionOutputId) {
+            this.inputTransactionIds.add(transactionId);
+            this.inputIndexes.add(inputIndex);
+            this.spentTransactionOutputIds.add(spentTransactionOutputId);
+        }
+
+        public void index(final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager) throws Exception {
+            blockchainIndexerDatabaseManager.indexTransactionOutputs(this.outputTransactionIds, this.outputIndexes, this.amounts, this.scriptTypes, this.addresses, this.scriptHashes, this.slpTransactionIds, this.memoActionTypes, this.memoActionIdentifiers);
+            blockchainIndexerDatabaseManager.indexTransactionInputs(this.inputTransactionIds, this.inputIndexes, this.spentTransactionOutputIds);
+        }
+    }
+
+    protected static Sha256Hash createScriptHash(final int index) {
+        final byte[] bytes = new byte[Sha256Hash.BYTE_COUNT];
+        ByteBuffer.wrap(bytes).putInt(index);
+        return Sha256Hash.wrap(bytes);
+    }
+
+    protected static HashSet<TransactionId> toSet(final List<TransactionId> transactionIds) {
+        final HashSet<TransactionId> transactionIdSet = new HashSet<>();
+        for (final TransactionId transactionId : transactionIds) {
+            transactionIdSet.add(transactionId);
+        }
+        return transactionIdSet;
+    }
+
+    protected KeyValueBlockchainIndexerDatabaseManager _newKeyValueBlockchainIndexerDatabaseManager(final FullNodeDatabaseManager databaseManager) {
+        final AddressInflater addressInflater = _masterInflater.getAddressInflater();
+        return new KeyValueBlockchainIndexerDatabaseManager(addressInflater, databaseManager, _keyValueStore);
+    }
+
+    @Override @Before
+    public void before() throws Exception {
+        super.before();
+        _directory = Files.createTempDirectory("indexer").toFile();
+        _keyValueStore = new KeyValueStoreCore(_directory.getPath());
+        _keyValueStore.open();
+    }
+
+    @Override @After
+    public void after() throws Exception {
+        _keyValueStore.close();
+
+        final File[] files = _directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        _directory.delete();
+
+        super.after();
+    }
+
+    @Test
+    public void key_value_store_queries_should_match_database_queries() throws Exception {
+        // Setup
+        final List<Transaction> transactions = BlockchainIndexerTests.inflateBitcoinVerdeTestTokens();
+        final MutableList<Sha256Hash> scriptHashes = new MutableList<>();
+        final MutableList<TransactionId> transactionIds = new MutableList<>();
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockInflater blockInflater = new BlockInflater();
+            final Block genesisBlock = blockInflater.fromBytes(HexUtil.hexStringToByteArray(BlockData.MainChain.GENESIS_BLOCK));
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                final FullNodeBlockDatabaseManager fullNodeBlockDatabaseManager = databaseManager.getBlockDatabaseManager();
+                fullNodeBlockDatabaseManager.storeBlock(genesisBlock);
+            }
+
+            final FullNodeTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            final IndexedRows indexedRows = new IndexedRows();
+            final HashSet<Sha256Hash> uniqueScriptHashes = new HashSet<>();
+            for (final Transaction transaction : transactions) {
+                final TransactionId transactionId = transactionDatabaseManager.storeUnconfirmedTransaction(transaction);
+                transactionDatabaseManager.addToUnconfirmedTransactions(transactionId);
+                transactionIds.add(transactionId);
+
+                int outputIndex = 0;
+                for (final TransactionOutput transactionOutput : transaction.getTransactionOutputs()) {
+                    final Sha256Hash scriptHash = ScriptBuilder.computeScriptHash(transactionOutput.getLockingScript());
+                    indexedRows.addOutput(transactionId, outputIndex, transactionOutput.getAmount(), scriptHash);
+                    if (uniqueScriptHashes.add(scriptHash)) {
+                        scriptHashes.add(scriptHash);
+                    }
+                    outputIndex += 1;
+                }
+
+                int inputIndex = 0;
+                for (final TransactionInput transactionInput : transaction.getTransactionInputs()) {
+                    final TransactionId spentTransactionId = transactionDatabaseManager.getTransactionId(transactionInput.getPreviousOutputTransactionHash());
+                    if (spentTransactionId != null) {
+                        indexedRows.addInput(transactionId, inputIndex, new TransactionOutputId(spentTransactionId, transactionInput.getPreviousOutputIndex()));
+                    }
+                    inputIndex += 1;
+                }
+            }
+
+            indexedRows.index(databaseManager.getBlockchainIndexerDatabaseManager());
+            indexedRows.index(_newKeyValueBlockchainIndexerDatabaseManager(databaseManager));
+        }
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainDatabaseManager blockchainDatabaseManager = databaseManager.getBlockchainDatabaseManager();
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final KeyValueBlockchainIndexerDatabaseManager keyValueBlockchainIndexerDatabaseManager = _newKeyValueBlockchainIndexerDatabaseManager(databaseManager);
+            final BlockchainSegmentId blockchainSegmentId = blockchainDatabaseManager.getHeadBlockchainSegmentId();
+
+            // Action
+            final Map<Sha256Hash, Long> balances = keyValueBlockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<TransactionId>> scriptHashTransactionIds = keyValueBlockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<IndexedTransactionOutput>> unspentTransactionOutputs = keyValueBlockchainIndexerDatabaseManager.getUnspentTransactionOutputs(blockchainSegmentId, scriptHashes, true);
+
+            // Assert
+            final Map<Sha256Hash, Long> expectedBalances = blockchainIndexerDatabaseManager.getAddressBalances(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<TransactionId>> expectedTransactionIds = blockchainIndexerDatabaseManager.getTransactionIds(blockchainSegmentId, scriptHashes, true);
+            final Map<Sha256Hash, List<IndexedTransactionOutput>> expectedUnspentTransactionOutputs = blockchainIndexerDatabaseManager.getUnspentTransactionOutputs(blockchainSegmentId, scriptHashes, true);
+
+            for (final Sha256Hash scriptHash : scriptHashes) {
+                Assert.assertEquals(expectedBalances.get(scriptHash), balances.get(scriptHash));
+                Assert.assertEquals(expectedBalances.get(scriptHash), keyValueBlockchainIndexerDatabaseManager.getAddressBalance(blockchainSegmentId, scriptHash, true));
+                Assert.assertEquals(KeyValueBlockchainIndexerDatabaseManagerTests.toSet(expectedTransactionIds.get(scriptHash)), KeyValueBlockchainIndexerDatabaseManagerTests.toSet(scriptHashTransactionIds.get(scriptHash)));
+
+                final HashSet<TransactionOutputId> expectedTransactionOutputIds = new HashSet<>();
+                for (final IndexedTransactionOutput transactionOutput : expectedUnspentTransactionOutputs.get(scriptHash)) {
+                    expectedTransactionOutputIds.add(transactionOutput.getTransactionOutputId());
+                }
+                final HashSet<TransactionOutputId> transactionOutputIds = new HashSet<>();
+                for (final IndexedTransactionOutput transactionOutput : unspentTransactionOutputs.get(scriptHash)) {
+                    transactionOutputIds.add(transactionOutput.getTransactionOutputId());
+                }
+                Assert.assertEquals(expectedTransactionOutputIds, transactionOutputIds);
+            }
+
+            for (final TransactionId transactionId : transactionIds) {
+                Assert.assertEquals(blockchainIndexerDatabaseManager.getTransactionsSpendingOutputsOf(transactionId), keyValueBlockchainIndexerDatabaseManager.getTransactionsSpendingOutputsOf(transactionId));
+            }
+            Assert.assertTrue(keyValueBlockchainIndexerDatabaseManager.getUnprocessedTransactions(1024).isEmpty());
+        }
+    }
+
+    @Test
+    public void benchmark_key_value_store_and_database_indexing() throws Exception {
+        // Setup
+        final int transactionCount = 20000;
+        final int scriptHashCount = 1000;
+
+        final IndexedRows indexedRows = new IndexedRows();
+        for (int i = 1; i <= transactionCount; ++i) {
+            final TransactionId transactionId = TransactionId.wrap((long) i);
+            indexedRows.addOutput(transactionId, 0, (long) i, KeyValueBlockchainIndexerDatabaseManagerTests.createScriptHash(i % scriptHashCount));
+            indexedRows.addOutput(transactionId, 1, (long) i, KeyValueBlockchainIndexerDatabaseManagerTests.createScriptHash((i * 7) % scriptHashCount));
+            if (i > 1) {
+                indexedRows.addInput(transactionId, 0, new TransactionOutputId(TransactionId.wrap((long) (i - 1)), 1));
+            }
+        }
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockchainIndexerDatabaseManager blockchainIndexerDatabaseManager = databaseManager.getBlockchainIndexerDatabaseManager();
+            final KeyValueBlockchainIndexerDatabaseManager keyValueBlockchainIndexerDatabaseManager = _newKeyValueBlockchainIndexerDatabaseManager(databaseManager);
+
+            // Action
+            final MilliTimer databaseWriteTimer = new MilliTimer();
+            databaseWriteTimer.start();
+            indexedRows.index(blockchainIndexerDatabaseManager);
+            databaseWriteTimer.stop();
+
+            final MilliTimer keyValueStoreWriteTimer = new MilliTimer();
+            keyValueStoreWriteTimer.start();
+            indexedRows.index(keyValueBlockchainIndexerDatabaseManager);
+            keyValueStoreWriteTimer.stop();
+
+            final MilliTimer databaseReadTimer = new MilliTimer();
+            databaseReadTimer.start();
+            final MutableList<Map<Integer, TransactionId>> expectedSpendingTransactions = new MutableList<>(transactionCount);
+            for (int i = 1; i <= transactionCount; ++i) {
+                expectedSpendingTransactions.add(blockchainIndexerDatabaseManager.getTransactionsSpendingOutputsOf(TransactionId.wrap((long) i)));
+            }
+            databaseReadTimer.stop();
+
+            final MilliTimer keyValueStoreReadTimer = new MilliTimer();
+            keyValueStoreReadTimer.start();
+            final MutableList<Map<Integer, TransactionId>> spendingTransactions = new MutableList<>(transactionCount);
+            for (int i = 1; i <= transactionCount; ++i) {
+                spendingTransactions.add(keyValueBlockchainIndexerDatabaseManager.getTransactionsSpendingOutputsOf(TransactionId.wrap((long) i)));
+            }
+            keyValueStoreReadTimer.stop();
+
+            Logger.info("Indexed " + indexedRows.outputTransactionIds.getCount() + " outputs and " + indexedRows.inputTransactionIds.getCount() + " inputs.");
+            Logger.info("Database: write=" + databaseWriteTimer.getMillisecondsElapsed() + "ms, read=" + databaseReadTimer.getMillisecondsElapsed() + "ms");
+            Logger.info("KeyValueStore: write=" + keyValueStoreWriteTimer.getMillisecondsElapsed() + "ms, read=" + keyValueStoreReadTimer.getMillisecondsElapsed() + "ms");
+
+            // Assert
+            for (int i = 0; i < transactionCount; ++i) {
+                Assert.assertEquals(expectedSpendingTransactions.get(i), spendingTransactions.get(i));
+            }
+        }
+    }
+}
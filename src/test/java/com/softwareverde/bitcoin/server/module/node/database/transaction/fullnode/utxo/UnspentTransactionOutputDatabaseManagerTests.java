@@ -3,9 +3,11 @@ package com.softwareverde.bitcoin.server.module.node.database.transaction.fullno
 import com.softwareverde.bitcoin.server.database.DatabaseConnection;
 import com.softwareverde.bitcoin.server.database.query.Query;
 import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm.UtxoKey;
 import com.softwareverde.bitcoin.test.IntegrationTest;
 import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
 import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
 import com.softwareverde.bitcoin.transaction.script.locking.MutableLockingScript;
 import com.softwareverde.bitcoin.transaction.script.opcode.ControlOperation;
@@ -30,10 +32,74 @@ public class UnspentTransactionOutputDatabaseManagerTests extends IntegrationTes
 
     @Override @After
     public void after() throws Exception {
+        UnspentTransactionOutputJvmManager.FLUSH_CHUNK_SIZE = UnspentTransactionOutputJvmManager.DEFAULT_FLUSH_CHUNK_SIZE;
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(0L);
         super.after();
     }
 
     protected static final Long MAX_UTXO_COUNT = 32L;
+    protected static final Long FLUSH_TIMEOUT_MS = 10000L;
+
+    protected static TransactionOutputIdentifier createTransactionOutputIdentifier(final int i) {
+        final Sha256Hash transactionHash = Sha256Hash.wrap(HashUtil.sha256(ByteUtil.integerToBytes(i)));
+        return new TransactionOutputIdentifier(transactionHash, 0);
+    }
+
+    protected static void insertUnspentTransactionOutputs(final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager, final int startIndex, final int count, final Long blockHeight) throws DatabaseException {
+        final MutableLockingScript lockingScript = new MutableLockingScript();
+        lockingScript.addOperation(ControlOperation.VERIFY);
+
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<>(count);
+        final MutableList<TransactionOutput> transactionOutputs = new MutableList<>(count);
+        for (int i = startIndex; i < (startIndex + count); ++i) {
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(0);
+            transactionOutput.setAmount(1L);
+            transactionOutput.setLockingScript(lockingScript);
+
+            transactionOutputIdentifiers.add(UnspentTransactionOutputDatabaseManagerTests.createTransactionOutputIdentifier(i));
+            transactionOutputs.add(transactionOutput);
+        }
+
+        unspentTransactionOutputDatabaseManager.insertUnspentTransactionOutputs(transactionOutputIdentifiers, transactionOutputs, blockHeight, null);
+        unspentTransactionOutputDatabaseManager.setUncommittedUnspentTransactionOutputBlockHeight(blockHeight);
+    }
+
+    protected static void markUnspentTransactionOutputsAsSpent(final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager, final int startIndex, final int count) throws DatabaseException {
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<>(count);
+        for (int i = startIndex; i < (startIndex + count); ++i) {
+            transactionOutputIdentifiers.add(UnspentTransactionOutputDatabaseManagerTests.createTransactionOutputIdentifier(i));
+        }
+        unspentTransactionOutputDatabaseManager.markTransactionOutputsAsSpent(transactionOutputIdentifiers);
+    }
+
+    /**
+     * Waits until the flusher thread has taken the queued commit and the double buffer contains doubleBufferSize UTXOs.
+     */
+    protected static void waitForDoubleBufferSize(final int doubleBufferSize) throws Exception {
+        final long startTime = System.currentTimeMillis();
+        while (true) {
+            synchronized (UnspentTransactionOutputJvmManager.DOUBLE_BUFFER) {
+                final boolean queueIsEmpty = UnspentTransactionOutputJvmManager.QUEUED_BUFFER.isEmpty();
+                if ( queueIsEmpty && (UnspentTransactionOutputJvmManager.DOUBLE_BUFFER.size() == doubleBufferSize) ) { return; }
+            }
+
+            if ((System.currentTimeMillis() - startTime) > FLUSH_TIMEOUT_MS) {
+                Assert.fail("Timed out waiting for the double buffer to contain " + doubleBufferSize + " UTXOs.");
+            }
+            Thread.sleep(10L);
+        }
+    }
+
+    protected static Thread getDoubleBufferThread() {
+        synchronized (UnspentTransactionOutputJvmManager.DOUBLE_BUFFER) {
+            return UnspentTransactionOutputJvmManager.DOUBLE_BUFFER_THREAD;
+        }
+    }
+
+    protected Long _getCommittedBlockHeight() {
+        return _propertiesStore.getLong(UnspentTransactionOutputJvmManager.COMMITTED_UTXO_BLOCK_HEIGHT_KEY);
+    }
 
     protected Long _getUtxoCountInMemory() throws DatabaseException {
         return (long) UnspentTransactionOutputJvmManager.UTXO_SET.size();
@@ -106,4 +172,170 @@ public class UnspentTransactionOutputDatabaseManagerTests extends IntegrationTes
             Assert.assertEquals(MAX_UTXO_COUNT, _getUtxoCountOnDisk(databaseConnection));
         }
     }
+
+    @Test
+    public void should_queue_commit_while_previous_commit_is_being_flushed() throws Exception {
+        // Setup
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(1024L, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 0, 8, 1L);
+
+        final Boolean secondCommitWasQueued;
+        final Thread doubleBufferThread;
+        UnspentTransactionOutputJvmManager.COMMITTED_UTXO_TABLE_WRITE_LOCK.lock(); // Stalls the flusher once it has taken the first commit...
+        try {
+            unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_IF_BUSY);
+            UnspentTransactionOutputDatabaseManagerTests.waitForDoubleBufferSize(8);
+
+            UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 8, 8, 2L);
+
+            // Action
+            secondCommitWasQueued = unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.SKIP_IF_BUSY);
+
+            // Assert
+            Assert.assertEquals(8, UnspentTransactionOutputJvmManager.DOUBLE_BUFFER.size());
+            Assert.assertEquals(8, UnspentTransactionOutputJvmManager.QUEUED_BUFFER.size());
+            Assert.assertEquals(Long.valueOf(2L), UnspentTransactionOutputJvmManager.QUEUED_COMMIT_BLOCK_HEIGHT);
+            for (int i = 0; i < 16; ++i) {
+                final UtxoKey utxoKey = new UtxoKey(UnspentTransactionOutputDatabaseManagerTests.createTransactionOutputIdentifier(i));
+                Assert.assertNotNull(UnspentTransactionOutputJvmManager.getBufferedUtxoValue(utxoKey));
+            }
+
+            doubleBufferThread = UnspentTransactionOutputDatabaseManagerTests.getDoubleBufferThread();
+        }
+        finally {
+            UnspentTransactionOutputJvmManager.COMMITTED_UTXO_TABLE_WRITE_LOCK.unlock();
+        }
+
+        doubleBufferThread.join(FLUSH_TIMEOUT_MS);
+
+        Assert.assertTrue(secondCommitWasQueued);
+        Assert.assertTrue(UnspentTransactionOutputJvmManager.DOUBLE_BUFFER.isEmpty());
+        Assert.assertTrue(UnspentTransactionOutputJvmManager.QUEUED_BUFFER.isEmpty());
+        Assert.assertEquals(Long.valueOf(2L), _getCommittedBlockHeight());
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(16L), _getUtxoCountOnDisk(databaseConnection));
+        }
+    }
+
+    @Test
+    public void should_not_queue_commit_beyond_the_buffer_headroom() throws Exception {
+        // Setup
+        final long maxUtxoCount = 16L;
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(maxUtxoCount, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 0, 12, 1L);
+
+        final Boolean secondCommitWasQueued;
+        final Thread doubleBufferThread;
+        UnspentTransactionOutputJvmManager.COMMITTED_UTXO_TABLE_WRITE_LOCK.lock(); // Stalls the flusher once it has taken the first commit...
+        try {
+            unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_IF_BUSY);
+            UnspentTransactionOutputDatabaseManagerTests.waitForDoubleBufferSize(12);
+
+            UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 12, 8, 2L);
+
+            // Action
+            secondCommitWasQueued = unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.SKIP_IF_BUSY);
+
+            doubleBufferThread = UnspentTransactionOutputDatabaseManagerTests.getDoubleBufferThread();
+        }
+        finally {
+            UnspentTransactionOutputJvmManager.COMMITTED_UTXO_TABLE_WRITE_LOCK.unlock();
+        }
+
+        // Assert
+        Assert.assertFalse(secondCommitWasQueued); // 12 buffered UTXOs and 8 unflushed UTXOs exceed the 16 UTXOs of headroom.
+
+        doubleBufferThread.join(FLUSH_TIMEOUT_MS);
+        Assert.assertEquals(Long.valueOf(1L), _getCommittedBlockHeight());
+
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_UNTIL_COMPLETE);
+        Assert.assertEquals(Long.valueOf(2L), _getCommittedBlockHeight());
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(20L), _getUtxoCountOnDisk(databaseConnection));
+        }
+    }
+
+    @Test
+    public void should_flush_double_buffer_in_chunks_and_only_then_advance_the_committed_block_height() throws Exception {
+        // Setup
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(1024L, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+
+        UnspentTransactionOutputJvmManager.FLUSH_CHUNK_SIZE = 4;
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(4L); // Pauses the flusher for about one second after each chunk.
+
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 0, 10, 1L);
+
+        // Action
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_IF_BUSY);
+        final Thread doubleBufferThread = UnspentTransactionOutputDatabaseManagerTests.getDoubleBufferThread();
+        UnspentTransactionOutputDatabaseManagerTests.waitForDoubleBufferSize(6);
+
+        // Assert
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(4L), _getUtxoCountOnDisk(databaseConnection)); // The first chunk is committed and released from memory...
+        }
+        Assert.assertNull(_getCommittedBlockHeight()); // ...but the pass is incomplete.
+
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(0L);
+        doubleBufferThread.join(FLUSH_TIMEOUT_MS);
+
+        Assert.assertEquals(Long.valueOf(1L), _getCommittedBlockHeight());
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(10L), _getUtxoCountOnDisk(databaseConnection));
+        }
+    }
+
+    @Test
+    public void should_restore_utxo_set_by_replaying_blocks_after_a_partial_flush() throws Exception {
+        // Setup
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(1024L, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+
+        UnspentTransactionOutputJvmManager.FLUSH_CHUNK_SIZE = 4;
+
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 0, 8, 1L);
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_UNTIL_COMPLETE);
+
+        // Block 2 spends UTXOs 0-5 and creates UTXOs 8-13; the node "crashes" after the first of its three chunks is flushed.
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(4L);
+        UnspentTransactionOutputDatabaseManagerTests.markUnspentTransactionOutputsAsSpent(unspentTransactionOutputDatabaseManager, 0, 6);
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 8, 6, 2L);
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_IF_BUSY);
+
+        final Thread doubleBufferThread = UnspentTransactionOutputDatabaseManagerTests.getDoubleBufferThread();
+        UnspentTransactionOutputDatabaseManagerTests.waitForDoubleBufferSize(8);
+        doubleBufferThread.interrupt();
+        doubleBufferThread.join(FLUSH_TIMEOUT_MS);
+        UnspentTransactionOutputJvmManager.setMaxUtxoFlushRate(0L);
+
+        Assert.assertEquals(Long.valueOf(1L), _getCommittedBlockHeight()); // The crash marker still precedes block 2.
+
+        // Action
+        unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet();
+        UnspentTransactionOutputDatabaseManagerTests.markUnspentTransactionOutputsAsSpent(unspentTransactionOutputDatabaseManager, 0, 6);
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 8, 6, 2L);
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_UNTIL_COMPLETE);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(2L), _getCommittedBlockHeight());
+        try (final DatabaseConnection databaseConnection = _databaseConnectionFactory.newConnection()) {
+            Assert.assertEquals(Long.valueOf(8L), _getUtxoCountOnDisk(databaseConnection));
+        }
+
+        for (int i = 0; i < 14; ++i) {
+            final TransactionOutputIdentifier transactionOutputIdentifier = UnspentTransactionOutputDatabaseManagerTests.createTransactionOutputIdentifier(i);
+            final UnspentTransactionOutput unspentTransactionOutput = unspentTransactionOutputDatabaseManager.getUnspentTransactionOutput(transactionOutputIdentifier);
+            if (i < 6) {
+                Assert.assertNull(unspentTransactionOutput);
+            }
+            else {
+                Assert.assertNotNull(unspentTransactionOutput);
+            }
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.MutableBlock;
+import com.softwareverde.bitcoin.block.header.BlockHeader;
+import com.softwareverde.bitcoin.block.header.difficulty.Difficulty;
+import com.softwareverde.bitcoin.chain.time.MedianBlockTime;
+import com.softwareverde.bitcoin.server.database.DatabaseConnectionFactory;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.DatabaseManagerFactory;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.transaction.MutableTransaction;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.input.MutableTransactionInput;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.locktime.LockTime;
+import com.softwareverde.bitcoin.transaction.locktime.SequenceNumber;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.unlocking.UnlockingScript;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.database.DatabaseException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class UnspentTransactionOutputPrefetcherTests extends IntegrationTest {
+    protected static Transaction createTransaction(final TransactionOutputIdentifier... previousTransactionOutputIdentifiers) {
+        final MutableTransaction mutableTransaction = new MutableTransaction();
+        mutableTransaction.setVersion(Transaction.VERSION);
+        mutableTransaction.setLockTime(LockTime.MIN_TIMESTAMP);
+
+        for (final TransactionOutputIdentifier transactionOutputIdentifier : previousTransactionOutputIdentifiers) {
+            final MutableTransactionInput mutableTransactionInput = new MutableTransactionInput();
+            mutableTransactionInput.setSequenceNumber(SequenceNumber.MAX_SEQUENCE_NUMBER);
+            mutableTransactionInput.setUnlockingScript(UnlockingScript.EMPTY_SCRIPT);
+            mutableTransactionInput.setPreviousOutputTransactionHash(transactionOutputIdentifier.getTransactionHash());
+            mutableTransactionInput.setPreviousOutputIndex(transactionOutputIdentifier.getOutputIndex());
+            mutableTransaction.addTransactionInput(mutableTransactionInput);
+        }
+
+        return mutableTransaction;
+    }
+
+    protected static Sha256Hash createTransactionHash(final String seed) {
+        return Sha256Hash.wrap(HashUtil.sha256(seed.getBytes()));
+    }
+
+    protected static List<TransactionOutputIdentifier> createTransactionOutputIdentifiers(final int count) {
+        final MutableList<TransactionOutputIdentifier> transactionOutputIdentifiers = new MutableList<>(count);
+        for (int i = 0; i < count; ++i) {
+            transactionOutputIdentifiers.add(UnspentTransactionOutputDatabaseManagerTests.createTransactionOutputIdentifier(i));
+        }
+        return transactionOutputIdentifiers;
+    }
+
+    /**
+     * Returns a DatabaseManagerFactory that runs the provided callback before the prefetch's first query, which is after
+     *  the prefetch has determined its cache misses but before its results are added to the cache.
+     */
+    protected DatabaseManagerFactory _createDatabaseManagerFactory(final Runnable beforeFirstQueryCallback) {
+        final AtomicBoolean callbackWasRun = new AtomicBoolean(false);
+        return new DatabaseManagerFactory() {
+            @Override
+            public DatabaseManager newDatabaseManager() throws DatabaseException {
+                if (callbackWasRun.compareAndSet(false, true)) {
+                    beforeFirstQueryCallback.run();
+                }
+                return _fullNodeDatabaseManagerFactory.newDatabaseManager();
+            }
+
+            @Override
+            public DatabaseConnectionFactory getDatabaseConnectionFactory() {
+                return _fullNodeDatabaseManagerFactory.getDatabaseConnectionFactory();
+            }
+
+            @Override
+            public DatabaseManagerFactory newDatabaseManagerFactory(final DatabaseConnectionFactory databaseConnectionFactory) {
+                return _fullNodeDatabaseManagerFactory.newDatabaseManagerFactory(databaseConnectionFactory);
+            }
+
+            @Override
+            public Integer getMaxQueryBatchSize() {
+                return _fullNodeDatabaseManagerFactory.getMaxQueryBatchSize();
+            }
+        };
+    }
+
+    /**
+     * Commits count UTXOs to disk and then empties the cache so that each of them must be prefetched.
+     */
+    protected UnspentTransactionOutputDatabaseManager _createCommittedUnspentTransactionOutputs(final Long maxUtxoCount, final int count) throws Exception {
+        final FullNodeDatabaseManager fullNodeDatabaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager();
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = new UnspentTransactionOutputJvmManager(maxUtxoCount, 0.50F, fullNodeDatabaseManager, _blockStore, _masterInflater);
+
+        UnspentTransactionOutputDatabaseManagerTests.insertUnspentTransactionOutputs(unspentTransactionOutputDatabaseManager, 0, count, 1L);
+        unspentTransactionOutputDatabaseManager.commitUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, CommitAsyncMode.BLOCK_UNTIL_COMPLETE);
+        UnspentTransactionOutputJvmManager.UTXO_SET.clear();
+
+        return unspentTransactionOutputDatabaseManager;
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_only_require_outputs_not_created_within_the_block() {
+        // Setup
+        final TransactionOutputIdentifier externalOutput0 = new TransactionOutputIdentifier(UnspentTransactionOutputPrefetcherTests.createTransactionHash("0"), 0);
+        final TransactionOutputIdentifier externalOutput1 = new TransactionOutputIdentifier(UnspentTransactionOutputPrefetcherTests.createTransactionHash("1"), 3);
+
+        final MutableTransaction coinbaseTransaction = new MutableTransaction();
+        coinbaseTransaction.setVersion(Transaction.VERSION);
+        coinbaseTransaction.setLockTime(LockTime.MIN_TIMESTAMP);
+        coinbaseTransaction.addTransactionInput(TransactionInput.createCoinbaseTransactionInput(1L, ""));
+
+        final Transaction transaction0 = UnspentTransactionOutputPrefetcherTests.createTransaction(externalOutput0);
+        final Transaction transaction1 = UnspentTransactionOutputPrefetcherTests.createTransaction(new TransactionOutputIdentifier(transaction0.getHash(), 0), externalOutput1);
+
+        final MutableBlock block = new MutableBlock();
+        block.setVersion(Block.VERSION);
+        block.setPreviousBlockHash(BlockHeader.GENESIS_BLOCK_HASH);
+        block.setDifficulty(Difficulty.BASE_DIFFICULTY);
+        block.setTimestamp(MedianBlockTime.GENESIS_BLOCK_TIMESTAMP);
+        block.setNonce(0L);
+        block.addTransaction(coinbaseTransaction.asCoinbase());
+        block.addTransaction(transaction0);
+        block.addTransaction(transaction1);
+
+        // Action
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcher.getRequiredPreviousTransactionOutputIdentifiers(block);
+
+        // Assert
+        Assert.assertEquals(2, transactionOutputIdentifiers.getCount());
+        Assert.assertEquals(externalOutput0, transactionOutputIdentifiers.get(0));
+        Assert.assertEquals(externalOutput1, transactionOutputIdentifiers.get(1));
+    }
+
+    @Test
+    public void should_load_committed_outputs_into_the_cache() throws Exception {
+        // Setup
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _createCommittedUnspentTransactionOutputs(1024L, 8);
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcherTests.createTransactionOutputIdentifiers(8);
+
+        // Action
+        final Integer prefetchedCount = unspentTransactionOutputDatabaseManager.prefetchUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, transactionOutputIdentifiers);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(8), prefetchedCount);
+        Assert.assertEquals(8, UnspentTransactionOutputJvmManager.UTXO_SET.size());
+    }
+
+    @Test
+    public void should_discard_prefetched_outputs_when_the_cache_changes_generation() throws Exception {
+        // Setup
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _createCommittedUnspentTransactionOutputs(1024L, 8);
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcherTests.createTransactionOutputIdentifiers(8);
+
+        final DatabaseManagerFactory databaseManagerFactory = _createDatabaseManagerFactory(new Runnable() {
+            @Override
+            public void run() {
+                unspentTransactionOutputDatabaseManager.clearUncommittedUtxoSet(); // Any UTXO state may leave the cache, so the prefetched rows may be stale.
+            }
+        });
+
+        // Action
+        final Integer prefetchedCount = unspentTransactionOutputDatabaseManager.prefetchUnspentTransactionOutputs(databaseManagerFactory, transactionOutputIdentifiers);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(0), prefetchedCount);
+        Assert.assertEquals(0, UnspentTransactionOutputJvmManager.UTXO_SET.size());
+    }
+
+    @Test
+    public void should_not_overwrite_outputs_spent_during_the_prefetch() throws Exception {
+        // Setup
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _createCommittedUnspentTransactionOutputs(1024L, 8);
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcherTests.createTransactionOutputIdentifiers(8);
+        final TransactionOutputIdentifier spentTransactionOutputIdentifier = transactionOutputIdentifiers.get(0);
+
+        final DatabaseManagerFactory databaseManagerFactory = _createDatabaseManagerFactory(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    UnspentTransactionOutputDatabaseManagerTests.markUnspentTransactionOutputsAsSpent(unspentTransactionOutputDatabaseManager, 0, 1);
+                }
+                catch (final DatabaseException exception) {
+                    throw new RuntimeException(exception);
+                }
+            }
+        });
+
+        // Action
+        final Integer prefetchedCount = unspentTransactionOutputDatabaseManager.prefetchUnspentTransactionOutputs(databaseManagerFactory, transactionOutputIdentifiers);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(7), prefetchedCount);
+        Assert.assertEquals(8, UnspentTransactionOutputJvmManager.UTXO_SET.size());
+        Assert.assertNull(unspentTransactionOutputDatabaseManager.getUnspentTransactionOutput(spentTransactionOutputIdentifier));
+        Assert.assertNotNull(unspentTransactionOutputDatabaseManager.getUnspentTransactionOutput(transactionOutputIdentifiers.get(1)));
+    }
+
+    @Test
+    public void should_stop_prefetching_once_the_cache_reaches_its_post_purge_capacity() throws Exception {
+        // Setup
+        final UnspentTransactionOutputDatabaseManager unspentTransactionOutputDatabaseManager = _createCommittedUnspentTransactionOutputs(8L, 8);
+        final List<TransactionOutputIdentifier> transactionOutputIdentifiers = UnspentTransactionOutputPrefetcherTests.createTransactionOutputIdentifiers(8);
+
+        // Action
+        final Integer prefetchedCount = unspentTransactionOutputDatabaseManager.prefetchUnspentTransactionOutputs(_fullNodeDatabaseManagerFactory, transactionOutputIdentifiers);
+
+        // Assert
+        Assert.assertEquals(Integer.valueOf(4), prefetchedCount); // A cache of 8 purged by half keeps at most 4 UTXOs.
+        Assert.assertEquals(4, UnspentTransactionOutputJvmManager.UTXO_SET.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+public class ConcurrentUtxoMapTests extends UnitTest {
+    protected static UtxoKey createUtxoKey(final int i) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(32);
+        byteBuffer.putInt(i);
+        return new UtxoKey(byteBuffer.array(), 0);
+    }
+
+    protected static UtxoValue createUtxoValue(final int i) {
+        return new UtxoValue(0, (long) i, false, (1000L * i), new byte[0]);
+    }
+
+    @Test
+    public void should_count_utxos_across_modifications() {
+        // Setup
+        final ConcurrentUtxoMap utxoMap = new ConcurrentUtxoMap();
+
+        // Action
+        for (int i = 0; i < 100; ++i) {
+            utxoMap.put(ConcurrentUtxoMapTests.createUtxoKey(i), ConcurrentUtxoMapTests.createUtxoValue(i));
+        }
+        utxoMap.put(ConcurrentUtxoMapTests.createUtxoKey(0), ConcurrentUtxoMapTests.createUtxoValue(1)); // Replaced.
+        utxoMap.putIfAbsent(ConcurrentUtxoMapTests.createUtxoKey(1), ConcurrentUtxoMapTests.createUtxoValue(2)); // Ignored.
+        utxoMap.putIfAbsent(ConcurrentUtxoMapTests.createUtxoKey(100), ConcurrentUtxoMapTests.createUtxoValue(100)); // Added.
+        utxoMap.remove(ConcurrentUtxoMapTests.createUtxoKey(2));
+        utxoMap.remove(ConcurrentUtxoMapTests.createUtxoKey(1000)); // Not present.
+        utxoMap.keySet().remove(ConcurrentUtxoMapTests.createUtxoKey(3));
+
+        final Iterator<Map.Entry<UtxoKey, UtxoValue>> iterator = utxoMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<UtxoKey, UtxoValue> entry = iterator.next();
+            if (entry.getValue().getBlockHeight() >= 90L) {
+                iterator.remove();
+            }
+        }
+
+        // Assert
+        Assert.assertEquals(88, utxoMap.size());
+        int utxoCount = 0;
+        for (final UtxoKey utxoKey : utxoMap.keySet()) {
+            utxoCount += 1;
+        }
+        Assert.assertEquals(utxoCount, utxoMap.size());
+
+        utxoMap.clear();
+        Assert.assertEquals(0, utxoMap.size());
+        Assert.assertTrue(utxoMap.isEmpty());
+    }
+
+    @Test
+    public void should_read_utxos_while_they_are_being_modified() throws Exception {
+        // Setup
+        final ConcurrentUtxoMap utxoMap = new ConcurrentUtxoMap();
+        final int utxoCount = 10000;
+        for (int i = 0; i < utxoCount; i += 2) {
+            utxoMap.put(ConcurrentUtxoMapTests.createUtxoKey(i), ConcurrentUtxoMapTests.createUtxoValue(i));
+        }
+
+        final Thread writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 1; i < utxoCount; i += 2) {
+                    utxoMap.put(ConcurrentUtxoMapTests.createUtxoKey(i), ConcurrentUtxoMapTests.createUtxoValue(i));
+                }
+            }
+        });
+
+        // Action
+        writerThread.start();
+        int missingUtxoCount = 0;
+        for (int i = 0; i < utxoCount; i += 2) {
+            final UtxoValue utxoValue = utxoMap.get(ConcurrentUtxoMapTests.createUtxoKey(i));
+            if ( (utxoValue == null) || (utxoValue.getBlockHeight() != i) ) {
+                missingUtxoCount += 1;
+            }
+        }
+        writerThread.join();
+
+        // Assert
+        Assert.assertEquals(0, missingUtxoCount);
+        Assert.assertEquals(utxoCount, utxoMap.size());
+    }
+}
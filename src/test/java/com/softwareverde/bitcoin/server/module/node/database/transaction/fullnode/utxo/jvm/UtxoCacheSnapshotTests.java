@@ -0,0 +1,140 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class UtxoCacheSnapshotTests extends UnitTest {
+    protected static final int SPENT_STATE_CODE = 0x02;
+
+    protected File _file;
+
+    protected static TreeMap<UtxoKey, UtxoValue> createUtxos(final int utxoCount) {
+        final TreeMap<UtxoKey, UtxoValue> utxos = new TreeMap<>(UtxoKey.COMPARATOR);
+        for (int i = 0; i < utxoCount; ++i) {
+            final ByteBuffer byteBuffer = ByteBuffer.allocate(32);
+            byteBuffer.putInt(i * 7919);
+            final byte[] lockingScript = new byte[(i % 5) * 10];
+            if (lockingScript.length > 0) {
+                lockingScript[0] = (byte) i;
+            }
+
+            final UtxoValue utxoValue = new UtxoValue(SPENT_STATE_CODE, (1000L + i), ((i % 3) == 0), (5000L * i), lockingScript);
+            utxoValue.accessBlockHeight = (2000 + i);
+            utxos.put(new UtxoKey(byteBuffer.array(), (i % 4)), utxoValue);
+        }
+        return utxos;
+    }
+
+    protected void _writeSnapshot(final TreeMap<UtxoKey, UtxoValue> utxos, final Integer shardCount) throws Exception {
+        UtxoCacheSnapshot.write(_file, 1234L, new ArrayList<Map.Entry<UtxoKey, UtxoValue>>(utxos.entrySet()), shardCount);
+    }
+
+    protected static void assertUtxoValuesEqual(final UtxoValue expectedUtxoValue, final UtxoValue utxoValue) {
+        Assert.assertNotNull(utxoValue);
+        Assert.assertEquals(expectedUtxoValue.spentStateCode, utxoValue.spentStateCode);
+        Assert.assertEquals(expectedUtxoValue.getBlockHeight(), utxoValue.getBlockHeight());
+        Assert.assertEquals(expectedUtxoValue.accessBlockHeight, utxoValue.accessBlockHeight);
+        Assert.assertEquals(expectedUtxoValue.isCoinbase(), utxoValue.isCoinbase());
+        Assert.assertEquals(expectedUtxoValue.getAmount(), utxoValue.getAmount());
+        Assert.assertArrayEquals(expectedUtxoValue.getLockingScript(), utxoValue.getLockingScript());
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+        _file = Files.createTempFile("utxo-cache", ".dat").toFile();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        _file.delete();
+
+        super.after();
+    }
+
+    @Test
+    public void should_write_and_read_back_sharded_snapshot() throws Exception {
+        // Setup
+        final TreeMap<UtxoKey, UtxoValue> expectedUtxos = UtxoCacheSnapshotTests.createUtxos(1000);
+        _writeSnapshot(expectedUtxos, 7);
+
+        // Action
+        final UtxoCacheSnapshot utxoCacheSnapshot = UtxoCacheSnapshot.open(_file);
+        final SortedUtxoList sortedUtxos = utxoCacheSnapshot.read(SPENT_STATE_CODE, Long.MAX_VALUE);
+        final TreeMap<UtxoKey, UtxoValue> utxos = new TreeMap<>(UtxoKey.COMPARATOR);
+        for (int i = 0; i < sortedUtxos.getCount(); ++i) {
+            utxos.put(sortedUtxos.getUtxoKey(i), sortedUtxos.getUtxoValue(i));
+        }
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(1234L), utxoCacheSnapshot.getBlockHeight());
+        Assert.assertEquals(Long.valueOf(1000L), utxoCacheSnapshot.getUtxoCount());
+        Assert.assertEquals(Integer.valueOf(7), utxoCacheSnapshot.getShardCount());
+        Assert.assertEquals(expectedUtxos.size(), utxos.size());
+        for (final Map.Entry<UtxoKey, UtxoValue> entry : expectedUtxos.entrySet()) {
+            UtxoCacheSnapshotTests.assertUtxoValuesEqual(entry.getValue(), utxos.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void should_read_only_the_first_utxos_when_limited() throws Exception {
+        // Setup
+        final TreeMap<UtxoKey, UtxoValue> expectedUtxos = UtxoCacheSnapshotTests.createUtxos(100);
+        _writeSnapshot(expectedUtxos, 4);
+        final UtxoCacheSnapshot utxoCacheSnapshot = UtxoCacheSnapshot.open(_file);
+
+        // Action
+        final SortedUtxoList sortedUtxos = utxoCacheSnapshot.read(SPENT_STATE_CODE, 30L);
+
+        // Assert
+        Assert.assertEquals(30, sortedUtxos.getCount());
+        Assert.assertEquals(expectedUtxos.firstKey(), sortedUtxos.getUtxoKey(0));
+        Assert.assertEquals(29, expectedUtxos.headMap(sortedUtxos.getUtxoKey(29)).size());
+    }
+
+    @Test
+    public void should_reject_corrupted_shard() throws Exception {
+        // Setup
+        _writeSnapshot(UtxoCacheSnapshotTests.createUtxos(100), 4);
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(_file, "rw")) {
+            final long position = (randomAccessFile.length() - 1L);
+            randomAccessFile.seek(position);
+            final int value = randomAccessFile.read();
+            randomAccessFile.seek(position);
+            randomAccessFile.write(value ^ 0xFF);
+        }
+
+        // Action
+        final UtxoCacheSnapshot utxoCacheSnapshot = UtxoCacheSnapshot.open(_file);
+
+        // Assert
+        Assert.assertFalse(utxoCacheSnapshot.verify());
+        Assert.assertNull(utxoCacheSnapshot.read(SPENT_STATE_CODE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void should_reject_unsupported_format() throws Exception {
+        // Setup
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(_file, "rw")) {
+            randomAccessFile.writeLong(1234L); // The previous load file format began with the block height.
+            randomAccessFile.write(new byte[36]);
+        }
+
+        // Action
+        final UtxoCacheSnapshot utxoCacheSnapshot = UtxoCacheSnapshot.open(_file);
+
+        // Assert
+        Assert.assertNull(utxoCacheSnapshot);
+    }
+}
@@ -0,0 +1,114 @@
+package com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.jvm;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.util.HexUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UtxoCompressorTests extends UnitTest {
+    @Test
+    public void should_round_trip_amounts() {
+        // Setup
+        final long[] amounts = new long[]{ 0L, 1L, 9L, 10L, 546L, 100000L, 123456789L, (50L * 100000000L), (21000000L * 100000000L), 1000000000L, 12000000000L, Long.MAX_VALUE / 10L };
+
+        for (final long amount : amounts) {
+            // Action
+            final long compressedAmount = UtxoCompressor.compressAmount(amount);
+            final long decompressedAmount = UtxoCompressor.decompressAmount(compressedAmount);
+
+            // Assert
+            Assert.assertEquals(amount, decompressedAmount);
+        }
+    }
+
+    @Test
+    public void should_compress_round_amounts_to_small_values() {
+        // Action
+        final long compressedAmount = UtxoCompressor.compressAmount(50L * 100000000L);
+
+        // Assert
+        Assert.assertEquals(50L, compressedAmount);
+    }
+
+    @Test
+    public void should_compress_pay_to_public_key_hash_script_to_its_hash() {
+        // Setup
+        final byte[] lockingScript = HexUtil.hexStringToByteArray("76A914F1C075A01882AE0972F95D3A4177C86C852B7D9188AC");
+        final long amount = 1234567L;
+
+        // Action
+        final byte[] compressedOutput = UtxoCompressor.compressOutput(amount, lockingScript);
+
+        // Assert
+        Assert.assertEquals(((UtxoCompressor.getVariableLengthIntegerByteCount(UtxoCompressor.compressAmount(amount) + 1L)) + 1 + 20), compressedOutput.length);
+        Assert.assertEquals(amount, UtxoCompressor.getAmount(compressedOutput));
+        Assert.assertArrayEquals(lockingScript, UtxoCompressor.getLockingScript(compressedOutput));
+    }
+
+    @Test
+    public void should_compress_pay_to_script_hash_script_to_its_hash() {
+        // Setup
+        final byte[] lockingScript = HexUtil.hexStringToByteArray("A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A87");
+        final long amount = 100000000L;
+
+        // Action
+        final byte[] compressedOutput = UtxoCompressor.compressOutput(amount, lockingScript);
+
+        // Assert
+        Assert.assertEquals(22, compressedOutput.length);
+        Assert.assertEquals(amount, UtxoCompressor.getAmount(compressedOutput));
+        Assert.assertArrayEquals(lockingScript, UtxoCompressor.getLockingScript(compressedOutput));
+    }
+
+    @Test
+    public void should_round_trip_non_standard_scripts() {
+        // Setup
+        final byte[] payToPublicKeyScript = HexUtil.hexStringToByteArray("4104678AFDB0FE5548271967F1A67130B7105CD6A828E03909A67962E0EA1F61DEB649F6BC3F4CEF38C4F35504E51EC112DE5C384DF7BA0B8D578A4C702B6BF11D5FAC");
+        final byte[] almostPayToScriptHashScript = HexUtil.hexStringToByteArray("A914E9C3DD0C07AAC76179EBC76A6C78D4D67C6C160A88");
+        final byte[] emptyScript = new byte[0];
+
+        for (final byte[] lockingScript : new byte[][]{ payToPublicKeyScript, almostPayToScriptHashScript, emptyScript }) {
+            // Action
+            final byte[] compressedOutput = UtxoCompressor.compressOutput(5000000000L, lockingScript);
+
+            // Assert
+            Assert.assertEquals(5000000000L, UtxoCompressor.getAmount(compressedOutput));
+            Assert.assertArrayEquals(lockingScript, UtxoCompressor.getLockingScript(compressedOutput));
+        }
+    }
+
+    @Test
+    public void should_round_trip_spent_outputs() {
+        // Setup
+        final JvmSpentState jvmSpentState = new JvmSpentState();
+        jvmSpentState.setIsSpent(true);
+
+        // Action
+        final UtxoValue utxoValue = new UtxoValue(jvmSpentState, UtxoValue.UNKNOWN_BLOCK_HEIGHT, true, null);
+
+        // Assert
+        Assert.assertEquals(UtxoValue.UNKNOWN_BLOCK_HEIGHT, utxoValue.getBlockHeight());
+        Assert.assertTrue(utxoValue.isCoinbase());
+        Assert.assertEquals(UtxoValue.SPENT_AMOUNT, utxoValue.getAmount());
+        Assert.assertNull(utxoValue.getLockingScript());
+        Assert.assertEquals(2, utxoValue.compressedOutput.length);
+    }
+
+    @Test
+    public void should_pack_block_height_and_coinbase_flag() {
+        // Setup
+        final byte[] lockingScript = HexUtil.hexStringToByteArray("76A914F1C075A01882AE0972F95D3A4177C86C852B7D9188AC");
+
+        // Action
+        final UtxoValue coinbaseUtxoValue = new UtxoValue(0, 650000L, true, 625000000L, lockingScript);
+        final UtxoValue utxoValue = new UtxoValue(0, 650001L, false, 625000000L, lockingScript);
+
+        // Assert
+        Assert.assertEquals(650000L, coinbaseUtxoValue.getBlockHeight());
+        Assert.assertTrue(coinbaseUtxoValue.isCoinbase());
+        Assert.assertEquals(650001L, utxoValue.getBlockHeight());
+        Assert.assertFalse(utxoValue.isCoinbase());
+        Assert.assertEquals(625000000L, utxoValue.getAmount());
+        Assert.assertArrayEquals(lockingScript, utxoValue.getLockingScript());
+    }
+}
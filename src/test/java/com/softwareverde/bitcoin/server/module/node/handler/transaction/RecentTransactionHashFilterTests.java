@@ -0,0 +1,76 @@
+package com.softwareverde.bitcoin.server.module.node.handler.transaction;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecentTransactionHashFilterTests extends UnitTest {
+    protected static Sha256Hash createHash(final int index) {
+        return Sha256Hash.wrap(HashUtil.sha256(ByteUtil.integerToBytes(index)));
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_only_return_hashes_that_were_not_previously_added() {
+        // Setup
+        final RecentTransactionHashFilter recentTransactionHashFilter = new RecentTransactionHashFilter();
+
+        final MutableList<Sha256Hash> firstAnnouncement = new MutableList<>();
+        for (int i = 0; i < 100; ++i) {
+            firstAnnouncement.add(RecentTransactionHashFilterTests.createHash(i));
+        }
+
+        final MutableList<Sha256Hash> secondAnnouncement = new MutableList<>();
+        for (int i = 50; i < 150; ++i) {
+            secondAnnouncement.add(RecentTransactionHashFilterTests.createHash(i));
+        }
+
+        // Action
+        final List<Sha256Hash> firstNewHashes = recentTransactionHashFilter.addAll(firstAnnouncement);
+        final List<Sha256Hash> secondNewHashes = recentTransactionHashFilter.addAll(secondAnnouncement);
+
+        // Assert
+        Assert.assertEquals(100, firstNewHashes.getCount());
+        Assert.assertEquals(50, secondNewHashes.getCount());
+        for (int i = 0; i < 50; ++i) {
+            Assert.assertEquals(RecentTransactionHashFilterTests.createHash(i + 100), secondNewHashes.get(i));
+        }
+        Assert.assertEquals(150, recentTransactionHashFilter.getCount().intValue());
+    }
+
+    @Test
+    public void should_evict_the_oldest_hashes_once_full() {
+        // Setup
+        final RecentTransactionHashFilter recentTransactionHashFilter = new RecentTransactionHashFilter(1000, 1);
+
+        // Action
+        for (int i = 0; i < 1500; ++i) {
+            recentTransactionHashFilter.add(RecentTransactionHashFilterTests.createHash(i));
+        }
+
+        // Assert
+        Assert.assertEquals(1000, recentTransactionHashFilter.getCount().intValue());
+        for (int i = 0; i < 500; ++i) {
+            Assert.assertFalse(recentTransactionHashFilter.contains(RecentTransactionHashFilterTests.createHash(i)));
+        }
+        for (int i = 500; i < 1500; ++i) {
+            Assert.assertTrue(recentTransactionHashFilter.contains(RecentTransactionHashFilterTests.createHash(i)));
+        }
+    }
+}
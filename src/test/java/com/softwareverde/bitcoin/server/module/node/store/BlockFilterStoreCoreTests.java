@@ -0,0 +1,167 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.configuration.BitcoinProperties;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class BlockFilterStoreCoreTests extends UnitTest {
+    protected File _directory;
+    protected BlockFilterStoreCore _blockFilterStore;
+
+    protected static BlockFilter createBlockFilter(final int blockHeight) {
+        final ByteBuffer blockHashBuffer = ByteBuffer.allocate(Sha256Hash.BYTE_COUNT);
+        blockHashBuffer.putInt(blockHeight + 1); // The empty hash denotes an unwritten record.
+        final Sha256Hash blockHash = Sha256Hash.wrap(blockHashBuffer.array());
+
+        final ByteBuffer filterBuffer = ByteBuffer.allocate(1 + (blockHeight % 7));
+        filterBuffer.put((byte) (blockHeight % 7));
+        return new BlockFilter(BlockFilterType.BASIC, blockHash, ByteArray.wrap(filterBuffer.array()));
+    }
+
+    protected BlockFilterStoreCore _openBlockFilterStore() {
+        final BlockFilterStoreCore blockFilterStore = new BlockFilterStoreCore(_directory.getPath());
+        Assert.assertTrue(blockFilterStore.open());
+        return blockFilterStore;
+    }
+
+    protected static void deleteRecursively(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File childFile : files) {
+                BlockFilterStoreCoreTests.deleteRecursively(childFile);
+            }
+        }
+        file.delete();
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+        _directory = Files.createTempDirectory("block-filter-store").toFile();
+        _blockFilterStore = _openBlockFilterStore();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        _blockFilterStore.close();
+        BlockFilterStoreCoreTests.deleteRecursively(_directory);
+
+        super.after();
+    }
+
+    @Test
+    public void should_store_filters_and_chain_filter_headers() {
+        // Setup
+        Sha256Hash expectedFilterHeader = Sha256Hash.EMPTY_HASH;
+
+        // Action
+        for (int i = 0; i < 10; ++i) {
+            final BlockFilter blockFilter = BlockFilterStoreCoreTests.createBlockFilter(i);
+            Assert.assertTrue(_blockFilterStore.storeBlockFilter((long) i, blockFilter));
+        }
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(10L), _blockFilterStore.getBlockFilterCount());
+        for (int i = 0; i < 10; ++i) {
+            final BlockFilter expectedBlockFilter = BlockFilterStoreCoreTests.createBlockFilter(i);
+            expectedFilterHeader = expectedBlockFilter.calculateFilterHeader(expectedFilterHeader);
+
+            final BlockFilter blockFilter = _blockFilterStore.getBlockFilter((long) i);
+            Assert.assertEquals(expectedBlockFilter.getBlockHash(), blockFilter.getBlockHash());
+            Assert.assertEquals(expectedBlockFilter.getBytes(), blockFilter.getBytes());
+            Assert.assertEquals(expectedBlockFilter.getBlockHash(), _blockFilterStore.getBlockHash((long) i));
+            Assert.assertEquals(expectedBlockFilter.getFilterHash(), _blockFilterStore.getFilterHash((long) i));
+            Assert.assertEquals(expectedFilterHeader, _blockFilterStore.getFilterHeader((long) i));
+        }
+        Assert.assertNull(_blockFilterStore.getBlockFilter(10L));
+    }
+
+    @Test
+    public void should_not_store_filter_beyond_the_next_block_height() {
+        // Setup
+        _blockFilterStore.storeBlockFilter(0L, BlockFilterStoreCoreTests.createBlockFilter(0));
+
+        // Action
+        final Boolean wasStored = _blockFilterStore.storeBlockFilter(2L, BlockFilterStoreCoreTests.createBlockFilter(2));
+
+        // Assert
+        Assert.assertFalse(wasStored);
+        Assert.assertEquals(Long.valueOf(1L), _blockFilterStore.getBlockFilterCount());
+    }
+
+    @Test
+    public void should_replace_filters_above_a_reorganized_block_height() {
+        // Setup
+        for (int i = 0; i < 10; ++i) {
+            _blockFilterStore.storeBlockFilter((long) i, BlockFilterStoreCoreTests.createBlockFilter(i));
+        }
+        final BlockFilter replacementBlockFilter = BlockFilterStoreCoreTests.createBlockFilter(100);
+        final Sha256Hash previousFilterHeader = _blockFilterStore.getFilterHeader(4L);
+
+        // Action
+        _blockFilterStore.storeBlockFilter(5L, replacementBlockFilter);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(6L), _blockFilterStore.getBlockFilterCount());
+        Assert.assertEquals(replacementBlockFilter.getBlockHash(), _blockFilterStore.getBlockHash(5L));
+        Assert.assertEquals(replacementBlockFilter.calculateFilterHeader(previousFilterHeader), _blockFilterStore.getFilterHeader(5L));
+        Assert.assertNull(_blockFilterStore.getBlockHash(6L));
+    }
+
+    @Test
+    public void should_discard_partially_written_records_when_reopened() throws Exception {
+        // Setup
+        for (int i = 0; i < 5; ++i) {
+            _blockFilterStore.storeBlockFilter((long) i, BlockFilterStoreCoreTests.createBlockFilter(i));
+        }
+        final Sha256Hash filterHeader = _blockFilterStore.getFilterHeader(3L);
+        _blockFilterStore.close();
+
+        final File filterDirectory = new File(_directory, BitcoinProperties.DATA_DIRECTORY_NAME + "/filters");
+        try (final RandomAccessFile indexFile = new RandomAccessFile(new File(filterDirectory, BlockFilterStoreCore.INDEX_FILE_NAME), "rw")) {
+            indexFile.setLength(indexFile.length() - 1L); // Truncate the last record...
+        }
+
+        // Action
+        _blockFilterStore = _openBlockFilterStore();
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(4L), _blockFilterStore.getBlockFilterCount());
+        Assert.assertEquals(filterHeader, _blockFilterStore.getFilterHeader(3L));
+        Assert.assertTrue(_blockFilterStore.storeBlockFilter(4L, BlockFilterStoreCoreTests.createBlockFilter(4)));
+        Assert.assertEquals(BlockFilterStoreCoreTests.createBlockFilter(4).getBytes(), _blockFilterStore.getBlockFilter(4L).getBytes());
+    }
+
+    @Test
+    public void should_discard_unwritten_records_when_reopened() throws Exception {
+        // Setup
+        for (int i = 0; i < 5; ++i) {
+            _blockFilterStore.storeBlockFilter((long) i, BlockFilterStoreCoreTests.createBlockFilter(i));
+        }
+        _blockFilterStore.close();
+
+        final File filterDirectory = new File(_directory, BitcoinProperties.DATA_DIRECTORY_NAME + "/filters");
+        try (final RandomAccessFile indexFile = new RandomAccessFile(new File(filterDirectory, BlockFilterStoreCore.INDEX_FILE_NAME), "rw")) {
+            indexFile.setLength(indexFile.length() + BlockFilterStoreCore.RECORD_BYTE_COUNT); // Extend the index by a zero-filled record, as if its contents were lost in a crash...
+        }
+
+        // Action
+        _blockFilterStore = _openBlockFilterStore();
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(5L), _blockFilterStore.getBlockFilterCount());
+        Assert.assertNull(_blockFilterStore.getBlockHash(5L));
+    }
+}
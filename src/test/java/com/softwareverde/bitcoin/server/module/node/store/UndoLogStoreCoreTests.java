@@ -0,0 +1,151 @@
+package com.softwareverde.bitcoin.server.module.node.store;
+
+import com.softwareverde.bitcoin.server.configuration.BitcoinProperties;
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.transaction.output.ImmutableUnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.MutableTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.transaction.script.locking.ImmutableLockingScript;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class UndoLogStoreCoreTests extends UnitTest {
+    protected File _directory;
+    protected UndoLogStoreCore _undoLogStore;
+
+    protected static Sha256Hash createHash(final int value) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(Sha256Hash.BYTE_COUNT);
+        byteBuffer.putInt(value);
+        return Sha256Hash.wrap(byteBuffer.array());
+    }
+
+    protected static HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> createSpentTransactionOutputs(final int blockHeight) {
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = new HashMap<>();
+        for (int i = 0; i < 5; ++i) {
+            final Integer outputIndex = (i * 300);
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(outputIndex);
+            transactionOutput.setAmount(5000000000L + i);
+            transactionOutput.setLockingScript(new ImmutableLockingScript(MutableByteArray.wrap(new byte[] { (byte) 0x76, (byte) 0xA9, (byte) i })));
+
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(UndoLogStoreCoreTests.createHash(i), outputIndex);
+            spentTransactionOutputs.put(transactionOutputIdentifier, new ImmutableUnspentTransactionOutput(transactionOutput, (long) (blockHeight - i), (i == 0)));
+        }
+        return spentTransactionOutputs;
+    }
+
+    protected static void deleteRecursively(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File childFile : files) {
+                UndoLogStoreCoreTests.deleteRecursively(childFile);
+            }
+        }
+        file.delete();
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+        _directory = Files.createTempDirectory("undo-log-store").toFile();
+        _undoLogStore = new UndoLogStoreCore(_directory.getPath());
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        UndoLogStoreCoreTests.deleteRecursively(_directory);
+
+        super.after();
+    }
+
+    @Test
+    public void should_store_and_read_back_spent_outputs() {
+        // Setup
+        final Sha256Hash blockHash = UndoLogStoreCoreTests.createHash(1000);
+        final HashMap<TransactionOutputIdentifier, UnspentTransactionOutput> expectedSpentTransactionOutputs = UndoLogStoreCoreTests.createSpentTransactionOutputs(1000);
+
+        // Action
+        final Boolean wasStored = _undoLogStore.storeUndoLog(1000L, blockHash, expectedSpentTransactionOutputs);
+        final Map<TransactionOutputIdentifier, UnspentTransactionOutput> spentTransactionOutputs = _undoLogStore.getUndoLog(1000L, blockHash);
+
+        // Assert
+        Assert.assertTrue(wasStored);
+        Assert.assertEquals(expectedSpentTransactionOutputs.size(), spentTransactionOutputs.size());
+        for (final Map.Entry<TransactionOutputIdentifier, UnspentTransactionOutput> entry : expectedSpentTransactionOutputs.entrySet()) {
+            final UnspentTransactionOutput expectedTransactionOutput = entry.getValue();
+            final UnspentTransactionOutput transactionOutput = spentTransactionOutputs.get(entry.getKey());
+
+            Assert.assertNotNull(transactionOutput);
+            Assert.assertEquals(expectedTransactionOutput.getIndex(), transactionOutput.getIndex());
+            Assert.assertEquals(expectedTransactionOutput.getAmount(), transactionOutput.getAmount());
+            Assert.assertEquals(expectedTransactionOutput.getLockingScript().getBytes(), transactionOutput.getLockingScript().getBytes());
+            Assert.assertEquals(expectedTransactionOutput.getBlockHeight(), transactionOutput.getBlockHeight());
+            Assert.assertEquals(expectedTransactionOutput.isCoinbase(), transactionOutput.isCoinbase());
+        }
+    }
+
+    @Test
+    public void should_keep_undo_logs_of_competing_blocks_separate() {
+        // Setup
+        final Sha256Hash blockHash = UndoLogStoreCoreTests.createHash(1000);
+        final Sha256Hash competingBlockHash = UndoLogStoreCoreTests.createHash(1001);
+        _undoLogStore.storeUndoLog(1000L, blockHash, UndoLogStoreCoreTests.createSpentTransactionOutputs(1000));
+
+        // Action
+        _undoLogStore.storeUndoLog(1000L, competingBlockHash, new HashMap<TransactionOutputIdentifier, UnspentTransactionOutput>());
+
+        // Assert
+        Assert.assertEquals(5, _undoLogStore.getUndoLog(1000L, blockHash).size());
+        Assert.assertEquals(0, _undoLogStore.getUndoLog(1000L, competingBlockHash).size());
+        Assert.assertNull(_undoLogStore.getUndoLog(1001L, blockHash));
+    }
+
+    @Test
+    public void should_remove_undo_logs_below_height() {
+        // Setup
+        for (int i = 0; i < 10; ++i) {
+            _undoLogStore.storeUndoLog((long) i, UndoLogStoreCoreTests.createHash(i), UndoLogStoreCoreTests.createSpentTransactionOutputs(i));
+        }
+
+        // Action
+        _undoLogStore.removeUndoLogsBelow(6L);
+
+        // Assert
+        for (int i = 0; i < 10; ++i) {
+            final Boolean undoLogExists = _undoLogStore.undoLogExists((long) i, UndoLogStoreCoreTests.createHash(i));
+            Assert.assertEquals((i >= 6), undoLogExists);
+        }
+
+        final File undoLogDirectory = new File(_directory, BitcoinProperties.DATA_DIRECTORY_NAME + "/undo");
+        Assert.assertEquals(4, undoLogDirectory.listFiles().length);
+    }
+
+    @Test
+    public void should_treat_truncated_undo_log_as_missing() throws Exception {
+        // Setup
+        final Sha256Hash blockHash = UndoLogStoreCoreTests.createHash(1000);
+        _undoLogStore.storeUndoLog(1000L, blockHash, UndoLogStoreCoreTests.createSpentTransactionOutputs(1000));
+
+        final File undoLogFile = new File(_undoLogStore._getUndoLogPath(1000L, blockHash));
+        final byte[] bytes = Files.readAllBytes(undoLogFile.toPath());
+
+        // Action
+        Files.write(undoLogFile.toPath(), Arrays.copyOf(bytes, (bytes.length - 2)));
+
+        // Assert
+        Assert.assertNull(_undoLogStore.getUndoLog(1000L, blockHash));
+        Assert.assertFalse(_undoLogStore.undoLogExists(1000L, blockHash));
+    }
+}
@@ -0,0 +1,294 @@
+package com.softwareverde.bitcoin.server.module.node.store.kv;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.mutable.MutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class KeyValueStoreCoreTests extends UnitTest {
+    protected File _directory;
+    protected final MutableList<KeyValueStoreCore> _keyValueStores = new MutableList<>();
+
+    protected static ByteArray createKey(final byte prefix, final int value) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(5);
+        byteBuffer.put(prefix);
+        byteBuffer.putInt(value);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected static ByteArray createValue(final int value) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(8);
+        byteBuffer.putLong(value * 31L);
+        return ByteArray.wrap(byteBuffer.array());
+    }
+
+    protected KeyValueStoreCore _openKeyValueStore(final Long maxMemtableByteCount, final Integer maxSortedRunCount) throws Exception {
+        final KeyValueStoreCore keyValueStore = new KeyValueStoreCore(_directory.getPath(), maxMemtableByteCount, maxSortedRunCount);
+        keyValueStore.open();
+        _keyValueStores.add(keyValueStore);
+        return keyValueStore;
+    }
+
+    protected static MutableList<ByteArray> scanKeys(final KeyValueStore keyValueStore, final ByteArray prefix) throws Exception {
+        final MutableList<ByteArray> keys = new MutableList<>();
+        keyValueStore.scan(prefix, new KeyValueStore.Visitor() {
+            @Override
+            public Boolean visit(final ByteArray key, final ByteArray value) {
+                keys.add(key);
+                return true;
+            }
+        });
+        return keys;
+    }
+
+    /**
+     * Releases the store's files without flushing its memtable, as if the process had crashed.
+     */
+    protected static void abandonKeyValueStore(final KeyValueStoreCore keyValueStore) throws Exception {
+        keyValueStore._stopCompactionThread();
+        keyValueStore._writeAheadLog.close();
+        keyValueStore._writeAheadLog = null;
+        keyValueStore._closeSortedRuns();
+        keyValueStore._isOpen = false;
+    }
+
+    protected Integer _getSortedRunFileCount() {
+        int sortedRunFileCount = 0;
+        final File[] files = _directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (file.getName().endsWith(KeyValueStoreCore.SORTED_RUN_FILE_EXTENSION)) {
+                    sortedRunFileCount += 1;
+                }
+            }
+        }
+        return sortedRunFileCount;
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+        _directory = Files.createTempDirectory("key-value-store").toFile();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        for (final KeyValueStoreCore keyValueStore : _keyValueStores) {
+            keyValueStore.close();
+        }
+        _keyValueStores.clear();
+
+        final File[] files = _directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        _directory.delete();
+
+        super.after();
+    }
+
+    @Test
+    public void should_return_put_values_and_omit_deleted_keys() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(KeyValueStoreCore.DEFAULT_MAX_MEMTABLE_BYTE_COUNT, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+        for (int i = 0; i < 10; ++i) {
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', i), KeyValueStoreCoreTests.createValue(i));
+        }
+        writeBatch.delete(KeyValueStoreCoreTests.createKey((byte) 'a', 3));
+
+        // Action
+        keyValueStore.write(writeBatch);
+
+        // Assert
+        for (int i = 0; i < 10; ++i) {
+            final ByteArray value = keyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'a', i));
+            if (i == 3) {
+                Assert.assertNull(value);
+            }
+            else {
+                Assert.assertEquals(KeyValueStoreCoreTests.createValue(i), value);
+            }
+        }
+        Assert.assertNull(keyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'b', 0)));
+    }
+
+    @Test
+    public void should_scan_only_keys_with_prefix_in_order() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(KeyValueStoreCore.DEFAULT_MAX_MEMTABLE_BYTE_COUNT, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+        for (int i = 255; i >= 0; --i) { // Includes keys whose bytes would sort incorrectly if compared as signed bytes...
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', i), KeyValueStoreCoreTests.createValue(i));
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'b', i), KeyValueStoreCoreTests.createValue(i));
+        }
+        writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 0xFF, 1), KeyValueStoreCoreTests.createValue(1));
+        keyValueStore.write(writeBatch);
+
+        // Action
+        final MutableList<ByteArray> keys = KeyValueStoreCoreTests.scanKeys(keyValueStore, ByteArray.wrap(new byte[] { 'a' }));
+        final MutableList<ByteArray> lastKeys = KeyValueStoreCoreTests.scanKeys(keyValueStore, ByteArray.wrap(new byte[] { (byte) 0xFF }));
+
+        // Assert
+        Assert.assertEquals(256, keys.getCount().intValue());
+        for (int i = 0; i < 256; ++i) {
+            Assert.assertEquals(KeyValueStoreCoreTests.createKey((byte) 'a', i), keys.get(i));
+        }
+        Assert.assertEquals(1, lastKeys.getCount().intValue());
+    }
+
+    @Test
+    public void should_read_latest_values_across_flushes_and_compaction() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(1024L, 2);
+
+        // Action
+        for (int batchIndex = 0; batchIndex < 20; ++batchIndex) {
+            final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+            for (int i = 0; i < 50; ++i) {
+                final int keyValue = ((batchIndex * 50) + i);
+                writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', keyValue), KeyValueStoreCoreTests.createValue(keyValue));
+            }
+            if (batchIndex > 0) { // Overwrite and delete keys from previous runs...
+                writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', (batchIndex - 1)), KeyValueStoreCoreTests.createValue(-batchIndex));
+                writeBatch.delete(KeyValueStoreCoreTests.createKey((byte) 'a', ((batchIndex - 1) * 50) + 1));
+            }
+            keyValueStore.write(writeBatch);
+        }
+        keyValueStore._waitForCompaction(3);
+
+        // Assert
+        Assert.assertTrue(_getSortedRunFileCount() <= 2);
+
+        for (int keyValue = 0; keyValue < 1000; ++keyValue) {
+            final ByteArray value = keyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'a', keyValue));
+            if (keyValue < 19) {
+                Assert.assertEquals(KeyValueStoreCoreTests.createValue(-(keyValue + 1)), value);
+            }
+            else if ( ((keyValue % 50) == 1) && (keyValue < 950) ) {
+                Assert.assertNull(value);
+            }
+            else {
+                Assert.assertEquals(KeyValueStoreCoreTests.createValue(keyValue), value);
+            }
+        }
+
+        final MutableList<ByteArray> keys = KeyValueStoreCoreTests.scanKeys(keyValueStore, ByteArray.wrap(new byte[] { 'a' }));
+        Assert.assertEquals((1000 - 18), keys.getCount().intValue());
+    }
+
+    @Test
+    public void should_recover_unflushed_writes_and_discard_incomplete_write() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(KeyValueStoreCore.DEFAULT_MAX_MEMTABLE_BYTE_COUNT, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+        for (int i = 0; i < 3; ++i) {
+            final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', i), KeyValueStoreCoreTests.createValue(i));
+            keyValueStore.write(writeBatch);
+        }
+
+        // Simulate a crash during a write by appending a partial batch without flushing the store...
+        KeyValueStoreCoreTests.abandonKeyValueStore(keyValueStore);
+        try (final FileOutputStream fileOutputStream = new FileOutputStream(new File(_directory, KeyValueStoreCore.WRITE_AHEAD_LOG_FILE_NAME), true)) {
+            fileOutputStream.write(new byte[] { 0x00, 0x00, 0x01, 0x00, 0x12, 0x34 });
+        }
+
+        // Action
+        final KeyValueStoreCore recoveredKeyValueStore = _openKeyValueStore(KeyValueStoreCore.DEFAULT_MAX_MEMTABLE_BYTE_COUNT, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+        writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', 3), KeyValueStoreCoreTests.createValue(3));
+        recoveredKeyValueStore.write(writeBatch);
+        recoveredKeyValueStore.close();
+
+        final KeyValueStoreCore reopenedKeyValueStore = _openKeyValueStore(KeyValueStoreCore.DEFAULT_MAX_MEMTABLE_BYTE_COUNT, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+
+        // Assert
+        for (int i = 0; i < 4; ++i) {
+            Assert.assertEquals(KeyValueStoreCoreTests.createValue(i), reopenedKeyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'a', i)));
+        }
+    }
+
+    @Test
+    public void should_retain_deleted_keys_when_compacting_only_newer_runs() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(1L, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT); // Every write is flushed to its own run.
+        final ByteArray deletedKey = KeyValueStoreCoreTests.createKey((byte) 'a', 0);
+        final ByteArray key = KeyValueStoreCoreTests.createKey((byte) 'a', 1);
+
+        final KeyValueWriteBatch putWriteBatch = new KeyValueWriteBatch();
+        putWriteBatch.put(deletedKey, KeyValueStoreCoreTests.createValue(0));
+        keyValueStore.write(putWriteBatch);
+
+        final KeyValueWriteBatch deleteWriteBatch = new KeyValueWriteBatch();
+        deleteWriteBatch.delete(deletedKey);
+        keyValueStore.write(deleteWriteBatch);
+
+        final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+        writeBatch.put(key, KeyValueStoreCoreTests.createValue(1));
+        keyValueStore.write(writeBatch);
+
+        final MutableList<SortedRun> newerSortedRuns = new MutableList<>();
+        newerSortedRuns.add(keyValueStore._sortedRuns.get(1));
+        newerSortedRuns.add(keyValueStore._sortedRuns.get(2));
+
+        // Action
+        keyValueStore._compactSortedRuns(newerSortedRuns);
+
+        // Assert
+        Assert.assertEquals(2, keyValueStore._sortedRuns.getCount().intValue());
+        Assert.assertEquals(2, _getSortedRunFileCount().intValue());
+        Assert.assertNull(keyValueStore.get(deletedKey));
+        Assert.assertEquals(KeyValueStoreCoreTests.createValue(1), keyValueStore.get(key));
+    }
+
+    @Test
+    public void should_remove_runs_replaced_by_an_interrupted_compaction_on_open() throws Exception {
+        // Setup
+        final KeyValueStoreCore keyValueStore = _openKeyValueStore(1L, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT); // Every write is flushed to its own run.
+        for (int i = 0; i < 3; ++i) {
+            final KeyValueWriteBatch writeBatch = new KeyValueWriteBatch();
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', 0), KeyValueStoreCoreTests.createValue(i));
+            writeBatch.put(KeyValueStoreCoreTests.createKey((byte) 'a', (i + 1)), KeyValueStoreCoreTests.createValue(i));
+            keyValueStore.write(writeBatch);
+        }
+
+        final MutableList<SortedRun> sortedRuns = new MutableList<>();
+        final MutableList<byte[]> replacedSortedRunBytes = new MutableList<>();
+        for (final SortedRun sortedRun : keyValueStore._sortedRuns) {
+            sortedRuns.add(sortedRun);
+            replacedSortedRunBytes.add(Files.readAllBytes(sortedRun.getFile().toPath()));
+        }
+
+        keyValueStore._compactSortedRuns(sortedRuns);
+
+        // Simulate a crash after the merged run was written but before the replaced runs were deleted...
+        KeyValueStoreCoreTests.abandonKeyValueStore(keyValueStore);
+        for (int i = 0; i < 2; ++i) {
+            Files.write(sortedRuns.get(i).getFile().toPath(), replacedSortedRunBytes.get(i));
+        }
+        Assert.assertEquals(3, _getSortedRunFileCount().intValue());
+
+        // Action
+        final KeyValueStoreCore reopenedKeyValueStore = _openKeyValueStore(1L, KeyValueStoreCore.DEFAULT_MAX_SORTED_RUN_COUNT);
+
+        // Assert
+        Assert.assertEquals(1, _getSortedRunFileCount().intValue());
+        Assert.assertEquals(KeyValueStoreCoreTests.createValue(2), reopenedKeyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'a', 0)));
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertEquals(KeyValueStoreCoreTests.createValue(i), reopenedKeyValueStore.get(KeyValueStoreCoreTests.createKey((byte) 'a', (i + 1))));
+        }
+    }
+}
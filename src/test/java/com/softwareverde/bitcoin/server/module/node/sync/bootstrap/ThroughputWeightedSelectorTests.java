@@ -0,0 +1,81 @@
+package com.softwareverde.bitcoin.server.module.node.sync.bootstrap;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.list.mutable.MutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThroughputWeightedSelectorTests extends UnitTest {
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_select_candidates_proportionally_to_throughput() {
+        // Setup
+        final ThroughputWeightedSelector<String> selector = new ThroughputWeightedSelector<>();
+        selector.recordTransfer("slow", 1000L, 1000D); // 1 byte/ms
+        selector.recordTransfer("fast", 3000L, 1000D); // 3 bytes/ms
+
+        final MutableList<String> candidates = new MutableList<>();
+        candidates.add("slow");
+        candidates.add("fast");
+
+        // Action
+        final String selection0 = selector.select(candidates, 0.0D);
+        final String selection1 = selector.select(candidates, 0.24D);
+        final String selection2 = selector.select(candidates, 0.26D);
+        final String selection3 = selector.select(candidates, 0.99D);
+
+        // Assert
+        Assert.assertEquals("slow", selection0);
+        Assert.assertEquals("slow", selection1);
+        Assert.assertEquals("fast", selection2);
+        Assert.assertEquals("fast", selection3);
+    }
+
+    @Test
+    public void should_weight_unmeasured_candidates_as_the_fastest_candidate() {
+        // Setup
+        final ThroughputWeightedSelector<String> selector = new ThroughputWeightedSelector<>();
+        selector.recordTransfer("measured", 1000L, 1000D);
+
+        final MutableList<String> candidates = new MutableList<>();
+        candidates.add("measured");
+        candidates.add("unmeasured");
+
+        // Action
+        final String selection0 = selector.select(candidates, 0.49D);
+        final String selection1 = selector.select(candidates, 0.51D);
+
+        // Assert
+        Assert.assertEquals("measured", selection0);
+        Assert.assertEquals("unmeasured", selection1);
+    }
+
+    @Test
+    public void should_smooth_transfers_and_halve_throughput_on_failure() {
+        // Setup
+        final ThroughputWeightedSelector<String> selector = new ThroughputWeightedSelector<>(0.5D);
+
+        // Action
+        selector.recordTransfer("node", 4000L, 1000D);
+        selector.recordTransfer("node", 2000L, 1000D);
+        final Double smoothedThroughput = selector.getThroughput("node");
+
+        selector.recordFailure("node");
+        final Double failedThroughput = selector.getThroughput("node");
+
+        // Assert
+        Assert.assertEquals(3D, smoothedThroughput, 0.0001D);
+        Assert.assertEquals(1.5D, failedThroughput, 0.0001D);
+    }
+}
@@ -0,0 +1,116 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.MessageDigest;
+
+public class CommittedUnspentTransactionOutputDeflaterTests extends UnitTest {
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    protected static MutableCommittedUnspentTransactionOutput createUtxo(final Boolean isCoinbase) {
+        final MutableCommittedUnspentTransactionOutput unspentTransactionOutput = new MutableCommittedUnspentTransactionOutput();
+        unspentTransactionOutput.setTransactionHash(Sha256Hash.fromHexString("6E544DBDAA5FC7CCF14861DF06366C5F86FDC2CEDCAFA44C35B807CE3C010000"));
+        unspentTransactionOutput.setIndex(1);
+        unspentTransactionOutput.setBlockHeight(468349L);
+        unspentTransactionOutput.setIsCoinbase(isCoinbase);
+        unspentTransactionOutput.setAmount(14250000L);
+        unspentTransactionOutput.setLockingScript(ByteArray.fromHexString("76A914865E218FF25929EEE880E0E3B6F95280B2D0544388AC"));
+        return unspentTransactionOutput;
+    }
+
+    protected static ByteArray deflate(final CommittedUnspentTransactionOutput unspentTransactionOutput) {
+        final CommittedUnspentTransactionOutputDeflater deflater = new CommittedUnspentTransactionOutputDeflater();
+
+        final byte[] lockingScriptBytes = unspentTransactionOutput.getLockingScript().getBytes().getBytes();
+        final int byteCount = CommittedUnspentTransactionOutputDeflater.getByteCount(lockingScriptBytes.length);
+        final byte[] buffer = new byte[byteCount + 2];
+
+        final int bytesWritten = deflater.toBytes(
+            unspentTransactionOutput.getTransactionHash().getBytes(),
+            unspentTransactionOutput.getIndex(),
+            unspentTransactionOutput.getBlockHeight(),
+            unspentTransactionOutput.isCoinbase(),
+            unspentTransactionOutput.getAmount(),
+            lockingScriptBytes,
+            buffer,
+            1
+        );
+        Assert.assertEquals(byteCount, bytesWritten);
+
+        return MutableByteArray.wrap(ByteUtil.copyBytes(buffer, 1, bytesWritten));
+    }
+
+    @Test
+    public void should_serialize_identically_to_committed_unspent_transaction_output() {
+        // Setup
+        final MutableCommittedUnspentTransactionOutput unspentTransactionOutput = CommittedUnspentTransactionOutputDeflaterTests.createUtxo(false);
+        final ByteArray expectedBytes = ByteArray.fromHexString("0000013CCE07B8354CA4AFDCCEC2FD865F6C3606DF6148F1CCC75FAABD4D546E010000007D2507001070D900000000001976A914865E218FF25929EEE880E0E3B6F95280B2D0544388AC");
+
+        // Action
+        final ByteArray bytes = CommittedUnspentTransactionOutputDeflaterTests.deflate(unspentTransactionOutput);
+
+        // Assert
+        Assert.assertEquals(expectedBytes, unspentTransactionOutput.getBytes());
+        Assert.assertEquals(expectedBytes, bytes);
+    }
+
+    @Test
+    public void should_serialize_coinbase_flag_identically_to_committed_unspent_transaction_output() {
+        // Setup
+        final MutableCommittedUnspentTransactionOutput unspentTransactionOutput = CommittedUnspentTransactionOutputDeflaterTests.createUtxo(true);
+
+        // Action
+        final ByteArray bytes = CommittedUnspentTransactionOutputDeflaterTests.deflate(unspentTransactionOutput);
+
+        // Assert
+        Assert.assertEquals(unspentTransactionOutput.getBytes(), bytes);
+
+        final CommittedUnspentTransactionOutputInflater inflater = new CommittedUnspentTransactionOutputInflater();
+        final CommittedUnspentTransactionOutput inflatedUnspentTransactionOutput = inflater.fromBytes(bytes);
+        Assert.assertTrue(inflatedUnspentTransactionOutput.isCoinbase());
+        Assert.assertEquals(unspentTransactionOutput.getBlockHeight(), inflatedUnspentTransactionOutput.getBlockHeight());
+    }
+
+    @Test
+    public void should_calculate_same_bucket_index_from_serialized_output_identifier() throws Exception {
+        // Setup
+        final UtxoCommitmentGenerator utxoCommitmentGenerator = new UtxoCommitmentGenerator(null, null);
+        final Sha256Hash blockHash = Sha256Hash.fromHexString("000000000000000001F3BEBA8EDB1D5D54F1B0E6F0B7F1A7DA2C1CB5B73E2B1D");
+
+        final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        final byte[] blockHashBytes = blockHash.toReversedEndian().getBytes();
+        final byte[] outputIdentifierBytes = new byte[CommittedUnspentTransactionOutputDeflater.OUTPUT_IDENTIFIER_BYTE_COUNT];
+        final byte[] digestBytes = new byte[Sha256Hash.BYTE_COUNT];
+
+        for (int i = 0; i < 256; ++i) {
+            final Sha256Hash transactionHash = Sha256Hash.wrap(MessageDigest.getInstance("SHA-256").digest(new byte[] { (byte) i }));
+            final TransactionOutputIdentifier transactionOutputIdentifier = new TransactionOutputIdentifier(transactionHash, i);
+
+            // Action
+            final int expectedBucketIndex = utxoCommitmentGenerator._calculateBucketIndex(blockHash, transactionOutputIdentifier);
+
+            CommittedUnspentTransactionOutputDeflater.writeOutputIdentifier(transactionHash.getBytes(), i, outputIdentifierBytes, 0);
+            final int bucketIndex = utxoCommitmentGenerator._calculateBucketIndex(blockHashBytes, outputIdentifierBytes, messageDigest, digestBytes);
+
+            // Assert
+            Assert.assertEquals(expectedBucketIndex, bucketIndex);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.EcMultiset;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Random;
+
+public class UtxoCommitmentFileSorterTests extends UnitTest {
+    protected File _directory;
+
+    protected static MutableList<CommittedUnspentTransactionOutput> createShuffledUtxos(final int utxoCount) throws Exception {
+        final Random random = new Random(1234L);
+        final MutableList<CommittedUnspentTransactionOutput> utxos = new MutableList<>(utxoCount);
+        for (int i = 0; i < utxoCount; ++i) {
+            final int transactionIndex = random.nextInt(utxoCount / 2);
+            final Sha256Hash transactionHash = Sha256Hash.wrap(MessageDigest.getInstance("SHA-256").digest(new byte[] { (byte) transactionIndex, (byte) (transactionIndex >>> 8) }));
+
+            final byte[] lockingScriptBytes = new byte[random.nextInt(300)];
+            random.nextBytes(lockingScriptBytes);
+
+            final MutableCommittedUnspentTransactionOutput unspentTransactionOutput = new MutableCommittedUnspentTransactionOutput();
+            unspentTransactionOutput.setTransactionHash(transactionHash);
+            unspentTransactionOutput.setIndex(i);
+            unspentTransactionOutput.setBlockHeight((long) random.nextInt(700000));
+            unspentTransactionOutput.setIsCoinbase(random.nextBoolean());
+            unspentTransactionOutput.setAmount((long) random.nextInt(Integer.MAX_VALUE));
+            unspentTransactionOutput.setLockingScript(ByteArray.wrap(lockingScriptBytes));
+            utxos.add(unspentTransactionOutput);
+        }
+        return utxos;
+    }
+
+    protected static void writeUtxos(final MutableList<CommittedUnspentTransactionOutput> utxos, final File file) throws Exception {
+        try (final OutputStream outputStream = new FileOutputStream(file)) {
+            for (final CommittedUnspentTransactionOutput unspentTransactionOutput : utxos) {
+                outputStream.write(unspentTransactionOutput.getBytes().getBytes());
+            }
+            outputStream.flush();
+        }
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+        _directory = Files.createTempDirectory("utxo-sort").toFile();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        final File[] files = _directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+        _directory.delete();
+
+        super.after();
+    }
+
+    protected void _assertSortsFile(final Integer runByteCount) throws Exception {
+        // Setup
+        final File file = new File(_directory, "bucket");
+        final MutableList<CommittedUnspentTransactionOutput> utxos = UtxoCommitmentFileSorterTests.createShuffledUtxos(2000);
+        UtxoCommitmentFileSorterTests.writeUtxos(utxos, file);
+
+        final UtxoCommitmentLoader utxoCommitmentLoader = new UtxoCommitmentLoader();
+        final UtxoCommitmentLoader.CalculateMultisetHashResult unsortedResult = utxoCommitmentLoader.calculateMultisetHash(file, false);
+        Assert.assertFalse(unsortedResult.isSorted);
+        final long fileByteCount = file.length();
+
+        final UtxoCommitmentFileSorter utxoCommitmentFileSorter = new UtxoCommitmentFileSorter(runByteCount);
+
+        // Action
+        utxoCommitmentFileSorter.sort(file);
+
+        // Assert
+        final UtxoCommitmentLoader.CalculateMultisetHashResult sortedResult = utxoCommitmentLoader.calculateMultisetHash(file, false);
+        Assert.assertTrue(sortedResult.isSorted);
+        Assert.assertEquals(unsortedResult.utxoCount, sortedResult.utxoCount);
+        Assert.assertEquals(fileByteCount, file.length());
+
+        final EcMultiset expectedMultisetHash = unsortedResult.multisetHash;
+        Assert.assertEquals(expectedMultisetHash.getHash(), sortedResult.multisetHash.getHash());
+
+        final File[] files = _directory.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals(1, files.length); // No run files are left behind.
+    }
+
+    @Test
+    public void should_sort_file_within_a_single_run() throws Exception {
+        _assertSortsFile(UtxoCommitmentFileSorter.DEFAULT_RUN_BYTE_COUNT);
+    }
+
+    @Test
+    public void should_sort_file_across_multiple_runs() throws Exception {
+        _assertSortsFile(16 * 1024);
+    }
+
+    protected void _assertRemovesDuplicates(final Integer runByteCount) throws Exception {
+        // Setup
+        final File file = new File(_directory, "bucket");
+        final MutableList<CommittedUnspentTransactionOutput> utxos = UtxoCommitmentFileSorterTests.createShuffledUtxos(2000);
+
+        final File expectedFile = new File(_directory, "expected");
+        UtxoCommitmentFileSorterTests.writeUtxos(utxos, expectedFile);
+
+        final UtxoCommitmentLoader utxoCommitmentLoader = new UtxoCommitmentLoader();
+        final UtxoCommitmentLoader.CalculateMultisetHashResult expectedResult = utxoCommitmentLoader.calculateMultisetHash(expectedFile, false);
+        Assert.assertTrue(expectedFile.delete());
+
+        final MutableList<CommittedUnspentTransactionOutput> utxosWithDuplicates = new MutableList<>();
+        for (final CommittedUnspentTransactionOutput unspentTransactionOutput : utxos) {
+            utxosWithDuplicates.add(unspentTransactionOutput);
+        }
+        for (int i = 0; i < utxos.getCount(); i += 3) {
+            utxosWithDuplicates.add(utxos.get(i));
+        }
+        UtxoCommitmentFileSorterTests.writeUtxos(utxosWithDuplicates, file);
+
+        final UtxoCommitmentFileSorter utxoCommitmentFileSorter = new UtxoCommitmentFileSorter(runByteCount);
+
+        // Action
+        utxoCommitmentFileSorter.sort(file);
+
+        // Assert
+        final UtxoCommitmentLoader.CalculateMultisetHashResult sortedResult = utxoCommitmentLoader.calculateMultisetHash(file, false);
+        Assert.assertTrue(sortedResult.isSorted);
+        Assert.assertEquals(expectedResult.utxoCount, sortedResult.utxoCount);
+        Assert.assertEquals(expectedResult.multisetHash.getHash(), sortedResult.multisetHash.getHash());
+    }
+
+    @Test
+    public void should_remove_duplicate_utxos_within_a_single_run() throws Exception {
+        _assertRemovesDuplicates(UtxoCommitmentFileSorter.DEFAULT_RUN_BYTE_COUNT);
+    }
+
+    @Test
+    public void should_remove_duplicate_utxos_across_multiple_runs() throws Exception {
+        _assertRemovesDuplicates(16 * 1024);
+    }
+}
@@ -0,0 +1,83 @@
+package com.softwareverde.bitcoin.server.module.node.utxo;
+
+import com.softwareverde.bitcoin.server.database.DatabaseConnection;
+import com.softwareverde.bitcoin.server.database.query.Query;
+import com.softwareverde.bitcoin.server.module.node.database.fullnode.FullNodeDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.fullnode.utxo.UnspentTransactionOutputVisitor;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.transaction.output.UnspentTransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.secp256k1.EcMultiset;
+import com.softwareverde.database.row.Row;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class UtxoCommitmentImporterIntegrationTests extends IntegrationTest {
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_import_sorted_utxo_files_and_calculate_multiset_hash() throws Exception {
+        // Setup
+        final MutableList<CommittedUnspentTransactionOutput> utxos = UtxoCommitmentFileSorterTests.createShuffledUtxos(500);
+
+        final MutableList<File> inputFiles = new MutableList<>();
+        final EcMultiset expectedMultisetHash = new EcMultiset();
+        final UtxoCommitmentFileSorter utxoCommitmentFileSorter = new UtxoCommitmentFileSorter();
+        for (int i = 0; i < 2; ++i) {
+            final MutableList<CommittedUnspentTransactionOutput> fileUtxos = new MutableList<>();
+            for (int j = i; j < utxos.getCount(); j += 2) {
+                final CommittedUnspentTransactionOutput unspentTransactionOutput = utxos.get(j);
+                fileUtxos.add(unspentTransactionOutput);
+                expectedMultisetHash.addItem(unspentTransactionOutput.getBytes());
+            }
+
+            final File file = File.createTempFile("utxo-in", ".dat");
+            file.deleteOnExit();
+            UtxoCommitmentFileSorterTests.writeUtxos(fileUtxos, file);
+            utxoCommitmentFileSorter.sort(file);
+            inputFiles.add(file);
+        }
+
+        final MutableList<TransactionOutputIdentifier> visitedTransactionOutputIdentifiers = new MutableList<>();
+        final UtxoCommitmentImporter utxoCommitmentImporter = new UtxoCommitmentImporter(_fullNodeDatabaseManagerFactory, 2, 7);
+
+        // Action
+        final UtxoCommitmentImporter.ImportResult importResult = utxoCommitmentImporter.importUtxoCommitmentFiles(inputFiles, new UnspentTransactionOutputVisitor() {
+            @Override
+            public void run(final TransactionOutputIdentifier transactionOutputIdentifier, final UnspentTransactionOutput transactionOutput) {
+                visitedTransactionOutputIdentifiers.add(transactionOutputIdentifier);
+            }
+        });
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(utxos.getCount()), importResult.utxoCount);
+        Assert.assertEquals(expectedMultisetHash.getPublicKey(), importResult.multisetHash.getPublicKey());
+
+        Assert.assertEquals(utxos.getCount(), visitedTransactionOutputIdentifiers.getCount());
+        for (int i = 1; i < visitedTransactionOutputIdentifiers.getCount(); ++i) {
+            final TransactionOutputIdentifier previousTransactionOutputIdentifier = visitedTransactionOutputIdentifiers.get(i - 1);
+            final TransactionOutputIdentifier transactionOutputIdentifier = visitedTransactionOutputIdentifiers.get(i);
+            Assert.assertTrue(previousTransactionOutputIdentifier.compareTo(transactionOutputIdentifier) < 0);
+        }
+
+        try (final FullNodeDatabaseManager databaseManager = _fullNodeDatabaseManagerFactory.newDatabaseManager()) {
+            final DatabaseConnection databaseConnection = databaseManager.getDatabaseConnection();
+            final java.util.List<Row> rows = databaseConnection.query(new Query("SELECT COUNT(*) AS count FROM committed_unspent_transaction_outputs"));
+            final Row row = rows.get(0);
+            Assert.assertEquals(Long.valueOf(utxos.getCount()), row.getLong("count"));
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.softwareverde.bitcoin.server.module.spv.handler;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.block.MutableBlock;
+import com.softwareverde.bitcoin.block.filter.BlockFilter;
+import com.softwareverde.bitcoin.block.filter.BlockFilterBuilder;
+import com.softwareverde.bitcoin.block.filter.BlockFilterHeaders;
+import com.softwareverde.bitcoin.block.filter.BlockFilterType;
+import com.softwareverde.bitcoin.server.message.type.node.feature.LocalNodeFeatures;
+import com.softwareverde.bitcoin.server.message.type.node.feature.NodeFeatures;
+import com.softwareverde.bitcoin.server.module.node.database.block.header.BlockHeaderDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.spv.SpvDatabaseManager;
+import com.softwareverde.bitcoin.server.module.node.database.transaction.spv.SpvTransactionDatabaseManager;
+import com.softwareverde.bitcoin.server.node.BitcoinNode;
+import com.softwareverde.bitcoin.test.BlockData;
+import com.softwareverde.bitcoin.test.IntegrationTest;
+import com.softwareverde.bitcoin.test.fake.FakeBitcoinNode;
+import com.softwareverde.bitcoin.test.util.BlockTestUtil;
+import com.softwareverde.bitcoin.test.util.TransactionTestUtil;
+import com.softwareverde.bitcoin.transaction.Transaction;
+import com.softwareverde.bitcoin.transaction.script.locking.LockingScript;
+import com.softwareverde.bitcoin.wallet.Wallet;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.immutable.ImmutableListBuilder;
+import com.softwareverde.constable.list.mutable.MutableList;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
+import com.softwareverde.util.Util;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+public class BlockFilterSynchronizerTests extends IntegrationTest {
+    /**
+     * Serves filter headers, filters, and blocks from memory instead of from peers.
+     *  Each BitcoinNode may serve its own (possibly dishonest) set of filters; every BitcoinNode serves the same blocks.
+     */
+    public static class FakeBlockFilterSynchronizer extends BlockFilterSynchronizer {
+        protected final MutableList<BitcoinNode> _bitcoinNodes = new MutableList<>();
+        protected final MutableList<Sha256Hash> _blockHashes = new MutableList<>();
+        protected final HashMap<Sha256Hash, Block> _blocks = new HashMap<>();
+        protected final HashMap<BitcoinNode, HashMap<Sha256Hash, BlockFilter>> _blockFilters = new HashMap<>();
+        protected final MutableList<Sha256Hash> _downloadedBlockHashes = new MutableList<>();
+
+        @Override
+        protected Boolean _shouldAbort() {
+            return false;
+        }
+
+        @Override
+        protected List<BitcoinNode> _selectBitcoinNodes() {
+            return _bitcoinNodes;
+        }
+
+        @Override
+        protected BlockFilterHeaders _downloadBlockFilterHeaders(final BitcoinNode bitcoinNode, final Long startBlockHeight, final Sha256Hash stopBlockHash) {
+            final HashMap<Sha256Hash, BlockFilter> blockFilters = _blockFilters.get(bitcoinNode);
+
+            Sha256Hash previousFilterHeader = Sha256Hash.EMPTY_HASH;
+            final MutableList<Sha256Hash> filterHashes = new MutableList<>();
+            for (int i = 0; i < _blockHashes.getCount(); ++i) {
+                final Sha256Hash blockHash = _blockHashes.get(i);
+                final BlockFilter blockFilter = blockFilters.get(blockHash);
+                if (i < startBlockHeight) {
+                    previousFilterHeader = blockFilter.calculateFilterHeader(previousFilterHeader);
+                    continue;
+                }
+
+                filterHashes.add(blockFilter.getFilterHash());
+                if (Util.areEqual(stopBlockHash, blockHash)) { break; }
+            }
+
+            return new BlockFilterHeaders(BlockFilterType.BASIC, stopBlockHash, previousFilterHeader, filterHashes);
+        }
+
+        @Override
+        protected List<BlockFilter> _downloadBlockFilters(final BitcoinNode bitcoinNode, final Long startBlockHeight, final List<Sha256Hash> blockHashes) {
+            final HashMap<Sha256Hash, BlockFilter> blockFilters = _blockFilters.get(bitcoinNode);
+
+            final ImmutableListBuilder<BlockFilter> orderedBlockFilters = new ImmutableListBuilder<>(blockHashes.getCount());
+            for (final Sha256Hash blockHash : blockHashes) {
+                orderedBlockFilters.add(blockFilters.get(blockHash));
+            }
+            return orderedBlockFilters.build();
+        }
+
+        @Override
+        protected Block _downloadBlock(final BitcoinNode bitcoinNode, final Sha256Hash blockHash) {
+            _downloadedBlockHashes.add(blockHash);
+            return _blocks.get(blockHash);
+        }
+
+        public FakeBlockFilterSynchronizer(final BlockFilterSynchronizerTests blockFilterSynchronizerTests, final Wallet wallet) {
+            super(blockFilterSynchronizerTests._spvDatabaseManagerFactory, null, wallet, blockFilterSynchronizerTests._propertiesStore, blockFilterSynchronizerTests._threadPool);
+        }
+
+        public void addBlock(final Block block) {
+            final Sha256Hash blockHash = block.getHash();
+            _blockHashes.add(blockHash);
+            _blocks.put(blockHash, block);
+        }
+
+        public void addBitcoinNode(final BitcoinNode bitcoinNode, final HashMap<Sha256Hash, BlockFilter> blockFilters) {
+            _bitcoinNodes.add(bitcoinNode);
+            _blockFilters.put(bitcoinNode, blockFilters);
+        }
+
+        public List<Sha256Hash> getDownloadedBlockHashes() {
+            return _downloadedBlockHashes;
+        }
+    }
+
+    protected static BlockFilter buildBlockFilter(final Block block) {
+        final BlockFilterBuilder blockFilterBuilder = new BlockFilterBuilder();
+        blockFilterBuilder.addBlockOutputScripts(block);
+        return blockFilterBuilder.build(block.getHash());
+    }
+
+    protected static HashMap<Sha256Hash, BlockFilter> buildBlockFilters(final List<Block> blocks) {
+        final HashMap<Sha256Hash, BlockFilter> blockFilters = new HashMap<>();
+        for (final Block block : blocks) {
+            blockFilters.put(block.getHash(), BlockFilterSynchronizerTests.buildBlockFilter(block));
+        }
+        return blockFilters;
+    }
+
+    protected static MutableBlock createBlock(final Sha256Hash previousBlockHash, final PrivateKey privateKey) {
+        final MutableBlock mutableBlock = BlockTestUtil.createBlock();
+        mutableBlock.setPreviousBlockHash(previousBlockHash);
+        mutableBlock.addTransaction(TransactionTestUtil.createCoinbaseTransactionSpendableByPrivateKey(privateKey));
+        return mutableBlock;
+    }
+
+    protected final PrivateKey _privateKey = PrivateKey.createNewKey();
+    protected final MutableList<Block> _blocks = new MutableList<>();
+
+    /**
+     * Stores a chain of four headers; only the coinbase of the block at height 2 pays to _privateKey.
+     */
+    protected void _storeBlockchain() throws Exception {
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block genesisBlock = blockInflater.fromBytes(ByteArray.fromHexString(BlockData.MainChain.GENESIS_BLOCK));
+        final Block block1 = BlockFilterSynchronizerTests.createBlock(genesisBlock.getHash(), PrivateKey.createNewKey());
+        final Block block2 = BlockFilterSynchronizerTests.createBlock(block1.getHash(), _privateKey);
+        final Block block3 = BlockFilterSynchronizerTests.createBlock(block2.getHash(), PrivateKey.createNewKey());
+
+        _blocks.clear();
+        _blocks.add(genesisBlock);
+        _blocks.add(block1);
+        _blocks.add(block2);
+        _blocks.add(block3);
+
+        try (final SpvDatabaseManager databaseManager = _spvDatabaseManagerFactory.newDatabaseManager()) {
+            final BlockHeaderDatabaseManager blockHeaderDatabaseManager = databaseManager.getBlockHeaderDatabaseManager();
+            synchronized (BlockHeaderDatabaseManager.MUTEX) {
+                for (final Block block : _blocks) {
+                    blockHeaderDatabaseManager.storeBlockHeader(block);
+                }
+            }
+        }
+    }
+
+    protected Wallet _createWallet() {
+        final Wallet wallet = new Wallet();
+        wallet.addPrivateKey(_privateKey);
+        return wallet;
+    }
+
+    protected FakeBlockFilterSynchronizer _createBlockFilterSynchronizer(final Wallet wallet) {
+        final FakeBlockFilterSynchronizer blockFilterSynchronizer = new FakeBlockFilterSynchronizer(this, wallet);
+        for (final Block block : _blocks) {
+            blockFilterSynchronizer.addBlock(block);
+        }
+        return blockFilterSynchronizer;
+    }
+
+    protected BitcoinNode _createBitcoinNode() {
+        return new FakeBitcoinNode("127.0.0.1", 8333, _threadPool, new LocalNodeFeatures() {
+            @Override
+            public NodeFeatures getNodeFeatures() {
+                final NodeFeatures nodeFeatures = new NodeFeatures();
+                nodeFeatures.enableFeature(NodeFeatures.Feature.COMPACT_FILTERS_ENABLED);
+                return nodeFeatures;
+            }
+        });
+    }
+
+    @Test
+    public void should_only_match_block_filters_containing_wallet_scripts() throws Exception {
+        // Setup
+        _storeBlockchain();
+        final Wallet wallet = _createWallet();
+        final FakeBlockFilterSynchronizer blockFilterSynchronizer = _createBlockFilterSynchronizer(wallet);
+
+        final ImmutableListBuilder<BlockFilter> blockFilters = new ImmutableListBuilder<>(2);
+        blockFilters.add(BlockFilterSynchronizerTests.buildBlockFilter(_blocks.get(2)));
+        blockFilters.add(BlockFilterSynchronizerTests.buildBlockFilter(_blocks.get(3)));
+
+        final MutableList<ByteArray> lockingScripts = new MutableList<>();
+        for (final LockingScript lockingScript : wallet.getLockingScripts()) {
+            lockingScripts.add(lockingScript.getBytes());
+        }
+
+        // Action
+        final boolean[] matches = blockFilterSynchronizer._matchBlockFilters(blockFilters.build(), lockingScripts);
+
+        // Assert
+        Assert.assertNotNull(matches);
+        Assert.assertEquals(2, matches.length);
+        Assert.assertTrue(matches[0]);
+        Assert.assertFalse(matches[1]);
+    }
+
+    @Test
+    public void should_store_wallet_transactions_from_matched_blocks() throws Exception {
+        // Setup
+        _storeBlockchain();
+        final Wallet wallet = _createWallet();
+        final FakeBlockFilterSynchronizer blockFilterSynchronizer = _createBlockFilterSynchronizer(wallet);
+        blockFilterSynchronizer.addBitcoinNode(_createBitcoinNode(), BlockFilterSynchronizerTests.buildBlockFilters(_blocks));
+
+        final Transaction walletTransaction = _blocks.get(2).getCoinbaseTransaction();
+
+        // Action
+        final Boolean wasSuccessful = blockFilterSynchronizer._run();
+
+        // Assert
+        Assert.assertTrue(wasSuccessful);
+        Assert.assertEquals(Long.valueOf(3L), blockFilterSynchronizer.getBlockHeight());
+        Assert.assertNotNull(wallet.getTransaction(walletTransaction.getHash()));
+
+        final List<Sha256Hash> downloadedBlockHashes = blockFilterSynchronizer.getDownloadedBlockHashes();
+        Assert.assertEquals(1, downloadedBlockHashes.getCount());
+        Assert.assertEquals(_blocks.get(2).getHash(), downloadedBlockHashes.get(0));
+
+        try (final SpvDatabaseManager databaseManager = _spvDatabaseManagerFactory.newDatabaseManager()) {
+            final SpvTransactionDatabaseManager transactionDatabaseManager = databaseManager.getTransactionDatabaseManager();
+            Assert.assertNotNull(transactionDatabaseManager.getTransactionId(walletTransaction.getHash()));
+        }
+    }
+
+    @Test
+    public void should_discard_peer_whose_filter_omits_the_block_outputs() throws Exception {
+        // Setup
+        _storeBlockchain();
+        final Wallet wallet = _createWallet();
+        final FakeBlockFilterSynchronizer blockFilterSynchronizer = _createBlockFilterSynchronizer(wallet);
+
+        final Block walletBlock = _blocks.get(2);
+        final HashMap<Sha256Hash, BlockFilter> dishonestBlockFilters = BlockFilterSynchronizerTests.buildBlockFilters(_blocks);
+        { // Withhold the Wallet's output from the block's filter...
+            final BlockFilterBuilder blockFilterBuilder = new BlockFilterBuilder();
+            blockFilterBuilder.addBlockOutputScripts(_blocks.get(1));
+            dishonestBlockFilters.put(walletBlock.getHash(), blockFilterBuilder.build(walletBlock.getHash()));
+        }
+
+        final BitcoinNode dishonestBitcoinNode = _createBitcoinNode();
+        final BitcoinNode honestBitcoinNode = _createBitcoinNode();
+        blockFilterSynchronizer.addBitcoinNode(dishonestBitcoinNode, dishonestBlockFilters);
+        blockFilterSynchronizer.addBitcoinNode(honestBitcoinNode, BlockFilterSynchronizerTests.buildBlockFilters(_blocks));
+
+        final MutableList<Sha256Hash> blockHashes = new MutableList<>();
+        for (final Block block : _blocks) {
+            blockHashes.add(block.getHash());
+        }
+
+        // Action
+        final BlockFilterSynchronizer.FilterHeaderCandidate filterHeaderCandidate = blockFilterSynchronizer._downloadAgreedBlockFilterHeaders(blockFilterSynchronizer._selectBitcoinNodes(), 0L, blockHashes, Sha256Hash.EMPTY_HASH);
+        final Boolean wasSuccessful = blockFilterSynchronizer._run();
+
+        // Assert
+        Assert.assertNotNull(filterHeaderCandidate);
+        Assert.assertSame(honestBitcoinNode, filterHeaderCandidate.bitcoinNode);
+
+        Assert.assertTrue(wasSuccessful);
+        Assert.assertNotNull(wallet.getTransaction(walletBlock.getCoinbaseTransaction().getHash()));
+        Assert.assertEquals(filterHeaderCandidate.lastFilterHeader.toString(), _propertiesStore.getString(BlockFilterSynchronizer.SCAN_FILTER_HEADER_KEY));
+    }
+
+    @Test
+    public void should_rescan_recent_blocks_when_the_scanned_block_is_reorganized_away() throws Exception {
+        // Setup
+        _storeBlockchain();
+        final Wallet wallet = _createWallet();
+        final FakeBlockFilterSynchronizer blockFilterSynchronizer = _createBlockFilterSynchronizer(wallet);
+        blockFilterSynchronizer.addBitcoinNode(_createBitcoinNode(), BlockFilterSynchronizerTests.buildBlockFilters(_blocks));
+
+        final Sha256Hash orphanedBlockHash = Sha256Hash.fromHexString("00000000839A8E6886AB5951D76F411475428AFC90947EE320161BBF18EB6048");
+        _propertiesStore.set(BlockFilterSynchronizer.SCAN_BLOCK_HEIGHT_KEY, 3L);
+        _propertiesStore.set(BlockFilterSynchronizer.SCAN_BLOCK_HASH_KEY, orphanedBlockHash.toString());
+
+        // Action
+        final Boolean wasSuccessful = blockFilterSynchronizer._run();
+
+        // Assert
+        Assert.assertTrue(wasSuccessful);
+        Assert.assertEquals(Long.valueOf(0L), _propertiesStore.getLong(BlockFilterSynchronizer.SCAN_BLOCK_HEIGHT_KEY));
+        Assert.assertEquals("", _propertiesStore.getString(BlockFilterSynchronizer.SCAN_BLOCK_HASH_KEY));
+        Assert.assertTrue(blockFilterSynchronizer.getDownloadedBlockHashes().isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.softwareverde.bitcoin.server.node;
+
+import com.softwareverde.bitcoin.test.UnitTest;
+import com.softwareverde.bitcoin.util.ByteUtil;
+import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
+import com.softwareverde.cryptography.util.HashUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RollingInventoryFilterTests extends UnitTest {
+    protected static Sha256Hash createHash(final int index) {
+        return Sha256Hash.wrap(HashUtil.sha256(ByteUtil.integerToBytes(index)));
+    }
+
+    @Before @Override
+    public void before() throws Exception {
+        super.before();
+    }
+
+    @After @Override
+    public void after() throws Exception {
+        super.after();
+    }
+
+    @Test
+    public void should_contain_recently_added_hashes() {
+        // Setup
+        final RollingInventoryFilter rollingInventoryFilter = new RollingInventoryFilter(1000, 0.000001D);
+
+        // Action
+        for (int i = 0; i < 1000; ++i) {
+            rollingInventoryFilter.add(RollingInventoryFilterTests.createHash(i));
+        }
+
+        // Assert
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertTrue(rollingInventoryFilter.mightContain(RollingInventoryFilterTests.createHash(i)));
+        }
+        for (int i = 1000; i < 2000; ++i) {
+            Assert.assertFalse(rollingInventoryFilter.mightContain(RollingInventoryFilterTests.createHash(i)));
+        }
+    }
+
+    @Test
+    public void should_retain_the_previous_generation_and_discard_older_generations() {
+        // Setup
+        final RollingInventoryFilter rollingInventoryFilter = new RollingInventoryFilter(1000, 0.000001D);
+
+        // Action
+        for (int i = 0; i < 3000; ++i) {
+            rollingInventoryFilter.add(RollingInventoryFilterTests.createHash(i));
+        }
+
+        // Assert
+        int oldHashMatchCount = 0;
+        for (int i = 0; i < 1000; ++i) {
+            if (rollingInventoryFilter.mightContain(RollingInventoryFilterTests.createHash(i))) {
+                oldHashMatchCount += 1;
+            }
+        }
+        Assert.assertTrue(oldHashMatchCount < 10); // Only false-positives remain from the first generation.
+
+        for (int i = 1000; i < 3000; ++i) {
+            Assert.assertTrue(rollingInventoryFilter.mightContain(RollingInventoryFilterTests.createHash(i)));
+        }
+    }
+
+    @Test
+    public void should_not_contain_hashes_after_clear() {
+        // Setup
+        final RollingInventoryFilter rollingInventoryFilter = new RollingInventoryFilter();
+        final Sha256Hash hash = RollingInventoryFilterTests.createHash(0);
+        rollingInventoryFilter.add(hash);
+
+        // Action
+        rollingInventoryFilter.clear();
+
+        // Assert
+        Assert.assertFalse(rollingInventoryFilter.mightContain(hash));
+    }
+}
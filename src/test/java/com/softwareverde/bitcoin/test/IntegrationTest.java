@@ -188,7 +188,7 @@ public class IntegrationTest extends UnitTest {
         final Container<Long> uncommittedUtxoBlockHeight = ReflectionUtil.getStaticValue(UtxoCacheStaticState.class, "UNCOMMITTED_UTXO_BLOCK_HEIGHT");
         uncommittedUtxoBlockHeight.value = 0L;
 
-        // Clear the static UTXO cache and the double buffer.
+        // Clear the static UTXO cache, the queued buffer, and the double buffer.
         new UnspentTransactionOutputJvmManager(null, 0.5F, null, null, null) {
             {
                 final Thread doubleBufferThread = UnspentTransactionOutputJvmManager.DOUBLE_BUFFER_THREAD;
@@ -198,6 +198,8 @@ public class IntegrationTest extends UnitTest {
 
                 UnspentTransactionOutputJvmManager.UTXO_SET.clear();
                 UnspentTransactionOutputJvmManager.DOUBLE_BUFFER.clear();
+                UnspentTransactionOutputJvmManager.QUEUED_BUFFER.clear();
+                UnspentTransactionOutputJvmManager.QUEUED_COMMIT_BLOCK_HEIGHT = null;
             }
         };
 
@@ -1,6 +1,8 @@
 package com.softwareverde.bitcoin.test.fake;
 
 import com.softwareverde.bitcoin.address.Address;
+import com.softwareverde.bitcoin.block.BlockId;
+import com.softwareverde.bitcoin.block.BlockView;
 import com.softwareverde.bitcoin.context.ContextException;
 import com.softwareverde.bitcoin.server.module.node.database.indexer.TransactionOutputId;
 import com.softwareverde.bitcoin.slp.SlpTokenId;
@@ -116,6 +118,21 @@ public class FakeAtomicTransactionOutputIndexerContext implements com.softwareve
         }
     }
 
+    @Override
+    public BlockView getBlockView(final BlockId blockId) {
+        return null;
+    }
+
+    @Override
+    public List<TransactionId> getBlockTransactionIds(final BlockId blockId) {
+        return new MutableList<>(0);
+    }
+
+    @Override
+    public void markBlockProcessed(final BlockId blockId) {
+        // Nothing.
+    }
+
     @Override
     public void storeTransactions(final List<Sha256Hash> transactionHashes, final List<Integer> byteCounts) throws ContextException {
         // Nothing.
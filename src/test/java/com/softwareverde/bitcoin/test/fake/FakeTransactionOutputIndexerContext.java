@@ -1,8 +1,11 @@
 package com.softwareverde.bitcoin.test.fake;
 
+import com.softwareverde.bitcoin.block.BlockId;
 import com.softwareverde.bitcoin.context.AtomicTransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.context.TransactionOutputIndexerContext;
 import com.softwareverde.bitcoin.transaction.TransactionId;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.constable.list.mutable.MutableList;
 
 public class FakeTransactionOutputIndexerContext implements TransactionOutputIndexerContext {
     protected final FakeAtomicTransactionOutputIndexerContext _context;
@@ -19,6 +22,16 @@ public class FakeTransactionOutputIndexerContext implements TransactionOutputInd
     @Override
     public void commitLastProcessedTransactionId(final TransactionId transactionId) { }
 
+    @Override
+    public List<BlockId> getUnindexedBlockIds(final Integer maxBlockCount) {
+        return new MutableList<>(0);
+    }
+
+    @Override
+    public Integer updateScriptHashBalances(final Integer maxBlockCount) {
+        return 0;
+    }
+
     public FakeAtomicTransactionOutputIndexerContext getContext() {
         return _context;
     }
@@ -3,6 +3,9 @@ package com.softwareverde.bitcoin.transaction;
 import com.softwareverde.bitcoin.block.Block;
 import com.softwareverde.bitcoin.block.BlockInflater;
 import com.softwareverde.bitcoin.test.util.TestUtil;
+import com.softwareverde.bitcoin.transaction.locktime.ImmutableLockTime;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
 import com.softwareverde.cryptography.hash.sha256.Sha256Hash;
 import com.softwareverde.util.HexUtil;
 import com.softwareverde.util.IoUtil;
@@ -70,4 +73,79 @@ public class TransactionTests {
         Assert.assertEquals(expectedOutputCount, transaction.getTransactionOutputs().getCount());
         Assert.assertEquals(transactionHash, expectedTransactionHash);
     }
+
+    @Test
+    public void should_hash_and_deflate_retained_bytes_identically_to_reserialized_bytes() {
+        // Setup
+        final TransactionDeflater transactionDeflater = new TransactionDeflater();
+        final byte[] transactionBytes = HexUtil.hexStringToByteArray("0100000001C997A5E56E104102FA209C6A852DD90660A20B2D9C352423EDCE25857FCD3704000000004847304402204E45E16932B8AF514961A1D3A1A25FDF3F4F7732E9D624C6C61548AB5FB8CD410220181522EC8ECA07DE4860A4ACDD12909D831CC56CBBAC4622082221A8768D1D0901FFFFFFFF0200CA9A3B00000000434104AE1A62FE09C5F51B13905F07F06B99A2F7159B2225F374CD378D71302FA28414E7AAB37397F554A7DF5F142C21C1B7303B8A0626F1BADED5C72A704F7E6CD84CAC00286BEE0000000043410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC00000000");
+
+        final Transaction retainedTransaction = (new TransactionInflater(true)).fromBytes(transactionBytes);
+        final Transaction reserializedTransaction = (new TransactionInflater(false)).fromBytes(transactionBytes);
+
+        // Action
+        final Transaction constTransaction = retainedTransaction.asConst();
+
+        // Assert
+        Assert.assertNotNull(TransactionDeflater._getRetainedBytes(retainedTransaction));
+        Assert.assertNotNull(TransactionDeflater._getRetainedBytes(constTransaction));
+        Assert.assertNull(TransactionDeflater._getRetainedBytes(reserializedTransaction));
+
+        Assert.assertEquals(reserializedTransaction.getHash(), retainedTransaction.getHash());
+        Assert.assertEquals(reserializedTransaction.getHash(), constTransaction.getHash());
+        Assert.assertEquals(reserializedTransaction.getByteCount(), constTransaction.getByteCount());
+        TestUtil.assertEqual(transactionBytes, transactionDeflater.toBytes(constTransaction).getBytes());
+        TestUtil.assertEqual(transactionBytes, transactionDeflater.toBytes(reserializedTransaction).getBytes());
+    }
+
+    @Test
+    public void should_discard_retained_bytes_when_transaction_is_modified() {
+        // Setup
+        final TransactionDeflater transactionDeflater = new TransactionDeflater();
+        final byte[] transactionBytes = HexUtil.hexStringToByteArray("01000000010000000000000000000000000000000000000000000000000000000000000000FFFFFFFF0704FFFF001D0134FFFFFFFF0100F2052A0100000043410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC00000000");
+
+        final MutableTransaction mutableTransaction = new MutableTransaction((new TransactionInflater(true)).fromBytes(transactionBytes));
+        final Sha256Hash originalTransactionHash = mutableTransaction.getHash();
+
+        // Action
+        mutableTransaction.setLockTime(new ImmutableLockTime(1L));
+
+        // Assert
+        Assert.assertNull(TransactionDeflater._getRetainedBytes(mutableTransaction));
+        Assert.assertNotEquals(originalTransactionHash, mutableTransaction.getHash());
+        Assert.assertEquals(0x01, transactionDeflater.toBytes(mutableTransaction).getByte(transactionBytes.length - 4));
+    }
+
+    @Test
+    public void should_not_expose_retained_bytes_to_modification() {
+        // Setup
+        final TransactionDeflater transactionDeflater = new TransactionDeflater();
+        final byte[] transactionBytes = HexUtil.hexStringToByteArray("01000000010000000000000000000000000000000000000000000000000000000000000000FFFFFFFF0704FFFF001D0134FFFFFFFF0100F2052A0100000043410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC00000000");
+
+        final Transaction transaction = (new TransactionInflater(true)).fromBytes(transactionBytes);
+        final Sha256Hash originalTransactionHash = transaction.getHash();
+
+        // Action
+        final ByteArray deflatedBytes = transactionDeflater.toBytes(transaction);
+        final byte[] deflatedByteArray = deflatedBytes.getBytes();
+        deflatedByteArray[0] = 0x02;
+
+        // Assert
+        Assert.assertFalse(deflatedBytes instanceof MutableByteArray);
+        Assert.assertEquals(0x01, deflatedBytes.getByte(0));
+        Assert.assertEquals(originalTransactionHash, transaction.getHash());
+        TestUtil.assertEqual(transactionBytes, transactionDeflater.toBytes(transaction).getBytes());
+    }
+
+    @Test
+    public void should_not_retain_bytes_by_default() {
+        // Setup
+        final byte[] transactionBytes = HexUtil.hexStringToByteArray("01000000010000000000000000000000000000000000000000000000000000000000000000FFFFFFFF0704FFFF001D0134FFFFFFFF0100F2052A0100000043410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC00000000");
+
+        // Action
+        final Transaction transaction = (new TransactionInflater()).fromBytes(transactionBytes);
+
+        // Assert
+        Assert.assertNull(TransactionDeflater._getRetainedBytes(transaction));
+    }
 }
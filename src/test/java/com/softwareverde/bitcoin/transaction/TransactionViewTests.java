@@ -0,0 +1,136 @@
+package com.softwareverde.bitcoin.transaction;
+
+import com.softwareverde.bitcoin.block.Block;
+import com.softwareverde.bitcoin.block.BlockInflater;
+import com.softwareverde.bitcoin.block.BlockView;
+import com.softwareverde.bitcoin.transaction.input.TransactionInput;
+import com.softwareverde.bitcoin.transaction.output.TransactionOutput;
+import com.softwareverde.bitcoin.transaction.output.identifier.TransactionOutputIdentifier;
+import com.softwareverde.constable.bytearray.ByteArray;
+import com.softwareverde.constable.bytearray.MutableByteArray;
+import com.softwareverde.constable.list.List;
+import com.softwareverde.util.HexUtil;
+import com.softwareverde.util.IoUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class TransactionViewTests {
+    protected static final String TRANSACTION_HEX = "0100000001C997A5E56E104102FA209C6A852DD90660A20B2D9C352423EDCE25857FCD3704000000004847304402204E45E16932B8AF514961A1D3A1A25FDF3F4F7732E9D624C6C61548AB5FB8CD410220181522EC8ECA07DE4860A4ACDD12909D831CC56CBBAC4622082221A8768D1D0901FFFFFFFF0200CA9A3B00000000434104AE1A62FE09C5F51B13905F07F06B99A2F7159B2225F374CD378D71302FA28414E7AAB37397F554A7DF5F142C21C1B7303B8A0626F1BADED5C72A704F7E6CD84CAC00286BEE0000000043410411DB93E1DCDB8A016B49840F8C53BC1EB68A382E97B1482ECAD7B148A6909A5CB2E0EADDFB84CCF9744464F82E160BFA9B8B64F9D4C03F999B8643F656B412A3AC00000000";
+
+    @Test
+    public void should_read_the_same_fields_as_the_inflated_transaction() {
+        // Setup
+        final ByteArray transactionBytes = ByteArray.fromHexString(TRANSACTION_HEX);
+        final TransactionInflater transactionInflater = new TransactionInflater();
+        final Transaction transaction = transactionInflater.fromBytes(transactionBytes);
+
+        // Action
+        final TransactionView transactionView = TransactionView.wrap(transactionBytes);
+
+        // Assert
+        Assert.assertNotNull(transactionView);
+        Assert.assertEquals(transaction.getHash(), transactionView.getHash());
+        Assert.assertEquals(transaction.getByteCount(), transactionView.getByteCount());
+        Assert.assertEquals(transaction.getVersion(), transactionView.getVersion());
+        Assert.assertEquals(transaction.getLockTime().getValue(), transactionView.getLockTime().getValue());
+        Assert.assertEquals(transaction.getTotalOutputValue(), transactionView.getTotalOutputValue());
+
+        final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
+        Assert.assertEquals(transactionInputs.getCount(), transactionView.getTransactionInputCount().intValue());
+        for (int i = 0; i < transactionInputs.getCount(); ++i) {
+            final TransactionInput transactionInput = transactionInputs.get(i);
+            Assert.assertEquals(transactionInput.getPreviousOutputTransactionHash(), transactionView.getPreviousOutputTransactionHash(i));
+            Assert.assertEquals(transactionInput.getPreviousOutputIndex(), transactionView.getPreviousOutputIndex(i));
+            Assert.assertEquals(transactionInput.getUnlockingScript(), transactionView.getTransactionInput(i).getUnlockingScript());
+        }
+
+        final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
+        Assert.assertEquals(transactionOutputs.getCount(), transactionView.getTransactionOutputCount().intValue());
+        for (int i = 0; i < transactionOutputs.getCount(); ++i) {
+            final TransactionOutput transactionOutput = transactionOutputs.get(i);
+            Assert.assertEquals(transactionOutput.getAmount(), transactionView.getTransactionOutputAmount(i));
+            Assert.assertEquals(transactionOutput.getLockingScript(), transactionView.getLockingScript(i));
+        }
+    }
+
+    @Test
+    public void should_not_wrap_truncated_or_padded_bytes() {
+        // Setup
+        final byte[] transactionBytes = HexUtil.hexStringToByteArray(TRANSACTION_HEX);
+
+        final ByteArray truncatedBytes = MutableByteArray.wrap(Arrays.copyOf(transactionBytes, (transactionBytes.length - 1)));
+        final ByteArray paddedBytes = MutableByteArray.wrap(Arrays.copyOf(transactionBytes, (transactionBytes.length + 1)));
+
+        // Action
+        final TransactionView truncatedTransactionView = TransactionView.wrap(truncatedBytes);
+        final TransactionView paddedTransactionView = TransactionView.wrap(paddedBytes);
+
+        // Assert
+        Assert.assertNull(truncatedTransactionView);
+        Assert.assertNull(paddedTransactionView);
+    }
+
+    @Test
+    public void should_index_the_same_transactions_as_the_inflated_block() {
+        // Setup
+        final ByteArray blockBytes = ByteArray.fromHexString(IoUtil.getResource("/blocks/00000000AFE94C578B4DC327AA64E1203283C5FD5F152CE886341766298CF523"));
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(blockBytes);
+
+        // Action
+        final BlockView blockView = BlockView.wrap(blockBytes);
+
+        // Assert
+        Assert.assertNotNull(blockView);
+        Assert.assertEquals(block.getHash(), blockView.getHash());
+
+        final List<Transaction> transactions = block.getTransactions();
+        Assert.assertEquals(transactions.getCount(), blockView.getTransactionCount().intValue());
+        for (int i = 0; i < transactions.getCount(); ++i) {
+            final Transaction transaction = transactions.get(i);
+            Assert.assertEquals(transaction.getHash(), blockView.getTransactionHash(i));
+            Assert.assertEquals(transaction.getByteCount(), blockView.getTransactionByteCount(i));
+            Assert.assertEquals(transaction.getTransactionInputs().getCount(), blockView.getTransaction(i).getTransactionInputCount().intValue());
+        }
+    }
+
+    @Test
+    public void should_read_transactions_in_place_within_the_block() {
+        // Setup
+        final ByteArray blockBytes = ByteArray.fromHexString(IoUtil.getResource("/blocks/00000000AFE94C578B4DC327AA64E1203283C5FD5F152CE886341766298CF523"));
+        final BlockInflater blockInflater = new BlockInflater();
+        final Block block = blockInflater.fromBytes(blockBytes);
+        final List<Transaction> transactions = block.getTransactions();
+
+        // Action
+        final BlockView blockView = BlockView.wrap(blockBytes);
+
+        // Assert
+        for (int i = 0; i < transactions.getCount(); ++i) {
+            final Transaction transaction = transactions.get(i);
+            final TransactionView transactionView = blockView.getTransaction(i);
+
+            Assert.assertEquals(transaction.getHash(), transactionView.getHash());
+            Assert.assertEquals(transaction.getByteCount(), transactionView.getByteCount());
+            Assert.assertEquals(transaction.getVersion(), transactionView.getVersion());
+            Assert.assertEquals(transaction.getLockTime().getValue(), transactionView.getLockTime().getValue());
+            Assert.assertEquals(transaction.getTotalOutputValue(), transactionView.getTotalOutputValue());
+            Assert.assertEquals(transaction.getHash(), TransactionView.wrap(transactionView.getBytes()).getHash());
+
+            final List<TransactionInput> transactionInputs = transaction.getTransactionInputs();
+            for (int inputIndex = 0; inputIndex < transactionInputs.getCount(); ++inputIndex) {
+                final TransactionInput transactionInput = transactionInputs.get(inputIndex);
+                Assert.assertEquals(TransactionOutputIdentifier.fromTransactionInput(transactionInput), transactionView.getPreviousTransactionOutputIdentifier(inputIndex));
+            }
+
+            final List<TransactionOutput> transactionOutputs = transaction.getTransactionOutputs();
+            for (int outputIndex = 0; outputIndex < transactionOutputs.getCount(); ++outputIndex) {
+                final TransactionOutput transactionOutput = transactionOutputs.get(outputIndex);
+                Assert.assertEquals(transactionOutput.getAmount(), transactionView.getTransactionOutputAmount(outputIndex));
+                Assert.assertEquals(transactionOutput.getLockingScript(), transactionView.getLockingScript(outputIndex));
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.softwareverde.constable.list.List;
 import com.softwareverde.constable.list.mutable.MutableList;
 import com.softwareverde.cryptography.secp256k1.key.PrivateKey;
 import com.softwareverde.cryptography.util.HashUtil;
+import com.softwareverde.util.Container;
 import com.softwareverde.util.Tuple;
 import org.junit.After;
 import org.junit.Assert;
@@ -217,4 +218,116 @@ public class WalletTests extends UnitTest {
         Assert.assertEquals(Long.valueOf(12405L), balance);
         Assert.assertEquals(Long.valueOf(0L), totalBalance);
     }
+
+    @Test
+    public void should_update_balances_and_spendable_outputs_when_outputs_are_spent() {
+        // Setup
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final AddressInflater addressInflater = new AddressInflater();
+        final Address address = addressInflater.fromPrivateKey(privateKey, true);
+        final Address otherAddress = addressInflater.fromPrivateKey(PrivateKey.createNewKey(), true);
+
+        final MutableTransaction fundingTransaction = new MutableTransaction();
+        {
+            fundingTransaction.addTransactionInput(new MutableTransactionInput());
+
+            final MutableTransactionOutput output0 = new MutableTransactionOutput();
+            output0.setIndex(0);
+            output0.setAmount(1000L);
+            output0.setLockingScript(ScriptBuilder.payToAddress(address));
+            fundingTransaction.addTransactionOutput(output0);
+
+            final MutableTransactionOutput output1 = new MutableTransactionOutput();
+            output1.setIndex(1);
+            output1.setAmount(2000L);
+            output1.setLockingScript(ScriptBuilder.payToAddress(address));
+            fundingTransaction.addTransactionOutput(output1);
+        }
+
+        final MutableTransaction spendingTransaction = new MutableTransaction();
+        {
+            final MutableTransactionInput transactionInput = new MutableTransactionInput();
+            transactionInput.setPreviousOutputTransactionHash(fundingTransaction.getHash());
+            transactionInput.setPreviousOutputIndex(0);
+            spendingTransaction.addTransactionInput(transactionInput);
+
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(0);
+            transactionOutput.setAmount(500L);
+            transactionOutput.setLockingScript(ScriptBuilder.payToAddress(otherAddress));
+            spendingTransaction.addTransactionOutput(transactionOutput);
+        }
+
+        final Wallet wallet = new Wallet();
+        wallet.addPrivateKey(privateKey);
+        wallet.addTransaction(fundingTransaction);
+
+        final Long balanceBeforeSpend = wallet.getBalance();
+
+        // Action
+        wallet.addTransaction(spendingTransaction);
+        final Long balance = wallet.getBalance();
+        final Long publicKeyBalance = wallet.getBalance(privateKey.getPublicKey());
+        final List<TransactionOutputIdentifier> transactionOutputsToSpend = wallet.getOutputsToSpend(1, 1000L);
+
+        // Assert
+        Assert.assertEquals(Long.valueOf(3000L), balanceBeforeSpend);
+        Assert.assertEquals(Long.valueOf(2000L), balance);
+        Assert.assertEquals(Long.valueOf(2000L), publicKeyBalance);
+        Assert.assertEquals(Long.valueOf(0L), wallet.getWatchedBalance(otherAddress));
+
+        Assert.assertNotNull(transactionOutputsToSpend);
+        Assert.assertEquals(1, transactionOutputsToSpend.getCount());
+        Assert.assertEquals(new TransactionOutputIdentifier(fundingTransaction.getHash(), 1), transactionOutputsToSpend.get(0));
+    }
+
+    @Test
+    public void should_read_balance_snapshot_while_a_writer_holds_the_wallet() throws Exception {
+        // Setup
+        final PrivateKey privateKey = PrivateKey.createNewKey();
+        final AddressInflater addressInflater = new AddressInflater();
+        final Address address = addressInflater.fromPrivateKey(privateKey, true);
+
+        final MutableList<Transaction> transactions = new MutableList<>();
+        for (int i = 0; i < 2; ++i) {
+            final MutableTransactionInput transactionInput = new MutableTransactionInput();
+            transactionInput.setPreviousOutputIndex(i);
+
+            final MutableTransactionOutput transactionOutput = new MutableTransactionOutput();
+            transactionOutput.setIndex(0);
+            transactionOutput.setAmount(1000L);
+            transactionOutput.setLockingScript(ScriptBuilder.payToAddress(address));
+
+            final MutableTransaction transaction = new MutableTransaction();
+            transaction.addTransactionInput(transactionInput);
+            transaction.addTransactionOutput(transactionOutput);
+            transactions.add(transaction);
+        }
+
+        final Wallet wallet = new Wallet();
+        wallet.addPrivateKey(privateKey);
+        wallet.addTransactions(transactions);
+
+        final Container<Long> balance = new Container<>();
+        final Thread readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                balance.value = wallet.getBalance();
+            }
+        });
+
+        // Action
+        wallet._writeLock.lock();
+        try {
+            readerThread.start();
+            readerThread.join(5000L);
+        }
+        finally {
+            wallet._writeLock.unlock();
+        }
+
+        // Assert
+        Assert.assertFalse(readerThread.isAlive());
+        Assert.assertEquals(Long.valueOf(2000L), balance.value);
+    }
 }